@@ -465,7 +465,7 @@
  */
 package io.github.erp.aop.businessDocuments;
 
-import io.github.erp.internal.files.FileStorageService;
+import io.github.erp.internal.files.documents.BusinessDocumentContentService;
 import io.github.erp.internal.files.documents.FileAttachmentService;
 import io.github.erp.internal.model.BusinessDocumentFSO;
 import io.github.erp.internal.model.mapping.BusinessDocumentFSOMapping;
@@ -473,7 +473,6 @@ import io.github.erp.internal.service.applicationUser.InternalApplicationUserDet
 import io.github.erp.service.BusinessDocumentService;
 import io.github.erp.service.mapper.ApplicationUserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -487,8 +486,7 @@ public class BusinessDocumentFilingAspectConfiguration {
     private BusinessDocumentFSOMapping businessDocumentFSOMapping;
 
     @Autowired
-    @Qualifier("businessDocumentFSStorageService")
-    private FileStorageService fileStorageService;
+    private BusinessDocumentContentService businessDocumentContentService;
 
     @Autowired
     private FileAttachmentService<BusinessDocumentFSO> businessDocumentFileAttachmentService;
@@ -501,7 +499,7 @@ public class BusinessDocumentFilingAspectConfiguration {
 
     @Bean
     public BusinessDocumentsFilingInterceptor businessDocumentsFilingInterceptor() {
-        return new BusinessDocumentsFilingInterceptor(applicationUserMapper, userDetailService,businessDocumentService, businessDocumentFSOMapping, fileStorageService);
+        return new BusinessDocumentsFilingInterceptor(applicationUserMapper, userDetailService,businessDocumentService, businessDocumentFSOMapping, businessDocumentContentService);
     }
 
     @Bean
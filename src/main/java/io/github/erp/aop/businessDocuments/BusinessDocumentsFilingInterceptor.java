@@ -466,7 +466,7 @@
 package io.github.erp.aop.businessDocuments;
 
 import io.github.erp.domain.ApplicationUser;
-import io.github.erp.internal.files.FileStorageService;
+import io.github.erp.internal.files.documents.BusinessDocumentContentService;
 import io.github.erp.internal.model.BusinessDocumentFSO;
 import io.github.erp.internal.model.mapping.BusinessDocumentFSOMapping;
 import io.github.erp.internal.service.applicationUser.InternalApplicationUserDetailService;
@@ -482,11 +482,10 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Optional;
@@ -506,7 +505,7 @@ public class BusinessDocumentsFilingInterceptor {
 
     private final BusinessDocumentFSOMapping businessDocumentFSOMapping;
 
-    private final FileStorageService fileStorageService;
+    private final BusinessDocumentContentService businessDocumentContentService;
 
     private final InternalApplicationUserDetailService userDetailService;
 
@@ -517,10 +516,10 @@ public class BusinessDocumentsFilingInterceptor {
         InternalApplicationUserDetailService userDetailService,
         BusinessDocumentService businessDocumentService,
         BusinessDocumentFSOMapping businessDocumentFSOMapping,
-        @Qualifier("businessDocumentFSStorageService") FileStorageService fileStorageService) {
+        BusinessDocumentContentService businessDocumentContentService) {
         this.businessDocumentService = businessDocumentService;
         this.businessDocumentFSOMapping = businessDocumentFSOMapping;
-        this.fileStorageService = fileStorageService;
+        this.businessDocumentContentService = businessDocumentContentService;
         this.applicationUserMapper = applicationUserMapper;
         this.userDetailService = userDetailService;
     }
@@ -529,7 +528,6 @@ public class BusinessDocumentsFilingInterceptor {
     public ResponseEntity<BusinessDocumentFSO> documentFilingResponse(ProceedingJoinPoint joinPoint) throws Throwable {
         Logger log = logger(joinPoint);
         String message = "";
-        MultipartFile file;
         if (log.isDebugEnabled()) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
@@ -556,13 +554,14 @@ public class BusinessDocumentsFilingInterceptor {
                 throw new BadRequestAlertException("A new businessDocument cannot already have an ID", ENTITY_NAME, "idexists");
             }
 
-            file = compileMultipart(bDoc);
-
-            fileStorageService.save(file);
-
-            // message = "Uploaded the file successfully: " + file.getOriginalFilename();
+            if (bDoc.getDocumentFile() != null) {
+                // The decoded bytes are hashed into the content-addressed store, so a re-filed scan is kept once
+                result = businessDocumentContentService
+                    .storeContent(result.getId(), bDoc.getDocumentFileContentType(), new ByteArrayInputStream(bDoc.getDocumentFile()))
+                    .orElse(result);
+            }
 
-            log.info("{} uploaded successfully", file.getOriginalFilename());
+            log.info("Business document serial: {} filed successfully", bDoc.getDocumentSerial());
 
 
             if (log.isDebugEnabled()) {
@@ -587,10 +586,6 @@ public class BusinessDocumentsFilingInterceptor {
         }
     }
 
-    private MultipartFile compileMultipart(BusinessDocumentFSO bDoc) {
-        return  new DecodedMultipartFile(bDoc);
-    }
-
     /**
      * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
      *
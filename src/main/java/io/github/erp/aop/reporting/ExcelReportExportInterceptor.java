@@ -21,20 +21,21 @@ import io.github.erp.domain.ReportStatus;
 import io.github.erp.internal.repository.InternalProcessStatusRepository;
 import io.github.erp.internal.repository.InternalReportStatusRepository;
 import io.github.erp.internal.report.assemblies.ReportAssemblyService;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
 import io.github.erp.service.ExcelReportExportService;
 import io.github.erp.service.dto.ExcelReportExportDTO;
 import io.github.erp.service.dto.ReportStatusDTO;
 import io.github.erp.service.mapper.ReportStatusMapper;
-import lombok.SneakyThrows;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -42,7 +43,9 @@ import java.util.concurrent.atomic.AtomicReference;
  * functionality of creating a report from a template obtained from the report-design entity
  */
 // @Aspect
-public class ExcelReportExportInterceptor {
+public class ExcelReportExportInterceptor implements ReportExecutionHandler<ExcelReportExportDTO> {
+
+    public static final String REPORT_TYPE = "excel-report-export";
 
     private final static Logger log = LoggerFactory.getLogger(ExcelReportExportInterceptor.class);
 
@@ -51,13 +54,15 @@ public class ExcelReportExportInterceptor {
     private final InternalReportStatusRepository reportStatusRepository;
     private final ExcelReportExportService reportRequisitionService;
     private final ReportAssemblyService<ExcelReportExportDTO> reportAssemblyService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
 
-    public ExcelReportExportInterceptor(ReportStatusMapper reportStatusMapper, InternalProcessStatusRepository processStatusRepository, InternalReportStatusRepository reportStatusRepository, ExcelReportExportService reportRequisitionService, ReportAssemblyService<ExcelReportExportDTO> reportAssemblyService) {
+    public ExcelReportExportInterceptor(ReportStatusMapper reportStatusMapper, InternalProcessStatusRepository processStatusRepository, InternalReportStatusRepository reportStatusRepository, ExcelReportExportService reportRequisitionService, ReportAssemblyService<ExcelReportExportDTO> reportAssemblyService, ReportExecutionScheduler reportExecutionScheduler) {
         this.reportStatusMapper = reportStatusMapper;
         this.processStatusRepository = processStatusRepository;
         this.reportStatusRepository = reportStatusRepository;
         this.reportRequisitionService = reportRequisitionService;
         this.reportAssemblyService = reportAssemblyService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
     }
 
     @AfterReturning(
@@ -75,14 +80,36 @@ public class ExcelReportExportInterceptor {
 
         reportDTO.setReportStatus(reportStatusMapper.toDto(acceptReportStatus(reportDTO)));
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(ExcelReportExportDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<ExcelReportExportDTO> findRequisition(Long requisitionId) {
+        return reportRequisitionService.findOne(requisitionId);
+    }
 
-        reportRequisitionService.findOne(reportDTO.getId()).ifPresent(this::updateReport);
+    @Override
+    public void execute(ExcelReportExportDTO requisition) {
+        createReport(requisition);
+
+        updateReport(requisition);
+    }
 
+    @Override
+    public String tenantOf(ExcelReportExportDTO requisition) {
+        return requisition.getOrganization() == null ? null : requisition.getOrganization().getDealerName();
     }
 
-    @SneakyThrows
-    @Async
     void createReport(ExcelReportExportDTO reportRequisitionDTO) {
 
         long start = System.currentTimeMillis();
@@ -92,7 +119,6 @@ public class ExcelReportExportInterceptor {
         log.info("Report created successfully in {} milliseconds and set on the path {}", System.currentTimeMillis() - start, reportPath);
     }
 
-    @Async
     void updateReport(ExcelReportExportDTO report) {
 
         log.info("Updating report status for xlsx report ID {}", report.getId());
@@ -19,36 +19,42 @@ package io.github.erp.aop.reporting;
  */
 import io.github.erp.domain.enumeration.ReportStatusTypes;
 import io.github.erp.internal.report.assemblies.ReportAssemblyService;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
 import io.github.erp.service.PdfReportRequisitionService;
 import io.github.erp.service.dto.PdfReportRequisitionDTO;
-import lombok.SneakyThrows;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
 
 /**
  * Intercepts the response after a pdf-report-requisition is created and triggers the actual
  * report creation process
  */
 // @Aspect
-public class PDFReportRequisitionInterceptor {
+public class PDFReportRequisitionInterceptor implements ReportExecutionHandler<PdfReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "pdf-report-requisition";
+
     private static final Logger log = LoggerFactory.getLogger(PDFReportRequisitionInterceptor.class);
 
     private final PdfReportRequisitionService pdfReportRequisitionService;
     private final ReportAssemblyService<PdfReportRequisitionDTO> reportRequisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
 
     public PDFReportRequisitionInterceptor(
         ReportAssemblyService<PdfReportRequisitionDTO> reportRequisitionService,
-        PdfReportRequisitionService pdfReportRequisitionService) {
+        PdfReportRequisitionService pdfReportRequisitionService,
+        ReportExecutionScheduler reportExecutionScheduler) {
         this.reportRequisitionService = reportRequisitionService;
         this.pdfReportRequisitionService = pdfReportRequisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
     }
 
     @AfterReturning(
@@ -64,48 +70,50 @@ public class PDFReportRequisitionInterceptor {
 
         log.info("PDF report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(PdfReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<PdfReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return pdfReportRequisitionService.findOne(requisitionId);
+    }
 
-        pdfReportRequisitionService.findOne(reportDTO.getId()).ifPresent(this::updateReport);
+    @Override
+    public void execute(PdfReportRequisitionDTO requisition) {
+        createReport(requisition);
 
+        updateReport(requisition);
     }
 
-    @SneakyThrows
-    @Async
     void createReport(PdfReportRequisitionDTO pdfReportRequisitionDTO) {
 
         long start = System.currentTimeMillis();
 
-        CompletableFuture<String> reportCreation = CompletableFuture.supplyAsync(() -> reportRequisitionService.createReport(pdfReportRequisitionDTO, ".pdf"));
-
-        reportCreation.thenApplyAsync(reportPath -> {
-            log.info("Report created successfully in {} milliseconds and set on the path {}", System.currentTimeMillis() - start, reportPath);
-            return reportPath;
-        });
+        String reportPath = reportRequisitionService.createReport(pdfReportRequisitionDTO, ".pdf");
 
+        log.info("Report created successfully in {} milliseconds and set on the path {}", System.currentTimeMillis() - start, reportPath);
     }
 
-    @Async
-    @SneakyThrows
     void updateReport(PdfReportRequisitionDTO report) {
 
         log.info("Updating report status for pdf report ID {}", report.getId());
 
         long start = System.currentTimeMillis();
 
-        CompletableFuture<PdfReportRequisitionDTO> reportAcquisition = CompletableFuture.supplyAsync(() -> pdfReportRequisitionService.findOne(report.getId()).get());
-
-        reportAcquisition.thenApplyAsync(rpt -> {
-            rpt.setReportStatus(ReportStatusTypes.SUCCESSFUL);
-            return pdfReportRequisitionService.partialUpdate(rpt);
+        pdfReportRequisitionService.findOne(report.getId()).ifPresent(found -> {
+            found.setReportStatus(ReportStatusTypes.SUCCESSFUL);
+            pdfReportRequisitionService.partialUpdate(found);
+            log.info("Report status change complete for pdf report ID {} in {} milliseconds", found.getId(), System.currentTimeMillis() - start);
         });
-
-        reportAcquisition.thenApplyAsync(rpt -> {
-            log.info("Report status change complete for pdf report ID {} in {} milliseconds", rpt.getId(), System.currentTimeMillis() - start);
-            return rpt;
-        });
-
-        reportAcquisition.get();
     }
-
 }
@@ -19,37 +19,42 @@ package io.github.erp.aop.reporting;
  */
 import io.github.erp.domain.enumeration.ReportStatusTypes;
 import io.github.erp.internal.report.assemblies.ReportAssemblyService;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
 import io.github.erp.service.ReportContentTypeService;
 import io.github.erp.service.ReportRequisitionService;
 import io.github.erp.service.dto.ReportContentTypeDTO;
 import io.github.erp.service.dto.ReportRequisitionDTO;
-import lombok.SneakyThrows;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Aspect for running report requests upon intercepting the response to the client
  */
 // @Aspect
-public class ReportRequisitionInterceptor {
+public class ReportRequisitionInterceptor implements ReportExecutionHandler<ReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "report-requisition";
 
     private static final Logger log = LoggerFactory.getLogger(ReportRequisitionInterceptor.class);
 
     private final ReportContentTypeService reportContentTypeService;
     private final ReportRequisitionService reportRequisitionService;
     private final ReportAssemblyService<ReportRequisitionDTO> reportAssemblyService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
 
-    public ReportRequisitionInterceptor(ReportContentTypeService reportContentTypeService, ReportRequisitionService reportRequisitionService, ReportAssemblyService<ReportRequisitionDTO> reportAssemblyService) {
+    public ReportRequisitionInterceptor(ReportContentTypeService reportContentTypeService, ReportRequisitionService reportRequisitionService, ReportAssemblyService<ReportRequisitionDTO> reportAssemblyService, ReportExecutionScheduler reportExecutionScheduler) {
         this.reportContentTypeService = reportContentTypeService;
         this.reportRequisitionService = reportRequisitionService;
         this.reportAssemblyService = reportAssemblyService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
     }
 
     @AfterReturning(
@@ -65,46 +70,54 @@ public class ReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
 
-        updateReport(reportDTO);
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
 
+    @Override
+    public Long requisitionId(ReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<ReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return reportRequisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(ReportRequisitionDTO requisition) {
+        createReport(requisition);
+
+        updateReport(requisition);
     }
 
-    @SneakyThrows
-    @Async
     void createReport(ReportRequisitionDTO reportRequisitionDTO) {
 
         long start = System.currentTimeMillis();
-        final ReportContentTypeDTO[] contentType = {null};
-
-        reportContentTypeService.findOne(reportRequisitionDTO.getReportContentType().getId()).ifPresent(cType -> {
-            contentType[0] = cType;
-        });
 
-        reportAssemblyService.createReport(reportRequisitionDTO, contentType[0].getReportFileExtension());
+        ReportContentTypeDTO contentType = reportContentTypeService.findOne(reportRequisitionDTO.getReportContentType().getId())
+            .orElseThrow(() -> new IllegalStateException("Report content type id " + reportRequisitionDTO.getReportContentType().getId() + " was not found"));
 
+        reportAssemblyService.createReport(reportRequisitionDTO, contentType.getReportFileExtension());
 
         log.info("Report created successfully in {} milliseconds and set on the path", System.currentTimeMillis() - start);
 
     }
 
-    @Async
-    @SneakyThrows
     void updateReport(ReportRequisitionDTO report) {
 
-        reportRequisitionService.findOne(report.getId()).ifPresent(rptDTO -> {
+        log.info("Updating report status for report ID {}", report.getId());
 
-            log.info("Updating report status for report ID {}", report.getId());
-
-            long start = System.currentTimeMillis();
-
-            reportRequisitionService.findOne(report.getId()).ifPresent(found -> {
-                found.setReportStatus(ReportStatusTypes.SUCCESSFUL);
-                reportRequisitionService.save(found);
-                log.info("Report status change complete for pdf report ID {} in {} milliseconds", found.getId(), System.currentTimeMillis() - start);
-            });
+        long start = System.currentTimeMillis();
 
+        reportRequisitionService.findOne(report.getId()).ifPresent(found -> {
+            found.setReportStatus(ReportStatusTypes.SUCCESSFUL);
+            reportRequisitionService.save(found);
+            log.info("Report status change complete for pdf report ID {} in {} milliseconds", found.getId(), System.currentTimeMillis() - start);
         });
     }
 }
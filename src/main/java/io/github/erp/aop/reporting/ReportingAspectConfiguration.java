@@ -33,6 +33,8 @@ import io.github.erp.aop.reporting.wip.*;
 import io.github.erp.domain.WIPTransferListReport;
 import io.github.erp.internal.report.service.DepreciationEntryExportReportService;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.repository.InternalProcessStatusRepository;
 import io.github.erp.internal.repository.InternalReportStatusRepository;
 import io.github.erp.internal.report.assemblies.ReportAssemblyService;
@@ -138,22 +140,55 @@ public class ReportingAspectConfiguration {
     @Autowired
     private ReportAttachmentService<WorkInProgressOutstandingReportRequisitionDTO> workInProgressOutstandingReportRequisitionReportAttachmentService;
 
+    @Autowired
+    private ReportExecutionScheduler reportExecutionScheduler;
+
+    @Autowired
+    private ReportOutputCopier reportOutputCopier;
+
+    @Autowired
+    private PrepaymentReportRequisitionService prepaymentReportRequisitionService;
+
+    @Autowired
+    private MonthlyPrepaymentReportRequisitionService monthlyPrepaymentReportRequisitionService;
+
+    @Autowired
+    private PrepaymentByAccountReportRequisitionService prepaymentByAccountReportRequisitionService;
+
+    @Autowired
+    private AmortizationPostingReportRequisitionService amortizationPostingReportRequisitionService;
+
+    @Autowired
+    private WorkInProgressOutstandingReportRequisitionService workInProgressOutstandingReportRequisitionService;
+
+    @Autowired
+    private WIPListReportService wipListReportService;
+
+    @Autowired
+    private WIPTransferListReportService wipTransferListReportService;
+
+    @Autowired
+    private AssetAdditionsReportService assetAdditionsReportService;
+
+    @Autowired
+    private DepreciationReportService depreciationReportService;
+
     @Bean
     public ReportRequisitionInterceptor reportRequisitionInterceptor() {
 
-        return new ReportRequisitionInterceptor(reportContentTypeService, reportRequisitionService, reportAssemblyService);
+        return new ReportRequisitionInterceptor(reportContentTypeService, reportRequisitionService, reportAssemblyService, reportExecutionScheduler);
     }
 
     @Bean
     public PDFReportRequisitionInterceptor pdfReportRequisitionInterceptor() {
 
-        return new PDFReportRequisitionInterceptor(pdfReportAssemblyService, pdfReportRequisitionService);
+        return new PDFReportRequisitionInterceptor(pdfReportAssemblyService, pdfReportRequisitionService, reportExecutionScheduler);
     }
 
     @Bean
     public XLSXReportRequisitionInterceptor xlsxReportRequisitionInterceptor() {
 
-        return new XLSXReportRequisitionInterceptor(xlsxReportAssemblyService, xlsxReportRequisitionService);
+        return new XLSXReportRequisitionInterceptor(xlsxReportAssemblyService, xlsxReportRequisitionService, reportExecutionScheduler);
     }
 
     @Bean
@@ -163,7 +198,7 @@ public class ReportingAspectConfiguration {
 
     @Bean
     public ExcelReportExportInterceptor excelReportExportInterceptor() {
-        return new ExcelReportExportInterceptor(reportStatusMapper, processStatusRepository, reportStatusRepository, excelReportExportService, excelReportExportAssemblyService);
+        return new ExcelReportExportInterceptor(reportStatusMapper, processStatusRepository, reportStatusRepository, excelReportExportService, excelReportExportAssemblyService, reportExecutionScheduler);
     }
 
     @Bean
@@ -178,7 +213,7 @@ public class ReportingAspectConfiguration {
 
     @Bean
     public DepreciationReportInterceptor depreciationReportInterceptor() {
-        return new DepreciationReportInterceptor(depreciationEntryExportReportService);
+        return new DepreciationReportInterceptor(depreciationEntryExportReportService, depreciationReportService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -188,7 +223,7 @@ public class ReportingAspectConfiguration {
 
     @Bean
     public AssetAdditionsReportInterceptor assetAdditionsReportInterceptor() {
-        return new AssetAdditionsReportInterceptor(assetReportExportReportService);
+        return new AssetAdditionsReportInterceptor(assetReportExportReportService, assetAdditionsReportService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -198,7 +233,7 @@ public class ReportingAspectConfiguration {
 
     @Bean
     public PrepaymentReportRequisitionInterceptor prepaymentReportRequisitionInterceptor() {
-        return new PrepaymentReportRequisitionInterceptor(prepaymentReportExportReportService);
+        return new PrepaymentReportRequisitionInterceptor(prepaymentReportExportReportService, prepaymentReportRequisitionService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -208,7 +243,7 @@ public class ReportingAspectConfiguration {
 
     @Bean
     public AmortizationPostingReportRequisitionInterceptor amortizationPostingReportRequisitionInterceptor() {
-        return new AmortizationPostingReportRequisitionInterceptor(amortizationPostingReportRequisitionExportReportService);
+        return new AmortizationPostingReportRequisitionInterceptor(amortizationPostingReportRequisitionExportReportService, amortizationPostingReportRequisitionService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -219,14 +254,14 @@ public class ReportingAspectConfiguration {
     @Bean
     public PrepaymentByAccountReportRequisitionInterceptor prepaymentByAccountReportRequisitionInterceptor() {
 
-        return new PrepaymentByAccountReportRequisitionInterceptor(prepaymentByAccountReportRequisitionDTOExportReportService);
+        return new PrepaymentByAccountReportRequisitionInterceptor(prepaymentByAccountReportRequisitionDTOExportReportService, prepaymentByAccountReportRequisitionService, reportExecutionScheduler, reportOutputCopier);
     }
 
 
     @Bean
     public MonthlyPrepaymentReportRequisitionIntercept monthlyPrepaymentReportRequisitionIntercept() {
 
-        return new MonthlyPrepaymentReportRequisitionIntercept(prepaymentByAccountReportRequisitionExportReportService);
+        return new MonthlyPrepaymentReportRequisitionIntercept(prepaymentByAccountReportRequisitionExportReportService, monthlyPrepaymentReportRequisitionService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -244,7 +279,7 @@ public class ReportingAspectConfiguration {
     @Bean
     public WorkInProgressOutstandingReportRequisitionInterceptor workInProgressOutstandingReportRequisitionInterceptor() {
 
-        return new WorkInProgressOutstandingReportRequisitionInterceptor(workInProgressOutstandingReportRequisitionExportReportService);
+        return new WorkInProgressOutstandingReportRequisitionInterceptor(workInProgressOutstandingReportRequisitionExportReportService, workInProgressOutstandingReportRequisitionService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Bean
@@ -269,7 +304,7 @@ public class ReportingAspectConfiguration {
     @Bean
     public WIPListReportRequisitionInterceptor wipListReportRequisitionInterceptor() {
 
-        return new WIPListReportRequisitionInterceptor(wipListReportRequisitionExportReportService);
+        return new WIPListReportRequisitionInterceptor(wipListReportRequisitionExportReportService, wipListReportService, reportExecutionScheduler, reportOutputCopier);
     }
 
     @Autowired
@@ -288,6 +323,6 @@ public class ReportingAspectConfiguration {
     @Bean
     public WIPTransferListReportRequisitionInterceptor wipTransferListReportRequisitionInterceptor() {
 
-        return new WIPTransferListReportRequisitionInterceptor(wipTransferListReportDTOExportReportService);
+        return new WIPTransferListReportRequisitionInterceptor(wipTransferListReportDTOExportReportService, wipTransferListReportService, reportExecutionScheduler, reportOutputCopier);
     }
 }
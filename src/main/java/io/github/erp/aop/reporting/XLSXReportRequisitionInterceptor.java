@@ -19,18 +19,19 @@ package io.github.erp.aop.reporting;
  */
 import io.github.erp.domain.enumeration.ReportStatusTypes;
 import io.github.erp.internal.report.assemblies.ReportAssemblyService;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
 import io.github.erp.service.XlsxReportRequisitionService;
 import io.github.erp.service.dto.XlsxReportRequisitionDTO;
-import lombok.SneakyThrows;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Designed to intercept the xlsx-report-requisition resource when creating a report. As the
@@ -38,15 +39,20 @@ import java.util.Objects;
  * with the work of assembling the report.
  */
 // @Aspect
-public class XLSXReportRequisitionInterceptor {
+public class XLSXReportRequisitionInterceptor implements ReportExecutionHandler<XlsxReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "xlsx-report-requisition";
+
     private static final Logger log = LoggerFactory.getLogger(XLSXReportRequisitionInterceptor.class);
 
     private final XlsxReportRequisitionService reportRequisitionService;
     private final ReportAssemblyService<XlsxReportRequisitionDTO> reportAssemblyService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
 
-    public XLSXReportRequisitionInterceptor(ReportAssemblyService<XlsxReportRequisitionDTO> reportAssemblyService, XlsxReportRequisitionService reportRequisitionService) {
+    public XLSXReportRequisitionInterceptor(ReportAssemblyService<XlsxReportRequisitionDTO> reportAssemblyService, XlsxReportRequisitionService reportRequisitionService, ReportExecutionScheduler reportExecutionScheduler) {
         this.reportRequisitionService = reportRequisitionService;
         this.reportAssemblyService = reportAssemblyService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
     }
 
     @AfterReturning(
@@ -62,14 +68,31 @@ public class XLSXReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(XlsxReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<XlsxReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return reportRequisitionService.findOne(requisitionId);
+    }
 
-        reportRequisitionService.findOne(reportDTO.getId()).ifPresent(this::updateReport);
+    @Override
+    public void execute(XlsxReportRequisitionDTO requisition) {
+        createReport(requisition);
 
+        updateReport(requisition);
     }
 
-    @SneakyThrows
-    @Async
     void createReport(XlsxReportRequisitionDTO reportRequisitionDTO) {
 
         long start = System.currentTimeMillis();
@@ -79,8 +102,6 @@ public class XLSXReportRequisitionInterceptor {
         log.info("Report created successfully in {} milliseconds and set on the path {}", System.currentTimeMillis() - start, reportPath);
     }
 
-    @Async
-    @SneakyThrows
     void updateReport(XlsxReportRequisitionDTO report) {
 
         log.info("Updating report status for xlsx report ID {}", report.getId());
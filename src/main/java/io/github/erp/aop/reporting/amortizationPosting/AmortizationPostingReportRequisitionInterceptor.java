@@ -35,7 +35,12 @@ package io.github.erp.aop.reporting.amortizationPosting;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.AmortizationPostingReportRequisitionService;
 import io.github.erp.service.dto.AmortizationPostingReportRequisitionDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -44,9 +49,9 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Amortization posting requisition intercept intercepts the API call for the AmortizationPostingReportRequisition
@@ -54,15 +59,26 @@ import java.util.Objects;
  * and export it to the file system.
  */
 // @Aspect
-public class AmortizationPostingReportRequisitionInterceptor {
+public class AmortizationPostingReportRequisitionInterceptor implements ReportExecutionHandler<AmortizationPostingReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "amortization-posting-report";
 
     private static final Logger log = LoggerFactory.getLogger(AmortizationPostingReportRequisitionInterceptor.class);
 
     private final ExportReportService<AmortizationPostingReportRequisitionDTO> amortizationPostingReportRequisitionExportReportService;
+    private final AmortizationPostingReportRequisitionService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
     public AmortizationPostingReportRequisitionInterceptor(
-        ExportReportService<AmortizationPostingReportRequisitionDTO> amortizationPostingReportRequisitionExportReportService){
+        ExportReportService<AmortizationPostingReportRequisitionDTO> amortizationPostingReportRequisitionExportReportService,
+        AmortizationPostingReportRequisitionService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.amortizationPostingReportRequisitionExportReportService = amortizationPostingReportRequisitionExportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -78,13 +94,42 @@ public class AmortizationPostingReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(AmortizationPostingReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<AmortizationPostingReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(AmortizationPostingReportRequisitionDTO requisition) {
+        amortizationPostingReportRequisitionExportReportService.exportReport(requisition);
     }
 
-    @Async
-    void createReport(AmortizationPostingReportRequisitionDTO reportDTO) {
+    @Override
+    public String fingerprint(AmortizationPostingReportRequisitionDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getAmortizationPeriod().getId());
+    }
+
+    @Override
+    public void shareOutput(AmortizationPostingReportRequisitionDTO generated, AmortizationPostingReportRequisitionDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        amortizationPostingReportRequisitionExportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(AmortizationPostingReportRequisitionDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.prepayments.AmortizationPostingReportRequisitionResourceProd.createAmortizationPostingReportRequisition(..))")
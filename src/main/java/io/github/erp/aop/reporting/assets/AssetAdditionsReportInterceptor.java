@@ -17,7 +17,12 @@ package io.github.erp.aop.reporting.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.AssetAdditionsReportService;
 import io.github.erp.service.dto.AssetAdditionsReportDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -26,19 +31,31 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class AssetAdditionsReportInterceptor {
+public class AssetAdditionsReportInterceptor implements ReportExecutionHandler<AssetAdditionsReportDTO> {
+
+    public static final String REPORT_TYPE = "asset-additions-report";
 
     private static final Logger log = LoggerFactory.getLogger(AssetAdditionsReportInterceptor.class);
 
     private final ExportReportService<AssetAdditionsReportDTO> assetReportExportReportService;
+    private final AssetAdditionsReportService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
-    public AssetAdditionsReportInterceptor(ExportReportService<AssetAdditionsReportDTO> assetReportExportReportService) {
+    public AssetAdditionsReportInterceptor(
+        ExportReportService<AssetAdditionsReportDTO> assetReportExportReportService,
+        AssetAdditionsReportService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.assetReportExportReportService = assetReportExportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -54,11 +71,42 @@ public class AssetAdditionsReportInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(AssetAdditionsReportDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<AssetAdditionsReportDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(AssetAdditionsReportDTO requisition) {
+        assetReportExportReportService.exportReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(AssetAdditionsReportDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getReportStartDate(), requisition.getReportEndDate());
+    }
+
+    @Override
+    public void shareOutput(AssetAdditionsReportDTO generated, AssetAdditionsReportDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
     }
 
-    @Async void createReport(AssetAdditionsReportDTO reportDTO) {
-        assetReportExportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(AssetAdditionsReportDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     /**
@@ -17,7 +17,12 @@ package io.github.erp.aop.reporting.depreciation;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.DepreciationEntryExportReportService;
+import io.github.erp.service.DepreciationReportService;
 import io.github.erp.service.dto.DepreciationReportDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -27,16 +32,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class DepreciationReportInterceptor {
+public class DepreciationReportInterceptor implements ReportExecutionHandler<DepreciationReportDTO> {
+
+    public static final String REPORT_TYPE = "depreciation-report";
 
     private static final Logger log = LoggerFactory.getLogger(DepreciationReportInterceptor.class);
 
     private final DepreciationEntryExportReportService depreciationEntryExportReportService;
+    private final DepreciationReportService depreciationReportService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
-    public DepreciationReportInterceptor(DepreciationEntryExportReportService depreciationEntryExportReportService) {
+    public DepreciationReportInterceptor(
+        DepreciationEntryExportReportService depreciationEntryExportReportService,
+        DepreciationReportService depreciationReportService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.depreciationEntryExportReportService = depreciationEntryExportReportService;
+        this.depreciationReportService = depreciationReportService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -52,7 +70,55 @@ public class DepreciationReportInterceptor {
 
         log.info("Depreciation report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        depreciationEntryExportReportService.exportDepreciationEntryReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    /**
+     * The export service keeps the requisition being exported in a field, so only one report at a time
+     */
+    @Override
+    public int getConcurrencyLimit() {
+        return 1;
+    }
+
+    @Override
+    public Long requisitionId(DepreciationReportDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<DepreciationReportDTO> findRequisition(Long requisitionId) {
+        return depreciationReportService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(DepreciationReportDTO requisition) {
+        depreciationEntryExportReportService.exportDepreciationEntryReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(DepreciationReportDTO requisition) {
+        return ReportFingerprint.of(
+            REPORT_TYPE,
+            requisition.getDepreciationPeriod().getId(),
+            requisition.getAssetCategory() == null ? null : requisition.getAssetCategory().getId(),
+            requisition.getServiceOutlet() == null ? null : requisition.getServiceOutlet().getId()
+        );
+    }
+
+    @Override
+    public void shareOutput(DepreciationReportDTO generated, DepreciationReportDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", depreciationReportService::save);
+    }
+
+    @Override
+    public String tenantOf(DepreciationReportDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
 }
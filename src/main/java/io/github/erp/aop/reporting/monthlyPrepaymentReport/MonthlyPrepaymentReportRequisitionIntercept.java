@@ -37,7 +37,12 @@ package io.github.erp.aop.reporting.monthlyPrepaymentReport;
  */
 
 import io.github.erp.aop.reporting.amortizationPosting.AmortizationPostingReportRequisitionInterceptor;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.MonthlyPrepaymentReportRequisitionService;
 import io.github.erp.service.dto.MonthlyPrepaymentReportRequisitionDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -46,21 +51,33 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class MonthlyPrepaymentReportRequisitionIntercept {
+public class MonthlyPrepaymentReportRequisitionIntercept implements ReportExecutionHandler<MonthlyPrepaymentReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "monthly-prepayment-report";
 
 
     private static final Logger log = LoggerFactory.getLogger(AmortizationPostingReportRequisitionInterceptor.class);
 
     private final ExportReportService<MonthlyPrepaymentReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService;
-
-    public MonthlyPrepaymentReportRequisitionIntercept(ExportReportService<MonthlyPrepaymentReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService) {
+    private final MonthlyPrepaymentReportRequisitionService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
+
+    public MonthlyPrepaymentReportRequisitionIntercept(
+        ExportReportService<MonthlyPrepaymentReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService,
+        MonthlyPrepaymentReportRequisitionService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.prepaymentByAccountReportRequisitionDTOExportReportService = prepaymentByAccountReportRequisitionDTOExportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -76,13 +93,42 @@ public class MonthlyPrepaymentReportRequisitionIntercept {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
     }
 
-    @Async
-    void createReport(MonthlyPrepaymentReportRequisitionDTO reportDTO) {
+    @Override
+    public Long requisitionId(MonthlyPrepaymentReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<MonthlyPrepaymentReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(MonthlyPrepaymentReportRequisitionDTO requisition) {
+        prepaymentByAccountReportRequisitionDTOExportReportService.exportReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(MonthlyPrepaymentReportRequisitionDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getFiscalYear().getId());
+    }
+
+    @Override
+    public void shareOutput(MonthlyPrepaymentReportRequisitionDTO generated, MonthlyPrepaymentReportRequisitionDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        prepaymentByAccountReportRequisitionDTOExportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(MonthlyPrepaymentReportRequisitionDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.prepayments.MonthlyPrepaymentReportRequisitionResourceProd.createMonthlyPrepaymentReportRequisition(..))")
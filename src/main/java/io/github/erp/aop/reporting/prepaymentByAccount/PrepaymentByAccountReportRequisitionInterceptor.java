@@ -37,7 +37,12 @@ package io.github.erp.aop.reporting.prepaymentByAccount;
  */
 
 import io.github.erp.aop.reporting.amortizationPosting.AmortizationPostingReportRequisitionInterceptor;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.PrepaymentByAccountReportRequisitionService;
 import io.github.erp.service.dto.PrepaymentByAccountReportRequisitionDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -46,19 +51,31 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class PrepaymentByAccountReportRequisitionInterceptor {
+public class PrepaymentByAccountReportRequisitionInterceptor implements ReportExecutionHandler<PrepaymentByAccountReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "prepayment-by-account-report";
 
     private static final Logger log = LoggerFactory.getLogger(AmortizationPostingReportRequisitionInterceptor.class);
 
     private final ExportReportService<PrepaymentByAccountReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService;
-
-    public PrepaymentByAccountReportRequisitionInterceptor(ExportReportService<PrepaymentByAccountReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService) {
+    private final PrepaymentByAccountReportRequisitionService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
+
+    public PrepaymentByAccountReportRequisitionInterceptor(
+        ExportReportService<PrepaymentByAccountReportRequisitionDTO> prepaymentByAccountReportRequisitionDTOExportReportService,
+        PrepaymentByAccountReportRequisitionService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.prepaymentByAccountReportRequisitionDTOExportReportService = prepaymentByAccountReportRequisitionDTOExportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -74,13 +91,42 @@ public class PrepaymentByAccountReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
     }
 
-    @Async
-    void createReport(PrepaymentByAccountReportRequisitionDTO reportDTO) {
+    @Override
+    public Long requisitionId(PrepaymentByAccountReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<PrepaymentByAccountReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(PrepaymentByAccountReportRequisitionDTO requisition) {
+        prepaymentByAccountReportRequisitionDTOExportReportService.exportReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(PrepaymentByAccountReportRequisitionDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getReportDate());
+    }
+
+    @Override
+    public void shareOutput(PrepaymentByAccountReportRequisitionDTO generated, PrepaymentByAccountReportRequisitionDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        prepaymentByAccountReportRequisitionDTOExportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(PrepaymentByAccountReportRequisitionDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.prepayments.PrepaymentByAccountReportRequisitionResourceProd.createPrepaymentByAccountReportRequisition(..))")
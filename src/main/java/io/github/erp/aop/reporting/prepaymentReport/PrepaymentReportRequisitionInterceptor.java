@@ -35,7 +35,12 @@ package io.github.erp.aop.reporting.prepaymentReport;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.PrepaymentReportRequisitionService;
 import io.github.erp.service.dto.PrepaymentReportRequisitionDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -44,24 +49,35 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Intercepts prepayment-report-requisition, and triggers a report-generation process using the
  * ExportReportService interface
  */
 @Aspect
-public class PrepaymentReportRequisitionInterceptor {
+public class PrepaymentReportRequisitionInterceptor implements ReportExecutionHandler<PrepaymentReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "prepayment-report";
 
     private static final Logger log = LoggerFactory.getLogger(PrepaymentReportRequisitionInterceptor.class);
 
     private final ExportReportService<PrepaymentReportRequisitionDTO> prepaymentReportExportReportService;
+    private final PrepaymentReportRequisitionService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
     public PrepaymentReportRequisitionInterceptor(
-        ExportReportService<PrepaymentReportRequisitionDTO> prepaymentReportExportReportService) {
+        ExportReportService<PrepaymentReportRequisitionDTO> prepaymentReportExportReportService,
+        PrepaymentReportRequisitionService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.prepaymentReportExportReportService = prepaymentReportExportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -77,12 +93,42 @@ public class PrepaymentReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(PrepaymentReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<PrepaymentReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(PrepaymentReportRequisitionDTO requisition) {
+        prepaymentReportExportReportService.exportReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(PrepaymentReportRequisitionDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getReportDate());
+    }
+
+    @Override
+    public void shareOutput(PrepaymentReportRequisitionDTO generated, PrepaymentReportRequisitionDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
     }
 
-    @Async
-    void createReport(PrepaymentReportRequisitionDTO reportDTO) {
-        prepaymentReportExportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(PrepaymentReportRequisitionDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.prepayments.PrepaymentReportRequisitionResourceProd.createPrepaymentReportRequisition(..))")
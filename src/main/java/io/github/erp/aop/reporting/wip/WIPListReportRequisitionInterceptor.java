@@ -19,7 +19,12 @@ package io.github.erp.aop.reporting.wip;
  */
 
 import io.github.erp.aop.reporting.amortizationPosting.AmortizationPostingReportRequisitionInterceptor;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.WIPListReportService;
 import io.github.erp.service.dto.WIPListReportDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -29,19 +34,31 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class WIPListReportRequisitionInterceptor {
+public class WIPListReportRequisitionInterceptor implements ReportExecutionHandler<WIPListReportDTO> {
+
+    public static final String REPORT_TYPE = "wip-list-report";
 
     private static final Logger log = LoggerFactory.getLogger(AmortizationPostingReportRequisitionInterceptor.class);
 
     private final ExportReportService<WIPListReportDTO> exportReportService;
-
-    public WIPListReportRequisitionInterceptor(ExportReportService<WIPListReportDTO> exportReportService) {
+    private final WIPListReportService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
+
+    public WIPListReportRequisitionInterceptor(
+        ExportReportService<WIPListReportDTO> exportReportService,
+        WIPListReportService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.exportReportService = exportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -57,13 +74,42 @@ public class WIPListReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
     }
 
-    @Async
-    void createReport(WIPListReportDTO reportDTO) {
+    @Override
+    public Long requisitionId(WIPListReportDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<WIPListReportDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(WIPListReportDTO requisition) {
+        exportReportService.exportReport(requisition);
+    }
+
+    @Override
+    public String fingerprint(WIPListReportDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE);
+    }
+
+    @Override
+    public void shareOutput(WIPListReportDTO generated, WIPListReportDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        exportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(WIPListReportDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.wip.WIPListReportResourceProd.createWIPListReport(..))")
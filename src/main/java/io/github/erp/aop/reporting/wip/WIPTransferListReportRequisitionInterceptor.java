@@ -18,7 +18,12 @@ package io.github.erp.aop.reporting.wip;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.WIPTransferListReportService;
 import io.github.erp.service.dto.WIPTransferListReportDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -27,18 +32,30 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 @Slf4j
 // @Aspect
-public class WIPTransferListReportRequisitionInterceptor {
+public class WIPTransferListReportRequisitionInterceptor implements ReportExecutionHandler<WIPTransferListReportDTO> {
+
+    public static final String REPORT_TYPE = "wip-transfer-list-report";
 
     private final ExportReportService<WIPTransferListReportDTO> exportReportService;
+    private final WIPTransferListReportService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
-    public WIPTransferListReportRequisitionInterceptor(ExportReportService<WIPTransferListReportDTO> exportReportService) {
+    public WIPTransferListReportRequisitionInterceptor(
+        ExportReportService<WIPTransferListReportDTO> exportReportService,
+        WIPTransferListReportService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.exportReportService = exportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -54,13 +71,42 @@ public class WIPTransferListReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(WIPTransferListReportDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<WIPTransferListReportDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(WIPTransferListReportDTO requisition) {
+        exportReportService.exportReport(requisition);
     }
 
-    @Async
-    void createReport(WIPTransferListReportDTO reportDTO) {
+    @Override
+    public String fingerprint(WIPTransferListReportDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE);
+    }
+
+    @Override
+    public void shareOutput(WIPTransferListReportDTO generated, WIPTransferListReportDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        exportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(WIPTransferListReportDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.wip.WIPTransferListReportResourceProd.createWIPTransferListReport(..))")
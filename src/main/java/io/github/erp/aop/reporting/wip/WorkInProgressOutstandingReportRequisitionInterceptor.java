@@ -36,7 +36,12 @@ package io.github.erp.aop.reporting.wip;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.aop.reporting.amortizationPosting.AmortizationPostingReportRequisitionInterceptor;
+import io.github.erp.internal.report.execution.ReportExecutionHandler;
+import io.github.erp.internal.report.execution.ReportExecutionScheduler;
+import io.github.erp.internal.report.execution.ReportFingerprint;
+import io.github.erp.internal.report.execution.ReportOutputCopier;
 import io.github.erp.internal.report.service.ExportReportService;
+import io.github.erp.service.WorkInProgressOutstandingReportRequisitionService;
 import io.github.erp.service.dto.WorkInProgressOutstandingReportRequisitionDTO;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -45,19 +50,31 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Objects;
+import java.util.Optional;
 
 // @Aspect
-public class WorkInProgressOutstandingReportRequisitionInterceptor {
+public class WorkInProgressOutstandingReportRequisitionInterceptor implements ReportExecutionHandler<WorkInProgressOutstandingReportRequisitionDTO> {
+
+    public static final String REPORT_TYPE = "wip-outstanding-report";
 
     private static final Logger log = LoggerFactory.getLogger(AmortizationPostingReportRequisitionInterceptor.class);
 
     private final ExportReportService<WorkInProgressOutstandingReportRequisitionDTO> exportReportService;
+    private final WorkInProgressOutstandingReportRequisitionService requisitionService;
+    private final ReportExecutionScheduler reportExecutionScheduler;
+    private final ReportOutputCopier reportOutputCopier;
 
-    public WorkInProgressOutstandingReportRequisitionInterceptor(ExportReportService<WorkInProgressOutstandingReportRequisitionDTO> exportReportService) {
+    public WorkInProgressOutstandingReportRequisitionInterceptor(
+        ExportReportService<WorkInProgressOutstandingReportRequisitionDTO> exportReportService,
+        WorkInProgressOutstandingReportRequisitionService requisitionService,
+        ReportExecutionScheduler reportExecutionScheduler,
+        ReportOutputCopier reportOutputCopier) {
         this.exportReportService = exportReportService;
+        this.requisitionService = requisitionService;
+        this.reportExecutionScheduler = reportExecutionScheduler;
+        this.reportOutputCopier = reportOutputCopier;
     }
 
     @AfterReturning(
@@ -73,13 +90,42 @@ public class WorkInProgressOutstandingReportRequisitionInterceptor {
 
         log.info("Report requisition with id: {} has been registered, with entity id # {} commencing report creation sequence...", reportId, entityId);
 
-        createReport(reportDTO);
+        reportExecutionScheduler.submit(REPORT_TYPE, reportDTO);
+    }
+
+    @Override
+    public String getReportType() {
+        return REPORT_TYPE;
+    }
+
+    @Override
+    public Long requisitionId(WorkInProgressOutstandingReportRequisitionDTO requisition) {
+        return requisition.getId();
+    }
+
+    @Override
+    public Optional<WorkInProgressOutstandingReportRequisitionDTO> findRequisition(Long requisitionId) {
+        return requisitionService.findOne(requisitionId);
+    }
+
+    @Override
+    public void execute(WorkInProgressOutstandingReportRequisitionDTO requisition) {
+        exportReportService.exportReport(requisition);
     }
 
-    @Async
-    void createReport(WorkInProgressOutstandingReportRequisitionDTO reportDTO) {
+    @Override
+    public String fingerprint(WorkInProgressOutstandingReportRequisitionDTO requisition) {
+        return ReportFingerprint.of(REPORT_TYPE, requisition.getReportDate());
+    }
+
+    @Override
+    public void shareOutput(WorkInProgressOutstandingReportRequisitionDTO generated, WorkInProgressOutstandingReportRequisitionDTO collapsed) {
+        reportOutputCopier.shareOutput(generated, collapsed, ".csv", requisitionService::save);
+    }
 
-        exportReportService.exportReport(reportDTO);
+    @Override
+    public String tenantOf(WorkInProgressOutstandingReportRequisitionDTO requisition) {
+        return ReportExecutionHandler.organisationOf(requisition.getRequestedBy());
     }
 
     @Pointcut("execution(* io.github.erp.erp.resources.wip.WorkInProgressOutstandingReportRequisitionResourceProd.createWorkInProgressOutstandingReportRequisition(..))")
@@ -24,6 +24,7 @@ import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,12 +34,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
@@ -76,6 +81,24 @@ public class AuditKafkaConfiguration {
     @Value("${spring.kafka.topics.audit-events.replication-factor:3}")
     private short replicationFactor;
 
+    @Value("${erp.audit.indexing.batch-size:1000}")
+    private int indexingBatchSize;
+
+    @Value("${erp.audit.indexing.fetch-min-bytes:262144}")
+    private int indexingFetchMinBytes;
+
+    @Value("${erp.audit.indexing.max-wait-millis:1000}")
+    private int indexingMaxWaitMillis;
+
+    @Value("${erp.audit.indexing.max-retry-interval-millis:60000}")
+    private long indexingMaxRetryIntervalMillis;
+
+    @Value("${erp.audit.indexing.max-retry-elapsed-millis:900000}")
+    private long indexingMaxRetryElapsedMillis;
+
+    @Value("${erp.audit.indexing.dead-letter-suffix:.DLT}")
+    private String indexingDeadLetterSuffix;
+
     @Bean
     public KafkaAdmin auditKafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -217,6 +240,75 @@ public class AuditKafkaConfiguration {
         return factory;
     }
 
+    /**
+     * Batch consumers for the Elasticsearch indexing listeners. A poll returns once it has
+     * {@code fetch-min-bytes} of records or has waited {@code max-wait-millis}, and never more than
+     * {@code batch-size} records, so each bulk request carries either a full batch or whatever
+     * arrived within the wait.
+     */
+    @Bean
+    public ConsumerFactory<String, AuditTrailEvent> auditTrailEventIndexingConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(indexingConsumerProps(auditTrailEventConsumerFactory().getConfigurationProperties()));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AuditTrailEvent> auditTrailEventBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AuditTrailEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(auditTrailEventIndexingConsumerFactory());
+        factory.setConcurrency(6);
+        configureIndexingBatches(factory);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, ComplianceAuditEvent> complianceAuditEventIndexingConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(indexingConsumerProps(complianceAuditEventConsumerFactory().getConfigurationProperties()));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ComplianceAuditEvent> complianceAuditEventBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ComplianceAuditEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(complianceAuditEventIndexingConsumerFactory());
+        factory.setConcurrency(3);
+        configureIndexingBatches(factory);
+        return factory;
+    }
+
+    private Map<String, Object> indexingConsumerProps(Map<String, Object> consumerProps) {
+        Map<String, Object> configProps = new HashMap<>(consumerProps);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, indexingBatchSize);
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, indexingFetchMinBytes);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, indexingMaxWaitMillis);
+        return configProps;
+    }
+
+    /**
+     * Offsets are committed when the listener acknowledges a batch, after its bulk request has
+     * succeeded. A batch whose bulk request fails is redelivered, with growing pauses, for up to
+     * {@code max-retry-elapsed-millis}; after that its records are published to the dead-letter
+     * topics, so that a failing batch cannot hold up its partitions for good.
+     */
+    private void configureIndexingBatches(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setPollTimeout(3000);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(indexingMaxRetryIntervalMillis);
+        backOff.setMaxElapsedTime(indexingMaxRetryElapsedMillis);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(indexingDeadLetterRecoverer(), backOff));
+    }
+
+    private DeadLetterPublishingRecoverer indexingDeadLetterRecoverer() {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(AuditTrailEvent.class, auditTrailEventKafkaTemplate());
+        templates.put(ComplianceAuditEvent.class, complianceAuditEventKafkaTemplate());
+        return new DeadLetterPublishingRecoverer(
+            templates,
+            (record, exception) -> new TopicPartition(record.topic() + indexingDeadLetterSuffix, -1)
+        );
+    }
+
     public String getBusinessEventsTopicName() {
         return businessEventsTopicName;
     }
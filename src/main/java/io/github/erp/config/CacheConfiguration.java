@@ -43,6 +43,8 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    public static final String HAZELCAST_INSTANCE_NAME = "erpSystem";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
@@ -69,13 +71,13 @@ public class CacheConfiguration {
     @Bean
     public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
         log.debug("Configuring Hazelcast");
-        HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("erpSystem");
+        HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName(HAZELCAST_INSTANCE_NAME);
         if (hazelCastInstance != null) {
             log.debug("Hazelcast already initialized");
             return hazelCastInstance;
         }
         Config config = new Config();
-        config.setInstanceName("erpSystem");
+        config.setInstanceName(HAZELCAST_INSTANCE_NAME);
         config.getNetworkConfig().setPort(5701);
         config.getNetworkConfig().setPortAutoIncrement(true);
 
@@ -90,6 +92,7 @@ public class CacheConfiguration {
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
         config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeReferenceDataMapConfig(jHipsterProperties));
         config.getSerializationConfig().addSerializerConfig(
             new SerializerConfig().setTypeClass(DepreciationAmountContext.class)
             .setImplementation(new DepreciationAmountContextSerializer())
@@ -135,6 +138,19 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    /**
+     * Shared tier of the reference-data caches; see {@link ReferenceDataCacheManager}.
+     */
+    private MapConfig initializeReferenceDataMapConfig(JHipsterProperties jHipsterProperties) {
+        MapConfig mapConfig = new MapConfig(ReferenceDataCacheManager.SHARED_MAP_PREFIX + "*");
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds(env.getProperty("erp.cache.reference-data.shared-cache-time-to-live-seconds", Integer.class, 7200));
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        mapConfig.getEvictionConfig().setSize(env.getProperty("erp.cache.reference-data.shared-cache-maximum-size", Integer.class, 50000));
+        return mapConfig;
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
@@ -44,13 +44,7 @@ public class CaffeineCacheConfiguration {
             .recordStats());
         cacheManager.setCacheNames(java.util.Arrays.asList(
             "assetRegistrations",
-            "assetRegistrationIds", 
-            "transactionAccounts",
-            "transactionAccountIds",
-            "assetCategories",
-            "serviceOutlets",
-            "depreciationMethods",
-            "referenceData",
+            "assetRegistrationIds",
             "usersByLogin",
             "usersByEmail"
         ));
@@ -57,7 +57,10 @@ import tech.jhipster.config.JHipsterConstants;
     "io.github.erp.cqrs.asset.readmodel",
     "io.github.erp.cqrs.financial.readmodel",
     "io.github.erp.cqrs.lease.readmodel",
-    "io.github.erp.docmgmt.domain"
+    "io.github.erp.docmgmt.domain",
+    "io.github.erp.internal.report.execution",
+    "io.github.erp.internal.ledger",
+    "io.github.erp.internal.files.documents"
 })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
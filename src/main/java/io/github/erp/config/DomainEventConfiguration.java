@@ -24,6 +24,7 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
@@ -45,6 +46,12 @@ public class DomainEventConfiguration {
     @Autowired
     private KafkaProperties kafkaProperties;
 
+    @Value("${erp.domain-events.outbox.linger-millis:20}")
+    private int producerLingerMillis;
+
+    @Value("${erp.domain-events.outbox.producer-batch-bytes:65536}")
+    private int producerBatchBytes;
+
     @Bean
     public ProducerFactory<String, DomainEvent> domainEventProducerFactory() {
         Map<String, Object> configProps = new HashMap<>(kafkaProperties.getProducerProps());
@@ -53,6 +60,9 @@ public class DomainEventConfiguration {
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // The outbox relay sends whole batches, let the producer pack them into fewer requests
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMillis);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchBytes);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
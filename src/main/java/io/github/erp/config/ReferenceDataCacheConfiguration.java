@@ -0,0 +1,89 @@
+package io.github.erp.config;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Near cache for reference data: Caffeine on each node in front of the Hazelcast cluster
+ * configured in {@link CacheConfiguration}. See {@link ReferenceDataCacheManager}.
+ */
+@Configuration
+public class ReferenceDataCacheConfiguration {
+
+    public static final String ASSET_CATEGORIES = "assetCategories";
+    public static final String SERVICE_OUTLETS = "serviceOutlets";
+    public static final String DEPRECIATION_METHODS = "depreciationMethods";
+    public static final String FISCAL_MONTHS = "fiscalMonths";
+    public static final String DEPRECIATION_PERIODS = "depreciationPeriods";
+    public static final String TRANSACTION_ACCOUNTS = "transactionAccounts";
+    public static final String TRANSACTION_ACCOUNT_IDS = "transactionAccountIds";
+
+    public static final List<String> REFERENCE_DATA_CACHES = Arrays.asList(
+        ASSET_CATEGORIES,
+        SERVICE_OUTLETS,
+        DEPRECIATION_METHODS,
+        FISCAL_MONTHS,
+        DEPRECIATION_PERIODS,
+        TRANSACTION_ACCOUNTS,
+        TRANSACTION_ACCOUNT_IDS
+    );
+
+    @Value("${erp.cache.reference-data.near-cache-maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    /**
+     * Bounds how long a node can serve a stale entry if an invalidation message is lost.
+     */
+    @Value("${erp.cache.reference-data.near-cache-expire-after-write-seconds:600}")
+    private long nearCacheExpireAfterWriteSeconds;
+
+    @Value("${erp.cache.reference-data.invalidation-topic:reference-data.invalidations}")
+    private String invalidationTopic;
+
+    @Bean("referenceDataCacheManager")
+    public ReferenceDataCacheManager referenceDataCacheManager(
+        HazelcastInstance hazelcastInstance,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        Caffeine<Object, Object> nearCacheSpec = Caffeine
+            .newBuilder()
+            .maximumSize(nearCacheMaximumSize)
+            .expireAfterWrite(Duration.ofSeconds(nearCacheExpireAfterWriteSeconds))
+            .recordStats();
+
+        return new ReferenceDataCacheManager(
+            hazelcastInstance,
+            nearCacheSpec,
+            REFERENCE_DATA_CACHES,
+            invalidationTopic,
+            meterRegistry.getIfAvailable()
+        );
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.erp.config;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCache;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager for the reference data that the depreciation, NBV and lease runs look up over and
+ * over. Each cache is a {@link TwoTierCache}: a Caffeine L1 on this node in front of a Hazelcast
+ * map named {@code reference-data.<cache>} shared by the cluster.
+ * <p>
+ * Invalidations are relayed on a Hazelcast topic so that an eviction on one node drops the entry
+ * from every other node's L1 as well. Evictions and puts are transaction-aware, so they only take
+ * effect once the surrounding transaction commits.
+ */
+public class ReferenceDataCacheManager extends AbstractTransactionSupportingCacheManager implements DisposableBean {
+
+    public static final String SHARED_MAP_PREFIX = "reference-data.";
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCacheManager.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final Caffeine<Object, Object> nearCacheSpec;
+
+    private final Collection<String> cacheNames;
+
+    private final String invalidationTopicName;
+
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private ITopic<Invalidation> invalidationTopic;
+
+    private UUID invalidationListenerId;
+
+    public ReferenceDataCacheManager(
+        HazelcastInstance hazelcastInstance,
+        Caffeine<Object, Object> nearCacheSpec,
+        Collection<String> cacheNames,
+        String invalidationTopicName,
+        @Nullable MeterRegistry meterRegistry
+    ) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.nearCacheSpec = nearCacheSpec;
+        this.cacheNames = cacheNames;
+        this.invalidationTopicName = invalidationTopicName;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        invalidationTopic = hazelcastInstance.getTopic(invalidationTopicName);
+        invalidationListenerId = invalidationTopic.addMessageListener(this::onInvalidation);
+
+        List<Cache> loaded = new ArrayList<>(cacheNames.size());
+        for (String name : cacheNames) {
+            TwoTierCache cache = new TwoTierCache(
+                name,
+                new CaffeineCache(name, nearCacheSpec.build(), true),
+                new HazelcastCache(hazelcastInstance.getMap(SHARED_MAP_PREFIX + name)),
+                this::publishInvalidation
+            );
+            caches.put(name, cache);
+            bindMetrics(cache);
+            loaded.add(cache);
+        }
+        return loaded;
+    }
+
+    private void publishInvalidation(String cacheName, @Nullable Object key) {
+        try {
+            invalidationTopic.publish(new Invalidation(cacheName, key));
+        } catch (RuntimeException e) {
+            // The shared tier is already updated; other nodes catch up when their L1 entries expire
+            log.warn("Could not publish invalidation of {} in cache {}", key == null ? "all entries" : key, cacheName, e);
+        }
+    }
+
+    void onInvalidation(Message<Invalidation> message) {
+        Member publisher = message.getPublishingMember();
+        if (publisher != null && publisher.localMember()) {
+            return;
+        }
+        Invalidation invalidation = message.getMessageObject();
+        TwoTierCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateNearCache(invalidation.getKey());
+        }
+    }
+
+    private void bindMetrics(TwoTierCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags tags = Tags.of("cache", cache.getName(), "cacheManager", "referenceDataCacheManager");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getNearCache(), cache.getName(), Tags.of("cacheManager", "referenceDataCacheManager", "tier", "l1"));
+
+        FunctionCounter
+            .builder("cache.gets", cache, TwoTierCache::sharedHitCount)
+            .tags(tags.and("tier", "l2", "result", "hit"))
+            .description("Lookups that missed L1 and were answered by the shared cache")
+            .register(meterRegistry);
+        FunctionCounter
+            .builder("cache.gets", cache, TwoTierCache::sharedMissCount)
+            .tags(tags.and("tier", "l2", "result", "miss"))
+            .description("Lookups that missed both tiers and went to the database")
+            .register(meterRegistry);
+
+        Gauge
+            .builder("cache.hit.ratio", cache, TwoTierCache::nearHitRatio)
+            .tags(tags.and("tier", "l1"))
+            .description("Share of lookups answered by the node-local cache")
+            .register(meterRegistry);
+        Gauge
+            .builder("cache.hit.ratio", cache, TwoTierCache::hitRatio)
+            .tags(tags.and("tier", "all"))
+            .description("Share of lookups answered without going to the database")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        if (invalidationTopic != null && invalidationListenerId != null) {
+            try {
+                invalidationTopic.removeMessageListener(invalidationListenerId);
+            } catch (RuntimeException e) {
+                log.debug("Hazelcast already shut down, invalidation listener not removed", e);
+            }
+        }
+    }
+
+    /**
+     * Message relayed between nodes; a null key stands for the whole cache.
+     */
+    public static class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String cacheName;
+
+        private final Object key;
+
+        public Invalidation(String cacheName, @Nullable Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        public String getCacheName() {
+            return cacheName;
+        }
+
+        @Nullable
+        public Object getKey() {
+            return key;
+        }
+    }
+}
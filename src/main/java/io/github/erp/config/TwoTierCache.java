@@ -0,0 +1,209 @@
+package io.github.erp.config;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Cache} that reads through a node-local Caffeine cache (L1) to a cluster-wide cache
+ * (L2). Writes go to both tiers without publishing anything. Evictions and clears go to both
+ * tiers and are then published so that every other node drops the same entries from its own L1;
+ * hits in L2 are copied into L1 without publishing anything either.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+
+    private final CaffeineCache nearCache;
+
+    private final Cache sharedCache;
+
+    private final InvalidationPublisher invalidationPublisher;
+
+    private final LongAdder sharedHits = new LongAdder();
+
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TwoTierCache(String name, CaffeineCache nearCache, Cache sharedCache, InvalidationPublisher invalidationPublisher) {
+        this.name = name;
+        this.nearCache = nearCache;
+        this.sharedCache = sharedCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return nearCache.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = nearCache.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = sharedCache.get(key);
+        if (value == null) {
+            sharedMisses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        nearCache.put(key, value.get());
+        return value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Throwable ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        sharedCache.put(key, value);
+        nearCache.put(key, value);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = sharedCache.putIfAbsent(key, value);
+        if (existing != null) {
+            nearCache.put(key, existing.get());
+            return existing;
+        }
+        nearCache.put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedCache.evict(key);
+        nearCache.evict(key);
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = sharedCache.evictIfPresent(key);
+        nearCache.evict(key);
+        invalidationPublisher.publish(name, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        sharedCache.clear();
+        nearCache.clear();
+        invalidationPublisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = sharedCache.invalidate();
+        nearCache.invalidate();
+        invalidationPublisher.publish(name, null);
+        return present;
+    }
+
+    /**
+     * Drops an entry, or every entry when the key is null, from L1 only. Used when another node
+     * has published an invalidation.
+     */
+    public void invalidateNearCache(@Nullable Object key) {
+        if (key == null) {
+            nearCache.invalidate();
+        } else {
+            nearCache.evict(key);
+        }
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNearCache() {
+        return nearCache.getNativeCache();
+    }
+
+    public long sharedHitCount() {
+        return sharedHits.sum();
+    }
+
+    public long sharedMissCount() {
+        return sharedMisses.sum();
+    }
+
+    /**
+     * Share of lookups answered by L1.
+     */
+    public double nearHitRatio() {
+        return getNearCache().stats().hitRate();
+    }
+
+    /**
+     * Share of lookups answered by either tier without going to the database.
+     */
+    public double hitRatio() {
+        long requests = getNearCache().stats().requestCount();
+        if (requests == 0) {
+            return 1.0;
+        }
+        return (double) (getNearCache().stats().hitCount() + sharedHitCount()) / requests;
+    }
+
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        /**
+         * Tells the other nodes to drop the key, or the whole cache when the key is null, from their L1.
+         */
+        void publish(String cacheName, @Nullable Object key);
+    }
+}
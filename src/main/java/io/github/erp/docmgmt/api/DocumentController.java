@@ -3,15 +3,20 @@ package io.github.erp.docmgmt.api;
 import io.github.erp.docmgmt.service.DocumentService;
 import io.github.erp.docmgmt.service.dto.DocumentDTO;
 import io.github.erp.docmgmt.service.criteria.DocumentCriteria;
+import io.github.erp.internal.files.FileStorageService;
+import io.github.erp.internal.files.StreamingFileDownload;
 import io.github.erp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -19,8 +24,10 @@ import tech.jhipster.web.util.ResponseUtil;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,8 +45,12 @@ public class DocumentController {
 
     private final DocumentService documentService;
 
-    public DocumentController(DocumentService documentService) {
+    private final FileStorageService documentFileStorageService;
+
+    public DocumentController(DocumentService documentService,
+                              @Qualifier("documentFileStorageService") FileStorageService documentFileStorageService) {
         this.documentService = documentService;
+        this.documentFileStorageService = documentFileStorageService;
     }
 
     @PostMapping("/documents")
@@ -117,6 +128,35 @@ public class DocumentController {
         return ResponseUtil.wrapOrNotFound(documentDTO);
     }
 
+    /**
+     * Streams the stored file of the document, honouring Range, If-Range and If-None-Match against
+     * the checksum recorded when the document was saved
+     */
+    @GetMapping("/documents/{id}/content")
+    public ResponseEntity<StreamingResponseBody> downloadDocument(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download Document : {}", id);
+        Optional<DocumentDTO> documentDTO = documentService.findOne(id);
+        if (documentDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DocumentDTO document = documentDTO.get();
+        return StreamingFileDownload.of(
+            documentFile(document.getFilePath()),
+            document.getDocumentTitle(),
+            document.getContentType(),
+            document.getChecksum(),
+            requestHeaders
+        );
+    }
+
+    private Path documentFile(String filePath) throws IOException {
+        if (filePath == null || filePath.contains("..")) {
+            return null;
+        }
+        Resource resource = documentFileStorageService.load(filePath);
+        return resource == null ? null : resource.getFile().toPath();
+    }
+
     @DeleteMapping("/documents/{id}")
     public ResponseEntity<Void> deleteDocument(@PathVariable Long id) {
         log.debug("REST request to delete Document : {}", id);
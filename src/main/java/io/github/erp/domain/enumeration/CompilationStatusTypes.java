@@ -26,4 +26,5 @@ public enum CompilationStatusTypes {
     IN_PROGRESS,
     COMPLETE,
     REVERSED,
+    ERRORED,
 }
@@ -65,6 +65,9 @@ public abstract class AbstractDomainEvent extends AbstractAuditingEntity impleme
     @Column(name = "retry_count", nullable = false)
     private Integer retryCount = 0;
 
+    @Column(name = "published_on")
+    private Instant publishedOn;
+
     protected AbstractDomainEvent() {
         this.eventId = UUID.randomUUID();
         this.occurredOn = Instant.now();
@@ -165,6 +168,14 @@ public abstract class AbstractDomainEvent extends AbstractAuditingEntity impleme
         this.retryCount = retryCount;
     }
 
+    public Instant getPublishedOn() {
+        return publishedOn;
+    }
+
+    public void setPublishedOn(Instant publishedOn) {
+        this.publishedOn = publishedOn;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
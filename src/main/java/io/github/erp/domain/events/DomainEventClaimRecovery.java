@@ -0,0 +1,74 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs again the handlers of events whose claim was left in progress, because the node that
+ * claimed them went down before they were marked as processed. Both deliveries of such an event
+ * found it claimed and were discarded, so nothing else would retry it.
+ */
+@Component
+public class DomainEventClaimRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventClaimRecovery.class);
+
+    private final DomainEventStore eventStore;
+    private final DomainEventProcessor domainEventProcessor;
+    private final int batchSize;
+
+    public DomainEventClaimRecovery(
+        DomainEventStore eventStore,
+        DomainEventProcessor domainEventProcessor,
+        @Value("${erp.domain-events.dispatch.batch-size:100}") int batchSize
+    ) {
+        this.eventStore = eventStore;
+        this.domainEventProcessor = domainEventProcessor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Each event is claimed afresh by the processor, so of several nodes recovering the same stale
+     * claim only one runs the handlers
+     */
+    @Scheduled(
+        initialDelayString = "${erp.domain-events.dispatch.claim-recovery-interval-millis:60000}",
+        fixedDelayString = "${erp.domain-events.dispatch.claim-recovery-interval-millis:60000}"
+    )
+    public void recoverStaleClaims() {
+        List<DomainEvent> stale = eventStore.findEventsWithStaleClaims(batchSize);
+        if (!stale.isEmpty()) {
+            log.warn("Recovering {} domain events whose handlers were interrupted", stale.size());
+        }
+        for (DomainEvent event : stale) {
+            try {
+                domainEventProcessor.processEvent(event);
+            } catch (Exception e) {
+                log.error("Failed to recover domain event: {}", event.getEventId(), e);
+            }
+        }
+    }
+}
@@ -21,8 +21,19 @@ package io.github.erp.domain.events;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
 
+/**
+ * A handler method bound to its bean. Where the method's shape allows, the call is bound once with
+ * {@link LambdaMetafactory}, so that each dispatch is a plain interface call rather than a reflective
+ * {@link Method#invoke} with its argument array; otherwise the wrapper falls back to reflection.
+ */
 public class DomainEventHandlerMethodWrapper {
 
     private static final Logger log = LoggerFactory.getLogger(DomainEventHandlerMethodWrapper.class);
@@ -31,6 +42,7 @@ public class DomainEventHandlerMethodWrapper {
     private final Method method;
     private final String eventType;
     private final int order;
+    private final BiConsumer<Object, DomainEvent> invoker;
 
     public DomainEventHandlerMethodWrapper(Object target, Method method, String eventType, int order) {
         this.target = target;
@@ -38,12 +50,17 @@ public class DomainEventHandlerMethodWrapper {
         this.eventType = eventType;
         this.order = order;
         this.method.setAccessible(true);
+        this.invoker = bind(target, method);
     }
 
     public void handle(DomainEvent event) {
         try {
             log.debug("Invoking handler method: {} for event: {}", method.getName(), event.getEventId());
-            method.invoke(target, event);
+            if (invoker != null) {
+                invoker.accept(target, event);
+            } else {
+                method.invoke(target, event);
+            }
         } catch (Exception e) {
             log.error("Failed to invoke handler method: {} for event: {}", method.getName(), event.getEventId(), e);
             throw new RuntimeException("Handler method invocation failed", e);
@@ -65,4 +82,45 @@ public class DomainEventHandlerMethodWrapper {
     public Class<?> getTargetClass() {
         return target.getClass();
     }
+
+    /**
+     * Name of the handler as declared, e.g. AssetReportEventHandler#handleAssetCreated
+     */
+    public String getHandlerName() {
+        return method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+    }
+
+    boolean isBound() {
+        return invoker != null;
+    }
+
+    /**
+     * Spins a {@link BiConsumer} whose accept(target, event) calls the handler method virtually on
+     * the target, so that a proxy subclass of the declaring class still applies its advice
+     *
+     * @return null if the method cannot be bound, in which case it is called reflectively
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, DomainEvent> bind(Object target, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (method.getParameterCount() != 1 || !declaringClass.isInstance(target)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle,
+                handle.type().changeReturnType(void.class)
+            );
+            return (BiConsumer<Object, DomainEvent>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.debug("Handler method {} cannot be bound directly, it will be invoked reflectively", method, e);
+            return null;
+        }
+    }
 }
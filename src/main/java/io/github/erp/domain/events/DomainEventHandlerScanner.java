@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
 
@@ -39,7 +40,9 @@ public class DomainEventHandlerScanner implements BeanPostProcessor {
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
-        Class<?> beanClass = bean.getClass();
+        // Handler beans with @Transactional methods are CGLIB subclasses that carry no annotations;
+        // read them off the user class and invoke through the proxy so the advice still applies
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
         
         if (beanClass.isAnnotationPresent(DomainEventHandler.class)) {
             Method[] methods = beanClass.getDeclaredMethods();
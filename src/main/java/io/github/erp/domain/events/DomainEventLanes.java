@@ -0,0 +1,199 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A fixed number of single-threaded lanes onto which domain events are routed by aggregate id.
+ * Events of one aggregate always land on the same lane and are handled in the order they were
+ * dispatched, while events of different aggregates proceed in parallel on the other lanes.
+ * <p>
+ * Each lane takes whatever has queued up, to a limit, as one batch: the events are handled one by
+ * one and the ids of those handled are then recorded together, in one update rather than one per
+ * event.
+ */
+final class DomainEventLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventLanes.class);
+
+    private final Lane[] lanes;
+    private final int batchSize;
+    private final Predicate<DomainEvent> handler;
+    private final Consumer<List<UUID>> handledSink;
+    private volatile boolean running = true;
+
+    /**
+     * @param handler runs the handlers of an event, returning true if it is to be recorded as handled
+     * @param handledSink records a batch of handled events; should it throw, each event of the batch
+     *                    completes exceptionally
+     */
+    DomainEventLanes(int laneCount, int queueCapacity, int batchSize,
+                     Predicate<DomainEvent> handler, Consumer<List<UUID>> handledSink) {
+        this.batchSize = batchSize;
+        this.handler = handler;
+        this.handledSink = handledSink;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+            lanes[i].thread.start();
+        }
+    }
+
+    /**
+     * Queues the event on its aggregate's lane, waiting for room if the lane is full
+     *
+     * @return completes once the event has been handled and recorded
+     */
+    CompletableFuture<Void> dispatch(DomainEvent event) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Domain event dispatch has been shut down"));
+        }
+        Pending pending = new Pending(event);
+        try {
+            laneOf(event).queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.completion.completeExceptionally(e);
+        }
+        return pending.completion;
+    }
+
+    int laneCount() {
+        return lanes.length;
+    }
+
+    int laneIndexOf(DomainEvent event) {
+        return Math.floorMod(Objects.hashCode(event.getAggregateId()), lanes.length);
+    }
+
+    /**
+     * Stops taking events, lets the lanes drain what is already queued, and waits up to the timeout
+     * for them to finish
+     */
+    void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Whatever was queued past the check in dispatch, or not drained in time, is failed rather
+        // than left for a caller to wait on forever
+        List<Pending> abandoned = new ArrayList<>();
+        for (Lane lane : lanes) {
+            lane.queue.drainTo(abandoned);
+        }
+        abandoned.forEach(pending ->
+            pending.completion.completeExceptionally(new IllegalStateException("Domain event dispatch has been shut down")));
+    }
+
+    private Lane laneOf(DomainEvent event) {
+        return lanes[laneIndexOf(event)];
+    }
+
+    private void runLane(Lane lane) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        List<Pending> handled = new ArrayList<>(batchSize);
+        List<UUID> handledIds = new ArrayList<>(batchSize);
+        while (running || !lane.queue.isEmpty()) {
+            try {
+                Pending first = lane.queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                lane.queue.drainTo(batch, batchSize - 1);
+
+                for (Pending pending : batch) {
+                    try {
+                        if (handler.test(pending.event)) {
+                            handled.add(pending);
+                            handledIds.add(pending.event.getEventId());
+                        } else {
+                            pending.completion.complete(null);
+                        }
+                    } catch (Exception e) {
+                        pending.completion.completeExceptionally(e);
+                    }
+                }
+                record(handled, handledIds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+                handled.clear();
+                handledIds.clear();
+            }
+        }
+        log.debug("Domain event lane {} stopped", lane.index);
+    }
+
+    private void record(List<Pending> handled, List<UUID> handledIds) {
+        if (handled.isEmpty()) {
+            return;
+        }
+        try {
+            handledSink.accept(List.copyOf(handledIds));
+            handled.forEach(pending -> pending.completion.complete(null));
+        } catch (Exception e) {
+            log.error("Failed to record {} handled domain events", handledIds.size(), e);
+            handled.forEach(pending -> pending.completion.completeExceptionally(e));
+        }
+    }
+
+    private static final class Pending {
+        private final DomainEvent event;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private Pending(DomainEvent event) {
+            this.event = event;
+        }
+    }
+
+    private final class Lane {
+        private final int index;
+        private final BlockingQueue<Pending> queue;
+        private final Thread thread;
+
+        private Lane(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(() -> runLane(this), "domain-event-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relays domain events recorded by the {@link DomainEventPublisher} from the outbox to Kafka.
+ * <p>
+ * Each poll locks a batch of unpublished events with SKIP LOCKED, so that relays on several nodes
+ * take disjoint batches, hands the whole batch to the producer, which groups the records by
+ * partition according to its linger and batch size settings, and marks as published the events the
+ * broker has acknowledged. An event whose send fails stays in the outbox for the next poll; delivery
+ * is therefore at-least-once, and the {@link DomainEventProcessor} discards the duplicates.
+ */
+@Component
+@ConditionalOnProperty(prefix = "erp.domain-events.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DomainEventOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventOutboxRelay.class);
+
+    private final DomainEventStore eventStore;
+    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String domainEventsTopicName;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+
+    public DomainEventOutboxRelay(
+        DomainEventStore eventStore,
+        KafkaTemplate<String, DomainEvent> kafkaTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${spring.kafka.topics.domain-events.topic.name:domain_events_topic}") String domainEventsTopicName,
+        @Value("${erp.domain-events.outbox.batch-size:200}") int batchSize,
+        @Value("${erp.domain-events.outbox.send-timeout-millis:30000}") long sendTimeoutMillis
+    ) {
+        this.eventStore = eventStore;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.domainEventsTopicName = domainEventsTopicName;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    /**
+     * Drains the outbox batch by batch until a batch comes back short, either because the outbox is
+     * empty or because some sends failed
+     */
+    @Scheduled(
+        initialDelayString = "${erp.domain-events.outbox.poll-interval-millis:500}",
+        fixedDelayString = "${erp.domain-events.outbox.poll-interval-millis:500}"
+    )
+    public void relayPendingEvents() {
+        int relayed;
+        do {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            relayed = count == null ? 0 : count;
+        } while (relayed == batchSize);
+    }
+
+    int relayBatch() {
+        List<DomainEvent> batch = eventStore.lockUnpublishedEvents(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, ListenableFuture<SendResult<String, DomainEvent>>> sends = new LinkedHashMap<>();
+        for (DomainEvent event : batch) {
+            sends.put(event.getEventId(), kafkaTemplate.send(domainEventsTopicName, partitionKey(event), event));
+        }
+        // Send what is accumulated now rather than waiting out the linger on the last, partly filled batch
+        kafkaTemplate.flush();
+
+        // One deadline for the whole batch, so that the row locks are held for at most the send
+        // timeout however many of the sends are slow
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        List<UUID> published = new ArrayList<>(batch.size());
+        for (Map.Entry<UUID, ListenableFuture<SendResult<String, DomainEvent>>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(send.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Failed to relay domain event {}, it will be retried on the next poll", send.getKey(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        eventStore.markAsPublished(published, Instant.now());
+        log.debug("Relayed {} of {} domain events to {}", published.size(), batch.size(), domainEventsTopicName);
+        return published.size();
+    }
+
+    /**
+     * Events of one aggregate share a partition, so consumers see them in the order they were recorded
+     */
+    static String partitionKey(DomainEvent event) {
+        return event.getAggregateType() + ":" + event.getAggregateId();
+    }
+}
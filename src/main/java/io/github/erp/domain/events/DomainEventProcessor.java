@@ -18,80 +18,198 @@ package io.github.erp.domain.events;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs the registered handlers of domain events. Events are routed onto {@link DomainEventLanes} by
+ * aggregate id, so that the events of one aggregate are handled in order while different aggregates
+ * are handled in parallel, and the lanes record handled events in batches.
+ */
 @Component
-public class DomainEventProcessor {
+public class DomainEventProcessor implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(DomainEventProcessor.class);
 
-    private final Map<String, List<DomainEventHandlerMethodWrapper>> handlerRegistry = new ConcurrentHashMap<>();
+    private final Map<String, List<RegisteredHandler>> handlerRegistry = new ConcurrentHashMap<>();
     private final DomainEventStore eventStore;
     private final DomainEventErrorHandler errorHandler;
+    // Resolved on first registration; the processor is created early, as a dependency of the
+    // DomainEventHandlerScanner bean post-processor, before the registry has been configured
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final DomainEventLanes lanes;
 
-    public DomainEventProcessor(DomainEventStore eventStore, @Lazy DomainEventErrorHandler errorHandler) {
+    public DomainEventProcessor(
+        DomainEventStore eventStore,
+        @Lazy DomainEventErrorHandler errorHandler,
+        ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${erp.domain-events.dispatch.lanes:4}") int laneCount,
+        @Value("${erp.domain-events.dispatch.queue-capacity:10000}") int queueCapacity,
+        @Value("${erp.domain-events.dispatch.batch-size:100}") int batchSize
+    ) {
         this.eventStore = eventStore;
         this.errorHandler = errorHandler;
+        this.meterRegistry = meterRegistry;
+        this.lanes = new DomainEventLanes(laneCount, queueCapacity, batchSize, this::runHandlers, this::recordProcessed);
     }
 
-    @EventListener
-    @Retryable(value = {Exception.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2))
+    /**
+     * Local delivery, once the publishing transaction has committed so that the handlers see what it
+     * wrote and the publisher does not wait on them
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleLocalEvent(DomainEvent event) {
-        processEvent(event);
+        lanes.dispatch(event).whenComplete((handled, error) -> {
+            if (error != null) {
+                Exception failure = unwrap(error);
+                log.error("Failed to process local domain event: {}", event.getEventId(), failure);
+                errorHandler.handleError(event, failure);
+            }
+        });
     }
 
+    /**
+     * Kafka delivery. The record is acknowledged only once its lane has handled it, so that the
+     * committed offset never runs ahead of the handlers
+     */
     @KafkaListener(topics = "domain_events_topic", groupId = "erp-system-domain-events", concurrency = "4")
     public void handleDistributedEvent(DomainEvent event, Acknowledgment acknowledgment) {
         try {
-            processEvent(event);
+            lanes.dispatch(event).join();
             acknowledgment.acknowledge();
         } catch (Exception e) {
-            log.error("Failed to process distributed domain event: {}", event.getEventId(), e);
-            errorHandler.handleError(event, e);
+            Exception failure = unwrap(e);
+            log.error("Failed to process distributed domain event: {}", event.getEventId(), failure);
+            errorHandler.handleError(event, failure);
         }
     }
 
+    /**
+     * Runs the registered handlers once per event and records it as processed, on the caller's
+     * thread. This is the path of the retries scheduled by the error handler; first deliveries go
+     * through the lanes.
+     */
     public void processEvent(DomainEvent event) {
+        if (runHandlers(event)) {
+            try {
+                eventStore.markAsProcessed(event.getEventId());
+            } catch (Exception e) {
+                log.error("Failed to process domain event: {}", event.getEventId(), e);
+                eventStore.releaseClaim(event.getEventId());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The local and the Kafka delivery of an event both arrive here, and only the first to claim the
+     * event id in the idempotency table runs the handlers. The claim is released if a handler fails,
+     * so that the retries scheduled by the error handler run them again.
+     *
+     * @return true if the handlers ran and the event is to be recorded as processed
+     */
+    boolean runHandlers(DomainEvent event) {
+        if (!eventStore.claimForProcessing(event.getEventId())) {
+            log.debug("Domain event {} has already been processed, skipping", event.getEventId());
+            return false;
+        }
+
         try {
             log.info("Processing domain event: {} for aggregate: {}", 
                     event.getEventType(), event.getAggregateId());
 
-            List<DomainEventHandlerMethodWrapper> handlers = handlerRegistry.get(event.getEventType());
+            List<Exception> failures = null;
+            List<RegisteredHandler> handlers = handlerRegistry.get(event.getEventType());
             if (handlers != null && !handlers.isEmpty()) {
-                for (DomainEventHandlerMethodWrapper handler : handlers) {
+                for (RegisteredHandler handler : handlers) {
+                    long start = System.nanoTime();
                     try {
-                        handler.handle(event);
+                        handler.method.handle(event);
                     } catch (Exception e) {
-                        log.error("Handler {} failed for event {}", handler.getMethodName(), event.getEventId(), e);
-                        errorHandler.handleError(event, e);
+                        log.error("Handler {} failed for event {}", handler.method.getMethodName(), event.getEventId(), e);
+                        if (failures == null) {
+                            failures = new ArrayList<>(1);
+                        }
+                        failures.add(e);
+                    } finally {
+                        handler.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                     }
                 }
             } else {
                 log.warn("No handlers found for event type: {}", event.getEventType());
             }
 
-            eventStore.markAsProcessed(event.getEventId());
+            if (failures != null) {
+                eventStore.releaseClaim(event.getEventId());
+                failures.forEach(failure -> errorHandler.handleError(event, failure));
+            }
+            return true;
 
         } catch (Exception e) {
             log.error("Failed to process domain event: {}", event.getEventId(), e);
+            eventStore.releaseClaim(event.getEventId());
             throw e;
         }
     }
 
+    private void recordProcessed(List<UUID> eventIds) {
+        try {
+            eventStore.markAllAsProcessed(eventIds);
+        } catch (Exception e) {
+            eventIds.forEach(eventStore::releaseClaim);
+            throw e;
+        }
+    }
+
+    /**
+     * The failure a lane completed an event with, without the wrapping added by the future
+     */
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
     public void registerHandler(String eventType, DomainEventHandlerMethodWrapper handler) {
-        handlerRegistry.computeIfAbsent(eventType, k -> new ArrayList<>()).add(handler);
+        Timer timer = Timer.builder("domain.events.handler.time")
+            .description("Time taken by a domain event handler to handle an event")
+            .tag("event.type", eventType)
+            .tag("handler", handler.getHandlerName())
+            .publishPercentileHistogram()
+            .register(meterRegistry.getObject());
+        handlerRegistry.computeIfAbsent(eventType, k -> new ArrayList<>()).add(new RegisteredHandler(handler, timer));
+    }
+
+    @Override
+    public void destroy() {
+        lanes.shutdown(30, TimeUnit.SECONDS);
+    }
+
+    private static final class RegisteredHandler {
+        private final DomainEventHandlerMethodWrapper method;
+        private final Timer timer;
+
+        private RegisteredHandler(DomainEventHandlerMethodWrapper method, Timer timer) {
+            this.method = method;
+            this.timer = timer;
+        }
     }
 }
@@ -20,30 +20,27 @@ package io.github.erp.domain.events;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Records domain events in the outbox, the domain_event table, within the caller's transaction and
+ * publishes them to local listeners. Delivery to Kafka is left to the {@link DomainEventOutboxRelay}
+ * once the transaction has committed, so the caller never waits on the broker.
+ */
 @Component
 @Transactional
 public class DomainEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(DomainEventPublisher.class);
 
-    @Value("${spring.kafka.topics.domain-events.topic.name:domain_events_topic}")
-    private String domainEventsTopicName;
-
     private final ApplicationEventPublisher applicationEventPublisher;
-    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
     private final DomainEventStore eventStore;
 
     public DomainEventPublisher(ApplicationEventPublisher applicationEventPublisher,
-                              KafkaTemplate<String, DomainEvent> kafkaTemplate,
                               DomainEventStore eventStore) {
         this.applicationEventPublisher = applicationEventPublisher;
-        this.kafkaTemplate = kafkaTemplate;
         this.eventStore = eventStore;
     }
 
@@ -56,9 +53,6 @@ public class DomainEventPublisher {
 
             applicationEventPublisher.publishEvent(event);
 
-            String partitionKey = event.getAggregateType() + ":" + event.getAggregateId();
-            kafkaTemplate.send(domainEventsTopicName, partitionKey, event);
-
             log.debug("Successfully published domain event: {}", event.getEventId());
 
         } catch (Exception e) {
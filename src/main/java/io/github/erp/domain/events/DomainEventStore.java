@@ -19,6 +19,7 @@ package io.github.erp.domain.events;
  */
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,8 +40,39 @@ public interface DomainEventStore {
     List<DomainEvent> findEventsSince(Instant since);
     
     void markAsProcessed(UUID eventId);
+
+    void markAllAsProcessed(Collection<UUID> eventIds);
     
     void incrementRetryCount(UUID eventId);
+
+    /**
+     * Locks up to batchSize events not yet relayed to the broker, oldest first, skipping rows locked
+     * by another relay. Must be called within a transaction, which holds the locks until the events
+     * are marked as published
+     */
+    List<DomainEvent> lockUnpublishedEvents(int batchSize);
+
+    void markAsPublished(Collection<UUID> eventIds, Instant publishedOn);
+
+    /**
+     * Records, in a transaction of its own, that the event's handlers are about to run. The claim
+     * stays in progress until the event is marked as processed; one left in progress past the claim
+     * timeout is taken over by the next claim.
+     *
+     * @return false if the event has already been claimed, in which case the handlers must not run
+     */
+    boolean claimForProcessing(UUID eventId);
+
+    /**
+     * Removes the claim on an event whose handlers failed, so that a retry may run them again
+     */
+    void releaseClaim(UUID eventId);
+
+    /**
+     * Events whose claim has been in progress for longer than the claim timeout, oldest first; their
+     * handlers were interrupted, typically by the claiming node going down
+     */
+    List<DomainEvent> findEventsWithStaleClaims(int limit);
     
     List<DomainEvent> findEventsForReplay(String aggregateId, Instant fromTime);
     
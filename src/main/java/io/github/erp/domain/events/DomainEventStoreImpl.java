@@ -18,13 +18,21 @@ package io.github.erp.domain.events;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import io.github.erp.internal.repository.ProcessedDomainEventRepository;
+import org.hibernate.LockOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +46,12 @@ public class DomainEventStoreImpl implements DomainEventStore {
     @PersistenceContext
     EntityManager entityManager;
 
+    @Autowired
+    ProcessedDomainEventRepository processedEventRepository;
+
+    @Value("${erp.domain-events.dispatch.claim-timeout-millis:300000}")
+    long claimTimeoutMillis = 300_000;
+
     @Override
     public DomainEvent store(DomainEvent event) {
         if (event instanceof AbstractDomainEvent) {
@@ -103,6 +117,19 @@ public class DomainEventStoreImpl implements DomainEventStore {
             "UPDATE AbstractDomainEvent e SET e.processed = true WHERE e.eventId = :eventId")
             .setParameter("eventId", eventId)
             .executeUpdate();
+        processedEventRepository.markCompleted(List.of(eventId), Instant.now());
+    }
+
+    @Override
+    public void markAllAsProcessed(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery(
+            "UPDATE AbstractDomainEvent e SET e.processed = true WHERE e.eventId IN :eventIds")
+            .setParameter("eventIds", eventIds)
+            .executeUpdate();
+        processedEventRepository.markCompleted(eventIds, Instant.now());
     }
 
     @Override
@@ -113,6 +140,67 @@ public class DomainEventStoreImpl implements DomainEventStore {
             .executeUpdate();
     }
 
+    @Override
+    public List<DomainEvent> lockUnpublishedEvents(int batchSize) {
+        TypedQuery<AbstractDomainEvent> query = entityManager.createQuery(
+            "SELECT e FROM AbstractDomainEvent e WHERE e.publishedOn IS NULL ORDER BY e.id",
+            AbstractDomainEvent.class);
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        query.setHint("javax.persistence.lock.timeout", LockOptions.SKIP_LOCKED);
+        query.setMaxResults(batchSize);
+        return (List<DomainEvent>) (List<?>) query.getResultList();
+    }
+
+    @Override
+    public void markAsPublished(Collection<UUID> eventIds, Instant publishedOn) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery(
+            "UPDATE AbstractDomainEvent e SET e.publishedOn = :publishedOn WHERE e.eventId IN :eventIds")
+            .setParameter("publishedOn", publishedOn)
+            .setParameter("eventIds", eventIds)
+            .executeUpdate();
+    }
+
+    /**
+     * Runs outside any caller transaction so that the insert commits, or fails on the key, in the
+     * repository's own transaction without marking the caller's for rollback. An existing claim is
+     * taken over only if it is still in progress and older than the claim timeout.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean claimForProcessing(UUID eventId) {
+        Instant now = Instant.now();
+        try {
+            processedEventRepository.saveAndFlush(new ProcessedDomainEvent(eventId, now));
+            return true;
+        } catch (DataIntegrityViolationException alreadyClaimed) {
+            return processedEventRepository.reclaimStale(eventId, now, now.minusMillis(claimTimeoutMillis)) == 1;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseClaim(UUID eventId) {
+        entityManager.createQuery(
+            "DELETE FROM ProcessedDomainEvent p WHERE p.eventId = :eventId")
+            .setParameter("eventId", eventId)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DomainEvent> findEventsWithStaleClaims(int limit) {
+        TypedQuery<AbstractDomainEvent> query = entityManager.createQuery(
+            "SELECT e FROM AbstractDomainEvent e, ProcessedDomainEvent p WHERE p.eventId = e.eventId " +
+            "AND p.completed = false AND p.processedOn < :staleBefore ORDER BY e.id",
+            AbstractDomainEvent.class);
+        query.setParameter("staleBefore", Instant.now().minusMillis(claimTimeoutMillis));
+        query.setMaxResults(limit);
+        return (List<DomainEvent>) (List<?>) query.getResultList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<DomainEvent> findEventsForReplay(String aggregateId, Instant fromTime) {
@@ -0,0 +1,101 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Idempotency record of a domain event whose handlers are running or have run. The event id is the
+ * primary key, so that of the local and the Kafka delivery of an event, on whichever node, only the
+ * first to insert the row gets to run the handlers. The row is inserted in progress and completed in
+ * the transaction that marks the event as processed; a claim left in progress past the claim timeout,
+ * by a node that died while running the handlers, may be taken over by another delivery.
+ */
+@Entity
+@Table(name = "processed_domain_event")
+public class ProcessedDomainEvent implements Persistable<UUID>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "processed_on", nullable = false)
+    private Instant processedOn;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected ProcessedDomainEvent() {}
+
+    public ProcessedDomainEvent(UUID eventId, Instant processedOn) {
+        this.eventId = eventId;
+        this.processedOn = processedOn;
+    }
+
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public Instant getProcessedOn() {
+        return processedOn;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Always inserted, never merged, so that a concurrent claim on the same event surfaces as a key
+     * violation rather than quietly updating the existing row
+     */
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessedDomainEvent{" +
+            "eventId=" + eventId +
+            ", processedOn=" + processedOn +
+            ", completed=" + completed +
+            '}';
+    }
+}
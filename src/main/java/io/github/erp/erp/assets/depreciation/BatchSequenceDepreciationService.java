@@ -32,6 +32,11 @@ import io.github.erp.erp.assets.depreciation.exceptions.FiscalMonthNotConfigured
 import io.github.erp.erp.assets.depreciation.exceptions.ServiceOutletNotConfiguredException;
 import io.github.erp.erp.assets.depreciation.model.DepreciationArtefact;
 import io.github.erp.erp.assets.depreciation.model.DepreciationBatchMessage;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
+import io.github.erp.erp.assets.depreciation.resolution.DepreciationBatchReferenceData;
+import io.github.erp.erp.assets.depreciation.resolution.DepreciationJobReferenceData;
+import io.github.erp.erp.assets.depreciation.resolution.DepreciationQueryCounter;
+import io.github.erp.erp.assets.depreciation.resolution.DepreciationReferenceDataResolver;
 import io.github.erp.internal.service.assets.InternalAssetDisposalService;
 import io.github.erp.internal.service.assets.InternalAssetWriteOffService;
 import io.github.erp.service.*;
@@ -42,6 +47,7 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -49,7 +55,10 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
  * the DepreciationBatchService class triggers the depreciation process
@@ -95,6 +104,17 @@ public class BatchSequenceDepreciationService {
 
     private final AdjustedCostService adjustedCostService;
 
+    private final DepreciationReferenceDataResolver referenceDataResolver;
+    private final DepreciationQueryCounter depreciationQueryCounter;
+    private final DepreciationProgressTracker depreciationProgressTracker;
+
+    /**
+     * When enabled the assets of a batch are fetched in bulk and reference data is shared across the job.
+     * The per-asset lookups remain available as a fallback
+     */
+    @Value("${erp.depreciation.batch-resolution.enabled:true}")
+    private boolean batchResolutionEnabled = true;
+
     public BatchSequenceDepreciationService(
         DepreciationCalculatorService depreciationCalculatorService,
         DepreciationJobService depreciationJobService,
@@ -110,7 +130,10 @@ public class BatchSequenceDepreciationService {
         DepreciationEntrySinkProcessor depreciationEntrySinkProcessor,
         InternalAssetDisposalService internalAssetDisposalService,
         InternalAssetWriteOffService internalAssetWriteOffService,
-        @Qualifier("aggregateAssetCostAdjustmentService") AdjustedCostService adjustedCostService) {
+        @Qualifier("aggregateAssetCostAdjustmentService") AdjustedCostService adjustedCostService,
+        DepreciationReferenceDataResolver referenceDataResolver,
+        DepreciationQueryCounter depreciationQueryCounter,
+        DepreciationProgressTracker depreciationProgressTracker) {
         this.depreciationCalculatorService = depreciationCalculatorService;
         this.depreciationJobService = depreciationJobService;
         this.depreciationPeriodService = depreciationPeriodService;
@@ -126,6 +149,9 @@ public class BatchSequenceDepreciationService {
         this.internalAssetDisposalService = internalAssetDisposalService;
         this.internalAssetWriteOffService = internalAssetWriteOffService;
         this.adjustedCostService = adjustedCostService;
+        this.referenceDataResolver = referenceDataResolver;
+        this.depreciationQueryCounter = depreciationQueryCounter;
+        this.depreciationProgressTracker = depreciationProgressTracker;
     }
 
     /**
@@ -165,18 +191,38 @@ public class BatchSequenceDepreciationService {
 
                 log.debug("Standby for depreciation sequence on {} assets for batch id{}", assetIds.size(), message.getBatchId());
 
-                DepreciationAmountContext depreciationAmountContext
-                    = DepreciationAmountContext.getDepreciationAmountContext(depreciationAmountContextId);
+                // Collected locally and added to the job's amount-context in the cluster once the batch is done
+                DepreciationAmountContext depreciationAmountContext = DepreciationAmountContext.batchContext();
 
                 // Increment number of pending items
                 depreciationAmountContext.addNumberOfPendingItems(assetIds.size());
 
+                DepreciationQueryCounter.Tally tally = depreciationQueryCounter.startTally();
+
+                // Counted locally and flushed to the job's counters once the batch is done
+                LongAdder processedItems = new LongAdder();
+
                 // Perform the depreciation calculations for the batch of assets
-                for (String assetId : assetIds) {
+                if (batchResolutionEnabled) {
 
-                    depreciateAssetId(message, batchSequence, depreciationJob, depreciationPeriod, fiscalMonth, depreciationAmountContext, assetId);
+                    depreciateBatch(message, batchSequence, depreciationJob, depreciationPeriod, fiscalMonth, depreciationAmountContext, assetIds, tally, processedItems);
+                } else {
+
+                    for (String assetId : assetIds) {
+
+                        depreciateAssetId(message, batchSequence, depreciationJob, depreciationPeriod, fiscalMonth, depreciationAmountContext, assetId, tally, processedItems);
+                    }
                 }
 
+                updateProcessedItemsCounters(message, processedItems.intValue());
+
+                DepreciationAmountContext.addBatch(depreciationAmountContextId, depreciationAmountContext);
+
+                depreciationProgressTracker.recordBatch(depreciationJob.getId(), batchSequence.getId(), message.getSequenceNumber(), assetIds.size(), processedItems.intValue());
+
+                tally.addAssets(assetIds.size());
+                log.debug("Batch id {} depreciated with {} queries per asset", message.getBatchId(), depreciationQueryCounter.record(tally));
+
                 message.setProcessed(true);
             },
             () -> {
@@ -186,67 +232,153 @@ public class BatchSequenceDepreciationService {
         return message;
     }
 
-    private void depreciateAssetId(DepreciationBatchMessage message, DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, FiscalMonthDTO fiscalMonth, DepreciationAmountContext depreciationAmountContext, String assetId) {
+    /**
+     * Depreciates the assets of the batch using asset-registrations fetched in a single query and reference
+     * data shared across the depreciation-job
+     */
+    private void depreciateBatch(DepreciationBatchMessage message, DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, FiscalMonthDTO fiscalMonth, DepreciationAmountContext depreciationAmountContext, List<String> assetIds, DepreciationQueryCounter.Tally tally, LongAdder processedItems) {
 
-        DepreciationJobContext contextManager = DepreciationJobContext.getInstance();
+        List<Long> ids = assetIds.stream().map(Long::valueOf).collect(Collectors.toList());
+
+        DepreciationBatchReferenceData batchReferenceData = referenceDataResolver.resolveBatch(depreciationJob.getId(), depreciationPeriod, ids, tally);
+        DepreciationJobReferenceData referenceData = batchReferenceData.getJobReferenceData();
+
+        for (Long assetId : ids) {
+
+            batchReferenceData.getAssetRegistration(assetId).ifPresent(assetRegistration -> {
 
-        UUID depreciationJobCountUpContextId = message.getContextInstance().getDepreciationJobCountUpContextId();
-        UUID depreciationJobCountDownContextId = message.getContextInstance().getDepreciationJobCountDownContextId();
-        UUID depreciationBatchCountUpContextId = message.getContextInstance().getDepreciationBatchCountUpContextId();
-        UUID depreciationBatchCountDownContextId = message.getContextInstance().getDepreciationBatchCountDownContextId();
+                log.debug("Asset id {} ready for depreciation sequence, standby for next update", assetRegistration.getId());
+
+                Optional<AssetCategoryDTO> assetCategory = referenceData.getAssetCategory(assetRegistration.getAssetCategory().getId(), tally);
+                if (assetCategoryNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration, assetCategory))
+                    throw new AssetCategoryNotConfiguredException(assetRegistration, message);
+
+                Optional<ServiceOutletDTO> serviceOutlet = referenceData.getServiceOutlet(assetRegistration.getMainServiceOutlet().getId(), tally);
+                if (serviceOutletNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration, serviceOutlet))
+                    throw new ServiceOutletNotConfiguredException(assetRegistration, message);
+
+                referenceData.getDepreciationMethod(assetCategory.get().getDepreciationMethod().getId(), tally).ifPresent(depreciationMethod ->
+                    depreciateAsset(
+                        batchSequence,
+                        depreciationJob,
+                        depreciationPeriod,
+                        fiscalMonth,
+                        depreciationAmountContext,
+                        assetRegistration,
+                        assetCategory.get(),
+                        serviceOutlet.get(),
+                        depreciationMethod,
+                        batchReferenceData.getCostAdjustment(assetId),
+                        message.getContextInstance().getDepreciationJobCountDownContextId()
+                    ));
+
+                processedItems.increment();
+            });
+        }
+    }
 
+    /**
+     * Depreciates a single asset resolving every item of reference data from the database. This is the fallback
+     * where batch-resolution is disabled
+     */
+    private void depreciateAssetId(DepreciationBatchMessage message, DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, FiscalMonthDTO fiscalMonth, DepreciationAmountContext depreciationAmountContext, String assetId, DepreciationQueryCounter.Tally tally, LongAdder processedItems) {
 
         // Retrieve the asset from the database using the assetId
+        tally.addQueries(1);
         assetRegistrationService.findOne(Long.valueOf(assetId)).ifPresent(
             assetRegistration -> {
 
                 log.debug("Asset id {} ready for depreciation sequence, standby for next update", assetRegistration.getId());
 
+                tally.addQueries(2);
                 if (assetCategoryNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration))
                     throw new AssetCategoryNotConfiguredException(assetRegistration, message);
 
                 assetCategoryService.findOne(assetRegistration.getAssetCategory().getId()).ifPresent(assetCategory -> {
 
+                    tally.addQueries(2);
                     if (serviceOutletNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration))
                         throw new ServiceOutletNotConfiguredException(assetRegistration, message);
 
                     serviceOutletService.findOne(assetRegistration.getMainServiceOutlet().getId()).ifPresent(serviceOutlet -> {
 
+                        tally.addQueries(1);
                         depreciationMethodService.findOne(assetCategory.getDepreciationMethod().getId()).ifPresent(
                             depreciationMethod -> {
 
+                                // One query per adjustment type
+                                tally.addQueries(4);
                                 final BigDecimal costAdjustment = adjustedCostService.getAssetAmountAdjustment(depreciationPeriod, assetId);
 
-                                    // Calculate the depreciation amount using the DepreciationCalculator
-                                    DepreciationArtefact depreciationArtefact = depreciationCalculatorService.calculateDepreciation(assetRegistration, depreciationPeriod, assetCategory, depreciationMethod, costAdjustment);
-
-                                    recordDepreciationEntry(
-                                        depreciationPeriod,
-                                        fiscalMonth,
-                                        assetRegistration,
-                                        assetCategory,
-                                        serviceOutlet,
-                                        depreciationMethod,
-                                        depreciationArtefact,
-                                        depreciationJob,
-                                        batchSequence,
-                                        depreciationJobCountDownContextId
-                                    );
-
-                                depreciationAmountContext.setNumberOfProcessedItems(depreciationAmountContext.getNumberOfProcessedItems() + 1);
-
-                                // update depreciation amount
-                                depreciationAmountContext.updateAmountForServiceOutlet(assetCategory.getAssetCategoryName(), serviceOutlet.getOutletCode(), depreciationArtefact.getDepreciationAmount().doubleValue());
+                                depreciateAsset(
+                                    batchSequence,
+                                    depreciationJob,
+                                    depreciationPeriod,
+                                    fiscalMonth,
+                                    depreciationAmountContext,
+                                    assetRegistration,
+                                    assetCategory,
+                                    serviceOutlet,
+                                    depreciationMethod,
+                                    costAdjustment,
+                                    message.getContextInstance().getDepreciationJobCountDownContextId()
+                                );
                             });
 
-                        contextManager.updateNumberOfProcessedItems(depreciationJobCountUpContextId, 1);
-                        contextManager.updateNumberOfProcessedItems(depreciationBatchCountUpContextId, 1);
-                        contextManager.updateNumberOfProcessedItems(depreciationBatchCountDownContextId, -1);
+                        processedItems.increment();
                     });
                 });
             });
     }
 
+    private void depreciateAsset(
+        DepreciationBatchSequenceDTO batchSequence,
+        DepreciationJobDTO depreciationJob,
+        DepreciationPeriodDTO depreciationPeriod,
+        FiscalMonthDTO fiscalMonth,
+        DepreciationAmountContext depreciationAmountContext,
+        AssetRegistrationDTO assetRegistration,
+        AssetCategoryDTO assetCategory,
+        ServiceOutletDTO serviceOutlet,
+        DepreciationMethodDTO depreciationMethod,
+        BigDecimal costAdjustment,
+        UUID depreciationJobCountDownContextId) {
+
+        // Calculate the depreciation amount using the DepreciationCalculator
+        DepreciationArtefact depreciationArtefact = depreciationCalculatorService.calculateDepreciation(assetRegistration, depreciationPeriod, assetCategory, depreciationMethod, costAdjustment);
+
+        recordDepreciationEntry(
+            depreciationPeriod,
+            fiscalMonth,
+            assetRegistration,
+            assetCategory,
+            serviceOutlet,
+            depreciationMethod,
+            depreciationArtefact,
+            depreciationJob,
+            batchSequence,
+            depreciationJobCountDownContextId
+        );
+
+        depreciationAmountContext.setNumberOfProcessedItems(depreciationAmountContext.getNumberOfProcessedItems() + 1);
+
+        // update depreciation amount
+        depreciationAmountContext.updateAmountForServiceOutlet(assetCategory.getAssetCategoryName(), serviceOutlet.getOutletCode(), depreciationArtefact.getDepreciationAmount().doubleValue());
+    }
+
+    private void updateProcessedItemsCounters(DepreciationBatchMessage message, int processedItems) {
+
+        if (processedItems == 0) {
+            return;
+        }
+
+        DepreciationJobContext contextManager = DepreciationJobContext.getInstance();
+
+        contextManager.updateNumberOfProcessedItems(message.getContextInstance().getDepreciationJobCountUpContextId(), processedItems);
+        contextManager.updateNumberOfProcessedItems(message.getContextInstance().getDepreciationBatchCountUpContextId(), processedItems);
+        contextManager.updateNumberOfProcessedItems(message.getContextInstance().getDepreciationBatchCountDownContextId(), -processedItems);
+    }
+
     private boolean depreciationJobCompletionStatusCheck(DepreciationBatchMessage message, DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod) {
         if (depreciationJobStatusIsComplete(batchSequence, depreciationJob, depreciationPeriod, message)) {
             // TODO Mark job complete
@@ -313,7 +445,11 @@ public class BatchSequenceDepreciationService {
     }
 
     private boolean serviceOutletNotConfigured(DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, io.github.erp.service.dto.AssetRegistrationDTO assetRegistration) {
-        boolean serviceOutletDoesNotExist = serviceOutletService.findOne(assetRegistration.getMainServiceOutlet().getId()).isEmpty();
+        return serviceOutletNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration, serviceOutletService.findOne(assetRegistration.getMainServiceOutlet().getId()));
+    }
+
+    private boolean serviceOutletNotConfigured(DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, io.github.erp.service.dto.AssetRegistrationDTO assetRegistration, Optional<ServiceOutletDTO> serviceOutlet) {
+        boolean serviceOutletDoesNotExist = serviceOutlet.isEmpty();
 
         if (serviceOutletDoesNotExist) {
 
@@ -334,7 +470,11 @@ public class BatchSequenceDepreciationService {
     }
 
     private boolean assetCategoryNotConfigured(DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, io.github.erp.service.dto.AssetRegistrationDTO assetRegistration) {
-        boolean assetCategoryDoesNotExist = assetCategoryService.findOne(assetRegistration.getAssetCategory().getId()).isEmpty();
+        return assetCategoryNotConfigured(batchSequence, depreciationJob, depreciationPeriod, assetRegistration, assetCategoryService.findOne(assetRegistration.getAssetCategory().getId()));
+    }
+
+    private boolean assetCategoryNotConfigured(DepreciationBatchSequenceDTO batchSequence, DepreciationJobDTO depreciationJob, DepreciationPeriodDTO depreciationPeriod, io.github.erp.service.dto.AssetRegistrationDTO assetRegistration, Optional<AssetCategoryDTO> assetCategory) {
+        boolean assetCategoryDoesNotExist = assetCategory.isEmpty();
 
         if (assetCategoryDoesNotExist) {
 
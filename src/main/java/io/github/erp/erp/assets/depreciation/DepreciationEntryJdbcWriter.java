@@ -0,0 +1,168 @@
+package io.github.erp.erp.assets.depreciation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.context.assets.domain.AssetCategory;
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.*;
+import io.github.erp.repository.search.DepreciationEntrySearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes depreciation-entries to the database with JDBC batch inserts in a single transaction per
+ * batch, bypassing the persistence context. Identifiers are drawn from the sequence used by the
+ * JPA entities, a block of {@link #SEQUENCE_INCREMENT} identifiers per call, the same way the pooled
+ * optimizer of the entity identifier generator does, so that the two never collide
+ */
+@Component
+public class DepreciationEntryJdbcWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DepreciationEntryJdbcWriter.class);
+
+    /**
+     * Increment of the sequence_generator sequence as created in the initial schema
+     */
+    static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String NEXT_SEQUENCE_VALUE = "SELECT nextval('sequence_generator')";
+
+    private static final String INSERT_DEPRECIATION_ENTRY =
+        "INSERT INTO depreciation_entry (" +
+            "id, posted_at, depreciation_amount, asset_number, batch_sequence_number, processed_items, total_items_processed, " +
+            "elapsed_months, prior_months, useful_life_years, previous_nbv, net_book_value, " +
+            "depreciation_period_start_date, depreciation_period_end_date, capitalization_date, " +
+            "service_outlet_id, asset_category_id, depreciation_method_id, asset_registration_id, depreciation_period_id, " +
+            "fiscal_month_id, fiscal_quarter_id, fiscal_year_id, depreciation_job_id, depreciation_batch_sequence_id" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private DepreciationEntrySearchRepository depreciationEntrySearchRepository;
+
+    public DepreciationEntryJdbcWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Insert the entries and commit. On return the entries are durable and carry their identifiers
+     *
+     * @param entries to be inserted
+     */
+    public void write(List<DepreciationEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assignIdentifiers(entries);
+            jdbcTemplate.batchUpdate(INSERT_DEPRECIATION_ENTRY, entries, entries.size(), this::setValues);
+        });
+
+        if (depreciationEntrySearchRepository != null) {
+            try {
+                depreciationEntrySearchRepository.saveAll(entries);
+            } catch (RuntimeException e) {
+                // The entries are already committed; the index is rebuilt by the re-indexer
+                log.warn("{} depreciation entries persisted but not indexed: {}", entries.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void assignIdentifiers(List<DepreciationEntry> entries) {
+        long upperBound = 0;
+        long nextId = 1;
+        for (DepreciationEntry entry : entries) {
+            if (nextId > upperBound) {
+                upperBound = jdbcTemplate.queryForObject(NEXT_SEQUENCE_VALUE, Long.class);
+                nextId = upperBound - SEQUENCE_INCREMENT + 1;
+            }
+            entry.setId(nextId++);
+        }
+    }
+
+    private void setValues(PreparedStatement ps, DepreciationEntry entry) throws SQLException {
+        int i = 0;
+        ps.setLong(++i, entry.getId());
+        ps.setTimestamp(++i, entry.getPostedAt() == null ? null : Timestamp.from(entry.getPostedAt().toInstant()));
+        ps.setBigDecimal(++i, entry.getDepreciationAmount());
+        setLong(ps, ++i, entry.getAssetNumber());
+        setInteger(ps, ++i, entry.getBatchSequenceNumber());
+        ps.setString(++i, entry.getProcessedItems());
+        setInteger(ps, ++i, entry.getTotalItemsProcessed());
+        setLong(ps, ++i, entry.getElapsedMonths());
+        setLong(ps, ++i, entry.getPriorMonths());
+        ps.setBigDecimal(++i, entry.getUsefulLifeYears());
+        ps.setBigDecimal(++i, entry.getPreviousNBV());
+        ps.setBigDecimal(++i, entry.getNetBookValue());
+        ps.setDate(++i, toDate(entry.getDepreciationPeriodStartDate()));
+        ps.setDate(++i, toDate(entry.getDepreciationPeriodEndDate()));
+        ps.setDate(++i, toDate(entry.getCapitalizationDate()));
+        setLong(ps, ++i, idOf(entry.getServiceOutlet(), ServiceOutlet::getId));
+        setLong(ps, ++i, idOf(entry.getAssetCategory(), AssetCategory::getId));
+        setLong(ps, ++i, idOf(entry.getDepreciationMethod(), DepreciationMethod::getId));
+        setLong(ps, ++i, idOf(entry.getAssetRegistration(), AssetRegistration::getId));
+        setLong(ps, ++i, idOf(entry.getDepreciationPeriod(), DepreciationPeriod::getId));
+        setLong(ps, ++i, idOf(entry.getFiscalMonth(), FiscalMonth::getId));
+        setLong(ps, ++i, idOf(entry.getFiscalQuarter(), FiscalQuarter::getId));
+        setLong(ps, ++i, idOf(entry.getFiscalYear(), FiscalYear::getId));
+        setLong(ps, ++i, idOf(entry.getDepreciationJob(), DepreciationJob::getId));
+        setLong(ps, ++i, idOf(entry.getDepreciationBatchSequence(), DepreciationBatchSequence::getId));
+    }
+
+    private static <T> Long idOf(T relation, Function<T, Long> id) {
+        return relation == null ? null : id.apply(relation);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.erp.erp.assets.depreciation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.DepreciationEntry;
+import io.github.erp.erp.assets.depreciation.exceptions.DepreciationEntryPersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Buffer of the depreciation-entries of a single depreciation-job. Consumer threads offer entries to a
+ * bounded queue while a single writer drains it in batches. The queue is bounded by permits: a producer
+ * blocks when the writer has fallen behind by the capacity of the queue, and the writer releases the
+ * permits once the batch is committed. The job's count-down counter is decremented after each commit, by
+ * way of the count-down function which returns the items still pending, so that it reaches zero only when
+ * the last entry of the job is durable.
+ * <p>
+ * A sink whose writer has failed is disabled: the entries still queued are discarded, the writer is not
+ * started again, and the failure is handed to the failure callback once and rethrown to producers and
+ * flushes without another attempt to write
+ * </p>
+ */
+class DepreciationEntryJobSink {
+
+    private static final Logger log = LoggerFactory.getLogger(DepreciationEntryJobSink.class);
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    private final UUID depreciationJobCountDownContextId;
+    private final ConcurrentLinkedQueue<DepreciationEntry> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Consumer<List<DepreciationEntry>> writer;
+    private final Executor writerExecutor;
+    private final IntUnaryOperator countDownPendingItems;
+    private final Runnable onComplete;
+    private final Consumer<RuntimeException> onFailure;
+
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+    private final AtomicLong enqueuedEntries = new AtomicLong();
+    private final AtomicLong persistedEntries = new AtomicLong();
+    private final AtomicBoolean writerRunning = new AtomicBoolean();
+
+    private final Object durabilityMonitor = new Object();
+
+    private volatile boolean flushRequested;
+    private volatile Thread writerThread;
+    private volatile RuntimeException failure;
+
+    DepreciationEntryJobSink(
+        UUID depreciationJobCountDownContextId,
+        int queueCapacity,
+        int batchSize,
+        long lingerMillis,
+        Consumer<List<DepreciationEntry>> writer,
+        Executor writerExecutor,
+        IntUnaryOperator countDownPendingItems,
+        Runnable onComplete,
+        Consumer<RuntimeException> onFailure) {
+        this.depreciationJobCountDownContextId = depreciationJobCountDownContextId;
+        this.capacity = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.writer = writer;
+        this.writerExecutor = writerExecutor;
+        this.countDownPendingItems = countDownPendingItems;
+        this.onComplete = onComplete;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * Offer an entry, blocking while the queue is at capacity
+     */
+    void add(DepreciationEntry entry) {
+        throwIfFailed();
+        try {
+            while (!capacity.tryAcquire(1, TimeUnit.SECONDS)) {
+                throwIfFailed();
+                log.debug("Depreciation entry sink for job context {} is at capacity; waiting for the writer", depreciationJobCountDownContextId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DepreciationEntryPersistenceException(depreciationJobCountDownContextId, "interrupted while waiting for the writer", e);
+        }
+        throwIfFailed();
+
+        queue.offer(entry);
+        enqueuedEntries.incrementAndGet();
+
+        if (queuedEntries.incrementAndGet() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        startWriter();
+    }
+
+    /**
+     * Wait until every entry offered before this call has been committed
+     *
+     * @param timeoutMillis maximum time to wait
+     */
+    void awaitDurable(long timeoutMillis) {
+        long target = enqueuedEntries.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        flushRequested = true;
+        LockSupport.unpark(writerThread);
+        startWriter();
+
+        synchronized (durabilityMonitor) {
+            while (persistedEntries.get() < target) {
+                throwIfFailed();
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new DepreciationEntryPersistenceException(depreciationJobCountDownContextId, (target - persistedEntries.get()) + " entries pending after " + timeoutMillis + "ms");
+                }
+                try {
+                    durabilityMonitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DepreciationEntryPersistenceException(depreciationJobCountDownContextId, "interrupted while waiting for the writer", e);
+                }
+            }
+        }
+        throwIfFailed();
+    }
+
+    boolean isIdle() {
+        return queuedEntries.get() == 0;
+    }
+
+    private void startWriter() {
+        if (failure == null && writerRunning.compareAndSet(false, true)) {
+            writerExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        writerThread = Thread.currentThread();
+        try {
+            while (true) {
+                if (queuedEntries.get() < batchSize && !flushRequested) {
+                    // Give the producers a moment to fill the batch
+                    LockSupport.parkNanos(this, lingerNanos);
+                }
+
+                List<DepreciationEntry> batch = poll();
+                if (batch.isEmpty()) {
+                    flushRequested = false;
+                    writerRunning.set(false);
+                    // An entry offered after the last poll must not be left behind
+                    if (queue.isEmpty() || !writerRunning.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                persist(batch);
+            }
+        } catch (RuntimeException e) {
+            failure = e instanceof DepreciationEntryPersistenceException
+                ? e
+                : new DepreciationEntryPersistenceException(depreciationJobCountDownContextId, e.getMessage(), e);
+            log.error("Depreciation entry writer for job context {} has failed; the sink is disabled", depreciationJobCountDownContextId, e);
+            // Producers held back by the queue are let through, to find the sink failed
+            capacity.release(discardQueued());
+            writerRunning.set(false);
+            onFailure.accept(failure);
+            signalDurabilityWaiters();
+        } finally {
+            writerThread = null;
+        }
+    }
+
+    private List<DepreciationEntry> poll() {
+        List<DepreciationEntry> batch = new ArrayList<>(batchSize);
+        DepreciationEntry entry;
+        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        queuedEntries.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void persist(List<DepreciationEntry> batch) {
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+            try {
+                writer.accept(batch);
+                lastError = null;
+                break;
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("Attempt {} to persist {} depreciation entries failed: {}", attempt, batch.size(), e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+            }
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+
+        capacity.release(batch.size());
+        persistedEntries.addAndGet(batch.size());
+
+        int pendingItems = countDownPendingItems.applyAsInt(batch.size());
+
+        log.debug("{} entries saved to the data-sink. {} pending for persistence", batch.size(), pendingItems);
+
+        signalDurabilityWaiters();
+
+        if (pendingItems <= 0) {
+            log.info("The last depreciation entry for job context {} is now persisted", depreciationJobCountDownContextId);
+            onComplete.run();
+        }
+    }
+
+    private int discardQueued() {
+        int discarded = 0;
+        while (queue.poll() != null) {
+            discarded++;
+        }
+        queuedEntries.addAndGet(-discarded);
+        return discarded;
+    }
+
+    private void signalDurabilityWaiters() {
+        synchronized (durabilityMonitor) {
+            durabilityMonitor.notifyAll();
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
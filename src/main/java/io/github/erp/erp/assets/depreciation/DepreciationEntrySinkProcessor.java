@@ -27,6 +27,11 @@ public interface DepreciationEntrySinkProcessor {
 
     void flushRemainingItems(UUID depreciationJobCountDownContextId);
 
+    /**
+     * Forgets a job that has completed or failed, along with any failure recorded for it
+     */
+    void releaseJob(UUID depreciationJobCountDownContextId);
+
     void shutdown();
 
     void startup();
@@ -19,175 +19,148 @@ package io.github.erp.erp.assets.depreciation;
  */
 import io.github.erp.domain.DepreciationEntry;
 import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
-import io.github.erp.internal.service.assets.InternalDepreciationEntryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.annotation.PostConstruct;
-import java.util.ArrayList;
-import java.util.List;
+import javax.annotation.PreDestroy;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
-
-import static io.github.erp.erp.assets.depreciation.DepreciationJobSequenceServiceImpl.PREFERRED_BATCH_SIZE;
-
-@Transactional
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects depreciation-entries from the depreciation consumers into one {@link DepreciationEntryJobSink}
+ * per depreciation-job, keyed by the job's count-down context. Each sink has a dedicated writer that persists
+ * the entries in JDBC batches and applies backpressure to the consumers when it falls behind. A job's sink
+ * is released once its last entry is durable.
+ * <p>
+ * A sink whose writer fails is removed and the job is remembered as failed: later entries of the job are
+ * dropped without opening a new sink, and the failure is raised when the job is flushed. The failure is
+ * forgotten once the job is released
+ * </p>
+ */
 @Service
 public class DepreciationEntrySinkProcessorImpl implements DepreciationEntrySinkProcessor {
 
     private final static Logger log = LoggerFactory.getLogger(DepreciationEntrySinkProcessorImpl.class);
 
-    private final InternalDepreciationEntryService depreciationEntryService;
-
-    private List<DepreciationEntry> buffer = new ArrayList<>();
-    private final int batchSizeThreshold = PREFERRED_BATCH_SIZE;
-
-
-    private final long flushIntervalMillis = 5000;
-
-    // private ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-    private ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    private final DepreciationEntryJdbcWriter depreciationEntryJdbcWriter;
 
-    private DepreciationJobContext contextManager = DepreciationJobContext.getInstance();
+    private final Map<UUID, DepreciationEntryJobSink> jobSinks = new ConcurrentHashMap<>();
 
-    private ScheduledFuture<?> flushTask;
+    private final Map<UUID, RuntimeException> failedJobs = new ConcurrentHashMap<>();
 
-    // Argh! Additional plumbing was necessary after all
-    private ScheduledFuture<?> flushStuckTask;
+    private final DepreciationJobContext contextManager = DepreciationJobContext.getInstance();
 
-    // Needed for the "additional plumbing"
-    private final long maxFlushDelayMillis = 60000; // Max delay before forcing flush (1 minute)
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long flushTimeoutMillis;
 
-    private boolean isShutdown = false;
+    private volatile ExecutorService writerExecutor;
 
-    public DepreciationEntrySinkProcessorImpl(InternalDepreciationEntryService depreciationEntryService) {
-        this.depreciationEntryService = depreciationEntryService;
+    public DepreciationEntrySinkProcessorImpl(
+        DepreciationEntryJdbcWriter depreciationEntryJdbcWriter,
+        @Value("${erp.depreciation.entry-sink.queue-capacity:20000}") int queueCapacity,
+        @Value("${erp.depreciation.entry-sink.batch-size:2000}") int batchSize,
+        @Value("${erp.depreciation.entry-sink.linger-millis:50}") long lingerMillis,
+        @Value("${erp.depreciation.entry-sink.flush-timeout-millis:300000}") long flushTimeoutMillis) {
+        this.depreciationEntryJdbcWriter = depreciationEntryJdbcWriter;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.flushTimeoutMillis = flushTimeoutMillis;
+        this.writerExecutor = newWriterExecutor();
     }
 
     public void addDepreciationEntry(DepreciationEntry entry, UUID depreciationJobCountDownContextId) {
 
-        if (isShutdown) {
-            startup(); // Start the executor if it's shutdown
+        if (failedJobs.containsKey(depreciationJobCountDownContextId)) {
+            log.trace("Depreciation entry for failed job context {} dropped", depreciationJobCountDownContextId);
+            return;
         }
 
-        buffer.add(entry);
-
-        if (buffer.size() >= batchSizeThreshold) {
-
-            scheduleFlush(depreciationJobCountDownContextId);
-
-        } else if (flushTask == null) {
-
-            scheduleFlushWithDelay(depreciationJobCountDownContextId);
-        }
+        jobSinks.computeIfAbsent(depreciationJobCountDownContextId, this::newJobSink).add(entry);
     }
 
-    private void scheduleFlush(UUID depreciationJobCountDownContextId) {
+    /**
+     * Blocks until every entry of the job received so far has been committed
+     */
+    @Override
+    public void flushRemainingItems(UUID depreciationJobCountDownContextId) {
 
-        if (flushTask != null) {
-            flushTask.cancel(false);
+        RuntimeException failure = failedJobs.get(depreciationJobCountDownContextId);
+        if (failure != null) {
+            throw failure;
         }
-        flushTask = null;
-        flushBufferWithCount(depreciationJobCountDownContextId);
-    }
 
-    public void shutdown() {
-        if (!isShutdown) {
-            log.warn("The buffer now shutting down; standby...");
-            executor.shutdown();
-            isShutdown = true;
-        }
-    }
+        DepreciationEntryJobSink jobSink = jobSinks.get(depreciationJobCountDownContextId);
 
-    public void startup() {
-        if (isShutdown) {
-            log.info("Starting up the buffer processor...");
-            executor = Executors.newScheduledThreadPool(2); // Recreate the executor
-            isShutdown = false;
-            // Schedule flush tasks again if needed
-            if (buffer.size() >= batchSizeThreshold) {
-                scheduleFlush(null);
-            } else if (flushTask == null) {
-                scheduleFlushWithDelay(null);
-            }
+        if (jobSink == null) {
+            log.debug("No pending depreciation entries for job context {}", depreciationJobCountDownContextId);
+            return;
         }
-    }
-
-    @Override
-    public void flushRemainingItems(UUID depreciationJobCountDownContextId) {
-
-        log.info("We have reached the last batch and are attempting to flush the buffer; standby...");
 
-        this.flushBufferWithCount(depreciationJobCountDownContextId);
+        log.info("Awaiting persistence of the depreciation entries for job context {}; standby...", depreciationJobCountDownContextId);
 
-        this.shutdown();
+        jobSink.awaitDurable(flushTimeoutMillis);
     }
 
-    private void scheduleFlushWithDelay(UUID depreciationJobCountDownContextId) {
-        if (flushTask != null) {
-            flushTask.cancel(false);
+    @Override
+    public void releaseJob(UUID depreciationJobCountDownContextId) {
+        if (failedJobs.remove(depreciationJobCountDownContextId) != null) {
+            log.debug("Failure of depreciation job context {} released", depreciationJobCountDownContextId);
         }
-        flushTask = executor.schedule(() -> flushBufferWithCount(depreciationJobCountDownContextId), flushIntervalMillis, TimeUnit.MILLISECONDS);
     }
 
-    private void flushBufferWithCount(UUID depreciationJobCountDownContextId) {
-
-        log.info("Depreciation buffer flushing {} items to the sink", buffer.size());
-
-        if (!buffer.isEmpty()) {
-
-            int numberOfPersistedEntries = this.flushBuffer();
-
-            int pendingItems = contextManager.getNumberOfProcessedItems(depreciationJobCountDownContextId);
-
-            contextManager.updateNumberOfProcessedItems(depreciationJobCountDownContextId, -numberOfPersistedEntries);
-
-            log.info("{} entries successfully saved to the data-sink. {} pending for persistence", numberOfPersistedEntries, pendingItems);
-        }
+    /**
+     * Waits for the entries of every job in progress to be committed. Sinks are not discarded so that a job
+     * may continue to add entries
+     */
+    public void shutdown() {
+        log.info("Flushing {} depreciation entry sinks; standby...", jobSinks.size());
+        jobSinks.values().forEach(jobSink -> jobSink.awaitDurable(flushTimeoutMillis));
     }
 
-    private int flushBuffer() {
-
-        int flushedItems = buffer.size();
-
-        log.info("Depreciation buffer flushing {} items to the sink", flushedItems);
-
-        this.saveEntries();
-
-        return flushedItems;
+    public void startup() {
+        if (writerExecutor.isShutdown()) {
+            log.info("Starting up the depreciation entry writers...");
+            writerExecutor = newWriterExecutor();
+        }
     }
 
-    private void saveEntries() {
-
-        if (!buffer.isEmpty()) {
-
-            List<DepreciationEntry> entriesToPersist = new ArrayList<>(buffer);
-
-            log.info("Clearing buffer...");
-
-            buffer.clear();
-
-            log.info("Saving {} entries to the database", entriesToPersist.size());
-
-            executor.execute(() -> depreciationEntryService.saveAll(entriesToPersist));
-        }
+    @PreDestroy
+    void stopWriters() {
+        shutdown();
+        writerExecutor.shutdown();
     }
 
-    @PostConstruct
-    private void scheduleFlushStuckTask() {
-        flushStuckTask = executor.scheduleAtFixedRate(this::checkFlushStuck, maxFlushDelayMillis, maxFlushDelayMillis, TimeUnit.MILLISECONDS);
+    private DepreciationEntryJobSink newJobSink(UUID depreciationJobCountDownContextId) {
+        log.info("Opening depreciation entry sink for job context {}", depreciationJobCountDownContextId);
+        return new DepreciationEntryJobSink(
+            depreciationJobCountDownContextId,
+            queueCapacity,
+            batchSize,
+            lingerMillis,
+            depreciationEntryJdbcWriter::write,
+            command -> writerExecutor.execute(command),
+            persistedItems -> contextManager.updateNumberOfProcessedItems(depreciationJobCountDownContextId, -persistedItems),
+            () -> jobSinks.remove(depreciationJobCountDownContextId),
+            failure -> {
+                failedJobs.put(depreciationJobCountDownContextId, failure);
+                jobSinks.remove(depreciationJobCountDownContextId);
+            }
+        );
     }
 
-    // Additional plumbing
-    private void checkFlushStuck() {
-        // Check if the buffer hasn't been flushed for a long time
-        long lastFlushTime = System.currentTimeMillis() - flushIntervalMillis;
-        if (flushTask != null && flushTask.getDelay(TimeUnit.MILLISECONDS) > maxFlushDelayMillis && flushStuckTask != null && flushStuckTask.getDelay(TimeUnit.MILLISECONDS) > maxFlushDelayMillis) {
-            log.warn("Forcing flush of the buffer due to long delay in flushing");
-            // scheduleFlush(null);
-            flushBuffer();
-        }
+    private static ExecutorService newWriterExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "depreciation-entry-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -19,7 +19,9 @@ package io.github.erp.erp.assets.depreciation;
  */
 import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
 import io.github.erp.domain.enumeration.DepreciationJobStatusType;
+import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
 import io.github.erp.erp.assets.depreciation.model.DepreciationBatchMessage;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
 import io.github.erp.service.DepreciationBatchSequenceService;
 import io.github.erp.service.DepreciationJobNoticeService;
 import io.github.erp.service.DepreciationJobService;
@@ -38,11 +40,15 @@ public class DepreciationJobErroredCallbackImpl implements DepreciationJobErrore
     private final DepreciationJobService depreciationJobService;
     private final DepreciationJobNoticeService depreciationJobNoticeService;
     private final DepreciationBatchSequenceService depreciationBatchSequenceService;
+    private final DepreciationProgressTracker depreciationProgressTracker;
+    private final DepreciationEntrySinkProcessor depreciationEntrySinkProcessor;
 
-    public DepreciationJobErroredCallbackImpl(DepreciationJobService depreciationJobService, DepreciationJobNoticeService depreciationJobNoticeService, DepreciationBatchSequenceService depreciationBatchSequenceService) {
+    public DepreciationJobErroredCallbackImpl(DepreciationJobService depreciationJobService, DepreciationJobNoticeService depreciationJobNoticeService, DepreciationBatchSequenceService depreciationBatchSequenceService, DepreciationProgressTracker depreciationProgressTracker, DepreciationEntrySinkProcessor depreciationEntrySinkProcessor) {
         this.depreciationJobService = depreciationJobService;
         this.depreciationJobNoticeService = depreciationJobNoticeService;
         this.depreciationBatchSequenceService = depreciationBatchSequenceService;
+        this.depreciationProgressTracker = depreciationProgressTracker;
+        this.depreciationEntrySinkProcessor = depreciationEntrySinkProcessor;
     }
 
     /**
@@ -74,6 +80,13 @@ public class DepreciationJobErroredCallbackImpl implements DepreciationJobErrore
         });
 
         updateBatchSequenceStatus(message.getBatchId());
+
+        depreciationProgressTracker.completeJob(Long.valueOf(message.getJobId()));
+
+        if (message.getContextInstance() != null) {
+            depreciationEntrySinkProcessor.releaseJob(message.getContextInstance().getDepreciationJobCountDownContextId());
+            DepreciationJobContext.getInstance().removeContexts(message.getContextInstance());
+        }
     }
 
     private void updateBatchSequenceStatus(String batchId) {
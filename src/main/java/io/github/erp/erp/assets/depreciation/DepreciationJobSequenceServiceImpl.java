@@ -23,19 +23,29 @@ import io.github.erp.domain.enumeration.DepreciationPeriodStatusTypes;
 import io.github.erp.erp.assets.depreciation.context.DepreciationAmountContext;
 import io.github.erp.erp.assets.depreciation.context.ContextInstance;
 import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
 import io.github.erp.erp.assets.depreciation.queue.DepreciationBatchProducer;
+import io.github.erp.domain.AssetIdAndCostTuple;
+import io.github.erp.erp.assets.depreciation.exceptions.DepreciationBatchNotEnqueuedException;
 import io.github.erp.internal.service.assets.InternalAssetRegistrationService;
+import io.github.erp.internal.service.assets.InternalDepreciationBatchSequenceService;
 import io.github.erp.service.*;
 import io.github.erp.service.dto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -56,26 +66,55 @@ public class DepreciationJobSequenceServiceImpl implements DepreciationJobSequen
 
     private final DepreciationBatchProducer depreciationBatchProducer;
     private final DepreciationJobService depreciationJobService;
-    private final DepreciationBatchSequenceService depreciationBatchSequenceService;
+    private final InternalDepreciationBatchSequenceService internalDepreciationBatchSequenceService;
     private final DepreciationPeriodService depreciationPeriodService;
 
     private final InternalAssetRegistrationService internalAssetRegistrationService;
 
     private final DepreciationEntrySinkProcessor depreciationEntrySinkProcessor;
 
+    private final DepreciationProgressTracker depreciationProgressTracker;
+
+    private final DepreciationJobContext depreciationJobContext;
+
+    private final DepreciationAmountContext depreciationAmountContext;
+
+    /**
+     * Maximum number of batch messages awaiting the broker's acknowledgement
+     */
+    @Value("${erp.depreciation.enqueue.max-messages-in-flight:32}")
+    private int maxMessagesInFlight = 32;
+
     public DepreciationJobSequenceServiceImpl(
         DepreciationBatchProducer depreciationBatchProducer,
         DepreciationJobService depreciationJobService,
-        DepreciationBatchSequenceService depreciationBatchSequenceService,
+        InternalDepreciationBatchSequenceService internalDepreciationBatchSequenceService,
         DepreciationPeriodService depreciationPeriodService,
         InternalAssetRegistrationService internalAssetRegistrationService,
-        DepreciationEntrySinkProcessor depreciationEntrySinkProcessor) {
+        DepreciationEntrySinkProcessor depreciationEntrySinkProcessor,
+        DepreciationProgressTracker depreciationProgressTracker) {
+        this(depreciationBatchProducer, depreciationJobService, internalDepreciationBatchSequenceService, depreciationPeriodService, internalAssetRegistrationService, depreciationEntrySinkProcessor, depreciationProgressTracker, DepreciationJobContext.getInstance(), DepreciationAmountContext.getInstance());
+    }
+
+    DepreciationJobSequenceServiceImpl(
+        DepreciationBatchProducer depreciationBatchProducer,
+        DepreciationJobService depreciationJobService,
+        InternalDepreciationBatchSequenceService internalDepreciationBatchSequenceService,
+        DepreciationPeriodService depreciationPeriodService,
+        InternalAssetRegistrationService internalAssetRegistrationService,
+        DepreciationEntrySinkProcessor depreciationEntrySinkProcessor,
+        DepreciationProgressTracker depreciationProgressTracker,
+        DepreciationJobContext depreciationJobContext,
+        DepreciationAmountContext depreciationAmountContext) {
         this.depreciationBatchProducer = depreciationBatchProducer;
         this.depreciationJobService = depreciationJobService;
-        this.depreciationBatchSequenceService = depreciationBatchSequenceService;
+        this.internalDepreciationBatchSequenceService = internalDepreciationBatchSequenceService;
         this.depreciationPeriodService = depreciationPeriodService;
         this.internalAssetRegistrationService = internalAssetRegistrationService;
         this.depreciationEntrySinkProcessor = depreciationEntrySinkProcessor;
+        this.depreciationProgressTracker = depreciationProgressTracker;
+        this.depreciationJobContext = depreciationJobContext;
+        this.depreciationAmountContext = depreciationAmountContext;
     }
 
     /**
@@ -108,16 +147,23 @@ public class DepreciationJobSequenceServiceImpl implements DepreciationJobSequen
         depreciationJob.setDepreciationJobStatus(DepreciationJobStatusType.RUNNING);
         depreciationJobService.save(depreciationJob);
 
-        log.info("DepreciationJob status update complete, fetching assets for depreciation...");
-        // Fetch assets from the database for depreciation processing
-        List<AssetRegistrationDTO> assets = fetchAssets(depreciationJob);
+        log.info("DepreciationJob status update complete, counting assets for depreciation...");
+        // Count the assets for depreciation processing; they are streamed from the database batch by batch
+        int totalAssets = countAssets(depreciationJob);
 
-        log.info("{} items extracted for depreciation, preferred batch size is {}", assets.size(), PREFERRED_BATCH_SIZE);
+        log.info("{} items due for depreciation, preferred batch size is {}", totalAssets, PREFERRED_BATCH_SIZE);
 
         // Process the assets in batches
-        int numberOfBatches = processAssetsInBatches(depreciationJob, assets, PREFERRED_BATCH_SIZE);
+        int numberOfBatches = processAssetsInBatches(depreciationJob, totalAssets, PREFERRED_BATCH_SIZE);
+
+        if (numberOfBatches == 0) {
+            // No message was sent, so no consumer will ever complete the job
+            log.info("DepreciationJob id {} found no assets to depreciate", depreciationJob.getId());
+            markDepreciationJobWithoutAssetsAsComplete(depreciationJob);
+            return;
+        }
 
-        // Mark the depreciation job as complete
+        // Mark the depreciation job as enqueued
         markDepreciationJobAsEnqueued(depreciationJob, numberOfBatches);
     }
 
@@ -165,113 +211,238 @@ public class DepreciationJobSequenceServiceImpl implements DepreciationJobSequen
     }
 
     /**
-     * Fetches the assets from the database for depreciation processing.
-     * @return List of AssetRegistrationDTO containing the fetched assets.
+     * Counts the assets due for depreciation in the job's period.
+     * @return number of assets capitalised on or before the end of the period.
      */
-    private List<AssetRegistrationDTO> fetchAssets(DepreciationJobDTO depreciationJob) {
+    private int countAssets(DepreciationJobDTO depreciationJob) {
         // TODO ensure assets with same cap date as the depreciation-period#endDate
-        List<AssetRegistrationDTO> assets = internalAssetRegistrationService.findByCapitalizationDateBefore(depreciationJob.getDepreciationPeriod().getEndDate());
-        log.info("System has retrieved {} assets for depreciation.", assets.size());
-        return assets;
+        int totalAssets = Math.toIntExact(internalAssetRegistrationService.countByCapitalizationDateBefore(depreciationJob.getDepreciationPeriod().getEndDate()));
+        log.info("System has counted {} assets for depreciation.", totalAssets);
+        return totalAssets;
     }
 
     /**
-     * Processes the assets in batches for depreciation.
+     * Processes the assets in batches for depreciation. The batch-sequences are created up front in a
+     * single bulk insert; the assets are then read a page at a time by keyset on the asset id, projecting
+     * only the id and cost, and each page is sent to the queue without waiting for the broker, up to a
+     * bounded number of sends in flight.
+     * <p>
+     * Each page is read before the previous one is sent, so that the last batch is known when it is sent.
+     * Should the register have shrunk since the assets were counted, the job's counters are settled on
+     * the items actually enqueued before the last batch goes out, and the batch-sequences that were never
+     * sent are deleted.
+     *
+     * @return the number of batches enqueued
      */
-    private int processAssetsInBatches(DepreciationJobDTO depreciationJob, List<AssetRegistrationDTO> assets, int batchSize) {
-         int totalAssets = assets.size();
-         int processedCount = 0;
-         int sequenceCounter = 0;
+    private int processAssetsInBatches(DepreciationJobDTO depreciationJob, int totalAssets, int batchSize) {
          int numberOfBatches = totalAssets / batchSize + (totalAssets % batchSize == 0 ? 0 : 1);
 
-         DepreciationJobContext contextManager = DepreciationJobContext.getInstance();
-         UUID depreciationJobCountUpContextId = contextManager.createContext(0);
-         UUID depreciationJobCountDownContextId = contextManager.createContext(totalAssets);
-         UUID depreciationBatchCountUpContextId = contextManager.createContext(0);
-         UUID messageCountContextId = contextManager.createContext(0);
-         UUID depreciationBatchCountDownContextId = contextManager.createContext(totalAssets);
+         UUID depreciationJobCountUpContextId = depreciationJobContext.createContext(0);
+         UUID depreciationJobCountDownContextId = depreciationJobContext.createContext(totalAssets);
+         UUID depreciationBatchCountUpContextId = depreciationJobContext.createContext(0);
+         UUID messageCountContextId = depreciationJobContext.createContext(0);
+         UUID depreciationBatchCountDownContextId = depreciationJobContext.createContext(totalAssets);
 
-         DepreciationAmountContext depreciationAmountContext = DepreciationAmountContext.getInstance();
          UUID depreciationAmountContextId = depreciationAmountContext.createDepreciationAmountContext();
 
+         ContextInstance contextInstance = ContextInstance.builder()
+             .depreciationJobCountUpContextId(depreciationJobCountUpContextId)
+             .depreciationBatchCountUpContextId(depreciationBatchCountUpContextId)
+             .depreciationJobCountDownContextId(depreciationJobCountDownContextId)
+             .depreciationBatchCountDownContextId(depreciationBatchCountDownContextId)
+             .depreciationAmountContextId(depreciationAmountContextId)
+             .messageCountContextId(messageCountContextId)
+             .build();
+
+         depreciationProgressTracker.registerJob(depreciationJob.getId(), contextInstance, totalAssets, numberOfBatches);
+
          log.info("System is processing {} assets in batches of {}", totalAssets, batchSize);
 
-         // TODO check if the we can implement this lists on the repository itself using pages
-         // TODO so that we can pull only the size of the assets needed not the whole kingdom
-         while (processedCount < totalAssets) {
+         List<DepreciationBatchSequenceDTO> batchSequences = createDepreciationBatchSequences(depreciationJob, totalAssets, numberOfBatches, batchSize);
+
+         LocalDate periodEndDate = depreciationJob.getDepreciationPeriod().getEndDate();
+         Semaphore sendsInFlight = new Semaphore(maxMessagesInFlight);
+         AtomicReference<Throwable> sendFailure = new AtomicReference<>();
+
+         List<Long> enqueuedBatchIds = new ArrayList<>(batchSequences.size());
+         int processedCount = 0;
+
+         List<AssetIdAndCostTuple> nextBatch = batchSequences.isEmpty()
+             ? List.of()
+             : internalAssetRegistrationService.findAssetIdsAndCostsCapitalizedBefore(periodEndDate, 0L, batchSequences.get(0).getBatchSize());
 
-            ++sequenceCounter;
+         for (int index = 0; index < batchSequences.size() && !nextBatch.isEmpty(); index++) {
 
-            int startIndex = processedCount;
-            int endIndex = Math.min(processedCount + batchSize, totalAssets);
+            DepreciationBatchSequenceDTO batchSequence = batchSequences.get(index);
+            List<AssetIdAndCostTuple> currentBatch = nextBatch;
+            long lastAssetId = currentBatch.get(currentBatch.size() - 1).getAssetId();
 
-            // Get the current batch of assets
-            List<AssetRegistrationDTO> currentBatch = assets.subList(startIndex, endIndex);
+            boolean hasNextBatchSequence = index + 1 < batchSequences.size();
+            nextBatch = hasNextBatchSequence
+                ? internalAssetRegistrationService.findAssetIdsAndCostsCapitalizedBefore(periodEndDate, lastAssetId, batchSequences.get(index + 1).getBatchSize())
+                : List.of();
 
-            // Check if this is the last batch
-            boolean isLastBatch = processedCount + batchSize >= totalAssets;
-            DepreciationBatchSequenceDTO batchSequence = createDepreciationBatchSequence(depreciationJob, startIndex, endIndex, isLastBatch, processedCount, currentBatch.size(), sequenceCounter, totalAssets);
+            boolean isLastBatch = nextBatch.isEmpty();
+            int totalItems = totalAssets;
+            int batchesInJob = numberOfBatches;
 
-            ContextInstance contextInstance = ContextInstance.builder()
-                .depreciationJobCountUpContextId(depreciationJobCountUpContextId)
-                .depreciationBatchCountUpContextId(depreciationBatchCountUpContextId)
-                .depreciationJobCountDownContextId(depreciationJobCountDownContextId)
-                .depreciationBatchCountDownContextId(depreciationBatchCountDownContextId)
-                .depreciationAmountContextId(depreciationAmountContextId)
-                .messageCountContextId(messageCountContextId)
-                .build();
+            if (isLastBatch) {
+                if (hasNextBatchSequence) {
+                    log.warn("Batch # {} of job id {} found no assets after asset id {}; the register has changed since the job started", batchSequences.get(index + 1).getSequenceNumber(), depreciationJob.getId(), lastAssetId);
+                }
+                totalItems = processedCount + currentBatch.size();
+                batchesInJob = enqueuedBatchIds.size() + 1;
+                settleJobTotals(depreciationJob, contextInstance, totalAssets, totalItems, batchesInJob);
+            }
 
-            BigDecimal initialCost = currentBatch.stream().map(AssetRegistrationDTO::getAssetCost).reduce(BigDecimal::add).get();
+            BigDecimal initialCost = currentBatch.stream()
+                .map(AssetIdAndCostTuple::getAssetCost)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-            List<Long> assetIds = currentBatch.stream().map(AssetRegistrationDTO::getId).collect(Collectors.toList());
+            List<Long> assetIds = currentBatch.stream().map(AssetIdAndCostTuple::getAssetId).collect(Collectors.toList());
 
             // Process and enqueue the current batch
-            processAndEnqueueBatch(depreciationJob, assetIds, batchSequence, isLastBatch, processedCount, sequenceCounter, totalAssets, contextInstance, numberOfBatches, initialCost);
+            processAndEnqueueBatch(depreciationJob, assetIds, batchSequence, isLastBatch, processedCount, batchSequence.getSequenceNumber(), totalItems, contextInstance, batchesInJob, initialCost, sendsInFlight, sendFailure);
+
+            enqueuedBatchIds.add(batchSequence.getId());
+            processedCount += currentBatch.size();
+        }
+
+        awaitSendsInFlight(depreciationJob, sendsInFlight, sendFailure);
+
+        // Update the statuses of the batch sequences that were sent to enqueued, and drop the rest. Batches
+        // the consumers have completed in the meantime are no longer CREATED and keep their status
+        int enqueuedBatches = internalDepreciationBatchSequenceService.updateBatchStatus(enqueuedBatchIds, DepreciationBatchStatusType.CREATED, DepreciationBatchStatusType.ENQUEUED);
+
+        List<Long> unsentBatchIds = batchSequences.stream()
+            .map(DepreciationBatchSequenceDTO::getId)
+            .skip(enqueuedBatchIds.size())
+            .collect(Collectors.toList());
+        internalDepreciationBatchSequenceService.deleteAll(unsentBatchIds);
+
+        log.info("{} batches enqueued for depreciation-job id {}; {} unsent batches removed", enqueuedBatches, depreciationJob.getId(), unsentBatchIds.size());
+
+        if (enqueuedBatchIds.isEmpty()) {
+            // No consumer will settle the job, so its counters are released here
+            depreciationJobContext.removeContexts(contextInstance);
+        }
+
+        return enqueuedBatchIds.size();
+    }
 
-            processedCount += batchSize;
+    /**
+     * Brings the job's countdown counters and progress in line with the items actually enqueued, where
+     * fewer assets were found than were counted. This is done before the last batch is sent, so that the
+     * counters reach zero once every enqueued item has been depreciated and persisted
+     */
+    private void settleJobTotals(DepreciationJobDTO depreciationJob, ContextInstance contextInstance, int countedItems, int enqueuedItems, int enqueuedBatches) {
+        int shortfall = countedItems - enqueuedItems;
+        if (shortfall <= 0) {
+            return;
         }
-        return numberOfBatches;
+
+        log.warn("Depreciation-job id {} enqueued {} of the {} assets counted", depreciationJob.getId(), enqueuedItems, countedItems);
+
+        depreciationJobContext.updateNumberOfProcessedItems(contextInstance.getDepreciationJobCountDownContextId(), -shortfall);
+        depreciationJobContext.updateNumberOfProcessedItems(contextInstance.getDepreciationBatchCountDownContextId(), -shortfall);
+        depreciationProgressTracker.registerJob(depreciationJob.getId(), contextInstance, enqueuedItems, enqueuedBatches);
     }
 
     /**
-     * Creates a DepreciationBatchSequence entity to track the processed batch.
+     * Creates the DepreciationBatchSequence entities to track every batch of the job, in a single bulk insert.
      */
-    private DepreciationBatchSequenceDTO createDepreciationBatchSequence(DepreciationJobDTO depreciationJob, int startIndex, int endIndex, boolean isLastBatch, int processedItems, int batchSize, int sequenceNumber, int totalItems) {
-        DepreciationBatchSequenceDTO batchSequence = new DepreciationBatchSequenceDTO();
-        batchSequence.setDepreciationBatchStatus(DepreciationBatchStatusType.CREATED);
-        batchSequence.setDepreciationJob(depreciationJob);
-        batchSequence.setStartIndex(startIndex);
-        batchSequence.setEndIndex(endIndex);
-        batchSequence.setSequenceNumber(sequenceNumber);
-        batchSequence.setBatchSize(batchSize);
-        batchSequence.setProcessedItems(processedItems);
-        batchSequence.setIsLastBatch(isLastBatch);
-        batchSequence.setTotalItems(totalItems);
-        // TODO batchSequence.setProcessingIdentifier(/* Extracted from DepreciationContext*/);
-        // TODO SET identifier to compute processing time
-
-        DepreciationBatchSequenceDTO createdBatchSequence = depreciationBatchSequenceService.save(batchSequence);
-
-        log.debug("Initiating batch sequence id {}, for depreciation-job id {}, depreciation-period id {}. Standby", createdBatchSequence.getId(), depreciationJob.getId(), depreciationJob.getDepreciationPeriod().getId());
-
-        return createdBatchSequence;
+    private List<DepreciationBatchSequenceDTO> createDepreciationBatchSequences(DepreciationJobDTO depreciationJob, int totalItems, int numberOfBatches, int batchSize) {
+        List<DepreciationBatchSequenceDTO> batchSequences = new ArrayList<>(numberOfBatches);
+
+        for (int sequenceNumber = 1; sequenceNumber <= numberOfBatches; sequenceNumber++) {
+            int startIndex = (sequenceNumber - 1) * batchSize;
+            int endIndex = Math.min(startIndex + batchSize, totalItems);
+
+            DepreciationBatchSequenceDTO batchSequence = new DepreciationBatchSequenceDTO();
+            batchSequence.setDepreciationBatchStatus(DepreciationBatchStatusType.CREATED);
+            batchSequence.setDepreciationJob(depreciationJob);
+            batchSequence.setStartIndex(startIndex);
+            batchSequence.setEndIndex(endIndex);
+            batchSequence.setSequenceNumber(sequenceNumber);
+            batchSequence.setBatchSize(endIndex - startIndex);
+            batchSequence.setProcessedItems(startIndex);
+            batchSequence.setIsLastBatch(sequenceNumber == numberOfBatches);
+            batchSequence.setTotalItems(totalItems);
+            // TODO batchSequence.setProcessingIdentifier(/* Extracted from DepreciationContext*/);
+            // TODO SET identifier to compute processing time
+
+            batchSequences.add(batchSequence);
+        }
+
+        List<DepreciationBatchSequenceDTO> createdBatchSequences = internalDepreciationBatchSequenceService.saveAll(batchSequences);
+
+        log.debug("Created {} batch sequences for depreciation-job id {}, depreciation-period id {}. Standby", createdBatchSequences.size(), depreciationJob.getId(), depreciationJob.getDepreciationPeriod().getId());
+
+        return createdBatchSequences;
     }
 
     /**
      * Processes and enqueues the current batch for depreciation.
      */
-    private void processAndEnqueueBatch(DepreciationJobDTO depreciationJob, List<Long> currentBatch, DepreciationBatchSequenceDTO batchSequence, boolean isLastBatch, int processedCount, int sequenceNumber, int totalItems, ContextInstance contextInstance, int numberOfBatches, BigDecimal initialCost) {
+    private void processAndEnqueueBatch(DepreciationJobDTO depreciationJob, List<Long> currentBatch, DepreciationBatchSequenceDTO batchSequence, boolean isLastBatch, int processedCount, int sequenceNumber, int totalItems, ContextInstance contextInstance, int numberOfBatches, BigDecimal initialCost, Semaphore sendsInFlight, AtomicReference<Throwable> sendFailure) {
 
         log.info("Batch # {} of {} items received for processing under job id {}; {} items processed out of {}", sequenceNumber, currentBatch.size(),depreciationJob.getDescription(),processedCount, totalItems);
+
+        // Hold back while the broker is behind
+        acquireSendPermits(depreciationJob, sendsInFlight, 1);
+        throwIfSendFailed(depreciationJob, sendFailure);
+
         // Enqueuing the DepreciationBatchMessage
-        depreciationBatchProducer.sendDepreciationJobMessage(depreciationJob, currentBatch, batchSequence, isLastBatch, processedCount, sequenceNumber, totalItems, contextInstance, numberOfBatches, initialCost);
-        // Update the batch sequence status to enqueued
-        batchSequence.setDepreciationBatchStatus(DepreciationBatchStatusType.ENQUEUED);
-        depreciationBatchSequenceService.save(batchSequence);
+        depreciationBatchProducer
+            .sendDepreciationJobMessage(depreciationJob, currentBatch, batchSequence, isLastBatch, processedCount, sequenceNumber, totalItems, contextInstance, numberOfBatches, initialCost)
+            .addCallback(
+                result -> sendsInFlight.release(),
+                failure -> {
+                    log.error("Batch # {} of job id {} could not be enqueued", sequenceNumber, depreciationJob.getId(), failure);
+                    sendFailure.compareAndSet(null, failure);
+                    sendsInFlight.release();
+                });
+    }
+
+    /**
+     * Waits for the broker to acknowledge every message sent for the job
+     */
+    private void awaitSendsInFlight(DepreciationJobDTO depreciationJob, Semaphore sendsInFlight, AtomicReference<Throwable> sendFailure) {
+        acquireSendPermits(depreciationJob, sendsInFlight, maxMessagesInFlight);
+        sendsInFlight.release(maxMessagesInFlight);
+        throwIfSendFailed(depreciationJob, sendFailure);
+    }
+
+    private void acquireSendPermits(DepreciationJobDTO depreciationJob, Semaphore sendsInFlight, int permits) {
+        try {
+            sendsInFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DepreciationBatchNotEnqueuedException(depreciationJob.getId(), e);
+        }
+    }
+
+    private void throwIfSendFailed(DepreciationJobDTO depreciationJob, AtomicReference<Throwable> sendFailure) {
+        if (sendFailure.get() != null) {
+            throw new DepreciationBatchNotEnqueuedException(depreciationJob.getId(), sendFailure.get());
+        }
+    }
+
+    /**
+     * Marks the depreciation job as complete where it had no assets to enqueue.
+     */
+    private void markDepreciationJobWithoutAssetsAsComplete(DepreciationJobDTO depreciationJob) {
+        depreciationJob.setNumberOfBatches(0);
+        depreciationJob.setProcessedItems(0);
+        depreciationJob.setTimeOfCommencement(ZonedDateTime.now());
+        depreciationJob.setDepreciationJobStatus(DepreciationJobStatusType.COMPLETE);
+        depreciationJobService.save(depreciationJob);
+        depreciationProgressTracker.completeJob(depreciationJob.getId());
     }
 
     /**
-     * Marks the depreciation job as complete.
+     * Marks the depreciation job as enqueued.
      */
     @Async
     void markDepreciationJobAsEnqueued(DepreciationJobDTO depreciationJob, int numberOfBatches) {
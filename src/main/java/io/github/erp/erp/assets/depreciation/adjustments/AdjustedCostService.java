@@ -20,6 +20,8 @@ package io.github.erp.erp.assets.depreciation.adjustments;
 import io.github.erp.service.dto.DepreciationPeriodDTO;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * Derives a cost adjustment for the depreciation depending on presence of asset write-off,
@@ -42,4 +44,15 @@ public interface AdjustedCostService {
      * @return The amount of adjustment to the asset cost
      */
     BigDecimal getAssetAmountAdjustment(DepreciationPeriodDTO depreciationPeriod, String assetId);
+
+    /**
+     * Batch variant of {@link #getAssetAmountAdjustment(DepreciationPeriodDTO, String)} which resolves
+     * the adjustments of a whole batch of assets in a single grouped query per adjustment type
+     *
+     * @param depreciationPeriod Specified for the current Job
+     * @param assetIds of the assets whose depreciation we are calculating
+     * @return The amount of adjustment to the asset cost by asset id. Assets without adjustments
+     * are not included
+     */
+    Map<Long, BigDecimal> getAssetAmountAdjustments(DepreciationPeriodDTO depreciationPeriod, Collection<Long> assetIds);
 }
@@ -21,6 +21,9 @@ import io.github.erp.service.dto.DepreciationPeriodDTO;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Calculates the aggregate amount of adjustment to be subtracted from the asset
@@ -61,4 +64,28 @@ public class AggregateAssetCostAdjustmentService implements AdjustedCostService
 
         return adjustment;
     }
+
+    /**
+     * Sums up the adjustments by asset id from each of the adjustment types, each of which is
+     * resolved for the whole batch in a single grouped query
+     *
+     * @param depreciationPeriod Specified for the current Job
+     * @param assetIds           of the assets whose depreciation we are calculating
+     * @return The amount of adjustment to the asset cost by asset id
+     */
+    @Override
+    public Map<Long, BigDecimal> getAssetAmountAdjustments(DepreciationPeriodDTO depreciationPeriod, Collection<Long> assetIds) {
+        Map<Long, BigDecimal> adjustments = new HashMap<>();
+
+        if (assetIds.isEmpty()) {
+            return adjustments;
+        }
+
+        assetDisposalAdjustmentService.getAssetAmountAdjustments(depreciationPeriod, assetIds).forEach((assetId, amount) -> adjustments.merge(assetId, amount, BigDecimal::add));
+        assetWriteOffAdjustmentService.getAssetAmountAdjustments(depreciationPeriod, assetIds).forEach((assetId, amount) -> adjustments.merge(assetId, amount, BigDecimal::add));
+        assetRevaluationAdjustmentService.getAssetAmountAdjustments(depreciationPeriod, assetIds).forEach((assetId, amount) -> adjustments.merge(assetId, amount, BigDecimal::add));
+        generalAssetAmountAdjustmentService.getAssetAmountAdjustments(depreciationPeriod, assetIds).forEach((assetId, amount) -> adjustments.merge(assetId, amount, BigDecimal::add));
+
+        return adjustments;
+    }
 }
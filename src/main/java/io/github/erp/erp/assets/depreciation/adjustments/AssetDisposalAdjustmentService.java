@@ -17,11 +17,15 @@ package io.github.erp.erp.assets.depreciation.adjustments;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.internal.service.assets.InternalAssetDisposalService;
 import io.github.erp.service.dto.DepreciationPeriodDTO;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Asset adjustment triggered by the disposal of an asset
@@ -50,4 +54,17 @@ public class AssetDisposalAdjustmentService implements AdjustedCostService {
 
         return disposalAmount[0];
     }
+
+    /**
+     * @param depreciationPeriod Specified for the current Job
+     * @param assetIds           of the assets whose depreciation we are calculating
+     * @return The amount of adjustment to the asset cost by asset id
+     */
+    @Override
+    public Map<Long, BigDecimal> getAssetAmountAdjustments(DepreciationPeriodDTO depreciationPeriod, Collection<Long> assetIds) {
+
+        return internalAssetDisposalService.findDisposalAmounts(assetIds, depreciationPeriod.getStartDate())
+            .stream()
+            .collect(Collectors.toMap(AssetAmountAdjustmentTuple::getAssetId, AssetAmountAdjustmentTuple::getAdjustmentAmount));
+    }
 }
@@ -0,0 +1,181 @@
+package io.github.erp.erp.assets.depreciation.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.enumeration.DepreciationTypes;
+import io.github.erp.erp.assets.depreciation.model.DepreciationArtefact;
+import io.github.erp.service.dto.AssetCategoryDTO;
+import io.github.erp.service.dto.AssetRegistrationDTO;
+import io.github.erp.service.dto.DepreciationMethodDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationConstants.*;
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationUtility.calculateUsefulLifeMonths;
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationUtility.convertBasisPointsToDecimalMonthlyDepreciationRate;
+
+/**
+ * Calculates reducing balance depreciation for the period requested. Unlike the
+ * {@link ReducingBalanceDepreciationCalculator} the net book value at the start of the period is
+ * not computed month by month from the capitalization date but in closed form as
+ * <pre>
+ *     nbv = cost * (1 - monthlyRate) ^ priorMonths
+ * </pre>
+ * The month-by-month calculation rounds each month's depreciation to {@link DepreciationConstants#DECIMAL_SCALE}
+ * places, and each such rounding can shift the net book value by at most half a unit in the last place.
+ * Since the rate is at most one, earlier rounding differences shrink rather than grow, so the two approaches
+ * differ by no more than half a unit in the last place for each prior month. The closed form is applied only
+ * where that bound is within the configured tolerance; older assets fall back to the month-by-month calculation.
+ * The depreciation within the period itself is still computed month by month.
+ */
+@Service("closedFormReducingBalanceDepreciationCalculator")
+public class ClosedFormReducingBalanceDepreciationCalculator implements CalculatesDepreciation {
+
+    private static final BigDecimal HALF_UNIT_IN_LAST_PLACE = BigDecimal.valueOf(5, DECIMAL_SCALE + 1);
+
+    private static final MathContext POWER_CONTEXT = MathContext.DECIMAL128;
+
+    // (1 - monthlyRate) ^ months by monthly rate, shared by all assets in the same category
+    private final Map<BigDecimal, Map<Integer, BigDecimal>> retentionFactors = new ConcurrentHashMap<>();
+
+    private final BigDecimal tolerance;
+
+    public ClosedFormReducingBalanceDepreciationCalculator(@Value("${erp.depreciation.reducing-balance.tolerance:0.01}") BigDecimal tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public DepreciationArtefact calculateDepreciation(AssetRegistrationDTO asset, DepreciationPeriodDTO period, AssetCategoryDTO assetCategory, DepreciationMethodDTO depreciationMethod, BigDecimal costAdjustment) throws DepreciationRateNotProvidedException {
+
+        if (depreciationMethod.getDepreciationType() != DepreciationTypes.DECLINING_BALANCE ) {
+
+            return returnZeroAmountDepreciation(asset, ZERO, assetCategory.getDepreciationRateYearly(), period.getStartDate(), period.getEndDate());
+        }
+
+        return calculatedDepreciation(asset, period, assetCategory, costAdjustment);
+    }
+
+    @NotNull
+    private DepreciationArtefact calculatedDepreciation(AssetRegistrationDTO asset, DepreciationPeriodDTO period, AssetCategoryDTO assetCategory, BigDecimal costAdjustment) throws DepreciationRateNotProvidedException {
+
+        BigDecimal netBookValue = asset.getAssetCost().subtract(costAdjustment);
+
+        if (assetCategory.getDepreciationRateYearly() == null) {
+            throw new DepreciationRateNotProvidedException("Depreciation rate is not provided", assetCategory);
+        }
+        BigDecimal depreciationRate = convertBasisPointsToDecimalMonthlyDepreciationRate(assetCategory.getDepreciationRateYearly());
+        LocalDate capitalizationDate = asset.getCapitalizationDate();
+        LocalDate periodStartDate = period.getStartDate();
+        LocalDate periodEndDate = period.getEndDate();
+
+        if (capitalizationDate.isAfter(periodEndDate)) {
+            return returnZeroAmountDepreciation(asset, netBookValue, depreciationRate, periodStartDate, periodEndDate);
+        }
+
+        int elapsedMonthsBeforeStart = 0;
+
+        if (capitalizationDate.isBefore(periodStartDate)) {
+            elapsedMonthsBeforeStart = Math.toIntExact(ChronoUnit.MONTHS.between(capitalizationDate, periodStartDate)) + 1;
+
+            netBookValue = withinTolerance(elapsedMonthsBeforeStart)
+                ? closedFormNetBookValue(netBookValue, depreciationRate, elapsedMonthsBeforeStart)
+                : monthByMonthNetBookValue(netBookValue, depreciationRate, elapsedMonthsBeforeStart);
+        }
+
+        int elapsedMonths = Math.toIntExact(ChronoUnit.MONTHS.between(periodStartDate, periodEndDate)) + 1;
+
+        BigDecimal depreciationAmount = BigDecimal.ZERO;
+        for (int month = 1; month <= elapsedMonths; month++) {
+            BigDecimal monthlyDepreciation = netBookValue.multiply(depreciationRate).setScale(DECIMAL_SCALE, ROUNDING_MODE);
+            depreciationAmount = depreciationAmount.add(monthlyDepreciation);
+            netBookValue = netBookValue.subtract(monthlyDepreciation);
+            if (netBookValue.compareTo(BigDecimal.ZERO) < 0) {
+                netBookValue = BigDecimal.ZERO;
+            }
+        }
+
+        return DepreciationArtefact.builder()
+            .depreciationPeriodStartDate(periodStartDate)
+            .depreciationPeriodEndDate(periodEndDate)
+            .depreciationAmount(depreciationAmount.setScale(MONEY_SCALE, ROUNDING_MODE))
+            .elapsedMonths((long) elapsedMonths)
+            .priorMonths((long) elapsedMonthsBeforeStart)
+            .usefulLifeYears(calculateUsefulLifeMonths(depreciationRate))
+            .nbvBeforeDepreciation(netBookValue.add(depreciationAmount).setScale(MONEY_SCALE, ROUNDING_MODE))
+            .nbv(netBookValue)
+            .capitalizationDate(asset.getCapitalizationDate())
+            .build();
+    }
+
+    /**
+     * The worst case difference from the month-by-month calculation is half a unit in the last place
+     * for each month, plus the rounding of the closed-form result itself
+     */
+    boolean withinTolerance(int months) {
+        return HALF_UNIT_IN_LAST_PLACE.multiply(BigDecimal.valueOf(months + 1L)).compareTo(tolerance) <= 0;
+    }
+
+    BigDecimal closedFormNetBookValue(BigDecimal netBookValue, BigDecimal monthlyRate, int months) {
+
+        // A non-positive balance, or a rate that consumes the balance in one month, leaves nothing after the first month
+        if (netBookValue.signum() <= 0 || monthlyRate.compareTo(BigDecimal.ONE) >= 0) {
+            return BigDecimal.ZERO.setScale(DECIMAL_SCALE, ROUNDING_MODE);
+        }
+
+        return netBookValue.multiply(retentionFactor(monthlyRate, months)).setScale(DECIMAL_SCALE, ROUNDING_MODE);
+    }
+
+    private BigDecimal retentionFactor(BigDecimal monthlyRate, int months) {
+        return retentionFactors
+            .computeIfAbsent(monthlyRate, rate -> new ConcurrentHashMap<>())
+            .computeIfAbsent(months, m -> BigDecimal.ONE.subtract(monthlyRate).pow(m, POWER_CONTEXT));
+    }
+
+    private BigDecimal monthByMonthNetBookValue(BigDecimal netBookValue, BigDecimal monthlyRate, int months) {
+        for (int month = 1; month <= months; month++) {
+            BigDecimal monthlyDepreciation = netBookValue.multiply(monthlyRate).setScale(DECIMAL_SCALE, ROUNDING_MODE);
+            netBookValue = netBookValue.subtract(monthlyDepreciation);
+            if (netBookValue.compareTo(BigDecimal.ZERO) < 0) {
+                netBookValue = BigDecimal.ZERO;
+            }
+        }
+        return netBookValue;
+    }
+
+    private DepreciationArtefact returnZeroAmountDepreciation(AssetRegistrationDTO asset, BigDecimal netBookValue, BigDecimal depreciationRate, LocalDate periodStartDate, LocalDate periodEndDate) {
+        return DepreciationArtefact.builder()
+            .depreciationPeriodStartDate(periodStartDate)
+            .depreciationPeriodEndDate(periodEndDate)
+            .depreciationAmount(BigDecimal.ZERO)
+            .elapsedMonths((long) 0)
+            .priorMonths((long) 0)
+            .usefulLifeYears(calculateUsefulLifeMonths(depreciationRate))
+            .nbvBeforeDepreciation(BigDecimal.ZERO)
+            .capitalizationDate(asset.getCapitalizationDate())
+            .nbv(netBookValue)
+            .build();
+    }
+}
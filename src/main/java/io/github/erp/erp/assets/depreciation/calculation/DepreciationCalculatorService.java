@@ -23,6 +23,7 @@ import io.github.erp.service.dto.AssetCategoryDTO;
 import io.github.erp.service.dto.AssetRegistrationDTO;
 import io.github.erp.service.dto.DepreciationMethodDTO;
 import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -33,11 +34,22 @@ import java.math.BigDecimal;
 @Service("depreciationCalculatorService")
 public class DepreciationCalculatorService implements CalculatesDepreciation {
 
-    private final ReducingBalanceDepreciationCalculator reducingBalanceDepreciationCalculator;
+    public static final String CLOSED_FORM_STRATEGY = "closed-form";
+
+    private final CalculatesDepreciation reducingBalanceDepreciationCalculator;
     private final StraightLineDepreciationCalculator straightLineDepreciationCalculator;
 
-    public DepreciationCalculatorService(ReducingBalanceDepreciationCalculator reducingBalanceDepreciationCalculator, StraightLineDepreciationCalculator straightLineDepreciationCalculator) {
-        this.reducingBalanceDepreciationCalculator = reducingBalanceDepreciationCalculator;
+    /**
+     * @param reducingBalanceStrategy either "iterative" for the month-by-month calculation, or "closed-form"
+     */
+    public DepreciationCalculatorService(
+        ReducingBalanceDepreciationCalculator reducingBalanceDepreciationCalculator,
+        ClosedFormReducingBalanceDepreciationCalculator closedFormReducingBalanceDepreciationCalculator,
+        StraightLineDepreciationCalculator straightLineDepreciationCalculator,
+        @Value("${erp.depreciation.reducing-balance.strategy:iterative}") String reducingBalanceStrategy) {
+        this.reducingBalanceDepreciationCalculator = CLOSED_FORM_STRATEGY.equalsIgnoreCase(reducingBalanceStrategy)
+            ? closedFormReducingBalanceDepreciationCalculator
+            : reducingBalanceDepreciationCalculator;
         this.straightLineDepreciationCalculator = straightLineDepreciationCalculator;
     }
 
@@ -0,0 +1,64 @@
+package io.github.erp.erp.assets.depreciation.context;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.github.erp.config.CacheConfiguration.HAZELCAST_INSTANCE_NAME;
+
+/**
+ * Resolves the hazelcast instance configured in {@link io.github.erp.config.CacheConfiguration} so that
+ * the depreciation contexts share the application's cluster member instead of each starting their own.
+ * A standalone member is only started where the application instance has not been created, for instance
+ * when the contexts are used outside the spring container
+ */
+final class ContextHazelcastInstance {
+
+    private static final Logger log = LoggerFactory.getLogger(ContextHazelcastInstance.class);
+
+    private static volatile HazelcastInstance hazelcastInstance;
+
+    private ContextHazelcastInstance() {
+    }
+
+    static HazelcastInstance get() {
+        HazelcastInstance current = hazelcastInstance;
+        if (current == null || !current.getLifecycleService().isRunning()) {
+            synchronized (ContextHazelcastInstance.class) {
+                current = hazelcastInstance;
+                if (current == null || !current.getLifecycleService().isRunning()) {
+                    current = resolve();
+                    hazelcastInstance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static HazelcastInstance resolve() {
+        HazelcastInstance sharedInstance = Hazelcast.getHazelcastInstanceByName(HAZELCAST_INSTANCE_NAME);
+        if (sharedInstance != null) {
+            return sharedInstance;
+        }
+        log.warn("Hazelcast instance {} is not running; starting a standalone instance for depreciation contexts", HAZELCAST_INSTANCE_NAME);
+        return Hazelcast.newHazelcastInstance();
+    }
+}
@@ -17,8 +17,8 @@ package io.github.erp.erp.assets.depreciation.context;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.hazelcast.core.Hazelcast;
-import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -27,7 +27,6 @@ import java.util.UUID;
 
 public class DepreciationAmountContext implements Serializable {
 
-    private static final HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance();
     private static final DepreciationAmountContext INSTANCE = new DepreciationAmountContext();
 
     private static final String CONTEXT_ID = "depreciationAmountContext";
@@ -44,15 +43,43 @@ public class DepreciationAmountContext implements Serializable {
         this.amountsByAssetCategoryAndServiceOutlet = new HashMap<>();
     }
 
+    static DepreciationAmountContext emptyContext() {
+        return new DepreciationAmountContext();
+    }
+
+    /**
+     * A context in which a batch collects its items and amounts before they are added to the job's
+     * context with {@link #addBatch(UUID, DepreciationAmountContext)}
+     */
+    public static DepreciationAmountContext batchContext() {
+        return new DepreciationAmountContext();
+    }
+
     public UUID createDepreciationAmountContext() {
         UUID uuid = UUID.randomUUID();
         DepreciationAmountContext depreciationContext = new DepreciationAmountContext();
-        hazelcastInstance.getMap(CONTEXT_ID).put(uuid, depreciationContext);
+        ContextHazelcastInstance.get().getMap(CONTEXT_ID).put(uuid, depreciationContext);
         return uuid;
     }
 
     public static DepreciationAmountContext getDepreciationAmountContext(UUID contextId) {
-        return (DepreciationAmountContext) hazelcastInstance.getMap(CONTEXT_ID).get(contextId);
+        return (DepreciationAmountContext) ContextHazelcastInstance.get().getMap(CONTEXT_ID).get(contextId);
+    }
+
+    /**
+     * Adds the items and amounts of a batch to the job's context in the cluster. The context read with
+     * {@link #getDepreciationAmountContext(UUID)} is a copy, so changes made to it are otherwise lost
+     */
+    public static void addBatch(UUID contextId, DepreciationAmountContext batchContext) {
+        contexts().executeOnKey(contextId, new BatchAddition(batchContext));
+    }
+
+    public static void removeDepreciationAmountContext(UUID contextId) {
+        contexts().delete(contextId);
+    }
+
+    private static IMap<UUID, DepreciationAmountContext> contexts() {
+        return ContextHazelcastInstance.get().getMap(CONTEXT_ID);
     }
 
     public int getNumberOfProcessedItems() {
@@ -75,8 +102,12 @@ public class DepreciationAmountContext implements Serializable {
         this.numberOfProcessedItems = numberOfProcessedItems;
     }
 
+    public void setNumberOfPendingItems(int numberOfPendingItems) {
+        this.numberOfPendingItems = numberOfPendingItems;
+    }
+
     public void addNumberOfPendingItems(int numberOfPendingItems) {
-        this.numberOfPendingItems =+ numberOfPendingItems;
+        this.numberOfPendingItems += numberOfPendingItems;
     }
 
     public Map<String, Map<String, Double>> getAmountsByAssetCategoryAndServiceOutlet() {
@@ -94,4 +125,30 @@ public class DepreciationAmountContext implements Serializable {
             .merge(serviceOutlet, amount, Double::sum);
     }
 
+    /**
+     * Merges a batch into the job's context on the member that owns the key so that batches finishing
+     * concurrently on different members do not overwrite each other
+     */
+    private static class BatchAddition implements EntryProcessor<UUID, DepreciationAmountContext, Void> {
+
+        private final DepreciationAmountContext batchContext;
+
+        BatchAddition(DepreciationAmountContext batchContext) {
+            this.batchContext = batchContext;
+        }
+
+        @Override
+        public Void process(Map.Entry<UUID, DepreciationAmountContext> entry) {
+            DepreciationAmountContext context = entry.getValue() == null ? new DepreciationAmountContext() : entry.getValue();
+
+            context.setNumberOfProcessedItems(context.getNumberOfProcessedItems() + batchContext.getNumberOfProcessedItems());
+            context.addNumberOfPendingItems(batchContext.getNumberOfPendingItems());
+            batchContext.getAmountsByAssetCategoryAndServiceOutlet()
+                .forEach((assetCategory, amounts) -> amounts
+                    .forEach((serviceOutlet, amount) -> context.updateAmountForServiceOutlet(assetCategory, serviceOutlet, amount)));
+
+            entry.setValue(context);
+            return null;
+        }
+    }
 }
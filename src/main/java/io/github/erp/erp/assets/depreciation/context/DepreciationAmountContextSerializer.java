@@ -29,6 +29,7 @@ public class DepreciationAmountContextSerializer implements StreamSerializer<Dep
     @Override
     public void write(ObjectDataOutput out, DepreciationAmountContext depreciationContext) throws IOException {
         out.writeInt(depreciationContext.getNumberOfProcessedItems());
+        out.writeInt(depreciationContext.getNumberOfPendingItems());
         out.writeInt(depreciationContext.getAmountsByAssetCategoryAndServiceOutlet().size());
 
         for (Map.Entry<String, Map<String, Double>> entry : depreciationContext.getAmountsByAssetCategoryAndServiceOutlet().entrySet()) {
@@ -46,9 +47,10 @@ public class DepreciationAmountContextSerializer implements StreamSerializer<Dep
 
     @Override
     public DepreciationAmountContext read(ObjectDataInput in) throws IOException {
-        DepreciationAmountContext depreciationContext = DepreciationAmountContext.getInstance();
+        DepreciationAmountContext depreciationContext = DepreciationAmountContext.emptyContext();
 
         depreciationContext.setNumberOfProcessedItems(in.readInt());
+        depreciationContext.setNumberOfPendingItems(in.readInt());
         int assetCategoryMapSize = in.readInt();
 
         for (int i = 0; i < assetCategoryMapSize; i++) {
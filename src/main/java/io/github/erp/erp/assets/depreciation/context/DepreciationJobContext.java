@@ -17,14 +17,24 @@ package io.github.erp.erp.assets.depreciation.context;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.hazelcast.core.Hazelcast;
-import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.cp.IAtomicLong;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.exception.DistributedObjectDestroyedException;
 
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Keeps the counters of a depreciation job in the application's hazelcast cluster. Each context is
+ * a distributed atomic long so that the kafka consumers can count concurrently without losing updates
+ * and each update is a single remote operation rather than a read followed by a write
+ */
 public class DepreciationJobContext {
-    private static final HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance();
+
     private static final DepreciationJobContext INSTANCE = new DepreciationJobContext();
 
     private static final String CONTEXT_ID = "depreciationProcessContext";
@@ -39,31 +49,82 @@ public class DepreciationJobContext {
 
     public UUID createContext(int numberOfProcessedItems) {
         UUID uuid = UUID.randomUUID();
-        hazelcastInstance.getMap(CONTEXT_ID).put(uuid, numberOfProcessedItems);
+        counter(uuid).set(numberOfProcessedItems);
         return uuid;
     }
 
     public int getNumberOfProcessedItems(UUID uuid) {
-        return (int) hazelcastInstance.getMap(CONTEXT_ID).getOrDefault(uuid, 0);
+        return (int) counter(uuid).get();
     }
 
     public BigDecimal getAmount(UUID uuid) {
-        return (BigDecimal) hazelcastInstance.getMap(CONTEXT_ID).getOrDefault(uuid, BigDecimal.ZERO);
+        return amounts().getOrDefault(uuid, BigDecimal.ZERO);
     }
 
-    public void updateNumberOfProcessedItems(UUID uuid, int incrementBy) {
-        int currentCount = getNumberOfProcessedItems(uuid);
-        hazelcastInstance.getMap(CONTEXT_ID).put(uuid, currentCount + incrementBy);
+    /**
+     * Atomically adds the increment to the context's counter
+     *
+     * @return the value of the counter after the update
+     */
+    public int updateNumberOfProcessedItems(UUID uuid, int incrementBy) {
+        return (int) counter(uuid).addAndGet(incrementBy);
     }
 
     public void updateAmount(UUID uuid, BigDecimal incrementBy) {
-        BigDecimal currentAmount = getAmount(uuid);
-        hazelcastInstance.getMap(CONTEXT_ID).put(uuid, currentAmount.add(incrementBy));
+        amounts().executeOnKey(uuid, new AmountIncrement(incrementBy));
     }
 
     public void removeContext(UUID uuid) {
-        hazelcastInstance.getMap(CONTEXT_ID).remove(uuid);
+        counter(uuid).destroy();
+        amounts().remove(uuid);
     }
 
-}
+    /**
+     * Destroys the counters of a job once it has completed or failed. CP objects are not evicted, so
+     * the counters would otherwise stay in the cluster for good. A job that fails in several batches
+     * reaches here more than once, so counters already destroyed are skipped
+     */
+    public void removeContexts(ContextInstance contextInstance) {
+        Stream.of(
+                contextInstance.getDepreciationJobCountUpContextId(),
+                contextInstance.getDepreciationJobCountDownContextId(),
+                contextInstance.getDepreciationBatchCountUpContextId(),
+                contextInstance.getDepreciationBatchCountDownContextId(),
+                contextInstance.getMessageCountContextId())
+            .filter(Objects::nonNull)
+            .forEach(uuid -> {
+                try {
+                    removeContext(uuid);
+                } catch (DistributedObjectDestroyedException e) {
+                    // Already released by an earlier call for the same job
+                }
+            });
+    }
 
+    private IAtomicLong counter(UUID uuid) {
+        return ContextHazelcastInstance.get().getCPSubsystem().getAtomicLong(CONTEXT_ID + "-" + uuid);
+    }
+
+    private IMap<UUID, BigDecimal> amounts() {
+        return ContextHazelcastInstance.get().getMap(CONTEXT_ID);
+    }
+
+    /**
+     * Adds to the amount on the member that owns the key so that concurrent updates are not lost
+     */
+    private static class AmountIncrement implements EntryProcessor<UUID, BigDecimal, BigDecimal> {
+
+        private final BigDecimal incrementBy;
+
+        AmountIncrement(BigDecimal incrementBy) {
+            this.incrementBy = incrementBy;
+        }
+
+        @Override
+        public BigDecimal process(Map.Entry<UUID, BigDecimal> entry) {
+            BigDecimal updatedAmount = entry.getValue() == null ? incrementBy : entry.getValue().add(incrementBy);
+            entry.setValue(updatedAmount);
+            return updatedAmount;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.erp.erp.assets.depreciation.exceptions;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import java.util.UUID;
+
+/**
+ * Raised when the depreciation-entries of a job could not be written to the database, or were not
+ * written within the time allowed
+ */
+public class DepreciationEntryPersistenceException extends RuntimeException {
+
+    public DepreciationEntryPersistenceException(UUID depreciationJobCountDownContextId, String message, Throwable cause) {
+        super("Depreciation entries for job context " + depreciationJobCountDownContextId + " not persisted: " + message, cause);
+    }
+
+    public DepreciationEntryPersistenceException(UUID depreciationJobCountDownContextId, String message) {
+        this(depreciationJobCountDownContextId, message, null);
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.erp.erp.assets.depreciation.progress;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Snapshot of the counters of a running depreciation-job. The processed items are those for which a
+ * depreciation-entry has been computed while the persisted items are those whose entries have been
+ * written to the database by the sink
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepreciationJobProgress {
+
+    private Long jobId;
+
+    private int totalItems;
+
+    private int processedItems;
+
+    private int persistedItems;
+
+    private int numberOfBatches;
+
+    private int completedBatches;
+
+    private List<DepreciationBatchProgress> batches;
+}
@@ -0,0 +1,190 @@
+package io.github.erp.erp.assets.depreciation.progress;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.github.erp.erp.assets.depreciation.context.ContextInstance;
+import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exposes the progress of depreciation-jobs from the atomic counters of the {@link DepreciationJobContext}.
+ * Jobs and batches are registered in the application's hazelcast cluster so that any member can report
+ * on a job, and each member publishes the "depreciation.job.items.processed" and
+ * "depreciation.job.items.persisted" gauges for the jobs it is working on
+ */
+@Component
+public class DepreciationProgressTracker {
+
+    private static final String JOB_PROGRESS_MAP = "depreciationJobProgress";
+    private static final String BATCH_PROGRESS_MAP = "depreciationBatchProgress-";
+
+    private final HazelcastInstance hazelcastInstance;
+    private final MeterRegistry meterRegistry;
+    private final DepreciationJobContext jobContext;
+
+    private final Map<Long, List<Meter>> jobGauges = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DepreciationProgressTracker(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this(hazelcastInstance, meterRegistry, DepreciationJobContext.getInstance());
+    }
+
+    DepreciationProgressTracker(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry, DepreciationJobContext jobContext) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+        this.jobContext = jobContext;
+    }
+
+    /**
+     * Register a job whose batches are about to be enqueued
+     */
+    public void registerJob(Long jobId, ContextInstance contextInstance, int totalItems, int numberOfBatches) {
+        jobs().put(jobId, new JobRegistration(contextInstance, totalItems, numberOfBatches));
+        registerGauges(jobId);
+    }
+
+    /**
+     * Record the number of items depreciated in a batch. This is called once the batch has been
+     * depreciated and its counters flushed. Batches finishing after the job has completed or failed are
+     * not recorded
+     */
+    public void recordBatch(Long jobId, Long batchId, int sequenceNumber, int batchSize, int processedItems) {
+        if (!jobs().containsKey(jobId)) {
+            return;
+        }
+        batches(jobId).put(batchId, new DepreciationBatchProgress(batchId, sequenceNumber, batchSize, processedItems));
+        registerGauges(jobId);
+    }
+
+    /**
+     * Called when the job completes or fails. Removes this member's gauges for the job and the job's
+     * progress from the cluster; the outcome of the job is kept by the depreciation-job itself
+     */
+    public void completeJob(Long jobId) {
+        Optional.ofNullable(jobGauges.remove(jobId)).ifPresent(meters -> meters.forEach(meterRegistry::remove));
+        batches(jobId).destroy();
+        jobs().delete(jobId);
+    }
+
+    public Optional<DepreciationJobProgress> getProgress(Long jobId) {
+        JobRegistration registration = jobs().get(jobId);
+        if (registration == null) {
+            return Optional.empty();
+        }
+
+        List<DepreciationBatchProgress> batchProgress = new ArrayList<>(batches(jobId).values());
+        batchProgress.sort(Comparator.comparingInt(DepreciationBatchProgress::getSequenceNumber));
+
+        return Optional.of(
+            new DepreciationJobProgress(
+                jobId,
+                registration.getTotalItems(),
+                processedItems(registration),
+                persistedItems(registration),
+                registration.getNumberOfBatches(),
+                batchProgress.size(),
+                batchProgress
+            )
+        );
+    }
+
+    private void registerGauges(Long jobId) {
+        jobGauges.computeIfAbsent(jobId, id -> {
+            List<Meter> meters = new ArrayList<>();
+            meters.add(
+                Gauge.builder("depreciation.job.items.processed", () -> currentValue(id, true))
+                    .description("Number of items depreciated in the depreciation-job")
+                    .tag("job", String.valueOf(id))
+                    .register(meterRegistry)
+            );
+            meters.add(
+                Gauge.builder("depreciation.job.items.persisted", () -> currentValue(id, false))
+                    .description("Number of depreciation-entries of the depreciation-job written to the database")
+                    .tag("job", String.valueOf(id))
+                    .register(meterRegistry)
+            );
+            return meters;
+        });
+    }
+
+    private int currentValue(Long jobId, boolean processed) {
+        JobRegistration registration = jobs().get(jobId);
+        if (registration == null) {
+            return 0;
+        }
+        return processed ? processedItems(registration) : persistedItems(registration);
+    }
+
+    private int processedItems(JobRegistration registration) {
+        return jobContext.getNumberOfProcessedItems(registration.getContextInstance().getDepreciationJobCountUpContextId());
+    }
+
+    private int persistedItems(JobRegistration registration) {
+        int pendingItems = jobContext.getNumberOfProcessedItems(registration.getContextInstance().getDepreciationJobCountDownContextId());
+        return registration.getTotalItems() - Math.max(pendingItems, 0);
+    }
+
+    private IMap<Long, JobRegistration> jobs() {
+        return hazelcastInstance.getMap(JOB_PROGRESS_MAP);
+    }
+
+    private IMap<Long, DepreciationBatchProgress> batches(Long jobId) {
+        return hazelcastInstance.getMap(BATCH_PROGRESS_MAP + jobId);
+    }
+
+    static class JobRegistration implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ContextInstance contextInstance;
+        private final int totalItems;
+        private final int numberOfBatches;
+
+        JobRegistration(ContextInstance contextInstance, int totalItems, int numberOfBatches) {
+            this.contextInstance = contextInstance;
+            this.totalItems = totalItems;
+            this.numberOfBatches = numberOfBatches;
+        }
+
+        ContextInstance getContextInstance() {
+            return contextInstance;
+        }
+
+        int getTotalItems() {
+            return totalItems;
+        }
+
+        int getNumberOfBatches() {
+            return numberOfBatches;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import io.github.erp.erp.assets.depreciation.context.DepreciationAmountContext;
 import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
 import io.github.erp.erp.assets.depreciation.exceptions.UnexpectedDepreciationDataset;
 import io.github.erp.erp.assets.depreciation.model.DepreciationBatchMessage;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
+import io.github.erp.erp.assets.depreciation.resolution.DepreciationReferenceDataResolver;
 import io.github.erp.service.DepreciationBatchSequenceService;
 import io.github.erp.service.DepreciationJobService;
 import org.slf4j.Logger;
@@ -49,13 +51,19 @@ public class DepreciationBatchConsumer {
 
     private final DepreciationEntrySinkProcessor depreciationEntrySinkProcessor;
 
+    private final DepreciationReferenceDataResolver referenceDataResolver;
+
+    private final DepreciationProgressTracker depreciationProgressTracker;
+
     private final Lock depreciationLock = new ReentrantLock();
 
-    public DepreciationBatchConsumer(BatchSequenceDepreciationService batchSequenceDepreciationService, DepreciationJobService depreciationJobService, DepreciationBatchSequenceService depreciationBatchSequenceService, DepreciationEntrySinkProcessor depreciationEntrySinkProcessor) {
+    public DepreciationBatchConsumer(BatchSequenceDepreciationService batchSequenceDepreciationService, DepreciationJobService depreciationJobService, DepreciationBatchSequenceService depreciationBatchSequenceService, DepreciationEntrySinkProcessor depreciationEntrySinkProcessor, DepreciationReferenceDataResolver referenceDataResolver, DepreciationProgressTracker depreciationProgressTracker) {
         this.batchSequenceDepreciationService = batchSequenceDepreciationService;
         this.depreciationJobService = depreciationJobService;
         this.depreciationBatchSequenceService = depreciationBatchSequenceService;
         this.depreciationEntrySinkProcessor = depreciationEntrySinkProcessor;
+        this.referenceDataResolver = referenceDataResolver;
+        this.depreciationProgressTracker = depreciationProgressTracker;
     }
 
     @KafkaListener(topics = "depreciation_batch_topic", groupId = "erp-system-depreciation", concurrency = "8")
@@ -101,7 +109,8 @@ public class DepreciationBatchConsumer {
                         depreciationBatchSequenceService.save(batch);
                     });
 
-                if (message.isLastBatch()) {
+                if (message.isLastBatch() || numberOfProcessed >= message.getTotalItems()) {
+                    // The job is complete once its entries are durable, so wait for the writer before checking
                     depreciationEntrySinkProcessor.flushRemainingItems(message.getContextInstance().getDepreciationJobCountDownContextId());
 
                     // TODO check possible duplication updateDepreciationJobCompleted(message, numberOfProcessed);
@@ -116,7 +125,8 @@ public class DepreciationBatchConsumer {
                         = DepreciationAmountContext.getDepreciationAmountContext(
                         message.getContextInstance().getDepreciationAmountContextId());
 
-                    int itemsProcessed = amountContext.getNumberOfProcessedItems();
+                    // The amount-context is a copy from the cluster; the atomic job counter is authoritative
+                    int itemsProcessed = numberOfProcessed;
 
                     depreciationEntrySinkProcessor.flushRemainingItems(message.getContextInstance().getDepreciationJobCountDownContextId());
 
@@ -128,6 +138,8 @@ public class DepreciationBatchConsumer {
                         .forEach((category, categoryMap) -> categoryMap
                             .forEach((sol, amount) -> log.debug("Depreciation computed for category: {} under service-outlet :{} was {}", category, sol, amount)));
 
+                    DepreciationAmountContext.removeDepreciationAmountContext(message.getContextInstance().getDepreciationAmountContextId());
+
                 }
 
             } // TODO Update depreciation job within this context
@@ -146,6 +158,11 @@ public class DepreciationBatchConsumer {
                 job.setDepreciationJobStatus(DepreciationJobStatusType.COMPLETE);
                 depreciationJobService.save(job);
             });
+
+        referenceDataResolver.evict(Long.valueOf(message.getJobId()));
+        depreciationProgressTracker.completeJob(Long.valueOf(message.getJobId()));
+        depreciationEntrySinkProcessor.releaseJob(message.getContextInstance().getDepreciationJobCountDownContextId());
+        DepreciationJobContext.getInstance().removeContexts(message.getContextInstance());
     }
 }
 
@@ -26,7 +26,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -55,7 +57,12 @@ public class DepreciationBatchProducer {
         this.kafkaTemplate = kafkaTemplate;
     }
 
-    public void sendDepreciationJobMessage(DepreciationJobDTO depreciationJob, List<Long> currentBatch, DepreciationBatchSequenceDTO batchSequence, boolean isLastBatch, int processedCount, int sequenceNumber, int totalItems, ContextInstance contextInstance, int numberOfBatches, BigDecimal initialCost) {
+    /**
+     * Send the message without waiting for the broker's acknowledgement
+     *
+     * @return the future of the send, completed once the broker acknowledges the message
+     */
+    public ListenableFuture<SendResult<String, DepreciationBatchMessage>> sendDepreciationJobMessage(DepreciationJobDTO depreciationJob, List<Long> currentBatch, DepreciationBatchSequenceDTO batchSequence, boolean isLastBatch, int processedCount, int sequenceNumber, int totalItems, ContextInstance contextInstance, int numberOfBatches, BigDecimal initialCost) {
 
         if (isLastBatch) {
             log.info("Last batch encountered, sequence # {} with {} items; total items processed: {}, out of {}", sequenceNumber, currentBatch.size(), processedCount, totalItems);
@@ -81,7 +88,7 @@ public class DepreciationBatchProducer {
             .numberOfBatches(numberOfBatches)
             .build();
 
-        kafkaTemplate.send(topicName, depreciationJobMessage);
+        return kafkaTemplate.send(topicName, depreciationJobMessage);
     }
 }
 
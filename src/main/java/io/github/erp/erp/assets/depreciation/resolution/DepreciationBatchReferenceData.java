@@ -0,0 +1,58 @@
+package io.github.erp.erp.assets.depreciation.resolution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.service.dto.AssetRegistrationDTO;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Asset-registrations and cost-adjustments resolved in bulk for a single depreciation-batch,
+ * indexed by asset id. The reference data shared by all batches of the job is available
+ * through the {@link DepreciationJobReferenceData}
+ */
+public class DepreciationBatchReferenceData {
+
+    private final DepreciationJobReferenceData jobReferenceData;
+    private final Map<Long, AssetRegistrationDTO> assetRegistrations;
+    private final Map<Long, BigDecimal> costAdjustments;
+
+    DepreciationBatchReferenceData(DepreciationJobReferenceData jobReferenceData, Map<Long, AssetRegistrationDTO> assetRegistrations, Map<Long, BigDecimal> costAdjustments) {
+        this.jobReferenceData = jobReferenceData;
+        this.assetRegistrations = assetRegistrations;
+        this.costAdjustments = costAdjustments;
+    }
+
+    public DepreciationJobReferenceData getJobReferenceData() {
+        return jobReferenceData;
+    }
+
+    public Optional<AssetRegistrationDTO> getAssetRegistration(Long assetId) {
+        return Optional.ofNullable(assetRegistrations.get(assetId));
+    }
+
+    /**
+     * @param assetId of the asset whose depreciation we are calculating
+     * @return The amount of adjustment to the asset cost, zero where the asset has no adjustments
+     */
+    public BigDecimal getCostAdjustment(Long assetId) {
+        return costAdjustments.getOrDefault(assetId, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.erp.erp.assets.depreciation.resolution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.service.dto.AssetCategoryDTO;
+import io.github.erp.service.dto.DepreciationMethodDTO;
+import io.github.erp.service.dto.ServiceOutletDTO;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory lookup of the reference data (asset-categories, service-outlets and depreciation-methods)
+ * required by a single depreciation-job. Each item is fetched from the database at most once for the
+ * lifetime of the job; absent items are remembered as well so that misconfiguration does not lead to
+ * repeated lookups for every asset in the register.
+ */
+public class DepreciationJobReferenceData {
+
+    private final Long depreciationJobId;
+
+    private final Map<Long, Optional<AssetCategoryDTO>> assetCategories = new ConcurrentHashMap<>();
+    private final Map<Long, Optional<ServiceOutletDTO>> serviceOutlets = new ConcurrentHashMap<>();
+    private final Map<Long, Optional<DepreciationMethodDTO>> depreciationMethods = new ConcurrentHashMap<>();
+    private final Map<Long, BigDecimal> costAdjustments = new ConcurrentHashMap<>();
+
+    private final Function<Long, Optional<AssetCategoryDTO>> assetCategoryLoader;
+    private final Function<Long, Optional<ServiceOutletDTO>> serviceOutletLoader;
+    private final Function<Long, Optional<DepreciationMethodDTO>> depreciationMethodLoader;
+
+    DepreciationJobReferenceData(
+        Long depreciationJobId,
+        Function<Long, Optional<AssetCategoryDTO>> assetCategoryLoader,
+        Function<Long, Optional<ServiceOutletDTO>> serviceOutletLoader,
+        Function<Long, Optional<DepreciationMethodDTO>> depreciationMethodLoader) {
+        this.depreciationJobId = depreciationJobId;
+        this.assetCategoryLoader = assetCategoryLoader;
+        this.serviceOutletLoader = serviceOutletLoader;
+        this.depreciationMethodLoader = depreciationMethodLoader;
+    }
+
+    public Long getDepreciationJobId() {
+        return depreciationJobId;
+    }
+
+    public Optional<AssetCategoryDTO> getAssetCategory(Long assetCategoryId, DepreciationQueryCounter.Tally tally) {
+        return assetCategories.computeIfAbsent(assetCategoryId, id -> {
+            tally.addQueries(1);
+            return assetCategoryLoader.apply(id);
+        });
+    }
+
+    public Optional<ServiceOutletDTO> getServiceOutlet(Long serviceOutletId, DepreciationQueryCounter.Tally tally) {
+        return serviceOutlets.computeIfAbsent(serviceOutletId, id -> {
+            tally.addQueries(1);
+            return serviceOutletLoader.apply(id);
+        });
+    }
+
+    public Optional<DepreciationMethodDTO> getDepreciationMethod(Long depreciationMethodId, DepreciationQueryCounter.Tally tally) {
+        return depreciationMethods.computeIfAbsent(depreciationMethodId, id -> {
+            tally.addQueries(1);
+            return depreciationMethodLoader.apply(id);
+        });
+    }
+
+    /**
+     * Returns the cost-adjustments of the assets, loading only those that have not been resolved
+     * before in this job. Since a job runs against a single depreciation-period the adjustments
+     * remain valid for the whole job
+     *
+     * @param assetIds of the assets in the batch
+     * @param loader resolving the adjustments of assets not yet cached
+     * @return cost-adjustment by asset id
+     */
+    public Map<Long, BigDecimal> getCostAdjustments(Collection<Long> assetIds, Function<Collection<Long>, Map<Long, BigDecimal>> loader) {
+
+        List<Long> unresolved = assetIds.stream().filter(id -> !costAdjustments.containsKey(id)).collect(Collectors.toList());
+
+        if (!unresolved.isEmpty()) {
+            Map<Long, BigDecimal> loaded = loader.apply(unresolved);
+            unresolved.forEach(id -> costAdjustments.put(id, loaded.getOrDefault(id, BigDecimal.ZERO)));
+        }
+
+        return assetIds.stream().collect(Collectors.toMap(Function.identity(), costAdjustments::get));
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.erp.erp.assets.depreciation.resolution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of the number of lookups the depreciation sequence issues to the persistence layer
+ * relative to the number of assets depreciated. The ratio is recorded per batch as the
+ * "depreciation.queries.per.asset" distribution summary
+ */
+@Component
+public class DepreciationQueryCounter {
+
+    private final DistributionSummary queriesPerAsset;
+
+    public DepreciationQueryCounter(MeterRegistry meterRegistry) {
+        this.queriesPerAsset = DistributionSummary.builder("depreciation.queries.per.asset")
+            .description("Number of database lookups issued per asset depreciated in a batch")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start a fresh tally for a batch
+     */
+    public Tally startTally() {
+        return new Tally();
+    }
+
+    /**
+     * Record the ratio of the tally for the batch
+     *
+     * @param tally of the batch
+     * @return the number of queries per asset
+     */
+    public double record(Tally tally) {
+        if (tally.assets == 0) {
+            return 0;
+        }
+        double ratio = (double) tally.queries / tally.assets;
+        queriesPerAsset.record(ratio);
+        return ratio;
+    }
+
+    /**
+     * Running count of lookups and assets for a single batch. A batch is processed on a single
+     * consumer thread so the counts are not synchronized
+     */
+    public static class Tally {
+
+        private long queries;
+        private long assets;
+
+        public void addQueries(long numberOfQueries) {
+            queries += numberOfQueries;
+        }
+
+        public void addAssets(long numberOfAssets) {
+            assets += numberOfAssets;
+        }
+
+        public long getQueries() {
+            return queries;
+        }
+
+        public long getAssets() {
+            return assets;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.erp.erp.assets.depreciation.resolution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.erp.assets.depreciation.adjustments.AdjustedCostService;
+import io.github.erp.internal.service.assets.InternalAssetRegistrationService;
+import io.github.erp.service.AssetCategoryService;
+import io.github.erp.service.DepreciationMethodService;
+import io.github.erp.service.ServiceOutletService;
+import io.github.erp.service.dto.AssetRegistrationDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the data needed to depreciate a batch of assets in bulk rather than through
+ * per-asset lookups. The asset-registrations of a batch are fetched in a single query by
+ * id-list while categories, service-outlets and depreciation-methods are held in memory for
+ * the whole depreciation-job and released through {@link #evict(Long)} once the job is complete.
+ */
+@Component
+public class DepreciationReferenceDataResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(DepreciationReferenceDataResolver.class);
+
+    // One grouped query per adjustment type; disposal, write-off, revaluation and general adjustment
+    private static final int ADJUSTMENT_QUERIES_PER_BATCH = 4;
+
+    private final Map<Long, DepreciationJobReferenceData> jobReferenceData = new ConcurrentHashMap<>();
+
+    private final InternalAssetRegistrationService internalAssetRegistrationService;
+    private final AssetCategoryService assetCategoryService;
+    private final ServiceOutletService serviceOutletService;
+    private final DepreciationMethodService depreciationMethodService;
+    private final AdjustedCostService adjustedCostService;
+
+    /**
+     * When enabled the cost-adjustments resolved for each asset are held for the life of the depreciation-job
+     */
+    @Value("${erp.depreciation.batch-resolution.cache-adjustments:false}")
+    private boolean cacheCostAdjustments = false;
+
+    public DepreciationReferenceDataResolver(
+        InternalAssetRegistrationService internalAssetRegistrationService,
+        AssetCategoryService assetCategoryService,
+        ServiceOutletService serviceOutletService,
+        DepreciationMethodService depreciationMethodService,
+        @Qualifier("aggregateAssetCostAdjustmentService") AdjustedCostService adjustedCostService) {
+        this.internalAssetRegistrationService = internalAssetRegistrationService;
+        this.assetCategoryService = assetCategoryService;
+        this.serviceOutletService = serviceOutletService;
+        this.depreciationMethodService = depreciationMethodService;
+        this.adjustedCostService = adjustedCostService;
+    }
+
+    /**
+     * Returns the reference data held for the depreciation-job, creating it on first access
+     *
+     * @param depreciationJobId id of the depreciation-job
+     * @return reference data for the job
+     */
+    public DepreciationJobReferenceData forJob(Long depreciationJobId) {
+        return jobReferenceData.computeIfAbsent(depreciationJobId, id ->
+            new DepreciationJobReferenceData(
+                id,
+                assetCategoryService::findOne,
+                serviceOutletService::findOne,
+                depreciationMethodService::findOne)
+        );
+    }
+
+    /**
+     * Fetches the asset-registrations and cost-adjustments for the batch
+     *
+     * @param depreciationJobId id of the depreciation-job to which the batch belongs
+     * @param depreciationPeriod of the depreciation-job
+     * @param assetIds in the batch
+     * @param tally tracking the number of lookups issued for the batch
+     * @return bulk-resolved data for the batch
+     */
+    public DepreciationBatchReferenceData resolveBatch(Long depreciationJobId, DepreciationPeriodDTO depreciationPeriod, List<Long> assetIds, DepreciationQueryCounter.Tally tally) {
+
+        DepreciationJobReferenceData referenceData = forJob(depreciationJobId);
+
+        Map<Long, AssetRegistrationDTO> assetRegistrations = internalAssetRegistrationService.findAllByIds(assetIds)
+            .stream()
+            .collect(Collectors.toMap(AssetRegistrationDTO::getId, Function.identity()));
+        tally.addQueries(1);
+
+        log.debug("{} asset-registrations resolved for {} asset ids in depreciation-job id {}", assetRegistrations.size(), assetIds.size(), depreciationJobId);
+
+        Map<Long, BigDecimal> costAdjustments = cacheCostAdjustments
+            ? referenceData.getCostAdjustments(assetRegistrations.keySet(), ids -> fetchCostAdjustments(depreciationPeriod, ids, tally))
+            : fetchCostAdjustments(depreciationPeriod, assetRegistrations.keySet(), tally);
+
+        return new DepreciationBatchReferenceData(referenceData, assetRegistrations, costAdjustments);
+    }
+
+    private Map<Long, BigDecimal> fetchCostAdjustments(DepreciationPeriodDTO depreciationPeriod, Collection<Long> assetIds, DepreciationQueryCounter.Tally tally) {
+        if (assetIds.isEmpty()) {
+            return Map.of();
+        }
+        tally.addQueries(ADJUSTMENT_QUERIES_PER_BATCH);
+        return adjustedCostService.getAssetAmountAdjustments(depreciationPeriod, assetIds);
+    }
+
+    /**
+     * Releases the reference data held for the depreciation-job
+     *
+     * @param depreciationJobId id of the depreciation-job
+     */
+    public void evict(Long depreciationJobId) {
+        if (jobReferenceData.remove(depreciationJobId) != null) {
+            log.debug("Reference data for depreciation-job id {} released", depreciationJobId);
+        }
+    }
+}
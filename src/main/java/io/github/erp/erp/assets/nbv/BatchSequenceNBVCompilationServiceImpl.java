@@ -17,23 +17,32 @@ package io.github.erp.erp.assets.nbv;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.NbvCompilationJob;
+import io.github.erp.erp.assets.nbv.calculation.SetBasedNBVCalculatorService;
 import io.github.erp.erp.assets.nbv.model.NBVArtefact;
 import io.github.erp.erp.assets.nbv.model.NBVBatchMessage;
+import io.github.erp.internal.repository.InternalAssetRegistrationRepository;
 import io.github.erp.internal.repository.InternalNbvCompilationJobRepository;
 import io.github.erp.internal.service.assets.InternalDepreciationPeriodService;
 import io.github.erp.repository.AssetRegistrationRepository;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
 import io.github.erp.service.dto.NetBookValueEntryDTO;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Transactional
 @Service
 public class BatchSequenceNBVCompilationServiceImpl implements BatchSequenceNBVCompilationService {
 
+    public static final String SET_BASED_STRATEGY = "set-based";
+
     private final NBVCalculatorService nbvCalculatorService;
     private final AssetRegistrationRepository assetRegistrationRepository;
     private final NetBookValueUpdateService netBookValueUpdateService;
@@ -41,17 +50,27 @@ public class BatchSequenceNBVCompilationServiceImpl implements BatchSequenceNBVC
 
     private final InternalDepreciationPeriodService internalDepreciationPeriodService;
 
+    private final SetBasedNBVCalculatorService setBasedNBVCalculatorService;
+    private final InternalAssetRegistrationRepository internalAssetRegistrationRepository;
+    private final boolean setBasedCompilation;
+
     public BatchSequenceNBVCompilationServiceImpl(
         @Qualifier("nbvCalculatorServiceMain") NBVCalculatorService nbvCalculatorService,
         AssetRegistrationRepository assetRegistrationRepository,
         NetBookValueUpdateService netBookValueUpdateService,
         InternalNbvCompilationJobRepository internalNbvCompilationJobRepository,
-        InternalDepreciationPeriodService internalDepreciationPeriodService) {
+        InternalDepreciationPeriodService internalDepreciationPeriodService,
+        SetBasedNBVCalculatorService setBasedNBVCalculatorService,
+        InternalAssetRegistrationRepository internalAssetRegistrationRepository,
+        @Value("${erp.nbv.compilation.strategy:per-asset}") String compilationStrategy) {
         this.nbvCalculatorService = nbvCalculatorService;
         this.assetRegistrationRepository = assetRegistrationRepository;
         this.netBookValueUpdateService = netBookValueUpdateService;
         this.internalNbvCompilationJobRepository = internalNbvCompilationJobRepository;
         this.internalDepreciationPeriodService = internalDepreciationPeriodService;
+        this.setBasedNBVCalculatorService = setBasedNBVCalculatorService;
+        this.internalAssetRegistrationRepository = internalAssetRegistrationRepository;
+        this.setBasedCompilation = SET_BASED_STRATEGY.equalsIgnoreCase(compilationStrategy);
     }
 
     public NBVBatchMessage compile(NBVBatchMessage nbvBatchMessage) {
@@ -64,6 +83,10 @@ public class BatchSequenceNBVCompilationServiceImpl implements BatchSequenceNBVC
                 internalDepreciationPeriodService
                     .findOne(compilationJob.getActivePeriod().getId())
                     .ifPresent(depreciationPeriod -> {
+                        if (setBasedCompilation) {
+                            nbvs.addAll(compileBatch(nbvBatchMessage, compilationJob, depreciationPeriod));
+                            return;
+                        }
                         for (Long assetId : nbvBatchMessage.getAssetIds()) {
 
                             assetRegistrationRepository.findOneWithEagerRelationships(assetId).ifPresent(assetRegistration -> {
@@ -84,4 +107,27 @@ public class BatchSequenceNBVCompilationServiceImpl implements BatchSequenceNBVC
         return nbvBatchMessage;
     }
 
+    /**
+     * Fetches the whole batch in one query and calculates the NBV of every asset in memory,
+     * in place of the two native queries per asset issued by the per-asset calculators
+     */
+    private List<NetBookValueEntryDTO> compileBatch(NBVBatchMessage nbvBatchMessage, NbvCompilationJob compilationJob, DepreciationPeriodDTO depreciationPeriod) {
+
+        List<AssetRegistration> assetRegistrations = internalAssetRegistrationRepository.findAllWithEagerRelationshipsByIdIn(nbvBatchMessage.getAssetIds());
+
+        Map<Long, NBVArtefact> nbvArtefacts = setBasedNBVCalculatorService.calculateNetBookValues(assetRegistrations, depreciationPeriod);
+
+        List<NetBookValueEntryDTO> nbvs = new ArrayList<>(nbvArtefacts.size());
+
+        for (AssetRegistration assetRegistration : assetRegistrations) {
+
+            NBVArtefact nbvArtefact = nbvArtefacts.get(assetRegistration.getId());
+
+            if (nbvArtefact != null) {
+                nbvs.add(netBookValueUpdateService.netBookValueUpdate(assetRegistration, nbvBatchMessage, compilationJob, nbvArtefact));
+            }
+        }
+
+        return nbvs;
+    }
 }
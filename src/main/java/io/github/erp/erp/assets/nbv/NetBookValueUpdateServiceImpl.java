@@ -118,6 +118,6 @@ public class NetBookValueUpdateServiceImpl implements NetBookValueUpdateService
     public void saveCalculatedEntries(List<NetBookValueEntryDTO> netBookValueEntries) {
 
         // Running buffered persistence
-        netBookValueEntries.stream().map(netBookValueEntryMapper::toEntity).forEach(netBookValueEntryBufferedSinkProcessor::addEntry);
+        netBookValueEntryBufferedSinkProcessor.addEntries(netBookValueEntryMapper.toEntity(netBookValueEntries));
     }
 }
@@ -19,6 +19,7 @@ package io.github.erp.erp.assets.nbv.buffer;
  */
 import io.github.erp.domain.DepreciationEntry;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -31,6 +32,15 @@ public interface BufferedSinkProcessor<T> {
 
     void addEntry(T entry);
 
+    /**
+     * Adds a whole batch of entries, checking the flush threshold once rather than per entry
+     *
+     * @param entries to be buffered
+     */
+    default void addEntries(List<T> entries) {
+        entries.forEach(this::addEntry);
+    }
+
     void flushRemainingItems();
 
     void shutdown();
@@ -87,6 +87,29 @@ public class NBVEntryBufferedSinkProcessorImpl implements BufferedSinkProcessor<
         }
     }
 
+    @Override
+    public void addEntries(List<NetBookValueEntry> entries) {
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        if (isShutdown) {
+            startup();
+        }
+
+        buffer.addAll(entries);
+
+        if (buffer.size() >= batchSizeThreshold) {
+
+            scheduleFlush();
+
+        } else if (flushTask == null) {
+
+            scheduleFlushWithDelay();
+        }
+    }
+
     private void scheduleFlush() {
 
         if (flushTask != null) {
@@ -0,0 +1,39 @@
+package io.github.erp.erp.assets.nbv.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.erp.assets.nbv.model.NBVArtefact;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates the net book value of a whole compilation batch from the assets already
+ * fetched for that batch, without going back to the database for each asset.
+ */
+public interface SetBasedNBVCalculatorService {
+
+    /**
+     * @param assetRegistrations assets in the batch, with category and depreciation-method loaded
+     * @param depreciationPeriod the active period of the compilation job
+     * @return NBV artefacts keyed by asset id; assets with unsupported depreciation types are omitted
+     */
+    Map<Long, NBVArtefact> calculateNetBookValues(List<AssetRegistration> assetRegistrations, DepreciationPeriodDTO depreciationPeriod);
+}
@@ -0,0 +1,118 @@
+package io.github.erp.erp.assets.nbv.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.enumeration.DepreciationTypes;
+import io.github.erp.erp.assets.nbv.model.NBVArtefact;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.erp.domain.enumeration.DepreciationTypes.DECLINING_BALANCE;
+import static io.github.erp.domain.enumeration.DepreciationTypes.STRAIGHT_LINE;
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationUtility.*;
+
+/**
+ * In-memory counterpart of the netBookValueAtPeriodN queries in {@link NBVStraightLineCalculationRepository}
+ * and {@link NBVDecliningBalanceCalculationRepository}. The formulas are the same; they are simply
+ * evaluated over the batch instead of in two native queries per asset.
+ */
+@Service
+public class SetBasedNBVCalculatorServiceImpl implements SetBasedNBVCalculatorService {
+
+    private static final Logger log = LoggerFactory.getLogger(SetBasedNBVCalculatorServiceImpl.class);
+
+    private static final BigDecimal MONTHLY_BASIS_POINTS = BigDecimal.valueOf(10000 * 12);
+
+    private static final MathContext NBV_MATH_CONTEXT = MathContext.DECIMAL128;
+
+    @Override
+    public Map<Long, NBVArtefact> calculateNetBookValues(List<AssetRegistration> assetRegistrations, DepreciationPeriodDTO depreciationPeriod) {
+
+        Map<Long, NBVArtefact> artefacts = new HashMap<>(assetRegistrations.size() * 2);
+
+        long elapsedMonths = calculateElapsedMonths(depreciationPeriod.getStartDate(), depreciationPeriod.getEndDate());
+
+        for (AssetRegistration assetRegistration : assetRegistrations) {
+
+            DepreciationTypes depreciationType = assetRegistration.getAssetCategory().getDepreciationMethod().getDepreciationType();
+
+            if (depreciationType != STRAIGHT_LINE && depreciationType != DECLINING_BALANCE) {
+                log.debug("Asset id {} has depreciation type {} which is not supported for NBV compilation", assetRegistration.getId(), depreciationType);
+                continue;
+            }
+
+            BigDecimal assetCost = assetRegistration.getAssetCost();
+            BigDecimal depreciationRateYearly = assetRegistration.getAssetCategory().getDepreciationRateYearly();
+
+            long priorPeriods = getPriorPeriodInMonths(depreciationPeriod.getEndDate(), assetRegistration.getCapitalizationDate(), elapsedMonths);
+
+            BigDecimal nbv;
+            BigDecimal previousNBV;
+
+            if (depreciationType == STRAIGHT_LINE) {
+                nbv = straightLineNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods + 1);
+                previousNBV = straightLineNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods);
+            } else {
+                nbv = decliningBalanceNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods + 1);
+                previousNBV = decliningBalanceNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods);
+            }
+
+            artefacts.put(assetRegistration.getId(), NBVArtefact.builder()
+                .netBookValueAmount(nbv.max(BigDecimal.ZERO))
+                .previousNetBookValueAmount(previousNBV.max(BigDecimal.ZERO))
+                .elapsedMonths(elapsedMonths)
+                .priorMonths(priorPeriods)
+                .usefulLifeYears(calculateUsefulLifeMonths(convertBasisPointsToDecimalDepreciationRate(depreciationRateYearly)))
+                .activePeriodStartDate(depreciationPeriod.getStartDate())
+                .activePeriodEndDate(depreciationPeriod.getEndDate())
+                .capitalizationDate(assetRegistration.getCapitalizationDate())
+                .build());
+        }
+
+        return artefacts;
+    }
+
+    /**
+     * asset_cost - (monthly_rate * asset_cost * n), as in {@link NBVStraightLineCalculationRepository#netBookValueAtPeriodN}
+     */
+    static BigDecimal straightLineNetBookValueAtPeriodN(BigDecimal assetCost, BigDecimal depreciationRateYearly, long periodN) {
+
+        BigDecimal monthlyRate = depreciationRateYearly.divide(MONTHLY_BASIS_POINTS, NBV_MATH_CONTEXT);
+
+        return assetCost.subtract(monthlyRate.multiply(assetCost).multiply(BigDecimal.valueOf(periodN)), NBV_MATH_CONTEXT);
+    }
+
+    /**
+     * asset_cost * (1 - monthly_rate)^n, as in {@link NBVDecliningBalanceCalculationRepository#netBookValueAtPeriodN}
+     */
+    static BigDecimal decliningBalanceNetBookValueAtPeriodN(BigDecimal assetCost, BigDecimal depreciationRateYearly, long periodN) {
+
+        BigDecimal monthlyRate = depreciationRateYearly.divide(MONTHLY_BASIS_POINTS, NBV_MATH_CONTEXT);
+
+        return assetCost.multiply(BigDecimal.ONE.subtract(monthlyRate).pow(Math.toIntExact(periodN), NBV_MATH_CONTEXT), NBV_MATH_CONTEXT);
+    }
+}
@@ -17,6 +17,9 @@ package io.github.erp.erp.resources;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.files.StreamingFileDownload;
+import io.github.erp.internal.files.documents.BusinessDocumentBlobStore;
+import io.github.erp.internal.files.documents.BusinessDocumentContentService;
 import io.github.erp.internal.model.BusinessDocumentFSO;
 import io.github.erp.internal.model.mapping.BusinessDocumentFSOMapping;
 import io.github.erp.internal.service.applicationUser.InternalApplicationUserDetailService;
@@ -33,6 +36,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -41,16 +46,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
@@ -84,19 +95,23 @@ public class BusinessDocumentResourceProd {
 
     private final ApplicationUserMapper applicationUserMapper;
 
+    private final BusinessDocumentContentService businessDocumentContentService;
+
     public BusinessDocumentResourceProd(
         BusinessDocumentService businessDocumentService,
         BusinessDocumentRepository businessDocumentRepository,
         BusinessDocumentQueryService businessDocumentQueryService,
         BusinessDocumentFSOMapping businessDocumentFSOMapping,
         InternalApplicationUserDetailService userDetailService,
-        ApplicationUserMapper applicationUserMapper) {
+        ApplicationUserMapper applicationUserMapper,
+        BusinessDocumentContentService businessDocumentContentService) {
         this.businessDocumentService = businessDocumentService;
         this.businessDocumentRepository = businessDocumentRepository;
         this.businessDocumentQueryService = businessDocumentQueryService;
         this.businessDocumentFSOMapping = businessDocumentFSOMapping;
         this.userDetailService = userDetailService;
         this.applicationUserMapper = applicationUserMapper;
+        this.businessDocumentContentService = businessDocumentContentService;
     }
 
     /**
@@ -262,6 +277,83 @@ public class BusinessDocumentResourceProd {
         return ResponseUtil.wrapOrNotFound(businessDocument[0]);
     }
 
+    /**
+     * {@code PUT  /business-documents/:id/content} : Replaces the file of the "id" businessDocument with
+     * the raw request body, which may be sent with chunked transfer encoding. The body is hashed as it
+     * is written to disk and the file is stored once per distinct content.
+     *
+     * @param id the id of the businessDocument whose file is uploaded.
+     * @param request the request whose body is the file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated businessDocument,
+     * with status {@code 404 (Not Found)}, or with status {@code 413 (Payload Too Large)} if the file exceeds the upload limit.
+     * @throws IOException if the body could not be read or stored.
+     */
+    @PutMapping(value = "/business-documents/{id}/content", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<BusinessDocumentFSO> uploadBusinessDocumentContent(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        log.debug("REST request to upload the file of BusinessDocument : {}", id);
+        return storeContent(id, request.getContentType(), request.getInputStream());
+    }
+
+    /**
+     * {@code POST  /business-documents/:id/content} : Replaces the file of the "id" businessDocument with
+     * the "file" part of a multipart upload, streamed from the part rather than read into memory.
+     *
+     * @param id the id of the businessDocument whose file is uploaded.
+     * @param file the uploaded file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated businessDocument,
+     * with status {@code 404 (Not Found)}, or with status {@code 413 (Payload Too Large)} if the file exceeds the upload limit.
+     * @throws IOException if the part could not be read or stored.
+     */
+    @PostMapping(value = "/business-documents/{id}/content", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BusinessDocumentFSO> uploadBusinessDocumentContentPart(@PathVariable Long id, @RequestParam("file") MultipartFile file)
+        throws IOException {
+        log.debug("REST request to upload the file of BusinessDocument : {} as part {}", id, file.getOriginalFilename());
+        try (InputStream content = file.getInputStream()) {
+            return storeContent(id, file.getContentType(), content);
+        }
+    }
+
+    private ResponseEntity<BusinessDocumentFSO> storeContent(Long id, String contentType, InputStream content) throws IOException {
+        Optional<BusinessDocumentDTO> result;
+        try {
+            result = businessDocumentContentService.storeContent(id, contentType, content);
+        } catch (BusinessDocumentBlobStore.BlobSizeExceededException e) {
+            log.warn("Upload for BusinessDocument : {} rejected; {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseUtil.wrapOrNotFound(
+            result.map(businessDocumentFSOMapping::toValue1),
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString())
+        );
+    }
+
+    /**
+     * {@code GET  /business-documents/:id/content} : Streams the file of the "id" businessDocument,
+     * honouring Range, If-Range and If-None-Match against its checksum.
+     *
+     * @param id the id of the businessDocument whose file is downloaded.
+     * @param requestHeaders headers of the request.
+     * @return the {@link ResponseEntity} streaming the file, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the file could not be read.
+     */
+    @GetMapping("/business-documents/{id}/content")
+    public ResponseEntity<StreamingResponseBody> downloadBusinessDocumentContent(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders)
+        throws IOException {
+        log.debug("REST request to download the file of BusinessDocument : {}", id);
+        Optional<BusinessDocumentDTO> businessDocument = businessDocumentService.findOne(id);
+        if (businessDocument.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        BusinessDocumentDTO document = businessDocument.get();
+        return StreamingFileDownload.of(
+            businessDocumentContentService.findContent(document).orElse(null),
+            businessDocumentContentService.downloadName(document),
+            document.getDocumentFileContentType(),
+            document.getDocumentFileChecksum(),
+            requestHeaders
+        );
+    }
+
     /**
      * {@code DELETE  /business-documents/:id} : delete the "id" businessDocument.
      *
@@ -17,6 +17,7 @@ package io.github.erp.erp.resources.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.attachment.ReportDownloadService;
 import io.github.erp.repository.NbvReportRepository;
 import io.github.erp.service.NbvReportQueryService;
 import io.github.erp.service.NbvReportService;
@@ -31,6 +32,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -38,6 +40,7 @@ import tech.jhipster.web.util.ResponseUtil;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -64,14 +67,18 @@ public class NbvReportResourceProd {
 
     private final NbvReportQueryService nbvReportQueryService;
 
+    private final ReportDownloadService reportDownloadService;
+
     public NbvReportResourceProd(
         NbvReportService nbvReportService,
         NbvReportRepository nbvReportRepository,
-        NbvReportQueryService nbvReportQueryService
+        NbvReportQueryService nbvReportQueryService,
+        ReportDownloadService reportDownloadService
     ) {
         this.nbvReportService = nbvReportService;
         this.nbvReportRepository = nbvReportRepository;
         this.nbvReportQueryService = nbvReportQueryService;
+        this.reportDownloadService = reportDownloadService;
     }
 
     /**
@@ -204,6 +211,25 @@ public class NbvReportResourceProd {
         return ResponseUtil.wrapOrNotFound(nbvReportDTO);
     }
 
+    /**
+     * {@code GET  /nbv-reports/:id/download} : stream the report file of the "id" nbvReport.
+     *
+     * @param id the id of the nbvReportDTO whose file is to be downloaded.
+     * @param requestHeaders the request headers, read for Range, If-Range and If-None-Match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} streaming the file, {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the report file cannot be read.
+     */
+    @GetMapping("/nbv-reports/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadNbvReport(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download NbvReport : {}", id);
+        Optional<NbvReportDTO> nbvReportDTO = nbvReportService.findOne(id);
+        if (nbvReportDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        NbvReportDTO report = nbvReportDTO.get();
+        return reportDownloadService.download(report.getFilename(), report.getReportName(), report.getFileChecksum(), ".csv", "text/csv", requestHeaders);
+    }
+
     /**
      * {@code DELETE  /nbv-reports/:id} : delete the "id" nbvReport.
      *
@@ -17,6 +17,8 @@ package io.github.erp.erp.resources.depreciation;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.erp.assets.depreciation.progress.DepreciationJobProgress;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
 import io.github.erp.internal.repository.InternalDepreciationJobRepository;
 import io.github.erp.internal.service.CascadeDeletionSequence;
 import io.github.erp.repository.DepreciationJobRepository;
@@ -71,6 +73,8 @@ public class DepreciationJobResourceProd {
 
     private final CascadeDeletionSequence<DepreciationJobDTO> depreciationJobCascadeDeletionSequence;
 
+    private final DepreciationProgressTracker depreciationProgressTracker;
+
     public DepreciationJobResourceProd(
         DepreciationJobService depreciationJobService,
         DepreciationJobRepository depreciationJobRepository,
@@ -78,7 +82,8 @@ public class DepreciationJobResourceProd {
         DepreciationJobMapper depreciationJobMapper,
         DepreciationJobSearchRepository depreciationJobSearchRepository,
         InternalDepreciationJobRepository internalDepreciationJobRepository,
-        CascadeDeletionSequence<DepreciationJobDTO> depreciationJobCascadeDeletionSequence) {
+        CascadeDeletionSequence<DepreciationJobDTO> depreciationJobCascadeDeletionSequence,
+        DepreciationProgressTracker depreciationProgressTracker) {
         this.depreciationJobService = depreciationJobService;
         this.depreciationJobRepository = depreciationJobRepository;
         this.depreciationJobQueryService = depreciationJobQueryService;
@@ -86,6 +91,7 @@ public class DepreciationJobResourceProd {
         this.depreciationJobSearchRepository = depreciationJobSearchRepository;
         this.internalDepreciationJobRepository = internalDepreciationJobRepository;
         this.depreciationJobCascadeDeletionSequence = depreciationJobCascadeDeletionSequence;
+        this.depreciationProgressTracker = depreciationProgressTracker;
     }
 
     /**
@@ -224,6 +230,19 @@ public class DepreciationJobResourceProd {
         return ResponseUtil.wrapOrNotFound(depreciationJobDTO);
     }
 
+    /**
+     * {@code GET  /depreciation-jobs/:id/progress} : get the progress of the "id" depreciationJob.
+     *
+     * @param id the id of the depreciationJob whose progress is to be retrieved.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the progress of the job and its batches,
+     * or with status {@code 404 (Not Found)} if the job is not running: not yet enqueued, complete or errored.
+     */
+    @GetMapping("/depreciation-jobs/{id}/progress")
+    public ResponseEntity<DepreciationJobProgress> getDepreciationJobProgress(@PathVariable Long id) {
+        log.debug("REST request to get progress of DepreciationJob : {}", id);
+        return ResponseUtil.wrapOrNotFound(depreciationProgressTracker.getProgress(id));
+    }
+
     /**
      * {@code DELETE  /depreciation-jobs/:id} : delete the "id" depreciationJob.
      *
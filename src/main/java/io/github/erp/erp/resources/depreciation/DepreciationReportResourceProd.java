@@ -17,6 +17,7 @@ package io.github.erp.erp.resources.depreciation;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.attachment.ReportDownloadService;
 import io.github.erp.internal.service.applicationUser.InternalApplicationUserDetailService;
 import io.github.erp.repository.DepreciationReportRepository;
 import io.github.erp.service.DepreciationReportQueryService;
@@ -34,6 +35,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -41,6 +43,7 @@ import tech.jhipster.web.util.ResponseUtil;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -71,16 +74,20 @@ public class DepreciationReportResourceProd {
 
     private final ApplicationUserMapper applicationUserMapper;
 
+    private final ReportDownloadService reportDownloadService;
+
     public DepreciationReportResourceProd(
         DepreciationReportService depreciationReportService,
         DepreciationReportRepository depreciationReportRepository,
         DepreciationReportQueryService depreciationReportQueryService,
-        InternalApplicationUserDetailService userDetailService, ApplicationUserMapper applicationUserMapper) {
+        InternalApplicationUserDetailService userDetailService, ApplicationUserMapper applicationUserMapper,
+        ReportDownloadService reportDownloadService) {
         this.depreciationReportService = depreciationReportService;
         this.depreciationReportRepository = depreciationReportRepository;
         this.depreciationReportQueryService = depreciationReportQueryService;
         this.userDetailService = userDetailService;
         this.applicationUserMapper = applicationUserMapper;
+        this.reportDownloadService = reportDownloadService;
     }
 
     /**
@@ -225,6 +232,25 @@ public class DepreciationReportResourceProd {
         return ResponseUtil.wrapOrNotFound(depreciationReportDTO);
     }
 
+    /**
+     * {@code GET  /depreciation-reports/:id/download} : stream the report file of the "id" depreciationReport.
+     *
+     * @param id the id of the depreciationReportDTO whose file is to be downloaded.
+     * @param requestHeaders the request headers, read for Range, If-Range and If-None-Match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} streaming the file, {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the report file cannot be read.
+     */
+    @GetMapping("/depreciation-reports/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadDepreciationReport(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download DepreciationReport : {}", id);
+        Optional<DepreciationReportDTO> depreciationReportDTO = depreciationReportService.findOne(id);
+        if (depreciationReportDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DepreciationReportDTO report = depreciationReportDTO.get();
+        return reportDownloadService.download(report.getFilename(), report.getReportName(), report.getFileChecksum(), ".csv", "text/csv", requestHeaders);
+    }
+
     /**
      * {@code DELETE  /depreciation-reports/:id} : delete the "id" depreciationReport.
      *
@@ -18,6 +18,7 @@ package io.github.erp.erp.resources.gdi;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.erp.startUp.index.engine_v1.AsynchronousIndexingService;
+import io.github.erp.erp.startUp.index.engine_v1.IndexingProgress;
 import io.github.erp.security.SecurityUtils;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
@@ -26,6 +27,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController("advancedIndexingResource")
 @RequestMapping("/api/index")
 public class AdvancedIndexingResource {
@@ -58,4 +61,15 @@ public class AdvancedIndexingResource {
             return new ResponseEntity<Error>(HttpStatus.CONFLICT);
         }
     }
+
+    /**
+     * GET /api/index/progress -> Progress of each registered index service
+     */
+    @GetMapping("/progress")
+    @Timed
+    public ResponseEntity<List<IndexingProgress>> indexingProgress() {
+        log.debug("REST request for index progress by : {}", SecurityUtils.getCurrentUserLogin().orElse("user"));
+
+        return ResponseEntity.ok(asynchronousIndexingService.getIndexingProgress());
+    }
 }
@@ -18,9 +18,11 @@ package io.github.erp.erp.resources.ledgers;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.InternalTransactionAccountReportItemRepository;
 import io.github.erp.internal.service.ledgers.InternalTransactionAccountReportItemService;
 import io.github.erp.repository.TransactionAccountReportItemRepository;
+import io.github.erp.security.AuthoritiesConstants;
 import io.github.erp.service.TransactionAccountReportItemQueryService;
 import io.github.erp.service.TransactionAccountReportItemService;
 import io.github.erp.service.criteria.TransactionAccountReportItemCriteria;
@@ -31,7 +33,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.PaginationUtil;
@@ -56,14 +60,18 @@ public class TransactionAccountReportItemResourceProd {
 
     private final TransactionAccountReportItemQueryService transactionAccountReportItemQueryService;
 
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
     public TransactionAccountReportItemResourceProd(
         InternalTransactionAccountReportItemService transactionAccountReportItemService,
         InternalTransactionAccountReportItemRepository transactionAccountReportItemRepository,
-        TransactionAccountReportItemQueryService transactionAccountReportItemQueryService
+        TransactionAccountReportItemQueryService transactionAccountReportItemQueryService,
+        AccountBalanceSnapshotService accountBalanceSnapshotService
     ) {
         this.transactionAccountReportItemService = transactionAccountReportItemService;
         this.transactionAccountReportItemRepository = transactionAccountReportItemRepository;
         this.transactionAccountReportItemQueryService = transactionAccountReportItemQueryService;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     /**
@@ -128,4 +136,18 @@ public class TransactionAccountReportItemResourceProd {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    /**
+     * {@code POST  /account-balance-snapshots/rebuild} : discard the account balance snapshots for the
+     * background sweep to recompute them from the transaction details.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}.
+     */
+    @PostMapping("/account-balance-snapshots/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildAccountBalanceSnapshots() {
+        log.debug("REST request to rebuild account balance snapshots");
+        accountBalanceSnapshotService.reset();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
 }
@@ -17,6 +17,7 @@ package io.github.erp.erp.resources.reports;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.report.attachment.ReportDownloadService;
 import io.github.erp.internal.repository.InternalApplicationUserRepository;
 import io.github.erp.internal.service.applicationUser.InternalApplicationUserDetailService;
 import io.github.erp.repository.AutonomousReportRepository;
@@ -33,6 +34,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.service.filter.LongFilter;
 import tech.jhipster.web.util.HeaderUtil;
@@ -41,6 +43,7 @@ import tech.jhipster.web.util.ResponseUtil;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -71,16 +74,20 @@ public class AutonomousReportResourceProd {
 
     private final InternalApplicationUserRepository internalApplicationUserRepository;
 
+    private final ReportDownloadService reportDownloadService;
+
     public AutonomousReportResourceProd(
         AutonomousReportService autonomousReportService,
         AutonomousReportRepository autonomousReportRepository,
         AutonomousReportQueryService autonomousReportQueryService,
-        InternalApplicationUserDetailService userDetailService, InternalApplicationUserRepository internalApplicationUserRepository) {
+        InternalApplicationUserDetailService userDetailService, InternalApplicationUserRepository internalApplicationUserRepository,
+        ReportDownloadService reportDownloadService) {
         this.autonomousReportService = autonomousReportService;
         this.autonomousReportRepository = autonomousReportRepository;
         this.autonomousReportQueryService = autonomousReportQueryService;
         this.userDetailService = userDetailService;
         this.internalApplicationUserRepository = internalApplicationUserRepository;
+        this.reportDownloadService = reportDownloadService;
     }
 
     /**
@@ -223,6 +230,25 @@ public class AutonomousReportResourceProd {
         return ResponseUtil.wrapOrNotFound(autonomousReportDTO);
     }
 
+    /**
+     * {@code GET  /autonomous-reports/:id/download} : stream the report file of the "id" autonomousReport.
+     *
+     * @param id the id of the autonomousReportDTO whose file is to be downloaded.
+     * @param requestHeaders the request headers, read for Range, If-Range and If-None-Match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} streaming the file, {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the report file cannot be read.
+     */
+    @GetMapping("/autonomous-reports/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadAutonomousReport(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download AutonomousReport : {}", id);
+        Optional<AutonomousReportDTO> autonomousReportDTO = autonomousReportService.findOne(id);
+        if (autonomousReportDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        AutonomousReportDTO report = autonomousReportDTO.get();
+        return reportDownloadService.download(report.getReportFilename(), report.getReportName(), report.getFileChecksum(), ".csv", "text/csv", requestHeaders);
+    }
+
     /**
      * {@code DELETE  /autonomous-reports/:id} : delete the "id" autonomousReport.
      *
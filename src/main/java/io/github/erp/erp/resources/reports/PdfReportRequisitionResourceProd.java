@@ -20,12 +20,14 @@ package io.github.erp.erp.resources.reports;
 import io.github.erp.internal.model.AttachedPdfReportRequisitionDTO;
 import io.github.erp.internal.model.mapping.AttachedPdfReportRequisitionDTOMapping;
 import io.github.erp.internal.report.attachment.ReportAttachmentService;
+import io.github.erp.internal.report.attachment.ReportDownloadService;
 import io.github.erp.repository.PdfReportRequisitionRepository;
 import io.github.erp.service.PdfReportRequisitionQueryService;
 import io.github.erp.service.PdfReportRequisitionService;
 import io.github.erp.service.criteria.PdfReportRequisitionCriteria;
 import io.github.erp.service.dto.PdfReportRequisitionDTO;
 import io.github.erp.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -50,9 +52,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -83,17 +87,21 @@ public class PdfReportRequisitionResourceProd {
     private final AttachedPdfReportRequisitionDTOMapping reportRequisitionDTOMapping;
     private final ReportAttachmentService<AttachedPdfReportRequisitionDTO> reportAttachmentService;
 
+    private final ReportDownloadService reportDownloadService;
+
     public PdfReportRequisitionResourceProd(
         PdfReportRequisitionService pdfReportRequisitionService,
         PdfReportRequisitionRepository pdfReportRequisitionRepository,
         PdfReportRequisitionQueryService pdfReportRequisitionQueryService,
         AttachedPdfReportRequisitionDTOMapping reportRequisitionDTOMapping,
-        ReportAttachmentService<AttachedPdfReportRequisitionDTO> reportAttachmentService) {
+        ReportAttachmentService<AttachedPdfReportRequisitionDTO> reportAttachmentService,
+        ReportDownloadService reportDownloadService) {
         this.pdfReportRequisitionService = pdfReportRequisitionService;
         this.pdfReportRequisitionRepository = pdfReportRequisitionRepository;
         this.pdfReportRequisitionQueryService = pdfReportRequisitionQueryService;
         this.reportRequisitionDTOMapping = reportRequisitionDTOMapping;
         this.reportAttachmentService = reportAttachmentService;
+        this.reportDownloadService = reportDownloadService;
     }
 
     /**
@@ -241,6 +249,32 @@ public class PdfReportRequisitionResourceProd {
         return  ResponseUtil.wrapOrNotFound(Optional.of(attachedReport.getAcquire()));
     }
 
+    /**
+     * {@code GET  /pdf-report-requisitions/:id/download} : stream the report file of the "id" pdfReportRequisition.
+     *
+     * @param id the id of the pdfReportRequisitionDTO whose file is to be downloaded.
+     * @param requestHeaders the request headers, read for Range, If-Range and If-None-Match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} streaming the file, {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the report file cannot be read.
+     */
+    @GetMapping("/pdf-report-requisitions/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadPdfReportRequisition(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download PdfReportRequisition : {}", id);
+        Optional<PdfReportRequisitionDTO> pdfReportRequisitionDTO = pdfReportRequisitionService.findOne(id);
+        if (pdfReportRequisitionDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PdfReportRequisitionDTO report = pdfReportRequisitionDTO.get();
+        return reportDownloadService.download(
+            report.getReportId(),
+            report.getReportName(),
+            report.getReportFileChecksum(),
+            ".pdf",
+            "application/pdf",
+            requestHeaders
+        );
+    }
+
     /**
      * {@code DELETE  /pdf-report-requisitions/:id} : delete the "id" pdfReportRequisition.
      *
@@ -20,12 +20,14 @@ package io.github.erp.erp.resources.reports;
 import io.github.erp.internal.model.AttachedXlsxReportRequisitionDTO;
 import io.github.erp.internal.model.mapping.AttachedXlsxReportRequisitionDTOMapping;
 import io.github.erp.internal.report.attachment.ReportAttachmentService;
+import io.github.erp.internal.report.attachment.ReportDownloadService;
 import io.github.erp.repository.XlsxReportRequisitionRepository;
 import io.github.erp.service.XlsxReportRequisitionQueryService;
 import io.github.erp.service.XlsxReportRequisitionService;
 import io.github.erp.service.criteria.XlsxReportRequisitionCriteria;
 import io.github.erp.service.dto.XlsxReportRequisitionDTO;
 import io.github.erp.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -44,6 +46,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -73,17 +76,21 @@ public class XlsxReportRequisitionResourceProd {
     private final AttachedXlsxReportRequisitionDTOMapping reportRequisitionDTOMapping;
     private final ReportAttachmentService<AttachedXlsxReportRequisitionDTO> reportAttachmentService;
 
+    private final ReportDownloadService reportDownloadService;
+
     public XlsxReportRequisitionResourceProd(
         XlsxReportRequisitionService xlsxReportRequisitionService,
         XlsxReportRequisitionRepository xlsxReportRequisitionRepository,
         XlsxReportRequisitionQueryService xlsxReportRequisitionQueryService,
         AttachedXlsxReportRequisitionDTOMapping reportRequisitionDTOMapping,
-        ReportAttachmentService<AttachedXlsxReportRequisitionDTO> reportAttachmentService) {
+        ReportAttachmentService<AttachedXlsxReportRequisitionDTO> reportAttachmentService,
+        ReportDownloadService reportDownloadService) {
         this.xlsxReportRequisitionService = xlsxReportRequisitionService;
         this.xlsxReportRequisitionRepository = xlsxReportRequisitionRepository;
         this.xlsxReportRequisitionQueryService = xlsxReportRequisitionQueryService;
         this.reportRequisitionDTOMapping = reportRequisitionDTOMapping;
         this.reportAttachmentService = reportAttachmentService;
+        this.reportDownloadService = reportDownloadService;
     }
 
     /**
@@ -232,6 +239,32 @@ public class XlsxReportRequisitionResourceProd {
         return ResponseUtil.wrapOrNotFound(Optional.of(attachedReport.getAcquire()));
     }
 
+    /**
+     * {@code GET  /xlsx-report-requisitions/:id/download} : stream the report file of the "id" xlsxReportRequisition.
+     *
+     * @param id the id of the xlsxReportRequisitionDTO whose file is to be downloaded.
+     * @param requestHeaders the request headers, read for Range, If-Range and If-None-Match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} streaming the file, {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the report file cannot be read.
+     */
+    @GetMapping("/xlsx-report-requisitions/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadXlsxReportRequisition(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        log.debug("REST request to download XlsxReportRequisition : {}", id);
+        Optional<XlsxReportRequisitionDTO> xlsxReportRequisitionDTO = xlsxReportRequisitionService.findOne(id);
+        if (xlsxReportRequisitionDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        XlsxReportRequisitionDTO report = xlsxReportRequisitionDTO.get();
+        return reportDownloadService.download(
+            report.getReportId(),
+            report.getReportName(),
+            report.getReportFileChecksum(),
+            ".xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            requestHeaders
+        );
+    }
+
     /**
      * {@code DELETE  /xlsx-report-requisitions/:id} : delete the "id" xlsxReportRequisition.
      *
@@ -17,43 +17,45 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.Algorithm;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.AlgorithmSearchRepository;
-import io.github.erp.service.AlgorithmService;
 import io.github.erp.service.mapper.AlgorithmMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class AlgorithmIndexingService extends AbstractStartupRegisteredIndexService {
+public class AlgorithmIndexingService extends AbstractStartUpBatchedIndexService<Algorithm> {
 
     private static final String TAG = "AlgorithmIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final AlgorithmMapper mapper;
-    private final AlgorithmService service;
+    private final IndexBatchReader batchReader;
     private final AlgorithmSearchRepository searchRepository;
 
     public AlgorithmIndexingService(
         IndexProperties indexProperties,
         AlgorithmMapper mapper,
-        AlgorithmService service,
-        AlgorithmSearchRepository searchRepository
+        IndexBatchReader batchReader,
+        AlgorithmSearchRepository searchRepository,
+        IndexCheckpointStore checkpointStore
     ) {
-        super(indexProperties, indexProperties.getRebuild());
+        super(indexProperties, indexProperties.getRebuild(), Algorithm::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -75,7 +77,9 @@ public class AlgorithmIndexingService extends AbstractStartupRegisteredIndexServ
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -84,25 +88,39 @@ public class AlgorithmIndexingService extends AbstractStartupRegisteredIndexServ
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<Algorithm> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(Algorithm.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<Algorithm> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.context.assets.domain.AssetRegistration;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.AssetRegistrationSearchRepository;
-import io.github.erp.service.AssetRegistrationService;
 import io.github.erp.service.mapper.AssetRegistrationMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,13 +43,13 @@ public class AssetRegistryIndexingService extends AbstractStartUpBatchedIndexSer
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final AssetRegistrationMapper mapper;
-    private final AssetRegistrationService service;
+    private final IndexBatchReader batchReader;
     private final AssetRegistrationSearchRepository searchRepository;
 
-    public AssetRegistryIndexingService(IndexProperties indexProperties, AssetRegistrationMapper mapper, AssetRegistrationService service, AssetRegistrationSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public AssetRegistryIndexingService(IndexProperties indexProperties, AssetRegistrationMapper mapper, IndexBatchReader batchReader, AssetRegistrationSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), AssetRegistration::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -87,7 +86,11 @@ public class AssetRegistryIndexingService extends AbstractStartUpBatchedIndexSer
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
@@ -97,19 +100,17 @@ public class AssetRegistryIndexingService extends AbstractStartUpBatchedIndexSer
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(100);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return this.processInBatchesOf(100);
+        return batches;
 
     }
 
     @Override
-    protected List<AssetRegistration> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-            .stream()
-            .map(mapper::toEntity)
-            .filter(entity -> !searchRepository.existsById(entity.getId()))
-            .collect(ImmutableList.toImmutableList());
+    protected List<AssetRegistration> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(AssetRegistration.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.BusinessDocument;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.BusinessDocumentSearchRepository;
-import io.github.erp.service.BusinessDocumentService;
 import io.github.erp.service.mapper.BusinessDocumentMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,13 +41,13 @@ public class BusinessDocumentIndexingService  extends AbstractStartUpBatchedInde
     private static final String TAG = "BusinessDocumentIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final BusinessDocumentService service;
+    private final IndexBatchReader batchReader;
     private final BusinessDocumentMapper mapper;
     private final BusinessDocumentSearchRepository searchRepository;
 
-    public BusinessDocumentIndexingService(IndexProperties indexProperties, BusinessDocumentService service, BusinessDocumentMapper mapper, BusinessDocumentSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public BusinessDocumentIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, BusinessDocumentMapper mapper, BusinessDocumentSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), BusinessDocument::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -86,28 +85,30 @@ public class BusinessDocumentIndexingService  extends AbstractStartUpBatchedInde
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(150);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(150);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<BusinessDocument> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<BusinessDocument> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(BusinessDocument.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
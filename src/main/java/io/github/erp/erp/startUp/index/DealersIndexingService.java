@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.Dealer;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.DealerSearchRepository;
-import io.github.erp.service.DealerService;
 import io.github.erp.service.mapper.DealerMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,13 +41,13 @@ public class DealersIndexingService  extends AbstractStartUpBatchedIndexService<
     private static final String TAG = "DealersIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final DealerService service;
+    private final IndexBatchReader batchReader;
     private final DealerMapper mapper;
     private final DealerSearchRepository searchRepository;
 
-    public DealersIndexingService(IndexProperties indexProperties, DealerService service, DealerMapper mapper, DealerSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public DealersIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, DealerMapper mapper, DealerSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), Dealer::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -86,28 +85,30 @@ public class DealersIndexingService  extends AbstractStartUpBatchedIndexService<
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(100);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(100);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<Dealer> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-            .stream()
-            .map(mapper::toEntity)
-            .filter(entity -> !searchRepository.existsById(entity.getId()))
-            .collect(ImmutableList.toImmutableList());
+    protected List<Dealer> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(Dealer.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
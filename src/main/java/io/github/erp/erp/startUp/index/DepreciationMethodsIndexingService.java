@@ -17,44 +17,46 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 
-import com.google.common.collect.ImmutableList;
+import io.github.erp.domain.DepreciationMethod;
 
 import io.github.erp.repository.search.DepreciationMethodSearchRepository;
-import io.github.erp.service.DepreciationMethodService;
 import io.github.erp.service.mapper.DepreciationMethodMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class DepreciationMethodsIndexingService extends AbstractStartupRegisteredIndexService {
+public class DepreciationMethodsIndexingService extends AbstractStartUpBatchedIndexService<DepreciationMethod> {
 
     private static final String TAG = "DepreciationMethodsIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final DepreciationMethodMapper mapper;
-    private final DepreciationMethodService service;
+    private final IndexBatchReader batchReader;
     private final DepreciationMethodSearchRepository searchRepository;
 
     public DepreciationMethodsIndexingService (
         IndexProperties indexProperties,
         DepreciationMethodMapper mapper,
-        DepreciationMethodService service,
-        DepreciationMethodSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+        IndexBatchReader batchReader,
+        DepreciationMethodSearchRepository searchRepository,
+        IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), DepreciationMethod::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -76,7 +78,9 @@ public class DepreciationMethodsIndexingService extends AbstractStartupRegistere
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -85,25 +89,39 @@ public class DepreciationMethodsIndexingService extends AbstractStartupRegistere
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<DepreciationMethod> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(DepreciationMethod.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<DepreciationMethod> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,38 +17,39 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.FiscalMonth;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.FiscalMonthSearchRepository;
-import io.github.erp.service.FiscalMonthService;
 import io.github.erp.service.mapper.FiscalMonthMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class FiscalMonthIndexingService extends AbstractStartupRegisteredIndexService {
+public class FiscalMonthIndexingService extends AbstractStartUpBatchedIndexService<FiscalMonth> {
 
 
     private static final String TAG = "FiscalMonthRegistrationIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final FiscalMonthService service;
+    private final IndexBatchReader batchReader;
     private final FiscalMonthMapper mapper;
     private final FiscalMonthSearchRepository searchRepository;
 
-    public FiscalMonthIndexingService(IndexProperties indexProperties,FiscalMonthService service, FiscalMonthMapper mapper, FiscalMonthSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public FiscalMonthIndexingService(IndexProperties indexProperties,IndexBatchReader batchReader, FiscalMonthMapper mapper, FiscalMonthSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), FiscalMonth::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -71,7 +72,9 @@ public class FiscalMonthIndexingService extends AbstractStartupRegisteredIndexSe
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -80,25 +83,39 @@ public class FiscalMonthIndexingService extends AbstractStartupRegisteredIndexSe
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<FiscalMonth> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(FiscalMonth.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<FiscalMonth> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,37 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.LeaseLiability;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.LeaseLiabilitySearchRepository;
-import io.github.erp.service.LeaseLiabilityService;
 import io.github.erp.service.mapper.LeaseLiabilityMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class LeaseLiabilityIndexingService extends AbstractStartupRegisteredIndexService {
+public class LeaseLiabilityIndexingService extends AbstractStartUpBatchedIndexService<LeaseLiability> {
 
     private static final String TAG = "LeaseLiabilityScheduleItemIndex";
     private static final Logger log = LoggerFactory.getLogger(LeaseLiabilityScheduleItemIndexingService.class);
 
-    private final LeaseLiabilityService service;
+    private final IndexBatchReader batchReader;
     private final LeaseLiabilityMapper mapper;
     private final LeaseLiabilitySearchRepository searchRepository;
 
-    public LeaseLiabilityIndexingService (IndexProperties indexProperties, LeaseLiabilityService service, LeaseLiabilityMapper mapper, LeaseLiabilitySearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public LeaseLiabilityIndexingService (IndexProperties indexProperties, IndexBatchReader batchReader, LeaseLiabilityMapper mapper, LeaseLiabilitySearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), LeaseLiability::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -70,7 +71,9 @@ public class LeaseLiabilityIndexingService extends AbstractStartupRegisteredInde
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -79,25 +82,39 @@ public class LeaseLiabilityIndexingService extends AbstractStartupRegisteredInde
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<LeaseLiability> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(LeaseLiability.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<LeaseLiability> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,37 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.LeaseLiabilityScheduleItem;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.LeaseLiabilityScheduleItemSearchRepository;
-import io.github.erp.service.LeaseLiabilityScheduleItemService;
 import io.github.erp.service.mapper.LeaseLiabilityScheduleItemMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class LeaseLiabilityScheduleItemIndexingService extends AbstractStartupRegisteredIndexService {
+public class LeaseLiabilityScheduleItemIndexingService extends AbstractStartUpBatchedIndexService<LeaseLiabilityScheduleItem> {
 
     private static final String TAG = "LeaseLiabilityScheduleItemIndex";
     private static final Logger log = LoggerFactory.getLogger(LeaseLiabilityScheduleItemIndexingService.class);
 
-    private final LeaseLiabilityScheduleItemService service;
+    private final IndexBatchReader batchReader;
     private final LeaseLiabilityScheduleItemMapper mapper;
     private final LeaseLiabilityScheduleItemSearchRepository searchRepository;
 
-    public LeaseLiabilityScheduleItemIndexingService(IndexProperties indexProperties, LeaseLiabilityScheduleItemService service, LeaseLiabilityScheduleItemMapper mapper, LeaseLiabilityScheduleItemSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public LeaseLiabilityScheduleItemIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, LeaseLiabilityScheduleItemMapper mapper, LeaseLiabilityScheduleItemSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), LeaseLiabilityScheduleItem::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -70,7 +71,9 @@ public class LeaseLiabilityScheduleItemIndexingService extends AbstractStartupRe
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -79,25 +82,39 @@ public class LeaseLiabilityScheduleItemIndexingService extends AbstractStartupRe
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<LeaseLiabilityScheduleItem> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(LeaseLiabilityScheduleItem.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<LeaseLiabilityScheduleItem> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
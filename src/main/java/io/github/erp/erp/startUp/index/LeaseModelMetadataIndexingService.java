@@ -17,37 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.LeaseModelMetadata;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.LeaseModelMetadataSearchRepository;
-import io.github.erp.service.LeaseModelMetadataService;
 import io.github.erp.service.mapper.LeaseModelMetadataMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class LeaseModelMetadataIndexingService extends AbstractStartupRegisteredIndexService {
+public class LeaseModelMetadataIndexingService extends AbstractStartUpBatchedIndexService<LeaseModelMetadata> {
 
     private static final String TAG = "LeaseModelMetadataIndex";
     private static final Logger log = LoggerFactory.getLogger(LeaseModelMetadataIndexingService.class);
 
-    private final LeaseModelMetadataService service;
+    private final IndexBatchReader batchReader;
     private final LeaseModelMetadataMapper mapper;
     private final LeaseModelMetadataSearchRepository searchRepository;
 
-    public LeaseModelMetadataIndexingService(IndexProperties indexProperties, LeaseModelMetadataService service, LeaseModelMetadataMapper mapper, LeaseModelMetadataSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public LeaseModelMetadataIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, LeaseModelMetadataMapper mapper, LeaseModelMetadataSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), LeaseModelMetadata::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -70,7 +71,9 @@ public class LeaseModelMetadataIndexingService extends AbstractStartupRegistered
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -79,25 +82,39 @@ public class LeaseModelMetadataIndexingService extends AbstractStartupRegistered
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<LeaseModelMetadata> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(LeaseModelMetadata.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<LeaseModelMetadata> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
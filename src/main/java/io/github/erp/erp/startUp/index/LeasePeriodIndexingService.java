@@ -17,41 +17,43 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.LeasePeriod;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
-import io.github.erp.internal.service.rou.InternalLeasePeriodService;
 import io.github.erp.repository.search.LeasePeriodSearchRepository;
 import io.github.erp.service.mapper.LeasePeriodMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class LeasePeriodIndexingService extends AbstractStartupRegisteredIndexService {
+public class LeasePeriodIndexingService extends AbstractStartUpBatchedIndexService<LeasePeriod> {
 
     private static final String TAG = "LeasePeriodIndex";
     private static final Logger log = LoggerFactory.getLogger(LeasePeriodIndexingService.class);
 
-    private final InternalLeasePeriodService service;
+    private final IndexBatchReader batchReader;
     private final LeasePeriodMapper mapper;
     private final LeasePeriodSearchRepository searchRepository;
 
     public LeasePeriodIndexingService(
         IndexProperties indexProperties,
-        InternalLeasePeriodService service,
+        IndexBatchReader batchReader,
         LeasePeriodMapper mapper,
-        LeasePeriodSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+        LeasePeriodSearchRepository searchRepository,
+        IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), LeasePeriod::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -74,7 +76,9 @@ public class LeasePeriodIndexingService extends AbstractStartupRegisteredIndexSe
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -83,25 +87,39 @@ public class LeasePeriodIndexingService extends AbstractStartupRegisteredIndexSe
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<LeasePeriod> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(LeasePeriod.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<LeasePeriod> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,36 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.PaymentInvoice;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PaymentInvoiceSearchRepository;
-import io.github.erp.service.PaymentInvoiceService;
 import io.github.erp.service.mapper.PaymentInvoiceMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class PaymentInvoiceIndexingService  extends AbstractStartupRegisteredIndexService {
+public class PaymentInvoiceIndexingService  extends AbstractStartUpBatchedIndexService<PaymentInvoice> {
+
     private static final String TAG = "PaymentInvoiceIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final PaymentInvoiceService service;
+    private final IndexBatchReader batchReader;
     private final PaymentInvoiceMapper mapper;
     private final PaymentInvoiceSearchRepository searchRepository;
 
-    public PaymentInvoiceIndexingService(IndexProperties indexProperties, PaymentInvoiceService service, PaymentInvoiceMapper mapper, PaymentInvoiceSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public PaymentInvoiceIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, PaymentInvoiceMapper mapper, PaymentInvoiceSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PaymentInvoice::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -62,6 +64,14 @@ public class PaymentInvoiceIndexingService  extends AbstractStartupRegisteredInd
         IndexingServiceChainSingleton.getInstance().registerService(this);
     }
 
+    /**
+     * Invoices are looked up alongside settlements and share their priority
+     */
+    @Override
+    public int getIndexPriority() {
+        return 100;
+    }
+
     private static final Lock reindexLock = new ReentrantLock();
 
     @Async
@@ -69,7 +79,9 @@ public class PaymentInvoiceIndexingService  extends AbstractStartupRegisteredInd
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -78,25 +90,39 @@ public class PaymentInvoiceIndexingService  extends AbstractStartupRegisteredInd
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<PaymentInvoice> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PaymentInvoice.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<PaymentInvoice> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,36 +17,37 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.PaymentLabel;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PaymentLabelSearchRepository;
-import io.github.erp.service.PaymentLabelService;
 import io.github.erp.service.mapper.PaymentLabelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class PaymentLabelIndexingService extends AbstractStartupRegisteredIndexService {
+public class PaymentLabelIndexingService extends AbstractStartUpBatchedIndexService<PaymentLabel> {
     private static final String TAG = "PaymentLabelIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final PaymentLabelService service;
+    private final IndexBatchReader batchReader;
     private final PaymentLabelMapper mapper;
     private final PaymentLabelSearchRepository searchRepository;
 
-    public PaymentLabelIndexingService(IndexProperties indexProperties, PaymentLabelService service, PaymentLabelMapper mapper, PaymentLabelSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public PaymentLabelIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, PaymentLabelMapper mapper, PaymentLabelSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PaymentLabel::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -69,7 +70,9 @@ public class PaymentLabelIndexingService extends AbstractStartupRegisteredIndexS
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -78,25 +81,39 @@ public class PaymentLabelIndexingService extends AbstractStartupRegisteredIndexS
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<PaymentLabel> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PaymentLabel.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<PaymentLabel> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
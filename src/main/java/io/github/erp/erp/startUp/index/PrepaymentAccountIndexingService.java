@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.PrepaymentAccount;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PrepaymentAccountSearchRepository;
-import io.github.erp.service.PrepaymentAccountService;
 import io.github.erp.service.mapper.PrepaymentAccountMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,13 +42,13 @@ public class PrepaymentAccountIndexingService extends AbstractStartUpBatchedInde
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final PrepaymentAccountMapper mapper;
-    private final PrepaymentAccountService service;
+    private final IndexBatchReader batchReader;
     private final PrepaymentAccountSearchRepository searchRepository;
 
-    public PrepaymentAccountIndexingService(IndexProperties indexProperties, PrepaymentAccountMapper mapper, PrepaymentAccountService service, PrepaymentAccountSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public PrepaymentAccountIndexingService(IndexProperties indexProperties, PrepaymentAccountMapper mapper, IndexBatchReader batchReader, PrepaymentAccountSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PrepaymentAccount::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -86,28 +85,30 @@ public class PrepaymentAccountIndexingService extends AbstractStartUpBatchedInde
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(200);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(200);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<PrepaymentAccount> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-            .stream()
-            .map(mapper::toEntity)
-            .filter(entity -> !searchRepository.existsById(entity.getId()))
-            .collect(ImmutableList.toImmutableList());
+    protected List<PrepaymentAccount> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PrepaymentAccount.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
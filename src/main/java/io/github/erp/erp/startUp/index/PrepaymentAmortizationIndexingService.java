@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.PrepaymentAmortization;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PrepaymentAmortizationSearchRepository;
-import io.github.erp.service.PrepaymentAmortizationService;
 import io.github.erp.service.mapper.PrepaymentAmortizationMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,13 +44,13 @@ public class PrepaymentAmortizationIndexingService extends AbstractStartUpBatche
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final PrepaymentAmortizationMapper mapper;
-    private final PrepaymentAmortizationService service;
+    private final IndexBatchReader batchReader;
     private final PrepaymentAmortizationSearchRepository searchRepository;
 
-    public PrepaymentAmortizationIndexingService(IndexProperties indexProperties, PrepaymentAmortizationMapper mapper, PrepaymentAmortizationService service, PrepaymentAmortizationSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public PrepaymentAmortizationIndexingService(IndexProperties indexProperties, PrepaymentAmortizationMapper mapper, IndexBatchReader batchReader, PrepaymentAmortizationSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PrepaymentAmortization::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -87,28 +86,31 @@ public class PrepaymentAmortizationIndexingService extends AbstractStartUpBatche
     private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
+
+        int batches = processInBatchesOf(300);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(300);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<PrepaymentAmortization> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<PrepaymentAmortization> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PrepaymentAmortization.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.PrepaymentMarshalling;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PrepaymentMarshallingSearchRepository;
-import io.github.erp.service.PrepaymentMarshallingService;
 import io.github.erp.service.mapper.PrepaymentMarshallingMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,13 +43,13 @@ public class PrepaymentMarshallingIndexingService extends AbstractStartUpBatched
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final PrepaymentMarshallingMapper mapper;
-    private final PrepaymentMarshallingService service;
+    private final IndexBatchReader batchReader;
     private final PrepaymentMarshallingSearchRepository searchRepository;
 
-    public PrepaymentMarshallingIndexingService(IndexProperties indexProperties, PrepaymentMarshallingMapper mapper, PrepaymentMarshallingService service, PrepaymentMarshallingSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public PrepaymentMarshallingIndexingService(IndexProperties indexProperties, PrepaymentMarshallingMapper mapper, IndexBatchReader batchReader, PrepaymentMarshallingSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PrepaymentMarshalling::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -87,28 +86,30 @@ public class PrepaymentMarshallingIndexingService extends AbstractStartUpBatched
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(500);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(500);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<PrepaymentMarshalling> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<PrepaymentMarshalling> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PrepaymentMarshalling.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
@@ -17,35 +17,36 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.PurchaseOrder;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.PurchaseOrderSearchRepository;
-import io.github.erp.service.PurchaseOrderService;
 import io.github.erp.service.mapper.PurchaseOrderMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class PurchaseOrderIndexingService extends AbstractStartupRegisteredIndexService {
+public class PurchaseOrderIndexingService extends AbstractStartUpBatchedIndexService<PurchaseOrder> {
     private static final String TAG = "PurchaseOrderIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final PurchaseOrderService service;
+    private final IndexBatchReader batchReader;
     private final PurchaseOrderMapper mapper;
     private final PurchaseOrderSearchRepository searchRepository;
 
-    public PurchaseOrderIndexingService(IndexProperties indexProperties, PurchaseOrderService service, PurchaseOrderMapper mapper, PurchaseOrderSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public PurchaseOrderIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, PurchaseOrderMapper mapper, PurchaseOrderSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), PurchaseOrder::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -68,7 +69,9 @@ public class PurchaseOrderIndexingService extends AbstractStartupRegisteredIndex
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -77,25 +80,39 @@ public class PurchaseOrderIndexingService extends AbstractStartupRegisteredIndex
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<PurchaseOrder> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(PurchaseOrder.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<PurchaseOrder> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -18,39 +18,40 @@ package io.github.erp.erp.startUp.index;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.RouInitialDirectCost;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
-import io.github.erp.internal.service.rou.InternalRouInitialDirectCostService;
 import io.github.erp.repository.search.RouInitialDirectCostSearchRepository;
 import io.github.erp.service.mapper.RouInitialDirectCostMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class RouInitialDirectCostIndexingService  extends AbstractStartupRegisteredIndexService {
+public class RouInitialDirectCostIndexingService  extends AbstractStartUpBatchedIndexService<RouInitialDirectCost> {
 
 
 
     private static final String TAG = "ROUInitialDirectCostsIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final InternalRouInitialDirectCostService service;
+    private final IndexBatchReader batchReader;
     private final RouInitialDirectCostMapper mapper;
     private final RouInitialDirectCostSearchRepository searchRepository;
 
-    public RouInitialDirectCostIndexingService(IndexProperties indexProperties, InternalRouInitialDirectCostService service, RouInitialDirectCostMapper mapper, RouInitialDirectCostSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public RouInitialDirectCostIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, RouInitialDirectCostMapper mapper, RouInitialDirectCostSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), RouInitialDirectCost::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -73,7 +74,9 @@ public class RouInitialDirectCostIndexingService  extends AbstractStartupRegiste
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -82,25 +85,39 @@ public class RouInitialDirectCostIndexingService  extends AbstractStartupRegiste
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<RouInitialDirectCost> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(RouInitialDirectCost.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<RouInitialDirectCost> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
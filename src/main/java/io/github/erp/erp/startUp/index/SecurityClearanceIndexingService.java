@@ -17,38 +17,39 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.SecurityClearance;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.SecurityClearanceSearchRepository;
-import io.github.erp.service.SecurityClearanceService;
 import io.github.erp.service.mapper.SecurityClearanceMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class SecurityClearanceIndexingService  extends AbstractStartupRegisteredIndexService {
+public class SecurityClearanceIndexingService  extends AbstractStartUpBatchedIndexService<SecurityClearance> {
 
 
     private static final String TAG = "SecurityClearanceIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final SecurityClearanceService service;
+    private final IndexBatchReader batchReader;
     private final SecurityClearanceMapper mapper;
     private final SecurityClearanceSearchRepository searchRepository;
 
-    public SecurityClearanceIndexingService(IndexProperties indexProperties, SecurityClearanceService service, SecurityClearanceMapper mapper, SecurityClearanceSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public SecurityClearanceIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, SecurityClearanceMapper mapper, SecurityClearanceSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), SecurityClearance::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -71,7 +72,9 @@ public class SecurityClearanceIndexingService  extends AbstractStartupRegistered
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -80,25 +83,39 @@ public class SecurityClearanceIndexingService  extends AbstractStartupRegistered
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<SecurityClearance> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(SecurityClearance.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<SecurityClearance> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
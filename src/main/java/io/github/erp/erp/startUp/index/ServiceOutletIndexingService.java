@@ -17,37 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.ServiceOutlet;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.ServiceOutletSearchRepository;
-import io.github.erp.service.ServiceOutletService;
 import io.github.erp.service.mapper.ServiceOutletMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class ServiceOutletIndexingService extends AbstractStartupRegisteredIndexService {
+public class ServiceOutletIndexingService extends AbstractStartUpBatchedIndexService<ServiceOutlet> {
     private static final String TAG = "ServiceOutletIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
     private final ServiceOutletMapper mapper;
-    private final ServiceOutletService service;
+    private final IndexBatchReader batchReader;
     private final ServiceOutletSearchRepository searchRepository;
 
-    public ServiceOutletIndexingService(IndexProperties indexProperties, ServiceOutletMapper mapper, ServiceOutletService service, ServiceOutletSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public ServiceOutletIndexingService(IndexProperties indexProperties, ServiceOutletMapper mapper, IndexBatchReader batchReader, ServiceOutletSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), ServiceOutlet::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -69,7 +70,9 @@ public class ServiceOutletIndexingService extends AbstractStartupRegisteredIndex
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -78,25 +81,39 @@ public class ServiceOutletIndexingService extends AbstractStartupRegisteredIndex
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<ServiceOutlet> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(ServiceOutlet.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<ServiceOutlet> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.Settlement;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
-import io.github.erp.internal.service.payments.InternalSettlementService;
 import io.github.erp.repository.search.SettlementSearchRepository;
 import io.github.erp.service.mapper.SettlementMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,13 +40,13 @@ import java.util.concurrent.locks.ReentrantLock;
 public class SettlementIndexingService extends AbstractStartUpBatchedIndexService<Settlement> {
     private static final String TAG = "SettlementIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final InternalSettlementService service;
+    private final IndexBatchReader batchReader;
     private final SettlementMapper mapper;
     private final SettlementSearchRepository searchRepository;
 
-    public SettlementIndexingService(IndexProperties indexProperties, InternalSettlementService service, SettlementMapper mapper, SettlementSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public SettlementIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, SettlementMapper mapper, SettlementSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), Settlement::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -63,6 +62,14 @@ public class SettlementIndexingService extends AbstractStartUpBatchedIndexServic
         IndexingServiceChainSingleton.getInstance().registerService(this);
     }
 
+    /**
+     * Settlements are the most searched entity and are indexed ahead of the rest
+     */
+    @Override
+    public int getIndexPriority() {
+        return 100;
+    }
+
     private static final Lock reindexLock = new ReentrantLock();
 
     @Async
@@ -85,28 +92,30 @@ public class SettlementIndexingService extends AbstractStartUpBatchedIndexServic
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(400);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<Settlement> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<Settlement> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(Settlement.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
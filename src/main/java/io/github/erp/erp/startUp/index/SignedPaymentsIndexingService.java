@@ -17,35 +17,36 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.SignedPayment;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.SignedPaymentSearchRepository;
-import io.github.erp.service.SignedPaymentService;
 import io.github.erp.service.mapper.SignedPaymentMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 
 // @Service
 // @Transactional
-public class SignedPaymentsIndexingService extends AbstractStartupRegisteredIndexService {
+public class SignedPaymentsIndexingService extends AbstractStartUpBatchedIndexService<SignedPayment> {
     private static final String TAG = "SignedPaymentsIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
     private final SignedPaymentMapper mapper;
-    private final SignedPaymentService service;
+    private final IndexBatchReader batchReader;
     private final SignedPaymentSearchRepository searchRepository;
 
-    public SignedPaymentsIndexingService(IndexProperties indexProperties, SignedPaymentMapper mapper, SignedPaymentService service, SignedPaymentSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
+    public SignedPaymentsIndexingService(IndexProperties indexProperties, SignedPaymentMapper mapper, IndexBatchReader batchReader, SignedPaymentSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), SignedPayment::getId, searchRepository, checkpointStore);
         this.mapper = mapper;
-        this.service = service;
+        this.batchReader = batchReader;
         this.searchRepository = searchRepository;
     }
 
@@ -67,7 +68,9 @@ public class SignedPaymentsIndexingService extends AbstractStartupRegisteredInde
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -76,25 +79,39 @@ public class SignedPaymentsIndexingService extends AbstractStartupRegisteredInde
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<SignedPayment> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(SignedPayment.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<SignedPayment> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
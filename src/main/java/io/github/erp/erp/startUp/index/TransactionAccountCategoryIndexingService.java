@@ -18,37 +18,38 @@
  */
 package io.github.erp.erp.startUp.index;
 
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.TransactionAccountCategory;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.TransactionAccountCategorySearchRepository;
-import io.github.erp.service.TransactionAccountCategoryService;
 import io.github.erp.service.mapper.TransactionAccountCategoryMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class TransactionAccountCategoryIndexingService extends AbstractStartupRegisteredIndexService {
+public class TransactionAccountCategoryIndexingService extends AbstractStartUpBatchedIndexService<TransactionAccountCategory> {
 
     private static final String TAG = "AccountCategoryIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final TransactionAccountCategoryService service;
+    private final IndexBatchReader batchReader;
     private final TransactionAccountCategoryMapper mapper;
     private final TransactionAccountCategorySearchRepository searchRepository;
 
-    public TransactionAccountCategoryIndexingService(IndexProperties indexProperties, TransactionAccountCategoryService service, TransactionAccountCategoryMapper mapper, TransactionAccountCategorySearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public TransactionAccountCategoryIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, TransactionAccountCategoryMapper mapper, TransactionAccountCategorySearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), TransactionAccountCategory::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -71,7 +72,9 @@ public class TransactionAccountCategoryIndexingService extends AbstractStartupRe
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -80,25 +83,39 @@ public class TransactionAccountCategoryIndexingService extends AbstractStartupRe
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<TransactionAccountCategory> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(TransactionAccountCategory.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<TransactionAccountCategory> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
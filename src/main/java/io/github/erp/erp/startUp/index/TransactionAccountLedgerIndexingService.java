@@ -18,37 +18,38 @@
  */
 package io.github.erp.erp.startUp.index;
 
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.TransactionAccountLedger;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.TransactionAccountLedgerSearchRepository;
-import io.github.erp.service.TransactionAccountLedgerService;
 import io.github.erp.service.mapper.TransactionAccountLedgerMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class TransactionAccountLedgerIndexingService extends AbstractStartupRegisteredIndexService {
+public class TransactionAccountLedgerIndexingService extends AbstractStartUpBatchedIndexService<TransactionAccountLedger> {
 
     private static final String TAG = "AccountLedgerIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final TransactionAccountLedgerService service;
+    private final IndexBatchReader batchReader;
     private final TransactionAccountLedgerMapper mapper;
     private final TransactionAccountLedgerSearchRepository searchRepository;
 
-    public TransactionAccountLedgerIndexingService(IndexProperties indexProperties, TransactionAccountLedgerService service, TransactionAccountLedgerMapper mapper, TransactionAccountLedgerSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public TransactionAccountLedgerIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, TransactionAccountLedgerMapper mapper, TransactionAccountLedgerSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), TransactionAccountLedger::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -71,7 +72,9 @@ public class TransactionAccountLedgerIndexingService extends AbstractStartupRegi
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -80,25 +83,39 @@ public class TransactionAccountLedgerIndexingService extends AbstractStartupRegi
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<TransactionAccountLedger> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(TransactionAccountLedger.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<TransactionAccountLedger> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.WorkInProgressRegistration;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.WorkInProgressRegistrationSearchRepository;
-import io.github.erp.service.WorkInProgressRegistrationService;
 import io.github.erp.service.mapper.WorkInProgressRegistrationMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,13 +42,13 @@ public class WIPRegistrationIndexingService  extends AbstractStartUpBatchedIndex
     private static final String TAG = "WIPRegistrationIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final WorkInProgressRegistrationService service;
+    private final IndexBatchReader batchReader;
     private final WorkInProgressRegistrationMapper mapper;
     private final WorkInProgressRegistrationSearchRepository searchRepository;
 
-    public WIPRegistrationIndexingService(IndexProperties indexProperties, WorkInProgressRegistrationService service, WorkInProgressRegistrationMapper mapper, WorkInProgressRegistrationSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public WIPRegistrationIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, WorkInProgressRegistrationMapper mapper, WorkInProgressRegistrationSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), WorkInProgressRegistration::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -87,28 +86,30 @@ public class WIPRegistrationIndexingService  extends AbstractStartUpBatchedIndex
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(300);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(300);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<WorkInProgressRegistration> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<WorkInProgressRegistration> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(WorkInProgressRegistration.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
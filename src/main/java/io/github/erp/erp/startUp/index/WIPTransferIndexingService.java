@@ -17,17 +17,16 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
 import io.github.erp.domain.WorkInProgressTransfer;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
 import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.WorkInProgressTransferSearchRepository;
-import io.github.erp.service.WorkInProgressTransferService;
 import io.github.erp.service.mapper.WorkInProgressTransferMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,13 +42,13 @@ public class WIPTransferIndexingService  extends AbstractStartUpBatchedIndexServ
     private static final String TAG = "WIPRegistrationIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final WorkInProgressTransferService service;
+    private final IndexBatchReader batchReader;
     private final WorkInProgressTransferMapper mapper;
     private final WorkInProgressTransferSearchRepository searchRepository;
 
-    public WIPTransferIndexingService(IndexProperties indexProperties, WorkInProgressTransferService service, WorkInProgressTransferMapper mapper, WorkInProgressTransferSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public WIPTransferIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, WorkInProgressTransferMapper mapper, WorkInProgressTransferSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), WorkInProgressTransfer::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -87,28 +86,30 @@ public class WIPTransferIndexingService  extends AbstractStartUpBatchedIndexServ
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
 
+        int batches = processInBatchesOf(500);
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
 
-        return processInBatchesOf(500);
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
 
     @Override
-    protected List<WorkInProgressTransfer> getItemsForIndexing() {
-        return service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList());
+    protected List<WorkInProgressTransfer> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(WorkInProgressTransfer.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
     }
 
     @Override
@@ -17,37 +17,38 @@ package io.github.erp.erp.startUp.index;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
-import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
+import io.github.erp.domain.WorkProjectRegister;
 import io.github.erp.erp.startUp.index.engine_v1.IndexingServiceChainSingleton;
+import io.github.erp.erp.startUp.index.engine_v2.AbstractStartUpBatchedIndexService;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
 import io.github.erp.internal.IndexProperties;
 import io.github.erp.repository.search.WorkProjectRegisterSearchRepository;
-import io.github.erp.service.WorkProjectRegisterService;
 import io.github.erp.service.mapper.WorkProjectRegisterMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
-public class WorkProjectIndexingService  extends AbstractStartupRegisteredIndexService {
+public class WorkProjectIndexingService  extends AbstractStartUpBatchedIndexService<WorkProjectRegister> {
 
     private static final String TAG = "WIPRegistrationIndex";
     private static final Logger log = LoggerFactory.getLogger(TAG);
 
-    private final WorkProjectRegisterService service;
+    private final IndexBatchReader batchReader;
     private final WorkProjectRegisterMapper mapper;
     private final WorkProjectRegisterSearchRepository searchRepository;
 
-    public WorkProjectIndexingService(IndexProperties indexProperties, WorkProjectRegisterService service, WorkProjectRegisterMapper mapper, WorkProjectRegisterSearchRepository searchRepository) {
-        super(indexProperties, indexProperties.getRebuild());
-        this.service = service;
+    public WorkProjectIndexingService(IndexProperties indexProperties, IndexBatchReader batchReader, WorkProjectRegisterMapper mapper, WorkProjectRegisterSearchRepository searchRepository, IndexCheckpointStore checkpointStore) {
+        super(indexProperties, indexProperties.getRebuild(), WorkProjectRegister::getId, searchRepository, checkpointStore);
+        this.batchReader = batchReader;
         this.mapper = mapper;
         this.searchRepository = searchRepository;
     }
@@ -70,7 +71,9 @@ public class WorkProjectIndexingService  extends AbstractStartupRegisteredIndexS
         try {
             reindexLock.lockInterruptibly();
 
-            indexerSequence();
+            int batches = indexerSequence();
+
+            log.info("{} batches processed", batches);
 
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -79,25 +82,39 @@ public class WorkProjectIndexingService  extends AbstractStartupRegisteredIndexS
         }
     }
 
-    private void indexerSequence() {
+    private int indexerSequence() {
         log.info("Initiating {} build sequence", TAG);
         long startup = System.currentTimeMillis();
-        this.searchRepository.saveAll(
-            service.findAll(Pageable.unpaged())
-                .stream()
-                .map(mapper::toEntity)
-                .filter(entity -> !searchRepository.existsById(entity.getId()))
-                .collect(ImmutableList.toImmutableList()));
+
+        int batches = processInBatchesOf(getConfiguredBatchSize());
+
         log.trace("{} initiated and ready for queries. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
+
+        return batches;
     }
 
     @Override
     public void tearDown() {
 
         if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
+            try {
+                this.searchRepository.deleteAll();
+            } finally {
+                reindexLock.unlock();
+            }
         } else {
             log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
         }
     }
+
+    @Override
+    protected List<WorkProjectRegister> getItemsForIndexing(long afterId, int batchSize) {
+        return batchReader.findAfter(WorkProjectRegister.class, afterId, batchSize, entity -> mapper.toEntity(mapper.toDto(entity)));
+    }
+
+    @Override
+    protected void processBatchIndex(List<WorkProjectRegister> batch) {
+
+        this.searchRepository.saveAll(batch);
+    }
 }
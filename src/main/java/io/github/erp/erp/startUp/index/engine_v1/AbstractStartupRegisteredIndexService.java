@@ -598,12 +598,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
 
 /**
  * This objects updates registration of index services on startup. The registered services can then be invoked
- * at runtime to recreate or update the existing index
+ * at runtime to recreate or update the existing index. Registration runs ahead of the {@link StartupIndexOrchestrator}
+ * which then schedules the startup index sequence of every registered service
  */
-public abstract class AbstractStartupRegisteredIndexService implements ControllerIndexingService, ApplicationIndexingService, ApplicationListener<ApplicationReadyEvent> {
+public abstract class AbstractStartupRegisteredIndexService implements ControllerIndexingService, ApplicationIndexingService, ApplicationListener<ApplicationReadyEvent>, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger("IndexingServiceRegistrationSequence");
 
@@ -611,6 +613,8 @@ public abstract class AbstractStartupRegisteredIndexService implements Controlle
 
     private final boolean foregoIndexRebuild;
 
+    private final IndexingProgress indexingProgress = new IndexingProgress(getClass().getSimpleName());
+
     public AbstractStartupRegisteredIndexService(
         IndexProperties indexProperties,
         IndexProperties.Rebuild rebuildIndex
@@ -624,7 +628,10 @@ public abstract class AbstractStartupRegisteredIndexService implements Controlle
         log.info("Index Service registration initiated. Standby for next sequence");
 
         register(); // Register always but don't index
+    }
 
+    @Override
+    public void indexOnStartup() {
         if (!foregoIndex) {
 
             if (!foregoIndexRebuild) {
@@ -635,6 +642,16 @@ public abstract class AbstractStartupRegisteredIndexService implements Controlle
         }
     }
 
+    @Override
+    public IndexingProgress getIndexingProgress() {
+        return indexingProgress;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
     public abstract void register();
 
     public abstract void index();
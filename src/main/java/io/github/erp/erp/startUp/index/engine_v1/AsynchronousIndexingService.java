@@ -379,21 +379,25 @@ package io.github.erp.erp.startUp.index.engine_v1;
 
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Once this service is triggered it runs the indexing method on all registered services
  */
 @Service("AsynchronousIndexingService")
 public class AsynchronousIndexingService {
 
-    public void startAsynchronousIndex(){
-        System.out.println("Performing operation in Asynchronous Task");
+    private final StartupIndexOrchestrator indexOrchestrator;
+
+    public AsynchronousIndexingService(StartupIndexOrchestrator indexOrchestrator) {
+        this.indexOrchestrator = indexOrchestrator;
+    }
 
-        IndexingServiceChainSingleton.getInstance().getRegisteredIndexingServiceList().forEach(service -> {
-            new Thread(() -> {
-                service.tearDown();
-                service.index();
-            }).start();
-        });
+    public void startAsynchronousIndex(){
+        indexOrchestrator.rebuildAll();
     }
 
+    public List<IndexingProgress> getIndexingProgress() {
+        return indexOrchestrator.getProgress();
+    }
 }
@@ -393,4 +393,21 @@ public interface ControllerIndexingService {
     void register();
 
     void tearDown();
+
+    /**
+     * Startup sequence run by the orchestrator; honours the erp-index flags for indexing and rebuilds
+     */
+    void indexOnStartup();
+
+    /**
+     * Progress of the current or most recent index build
+     */
+    IndexingProgress getIndexingProgress();
+
+    /**
+     * Services with a higher priority are handed to the index pool first
+     */
+    default int getIndexPriority() {
+        return 0;
+    }
 }
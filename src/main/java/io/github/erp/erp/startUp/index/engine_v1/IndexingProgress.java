@@ -0,0 +1,134 @@
+package io.github.erp.erp.startUp.index.engine_v1;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.time.Instant;
+
+/**
+ * Tracks how far a registered index service has come in its current build. The orchestrator moves
+ * the state along while the service reports the rows it has written and the id it has reached.
+ */
+public class IndexingProgress {
+
+    public enum State {
+        IDLE,
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private final String service;
+
+    private int priority;
+
+    private State state = State.IDLE;
+
+    private long indexedItems;
+
+    private long checkpoint;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String failure;
+
+    public IndexingProgress(String service) {
+        this.service = service;
+    }
+
+    /**
+     * Queues a new build unless one is already queued or running
+     *
+     * @return false if the service is busy with a previous build
+     */
+    synchronized boolean queue(int priority) {
+        if (state == State.QUEUED || state == State.RUNNING) {
+            return false;
+        }
+        this.priority = priority;
+        this.state = State.QUEUED;
+        this.indexedItems = 0;
+        this.startedAt = null;
+        this.finishedAt = null;
+        this.failure = null;
+        return true;
+    }
+
+    synchronized void started() {
+        this.state = State.RUNNING;
+        this.startedAt = Instant.now();
+    }
+
+    synchronized void completed() {
+        this.state = State.COMPLETED;
+        this.finishedAt = Instant.now();
+    }
+
+    synchronized void failed(Throwable cause) {
+        this.state = State.FAILED;
+        this.finishedAt = Instant.now();
+        this.failure = cause.getMessage();
+    }
+
+    /**
+     * Records the id from which an interrupted build picks up again
+     */
+    public synchronized void resumedFrom(long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public synchronized void batchIndexed(int batchSize, long lastIndexedId) {
+        this.indexedItems += batchSize;
+        this.checkpoint = lastIndexedId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public synchronized int getPriority() {
+        return priority;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getIndexedItems() {
+        return indexedItems;
+    }
+
+    public synchronized long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public synchronized Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized String getFailure() {
+        return failure;
+    }
+}
@@ -380,8 +380,8 @@ package io.github.erp.erp.startUp.index.engine_v1;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Maintains the list of indexing services registered at startup
@@ -396,7 +396,7 @@ public class IndexingServiceChainSingleton {
 
     private int serviceCount = 1;
 
-    private final List<ControllerIndexingService> indexingServices = new ArrayList<>();
+    private final List<ControllerIndexingService> indexingServices = new CopyOnWriteArrayList<>();
 
     public static IndexingServiceChainSingleton getInstance() {
         if (instance == null) {
@@ -419,7 +419,7 @@ public class IndexingServiceChainSingleton {
 
     List<ControllerIndexingService> getRegisteredIndexingServiceList() {
 
-        log.info("Deploying {} registered services", indexingServices.size());
+        log.debug("Deploying {} registered services", indexingServices.size());
 
         return indexingServices;
     }
@@ -0,0 +1,120 @@
+package io.github.erp.erp.startUp.index.engine_v1;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.IndexProperties;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the registered index services on a bounded work-stealing pool. Services are handed to the pool
+ * in descending order of priority so that hot entities are searchable first, while the pool's
+ * parallelism keeps the number of concurrent builds (and the heap they hold) in check.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class StartupIndexOrchestrator implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupIndexOrchestrator.class);
+
+    private static final Comparator<ControllerIndexingService> BY_PRIORITY =
+        Comparator.comparingInt(ControllerIndexingService::getIndexPriority).reversed();
+
+    private final ExecutorService indexPool;
+
+    public StartupIndexOrchestrator(IndexProperties indexProperties) {
+        this.indexPool = Executors.newWorkStealingPool(indexProperties.getParallelism());
+    }
+
+    /**
+     * Runs after every index service has registered itself
+     */
+    @Override
+    public void onApplicationEvent(@NotNull ApplicationReadyEvent applicationReadyEvent) {
+        log.info("Scheduling startup index sequence");
+
+        submitAll(ControllerIndexingService::indexOnStartup);
+    }
+
+    /**
+     * Tears down and rebuilds every registered index. Services still busy with a previous build are skipped
+     */
+    public void rebuildAll() {
+        log.info("Scheduling index rebuild sequence");
+
+        submitAll(service -> {
+            service.tearDown();
+            service.index();
+        });
+    }
+
+    /**
+     * @return progress of every registered service in the order in which they are scheduled
+     */
+    public List<IndexingProgress> getProgress() {
+        return registeredServices().stream().map(ControllerIndexingService::getIndexingProgress).collect(Collectors.toList());
+    }
+
+    private void submitAll(Consumer<ControllerIndexingService> sequence) {
+        registeredServices()
+            .stream()
+            .filter(service -> service.getIndexingProgress().queue(service.getIndexPriority()))
+            .forEach(service -> indexPool.execute(() -> run(service, sequence)));
+    }
+
+    private void run(ControllerIndexingService service, Consumer<ControllerIndexingService> sequence) {
+        IndexingProgress progress = service.getIndexingProgress();
+        progress.started();
+        try {
+            sequence.accept(service);
+            progress.completed();
+        } catch (RuntimeException e) {
+            log.error("Index sequence for {} has failed at id {}", progress.getService(), progress.getCheckpoint(), e);
+            progress.failed(e);
+        }
+    }
+
+    private List<ControllerIndexingService> registeredServices() {
+        return IndexingServiceChainSingleton
+            .getInstance()
+            .getRegisteredIndexingServiceList()
+            .stream()
+            .sorted(BY_PRIORITY)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        indexPool.shutdownNow();
+    }
+}
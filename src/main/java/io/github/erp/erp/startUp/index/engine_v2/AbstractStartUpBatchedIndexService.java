@@ -106,30 +106,53 @@
  */
 package io.github.erp.erp.startUp.index.engine_v2;
 
-import io.github.erp.domain.Settlement;
 import io.github.erp.erp.startUp.index.engine_v1.AbstractStartupRegisteredIndexService;
 import io.github.erp.internal.IndexProperties;
-import io.reactivex.Observable;
-import io.reactivex.disposables.Disposable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Runs index sequence applying batch process execution method
+ * Runs index sequence applying batch process execution method. Entities are read in ascending ranges
+ * of id, one batch at a time, and the last id of every batch written is checkpointed so that an
+ * interrupted build resumes where it stopped.
  */
 public abstract class AbstractStartUpBatchedIndexService<T> extends AbstractStartupRegisteredIndexService {
 
     private static final Logger log = LoggerFactory.getLogger(AbstractStartUpBatchedIndexService.class);
 
-    public AbstractStartUpBatchedIndexService(IndexProperties indexProperties, IndexProperties.Rebuild rebuildIndex) {
+    private final Function<T, Long> idOf;
+    private final ElasticsearchRepository<T, Long> searchRepository;
+    private final IndexCheckpointStore checkpointStore;
+    private final int configuredBatchSize;
+
+    public AbstractStartUpBatchedIndexService(
+        IndexProperties indexProperties,
+        IndexProperties.Rebuild rebuildIndex,
+        Function<T, Long> idOf,
+        ElasticsearchRepository<T, Long> searchRepository,
+        IndexCheckpointStore checkpointStore
+    ) {
         super(indexProperties, rebuildIndex);
+        this.idOf = idOf;
+        this.searchRepository = searchRepository;
+        this.checkpointStore = checkpointStore;
+        this.configuredBatchSize = indexProperties.getBatchSize();
     }
 
-    protected abstract List<T> getItemsForIndexing();
+    /**
+     * Fetch the next batch of entities whose id is greater than the one given, in ascending order of id,
+     * typically with {@link IndexBatchReader} so that no count query is run for the batch
+     *
+     * @param afterId id of the last entity already indexed
+     * @param batchSize maximum number of entities to return
+     * @return entities for indexing; an empty list once the range is exhausted
+     */
+    protected abstract List<T> getItemsForIndexing(long afterId, int batchSize);
 
     protected abstract void processBatchIndex(List<T> batch);
 
@@ -144,40 +167,56 @@ public abstract class AbstractStartUpBatchedIndexService<T> extends AbstractStar
         return entity;
     };
 
+    /**
+     * Batch size set in erp-index.batch-size, for services with no size tuned to their entity
+     */
+    protected int getConfiguredBatchSize() {
+        return configuredBatchSize;
+    }
+
     public int processInBatchesOf(int preferredBatchSize) {
-        List<T> allItems = getItemsForIndexing().stream().map(this::prepareForIndexing).toList();
-        AtomicInteger count = new AtomicInteger(0);
-        AtomicInteger processedItems = new AtomicInteger(0);
-
-        int numberOfBatches = allItems.size() / preferredBatchSize + (allItems.size() % preferredBatchSize == 0 ? 0 : 1);
-
-        Disposable disposableBatchProcess = Observable.fromIterable(allItems)
-            .buffer(preferredBatchSize)
-            .subscribe(batch -> {
-                count.incrementAndGet();
-                processedItems.addAndGet(batch.size());
-                boolean isLastBatch = processedItems.get() >= allItems.size();
-
-                try {
-                    processBatchIndex(batch);
-                } catch (Exception e) {
-                    log.error("Exception encountered during batch processing: {}", e.getMessage(), e);
-                    throw new RuntimeException("Error while processing batch # " + count.get(), e);
-                }
-
-                log.info("{} out of {} batches processed", count.get(), numberOfBatches);
-
-                if (isLastBatch) {
-                    log.info("Final batch of {} items has been processed", processedItems.get());
-                }
-            });
-
-        if (count.get() >= numberOfBatches) {
-            log.info("Disposing the batch sequence...");
-            disposableBatchProcess.dispose();
+        String service = getIndexingProgress().getService();
+        long checkpoint = resumeCheckpoint(service);
+
+        if (checkpoint > 0) {
+            log.info("Resuming {} index build after id {}", service, checkpoint);
+        }
+        getIndexingProgress().resumedFrom(checkpoint);
+
+        int count = 0;
+        List<T> batch = getItemsForIndexing(checkpoint, preferredBatchSize);
+
+        while (!batch.isEmpty()) {
+            count++;
+            long lastId = idOf.apply(batch.get(batch.size() - 1));
+
+            try {
+                processBatchIndex(batch.stream().map(this::prepareForIndexing).collect(Collectors.toList()));
+            } catch (Exception e) {
+                log.error("Exception encountered during batch processing: {}", e.getMessage(), e);
+                throw new RuntimeException("Error while processing batch # " + count, e);
+            }
+
+            checkpointStore.write(service, lastId);
+            getIndexingProgress().batchIndexed(batch.size(), lastId);
+
+            log.info("{} batches processed for {}, checkpoint at id {}", count, service, lastId);
+
+            batch = batch.size() < preferredBatchSize ? List.of() : getItemsForIndexing(lastId, preferredBatchSize);
         }
 
-        return count.get();
+        log.info("Final batch has been processed; {} items indexed for {}", getIndexingProgress().getIndexedItems(), service);
+
+        return count;
     }
 
+    /**
+     * A checkpoint only counts while the index still holds documents; after a tear-down the build starts over
+     */
+    private long resumeCheckpoint(String service) {
+        if (searchRepository.count() == 0) {
+            return 0L;
+        }
+        return checkpointStore.read(service);
+    }
 }
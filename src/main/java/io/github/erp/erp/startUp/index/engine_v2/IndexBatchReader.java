@@ -0,0 +1,70 @@
+package io.github.erp.erp.startUp.index.engine_v2;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads entities for indexing in ascending ranges of id. Each batch is a single query bounded on the
+ * id, without the count query that a {@link org.springframework.data.domain.Page} runs for every
+ * full page
+ */
+@Component
+public class IndexBatchReader {
+
+    private final EntityManager entityManager;
+
+    public IndexBatchReader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param entityType class of the entities to be read
+     * @param afterId id of the last entity already read
+     * @param batchSize maximum number of entities to return
+     * @param copy applied to each entity before the transaction ends, so that lazy associations can be resolved
+     * @return copies of the entities following the given id, in ascending order of id
+     */
+    @Transactional(readOnly = true)
+    public <T, R> List<R> findAfter(Class<T> entityType, long afterId, int batchSize, Function<T, R> copy) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+
+        query.select(root)
+            .where(criteriaBuilder.greaterThan(root.<Long>get("id"), afterId))
+            .orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(batchSize)
+            .getResultList()
+            .stream()
+            .map(copy)
+            .collect(Collectors.toList());
+    }
+}
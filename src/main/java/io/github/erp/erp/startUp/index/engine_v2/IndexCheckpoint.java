@@ -0,0 +1,60 @@
+package io.github.erp.erp.startUp.index.engine_v2;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * Highest id a batched index service has written in its current build
+ */
+@Document(indexName = "startupindexcheckpoint")
+public class IndexCheckpoint {
+
+    @Id
+    private String service;
+
+    @Field(type = FieldType.Long)
+    private long lastIndexedId;
+
+    public IndexCheckpoint() {}
+
+    public IndexCheckpoint(String service, long lastIndexedId) {
+        this.service = service;
+        this.lastIndexedId = lastIndexedId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+    }
+
+    public long getLastIndexedId() {
+        return lastIndexedId;
+    }
+
+    public void setLastIndexedId(long lastIndexedId) {
+        this.lastIndexedId = lastIndexedId;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.erp.erp.startUp.index.engine_v2;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the index checkpoints alongside the indices themselves so that they survive a restart
+ */
+@Component
+public class IndexCheckpointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexCheckpointStore.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public IndexCheckpointStore(ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    /**
+     * @return the last id written by the service, or 0 if it has no checkpoint
+     */
+    public long read(String service) {
+        try {
+            IndexCheckpoint checkpoint = elasticsearchOperations.get(service, IndexCheckpoint.class);
+
+            return checkpoint == null ? 0L : checkpoint.getLastIndexedId();
+        } catch (RuntimeException e) {
+            log.warn("Unable to read the index checkpoint for {}; indexing from the first id", service, e);
+
+            return 0L;
+        }
+    }
+
+    public void write(String service, long lastIndexedId) {
+        elasticsearchOperations.save(new IndexCheckpoint(service, lastIndexedId));
+    }
+}
@@ -20,25 +20,199 @@ package io.github.erp.erp.startUp.index.reindexer;
 import io.github.erp.erp.startUp.index.api.ApplicationIndexTearDownService;
 import io.github.erp.erp.startUp.index.api.ApplicationIndexingService;
 import io.github.erp.erp.startUp.index.api.ApplicationReindexingService;
+import io.github.erp.service.mapper.EntityMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
 /**
- * Implementation of independent cleanup of the index. The simple implementation involves tearing
- * down the index and building it up again using entries from the DB
+ * Keeps the search index of an entity in step with the database without taking it offline.
+ * <p>
+ * The scheduled re-index is incremental: rows with an id above the high-water mark of the
+ * previous pass are upserted in bulk pages, ordered by id. Entity services already index rows
+ * as they are saved through them, so this pass picks up whatever arrives by other routes.
+ * <p>
+ * Updates and deletes made outside the services are reconciled by the full rebuild, which
+ * writes every row into a fresh shadow index and then swaps the alias over to it, so searches
+ * keep hitting the old index until the new one is complete. Ids only grow, so rows inserted
+ * while a rebuild is running are picked up by its later pages or by the next incremental pass;
+ * an update made through a service to a row the rebuild has already read is only reflected
+ * after the next rebuild.
+ * <p>
+ * Each page is read in its own read-only transaction and copied through the entity's DTO
+ * mapper before it leaves it, so that lazy associations are resolved while the session is
+ * open and the search repository only ever serialises detached copies. The high-water mark
+ * is held in memory; after a restart it is recovered from the highest id in the index.
+ *
+ * @param <T> Type of the indexed entity
  */
-public abstract class AbstractReIndexerService implements ApplicationIndexingService, ApplicationReindexingService, ApplicationIndexTearDownService {
+public abstract class AbstractReIndexerService<T> implements ApplicationIndexingService, ApplicationReindexingService, ApplicationIndexTearDownService {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractReIndexerService.class);
+
+    private static final long UNKNOWN = -1;
+
+    private final Lock reindexLock = new ReentrantLock();
+    private final AtomicLong highWaterMark = new AtomicLong(UNKNOWN);
+    private final AtomicLong lagDocuments = new AtomicLong(0);
+    private final AtomicLong lastSynchronisedAt = new AtomicLong(System.currentTimeMillis());
+
+    private final String tag;
+    private final Class<T> entityType;
+    private final Function<T, Long> idOf;
+    private final UnaryOperator<T> detach;
+    private final JpaSpecificationExecutor<T> repository;
+    private final ElasticsearchRepository<T, Long> searchRepository;
+    private final ReIndexingSupport reIndexingSupport;
+
+    protected <D> AbstractReIndexerService(
+        String tag,
+        Class<T> entityType,
+        Function<T, Long> idOf,
+        EntityMapper<D, T> mapper,
+        JpaSpecificationExecutor<T> repository,
+        ElasticsearchRepository<T, Long> searchRepository,
+        ReIndexingSupport reIndexingSupport) {
+        this.tag = tag;
+        this.entityType = entityType;
+        this.idOf = idOf;
+        this.detach = entity -> mapper.toEntity(mapper.toDto(entity));
+        this.repository = repository;
+        this.searchRepository = searchRepository;
+        this.reIndexingSupport = reIndexingSupport;
+
+        reIndexingSupport.registerLagGauges(
+            tag,
+            lagDocuments::get,
+            () -> (System.currentTimeMillis() - lastSynchronisedAt.get()) / 1000);
+    }
 
     @Override
     @Scheduled(fixedDelayString = "${app.ReIndexer.interval}",
         initialDelayString = "${app.ReIndexer.interval}")
     public void reIndex() {
-         this.tearDown();
-         this.index();
+        this.index();
     }
 
+    /**
+     * Upserts the rows added since the last pass
+     */
     @Override
-    public abstract void index();
+    public void index() {
+        if (!reindexLock.tryLock()) {
+            log.trace("{} ReIndexer: Concurrent reindexing attempt", tag);
+            return;
+        }
+        try {
+            long startup = System.currentTimeMillis();
+
+            if (highWaterMark.get() == UNKNOWN) {
+                highWaterMark.set(reIndexingSupport.highestIndexedId(entityType));
+            }
+
+            long upserted = forEachPageAfter(highWaterMark.get(), searchRepository::saveAll);
+
+            updateLag(startup);
+
+            log.info("{} ReIndexer: {} documents upserted in {} milliseconds; high-water mark id {}", tag, upserted, System.currentTimeMillis() - startup, highWaterMark.get());
+        } finally {
+            reindexLock.unlock();
+        }
+    }
 
+    /**
+     * Rebuilds the index from scratch into a shadow index and swaps the alias over to it
+     */
+    @Scheduled(fixedDelayString = "${app.ReIndexer.full-rebuild-interval:P1D}",
+        initialDelayString = "${app.ReIndexer.full-rebuild-interval:P1D}")
+    public void rebuild() {
+        if (!reindexLock.tryLock()) {
+            log.trace("{} ReIndexer: Concurrent reindexing attempt", tag);
+            return;
+        }
+        IndexCoordinates shadow = null;
+        try {
+            long startup = System.currentTimeMillis();
+            String alias = reIndexingSupport.aliasFor(entityType);
+
+            shadow = reIndexingSupport.createShadowIndex(entityType);
+            IndexCoordinates shadowIndex = shadow;
+
+            highWaterMark.set(0);
+            long indexed = forEachPageAfter(0, page -> reIndexingSupport.saveAll(page, shadowIndex));
+
+            reIndexingSupport.swapAlias(alias, shadow);
+            shadow = null;
+
+            updateLag(startup);
+
+            log.info("{} ReIndexer: {} documents rebuilt into {} in {} milliseconds", tag, indexed, shadowIndex.getIndexName(), System.currentTimeMillis() - startup);
+        } finally {
+            if (shadow != null) {
+                log.warn("{} ReIndexer: rebuild failed; discarding shadow index {}", tag, shadow.getIndexName());
+                reIndexingSupport.deleteIndex(shadow);
+            }
+            reindexLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every document from the index. The next pass re-indexes all rows
+     */
     @Override
-    public abstract void tearDown();
+    public void tearDown() {
+        if (reindexLock.tryLock()) {
+            try {
+                this.searchRepository.deleteAll();
+                highWaterMark.set(0);
+            } finally {
+                reindexLock.unlock();
+            }
+        } else {
+            log.trace("{} ReIndexer: Concurrent reindexing attempt", tag);
+        }
+    }
+
+    /**
+     * Pages through the rows with an id above the given one in id order, advancing the
+     * high-water mark after each page is written
+     *
+     * @return number of rows handed to the writer
+     */
+    private long forEachPageAfter(long lastId, Consumer<List<T>> writer) {
+        long count = 0;
+        long after = lastId;
+        List<T> page;
+        do {
+            page = readPageAfter(after);
+            if (!page.isEmpty()) {
+                writer.accept(page);
+                after = idOf.apply(page.get(page.size() - 1));
+                highWaterMark.set(after);
+                count += page.size();
+            }
+        } while (page.size() == reIndexingSupport.getPageSize());
+        return count;
+    }
+
+    private List<T> readPageAfter(long lastId) {
+        return reIndexingSupport.readPageAfter(entityType, lastId, detach);
+    }
+
+    private void updateLag(long passStartedAt) {
+        lagDocuments.set(Math.max(repository.count(Specification.where(null)) - searchRepository.count(), 0));
+        lastSynchronisedAt.set(passStartedAt);
+    }
 }
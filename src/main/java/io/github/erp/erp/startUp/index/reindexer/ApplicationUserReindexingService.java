@@ -17,63 +17,18 @@ package io.github.erp.erp.startUp.index.reindexer;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
+import io.github.erp.domain.ApplicationUser;
+import io.github.erp.repository.ApplicationUserRepository;
 import io.github.erp.repository.search.ApplicationUserSearchRepository;
-import io.github.erp.service.ApplicationUserService;
 import io.github.erp.service.mapper.ApplicationUserMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Service
-@Transactional
-public class ApplicationUserReindexingService extends AbstractReIndexerService {
+public class ApplicationUserReindexingService extends AbstractReIndexerService<ApplicationUser> {
 
-    private static final Lock reindexLock = new ReentrantLock();
     private static final String TAG = "ApplicationUser";
-    private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final ApplicationUserService service;
-    private final ApplicationUserMapper mapper;
-    private final ApplicationUserSearchRepository searchRepository;
-
-    public ApplicationUserReindexingService(ApplicationUserService service, ApplicationUserMapper mapper, ApplicationUserSearchRepository searchRepository) {
-        this.service = service;
-        this.mapper = mapper;
-        this.searchRepository = searchRepository;
-    }
-
-    @Async
-    @Override
-    public void index() {
-        try {
-            log.info("Initiating {} index deduplication sequence", TAG);
-            long startup = System.currentTimeMillis();
-            this.searchRepository.saveAll(
-                service.findAll(Pageable.unpaged())
-                    .stream()
-                    .map(mapper::toEntity)
-                    .filter(entity -> !searchRepository.existsById(entity.getId()))
-                    .collect(ImmutableList.toImmutableList()));
-            log.trace("{} cleanup complete. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
-        } finally {
-            log.trace("{} ReIndexer: ReIndexing has been completed successfully; unlocking the index", TAG);
-            reindexLock.unlock();
-        }
-    }
-
-    @Override
-    public void tearDown() {
 
-        if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
-        } else {
-            log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
-        }
+    public ApplicationUserReindexingService(ApplicationUserRepository repository, ApplicationUserSearchRepository searchRepository, ApplicationUserMapper mapper, ReIndexingSupport reIndexingSupport) {
+        super(TAG, ApplicationUser.class, ApplicationUser::getId, mapper, repository, searchRepository, reIndexingSupport);
     }
 }
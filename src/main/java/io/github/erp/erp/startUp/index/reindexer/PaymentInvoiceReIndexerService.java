@@ -17,64 +17,19 @@ package io.github.erp.erp.startUp.index.reindexer;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
+import io.github.erp.domain.PaymentInvoice;
+import io.github.erp.repository.PaymentInvoiceRepository;
 import io.github.erp.repository.search.PaymentInvoiceSearchRepository;
-import io.github.erp.service.PaymentInvoiceService;
 import io.github.erp.service.mapper.PaymentInvoiceMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 //@IndexingService
 @Service
-@Transactional
-public class PaymentInvoiceReIndexerService extends AbstractReIndexerService {
+public class PaymentInvoiceReIndexerService extends AbstractReIndexerService<PaymentInvoice> {
 
-    private static final Lock reindexLock = new ReentrantLock();
     private static final String TAG = "PaymentInvoice";
-    private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final PaymentInvoiceService service;
-    private final PaymentInvoiceMapper mapper;
-    private final PaymentInvoiceSearchRepository searchRepository;
-
-    public PaymentInvoiceReIndexerService(PaymentInvoiceService service, PaymentInvoiceMapper mapper, PaymentInvoiceSearchRepository searchRepository) {
-        this.service = service;
-        this.mapper = mapper;
-        this.searchRepository = searchRepository;
-    }
-
-    @Async
-    @Override
-    public void index() {
-        try {
-            log.info("Initiating {} index deduplication sequence", TAG);
-            long startup = System.currentTimeMillis();
-            this.searchRepository.saveAll(
-                service.findAll(Pageable.unpaged())
-                    .stream()
-                    .map(mapper::toEntity)
-                    .filter(entity -> !searchRepository.existsById(entity.getId()))
-                    .collect(ImmutableList.toImmutableList()));
-            log.trace("{} cleanup complete. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
-        } finally {
-            log.trace("{} ReIndexer: ReIndexing has been completed successfully; unlocking the index", TAG);
-            reindexLock.unlock();
-        }
-    }
-
-    @Override
-    public void tearDown() {
 
-        if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
-        } else {
-            log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
-        }
+    public PaymentInvoiceReIndexerService(PaymentInvoiceRepository repository, PaymentInvoiceSearchRepository searchRepository, PaymentInvoiceMapper mapper, ReIndexingSupport reIndexingSupport) {
+        super(TAG, PaymentInvoice.class, PaymentInvoice::getId, mapper, repository, searchRepository, reIndexingSupport);
     }
 }
@@ -0,0 +1,176 @@
+package io.github.erp.erp.startUp.index.reindexer;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Elasticsearch, transaction and metrics plumbing shared by the re-indexers: read-only page
+ * transactions, shadow indices for full rebuilds, the alias swap that publishes them, and the
+ * index-lag gauges
+ */
+@Component
+public class ReIndexingSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(ReIndexingSupport.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final MeterRegistry meterRegistry;
+    private final IndexBatchReader indexBatchReader;
+    private final int pageSize;
+
+    public ReIndexingSupport(
+        ElasticsearchOperations elasticsearchOperations,
+        MeterRegistry meterRegistry,
+        IndexBatchReader indexBatchReader,
+        @Value("${app.ReIndexer.page-size:1000}") int pageSize) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.meterRegistry = meterRegistry;
+        this.indexBatchReader = indexBatchReader;
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Reads the page of rows following the given id, in id order, in a read-only transaction of its
+     * own, so that lazy associations can be resolved by the copy without holding a session open
+     * across a whole pass. The page is bounded on the id, so no count query is run for it
+     */
+    public <T> List<T> readPageAfter(Class<T> entityType, long lastId, UnaryOperator<T> copy) {
+        return indexBatchReader.findAfter(entityType, lastId, pageSize, copy);
+    }
+
+    /**
+     * @return highest document id in the entity's index, or zero when the index is empty or
+     * cannot be queried
+     */
+    public long highestIndexedId(Class<?> entityType) {
+        NativeSearchQuery query = new NativeSearchQueryBuilder()
+            .withQuery(QueryBuilders.matchAllQuery())
+            .withSort(SortBuilders.fieldSort("id").order(SortOrder.DESC))
+            .withPageable(PageRequest.of(0, 1))
+            .build();
+        try {
+            SearchHits<?> hits = elasticsearchOperations.search(query, entityType);
+            return hits.hasSearchHits() ? Long.parseLong(hits.getSearchHit(0).getId()) : 0;
+        } catch (RuntimeException e) {
+            log.warn("Could not read the highest indexed id for {}; re-indexing from the start", entityType.getSimpleName(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return name of the index, or alias, that the search repository for the entity writes to
+     */
+    public String aliasFor(Class<?> entityType) {
+        return elasticsearchOperations.getIndexCoordinatesFor(entityType).getIndexName();
+    }
+
+    /**
+     * Creates an empty index with the mapping of the entity, named after the alias and a timestamp
+     */
+    public IndexCoordinates createShadowIndex(Class<?> entityType) {
+        IndexCoordinates shadow = IndexCoordinates.of(aliasFor(entityType) + "-" + System.currentTimeMillis());
+
+        IndexOperations shadowOperations = elasticsearchOperations.indexOps(shadow);
+        shadowOperations.create();
+        shadowOperations.putMapping(elasticsearchOperations.indexOps(entityType).createMapping(entityType));
+
+        return shadow;
+    }
+
+    /**
+     * Bulk-writes the documents into the given index
+     */
+    public <T> void saveAll(List<T> documents, IndexCoordinates index) {
+        if (!documents.isEmpty()) {
+            elasticsearchOperations.save(documents, index);
+        }
+    }
+
+    /**
+     * Points the alias at the shadow index and deletes whatever the alias resolved to before, in
+     * one atomic request. The first swap replaces the concrete index that carries the alias name
+     */
+    public void swapAlias(String alias, IndexCoordinates shadow) {
+        IndexOperations aliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+
+        Set<String> currentIndices = aliasOperations.exists()
+            ? aliasOperations.getAliasesForIndex(alias).keySet()
+            : Collections.emptySet();
+
+        AliasActions aliasActions = new AliasActions(
+            new AliasAction.Add(AliasActionParameters.builder().withIndices(shadow.getIndexName()).withAliases(alias).build()));
+
+        currentIndices.forEach(index ->
+            aliasActions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(index).build())));
+
+        elasticsearchOperations.indexOps(shadow).alias(aliasActions);
+
+        log.info("Search alias {} now points at {}; removed {}", alias, shadow.getIndexName(), currentIndices);
+    }
+
+    public void deleteIndex(IndexCoordinates index) {
+        elasticsearchOperations.indexOps(index).delete();
+    }
+
+    /**
+     * Registers the lag gauges for an entity: rows not yet in the index as of the last pass, and
+     * the seconds since the last successful pass
+     */
+    public void registerLagGauges(String entity, Supplier<Number> lagDocuments, Supplier<Number> lagSeconds) {
+        Gauge.builder("search.index.lag.documents", lagDocuments)
+            .description("Database rows missing from the search index at the last re-index pass")
+            .tag("entity", entity)
+            .register(meterRegistry);
+
+        Gauge.builder("search.index.lag.seconds", lagSeconds)
+            .description("Seconds since the search index was last brought up to date")
+            .tag("entity", entity)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+}
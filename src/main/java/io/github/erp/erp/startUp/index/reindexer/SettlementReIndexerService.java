@@ -17,64 +17,19 @@ package io.github.erp.erp.startUp.index.reindexer;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
+import io.github.erp.domain.Settlement;
+import io.github.erp.repository.SettlementRepository;
 import io.github.erp.repository.search.SettlementSearchRepository;
-import io.github.erp.service.SettlementService;
 import io.github.erp.service.mapper.SettlementMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 //@IndexingService
 @Service
-@Transactional
-public class SettlementReIndexerService extends AbstractReIndexerService {
+public class SettlementReIndexerService extends AbstractReIndexerService<Settlement> {
 
-    private static final Lock reindexLock = new ReentrantLock();
     private static final String TAG = "SettlementReIndex";
-    private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final SettlementService service;
-    private final SettlementMapper mapper;
-    private final SettlementSearchRepository searchRepository;
-
-    public SettlementReIndexerService(SettlementService service, SettlementMapper mapper, SettlementSearchRepository searchRepository) {
-        this.service = service;
-        this.mapper = mapper;
-        this.searchRepository = searchRepository;
-    }
-
-    @Async
-    @Override
-    public void index() {
-        try {
-            log.info("Initiating {} index deduplication sequence", TAG);
-            long startup = System.currentTimeMillis();
-            this.searchRepository.saveAll(
-                service.findAll(Pageable.unpaged())
-                    .stream()
-                    .map(mapper::toEntity)
-                    .filter(entity -> !searchRepository.existsById(entity.getId()))
-                    .collect(ImmutableList.toImmutableList()));
-            log.trace("{} cleanup complete. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
-        } finally {
-            log.trace("{} ReIndexer: ReIndexing completed successfully, unlocking the index", TAG);
-            reindexLock.unlock();
-        }
-    }
-
-    @Override
-    public void tearDown() {
 
-        if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
-        } else {
-            log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
-        }
+    public SettlementReIndexerService(SettlementRepository repository, SettlementSearchRepository searchRepository, SettlementMapper mapper, ReIndexingSupport reIndexingSupport) {
+        super(TAG, Settlement.class, Settlement::getId, mapper, repository, searchRepository, reIndexingSupport);
     }
 }
@@ -17,64 +17,19 @@ package io.github.erp.erp.startUp.index.reindexer;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import com.google.common.collect.ImmutableList;
+import io.github.erp.domain.SettlementRequisition;
+import io.github.erp.repository.SettlementRequisitionRepository;
 import io.github.erp.repository.search.SettlementRequisitionSearchRepository;
-import io.github.erp.service.SettlementRequisitionService;
 import io.github.erp.service.mapper.SettlementRequisitionMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 //@IndexingService
 @Service
-@Transactional
-public class SettlementRequisitionReIndexingService extends AbstractReIndexerService {
+public class SettlementRequisitionReIndexingService extends AbstractReIndexerService<SettlementRequisition> {
 
-    private static final Lock reindexLock = new ReentrantLock();
     private static final String TAG = "SettlementRequisition";
-    private static final Logger log = LoggerFactory.getLogger(TAG);
-    private final SettlementRequisitionService service;
-    private final SettlementRequisitionMapper mapper;
-    private final SettlementRequisitionSearchRepository searchRepository;
-
-    public SettlementRequisitionReIndexingService(SettlementRequisitionService service, SettlementRequisitionMapper mapper, SettlementRequisitionSearchRepository searchRepository) {
-        this.service = service;
-        this.mapper = mapper;
-        this.searchRepository = searchRepository;
-    }
-
-    @Async
-    @Override
-    public void index() {
-        try {
-            log.info("Initiating {} index deduplication sequence", TAG);
-            long startup = System.currentTimeMillis();
-            this.searchRepository.saveAll(
-                service.findAll(Pageable.unpaged())
-                    .stream()
-                    .map(mapper::toEntity)
-                    .filter(entity -> !searchRepository.existsById(entity.getId()))
-                    .collect(ImmutableList.toImmutableList()));
-            log.trace("{} cleanup complete. Index build has taken {} milliseconds", TAG, System.currentTimeMillis() - startup);
-        } finally {
-            log.trace("{} ReIndexer: ReIndexing has been completed successfully; unlocking the index", TAG);
-            reindexLock.unlock();
-        }
-    }
-
-    @Override
-    public void tearDown() {
 
-        if (reindexLock.tryLock()) {
-            this.searchRepository.deleteAll();
-        } else {
-            log.trace("{} ReIndexer: Concurrent reindexing attempt", TAG);
-        }
+    public SettlementRequisitionReIndexingService(SettlementRequisitionRepository repository, SettlementRequisitionSearchRepository searchRepository, SettlementRequisitionMapper mapper, ReIndexingSupport reIndexingSupport) {
+        super(TAG, SettlementRequisition.class, SettlementRequisition::getId, mapper, repository, searchRepository, reIndexingSupport);
     }
 }
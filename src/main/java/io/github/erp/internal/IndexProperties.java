@@ -37,6 +37,29 @@ public class IndexProperties {
         this.enabled = enabled;
     }
 
+    private int parallelism = 4;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    private int batchSize = 400;
+
+    /**
+     * Number of entities read and written per batch by the id-range index builds
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     private Rebuild rebuild;
 
     public Rebuild getRebuild() {
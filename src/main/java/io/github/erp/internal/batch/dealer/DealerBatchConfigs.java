@@ -36,6 +36,7 @@ import org.springframework.batch.core.configuration.annotation.JobBuilderFactory
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
@@ -44,6 +45,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 
 import java.util.List;
 
@@ -58,6 +60,7 @@ public class DealerBatchConfigs {
     private static final String DELETION_WRITER_NAME = "dealerDeletionWriter";
     private static final String DELETION_READER_NAME = "dealerDeletionReader";
     private static final String PERSISTENCE_READER_NAME = "dealerListItemReader";
+    private static final String PERSISTENCE_PARTITIONER_NAME = "dealerListRowRangePartitioner";
     private static final String PERSISTENCE_PROCESSOR_NAME = "dealerListItemProcessor";
     private static final String PERSISTENCE_WRITER_NAME = "dealerEntityListItemsWriter";
 
@@ -99,7 +102,14 @@ public class DealerBatchConfigs {
     private StepBuilderFactory stepBuilderFactory;
 
     @Autowired
-    private BatchPersistentFileUploadService fileUploadService;
+    private DataFileStore dataFileStore;
+
+    @Autowired
+    private AfterCommitBatchIndexer batchIndexer;
+
+    @Autowired
+    @Qualifier("fileUploadPartitionExecutor")
+    private TaskExecutor fileUploadPartitionExecutor;
 
     @Autowired
     private DeletionUploadService<DealerBEO> fileUploadDeletionService;
@@ -109,8 +119,12 @@ public class DealerBatchConfigs {
 
     @Bean(PERSISTENCE_READER_NAME)
     @StepScope
-    public EntityItemsReader<DealerEVM> listItemReader(@Value("#{jobParameters['fileId']}") long fileId ) {
-        return new EntityItemsReader<>(dealerDeserializer, fileUploadService, fileId, fileUploadsProperties);
+    public EntityItemsReader<DealerEVM> listItemReader(
+        @Value("#{jobParameters['fileId']}") long fileId,
+        @Value("#{stepExecutionContext['firstRow']}") Integer firstRow,
+        @Value("#{stepExecutionContext['rowCount']}") Integer rowCount
+    ) {
+        return new EntityItemsReader<>(dealerDeserializer, dataFileStore, fileId, firstRow, rowCount, fileUploadsProperties);
     }
 
     @Bean(PERSISTENCE_PROCESSOR_NAME)
@@ -122,21 +136,39 @@ public class DealerBatchConfigs {
     @Bean(PERSISTENCE_WRITER_NAME)
     @StepScope
     public EntityListItemsWriter<DealerDTO> listItemsWriter() {
-        return new EntityListItemsWriter<>(batchService);
+        return new EntityListItemsWriter<>(batchService, batchIndexer);
     }
 
     @Bean(READ_FILE_STEP_NAME)
     @JobScope
     public Step readFile() {
+        if (fileUploadsProperties.getPartitions() > 1) {
+            return new PartitionedReadFileStep<>(
+                READ_FILE_STEP_NAME,
+                rowRangePartitioner(fileId),
+                listItemReader(fileId, null, null),
+                listItemsProcessor(jobUploadToken),
+                listItemsWriter(),
+                fileUploadPartitionExecutor,
+                fileUploadsProperties.getPartitions(),
+                stepBuilderFactory
+            );
+        }
         return new ReadFileStep<>(
             READ_FILE_STEP_NAME,
-            listItemReader(fileId),
+            listItemReader(fileId, null, null),
             listItemsProcessor(jobUploadToken),
             listItemsWriter(),
             stepBuilderFactory
         );
     }
 
+    @Bean(PERSISTENCE_PARTITIONER_NAME)
+    @JobScope
+    public Partitioner rowRangePartitioner(@Value("#{jobParameters['fileId']}") long fileId) {
+        return new RowRangePartitioner(dealerDeserializer, dataFileStore, fileId);
+    }
+
     @Bean(PERSISTENCE_JOB_NAME)
     public Job persistenceJob() {
         return new SingleStepEntityJob(PERSISTENCE_JOB_NAME, persistenceJobListener, readFile(), jobBuilderFactory);
@@ -39,15 +39,18 @@ import io.github.erp.domain.FixedAssetNetBookValue;
 import io.github.erp.internal.framework.BatchService;
 import io.github.erp.internal.framework.FileUploadsProperties;
 import io.github.erp.internal.framework.Mapping;
-import io.github.erp.internal.framework.batch.BatchPersistentFileUploadService;
+import io.github.erp.internal.framework.batch.AfterCommitBatchIndexer;
 import io.github.erp.internal.framework.batch.DataDeletionStep;
+import io.github.erp.internal.framework.batch.DataFileStore;
 import io.github.erp.internal.framework.batch.DeletionService;
 import io.github.erp.internal.framework.batch.EntityDeletionProcessor;
 import io.github.erp.internal.framework.batch.EntityItemsDeletionReader;
 import io.github.erp.internal.framework.batch.EntityItemsReader;
 import io.github.erp.internal.framework.batch.EntityListItemsWriter;
 import io.github.erp.internal.framework.batch.NoOpsItemWriter;
+import io.github.erp.internal.framework.batch.PartitionedReadFileStep;
 import io.github.erp.internal.framework.batch.ReadFileStep;
+import io.github.erp.internal.framework.batch.RowRangePartitioner;
 import io.github.erp.internal.framework.batch.SingleStepEntityJob;
 import io.github.erp.internal.framework.excel.ExcelFileDeserializer;
 import io.github.erp.internal.framework.model.FileUploadHasDataFile;
@@ -63,6 +66,7 @@ import org.springframework.batch.core.configuration.annotation.JobBuilderFactory
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
@@ -71,6 +75,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 
 import java.util.List;
 
@@ -85,6 +90,7 @@ public class FixedAssetNetBookValueBatchConfigs {
     private static final String DELETION_WRITER_NAME = "fixedAssetNetBookValueDeletionWriter";
     private static final String DELETION_READER_NAME = "fixedAssetsNetBookValueDeletionReader";
     private static final String PERSISTENCE_READER_NAME = "fixedAssetNetBookValueListItemReader";
+    private static final String PERSISTENCE_PARTITIONER_NAME = "fixedAssetNetBookValueListRowRangePartitioner";
     private static final String PERSISTENCE_PROCESSOR_NAME = "fixedAssetsNetBookValueListItemProcessor";
     private static final String PERSISTENCE_WRITER_NAME = "fixedAssetNetBookValueEntityListItemsWriter";
 
@@ -126,7 +132,14 @@ public class FixedAssetNetBookValueBatchConfigs {
     private StepBuilderFactory stepBuilderFactory;
 
     @Autowired
-    private BatchPersistentFileUploadService fileUploadService;
+    private DataFileStore dataFileStore;
+
+    @Autowired
+    private AfterCommitBatchIndexer batchIndexer;
+
+    @Autowired
+    @Qualifier("fileUploadPartitionExecutor")
+    private TaskExecutor fileUploadPartitionExecutor;
 
     @Autowired
     private DeletionUploadService<FixedAssetNetBookValueBEO> fileUploadDeletionService;
@@ -136,8 +149,12 @@ public class FixedAssetNetBookValueBatchConfigs {
 
     @Bean(PERSISTENCE_READER_NAME)
     @StepScope
-    public EntityItemsReader<FixedAssetNetBookValueEVM> listItemReader(@Value("#{jobParameters['fileId']}") long fileId ) {
-        return new EntityItemsReader<>(fixedAssetNetBookValueDeserializer, fileUploadService, fileId, fileUploadsProperties);
+    public EntityItemsReader<FixedAssetNetBookValueEVM> listItemReader(
+        @Value("#{jobParameters['fileId']}") long fileId,
+        @Value("#{stepExecutionContext['firstRow']}") Integer firstRow,
+        @Value("#{stepExecutionContext['rowCount']}") Integer rowCount
+    ) {
+        return new EntityItemsReader<>(fixedAssetNetBookValueDeserializer, dataFileStore, fileId, firstRow, rowCount, fileUploadsProperties);
     }
 
     @Bean(PERSISTENCE_PROCESSOR_NAME)
@@ -149,21 +166,39 @@ public class FixedAssetNetBookValueBatchConfigs {
     @Bean(PERSISTENCE_WRITER_NAME)
     @StepScope
     public EntityListItemsWriter<FixedAssetNetBookValueDTO> listItemsWriter() {
-        return new EntityListItemsWriter<>(batchService);
+        return new EntityListItemsWriter<>(batchService, batchIndexer);
     }
 
     @Bean(READ_FILE_STEP_NAME)
     @JobScope
     public Step readFile() {
+        if (fileUploadsProperties.getPartitions() > 1) {
+            return new PartitionedReadFileStep<>(
+                READ_FILE_STEP_NAME,
+                rowRangePartitioner(fileId),
+                listItemReader(fileId, null, null),
+                listItemsProcessor(jobUploadToken),
+                listItemsWriter(),
+                fileUploadPartitionExecutor,
+                fileUploadsProperties.getPartitions(),
+                stepBuilderFactory
+            );
+        }
         return new ReadFileStep<>(
             READ_FILE_STEP_NAME,
-            listItemReader(fileId),
+            listItemReader(fileId, null, null),
             listItemsProcessor(jobUploadToken),
             listItemsWriter(),
             stepBuilderFactory
         );
     }
 
+    @Bean(PERSISTENCE_PARTITIONER_NAME)
+    @JobScope
+    public Partitioner rowRangePartitioner(@Value("#{jobParameters['fileId']}") long fileId) {
+        return new RowRangePartitioner(fixedAssetNetBookValueDeserializer, dataFileStore, fileId);
+    }
+
     @Bean(PERSISTENCE_JOB_NAME)
     public Job persistenceJob() {
         return new SingleStepEntityJob(PERSISTENCE_JOB_NAME, persistenceJobListener, readFile(), jobBuilderFactory);
@@ -21,15 +21,18 @@ import io.github.erp.domain.Invoice;
 import io.github.erp.internal.framework.BatchService;
 import io.github.erp.internal.framework.FileUploadsProperties;
 import io.github.erp.internal.framework.Mapping;
-import io.github.erp.internal.framework.batch.BatchPersistentFileUploadService;
+import io.github.erp.internal.framework.batch.AfterCommitBatchIndexer;
 import io.github.erp.internal.framework.batch.DataDeletionStep;
+import io.github.erp.internal.framework.batch.DataFileStore;
 import io.github.erp.internal.framework.batch.DeletionService;
 import io.github.erp.internal.framework.batch.EntityDeletionProcessor;
 import io.github.erp.internal.framework.batch.EntityItemsDeletionReader;
 import io.github.erp.internal.framework.batch.EntityItemsReader;
 import io.github.erp.internal.framework.batch.EntityListItemsWriter;
 import io.github.erp.internal.framework.batch.NoOpsItemWriter;
+import io.github.erp.internal.framework.batch.PartitionedReadFileStep;
 import io.github.erp.internal.framework.batch.ReadFileStep;
+import io.github.erp.internal.framework.batch.RowRangePartitioner;
 import io.github.erp.internal.framework.batch.SingleStepEntityJob;
 import io.github.erp.internal.framework.excel.ExcelFileDeserializer;
 import io.github.erp.internal.framework.model.FileUploadHasDataFile;
@@ -45,6 +48,7 @@ import org.springframework.batch.core.configuration.annotation.JobBuilderFactory
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
@@ -53,6 +57,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 
 import java.util.List;
 
@@ -67,6 +72,7 @@ public class InvoiceBatchConfigs {
     private static final String DELETION_WRITER_NAME = "invoiceDeletionWriter";
     private static final String DELETION_READER_NAME = "invoiceDeletionReader";
     private static final String PERSISTENCE_READER_NAME = "invoiceListItemReader";
+    private static final String PERSISTENCE_PARTITIONER_NAME = "invoiceListRowRangePartitioner";
     private static final String PERSISTENCE_PROCESSOR_NAME = "invoiceListItemProcessor";
     private static final String PERSISTENCE_WRITER_NAME = "invoiceEntityListItemsWriter";
 
@@ -108,7 +114,14 @@ public class InvoiceBatchConfigs {
     private StepBuilderFactory stepBuilderFactory;
 
     @Autowired
-    private BatchPersistentFileUploadService fileUploadService;
+    private DataFileStore dataFileStore;
+
+    @Autowired
+    private AfterCommitBatchIndexer batchIndexer;
+
+    @Autowired
+    @Qualifier("fileUploadPartitionExecutor")
+    private TaskExecutor fileUploadPartitionExecutor;
 
     @Autowired
     private DeletionUploadService<InvoiceBEO> fileUploadDeletionService;
@@ -118,8 +131,12 @@ public class InvoiceBatchConfigs {
 
     @Bean(PERSISTENCE_READER_NAME)
     @StepScope
-    public EntityItemsReader<InvoiceEVM> listItemReader(@Value("#{jobParameters['fileId']}") long fileId ) {
-        return new EntityItemsReader<>(invoiceDeserializer, fileUploadService, fileId, fileUploadsProperties);
+    public EntityItemsReader<InvoiceEVM> listItemReader(
+        @Value("#{jobParameters['fileId']}") long fileId,
+        @Value("#{stepExecutionContext['firstRow']}") Integer firstRow,
+        @Value("#{stepExecutionContext['rowCount']}") Integer rowCount
+    ) {
+        return new EntityItemsReader<>(invoiceDeserializer, dataFileStore, fileId, firstRow, rowCount, fileUploadsProperties);
     }
 
     @Bean(PERSISTENCE_PROCESSOR_NAME)
@@ -131,21 +148,39 @@ public class InvoiceBatchConfigs {
     @Bean(PERSISTENCE_WRITER_NAME)
     @StepScope
     public EntityListItemsWriter<InvoiceDTO> listItemsWriter() {
-        return new EntityListItemsWriter<>(batchService);
+        return new EntityListItemsWriter<>(batchService, batchIndexer);
     }
 
     @Bean(READ_FILE_STEP_NAME)
     @JobScope
     public Step readFile() {
+        if (fileUploadsProperties.getPartitions() > 1) {
+            return new PartitionedReadFileStep<>(
+                READ_FILE_STEP_NAME,
+                rowRangePartitioner(fileId),
+                listItemReader(fileId, null, null),
+                listItemsProcessor(jobUploadToken),
+                listItemsWriter(),
+                fileUploadPartitionExecutor,
+                fileUploadsProperties.getPartitions(),
+                stepBuilderFactory
+            );
+        }
         return new ReadFileStep<>(
             READ_FILE_STEP_NAME,
-            listItemReader(fileId),
+            listItemReader(fileId, null, null),
             listItemsProcessor(jobUploadToken),
             listItemsWriter(),
             stepBuilderFactory
         );
     }
 
+    @Bean(PERSISTENCE_PARTITIONER_NAME)
+    @JobScope
+    public Partitioner rowRangePartitioner(@Value("#{jobParameters['fileId']}") long fileId) {
+        return new RowRangePartitioner(invoiceDeserializer, dataFileStore, fileId);
+    }
+
     @Bean(PERSISTENCE_JOB_NAME)
     public Job persistenceJob() {
         return new SingleStepEntityJob(PERSISTENCE_JOB_NAME, persistenceJobListener, readFile(), jobBuilderFactory);
@@ -0,0 +1,148 @@
+package io.github.erp.internal.files;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds download responses that stream a file from the file system straight to the client
+ * with FileChannel#transferTo, so the file is never held in the heap nor base64-encoded into
+ * json. The checksum recorded when the file was created is served as the ETag, which lets
+ * clients revalidate with If-None-Match and resume interrupted downloads with a byte Range
+ */
+public final class StreamingFileDownload {
+
+    private StreamingFileDownload() {}
+
+    public static ResponseEntity<StreamingResponseBody> of(
+        Path file,
+        String downloadName,
+        String contentType,
+        String checksum,
+        HttpHeaders requestHeaders
+    ) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long length = Files.size(file);
+        String eTag = checksum == null || checksum.isBlank() ? null : "\"" + checksum.trim() + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(mediaType(contentType));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build());
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+
+        if (eTag != null && requestHeaders.getIfNoneMatch().stream().anyMatch(tag -> matches(tag, eTag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        List<HttpRange> ranges = requestedRanges(requestHeaders, eTag);
+
+        // Multiple ranges would need a multipart/byteranges body; the whole file is served instead
+        if (ranges.size() != 1) {
+            headers.setContentLength(length);
+            return ResponseEntity.ok().headers(headers).body(transfer(file, 0, length));
+        }
+
+        long start = -1;
+        long end = -1;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException unsatisfiable) {
+            // handled with the bounds check below
+        }
+        if (start < 0 || start >= length || end < start) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(transfer(file, start, end - start + 1));
+    }
+
+    /**
+     * A Range is honoured only when there is no If-Range condition or the condition names the
+     * current ETag; malformed ranges are ignored and the whole file is served
+     */
+    private static List<HttpRange> requestedRanges(HttpHeaders requestHeaders, String eTag) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(eTag)) {
+            return Collections.emptyList();
+        }
+        try {
+            return requestHeaders.getRange();
+        } catch (IllegalArgumentException malformed) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static boolean matches(String requestedTag, String eTag) {
+        return "*".equals(requestedTag) || eTag.equals(requestedTag) || ("W/" + eTag).equals(requestedTag);
+    }
+
+    private static MediaType mediaType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    private static StreamingResponseBody transfer(Path file, long position, long count) {
+        return outputStream -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(outputStream);
+                long transferred = 0;
+                while (transferred < count) {
+                    long written = channel.transferTo(position + transferred, count - transferred, target);
+                    if (written <= 0) {
+                        break;
+                    }
+                    transferred += written;
+                }
+            }
+        };
+    }
+}
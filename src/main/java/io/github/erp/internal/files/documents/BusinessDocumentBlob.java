@@ -0,0 +1,103 @@
+package io.github.erp.internal.files.documents;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A business-document file stored once under its SHA-512 checksum, with a count of the documents
+ * that refer to it. The file is removed when the last reference is released.
+ */
+@Entity
+@Table(name = "business_document_blob")
+public class BusinessDocumentBlob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "checksum", length = 128, nullable = false, updatable = false)
+    private String checksum;
+
+    @Column(name = "size_bytes", nullable = false, updatable = false)
+    private long sizeBytes;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    protected BusinessDocumentBlob() {}
+
+    public BusinessDocumentBlob(String checksum, long sizeBytes) {
+        this.checksum = checksum;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = Instant.now();
+    }
+
+    public int retain() {
+        return ++referenceCount;
+    }
+
+    public int release() {
+        if (referenceCount > 0) {
+            referenceCount--;
+        }
+        return referenceCount;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BusinessDocumentBlob)) {
+            return false;
+        }
+        return checksum != null && checksum.equals(((BusinessDocumentBlob) o).checksum);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessDocumentBlob{checksum='" + checksum + "', sizeBytes=" + sizeBytes + ", referenceCount=" + referenceCount + "}";
+    }
+}
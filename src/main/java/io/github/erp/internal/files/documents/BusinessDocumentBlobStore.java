@@ -0,0 +1,329 @@
+package io.github.erp.internal.files.documents;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.repository.BusinessDocumentBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for business document files.
+ * <p>
+ * Uploads are streamed to a staging file while their SHA-512 checksum is computed, and then moved
+ * to {@code blobs/<first two hex digits>/<checksum>} under the business documents directory. Each
+ * distinct content is kept once; the {@link BusinessDocumentBlob} row counts the documents that
+ * refer to it and the file is removed after the transaction that releases the last reference
+ * commits.
+ * <p>
+ * Files are only deleted while the blob row is locked with a count of zero, so the worst a failed
+ * transaction can leave behind is an unreferenced file, which the next upload of the same content
+ * adopts.
+ */
+@Service
+public class BusinessDocumentBlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BusinessDocumentBlobStore.class);
+
+    public static final String BLOBS_DIRECTORY = "blobs";
+
+    private static final String STAGING_DIRECTORY = ".incoming";
+
+    private static final Pattern CHECKSUM = Pattern.compile("[0-9A-F]{128}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    private final Path blobs;
+
+    private final Path staging;
+
+    private final BusinessDocumentBlobRepository blobRepository;
+
+    private final TransactionTemplate purgeTransaction;
+
+    public BusinessDocumentBlobStore(
+        BusinessDocumentProperties businessDocumentProperties,
+        BusinessDocumentBlobRepository blobRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.root = Paths.get(businessDocumentProperties.getBusinessDocumentsDirectory());
+        this.blobs = root.resolve(BLOBS_DIRECTORY);
+        this.staging = blobs.resolve(STAGING_DIRECTORY);
+        this.blobRepository = blobRepository;
+        this.purgeTransaction = new TransactionTemplate(transactionManager);
+        this.purgeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Copies the content to a staging file, hashing it on the way. No database work is done here so
+     * that a slow upload does not hold a connection.
+     *
+     * @param content stream of the uploaded file; it is read to the end but not closed
+     * @param maxBytes largest accepted content
+     * @return the staged file with its checksum and size
+     * @throws BlobSizeExceededException when the content is longer than {@code maxBytes}
+     */
+    public StagedBlob stage(InputStream content, long maxBytes) throws IOException {
+        Files.createDirectories(staging);
+        Path staged = Files.createTempFile(staging, "upload-", ".part");
+        MessageDigest digest = sha512();
+        long size = 0;
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(staged), digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new BlobSizeExceededException(maxBytes);
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return new StagedBlob(staged, hex(digest.digest()), size);
+    }
+
+    /**
+     * Adds a reference to the staged content, moving the staged file into the store unless the same
+     * content is already there, in which case the staged copy is dropped. File errors are rethrown
+     * unchecked so that the reference count is rolled back with them.
+     */
+    @Transactional
+    public BusinessDocumentBlob retain(StagedBlob staged) {
+        Optional<BusinessDocumentBlob> existing = blobRepository.findForUpdate(staged.getChecksum());
+        BusinessDocumentBlob blob = existing.orElseGet(() -> new BusinessDocumentBlob(staged.getChecksum(), staged.getSize()));
+        blob.retain();
+        // Flushing takes the row lock on a new checksum before the file is touched
+        blob = blobRepository.saveAndFlush(blob);
+
+        Path target = resolve(staged.getChecksum());
+        try {
+            if (Files.isRegularFile(target)) {
+                staged.discard();
+            } else {
+                Files.createDirectories(target.getParent());
+                move(staged.getPath(), target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to store blob " + staged.getChecksum(), e);
+        }
+        log.debug("Blob {} now has {} reference(s)", staged.getChecksum(), blob.getReferenceCount());
+        return blob;
+    }
+
+    /**
+     * Removes a reference to the content. When none remain the file is purged once the current
+     * transaction commits.
+     */
+    @Transactional
+    public void release(String checksum) {
+        if (!isChecksum(checksum)) {
+            return;
+        }
+        blobRepository
+            .findForUpdate(checksum)
+            .ifPresent(blob -> {
+                if (blob.release() > 0) {
+                    return;
+                }
+                if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                    purge(checksum);
+                    return;
+                }
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            purge(checksum);
+                        }
+                    }
+                );
+            });
+    }
+
+    /**
+     * Deletes the file and its row, provided no reference was added since the count reached zero
+     */
+    void purge(String checksum) {
+        try {
+            purgeTransaction.executeWithoutResult(status ->
+                blobRepository
+                    .findForUpdate(checksum)
+                    .filter(blob -> blob.getReferenceCount() == 0)
+                    .ifPresent(blob -> {
+                        try {
+                            Files.deleteIfExists(resolve(checksum));
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Unable to delete blob " + checksum, e);
+                        }
+                        blobRepository.delete(blob);
+                    })
+            );
+        } catch (RuntimeException e) {
+            log.warn("Unreferenced blob {} could not be purged; it will be reused or purged on its next release", checksum, e);
+        }
+    }
+
+    /**
+     * Recomputes the checksum of the stored file by streaming it, without loading it into memory
+     *
+     * @return true when the file exists and still hashes to its name
+     */
+    public boolean verify(String checksum) throws IOException {
+        Path file = resolve(checksum);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        MessageDigest digest = sha512();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return checksum.equals(hex(digest.digest()));
+    }
+
+    /**
+     * Location of the content with the given checksum
+     */
+    public Path resolve(String checksum) {
+        if (!isChecksum(checksum)) {
+            throw new IllegalArgumentException("Not a SHA-512 checksum: " + checksum);
+        }
+        return blobs.resolve(checksum.substring(0, 2)).resolve(checksum);
+    }
+
+    /**
+     * Path of the content relative to the business documents directory, as recorded on the document
+     */
+    public String relativePath(String checksum) {
+        return root.relativize(resolve(checksum)).toString().replace('\\', '/');
+    }
+
+    /**
+     * Checksum of the content a document's attachment path points at, if it points into the store
+     */
+    public Optional<String> checksumOf(String attachmentFilePath) {
+        if (attachmentFilePath == null || !attachmentFilePath.startsWith(BLOBS_DIRECTORY + "/")) {
+            return Optional.empty();
+        }
+        String checksum = attachmentFilePath.substring(attachmentFilePath.lastIndexOf('/') + 1);
+        return isChecksum(checksum) ? Optional.of(checksum) : Optional.empty();
+    }
+
+    private static boolean isChecksum(String checksum) {
+        return checksum != null && CHECKSUM.matcher(checksum).matches();
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        return DatatypeConverter.printHexBinary(digest).toUpperCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha512() {
+        try {
+            return MessageDigest.getInstance("SHA-512");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 is not available", e);
+        }
+    }
+
+    /**
+     * An upload written to the staging area and not yet referenced by any document
+     */
+    public static final class StagedBlob {
+
+        private final Path path;
+        private final String checksum;
+        private final long size;
+
+        StagedBlob(Path path, String checksum, long size) {
+            this.path = path;
+            this.checksum = checksum;
+            this.size = size;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Deletes the staged file; harmless once it has been moved into the store
+         */
+        public void discard() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Raised while staging an upload that is longer than the configured limit
+     */
+    public static class BlobSizeExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public BlobSizeExceededException(long maxBytes) {
+            super("The uploaded file exceeds the limit of " + maxBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.erp.internal.files.documents;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.files.FileUtils;
+import io.github.erp.service.AlgorithmQueryService;
+import io.github.erp.service.AlgorithmService;
+import io.github.erp.service.BusinessDocumentService;
+import io.github.erp.service.criteria.AlgorithmCriteria;
+import io.github.erp.service.dto.AlgorithmDTO;
+import io.github.erp.service.dto.BusinessDocumentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * Stores and locates the files of business documents.
+ * <p>
+ * New content goes to the {@link BusinessDocumentBlobStore}: it is streamed to disk and hashed
+ * before any transaction is opened, and only the reference to it is recorded on the document.
+ * Documents filed before the store existed keep their {@code <serial>.<extension>} file in the
+ * business documents directory and are still resolved from there.
+ */
+@Service
+public class BusinessDocumentContentService {
+
+    private static final Logger log = LoggerFactory.getLogger(BusinessDocumentContentService.class);
+
+    /**
+     * Name of the algorithm the blob store checksums content with, as recorded on documents
+     */
+    static final String CHECKSUM_ALGORITHM = "SHA-512";
+
+    private final BusinessDocumentBlobStore blobStore;
+
+    private final BusinessDocumentService businessDocumentService;
+
+    private final AlgorithmQueryService algorithmQueryService;
+
+    private final AlgorithmService algorithmService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path root;
+
+    private final long maxUploadBytes;
+
+    public BusinessDocumentContentService(
+        BusinessDocumentBlobStore blobStore,
+        BusinessDocumentService businessDocumentService,
+        AlgorithmQueryService algorithmQueryService,
+        AlgorithmService algorithmService,
+        BusinessDocumentProperties businessDocumentProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.blobStore = blobStore;
+        this.businessDocumentService = businessDocumentService;
+        this.algorithmQueryService = algorithmQueryService;
+        this.algorithmService = algorithmService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.root = Paths.get(businessDocumentProperties.getBusinessDocumentsDirectory());
+        this.maxUploadBytes = businessDocumentProperties.getMaxUploadBytes();
+    }
+
+    /**
+     * Replaces the file of a document with the content read from the stream, releasing the content
+     * the document referred to before. A file filed by serial number is deleted once the new
+     * reference has been committed.
+     *
+     * @param id of the business document
+     * @param contentType media type of the content; the recorded type is kept when null
+     * @param content read to the end but not closed
+     * @return the updated document, or empty when there is no document with the id
+     * @throws BusinessDocumentBlobStore.BlobSizeExceededException when the content exceeds the upload limit
+     */
+    public Optional<BusinessDocumentDTO> storeContent(Long id, String contentType, InputStream content) throws IOException {
+        if (businessDocumentService.findOne(id).isEmpty()) {
+            return Optional.empty();
+        }
+        BusinessDocumentBlobStore.StagedBlob staged = blobStore.stage(content, maxUploadBytes);
+        try {
+            return referenceContent(id, contentType, staged);
+        } catch (DataIntegrityViolationException e) {
+            // Another upload inserted the row for the same new content first; it is locked now
+            log.debug("Concurrent first upload of blob {}; retrying the reference", staged.getChecksum());
+            return referenceContent(id, contentType, staged);
+        } finally {
+            staged.discard();
+        }
+    }
+
+    private Optional<BusinessDocumentDTO> referenceContent(Long id, String contentType, BusinessDocumentBlobStore.StagedBlob staged) {
+        return transactionTemplate.execute(status ->
+            businessDocumentService
+                .findOne(id)
+                .map(document -> {
+                    Optional<String> previous = blobStore.checksumOf(document.getAttachmentFilePath());
+                    Optional<Path> legacyFile = previous.isPresent() ? Optional.empty() : findContent(document);
+                    blobStore.retain(staged);
+                    previous.ifPresent(blobStore::release);
+
+                    document.setAttachmentFilePath(blobStore.relativePath(staged.getChecksum()));
+                    document.setDocumentFileChecksum(staged.getChecksum());
+                    document.setFileChecksumAlgorithm(checksumAlgorithm());
+                    document.setFileTampered(false);
+                    document.setLastModified(ZonedDateTime.now());
+                    if (contentType != null && !contentType.isBlank()) {
+                        document.setDocumentFileContentType(contentType);
+                    }
+                    log.debug("Business document id: {} refers to blob {} of {} bytes", id, staged.getChecksum(), staged.getSize());
+                    BusinessDocumentDTO saved = businessDocumentService.save(document);
+                    legacyFile.ifPresent(this::deleteAfterCommit);
+                    return saved;
+                })
+        );
+    }
+
+    /**
+     * The algorithm record for the checksums of stored content, registered on first use
+     */
+    private AlgorithmDTO checksumAlgorithm() {
+        AlgorithmCriteria criteria = new AlgorithmCriteria();
+        criteria.name().setEquals(CHECKSUM_ALGORITHM);
+        return algorithmQueryService
+            .findByCriteria(criteria)
+            .stream()
+            .findFirst()
+            .orElseGet(() -> {
+                AlgorithmDTO algorithm = new AlgorithmDTO();
+                algorithm.setName(CHECKSUM_ALGORITHM);
+                return algorithmService.save(algorithm);
+            });
+    }
+
+    /**
+     * Deletes the superseded file once the document no longer refers to it; it is kept should the
+     * transaction roll back
+     */
+    private void deleteAfterCommit(Path legacyFile) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delete(legacyFile);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(legacyFile);
+                }
+            }
+        );
+    }
+
+    private static void delete(Path legacyFile) {
+        try {
+            if (Files.deleteIfExists(legacyFile)) {
+                log.debug("Deleted superseded business document file {}", legacyFile);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to delete superseded business document file {}", legacyFile, e);
+        }
+    }
+
+    /**
+     * Whether the document's file is held in the content-addressed store
+     */
+    public boolean isStored(BusinessDocumentDTO document) {
+        return blobStore.checksumOf(document.getAttachmentFilePath()).isPresent();
+    }
+
+    /**
+     * Location of the document's file, whether in the store or filed by serial number
+     */
+    public Optional<Path> findContent(BusinessDocumentDTO document) {
+        Optional<String> checksum = blobStore.checksumOf(document.getAttachmentFilePath());
+        if (checksum.isPresent()) {
+            return checksum.map(blobStore::resolve);
+        }
+        if (document.getDocumentSerial() == null || document.getDocumentFileContentType() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(root.resolve(legacyFileName(document)));
+    }
+
+    /**
+     * Streams the stored file through its checksum; false when it is missing or has changed
+     */
+    public boolean verify(BusinessDocumentDTO document) throws IOException {
+        Optional<String> checksum = blobStore.checksumOf(document.getAttachmentFilePath());
+        return checksum.isPresent() && blobStore.verify(checksum.get());
+    }
+
+    /**
+     * Name offered to clients downloading the document's file
+     */
+    public String downloadName(BusinessDocumentDTO document) {
+        String extension = document.getDocumentFileContentType() == null ? "" : "." + FileUtils.getFileExtension(document.getDocumentFileContentType());
+        String title = document.getDocumentTitle();
+        if (title == null || title.isBlank()) {
+            return document.getDocumentSerial() + extension;
+        }
+        return title.endsWith(extension) ? title : title + extension;
+    }
+
+    private static String legacyFileName(BusinessDocumentDTO document) {
+        return document.getDocumentSerial().toString().concat(".").concat(FileUtils.getFileExtension(document.getDocumentFileContentType()));
+    }
+}
@@ -24,6 +24,8 @@ import io.github.erp.internal.report.attachment.AbstractFileAttachmentService;
 import io.github.erp.internal.report.attachment.MatchesChecksum;
 import io.github.erp.service.BusinessDocumentService;
 import io.github.erp.service.dto.AlgorithmDTO;
+import io.github.erp.service.dto.BusinessDocumentDTO;
+import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -33,17 +35,40 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class BusinessDocumentFileAttachmentService extends AbstractFileAttachmentService implements FileAttachmentService<BusinessDocumentFSO> {
 
+    private final BusinessDocumentService businessDocumentService;
+
+    private final BusinessDocumentFSOMapping businessDocumentFSOMapping;
+
+    private final BusinessDocumentContentService businessDocumentContentService;
+
 
     public BusinessDocumentFileAttachmentService(
         @Qualifier("businessDocumentFSStorageService") FileStorageService fileStorageService,
         MatchesChecksum<AlgorithmDTO> matchesChecksum,
         BusinessDocumentService businessDocumentService,
-        BusinessDocumentFSOMapping businessDocumentFSOMapping) {
+        BusinessDocumentFSOMapping businessDocumentFSOMapping,
+        BusinessDocumentContentService businessDocumentContentService) {
         super(fileStorageService, matchesChecksum, businessDocumentService, businessDocumentFSOMapping);
+        this.businessDocumentService = businessDocumentService;
+        this.businessDocumentFSOMapping = businessDocumentFSOMapping;
+        this.businessDocumentContentService = businessDocumentContentService;
     }
 
+    /**
+     * Documents held in the content-addressed store are checked by streaming their file through
+     * SHA-512 and returned without the file inlined; clients download it from
+     * {@code /api/docs/business-documents/{id}/content}. Older documents are attached as before.
+     */
+    @SneakyThrows
     @Override
     public @NotNull BusinessDocumentFSO attach(BusinessDocumentFSO attachment) {
-        return super.attach(attachment);
+        BusinessDocumentDTO document = businessDocumentFSOMapping.toValue2(attachment);
+        if (!businessDocumentContentService.isStored(document)) {
+            return super.attach(attachment);
+        }
+        document.setFileTampered(!businessDocumentContentService.verify(document));
+        BusinessDocumentFSO updated = businessDocumentFSOMapping.toValue1(businessDocumentService.save(document));
+        updated.setDocumentFile(null);
+        return updated;
     }
 }
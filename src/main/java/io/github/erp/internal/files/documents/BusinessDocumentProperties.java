@@ -29,6 +29,8 @@ public class BusinessDocumentProperties {
 
     private String businessDocumentsDirectory;
 
+    private long maxUploadBytes = 100L * 1024 * 1024;
+
     public String getBusinessDocumentsDirectory() {
         return businessDocumentsDirectory;
     }
@@ -36,4 +38,12 @@ public class BusinessDocumentProperties {
     public void setBusinessDocumentsDirectory(String businessDocumentsDirectory) {
         this.businessDocumentsDirectory = businessDocumentsDirectory;
     }
+
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    public void setMaxUploadBytes(long maxUploadBytes) {
+        this.maxUploadBytes = maxUploadBytes;
+    }
 }
@@ -39,4 +39,28 @@ public class FileUploadsProperties {
     public int getListSize() {
         return listSize;
     }
+
+    private String storageDirectory;
+
+    public String getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    public void setStorageDirectory(String storageDirectory) {
+        this.storageDirectory = storageDirectory;
+    }
+
+    /**
+     * Number of row-ranges into which an upload is split and read concurrently; one or less reads the
+     * whole file in a single step
+     */
+    private int partitions = 1;
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
 }
@@ -0,0 +1,87 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.framework.BatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Hands persisted batch items over to the search index once the chunk that saved them has committed.
+ * <p>
+ * Indexing runs on the batch-indexing executor so that the writers are not held up by the search engine,
+ * and only items that made it to the database are indexed; a chunk that rolls back is never indexed.
+ * </p>
+ */
+@Component
+public class AfterCommitBatchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(AfterCommitBatchIndexer.class);
+
+    private final TaskExecutor batchIndexingExecutor;
+
+    public AfterCommitBatchIndexer(@Qualifier("batchIndexingExecutor") TaskExecutor batchIndexingExecutor) {
+        this.batchIndexingExecutor = batchIndexingExecutor;
+    }
+
+    /**
+     * Index the items after the current transaction commits, or right away if there is no transaction
+     *
+     * @param batchService service through which the items are indexed
+     * @param persisted items as returned from persistence, with their ids
+     * @param <DTO> type of the items
+     */
+    public <DTO> void indexAfterCommit(BatchService<DTO> batchService, List<DTO> persisted) {
+        if (persisted.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(batchService, persisted);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(batchService, persisted);
+                }
+            }
+        );
+    }
+
+    private <DTO> void submit(BatchService<DTO> batchService, List<DTO> persisted) {
+        batchIndexingExecutor.execute(
+            () -> {
+                try {
+                    batchService.index(persisted);
+                } catch (RuntimeException e) {
+                    log.error("Unable to index {} persisted batch items; the index will catch up on the next rebuild", persisted.size(), e);
+                }
+            }
+        );
+    }
+}
@@ -17,12 +17,17 @@ package io.github.erp.internal.framework.batch;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.framework.FileUploadsProperties;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Contains general configurations for batch related entities and objects
@@ -31,9 +36,43 @@ import org.springframework.context.annotation.Configuration;
 @EnableBatchProcessing
 public class BatchConfigs {
 
+    private final FileUploadsProperties fileUploadsProperties;
+
+    public BatchConfigs(FileUploadsProperties fileUploadsProperties) {
+        this.fileUploadsProperties = fileUploadsProperties;
+    }
+
     @Bean("persistenceJobListener")
     @JobScope
     public JobExecutionListener persistenceJobListener(@Value("#{jobParameters['fileId']}") long fileId, @Value("#{jobParameters['startUpTime']}") long startUpTime) {
         return new PersistenceJobListener(fileId, startUpTime);
     }
+
+    /**
+     * Runs the row-range partitions of a partitioned read-file step
+     */
+    @Bean("fileUploadPartitionExecutor")
+    public TaskExecutor fileUploadPartitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, fileUploadsProperties.getPartitions()));
+        executor.setMaxPoolSize(Math.max(1, fileUploadsProperties.getPartitions()));
+        executor.setThreadNamePrefix("upload-partition-");
+        return executor;
+    }
+
+    /**
+     * Indexes persisted upload chunks after they commit. The queue is bounded so that a slow search
+     * engine pushes back on the writers rather than filling the heap with pending chunks
+     */
+    @Bean("batchIndexingExecutor")
+    public TaskExecutor batchIndexingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(4 * Math.max(1, fileUploadsProperties.getPartitions()));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setThreadNamePrefix("upload-indexing-");
+        return executor;
+    }
 }
@@ -0,0 +1,48 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import java.io.File;
+import java.util.Optional;
+
+/**
+ * Keeps the data files of uploads on disk so that the batch readers stream them from a file rather
+ * than holding the uploaded bytes in memory
+ */
+public interface DataFileStore {
+
+    /**
+     * Writes the data file of the upload to the store, replacing any earlier copy
+     *
+     * @param fileId id of the file-upload
+     * @param dataFile content of the uploaded file
+     * @return the stored file
+     */
+    File store(long fileId, byte[] dataFile);
+
+    /**
+     * Finds the stored data file of the upload, copying it from the file-upload record if it has
+     * not been stored yet
+     *
+     * @param fileId id of the file-upload
+     * @return the stored file or empty if there is no such upload
+     */
+    Optional<File> locate(long fileId);
+
+    void delete(long fileId);
+}
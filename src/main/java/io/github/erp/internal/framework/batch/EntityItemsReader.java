@@ -21,59 +21,117 @@ import io.github.erp.internal.framework.FileUploadsProperties;
 import io.github.erp.internal.framework.excel.ExcelFileDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
 import org.springframework.beans.factory.annotation.Value;
 
-import javax.annotation.PostConstruct;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 
 /**
  * Abstract implementation for reading data from an excel data file and then introducing the
- * same data into the batch process in small chunks of pre-configured chunks
+ * same data into the batch process in small chunks of pre-configured chunks.
+ * <p>
+ * Rows are streamed off the stored data file by a reader thread into a bounded queue and taken from
+ * there one chunk at a time, so that no more than a couple of chunks are held in memory whatever
+ * the size of the file
+ * </p>
  *
  * @param <EVM> Type of object represented in a row of the file in the data transfer object
  */
-public class EntityItemsReader<EVM> implements ItemReader<List<EVM>> {
+public class EntityItemsReader<EVM> implements ItemReader<List<EVM>>, ItemStream {
 
     private static final Logger log = LoggerFactory.getLogger(EntityItemsReader.class);
 
-    private final FileUploadsProperties fileUploadsProperties;
-
     private final ExcelFileDeserializer<EVM> deserializer;
-    private final BatchPersistentFileUploadService fileUploadService;
+    private final DataFileStore dataFileStore;
     private final long fileId;
+    private final int listSize;
+    private final Integer firstRow;
+    private final Integer rowCount;
+
+    /**
+     * Rows read off the file; an empty element marks the end of the file
+     */
+    private final BlockingQueue<Optional<EVM>> rows;
 
-    private ListPartition<EVM> evmListPartition;
+    private Thread rowReader;
+    private volatile RuntimeException rowReaderFailure;
+    private boolean exhausted;
+    private long itemsRead;
 
     public EntityItemsReader(
         final ExcelFileDeserializer<EVM> deserializer,
-        final BatchPersistentFileUploadService fileUploadService,
+        final DataFileStore dataFileStore,
+        @Value("#{jobParameters['fileId']}") long fileId,
+        final FileUploadsProperties fileUploadsProperties
+    ) {
+        this(deserializer, dataFileStore, fileId, null, null, fileUploadsProperties);
+    }
+
+    /**
+     * Reader for the range of rows assigned to a partition by the {@link RowRangePartitioner}. Where
+     * the range is not set the whole file is read
+     */
+    public EntityItemsReader(
+        final ExcelFileDeserializer<EVM> deserializer,
+        final DataFileStore dataFileStore,
         @Value("#{jobParameters['fileId']}") long fileId,
+        @Value("#{stepExecutionContext['firstRow']}") Integer firstRow,
+        @Value("#{stepExecutionContext['rowCount']}") Integer rowCount,
         final FileUploadsProperties fileUploadsProperties
     ) {
         this.deserializer = deserializer;
-        this.fileUploadService = fileUploadService;
+        this.dataFileStore = dataFileStore;
         this.fileId = fileId;
-        this.fileUploadsProperties = fileUploadsProperties;
+        this.firstRow = firstRow;
+        this.rowCount = rowCount;
+        this.listSize = fileUploadsProperties.getListSize();
+        this.rows = new ArrayBlockingQueue<>(2 * listSize);
     }
 
-    @PostConstruct
-    private void resetIndex() {
-        final List<EVM> unProcessedItems = new ArrayList<>();
-
-        fileUploadService
-            .findOne(fileId)
-            .ifPresent(
-                fileUpload -> {
-                    unProcessedItems.addAll(deserializer.deserialize(fileUpload.getDataFile()));
-                }
-            );
+    private void startRowReader() {
+        rowReader = new Thread(this::readRows, "upload-" + fileId + "-reader");
+        rowReader.setDaemon(true);
+        rowReader.start();
+    }
 
-        // Going for a big chunk due to expected file size
-        evmListPartition = new ListPartition<>(fileUploadsProperties.getListSize(), unProcessedItems);
+    private void readRows() {
+        try {
+            Optional<File> dataFile = dataFileStore.locate(fileId);
+            if (!dataFile.isPresent()) {
+                log.warn("File-upload id {} was not found; nothing to read", fileId);
+            } else if (firstRow == null || rowCount == null) {
+                deserializer.deserialize(dataFile.get(), this::enqueue);
+            } else if (rowCount > 0) {
+                deserializer.deserialize(dataFile.get(), firstRow, rowCount, this::enqueue);
+            }
+        } catch (CancellationException e) {
+            log.info("Reading of file-upload id {} has been cancelled", fileId);
+        } catch (RuntimeException e) {
+            rowReaderFailure = e;
+        } finally {
+            try {
+                rows.put(Optional.empty());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-        log.info("List items deserialized : {}", unProcessedItems.size());
+    private void enqueue(EVM row) {
+        try {
+            rows.put(Optional.of(row));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Reader closed before the end of file-upload id " + fileId);
+        }
     }
 
     /**
@@ -86,10 +144,40 @@ public class EntityItemsReader<EVM> implements ItemReader<List<EVM>> {
      */
     @Override
     public List<EVM> read() throws Exception {
-        List<EVM> forProcessing = evmListPartition.getPartition();
+        if (rowReader == null) {
+            startRowReader();
+        }
+
+        List<EVM> forProcessing = new ArrayList<>(listSize);
+        while (!exhausted && forProcessing.size() < listSize) {
+            Optional<EVM> row = rows.take();
+            if (row.isPresent()) {
+                forProcessing.add(row.get());
+            } else {
+                exhausted = true;
+            }
+        }
+
+        if (rowReaderFailure != null) {
+            throw new IllegalStateException("Unable to read file-upload id " + fileId + " after " + itemsRead + " items", rowReaderFailure);
+        }
+
+        itemsRead += forProcessing.size();
+        log.info("Returning list of {} items; {} items read so far", forProcessing.size(), itemsRead);
 
-        log.info("Returning list of {} items", forProcessing.size());
+        return forProcessing.isEmpty() ? null : forProcessing;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {}
 
-        return forProcessing.size() == 0 ? null : forProcessing;
+    @Override
+    public void update(ExecutionContext executionContext) {}
+
+    @Override
+    public void close() {
+        if (rowReader != null && rowReader.isAlive()) {
+            rowReader.interrupt();
+        }
     }
 }
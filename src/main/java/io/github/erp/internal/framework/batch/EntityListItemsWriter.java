@@ -21,22 +21,31 @@ import io.github.erp.internal.framework.BatchService;
 import org.springframework.batch.item.ItemWriter;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Performs persistence of the newly created entities through the batch-service
+ * <p>
+ * The lists in a chunk are saved in a single call so that the inserts go out in JDBC batches, and
+ * the saved entities are indexed once the chunk has committed
+ * </p>
  *
  * @param <DTO>
  */
 public class EntityListItemsWriter<DTO> implements ItemWriter<List<DTO>> {
 
     private final BatchService<DTO> batchService;
+    private final AfterCommitBatchIndexer batchIndexer;
 
-    public EntityListItemsWriter(BatchService<DTO> batchService) {
+    public EntityListItemsWriter(BatchService<DTO> batchService, AfterCommitBatchIndexer batchIndexer) {
         this.batchService = batchService;
+        this.batchIndexer = batchIndexer;
     }
 
     @Override
     public void write(List<? extends List<DTO>> items) throws Exception {
-        items.stream().peek(batchService::save).forEach(batchService::index);
+        List<DTO> chunk = items.stream().flatMap(List::stream).collect(Collectors.toList());
+
+        batchIndexer.indexAfterCommit(batchService, batchService.save(chunk));
     }
 }
@@ -60,5 +60,14 @@ public class PersistenceJobListener implements JobExecutionListener {
         String exitStatus = jobExecution.getExitStatus().getExitCode();
 
         log.info("Job Id {}, for file-id : {} completed in : {}ms with status {}", jobExecution.getJobId(), fileId, System.currentTimeMillis() - startUpTime, exitStatus);
+
+        jobExecution.getStepExecutions().stream()
+            .filter(stepExecution -> stepExecution.getExecutionContext().containsKey(RowThroughputListener.ROWS_PER_SECOND))
+            .forEach(stepExecution ->
+                log.info("Step {} for file-id : {} wrote {} rows at {} rows/sec",
+                    stepExecution.getStepName(),
+                    fileId,
+                    stepExecution.getExecutionContext().getLong(RowThroughputListener.ROWS_WRITTEN),
+                    stepExecution.getExecutionContext().getLong(RowThroughputListener.ROWS_PER_SECOND)));
     }
 }
@@ -19,9 +19,11 @@ package io.github.erp.internal.framework.batch;
  */
 import io.github.erp.internal.framework.util.TokenGenerator;
 import org.slf4j.Logger;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.JobInterruptedException;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
@@ -52,6 +54,8 @@ public class ReadFileStep<EVM, DTO> implements Step {
         final ItemWriter<List<DTO>> itemWriter,
         final StepBuilderFactory stepBuilderFactory
     ) {
+        RowThroughputListener throughputListener = new RowThroughputListener();
+
         theStep =
             stepBuilderFactory
                 .get(stepName)
@@ -59,6 +63,8 @@ public class ReadFileStep<EVM, DTO> implements Step {
                 .reader(itemReader)
                 .processor(itemProcessor)
                 .writer(itemWriter)
+                .listener((StepExecutionListener) throughputListener)
+                .listener((ItemWriteListener<List<?>>) throughputListener)
                 .build();
         this.stepName = stepName;
     }
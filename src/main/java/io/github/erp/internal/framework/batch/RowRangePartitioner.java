@@ -0,0 +1,78 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.framework.excel.ExcelFileDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Splits the rows of an uploaded data file into contiguous ranges, one for each partition. The rows are
+ * counted with a streaming pass over the file so that the ranges match the rows the readers will see.
+ */
+public class RowRangePartitioner implements Partitioner {
+
+    private static final Logger log = LoggerFactory.getLogger(RowRangePartitioner.class);
+
+    public static final String FIRST_ROW = "firstRow";
+    public static final String ROW_COUNT = "rowCount";
+
+    private final ExcelFileDeserializer<?> deserializer;
+    private final DataFileStore dataFileStore;
+    private final long fileId;
+
+    public RowRangePartitioner(ExcelFileDeserializer<?> deserializer, DataFileStore dataFileStore, long fileId) {
+        this.deserializer = deserializer;
+        this.dataFileStore = dataFileStore;
+        this.fileId = fileId;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        int rows = countRows();
+        int rangeSize = Math.max(1, (rows + gridSize - 1) / gridSize);
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        int firstRow = 0;
+        do {
+            ExecutionContext range = new ExecutionContext();
+            range.putInt(FIRST_ROW, firstRow);
+            range.putInt(ROW_COUNT, Math.min(rangeSize, rows - firstRow));
+            partitions.put("partition" + partitions.size(), range);
+            firstRow += rangeSize;
+        } while (firstRow < rows);
+
+        log.info("{} rows of file-upload id {} split into {} partitions of up to {} rows", rows, fileId, partitions.size(), rangeSize);
+
+        return partitions;
+    }
+
+    private int countRows() {
+        AtomicInteger rows = new AtomicInteger();
+        Consumer<Object> counter = row -> rows.incrementAndGet();
+        dataFileStore.locate(fileId).ifPresent(dataFile -> deserializer.deserialize(dataFile, counter));
+        return rows.get();
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the rows written by each execution of a read-file step and reports the rate at which they were
+ * written. Items in these steps are lists of rows, so the step's own write-count would only give the
+ * number of lists. The rate is logged, appended to the exit description and kept in the execution context
+ * under {@link #ROWS_PER_SECOND} so that the job listener can summarise every partition.
+ */
+public class RowThroughputListener implements StepExecutionListener, ItemWriteListener<List<?>> {
+
+    private static final Logger log = LoggerFactory.getLogger(RowThroughputListener.class);
+
+    public static final String ROWS_WRITTEN = "rowsWritten";
+    public static final String ROWS_PER_SECOND = "rowsPerSecond";
+
+    // Partitions share the worker step and therefore this listener
+    private final Map<Long, AtomicLong> rowsWritten = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        rowsWritten.put(stepExecution.getId(), new AtomicLong());
+    }
+
+    @Override
+    public void afterWrite(List<? extends List<?>> items) {
+        long rows = items.stream().mapToLong(List::size).sum();
+        rowsWritten.computeIfAbsent(StepSynchronizationManager.getContext().getStepExecution().getId(), id -> new AtomicLong()).addAndGet(rows);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        AtomicLong written = rowsWritten.remove(stepExecution.getId());
+        long rows = written == null ? 0 : written.get();
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - stepExecution.getStartTime().getTime());
+        long rowsPerSecond = rows * 1000 / elapsedMillis;
+
+        stepExecution.getExecutionContext().putLong(ROWS_WRITTEN, rows);
+        stepExecution.getExecutionContext().putLong(ROWS_PER_SECOND, rowsPerSecond);
+
+        log.info("{} wrote {} rows in {}ms : {} rows/sec", stepExecution.getStepName(), rows, elapsedMillis, rowsPerSecond);
+
+        return stepExecution.getExitStatus().addExitDescription(rows + " rows written at " + rowsPerSecond + " rows/sec");
+    }
+
+    @Override
+    public void beforeWrite(List<? extends List<?>> items) {}
+
+    @Override
+    public void onWriteError(Exception exception, List<? extends List<?>> items) {}
+}
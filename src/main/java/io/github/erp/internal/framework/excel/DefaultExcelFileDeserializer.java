@@ -22,16 +22,20 @@ import com.poiji.exception.PoijiExcelType;
 import com.poiji.option.PoijiOptions;
 import org.slf4j.Logger;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static io.github.erp.internal.framework.excel.DeserializationUtils.getFileInputStream;
+import static io.github.erp.internal.framework.excel.PoijiOptionsConfig.getPoijiOptions;
 
 /**
  * This is the default configuration for excel deserialization for an excel view model of type T
  * @param <T> Type of excel view model
  */
-public class DefaultExcelFileDeserializer<T> {
+public class DefaultExcelFileDeserializer<T> implements ExcelFileDeserializer<T> {
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(DefaultExcelFileDeserializer.class);
 
     private final Class<T> deserializationClass;
@@ -48,6 +52,7 @@ public class DefaultExcelFileDeserializer<T> {
      * @param excelFile Received containing the data to be deserialized
      * @return List of data of type T
      */
+    @Override
     public List<T> deserialize(final byte[] excelFile) {
         InputStream fileInputStream = getFileInputStream(excelFile);
         long time = System.currentTimeMillis();
@@ -56,4 +61,39 @@ public class DefaultExcelFileDeserializer<T> {
         log.info("\n{} entries deserialized from file: in {} millis", entries.size(), readTime);
         return entries;
     }
+
+    /**
+     * This method reads the rows of the data file one at a time and hands them to the consumer
+     *
+     * @param excelFile Workbook containing the data to be deserialized
+     * @param rowConsumer Receives the data item of each row in order
+     */
+    @Override
+    public void deserialize(final File excelFile, final Consumer<? super T> rowConsumer) {
+        stream(excelFile, poijiOptions, rowConsumer);
+    }
+
+    /**
+     * This method reads a range of the rows of the data file one at a time and hands them to the consumer
+     *
+     * @param excelFile Workbook containing the data to be deserialized
+     * @param firstRow Index of the first row to read, counting data rows from zero
+     * @param rowCount Maximum number of rows to read
+     * @param rowConsumer Receives the data item of each row in order
+     */
+    @Override
+    public void deserialize(final File excelFile, final int firstRow, final int rowCount, final Consumer<? super T> rowConsumer) {
+        stream(excelFile, getPoijiOptions(firstRow, rowCount), rowConsumer);
+    }
+
+    private void stream(final File excelFile, final PoijiOptions options, final Consumer<? super T> rowConsumer) {
+        AtomicLong entries = new AtomicLong();
+        long time = System.currentTimeMillis();
+        Poiji.fromExcel(excelFile, deserializationClass, options, row -> {
+            rowConsumer.accept(row);
+            entries.incrementAndGet();
+        });
+        long readTime = System.currentTimeMillis() - time;
+        log.info("\n{} entries streamed from file: in {} millis", entries.get(), readTime);
+    }
 }
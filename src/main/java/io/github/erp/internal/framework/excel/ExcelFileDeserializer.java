@@ -17,7 +17,9 @@ package io.github.erp.internal.framework.excel;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import java.io.File;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This generic interface represents operations for converting data contained
@@ -35,4 +37,23 @@ public interface ExcelFileDeserializer<T> {
      * @return List of data of type T
      */
     List<T> deserialize(byte[] excelFile);
+
+    /**
+     * This method reads the data file off the workbook's SAX event stream, handing each row to the consumer
+     * as soon as it is read, so that no more than the current row is held in memory
+     *
+     * @param excelFile Workbook containing the data to be deserialized
+     * @param rowConsumer Receives the data item of each row in order
+     */
+    void deserialize(File excelFile, Consumer<? super T> rowConsumer);
+
+    /**
+     * This method streams a range of the rows in the data file, as the previous method does for the whole file
+     *
+     * @param excelFile Workbook containing the data to be deserialized
+     * @param firstRow Index of the first row to read, counting data rows from zero
+     * @param rowCount Maximum number of rows to read
+     * @param rowConsumer Receives the data item of each row in order
+     */
+    void deserialize(File excelFile, int firstRow, int rowCount, Consumer<? super T> rowConsumer);
 }
@@ -31,6 +31,29 @@ public class PoijiOptionsConfig {
         return PoijiOptionsHolder.getInstance();
     }
 
+    /**
+     * The default options restricted to a range of rows, used when an upload is read in partitions
+     *
+     * @param skip number of data rows after the header to skip
+     * @param limit maximum number of data rows to read
+     * @return options for a single partition
+     */
+    public static PoijiOptions getPoijiOptions(int skip, int limit) {
+        // Poiji counts the header among the skipped rows and will not take a skip of nought
+        PoijiOptionsBuilder builder = skip > 0 ? PoijiOptionsBuilder.settings(skip) : PoijiOptionsBuilder.settings();
+        return withDefaultSettings(builder.limit(limit));
+    }
+
+    private static PoijiOptions withDefaultSettings(PoijiOptionsBuilder builder) {
+        // @formatter:off
+        return builder.ignoreHiddenSheets(true)
+                      .preferNullOverDefault(true)
+                      .datePattern("yyyy/MM/dd")
+                      .dateTimeFormatter(DateTimeFormatter.ISO_DATE_TIME)
+                      .build();
+        // @formatter:on
+    }
+
     /**
      * PoijiOptions is a configurations object. As it may appear to bewildered eye that the PoijiOptionsHolder
      * is an instance of over-engineering, but I would sooner ensure that I only have one PoijiOptions in the
@@ -45,14 +68,7 @@ public class PoijiOptionsConfig {
             if (INSTANCE == null) {
                 synchronized (PoijiOptionsHolder.class) {
                     if (INSTANCE == null) {
-                        // @formatter:off
-                        INSTANCE = PoijiOptionsBuilder.settings()
-                                                         .ignoreHiddenSheets(true)
-                                                         .preferNullOverDefault(true)
-                                                         .datePattern("yyyy/MM/dd")
-                                                         .dateTimeFormatter(DateTimeFormatter.ISO_DATE_TIME)
-                                                         .build();
-                        // @formatter:on
+                        INSTANCE = withDefaultSettings(PoijiOptionsBuilder.settings());
                     }
                 }
             }
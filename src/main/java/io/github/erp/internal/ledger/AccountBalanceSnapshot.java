@@ -0,0 +1,135 @@
+package io.github.erp.internal.ledger;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Balance of a transaction account over one calendar month. The snapshot covers only the
+ * transaction_details rows flagged as applied: the opening balance is the closing balance of the
+ * account's previous snapshot, and debits and credits are this month's applied movements. Balances
+ * follow the sign of the trial balance, credits less debits.
+ */
+@Entity
+@Table(
+    name = "account_balance_snapshot",
+    uniqueConstraints = @UniqueConstraint(
+        name = "ux_account_balance_snapshot_period",
+        columnNames = { "transaction_account_id", "period_start" }
+    )
+)
+public class AccountBalanceSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "transaction_account_id", nullable = false)
+    private Long transactionAccountId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "opening_balance", precision = 21, scale = 2, nullable = false)
+    private BigDecimal openingBalance = BigDecimal.ZERO;
+
+    @Column(name = "debit_amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal debitAmount = BigDecimal.ZERO;
+
+    @Column(name = "credit_amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal creditAmount = BigDecimal.ZERO;
+
+    @Column(name = "closing_balance", precision = 21, scale = 2, nullable = false)
+    private BigDecimal closingBalance = BigDecimal.ZERO;
+
+    protected AccountBalanceSnapshot() {}
+
+    /**
+     * A snapshot with no movements yet for the month containing the given date
+     */
+    public AccountBalanceSnapshot(Long transactionAccountId, LocalDate dateInPeriod, BigDecimal openingBalance) {
+        this.transactionAccountId = transactionAccountId;
+        this.periodStart = dateInPeriod.withDayOfMonth(1);
+        this.periodEnd = dateInPeriod.withDayOfMonth(dateInPeriod.lengthOfMonth());
+        this.openingBalance = openingBalance;
+        this.closingBalance = openingBalance;
+    }
+
+    /**
+     * Adds movements to the month, moving the closing balance with them
+     */
+    public void post(BigDecimal debits, BigDecimal credits) {
+        this.debitAmount = debitAmount.add(debits);
+        this.creditAmount = creditAmount.add(credits);
+        this.closingBalance = closingBalance.add(credits).subtract(debits);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTransactionAccountId() {
+        return transactionAccountId;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getDebitAmount() {
+        return debitAmount;
+    }
+
+    public BigDecimal getCreditAmount() {
+        return creditAmount;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountBalanceSnapshot{" +
+            "transactionAccountId=" + transactionAccountId +
+            ", periodStart=" + periodStart +
+            ", openingBalance=" + openingBalance +
+            ", debitAmount=" + debitAmount +
+            ", creditAmount=" + creditAmount +
+            ", closingBalance=" + closingBalance +
+            '}';
+    }
+}
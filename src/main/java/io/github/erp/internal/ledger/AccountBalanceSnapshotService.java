@@ -0,0 +1,220 @@
+package io.github.erp.internal.ledger;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository.LedgerEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link AccountBalanceSnapshot}s in step with transaction_details.
+ * <p>
+ * Every transaction_details row carries a flag telling whether its amount is in the snapshots.
+ * Applying a row adds it to the debit account's and the credit account's snapshot for the month of
+ * its transaction date and carries the change into the opening and closing balances of their later
+ * months; withdrawing it does the reverse. Each unit of work locks the accounts it touches, so
+ * postings applied on different nodes cannot interleave their read-modify-write of the same
+ * account, while postings to unrelated accounts proceed side by side. A reset takes the
+ * maintenance lock exclusively and waits for every posting in flight.
+ */
+@Service
+@Transactional
+public class AccountBalanceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceSnapshotService.class);
+
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+
+    public AccountBalanceSnapshotService(AccountBalanceSnapshotRepository snapshotRepository) {
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    /**
+     * Applies the entries created by one posting, such as a lease journal requisition
+     *
+     * @return number of entries applied
+     */
+    public int applyPosting(UUID postingId) {
+        return apply(snapshotRepository.findUnappliedEntriesOfPosting(postingId));
+    }
+
+    /**
+     * Applies up to {@code limit} of the entries that are not yet in the snapshots
+     *
+     * @return number of entries applied; less than the limit when none are left, or when another
+     * node applied some of the same entries first
+     */
+    public int applyPending(int limit) {
+        return apply(snapshotRepository.findUnappliedEntries(limit));
+    }
+
+    /**
+     * Takes an entry out of the snapshots ahead of its update or deletion. An updated entry is
+     * applied again, with its new amounts and date, by the next sweep.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void withdraw(Long transactionDetailsId) {
+        snapshotRepository
+            .findEntry(transactionDetailsId)
+            .filter(entry -> Boolean.TRUE.equals(entry.getApplied()))
+            .ifPresent(candidate -> {
+                lockAccounts(List.of(candidate.getDebitAccountId(), candidate.getCreditAccountId()));
+                // Read again under the locks, in case it was withdrawn while we waited
+                snapshotRepository
+                    .findEntry(transactionDetailsId)
+                    .filter(entry -> Boolean.TRUE.equals(entry.getApplied()))
+                    .ifPresent(entry -> {
+                        LocalDate periodStart = entry.getTransactionDate().toLocalDate().withDayOfMonth(1);
+                        post(entry.getDebitAccountId(), periodStart, entry.getAmount().negate(), BigDecimal.ZERO);
+                        post(entry.getCreditAccountId(), periodStart, BigDecimal.ZERO, entry.getAmount().negate());
+                        snapshotRepository.markEntries(List.of(entry.getId()), false);
+                    });
+            });
+    }
+
+    /**
+     * Discards every snapshot and marks every entry as pending, for the sweep to apply them afresh
+     */
+    public void reset() {
+        snapshotRepository.lockMaintenance();
+        snapshotRepository.deleteAllInBatch();
+        int entries = snapshotRepository.markAllEntriesUnapplied();
+        snapshotRepository.recordRebuild();
+        log.info("Account balance snapshots discarded, {} transaction details pending", entries);
+    }
+
+    private int apply(List<LedgerEntry> candidates) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> accountIds = new TreeSet<>();
+        candidates.forEach(entry -> {
+            accountIds.add(entry.getDebitAccountId());
+            accountIds.add(entry.getCreditAccountId());
+        });
+        lockAccounts(accountIds);
+
+        // Read again under the locks: another node may have applied or withdrawn some of them meanwhile
+        List<LedgerEntry> entries = snapshotRepository
+            .findUnappliedEntriesIn(candidates.stream().map(LedgerEntry::getId).collect(Collectors.toList()))
+            .stream()
+            .filter(entry -> accountIds.contains(entry.getDebitAccountId()) && accountIds.contains(entry.getCreditAccountId()))
+            .collect(Collectors.toList());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        // Net the batch per account and month first, so each snapshot and its later months move once
+        Map<AccountPeriod, Movement> movements = new TreeMap<>();
+        for (LedgerEntry entry : entries) {
+            LocalDate periodStart = entry.getTransactionDate().toLocalDate().withDayOfMonth(1);
+            movements.computeIfAbsent(new AccountPeriod(entry.getDebitAccountId(), periodStart), k -> new Movement()).debit(entry.getAmount());
+            movements.computeIfAbsent(new AccountPeriod(entry.getCreditAccountId(), periodStart), k -> new Movement()).credit(entry.getAmount());
+        }
+        movements.forEach((key, movement) -> post(key.accountId, key.periodStart, movement.debits, movement.credits));
+
+        snapshotRepository.markEntries(entries.stream().map(LedgerEntry::getId).collect(Collectors.toList()), true);
+        log.debug("Applied {} transaction details to {} account balance snapshots", entries.size(), movements.size());
+        return entries.size();
+    }
+
+    private void lockAccounts(Collection<Long> accountIds) {
+        snapshotRepository.lockMaintenanceShared();
+        snapshotRepository.lockAccounts(accountIds);
+    }
+
+    private void post(Long accountId, LocalDate periodStart, BigDecimal debits, BigDecimal credits) {
+        Optional<AccountBalanceSnapshot> existing = snapshotRepository.findByTransactionAccountIdAndPeriodStart(accountId, periodStart);
+        AccountBalanceSnapshot snapshot = existing.orElseGet(() ->
+            new AccountBalanceSnapshot(accountId, periodStart, openingBalance(accountId, periodStart))
+        );
+        snapshot.post(debits, credits);
+
+        if (snapshot.getDebitAmount().signum() == 0 && snapshot.getCreditAmount().signum() == 0) {
+            // Every entry of the month was withdrawn; its opening balance equals its closing balance
+            existing.ifPresent(snapshotRepository::delete);
+        } else {
+            snapshotRepository.save(snapshot);
+        }
+
+        BigDecimal net = credits.subtract(debits);
+        if (net.signum() != 0) {
+            snapshotRepository.shiftLaterPeriods(accountId, periodStart, net);
+        }
+    }
+
+    private BigDecimal openingBalance(Long accountId, LocalDate periodStart) {
+        return snapshotRepository
+            .findFirstByTransactionAccountIdAndPeriodStartLessThanOrderByPeriodStartDesc(accountId, periodStart)
+            .map(AccountBalanceSnapshot::getClosingBalance)
+            .orElse(BigDecimal.ZERO);
+    }
+
+    private static final class AccountPeriod implements Comparable<AccountPeriod> {
+
+        private static final Comparator<AccountPeriod> ORDER = Comparator
+            .comparing((AccountPeriod p) -> p.accountId)
+            .thenComparing(p -> p.periodStart);
+
+        private final Long accountId;
+        private final LocalDate periodStart;
+
+        private AccountPeriod(Long accountId, LocalDate periodStart) {
+            this.accountId = accountId;
+            this.periodStart = periodStart;
+        }
+
+        @Override
+        public int compareTo(AccountPeriod other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Movement {
+
+        private BigDecimal debits = BigDecimal.ZERO;
+        private BigDecimal credits = BigDecimal.ZERO;
+
+        private void debit(BigDecimal amount) {
+            debits = debits.add(amount);
+        }
+
+        private void credit(BigDecimal amount) {
+            credits = credits.add(amount);
+        }
+    }
+}
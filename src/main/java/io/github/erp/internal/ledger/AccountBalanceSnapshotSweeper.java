@@ -0,0 +1,71 @@
+package io.github.erp.internal.ledger;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds into the snapshots the transaction details that were not applied when they were written:
+ * rows saved one by one through the transaction details services, rows whose update withdrew them,
+ * and, on the first run after the snapshot tables are created, the whole existing ledger. A rebuild,
+ * {@link AccountBalanceSnapshotService#reset()}, works the same way: it discards the snapshots and
+ * leaves the sweep to recompute them from the ledger.
+ */
+@Component
+@ConditionalOnProperty(prefix = "erp.ledger.balance-snapshots", name = "sweep-enabled", havingValue = "true", matchIfMissing = true)
+public class AccountBalanceSnapshotSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceSnapshotSweeper.class);
+
+    private final AccountBalanceSnapshotService snapshotService;
+    private final int batchSize;
+
+    public AccountBalanceSnapshotSweeper(
+        AccountBalanceSnapshotService snapshotService,
+        @Value("${erp.ledger.balance-snapshots.batch-size:5000}") int batchSize
+    ) {
+        this.snapshotService = snapshotService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Applies pending entries batch by batch, each batch in its own transaction, until none are left
+     */
+    @Scheduled(
+        initialDelayString = "${erp.ledger.balance-snapshots.sweep-interval-millis:60000}",
+        fixedDelayString = "${erp.ledger.balance-snapshots.sweep-interval-millis:60000}"
+    )
+    public void sweep() {
+        int total = 0;
+        int applied;
+        do {
+            applied = snapshotService.applyPending(batchSize);
+            total += applied;
+        } while (applied == batchSize);
+
+        if (total > 0) {
+            log.info("Applied {} pending transaction details to the account balance snapshots", total);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.erp.internal.ledger;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.TransactionAccount;
+import io.github.erp.domain.TransactionAccountReportItem;
+import io.github.erp.domain.enumeration.AccountTypes;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository.AccountBalance;
+import io.github.erp.internal.repository.InternalTransactionAccountRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Account balances and the trial balance read from the {@link AccountBalanceSnapshot}s.
+ * <p>
+ * The balance of an account at a date is the closing balance of its latest snapshot before the
+ * date's month, plus the entries from the start of that month to the date, plus any entries from
+ * earlier months that the snapshots do not hold yet. Only the current month and the pending entries
+ * are scanned, however long the ledger has grown.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TrialBalanceCalculator {
+
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final InternalTransactionAccountRepository transactionAccountRepository;
+
+    public TrialBalanceCalculator(
+        AccountBalanceSnapshotRepository snapshotRepository,
+        InternalTransactionAccountRepository transactionAccountRepository
+    ) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionAccountRepository = transactionAccountRepository;
+    }
+
+    /**
+     * Balance, credits less debits, of every account with entries on or before the given date
+     */
+    public Map<Long, BigDecimal> balances(LocalDate reportDate) {
+        LocalDate periodStart = reportDate.withDayOfMonth(1);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (AccountBalance balance : snapshotRepository.findSnapshotBalancesBefore(periodStart)) {
+            balances.merge(balance.getAccountId(), balance.getBalance(), BigDecimal::add);
+        }
+        for (AccountBalance balance : snapshotRepository.findDeltaBalances(periodStart, reportDate)) {
+            balances.merge(balance.getAccountId(), balance.getBalance(), BigDecimal::add);
+        }
+        return balances;
+    }
+
+    /**
+     * Trial balance at the given date. Equity accounts carry only the movements of the fiscal year
+     * containing the date; their balances at the close of earlier years are brought together on a
+     * separate line for the reporting entity's retained earnings account. There are no lines when the
+     * date falls in no fiscal year.
+     *
+     * @return the lines, ordered by account id
+     */
+    public List<TransactionAccountReportItem> trialBalance(LocalDate reportDate, Long reportingEntityId) {
+        List<LocalDate> fiscalYearStarts = snapshotRepository.findFiscalYearStart(reportDate);
+        if (fiscalYearStarts.isEmpty()) {
+            return List.of();
+        }
+        LocalDate fiscalYearStart = fiscalYearStarts.get(0);
+
+        Map<Long, BigDecimal> closing = balances(reportDate);
+        Map<Long, BigDecimal> brought = balances(fiscalYearStart.minusDays(1));
+        Set<Long> activeThisYear = new HashSet<>(snapshotRepository.findAccountsWithEntriesBetween(fiscalYearStart, reportDate));
+
+        List<TransactionAccountReportItem> items = new ArrayList<>(closing.size() + 1);
+        BigDecimal retainedEarnings = null;
+        for (TransactionAccount account : transactionAccountRepository.findAllById(closing.keySet())) {
+            BigDecimal balance = closing.get(account.getId());
+            if (account.getAccountType() == AccountTypes.EQUITY) {
+                BigDecimal broughtForward = brought.get(account.getId());
+                if (broughtForward != null) {
+                    retainedEarnings = retainedEarnings == null ? broughtForward : retainedEarnings.add(broughtForward);
+                    balance = balance.subtract(broughtForward);
+                }
+                if (!activeThisYear.contains(account.getId())) {
+                    continue;
+                }
+            }
+            items.add(item(account, balance));
+        }
+
+        if (retainedEarnings != null) {
+            BigDecimal priorYears = retainedEarnings;
+            snapshotRepository.findRetainedEarningsAccount(reportingEntityId).ifPresent(account -> items.add(item(account, priorYears)));
+        }
+
+        items.sort(Comparator.comparing(TransactionAccountReportItem::getId));
+        return items;
+    }
+
+    private static TransactionAccountReportItem item(TransactionAccount account, BigDecimal balance) {
+        return new TransactionAccountReportItem()
+            .id(account.getId())
+            .accountName(account.getAccountName())
+            .accountNumber(account.getAccountNumber())
+            .accountBalance(balance);
+    }
+}
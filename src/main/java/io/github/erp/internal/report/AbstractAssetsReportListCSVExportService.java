@@ -19,10 +19,10 @@ package io.github.erp.internal.report;
  */
 import io.github.erp.internal.files.FileStorageService;
 
-import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * This service creates a CSV file given a list of items and a file name
@@ -41,19 +41,29 @@ public abstract class AbstractAssetsReportListCSVExportService<T> {
     /**
      * @param reportList List items to be exported
      * @param fileName   filename to be used on the file system
+     * @return SHA-512 checksum of the report file, calculated as the file is written
      * @throws IOException can happen
      */
     public String executeReport(List<T> reportList, String fileName) throws IOException {
 
-        ByteArrayOutputStream csvByteArray = CSVDynamicConverterService.convertToCSV(reportList);
-
         String reportPath = reportsProperties.getReportsDirectory().concat("/").concat(fileName).concat(".csv");
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(reportPath)) {
-            csvByteArray.writeTo(fileOutputStream);
-        }
+        return CSVReportCodec.writeReport(reportList, Paths.get(reportPath));
+    }
+
+    /**
+     * Streams the items into the report file, calculating the checksum as the file is written
+     *
+     * @param reportStream items to be exported, typically from a repository stream held open by the caller
+     * @param fileName     filename to be used on the file system
+     * @return SHA-512 checksum of the report file
+     * @throws IOException can happen
+     */
+    public String executeReport(Stream<T> reportStream, String fileName) throws IOException {
+
+        String reportPath = reportsProperties.getReportsDirectory().concat("/").concat(fileName).concat(".csv");
 
-        return fileStorageService.calculateSha512CheckSum(fileName + ".csv");
+        return CSVReportCodec.writeReport(reportStream, Paths.get(reportPath));
     }
 
     protected String getReportParameters() {
@@ -1,188 +0,0 @@
-
-/*-
- * Erp System - Mark X No 2 (Jehoiada Series) Server ver 1.7.1
- * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-
-/*-
- * Erp System - Mark X No 2 (Jehoiada Series) Server ver 1.7.1
- * Copyright © 2021 - 2023 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-
-/*-
- * Erp System - Mark X No 1 (Jehoiada Series) Server ver 1.7.0
- * Copyright © 2021 - 2023 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-
-/*-
- * Erp System - Mark IX No 5 (Iddo Series) Server ver 1.6.7
- * Copyright © 2021 - 2023 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-
-/*-
- * Erp System - Mark IX No 4 (Iddo Series) Server ver 1.6.6
- * Copyright © 2021 - 2023 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-package io.github.erp.internal.report;
-
-/*-
- * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
- * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-import com.opencsv.CSVWriter;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Dynamically converts a list into a CSV file
- */
-public class CSVDynamicConverterService {
-
-    public static <T> ByteArrayOutputStream convertToCSV(List<T> dataList) throws IOException {
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        OutputStreamWriter outputStreamWriter = new OutputStreamWriter(byteStream);
-
-        CSVWriter csvWriter = new CSVWriter(outputStreamWriter);
-
-        List<String[]> headers = getObjectAttributes(dataList);
-        for (String[] header : headers) {
-            csvWriter.writeNext(header);
-        }
-
-        List<String[]> rows = getObjectValues(dataList);
-        for (String[] row : rows) {
-            csvWriter.writeNext(row);
-        }
-
-        csvWriter.close();
-        return byteStream;
-    }
-
-
-    static <T> List<String[]> getObjectAttributes(List<T> dataList) {
-        List<String[]> headers = new ArrayList<>();
-        if (!dataList.isEmpty()) {
-            Class<?> clazz = dataList.get(0).getClass();
-            Field[] fields = clazz.getDeclaredFields();
-            List<String> attributeNames = new ArrayList<>();
-            for (Field field : fields) {
-                attributeNames.add(field.getName());
-            }
-            headers.add(attributeNames.toArray(new String[0]));
-        }
-        return headers;
-    }
-
-    public static <T> List<String[]> getObjectValues(List<T> dataList) {
-        List<String[]> rows = new ArrayList<>();
-        for (T obj : dataList) {
-            Class<?> clazz = obj.getClass();
-            Field[] fields = clazz.getDeclaredFields();
-            List<String> values = new ArrayList<>();
-            for (Field field : fields) {
-                try {
-                    Method[] methods = clazz.getMethods();
-                    for (Method method : methods) {
-                        if (method.getName().equalsIgnoreCase("get" + capitalize(field.getName()))) {
-                            Object value = method.invoke(obj);
-                            values.add(value != null ? value.toString() : "");
-                            break;
-                        }
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            rows.add(values.toArray(new String[0]));
-        }
-        return rows;
-    }
-
-    private static String capitalize(String s) {
-        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
-    }
-}
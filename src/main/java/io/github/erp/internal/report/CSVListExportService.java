@@ -20,9 +20,8 @@ package io.github.erp.internal.report;
 import io.github.erp.internal.files.FileStorageService;
 import org.springframework.beans.factory.annotation.Qualifier;
 
-import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -46,18 +45,13 @@ public class CSVListExportService<T> {
     /**
      * @param reportList List items to be exported
      * @param fileName   filename to be used on the file system
+     * @return SHA-512 checksum of the report file, calculated as the file is written
      * @throws IOException can happen
      */
     public String executeReport(List<T> reportList, String fileName) throws IOException {
 
-        ByteArrayOutputStream csvByteArray = CSVDynamicConverterService.convertToCSV(reportList);
-
         String reportPath = reportsProperties.getReportsDirectory().concat("/").concat(fileName).concat(".csv");
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(reportPath)) {
-            csvByteArray.writeTo(fileOutputStream);
-        }
-
-        return fileStorageService.calculateSha512CheckSum(fileName + ".csv");
+        return CSVReportCodec.writeReport(reportList, Paths.get(reportPath));
     }
 }
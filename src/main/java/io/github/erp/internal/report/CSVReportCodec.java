@@ -0,0 +1,212 @@
+package io.github.erp.internal.report;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import com.opencsv.CSVWriter;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes a list of report items as CSV. The header and the getters for a report class are
+ * resolved once and cached, and rows are streamed straight to the file channel of the report
+ * while its SHA-512 checksum is calculated.
+ * Columns are the declared fields of the class in declaration order; a field without a public
+ * getter is written as an empty value so that rows stay aligned with the header.
+ *
+ * @param <T> Type of the report item
+ */
+public final class CSVReportCodec<T> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Map<Class<?>, CSVReportCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private final String[] header;
+    private final MethodHandle[] getters;
+
+    private CSVReportCodec(Class<T> reportClass) {
+        Field[] fields = reportClass.getDeclaredFields();
+        Method[] methods = reportClass.getMethods();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        this.header = new String[fields.length];
+        this.getters = new MethodHandle[fields.length];
+
+        for (int column = 0; column < fields.length; column++) {
+            header[column] = fields[column].getName();
+            getters[column] = getter(lookup, methods, fields[column].getName());
+        }
+    }
+
+    /**
+     * @param reportClass class of the items in the report
+     * @return the cached codec for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CSVReportCodec<T> forClass(Class<T> reportClass) {
+        return (CSVReportCodec<T>) CODECS.computeIfAbsent(reportClass, CSVReportCodec::new);
+    }
+
+    /**
+     * Writes the list to the file at the path, replacing any existing file. Nothing is
+     * written for an empty list, as there is no class from which to take the header
+     *
+     * @param reportList items to be written
+     * @param reportPath path of the csv file
+     * @return SHA-512 checksum of the file as written
+     * @throws IOException when the file cannot be written
+     */
+    public static <T> String writeReport(List<T> reportList, Path reportPath) throws IOException {
+        return writeReport(reportList.stream(), reportPath);
+    }
+
+    /**
+     * Streams the items to the file at the path, replacing any existing file. The checksum
+     * is calculated on the bytes as they are written, so the file is not read back and no
+     * more than one buffer of the report is held in memory. The stream is consumed but not
+     * closed; a repository stream remains the responsibility of the caller
+     *
+     * @param reportStream items to be written
+     * @param reportPath path of the csv file
+     * @return SHA-512 checksum of the file as written, in the format of FileStorageService#calculateSha512CheckSum
+     * @throws IOException when the file cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> String writeReport(Stream<T> reportStream, Path reportPath) throws IOException {
+        MessageDigest sha512 = sha512();
+
+        try (FileChannel channel = FileChannel.open(reportPath, CREATE, WRITE, TRUNCATE_EXISTING);
+             Writer writer = new OutputStreamWriter(
+                 new DigestOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), sha512),
+                 StandardCharsets.UTF_8)) {
+
+            Iterator<T> items = reportStream.iterator();
+
+            if (items.hasNext()) {
+                T first = items.next();
+                forClass((Class<T>) first.getClass()).write(first, items, writer);
+            }
+        }
+
+        return DatatypeConverter.printHexBinary(sha512.digest()).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes the header and one row per item. The writer is flushed but not closed
+     */
+    public void write(Iterable<T> items, Writer writer) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(writer);
+
+        csvWriter.writeNext(header);
+
+        String[] row = new String[getters.length];
+        for (T item : items) {
+            csvWriter.writeNext(toRow(item, row));
+        }
+
+        csvWriter.flush();
+    }
+
+    private void write(T first, Iterator<T> rest, Writer writer) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(writer);
+
+        csvWriter.writeNext(header);
+
+        String[] row = new String[getters.length];
+        csvWriter.writeNext(toRow(first, row));
+        while (rest.hasNext()) {
+            csvWriter.writeNext(toRow(rest.next(), row));
+        }
+
+        csvWriter.flush();
+    }
+
+    private String[] toRow(T item, String[] row) {
+        for (int column = 0; column < getters.length; column++) {
+            row[column] = value(getters[column], item);
+        }
+        return row;
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    private static MessageDigest sha512() {
+        try {
+            return MessageDigest.getInstance("SHA-512");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algorithm exception. Check runtime environment", e);
+        }
+    }
+
+    private static String value(MethodHandle getter, Object item) {
+        if (getter == null) {
+            return "";
+        }
+        try {
+            Object value = getter.invokeExact(item);
+            return value != null ? value.toString() : "";
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to read report value from " + item.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Method[] methods, String fieldName) {
+        String getterName = "get" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Method method : methods) {
+            if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()) && method.getName().equalsIgnoreCase(getterName)) {
+                try {
+                    return lookup.unreflect(method).asType(GETTER_TYPE);
+                } catch (IllegalAccessException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -55,8 +55,7 @@ public class CSVReportsService implements SecuredReportsService, UnsecuredReport
         // TODO Implement a password protected archive for the resulting file
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToCsv(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToCsv(print, reportsDirectory + reportName, applicationName);
         return reportsDirectory + reportName;
     }
 
@@ -65,8 +64,7 @@ public class CSVReportsService implements SecuredReportsService, UnsecuredReport
 
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToCsv(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToCsv(print, reportsDirectory + reportName, applicationName);
         return reportsDirectory + reportName;
     }
 }
@@ -72,32 +72,28 @@ public class GenericReportService {
         // TODO Implement a password protected archive for the resulting file
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToXlsx(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToXlsx(print, reportsDirectory + reportName, applicationName);
         return reportsDirectory + reportName;
     }
 
     public String generatePDFReport(String reportFileLocation, String reportName, String ownerPassword, String userPassword, Map<String, Object> parameters) {
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToPdf(reportsDirectory + reportName, applicationName, ownerPassword,userPassword);
+        simpleExporter.exportToPdf(print, reportsDirectory + reportName, applicationName, ownerPassword,userPassword);
         return reportsDirectory + reportName;
     }
 
     public String generateHTMLReport(String reportFileLocation, String reportName, String ownerPassword, String userPassword, Map<String, Object> parameters) {
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToHtml(reportsDirectory + reportName);
+        simpleExporter.exportToHtml(print, reportsDirectory + reportName);
         return reportsDirectory + reportName;
     }
 
     public String generateCSVReport(String reportFileLocation, String reportName, String ownerPassword, String userPassword, Map<String, Object> parameters, String fieldDelimiter) {
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToCsv(reportsDirectory + reportName, fieldDelimiter);
+        simpleExporter.exportToCsv(print, reportsDirectory + reportName, fieldDelimiter);
         return reportsDirectory + reportName;
     }
 }
@@ -52,8 +52,7 @@ public class HTMLReportsService implements SecuredReportsService, UnsecuredRepor
         // TODO Implement a password protected archive for the resulting file
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToHtml(reportsDirectory + reportName);
+        simpleExporter.exportToHtml(print, reportsDirectory + reportName);
         return reportsDirectory + reportName;
     }
 
@@ -62,8 +61,7 @@ public class HTMLReportsService implements SecuredReportsService, UnsecuredRepor
 
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToHtml(reportsDirectory + reportName);
+        simpleExporter.exportToHtml(print, reportsDirectory + reportName);
         return reportsDirectory + reportName;
     }
 }
@@ -58,12 +58,10 @@ public class PDFReportsService implements SecuredReportsService, UnsecuredReport
 
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
 
-        simpleExporter.setJasperPrint(print);
-
-        simpleExporter.exportToPdf(reportsDirectory + "employeeReport.pdf", applicationName, "ownerPassword","userPassword");
-        simpleExporter.exportToXlsx(reportsDirectory + "employeeReport.xlsx", "Employee Data");
-        simpleExporter.exportToCsv(reportsDirectory + "employeeReport.csv");
-        simpleExporter.exportToHtml(reportsDirectory + "employeeReport.html");
+        simpleExporter.exportToPdf(print, reportsDirectory + "employeeReport.pdf", applicationName, "ownerPassword","userPassword");
+        simpleExporter.exportToXlsx(print, reportsDirectory + "employeeReport.xlsx", "Employee Data");
+        simpleExporter.exportToCsv(print, reportsDirectory + "employeeReport.csv");
+        simpleExporter.exportToHtml(print, reportsDirectory + "employeeReport.html");
 
     }
 
@@ -74,9 +72,7 @@ public class PDFReportsService implements SecuredReportsService, UnsecuredReport
 
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
 
-        simpleExporter.setJasperPrint(print);
-
-        simpleExporter.exportToPdf(reportsDirectory + reportName, applicationName, ownerPassword,userPassword);
+        simpleExporter.exportToPdf(print, reportsDirectory + reportName, applicationName, ownerPassword,userPassword);
 
         return reportsDirectory + reportName;
     }
@@ -87,9 +83,7 @@ public class PDFReportsService implements SecuredReportsService, UnsecuredReport
 
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
 
-        simpleExporter.setJasperPrint(print);
-
-        simpleExporter.exportToPdf(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToPdf(print, reportsDirectory + reportName, applicationName);
 
         return reportsDirectory + reportName;
     }
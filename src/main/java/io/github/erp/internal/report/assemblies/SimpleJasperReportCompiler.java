@@ -17,38 +17,68 @@ package io.github.erp.internal.report.assemblies;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.SneakyThrows;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.util.JRSaver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
+/**
+ * Compiles jrxml templates into jasper-reports. Templates read from the reports directory are
+ * cached by file name, which is the report design's catalogue number, together with the checksum
+ * of the file contents, so a new upload of the same design is compiled afresh while unchanged
+ * designs are filled straight from the cache
+ */
 @Service
 public class SimpleJasperReportCompiler {
 
-    @SneakyThrows
-    public JasperReport compileReport(String reportFileName) {
-        // InputStream reportStream = getClass().getResourceAsStream(reportFileName);
-        File reportFile = new File(reportFileName);
+    private final Cache<String, CompiledTemplate> compiledTemplates;
 
-        InputStream reportStream = new FileInputStream(reportFile);
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+    public SimpleJasperReportCompiler(@Value("${erp.report.compiled-template-cache-size:64}") long cacheSize, MeterRegistry meterRegistry) {
+        this.compiledTemplates = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .recordStats()
+            .build();
 
-        return saveReport(jasperReport, reportFileName);
+        CaffeineCacheMetrics.monitor(meterRegistry, compiledTemplates, "compiledReportTemplates");
+    }
+
+    public JasperReport compileReport(String reportFileName) {
+        return compileReport(new File(reportFileName));
     }
 
     @SneakyThrows
     public JasperReport compileReport(File reportFile) {
 
-        InputStream reportStream = new FileInputStream(reportFile);
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        byte[] template = Files.readAllBytes(reportFile.toPath());
+        String checksum = checksum(template);
+
+        CompiledTemplate cached = compiledTemplates.getIfPresent(reportFile.getName());
+        if (cached != null && cached.checksum.equals(checksum)) {
+            return cached.jasperReport;
+        }
 
-        return saveReport(jasperReport, reportFile.getAbsolutePath());
+        // Concurrent requisitions of the same design wait on one compilation instead of each compiling
+        return compiledTemplates.asMap().compute(reportFile.getName(), (fileName, current) -> {
+            if (current != null && current.checksum.equals(checksum)) {
+                return current;
+            }
+            return new CompiledTemplate(checksum, compileAndSave(template, reportFile.getAbsolutePath()));
+        }).jasperReport;
     }
 
     @SneakyThrows
@@ -59,9 +89,31 @@ public class SimpleJasperReportCompiler {
         return jasperReport;
     }
 
+    @SneakyThrows
+    private JasperReport compileAndSave(byte[] template, String reportFileName) {
+        JasperReport jasperReport = JasperCompileManager.compileReport(new ByteArrayInputStream(template));
+
+        return saveReport(jasperReport, reportFileName);
+    }
+
     private JasperReport saveReport(JasperReport jasperReport, String reportFileName) throws JRException {
         JRSaver.saveObject(jasperReport, reportFileName.replace(".jrxml", ".jasper"));
 
         return jasperReport;
     }
+
+    private static String checksum(byte[] template) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(template));
+    }
+
+    private static final class CompiledTemplate {
+
+        private final String checksum;
+        private final JasperReport jasperReport;
+
+        private CompiledTemplate(String checksum, JasperReport jasperReport) {
+            this.checksum = checksum;
+            this.jasperReport = jasperReport;
+        }
+    }
 }
@@ -17,7 +17,6 @@ package io.github.erp.internal.report.assemblies;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import lombok.Data;
 import lombok.SneakyThrows;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.export.HtmlExporter;
@@ -29,17 +28,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 
-@Data
+/**
+ * Exports filled reports to file. The exporter holds no report state: the print is passed to each
+ * call and a fresh jasper exporter created for it, so concurrent report requisitions cannot write
+ * each other's output
+ */
 @Service
 public class SimpleJasperReportExporter {
-    private JasperPrint jasperPrint;
-
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
 
     @SneakyThrows
-    public void exportToPdf(String fileName, String author, String ownerPassword, String userPassword) {
+    public void exportToPdf(JasperPrint jasperPrint, String fileName, String author, String ownerPassword, String userPassword) {
         JRPdfExporter exporter = new JRPdfExporter();
         exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
         exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(fileName));
@@ -65,7 +66,7 @@ public class SimpleJasperReportExporter {
     }
 
     @SneakyThrows
-    public void exportToPdf(String fileName, String author) {
+    public void exportToPdf(JasperPrint jasperPrint, String fileName, String author) {
         JRPdfExporter exporter = new JRPdfExporter();
         exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
         exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(fileName));
@@ -86,7 +87,7 @@ public class SimpleJasperReportExporter {
     }
 
     @SneakyThrows
-    public void exportToXlsx(String fileName, String sheetName) {
+    public void exportToXlsx(JasperPrint jasperPrint, String fileName, String sheetName) {
         JRXlsxExporter exporter = new JRXlsxExporter();
         exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
         exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(fileName));
@@ -104,7 +105,7 @@ public class SimpleJasperReportExporter {
     }
 
     @SneakyThrows
-    public void exportToCsv(String fileName) {
+    public void exportToCsv(JasperPrint jasperPrint, String fileName) {
         JRCsvExporter exporter = new JRCsvExporter();
 
         exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
@@ -114,7 +115,7 @@ public class SimpleJasperReportExporter {
     }
 
     @SneakyThrows
-    public void exportToCsv(String fileName, String fieldDelimiter) {
+    public void exportToCsv(JasperPrint jasperPrint, String fileName, String fieldDelimiter) {
         JRCsvExporter exporter = new JRCsvExporter();
 
         SimpleCsvExporterConfiguration exportConfig = new SimpleCsvExporterConfiguration();
@@ -127,7 +128,7 @@ public class SimpleJasperReportExporter {
     }
 
     @SneakyThrows
-    public void exportToHtml(String fileName) {
+    public void exportToHtml(JasperPrint jasperPrint, String fileName) {
         HtmlExporter exporter = new HtmlExporter();
 
         exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
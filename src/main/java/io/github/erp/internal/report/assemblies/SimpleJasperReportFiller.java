@@ -25,6 +25,7 @@ import net.sf.jasperreports.engine.JasperReport;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.util.Map;
 
 @Data
@@ -39,6 +40,8 @@ public class SimpleJasperReportFiller {
 
     @SneakyThrows
     public JasperPrint fillReport(JasperReport compiledReport, Map<String, Object> parameters) {
-        return JasperFillManager.fillReport(compiledReport, parameters, dataSource.getConnection());
+        try (Connection connection = dataSource.getConnection()) {
+            return JasperFillManager.fillReport(compiledReport, parameters, connection);
+        }
     }
 }
@@ -53,8 +53,7 @@ public class XLSXReportsService implements SecuredReportsService, UnsecuredRepor
         // TODO Implement a password protected archive for the resulting file
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToXlsx(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToXlsx(print, reportsDirectory + reportName, applicationName);
         return reportsDirectory + reportName;
     }
 
@@ -63,8 +62,7 @@ public class XLSXReportsService implements SecuredReportsService, UnsecuredRepor
 
         JasperReport compiledReport = compiler.compileReport(reportsDirectory + reportFileLocation);
         JasperPrint print = simpleReportFiller.fillReport(compiledReport, parameters);
-        simpleExporter.setJasperPrint(print);
-        simpleExporter.exportToXlsx(reportsDirectory + reportName, applicationName);
+        simpleExporter.exportToXlsx(print, reportsDirectory + reportName, applicationName);
         return reportsDirectory + reportName;
     }
 
@@ -23,6 +23,8 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+
 public class AbstractReportAttachmentService<DTO> {
 
     private static final Logger log = LoggerFactory.getLogger("ReportAttachmentService");
@@ -46,11 +48,18 @@ public class AbstractReportAttachmentService<DTO> {
 
         log.debug("Fetching report named : {}", reportFileName);
 
-        byte[] reportAttachment = fileStorageService.load(reportFileName).getInputStream().readAllBytes();
+        byte[] reportAttachment;
+        try (InputStream reportStream = fileStorageService.load(reportFileName).getInputStream()) {
+            reportAttachment = reportStream.readAllBytes();
+        }
 
         log.debug("Attaching report retrieved to DTO designation : {} ", one.getReportName());
         one.setReportAttachment(reportAttachment);
-        one.setChecksum(fileStorageService.calculateMD5CheckSum(reportFileName));
+
+        // The checksum recorded at generation is served as is; the file is only re-read when none was recorded
+        if (one.getFileChecksum() == null) {
+            one.setChecksum(fileStorageService.calculateMD5CheckSum(reportFileName));
+        }
 
         log.debug("Report attachment completed successfully in {} milliseconds; sending attached report to the client  ", System.currentTimeMillis() - startup);
         return one;
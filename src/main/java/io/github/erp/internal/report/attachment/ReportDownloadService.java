@@ -0,0 +1,86 @@
+package io.github.erp.internal.report.attachment;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.files.FileStorageService;
+import io.github.erp.internal.files.StreamingFileDownload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Streams a generated report from the reports directory to the client. Unlike the attachment
+ * services, the file is not read into the DTO and its checksum is not recalculated: the checksum
+ * stored when the report was generated is served as the ETag
+ */
+@Service
+public class ReportDownloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportDownloadService.class);
+
+    private final FileStorageService fileStorageService;
+
+    public ReportDownloadService(@Qualifier("reportsFSStorageService") FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    public ResponseEntity<StreamingResponseBody> download(
+        UUID reportId,
+        String reportName,
+        String fileChecksum,
+        String fileExtension,
+        String contentType,
+        HttpHeaders requestHeaders
+    ) throws IOException {
+        if (reportId == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String reportFileName = reportId.toString().concat(fileExtension);
+
+        log.debug("Streaming report named : {} for report designation : {}", reportFileName, reportName);
+
+        return StreamingFileDownload.of(reportFile(reportFileName), downloadName(reportName, reportFileName, fileExtension), contentType, fileChecksum, requestHeaders);
+    }
+
+    private Path reportFile(String reportFileName) {
+        try {
+            Resource resource = fileStorageService.load(reportFileName);
+            return resource == null ? null : resource.getFile().toPath();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report file {} could not be resolved in the reports directory", reportFileName, e);
+            return null;
+        }
+    }
+
+    private static String downloadName(String reportName, String reportFileName, String fileExtension) {
+        if (reportName == null || reportName.isBlank()) {
+            return reportFileName;
+        }
+        return reportName.endsWith(fileExtension) ? reportName : reportName.concat(fileExtension);
+    }
+}
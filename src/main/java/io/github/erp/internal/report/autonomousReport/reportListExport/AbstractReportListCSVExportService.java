@@ -288,14 +288,13 @@ package io.github.erp.internal.report.autonomousReport.reportListExport;
 
 import io.github.erp.internal.files.FileStorageService;
 import io.github.erp.internal.report.ReportsProperties;
-import io.github.erp.internal.report.CSVDynamicConverterService;
+import io.github.erp.internal.report.CSVReportCodec;
 import io.github.erp.service.AutonomousReportService;
 import io.github.erp.service.dto.ApplicationUserDTO;
 import io.github.erp.service.dto.AutonomousReportDTO;
 
-import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -324,15 +323,10 @@ public abstract class AbstractReportListCSVExportService<T> implements ReportLis
     @Override
     public void executeReport(List<T> reportList, LocalDate reportDate, String fileName, String reportName) throws IOException {
 
-        ByteArrayOutputStream csvByteArray = CSVDynamicConverterService.convertToCSV(reportList);
-
         String reportPath = reportsProperties.getReportsDirectory().concat("/").concat(fileName).concat(".csv");
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(reportPath)) {
-            csvByteArray.writeTo(fileOutputStream);
-        }
-
-        String fileChecksum = fileStorageService.calculateSha512CheckSum(fileName + ".csv");
+        // The checksum is calculated as the file is written, so it is not read back
+        String fileChecksum = CSVReportCodec.writeReport(reportList, Paths.get(reportPath));
 
         AutonomousReportDTO autoReport = new AutonomousReportDTO();
         autoReport.setReportName(reportName);
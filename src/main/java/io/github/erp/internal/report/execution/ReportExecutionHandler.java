@@ -0,0 +1,101 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.service.dto.ApplicationUserDTO;
+
+import java.util.Optional;
+
+/**
+ * Generates the reports of one report type on behalf of the {@link ReportExecutionScheduler}.
+ * <p>
+ * Requisitions are only referenced by id in the job table, so the handler has to be able to
+ * look a requisition up again when a queued job is resumed after a restart
+ * </p>
+ *
+ * @param <T> Type of the report requisition
+ */
+public interface ReportExecutionHandler<T> {
+
+    /**
+     * @return Name under which jobs of this report type are queued, limited and measured
+     */
+    String getReportType();
+
+    /**
+     * @return Jobs with a higher priority are started ahead of others of the same report type
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * @return Maximum number of reports of this type generated at the same time, unless overridden
+     * in the erp.report-execution.type-limits configuration
+     */
+    default int getConcurrencyLimit() {
+        return 2;
+    }
+
+    Long requisitionId(T requisition);
+
+    Optional<T> findRequisition(Long requisitionId);
+
+    /**
+     * Generate the report and record the outcome on the requisition
+     */
+    void execute(T requisition);
+
+    /**
+     * Identifies the design and parameters of the report; requisitions with the same fingerprint
+     * as one that is still queued are collapsed into it rather than run again. Requisitions whose
+     * output cannot be shared, for instance because it is protected with the requester's password,
+     * return null and are never collapsed
+     */
+    default String fingerprint(T requisition) {
+        return null;
+    }
+
+    /**
+     * Point a collapsed requisition at the output generated for the requisition it was collapsed into
+     *
+     * @param generated requisition that was run
+     * @param collapsed requisition that was collapsed into it
+     */
+    default void shareOutput(T generated, T collapsed) {
+        execute(collapsed);
+    }
+
+    /**
+     * @return Tenant against whose concurrency limit the requisition counts, or null for the
+     * current user
+     */
+    default String tenantOf(T requisition) {
+        return null;
+    }
+
+    /**
+     * The requesting user's organisation, where the requisition records one
+     */
+    static String organisationOf(ApplicationUserDTO requestedBy) {
+        if (requestedBy == null || requestedBy.getOrganization() == null) {
+            return null;
+        }
+        return requestedBy.getOrganization().getDealerName();
+    }
+}
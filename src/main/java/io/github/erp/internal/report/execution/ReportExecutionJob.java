@@ -0,0 +1,203 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A report requisition queued for generation by the {@link ReportExecutionScheduler}. The table is
+ * the durable record of the queue, so that requisitions outstanding at shutdown are picked up again
+ * on the next start
+ */
+@Entity
+@Table(name = "report_execution_job", indexes = {
+    @Index(name = "idx_report_execution_job_status", columnList = "status"),
+    @Index(name = "idx_report_execution_job_fingerprint", columnList = "report_type, fingerprint"),
+    @Index(name = "idx_report_execution_job_leader", columnList = "leader_job_id")
+})
+public class ReportExecutionJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "report_type", nullable = false)
+    private String reportType;
+
+    @Column(name = "requisition_id", nullable = false)
+    private Long requisitionId;
+
+    @Column(name = "tenant", nullable = false)
+    private String tenant;
+
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ReportExecutionStatus status;
+
+    @Column(name = "leader_job_id")
+    private Long leaderJobId;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private Instant enqueuedAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getReportType() {
+        return reportType;
+    }
+
+    public void setReportType(String reportType) {
+        this.reportType = reportType;
+    }
+
+    public Long getRequisitionId() {
+        return requisitionId;
+    }
+
+    public void setRequisitionId(Long requisitionId) {
+        this.requisitionId = requisitionId;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public ReportExecutionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportExecutionStatus status) {
+        this.status = status;
+    }
+
+    public Long getLeaderJobId() {
+        return leaderJobId;
+    }
+
+    public void setLeaderJobId(Long leaderJobId) {
+        this.leaderJobId = leaderJobId;
+    }
+
+    public Instant getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(Instant enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReportExecutionJob)) {
+            return false;
+        }
+        return id != null && id.equals(((ReportExecutionJob) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ReportExecutionJob{" +
+            "id=" + getId() +
+            ", reportType='" + getReportType() + "'" +
+            ", requisitionId=" + getRequisitionId() +
+            ", tenant='" + getTenant() + "'" +
+            ", priority=" + getPriority() +
+            ", status='" + getStatus() + "'" +
+            ", leaderJobId=" + getLeaderJobId() +
+            "}";
+    }
+}
@@ -0,0 +1,417 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.repository.ReportExecutionJobRepository;
+import io.github.erp.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs report requisitions off the request thread, one priority queue per report type.
+ * <p>
+ * Every requisition is recorded in the report_execution_job table before it is queued, and the queues
+ * are rebuilt from the table on start-up, so that requisitions survive a restart. At most max-concurrent
+ * reports are generated at a time, no more than the report type's limit for any one type and no more
+ * than tenant-limit for any one tenant; the report types are served in turn so that a burst of one
+ * type does not hold up the others. A requisition with the same design and parameters as one still
+ * queued is collapsed into it and receives a copy of its output.
+ * </p>
+ * <p>
+ * Jobs are claimed in the table with conditional updates when they are resumed and again when they
+ * are started, so that a job is run once even when several instances share the table. The table is
+ * never written while the scheduler's lock is held.
+ * </p>
+ * <p>
+ * Queue depth, waiting time and running time are published as erp.report.execution.* metrics
+ * </p>
+ */
+@Service
+public class ReportExecutionScheduler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportExecutionScheduler.class);
+
+    private static final Comparator<ReportExecutionJob> QUEUE_ORDER =
+        Comparator.comparingInt(ReportExecutionJob::getPriority).reversed().thenComparing(ReportExecutionJob::getId);
+
+    private static final String SYSTEM_TENANT = "system";
+
+    private final ReportExecutionJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ReportExecutionHandler<?>> handlerProvider;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final int maxConcurrent;
+    private final int tenantLimit;
+    private final ExecutorService executor;
+
+    // The following are guarded by this
+    private Map<String, ReportExecutionHandler<?>> handlers;
+    private final Map<String, NavigableSet<ReportExecutionJob>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> runningByType = new HashMap<>();
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private int running;
+
+    public ReportExecutionScheduler(
+        ReportExecutionJobRepository jobRepository,
+        PlatformTransactionManager transactionManager,
+        ObjectProvider<ReportExecutionHandler<?>> handlerProvider,
+        MeterRegistry meterRegistry,
+        Environment environment,
+        @Value("${erp.report-execution.max-concurrent:4}") int maxConcurrent,
+        @Value("${erp.report-execution.tenant-limit:2}") int tenantLimit
+    ) {
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlerProvider = handlerProvider;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.maxConcurrent = maxConcurrent;
+        this.tenantLimit = tenantLimit;
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, new CustomizableThreadFactory("report-execution-"));
+
+        Gauge.builder("erp.report.execution.running", this, ReportExecutionScheduler::getRunning)
+            .description("Reports being generated")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a requisition for generation by the handler of the report type
+     *
+     * @return the job recording the requisition
+     */
+    public <T> ReportExecutionJob submit(String reportType, T requisition) {
+        ReportExecutionHandler<T> handler = handler(reportType);
+
+        ReportExecutionJob job = new ReportExecutionJob();
+        job.setReportType(reportType);
+        job.setRequisitionId(handler.requisitionId(requisition));
+        job.setTenant(tenantOf(handler, requisition));
+        job.setPriority(handler.getPriority());
+        job.setFingerprint(handler.fingerprint(requisition));
+        job.setEnqueuedAt(Instant.now());
+
+        if (job.getFingerprint() != null) {
+            ReportExecutionJob collapsed = transactionTemplate.execute(status -> collapse(job));
+
+            if (collapsed != null) {
+                Counter.builder("erp.report.execution.collapsed").tag("report.type", reportType).register(meterRegistry).increment();
+                log.info("{} requisition id {} is identical to queued job id {} and has been collapsed into it", reportType, job.getRequisitionId(), collapsed.getLeaderJobId());
+                return collapsed;
+            }
+        }
+
+        job.setStatus(ReportExecutionStatus.QUEUED);
+        ReportExecutionJob queued = jobRepository.save(job);
+        synchronized (this) {
+            queue(reportType).add(queued);
+        }
+
+        log.info("{} requisition id {} queued as job id {} for tenant {}", reportType, queued.getRequisitionId(), queued.getId(), queued.getTenant());
+
+        dispatch();
+
+        return queued;
+    }
+
+    /**
+     * Collapse the job into a queued job with the same fingerprint, if there is one. The leader's row
+     * stays locked until the collapsed job is committed, so the leader cannot be started, and the
+     * output shared, without it
+     *
+     * @return the collapsed job, or null if there is no queued job to collapse it into
+     */
+    private ReportExecutionJob collapse(ReportExecutionJob job) {
+        ReportExecutionJob leader = jobRepository
+            .findFirstByReportTypeAndFingerprintAndStatusInOrderByIdAsc(job.getReportType(), job.getFingerprint(), List.of(ReportExecutionStatus.QUEUED))
+            .orElse(null);
+
+        if (leader == null || jobRepository.lockIfInStatus(leader.getId(), ReportExecutionStatus.QUEUED) == 0) {
+            return null;
+        }
+
+        job.setStatus(ReportExecutionStatus.COLLAPSED);
+        job.setLeaderJobId(leader.getId());
+        return jobRepository.save(job);
+    }
+
+    /**
+     * Requeue the jobs that were outstanding when the application last stopped. Jobs that were running
+     * did not finish and are run again, unless another instance has requeued them first
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOutstandingJobs() {
+        Map<String, ReportExecutionHandler<?>> handlers = handlers();
+        List<ReportExecutionJob> resumed = new ArrayList<>();
+
+        for (ReportExecutionStatus status : List.of(ReportExecutionStatus.RUNNING, ReportExecutionStatus.QUEUED)) {
+            for (ReportExecutionJob job : jobRepository.findAllByStatusOrderByIdAsc(status)) {
+                if (!handlers.containsKey(job.getReportType())) {
+                    job.setStatus(ReportExecutionStatus.FAILED);
+                    job.setFailureMessage("No report execution handler for report type " + job.getReportType());
+                    jobRepository.save(job);
+                    continue;
+                }
+                if (jobRepository.claim(job.getId(), status, ReportExecutionStatus.QUEUED, null) == 0) {
+                    continue;
+                }
+                job.setStatus(ReportExecutionStatus.QUEUED);
+                job.setStartedAt(null);
+                resumed.add(job);
+            }
+        }
+
+        synchronized (this) {
+            resumed.forEach(job -> queue(job.getReportType()).add(job));
+        }
+
+        if (!resumed.isEmpty()) {
+            log.info("Resuming {} outstanding report execution jobs", resumed.size());
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Start as many queued jobs as the limits allow. Jobs that another instance has started in the
+     * meantime give their place up to the next in line
+     */
+    private void dispatch() {
+        List<ReportExecutionJob> startable = takeStartable();
+        while (!startable.isEmpty()) {
+            boolean lost = false;
+            for (ReportExecutionJob job : startable) {
+                if (!start(job)) {
+                    release(job);
+                    lost = true;
+                }
+            }
+            startable = lost ? takeStartable() : List.of();
+        }
+    }
+
+    /**
+     * Take as many jobs off the queues as the limits allow, taking the report types in turn, and count
+     * them as running
+     */
+    private synchronized List<ReportExecutionJob> takeStartable() {
+        List<ReportExecutionJob> startable = new ArrayList<>();
+        boolean taken = true;
+        while (taken && running < maxConcurrent) {
+            taken = false;
+            for (Map.Entry<String, NavigableSet<ReportExecutionJob>> queue : queues.entrySet()) {
+                if (running >= maxConcurrent) {
+                    return startable;
+                }
+                if (runningByType.getOrDefault(queue.getKey(), 0) >= typeLimit(queue.getKey())) {
+                    continue;
+                }
+                for (ReportExecutionJob job : queue.getValue()) {
+                    if (runningByTenant.getOrDefault(job.getTenant(), 0) < tenantLimit) {
+                        queue.getValue().remove(job);
+                        running++;
+                        runningByType.merge(job.getReportType(), 1, Integer::sum);
+                        runningByTenant.merge(job.getTenant(), 1, Integer::sum);
+                        startable.add(job);
+                        taken = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return startable;
+    }
+
+    private synchronized void release(ReportExecutionJob job) {
+        running--;
+        runningByType.merge(job.getReportType(), -1, Integer::sum);
+        runningByTenant.merge(job.getTenant(), -1, Integer::sum);
+    }
+
+    /**
+     * @return false if the job is no longer queued, or could not be claimed; it then stays in the table
+     * as it is, and a job still queued there is resumed on the next start
+     */
+    private boolean start(ReportExecutionJob job) {
+        Instant startedAt = Instant.now();
+        try {
+            if (jobRepository.claim(job.getId(), ReportExecutionStatus.QUEUED, ReportExecutionStatus.RUNNING, startedAt) == 0) {
+                log.debug("Report execution job id {} is no longer queued and has not been started", job.getId());
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to start report execution job id {}", job.getId(), e);
+            return false;
+        }
+
+        job.setStatus(ReportExecutionStatus.RUNNING);
+        job.setStartedAt(startedAt);
+
+        Timer.builder("erp.report.execution.wait")
+            .description("Time report requisitions spend queued")
+            .tag("report.type", job.getReportType())
+            .register(meterRegistry)
+            .record(Duration.between(job.getEnqueuedAt(), job.getStartedAt()));
+
+        executor.execute(() -> run(job));
+        return true;
+    }
+
+    private <T> void run(ReportExecutionJob job) {
+        ReportExecutionHandler<T> handler = handler(job.getReportType());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+
+        try {
+            T requisition = handler.findRequisition(job.getRequisitionId())
+                .orElseThrow(() -> new IllegalStateException(job.getReportType() + " requisition id " + job.getRequisitionId() + " was not found"));
+
+            handler.execute(requisition);
+
+            finish(job, ReportExecutionStatus.COMPLETED, null);
+
+            shareOutput(handler, job, requisition);
+
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Report execution job id {} for {} requisition id {} has failed", job.getId(), job.getReportType(), job.getRequisitionId(), e);
+
+            finish(job, ReportExecutionStatus.FAILED, e.getMessage());
+
+            for (ReportExecutionJob collapsed : jobRepository.findAllByLeaderJobIdAndStatus(job.getId(), ReportExecutionStatus.COLLAPSED)) {
+                finish(collapsed, ReportExecutionStatus.FAILED, "Collapsed into job id " + job.getId() + " which has failed");
+            }
+        } finally {
+            sample.stop(
+                Timer.builder("erp.report.execution.run")
+                    .description("Time taken to generate reports")
+                    .tag("report.type", job.getReportType())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+            );
+
+            release(job);
+            dispatch();
+        }
+    }
+
+    /**
+     * Only queued jobs take on collapsed requisitions, so once the job has left the queue the set of
+     * requisitions collapsed into it is final
+     */
+    private <T> void shareOutput(ReportExecutionHandler<T> handler, ReportExecutionJob job, T generated) {
+        for (ReportExecutionJob collapsed : jobRepository.findAllByLeaderJobIdAndStatus(job.getId(), ReportExecutionStatus.COLLAPSED)) {
+            try {
+                handler.findRequisition(collapsed.getRequisitionId()).ifPresent(requisition -> handler.shareOutput(generated, requisition));
+                finish(collapsed, ReportExecutionStatus.COMPLETED, null);
+            } catch (RuntimeException e) {
+                log.error("Unable to share the output of job id {} with collapsed job id {}", job.getId(), collapsed.getId(), e);
+                finish(collapsed, ReportExecutionStatus.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(ReportExecutionJob job, ReportExecutionStatus status, String failureMessage) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+        job.setFailureMessage(failureMessage == null ? null : failureMessage.substring(0, Math.min(failureMessage.length(), 1000)));
+        jobRepository.save(job);
+    }
+
+    private int typeLimit(String reportType) {
+        return environment.getProperty("erp.report-execution.type-limits." + reportType, Integer.class, handlers.get(reportType).getConcurrencyLimit());
+    }
+
+    private <T> String tenantOf(ReportExecutionHandler<T> handler, T requisition) {
+        String tenant = handler.tenantOf(requisition);
+        if (tenant != null) {
+            return tenant;
+        }
+        return SecurityUtils.getCurrentUserLogin().orElse(SYSTEM_TENANT);
+    }
+
+    private NavigableSet<ReportExecutionJob> queue(String reportType) {
+        return queues.computeIfAbsent(reportType, type -> {
+            NavigableSet<ReportExecutionJob> queue = new TreeSet<>(QUEUE_ORDER);
+            Gauge.builder("erp.report.execution.queue.depth", this, scheduler -> scheduler.queueDepth(type))
+                .description("Report requisitions waiting to be generated")
+                .tag("report.type", type)
+                .register(meterRegistry);
+            return queue;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> ReportExecutionHandler<T> handler(String reportType) {
+        ReportExecutionHandler<?> handler = handlers().get(reportType);
+        if (handler == null) {
+            throw new IllegalArgumentException("No report execution handler for report type " + reportType);
+        }
+        return (ReportExecutionHandler<T>) handler;
+    }
+
+    private synchronized Map<String, ReportExecutionHandler<?>> handlers() {
+        if (handlers == null) {
+            handlers = new HashMap<>();
+            handlerProvider.orderedStream().forEach(handler -> handlers.put(handler.getReportType(), handler));
+        }
+        return handlers;
+    }
+
+    synchronized int queueDepth(String reportType) {
+        NavigableSet<ReportExecutionJob> queue = queues.get(reportType);
+        return queue == null ? 0 : queue.size();
+    }
+
+    synchronized int getRunning() {
+        return running;
+    }
+
+    @Override
+    public void destroy() {
+        // Jobs interrupted here are still marked as running, and are run again on the next start
+        executor.shutdownNow();
+    }
+}
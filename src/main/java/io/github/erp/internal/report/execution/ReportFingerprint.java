@@ -0,0 +1,55 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Digest of a report's type and parameters used to recognise identical requisitions
+ */
+public final class ReportFingerprint {
+
+    private ReportFingerprint() {}
+
+    /**
+     * @param reportType report type of the requisition
+     * @param parameters values, or ids of entities, that determine the content of the report
+     * @return hex encoded SHA-256 digest
+     */
+    public static String of(String reportType, Object... parameters) {
+        String design = reportType + Arrays.stream(parameters).map(String::valueOf).collect(Collectors.joining("|", "|", ""));
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha256().digest(design.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this platform", e);
+        }
+    }
+}
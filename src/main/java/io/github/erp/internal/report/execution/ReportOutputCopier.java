@@ -0,0 +1,92 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.report.ReportsProperties;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Copies a generated report file in the reports directory for a requisition that was collapsed
+ * into the one that generated it. Report file-names are unique to each requisition, so the
+ * collapsed requisition gets a copy of its own under a new name; the content and therefore the
+ * checksum are unchanged
+ */
+@Component
+public class ReportOutputCopier {
+
+    private final ReportsProperties reportsProperties;
+
+    public ReportOutputCopier(ReportsProperties reportsProperties) {
+        this.reportsProperties = reportsProperties;
+    }
+
+    /**
+     * Give a collapsed requisition its own copy of the report generated for the requisition it was
+     * collapsed into, together with its checksum and parameters, and save it. The requisitions are
+     * expected to have the filename, fileChecksum and reportParameters properties of the report
+     * requisition DTOs
+     *
+     * @param generated requisition that was run
+     * @param collapsed requisition that was collapsed into it
+     * @param extension extension of the report file, for instance ".csv"
+     * @param save persists the collapsed requisition
+     */
+    public <T> void shareOutput(T generated, T collapsed, String extension, Consumer<T> save) {
+        BeanWrapper source = new BeanWrapperImpl(generated);
+        BeanWrapper target = new BeanWrapperImpl(collapsed);
+
+        target.setPropertyValue("filename", copy((UUID) source.getPropertyValue("filename"), extension));
+        target.setPropertyValue("fileChecksum", source.getPropertyValue("fileChecksum"));
+        target.setPropertyValue("reportParameters", source.getPropertyValue("reportParameters"));
+
+        save.accept(collapsed);
+    }
+
+    /**
+     * @param filename name of the generated report, without the extension
+     * @param extension extension of the report file, for instance ".csv"
+     * @return name of the copy, or null if no report was generated
+     */
+    public UUID copy(UUID filename, String extension) {
+        if (filename == null) {
+            return null;
+        }
+
+        UUID copyName = UUID.randomUUID();
+        try {
+            Files.copy(reportPath(filename + extension), reportPath(copyName + extension));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to copy report " + filename + extension, e);
+        }
+        return copyName;
+    }
+
+    private Path reportPath(String filename) {
+        return Paths.get(reportsProperties.getReportsDirectory(), filename);
+    }
+}
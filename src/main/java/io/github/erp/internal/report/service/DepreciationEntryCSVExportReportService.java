@@ -17,6 +17,7 @@ package io.github.erp.internal.report.service;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.DepreciationEntryInternal;
 import io.github.erp.domain.DepreciationReport;
 import io.github.erp.internal.files.FileStorageService;
 import io.github.erp.internal.report.AbstractAssetsReportListCSVExportService;
@@ -26,16 +27,14 @@ import io.github.erp.internal.repository.InternalDepreciationReportRepository;
 import io.github.erp.repository.DepreciationPeriodRepository;
 import io.github.erp.service.DepreciationReportService;
 import io.github.erp.service.dto.DepreciationReportDTO;
-import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -71,14 +70,12 @@ public class DepreciationEntryCSVExportReportService
 
         this.depreciationReportDTO = depreciationReportDTO;
 
-        Optional<List<DepreciationEntryVM>> depreciationEntryList = getEntries(depreciationReportDTO);
+        depreciationPeriodRepository.findById(depreciationReportDTO.getDepreciationPeriod().getId()).ifPresent(period -> {
 
-        depreciationEntryList.ifPresent(reportList -> {
-
-            try {
+            try (Stream<DepreciationEntryInternal> entries = internalDepreciationEntryRepository.streamDepreciationEntryByDepreciationPeriod(period.getId())) {
                 UUID fileName = UUID.randomUUID();
 
-                String fileChecksum = super.executeReport(reportList, fileName.toString());
+                String fileChecksum = super.executeReport(entries.map(depreciationEntryInternalMapper::toValue2), fileName.toString());
 
                 depreciationReportDTO.setFileChecksum(fileChecksum);
                 depreciationReportDTO.setFilename(fileName);
@@ -116,15 +113,6 @@ public class DepreciationEntryCSVExportReportService
         return parameters;
     }
 
-    @NotNull
-    private Optional<List<DepreciationEntryVM>> getEntries(DepreciationReportDTO depreciationReportDTO) {
-        return depreciationPeriodRepository.findById(depreciationReportDTO.getDepreciationPeriod().getId())
-            .map(period ->
-                internalDepreciationEntryRepository.getDepreciationEntryByDepreciationPeriodEquals(period.getId(), Pageable.ofSize(Integer.MAX_VALUE))
-                    .getContent())
-            .map(depreciationEntryInternalMapper::toValue2);
-    }
-
     @Override
     protected String getOutletCode() {
         return depreciationReportDTO.getServiceOutlet().getOutletCode();
@@ -29,16 +29,13 @@ import io.github.erp.repository.NbvReportRepository;
 import io.github.erp.service.NbvReportService;
 import io.github.erp.service.dto.NbvReportDTO;
 import io.github.erp.service.mapper.ApplicationUserMapper;
-import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * This service creates a report and saves the report on the file system
@@ -78,14 +75,12 @@ public class NetBookValueEntryCSVExportReportService
 
         this.reportDTO = nbvReportDTO;
 
-        Optional<List<NetBookValueEntryVM>> entryList = getEntries(nbvReportDTO);
+        depreciationPeriodRepository.findById(nbvReportDTO.getDepreciationPeriod().getId()).ifPresent(period -> {
 
-        entryList.ifPresent(reportList -> {
-
-            try {
+            try (Stream<NetBookValueEntryInternal> entries = internalNetBookValueEntryRepository.streamNBVEntryByDepreciationPeriod(period.getId())) {
                 UUID fileName = UUID.randomUUID();
 
-                String fileChecksum = super.executeReport(reportList, fileName.toString());
+                String fileChecksum = super.executeReport(entries.map(netBookValueEntryVMMapping::toValue2), fileName.toString());
 
                 nbvReportDTO.setFileChecksum(fileChecksum);
                 nbvReportDTO.setFilename(fileName);
@@ -99,17 +94,6 @@ public class NetBookValueEntryCSVExportReportService
         });
     }
 
-    @NotNull
-    private Optional<List<NetBookValueEntryVM>> getEntries(NbvReportDTO nbvReportDTO) {
-
-        return depreciationPeriodRepository.findById(nbvReportDTO.getDepreciationPeriod().getId())
-            .map(period ->
-                internalNetBookValueEntryRepository
-                    .getNBVEntryByDepreciationPeriod(period.getId(), Pageable.ofSize(Integer.MAX_VALUE))
-                    .getContent())
-            .map(netBookValueEntryVMMapping::toValue2);
-    }
-
     @Override
     protected String getOutletCode() {
         if (reportDTO != null && reportDTO.getAssetCategory() != null && reportDTO.getAssetCategory().getAssetCategoryName() != null) {
@@ -0,0 +1,232 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.TransactionAccount;
+import io.github.erp.internal.ledger.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintenance and reads of the monthly account balance snapshots, together with the
+ * transaction_details queries that feed them
+ */
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+
+    /**
+     * Advisory lock spaces of snapshot maintenance: one key for maintenance as a whole, and one
+     * per account
+     */
+    int SNAPSHOT_LOCKS = 20261018;
+    int ACCOUNT_LOCKS = 20261019;
+
+    Optional<AccountBalanceSnapshot> findByTransactionAccountIdAndPeriodStart(Long transactionAccountId, LocalDate periodStart);
+
+    Optional<AccountBalanceSnapshot> findFirstByTransactionAccountIdAndPeriodStartLessThanOrderByPeriodStartDesc(
+        Long transactionAccountId, LocalDate periodStart);
+
+    /**
+     * Carries a change in one month's movements into the opening and closing balances of the
+     * account's later snapshots
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        "UPDATE AccountBalanceSnapshot s " +
+        "SET s.openingBalance = s.openingBalance + :net, s.closingBalance = s.closingBalance + :net " +
+        "WHERE s.transactionAccountId = :accountId AND s.periodStart > :periodStart"
+    )
+    int shiftLaterPeriods(@Param("accountId") Long accountId, @Param("periodStart") LocalDate periodStart, @Param("net") BigDecimal net);
+
+    /**
+     * Excludes all other snapshot maintenance across the cluster for the rest of the transaction,
+     * for work such as a rebuild that touches every account
+     */
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(" + SNAPSHOT_LOCKS + ", 0)) l")
+    Long lockMaintenance();
+
+    /**
+     * Holds off {@link #lockMaintenance()} for the rest of the transaction while letting other
+     * postings proceed
+     */
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock_shared(" + SNAPSHOT_LOCKS + ", 0)) l")
+    Long lockMaintenanceShared();
+
+    /**
+     * Serialises snapshot maintenance of the given accounts across the cluster for the rest of the
+     * transaction. The locks are taken in id order, so that postings touching overlapping accounts
+     * queue rather than deadlock
+     */
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT COUNT(*) FROM (" +
+            "    SELECT pg_advisory_xact_lock(" + ACCOUNT_LOCKS + ", CAST(MOD(ta.id, 2147483647) AS integer)) " +
+            "    FROM transaction_account ta " +
+            "    WHERE ta.id IN (:accountIds) " +
+            "    ORDER BY ta.id" +
+            ") l"
+    )
+    Long lockAccounts(@Param("accountIds") Collection<Long> accountIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE account_balance_snapshot_state SET rebuilt_on = CURRENT_TIMESTAMP WHERE id = 1")
+    void recordRebuild();
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT td.id AS id, td.debit_account_id AS debitAccountId, td.credit_account_id AS creditAccountId, " +
+            "    td.transaction_date AS transactionDate, td.amount AS amount, td.balance_snapshot_applied AS applied " +
+            "FROM transaction_details td " +
+            "WHERE td.balance_snapshot_applied = false " +
+            "ORDER BY td.id " +
+            "LIMIT :limit"
+    )
+    List<LedgerEntry> findUnappliedEntries(@Param("limit") int limit);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT td.id AS id, td.debit_account_id AS debitAccountId, td.credit_account_id AS creditAccountId, " +
+            "    td.transaction_date AS transactionDate, td.amount AS amount, td.balance_snapshot_applied AS applied " +
+            "FROM transaction_details td " +
+            "WHERE td.posting_id = :postingId AND td.balance_snapshot_applied = false " +
+            "ORDER BY td.id"
+    )
+    List<LedgerEntry> findUnappliedEntriesOfPosting(@Param("postingId") UUID postingId);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT td.id AS id, td.debit_account_id AS debitAccountId, td.credit_account_id AS creditAccountId, " +
+            "    td.transaction_date AS transactionDate, td.amount AS amount, td.balance_snapshot_applied AS applied " +
+            "FROM transaction_details td " +
+            "WHERE td.id IN (:ids) AND td.balance_snapshot_applied = false " +
+            "ORDER BY td.id"
+    )
+    List<LedgerEntry> findUnappliedEntriesIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT td.id AS id, td.debit_account_id AS debitAccountId, td.credit_account_id AS creditAccountId, " +
+            "    td.transaction_date AS transactionDate, td.amount AS amount, td.balance_snapshot_applied AS applied " +
+            "FROM transaction_details td " +
+            "WHERE td.id = :id"
+    )
+    Optional<LedgerEntry> findEntry(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE transaction_details SET balance_snapshot_applied = :applied WHERE id IN (:ids)")
+    void markEntries(@Param("ids") Collection<Long> ids, @Param("applied") boolean applied);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE transaction_details SET balance_snapshot_applied = false WHERE balance_snapshot_applied = true")
+    int markAllEntriesUnapplied();
+
+    /**
+     * Closing balance of each account's latest snapshot before the given month
+     */
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT s.transaction_account_id AS accountId, s.closing_balance AS balance " +
+            "FROM account_balance_snapshot s " +
+            "WHERE s.period_start = (" +
+            "    SELECT MAX(x.period_start) FROM account_balance_snapshot x " +
+            "    WHERE x.transaction_account_id = s.transaction_account_id AND x.period_start < :periodStart" +
+            ")"
+    )
+    List<AccountBalance> findSnapshotBalancesBefore(@Param("periodStart") LocalDate periodStart);
+
+    /**
+     * Movements not yet in the snapshots returned by {@link #findSnapshotBalancesBefore}: everything
+     * from the start of the report month to the report date, and unapplied entries before it
+     */
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT e.account_id AS accountId, SUM(e.amount) AS balance " +
+            "FROM (" +
+            "    SELECT td.credit_account_id AS account_id, td.amount AS amount " +
+            "    FROM transaction_details td " +
+            "    WHERE td.transaction_date <= :reportDate " +
+            "        AND (td.transaction_date >= :periodStart OR td.balance_snapshot_applied = false) " +
+            "    UNION ALL " +
+            "    SELECT td.debit_account_id AS account_id, -td.amount AS amount " +
+            "    FROM transaction_details td " +
+            "    WHERE td.transaction_date <= :reportDate " +
+            "        AND (td.transaction_date >= :periodStart OR td.balance_snapshot_applied = false) " +
+            ") e " +
+            "GROUP BY e.account_id"
+    )
+    List<AccountBalance> findDeltaBalances(@Param("periodStart") LocalDate periodStart, @Param("reportDate") LocalDate reportDate);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT td.debit_account_id FROM transaction_details td WHERE td.transaction_date BETWEEN :fromDate AND :toDate " +
+            "UNION " +
+            "SELECT td.credit_account_id FROM transaction_details td WHERE td.transaction_date BETWEEN :fromDate AND :toDate"
+    )
+    List<Long> findAccountsWithEntriesBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT f.startDate FROM FiscalYear f WHERE :reportDate BETWEEN f.startDate AND f.endDate")
+    List<LocalDate> findFiscalYearStart(@Param("reportDate") LocalDate reportDate);
+
+    @Query("SELECT r.retainedEarningsAccount FROM ReportingEntity r WHERE r.id = :reportingEntityId")
+    Optional<TransactionAccount> findRetainedEarningsAccount(@Param("reportingEntityId") Long reportingEntityId);
+
+    /**
+     * A transaction_details row as it bears on account balances
+     */
+    interface LedgerEntry {
+        Long getId();
+
+        Long getDebitAccountId();
+
+        Long getCreditAccountId();
+
+        Date getTransactionDate();
+
+        BigDecimal getAmount();
+
+        Boolean getApplied();
+    }
+
+    /**
+     * Balance of an account, or the part of it covered by one source
+     */
+    interface AccountBalance {
+        Long getAccountId();
+
+        BigDecimal getBalance();
+    }
+}
@@ -18,6 +18,7 @@ package io.github.erp.internal.repository;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetDisposal;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetDisposalInternal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +29,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -92,4 +94,18 @@ public interface InternalAssetDisposalRepository extends JpaRepository<AssetDisp
             "AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE)"
     )
     Optional<List<AssetDisposal>> findAssetDisposal(@Param("disposedAssetId")Long disposedAssetId, @Param("depreciationPeriodStartDate")LocalDate depreciationPeriodStartDate);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT " +
+            "   CAST(ad.asset_disposed_id AS BIGINT) AS assetId, " +
+            "   COALESCE(SUM(ad.asset_cost), 0) AS adjustmentAmount " +
+            " FROM public.asset_disposal ad " +
+            " LEFT JOIN depreciation_period dp ON ad.effective_period_id = dp.id " +
+            " WHERE ad.asset_disposed_id IN (:assetIds) " +
+            " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE) " +
+            " GROUP BY ad.asset_disposed_id"
+    )
+    List<AssetAmountAdjustmentTuple> findDisposalAmounts(@Param("assetIds") Collection<Long> assetIds, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
 }
@@ -17,6 +17,7 @@ package io.github.erp.internal.repository;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetGeneralAdjustment;
 import io.github.erp.context.assets.domain.AssetRevaluation;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,6 +27,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,4 +79,18 @@ public interface InternalAssetGeneralAdjustmentRepository
             " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE)"
     )
     Optional<List<AssetGeneralAdjustment>> findAssetGeneralAdjustment(@Param("revaluedAssetId")Long revaluedAssetId, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT " +
+            "   CAST(aga.asset_registration_id AS BIGINT) AS assetId, " +
+            "   COALESCE(SUM(aga.devaluation_amount), 0) AS adjustmentAmount " +
+            " FROM public.asset_general_adjustment aga " +
+            " LEFT JOIN depreciation_period dp ON aga.effective_period_id = dp.id " +
+            " WHERE aga.asset_registration_id IN (:assetIds) " +
+            " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE) " +
+            " GROUP BY aga.asset_registration_id"
+    )
+    List<AssetAmountAdjustmentTuple> findGeneralAdjustmentAmounts(@Param("assetIds") Collection<Long> assetIds, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
 }
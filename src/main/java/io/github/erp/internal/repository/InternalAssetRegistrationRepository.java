@@ -18,6 +18,7 @@ package io.github.erp.internal.repository;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.AssetIdAndCostTuple;
 import io.github.erp.repository.AssetRegistrationRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +30,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,6 +62,25 @@ public interface InternalAssetRegistrationRepository
     )
     Optional<AssetRegistration> findOneWithEagerRelationships(@Param("id") Long id);
 
+    /**
+     * Applied in the depreciation module to fetch a batch of assets in a single round-trip
+     * together with the relationships that are mapped to the DTO
+     *
+     * @param ids of the assets in the batch
+     * @return assets matching the ids
+     */
+    @Query(
+        "select distinct assetRegistration " +
+            "from AssetRegistration assetRegistration " +
+            "left join fetch assetRegistration.placeholders " +
+            "left join fetch assetRegistration.assetCategory " +
+            "left join fetch assetRegistration.dealer " +
+            "left join fetch assetRegistration.settlementCurrency " +
+            "left join fetch assetRegistration.mainServiceOutlet " +
+            "where assetRegistration.id in :ids"
+    )
+    List<AssetRegistration> findAllWithEagerRelationshipsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Applied in the depreciation module to exclude items capitalised after the end-date
      * of the depreciation period in the depreciation-job
@@ -79,6 +100,29 @@ public interface InternalAssetRegistrationRepository
     )
     List<Long> getAssetIdsByCapitalizationDateBefore(@Param("endDate") LocalDate capitalizationDate);
 
+    long countByCapitalizationDateLessThanEqual(LocalDate capitalizationDate);
+
+    /**
+     * Keyset page of the assets capitalised on or before the end-date, in order of id
+     *
+     * @param capitalizationDate end-date of the depreciation period
+     * @param lastAssetId id of the last asset of the previous page, or zero for the first page
+     * @param pageSize maximum number of assets in the page
+     * @return ids and costs of the assets in the page
+     */
+    @Query(nativeQuery = true,
+        value = "select " +
+            "  a.id as assetId, " +
+            "  a.asset_cost as assetCost " +
+            "from asset_registration a " +
+            "  where " +
+            "  a.capitalization_date <= :endDate " +
+            "  and a.id > :lastAssetId " +
+            "order by a.id " +
+            "limit :pageSize"
+    )
+    List<AssetIdAndCostTuple> findAssetIdsAndCostsAfter(@Param("endDate") LocalDate capitalizationDate, @Param("lastAssetId") Long lastAssetId, @Param("pageSize") int pageSize);
+
     @Query(nativeQuery = true,
         value = "select " +
             "  coalesce (sum(a.asset_cost),0) " +
@@ -19,6 +19,7 @@ package io.github.erp.internal.repository;
  */
 import io.github.erp.context.assets.domain.AssetDisposal;
 import io.github.erp.context.assets.domain.AssetRevaluation;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -28,6 +29,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -90,4 +92,18 @@ public interface InternalAssetRevaluationRepository extends JpaRepository<AssetR
             " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE)"
     )
     Optional<List<AssetRevaluation>> findAssetRevaluation(@Param("revaluedAssetId")Long revaluedAssetId, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT " +
+            "   CAST(ar.revalued_asset_id AS BIGINT) AS assetId, " +
+            "   COALESCE(SUM(ar.devaluation_amount), 0) AS adjustmentAmount " +
+            " FROM public.asset_revaluation ar " +
+            " LEFT JOIN depreciation_period dp ON ar.effective_period_id = dp.id " +
+            " WHERE ar.revalued_asset_id IN (:assetIds) " +
+            " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE) " +
+            " GROUP BY ar.revalued_asset_id"
+    )
+    List<AssetAmountAdjustmentTuple> findRevaluationAmounts(@Param("assetIds") Collection<Long> assetIds, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
 }
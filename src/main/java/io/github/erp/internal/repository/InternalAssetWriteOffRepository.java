@@ -18,6 +18,7 @@ package io.github.erp.internal.repository;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetDisposal;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetWriteOff;
 import io.github.erp.domain.AssetWriteOffInternal;
 import org.springframework.data.domain.Page;
@@ -29,6 +30,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -66,4 +68,18 @@ public interface InternalAssetWriteOffRepository extends JpaRepository<AssetWrit
         "  aw.asset_written_off_id= :assetWrittenOffId " +
         "  AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE)")
     Optional<List<AssetWriteOffInternal>> findAssetWriteOff(@Param("assetWrittenOffId") Long assetWrittenOffId, @Param("depreciationPeriodStartDate")LocalDate depreciationPeriodStartDate);
+
+    @Query(
+        nativeQuery = true,
+        value = "" +
+            "SELECT " +
+            "   CAST(aw.asset_written_off_id AS BIGINT) AS assetId, " +
+            "   COALESCE(SUM(aw.write_off_amount), 0) AS adjustmentAmount " +
+            " FROM public.asset_write_off aw " +
+            " LEFT JOIN depreciation_period dp ON aw.effective_period_id = dp.id " +
+            " WHERE aw.asset_written_off_id IN (:assetIds) " +
+            " AND dp.start_date <= CAST ( :depreciationPeriodStartDate AS DATE) " +
+            " GROUP BY aw.asset_written_off_id"
+    )
+    List<AssetAmountAdjustmentTuple> findWriteOffAmounts(@Param("assetIds") Collection<Long> assetIds, @Param("depreciationPeriodStartDate") LocalDate depreciationPeriodStartDate);
 }
@@ -18,15 +18,38 @@ package io.github.erp.internal.repository;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.domain.DepreciationBatchSequence;
+import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
 import io.github.erp.repository.DepreciationBatchSequenceRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface InternalDepreciationBatchSequenceRepository
     extends DepreciationBatchSequenceRepository,
     JpaRepository<DepreciationBatchSequence, Long>, JpaSpecificationExecutor<DepreciationBatchSequence> {
 
     Page<DepreciationBatchSequence> findByDepreciationJobId(Long id, Pageable pageable);
+
+    /**
+     * Move the given batches to a status in a single statement, leaving alone those that have
+     * already moved on from the expected status
+     *
+     * @return the number of batches updated
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        "update DepreciationBatchSequence batch set batch.depreciationBatchStatus = :status " +
+        "where batch.id in :ids and batch.depreciationBatchStatus = :expected"
+    )
+    int updateBatchStatusByIds(
+        @Param("ids") Collection<Long> ids,
+        @Param("expected") DepreciationBatchStatusType expected,
+        @Param("status") DepreciationBatchStatusType status
+    );
 }
@@ -27,8 +27,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 public interface InternalDepreciationEntryItemRepository
     extends DepreciationEntryReportItemRepository,
     JpaRepository<DepreciationEntryReportItem, Long>,
@@ -46,7 +52,7 @@ public interface InternalDepreciationEntryItemRepository
         DepreciationPeriod depreciationPeriod, AssetCategory assetCategory, Pageable pageable
     );
 
-    @Query(value = "SELECT " +
+    String DEPRECIATION_ENTRY_BY_PERIOD_QUERY = "SELECT " +
         "     de.id as id, " +
         "     ar.asset_details as assetRegistrationDetails, " +
         "     posted_at as postedAt, " +
@@ -74,8 +80,20 @@ public interface InternalDepreciationEntryItemRepository
         "  LEFT JOIN depreciation_method dm ON de.depreciation_method_id = dm.id" +
         "  LEFT JOIN asset_registration ar ON de.asset_registration_id = ar.id " +
         "WHERE " +
-        "pd.id = :depreciationPeriodId", nativeQuery = true)
+        "pd.id = :depreciationPeriodId";
+
+    @Query(value = DEPRECIATION_ENTRY_BY_PERIOD_QUERY, nativeQuery = true)
     Page<DepreciationEntryInternal> getDepreciationEntryByDepreciationPeriodEquals (
         @Param("depreciationPeriodId") Long depreciationPeriodId, Pageable pageable
     );
+
+    /**
+     * Streams the entries of the depreciation period for report exports, fetching rows
+     * from the database cursor in chunks instead of materialising the whole period
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = DEPRECIATION_ENTRY_BY_PERIOD_QUERY, nativeQuery = true)
+    Stream<DepreciationEntryInternal> streamDepreciationEntryByDepreciationPeriod(
+        @Param("depreciationPeriodId") Long depreciationPeriodId
+    );
 }
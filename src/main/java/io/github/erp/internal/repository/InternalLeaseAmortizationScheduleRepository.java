@@ -25,6 +25,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.security.config.web.servlet.PortMapperDsl;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -50,4 +52,16 @@ public interface InternalLeaseAmortizationScheduleRepository
             " WHERE contract.booking_id = :bookingId"
     )
     Optional<LeaseAmortizationSchedule> findAdjacentScheduleByBookingId(@Param("bookingId") String bookingId);
+
+    /**
+     * Extract the schedules adjacent to several lease-contracts
+     *
+     * @param leaseContractIds ids of the IFRS16-lease-contracts
+     * @return Schedule instances
+     */
+    @Query(
+        "select leaseAmortizationSchedule from LeaseAmortizationSchedule leaseAmortizationSchedule " +
+            "where leaseAmortizationSchedule.leaseContract.id in :leaseContractIds"
+    )
+    List<LeaseAmortizationSchedule> findAllByLeaseContractIds(@Param("leaseContractIds") Collection<Long> leaseContractIds);
 }
@@ -18,13 +18,45 @@ package io.github.erp.internal.repository;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.domain.LeaseLiability;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Spring Data SQL repository for the LeaseLiability entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface InternalLeaseLiabilityRepository extends JpaRepository<LeaseLiability, Long>, JpaSpecificationExecutor<LeaseLiability> {}
+public interface InternalLeaseLiabilityRepository extends JpaRepository<LeaseLiability, Long>, JpaSpecificationExecutor<LeaseLiability> {
+
+    @Query("select leaseLiability.id from LeaseLiability leaseLiability order by leaseLiability.id")
+    List<Long> findAllIds();
+
+    /**
+     * Keyset page of liability ids in the range (lastId, maxId]
+     */
+    @Query(
+        "select leaseLiability.id from LeaseLiability leaseLiability " +
+            "where leaseLiability.id > :lastId and leaseLiability.id <= :maxId " +
+            "order by leaseLiability.id"
+    )
+    List<Long> findIdsInRange(@Param("lastId") long lastId, @Param("maxId") long maxId, Pageable pageable);
+
+    /**
+     * Liabilities with the contract and amortization calculation needed to compile their schedules
+     */
+    @Query(
+        "select leaseLiability from LeaseLiability leaseLiability " +
+            "join fetch leaseLiability.leaseContract " +
+            "left join fetch leaseLiability.leaseAmortizationCalculation " +
+            "where leaseLiability.id in :ids " +
+            "order by leaseLiability.id"
+    )
+    List<LeaseLiability> findAllForCompilation(@Param("ids") Collection<Long> ids);
+}
@@ -24,6 +24,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,4 +50,17 @@ public interface InternalLeasePaymentRepository extends JpaRepository<LeasePayme
             "WHERE lease_contract_id=:leaseContractId"
     )
     Optional<List<LeasePayment>> findLeasePaymentsForLeaseContract(@Param("leaseContractId") Long leaseContractId);
+
+    /**
+     * Lease-payments of several lease-contracts in contract and payment-date order
+     *
+     * @param leaseContractIds ids of the IFRS16-lease-contracts
+     * @return list of adjacent lease-payment instances
+     */
+    @Query(
+        "select leasePayment from LeasePayment leasePayment " +
+            "where leasePayment.leaseContract.id in :leaseContractIds " +
+            "order by leasePayment.leaseContract.id, leasePayment.paymentDate, leasePayment.id"
+    )
+    List<LeasePayment> findLeasePaymentsForLeaseContracts(@Param("leaseContractIds") Collection<Long> leaseContractIds);
 }
@@ -24,11 +24,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Spring Data SQL repository for the NetBookValueEntry entity.
@@ -49,7 +54,7 @@ public interface InternalNetBookValueEntryRepository extends JpaRepository<NetBo
     )
     Optional<NetBookValueEntry> findOneWithEagerRelationships(@Param("id") Long id);
 
-    @Query(value = "" +
+    String NBV_ENTRY_BY_PERIOD_QUERY = "" +
         "SELECT " +
         "    nbv.id AS id," +
         "    nbv.asset_number AS assetNumber, " +
@@ -77,7 +82,17 @@ public interface InternalNetBookValueEntryRepository extends JpaRepository<NetBo
         "    LEFT JOIN fiscal_month mon ON pd.fiscal_month_id = mon.id " +
         "    LEFT JOIN asset_category cat ON nbv.asset_category_id = cat.id " +
         "    LEFT JOIN depreciation_method dep ON cat.depreciation_method_id = dep.id " +
-        "WHERE pd.id = :depreciationPeriodId", nativeQuery = true)
+        "WHERE pd.id = :depreciationPeriodId";
+
+    @Query(value = NBV_ENTRY_BY_PERIOD_QUERY, nativeQuery = true)
     Page<NetBookValueEntryInternal> getNBVEntryByDepreciationPeriod(@Param("depreciationPeriodId") Long depreciationPeriodId, Pageable pageable);
 
+    /**
+     * Streams the NBV entries of the depreciation period for report exports, fetching rows
+     * from the database cursor in chunks instead of materialising the whole period
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = NBV_ENTRY_BY_PERIOD_QUERY, nativeQuery = true)
+    Stream<NetBookValueEntryInternal> streamNBVEntryByDepreciationPeriod(@Param("depreciationPeriodId") Long depreciationPeriodId);
+
 }
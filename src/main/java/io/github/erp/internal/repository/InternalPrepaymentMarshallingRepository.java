@@ -19,9 +19,14 @@ package io.github.erp.internal.repository;
  */
 import io.github.erp.domain.PrepaymentMarshalling;
 import io.github.erp.repository.PrepaymentMarshallingRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,4 +36,36 @@ public interface InternalPrepaymentMarshallingRepository extends
     JpaSpecificationExecutor<PrepaymentMarshalling> {
 
     List<PrepaymentMarshalling> findPrepaymentMarshallingsByCompilationTokenEquals(UUID compilationToken);
+
+    @Query(
+        "select count(m) from PrepaymentMarshalling m " +
+        "where coalesce(m.inactive, false) = false and coalesce(m.processed, false) = false"
+    )
+    long countUnprocessed();
+
+    /**
+     * Keyset page of the active marshalling items not yet compiled, in order of id, with the
+     * prepayment accounts and the relations the amortization rows are built from
+     *
+     * @param lastMarshallingId id of the last item of the previous page, or zero for the first page
+     * @param pageable first page of the requested size
+     * @return the items of the page
+     */
+    @Query(
+        "select m from PrepaymentMarshalling m " +
+        "join fetch m.prepaymentAccount account " +
+        "join fetch m.firstFiscalMonth " +
+        "join fetch m.firstAmortizationPeriod " +
+        "left join fetch account.debitAccount " +
+        "left join fetch account.transferAccount " +
+        "left join fetch account.settlementCurrency " +
+        "where coalesce(m.inactive, false) = false and coalesce(m.processed, false) = false " +
+        "and m.id > :lastMarshallingId " +
+        "order by m.id"
+    )
+    List<PrepaymentMarshalling> findUnprocessedAfter(@Param("lastMarshallingId") long lastMarshallingId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update PrepaymentMarshalling m set m.processed = true, m.compilationToken = :compilationToken where m.id in :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("compilationToken") UUID compilationToken);
 }
@@ -0,0 +1,56 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.events.ProcessedDomainEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedDomainEventRepository extends JpaRepository<ProcessedDomainEvent, UUID> {
+
+    /**
+     * Takes over a claim still in progress since before staleBefore. The condition is evaluated on
+     * the locked row, so of several deliveries racing for the same stale claim only one updates it
+     *
+     * @return 1 if the claim was taken over, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        "UPDATE ProcessedDomainEvent p SET p.processedOn = :claimedOn " +
+        "WHERE p.eventId = :eventId AND p.completed = false AND p.processedOn < :staleBefore"
+    )
+    int reclaimStale(
+        @Param("eventId") UUID eventId,
+        @Param("claimedOn") Instant claimedOn,
+        @Param("staleBefore") Instant staleBefore
+    );
+
+    @Modifying
+    @Query("UPDATE ProcessedDomainEvent p SET p.completed = true, p.processedOn = :completedOn WHERE p.eventId IN :eventIds")
+    int markCompleted(@Param("eventIds") Collection<UUID> eventIds, @Param("completedOn") Instant completedOn);
+}
@@ -0,0 +1,67 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.report.execution.ReportExecutionJob;
+import io.github.erp.internal.report.execution.ReportExecutionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportExecutionJobRepository extends JpaRepository<ReportExecutionJob, Long> {
+
+    Optional<ReportExecutionJob> findFirstByReportTypeAndFingerprintAndStatusInOrderByIdAsc(
+        String reportType, String fingerprint, Collection<ReportExecutionStatus> statuses);
+
+    List<ReportExecutionJob> findAllByStatusOrderByIdAsc(ReportExecutionStatus status);
+
+    List<ReportExecutionJob> findAllByLeaderJobIdAndStatus(Long leaderJobId, ReportExecutionStatus status);
+
+    /**
+     * Move the job to another status, provided it is still in the expected one, so that of several
+     * instances moving the same job only one succeeds
+     *
+     * @return 1 if the job was moved, 0 if its status had already changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportExecutionJob job SET job.status = :status, job.startedAt = :startedAt WHERE job.id = :id AND job.status = :expected")
+    int claim(
+        @Param("id") Long id,
+        @Param("expected") ReportExecutionStatus expected,
+        @Param("status") ReportExecutionStatus status,
+        @Param("startedAt") Instant startedAt);
+
+    /**
+     * Lock the job's row for the rest of the caller's transaction, provided it is still in the given status
+     *
+     * @return 1 if the job was locked, 0 if its status had changed
+     */
+    @Modifying
+    @Query("UPDATE ReportExecutionJob job SET job.status = job.status WHERE job.id = :id AND job.status = :status")
+    int lockIfInStatus(@Param("id") Long id, @Param("status") ReportExecutionStatus status);
+}
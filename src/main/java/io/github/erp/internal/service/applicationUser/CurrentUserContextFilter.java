@@ -233,7 +233,6 @@ package io.github.erp.internal.service.applicationUser;
 
 import io.github.erp.security.jwt.TokenProvider;
 import io.github.erp.service.mapper.ApplicationUserMapper;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -279,13 +278,13 @@ public class CurrentUserContextFilter extends GenericFilterBean  implements Filt
 
             String jwtToken = resolveToken(httpRequest);
 
-            if (StringUtils.hasText(jwtToken) && this.tokenProvider.validateToken(jwtToken)) {
-                Authentication authentication = this.tokenProvider.getAuthentication(jwtToken);
-
-                internalApplicationUserDetailService
-                    .getCorrespondingApplicationUser((UserDetails) authentication.getPrincipal())
-                    .map(applicationUserMapper::toEntity)
-                    .ifPresentOrElse(CurrentUserContext::setCurrentUser, CurrentUserContext::clearCurrentUser);
+            if (StringUtils.hasText(jwtToken)) {
+                this.tokenProvider.authenticate(jwtToken).ifPresent(authentication ->
+                    internalApplicationUserDetailService
+                        .getCorrespondingApplicationUser((UserDetails) authentication.getPrincipal())
+                        .map(applicationUserMapper::toEntity)
+                        .ifPresentOrElse(CurrentUserContext::setCurrentUser, CurrentUserContext::clearCurrentUser)
+                );
             }
 
             chain.doFilter(request, response);
@@ -17,6 +17,7 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.service.criteria.AssetDisposalCriteria;
 import io.github.erp.service.dto.AssetDisposalDTO;
 import org.springframework.data.domain.Page;
@@ -24,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -104,4 +106,14 @@ public interface InternalAssetDisposalService {
      */
     @Transactional(readOnly = true)
     public Page<AssetDisposalDTO> findByCriteria(AssetDisposalCriteria criteria, Pageable page);
+
+    /**
+     * Get the total disposal amounts for each of the assets in a single grouped query.
+     * Assets without disposal events effective before the period are not included
+     *
+     * @param assetIds ids of the assets in the batch
+     * @param depreciationPeriodStartDate start-date of the depreciation-period
+     * @return total disposal amount per asset
+     */
+    List<AssetAmountAdjustmentTuple> findDisposalAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate);
 }
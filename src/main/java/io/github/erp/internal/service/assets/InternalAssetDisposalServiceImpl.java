@@ -18,6 +18,7 @@ package io.github.erp.internal.service.assets;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetDisposal;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.events.DomainEventPublisher;
 import io.github.erp.domain.events.asset.AssetDisposedEvent;
 import io.github.erp.erp.assets.nbv.buffer.BufferedSinkProcessor;
@@ -39,6 +40,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -214,4 +216,12 @@ public class InternalAssetDisposalServiceImpl implements InternalAssetDisposalSe
 
         return assetDisposalQueryService.findByCriteria(criteria, page);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetAmountAdjustmentTuple> findDisposalAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate) {
+        log.debug("Request to get disposal amounts for {} assets", assetIds.size());
+
+        return assetDisposalRepository.findDisposalAmounts(assetIds, depreciationPeriodStartDate);
+    }
 }
@@ -17,6 +17,7 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.service.criteria.AssetGeneralAdjustmentCriteria;
 import io.github.erp.service.dto.AssetGeneralAdjustmentDTO;
 import io.github.erp.service.dto.AssetRevaluationDTO;
@@ -24,6 +25,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -97,4 +99,14 @@ public interface InternalAssetGeneralAdjustmentService {
      * @return the matching entities.
      */
     Page<AssetGeneralAdjustmentDTO> findByCriteria(AssetGeneralAdjustmentCriteria criteria, Pageable pageable);
+
+    /**
+     * Get the total general-adjustment amounts for each of the assets in a single grouped query.
+     * Assets without general-adjustment events effective before the period are not included
+     *
+     * @param assetIds ids of the assets in the batch
+     * @param depreciationPeriodStartDate start-date of the depreciation-period
+     * @return total general-adjustment amount per asset
+     */
+    List<AssetAmountAdjustmentTuple> findGeneralAdjustmentAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate);
 }
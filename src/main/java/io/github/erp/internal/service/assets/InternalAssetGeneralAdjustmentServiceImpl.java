@@ -17,6 +17,7 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetGeneralAdjustment;
 import io.github.erp.internal.repository.InternalAssetGeneralAdjustmentRepository;
 import io.github.erp.internal.service.applicationUser.InternalApplicationUserDetailService;
@@ -35,6 +36,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -183,4 +185,12 @@ public class InternalAssetGeneralAdjustmentServiceImpl implements InternalAssetG
 
       return assetGeneralAdjustmentQueryService.findByCriteria(criteria, pageable);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetAmountAdjustmentTuple> findGeneralAdjustmentAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate) {
+        log.debug("Request to get general-adjustment amounts for {} assets", assetIds.size());
+
+        return assetGeneralAdjustmentRepository.findGeneralAdjustmentAmounts(assetIds, depreciationPeriodStartDate);
+    }
 }
@@ -17,11 +17,13 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetIdAndCostTuple;
 import io.github.erp.service.dto.AssetRegistrationDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -91,6 +93,32 @@ public interface InternalAssetRegistrationService {
      */
     List<AssetRegistrationDTO> findByCapitalizationDateBefore(LocalDate capitalizationDate);
 
+    /**
+     * Number of assets capitalised on or before the date
+     *
+     * @param capitalizationDate end-date of the depreciation period
+     * @return the number of assets
+     */
+    long countByCapitalizationDateBefore(LocalDate capitalizationDate);
+
+    /**
+     * Page through the ids and costs of the assets capitalised on or before the date, in order of id
+     *
+     * @param capitalizationDate end-date of the depreciation period
+     * @param lastAssetId id of the last asset of the previous page, or zero for the first page
+     * @param pageSize maximum number of assets in the page
+     * @return ids and costs of the next page of assets
+     */
+    List<AssetIdAndCostTuple> findAssetIdsAndCostsCapitalizedBefore(LocalDate capitalizationDate, Long lastAssetId, int pageSize);
+
+    /**
+     * Get the assetRegistrations matching the ids in a single query
+     *
+     * @param ids of the assetRegistrations
+     * @return the list of entities
+     */
+    List<AssetRegistrationDTO> findAllByIds(Collection<Long> ids);
+
     /**
      * Calculate the next asset-number.
      *
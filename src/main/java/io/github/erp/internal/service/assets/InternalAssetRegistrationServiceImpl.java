@@ -18,6 +18,7 @@ package io.github.erp.internal.service.assets;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.AssetIdAndCostTuple;
 import io.github.erp.domain.events.DomainEventPublisher;
 import io.github.erp.domain.events.asset.AssetCategoryChangedEvent;
 import io.github.erp.domain.events.asset.AssetCreatedEvent;
@@ -43,6 +44,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -243,6 +245,29 @@ public class InternalAssetRegistrationServiceImpl implements InternalAssetRegist
             .stream().map(assetRegistrationMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long countByCapitalizationDateBefore(LocalDate capitalizationDate) {
+
+        return internalAssetRegistrationRepository.countByCapitalizationDateLessThanEqual(capitalizationDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetIdAndCostTuple> findAssetIdsAndCostsCapitalizedBefore(LocalDate capitalizationDate, Long lastAssetId, int pageSize) {
+
+        return internalAssetRegistrationRepository.findAssetIdsAndCostsAfter(capitalizationDate, lastAssetId, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetRegistrationDTO> findAllByIds(Collection<Long> ids) {
+        log.debug("Request to get {} AssetRegistrations by id", ids.size());
+
+        return internalAssetRegistrationRepository.findAllWithEagerRelationshipsByIdIn(ids)
+            .stream().map(assetRegistrationMapper::toDto).collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long calculateNextAssetNumber() {
@@ -17,12 +17,14 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.service.dto.AssetDisposalDTO;
 import io.github.erp.service.dto.AssetRevaluationDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -94,4 +96,14 @@ public interface InternalAssetRevaluationService {
      * @return the entities
      */
     Optional<List<AssetRevaluationDTO>> findRevaluedItems(Long revaluedAssetId, LocalDate depreciationPeriodStartDate);
+
+    /**
+     * Get the total revaluation amounts for each of the assets in a single grouped query.
+     * Assets without revaluation events effective before the period are not included
+     *
+     * @param assetIds ids of the assets in the batch
+     * @param depreciationPeriodStartDate start-date of the depreciation-period
+     * @return total revaluation amount per asset
+     */
+    List<AssetAmountAdjustmentTuple> findRevaluationAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate);
 }
@@ -18,6 +18,7 @@ package io.github.erp.internal.service.assets;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.context.assets.domain.AssetRevaluation;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.events.DomainEventPublisher;
 import io.github.erp.domain.events.asset.AssetRevaluedEvent;
 import io.github.erp.internal.repository.InternalAssetRevaluationRepository;
@@ -32,6 +33,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -171,4 +173,12 @@ public class InternalAssetRevaluationServiceImpl implements InternalAssetRevalua
         return assetRevaluationRepository.findAssetRevaluation(revaluedAssetId, depreciationPeriodStartDate)
             .map(assetRevaluationMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetAmountAdjustmentTuple> findRevaluationAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate) {
+        log.debug("Request to get revaluation amounts for {} assets", assetIds.size());
+
+        return assetRevaluationRepository.findRevaluationAmounts(assetIds, depreciationPeriodStartDate);
+    }
 }
@@ -17,6 +17,7 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetWriteOffInternal;
 import io.github.erp.service.criteria.AssetWriteOffCriteria;
 import io.github.erp.service.dto.AssetWriteOffDTO;
@@ -25,6 +26,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -108,4 +111,14 @@ public interface InternalAssetWriteOffService {
      * @return the matching entities.
      */
     Page<AssetWriteOffDTO> findByCriteria(AssetWriteOffCriteria criteria, Pageable pageable);
+
+    /**
+     * Get the total write-off amounts for each of the assets in a single grouped query.
+     * Assets without write-off events effective before the period are not included
+     *
+     * @param assetIds ids of the assets in the batch
+     * @param depreciationPeriodStartDate start-date of the depreciation-period
+     * @return total write-off amount per asset
+     */
+    List<AssetAmountAdjustmentTuple> findWriteOffAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate);
 }
@@ -17,6 +17,7 @@ package io.github.erp.internal.service.assets;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
 import io.github.erp.domain.AssetWriteOff;
 import io.github.erp.domain.AssetWriteOffInternal;
 import io.github.erp.erp.assets.nbv.buffer.BufferedSinkProcessor;
@@ -30,6 +31,8 @@ import io.github.erp.service.dto.AssetWriteOffDTO;
 import io.github.erp.service.dto.DepreciationPeriodDTO;
 import io.github.erp.service.mapper.AssetWriteOffMapper;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -176,4 +179,12 @@ public class InternalAssetWriteOffServiceImpl implements InternalAssetWriteOffSe
 
         return assetWriteOffQueryService.findByCriteria(criteria, pageable);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AssetAmountAdjustmentTuple> findWriteOffAmounts(Collection<Long> assetIds, LocalDate depreciationPeriodStartDate) {
+        log.debug("Request to get write-off amounts for {} assets", assetIds.size());
+
+        return assetWriteOffRepository.findWriteOffAmounts(assetIds, depreciationPeriodStartDate);
+    }
 }
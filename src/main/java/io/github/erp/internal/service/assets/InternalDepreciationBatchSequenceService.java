@@ -0,0 +1,57 @@
+package io.github.erp.internal.service.assets;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
+import io.github.erp.service.dto.DepreciationBatchSequenceDTO;
+
+import java.util.List;
+
+/**
+ * Bulk operations on the batch-sequences of a depreciation-job
+ */
+public interface InternalDepreciationBatchSequenceService {
+
+    /**
+     * Save the batch-sequences of a job in a single transaction, with inserts batched by the
+     * persistence provider
+     *
+     * @param batchSequences to be created
+     * @return the persisted batch-sequences in the same order
+     */
+    List<DepreciationBatchSequenceDTO> saveAll(List<DepreciationBatchSequenceDTO> batchSequences);
+
+    /**
+     * Update the status of the given batches, and of their documents in the search index. Batches
+     * no longer in the expected status, such as those a consumer has already completed, are left as
+     * they are
+     *
+     * @param batchSequenceIds ids of the batch-sequences to be updated
+     * @param expected status the batches must still be in
+     * @param status new status
+     * @return number of batches updated
+     */
+    int updateBatchStatus(List<Long> batchSequenceIds, DepreciationBatchStatusType expected, DepreciationBatchStatusType status);
+
+    /**
+     * Delete the given batches, and their documents in the search index
+     *
+     * @param batchSequenceIds ids of the batch-sequences to be deleted
+     */
+    void deleteAll(List<Long> batchSequenceIds);
+}
@@ -0,0 +1,100 @@
+package io.github.erp.internal.service.assets;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.DepreciationBatchSequence;
+import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
+import io.github.erp.internal.repository.InternalDepreciationBatchSequenceRepository;
+import io.github.erp.repository.search.DepreciationBatchSequenceSearchRepository;
+import io.github.erp.service.dto.DepreciationBatchSequenceDTO;
+import io.github.erp.service.mapper.DepreciationBatchSequenceMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class InternalDepreciationBatchSequenceServiceImpl implements InternalDepreciationBatchSequenceService {
+
+    private final Logger log = LoggerFactory.getLogger(InternalDepreciationBatchSequenceServiceImpl.class);
+
+    private final InternalDepreciationBatchSequenceRepository depreciationBatchSequenceRepository;
+
+    private final DepreciationBatchSequenceMapper depreciationBatchSequenceMapper;
+
+    @Autowired(required = false)
+    private DepreciationBatchSequenceSearchRepository depreciationBatchSequenceSearchRepository;
+
+    public InternalDepreciationBatchSequenceServiceImpl(
+        InternalDepreciationBatchSequenceRepository depreciationBatchSequenceRepository,
+        DepreciationBatchSequenceMapper depreciationBatchSequenceMapper
+    ) {
+        this.depreciationBatchSequenceRepository = depreciationBatchSequenceRepository;
+        this.depreciationBatchSequenceMapper = depreciationBatchSequenceMapper;
+    }
+
+    @Override
+    public List<DepreciationBatchSequenceDTO> saveAll(List<DepreciationBatchSequenceDTO> batchSequences) {
+        log.debug("Request to save {} DepreciationBatchSequences", batchSequences.size());
+
+        List<DepreciationBatchSequence> saved = depreciationBatchSequenceRepository.saveAll(depreciationBatchSequenceMapper.toEntity(batchSequences));
+
+        if (depreciationBatchSequenceSearchRepository != null) {
+            depreciationBatchSequenceSearchRepository.saveAll(saved);
+        }
+
+        return depreciationBatchSequenceMapper.toDto(saved);
+    }
+
+    @Override
+    public int updateBatchStatus(List<Long> batchSequenceIds, DepreciationBatchStatusType expected, DepreciationBatchStatusType status) {
+        log.debug("Request to update {} DepreciationBatchSequences from {} to {}", batchSequenceIds.size(), expected, status);
+
+        if (batchSequenceIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = depreciationBatchSequenceRepository.updateBatchStatusByIds(batchSequenceIds, expected, status);
+
+        // The bulk update does not pass through the entities, so the search index is refreshed from the rows
+        if (depreciationBatchSequenceSearchRepository != null) {
+            depreciationBatchSequenceSearchRepository.saveAll(depreciationBatchSequenceRepository.findAllById(batchSequenceIds));
+        }
+
+        return updated;
+    }
+
+    @Override
+    public void deleteAll(List<Long> batchSequenceIds) {
+        log.debug("Request to delete {} DepreciationBatchSequences", batchSequenceIds.size());
+
+        if (batchSequenceIds.isEmpty()) {
+            return;
+        }
+
+        depreciationBatchSequenceRepository.deleteAllByIdInBatch(batchSequenceIds);
+
+        if (depreciationBatchSequenceSearchRepository != null) {
+            depreciationBatchSequenceSearchRepository.deleteAllById(batchSequenceIds);
+        }
+    }
+}
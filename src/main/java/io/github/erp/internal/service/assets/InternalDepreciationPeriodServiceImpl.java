@@ -24,6 +24,8 @@ import io.github.erp.service.dto.DepreciationPeriodDTO;
 import io.github.erp.service.mapper.DepreciationPeriodMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -50,6 +52,7 @@ public class InternalDepreciationPeriodServiceImpl implements InternalDepreciati
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public DepreciationPeriodDTO save(DepreciationPeriodDTO depreciationPeriodDTO) {
         log.debug("Request to save DepreciationPeriod : {}", depreciationPeriodDTO);
         DepreciationPeriod depreciationPeriod = depreciationPeriodMapper.toEntity(depreciationPeriodDTO);
@@ -60,6 +63,7 @@ public class InternalDepreciationPeriodServiceImpl implements InternalDepreciati
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationPeriodDTO> partialUpdate(DepreciationPeriodDTO depreciationPeriodDTO) {
         log.debug("Request to partially update DepreciationPeriod : {}", depreciationPeriodDTO);
 
@@ -88,12 +92,14 @@ public class InternalDepreciationPeriodServiceImpl implements InternalDepreciati
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "depreciationPeriods", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationPeriodDTO> findOne(Long id) {
         log.debug("Request to get DepreciationPeriod : {}", id);
         return depreciationPeriodRepository.findByIdEquals(id).map(depreciationPeriodMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete DepreciationPeriod : {}", id);
         depreciationPeriodRepository.deleteById(id);
@@ -23,6 +23,7 @@ import io.github.erp.domain.events.asset.AssetCategoryChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
@@ -43,8 +44,11 @@ public class CacheInvalidationService {
         log.debug("Asset category changed event received for asset {}, clearing asset cache", event.getAssetRegistrationNumber());
     }
 
-    @CacheEvict(value = {"assetRegistrations", "assetRegistrationIds", "transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "caffeineCacheManager")
+    @Caching(evict = {
+        @CacheEvict(value = {"assetRegistrations", "assetRegistrationIds"}, allEntries = true, cacheManager = "caffeineCacheManager"),
+        @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
+    })
     public void clearAllCaches() {
-        log.info("Clearing all Caffeine caches");
+        log.info("Clearing asset registration and transaction account caches");
     }
 }
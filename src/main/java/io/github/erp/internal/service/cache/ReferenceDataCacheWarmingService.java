@@ -20,31 +20,123 @@ package io.github.erp.internal.service.cache;
 
 import io.github.erp.erp.startUp.cache.AbstractStartupCacheUpdateService;
 import io.github.erp.internal.ErpCacheProperties;
+import io.github.erp.service.AssetCategoryService;
+import io.github.erp.service.DepreciationMethodService;
+import io.github.erp.service.DepreciationPeriodService;
+import io.github.erp.service.FiscalMonthService;
+import io.github.erp.service.ServiceOutletService;
+import io.github.erp.service.dto.AssetCategoryDTO;
+import io.github.erp.service.dto.DepreciationMethodDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import io.github.erp.service.dto.FiscalMonthDTO;
+import io.github.erp.service.dto.ServiceOutletDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Loads the reference data looked up by the depreciation, NBV and lease runs into the
+ * reference-data caches, a page at a time, so that the first run after start-up does not pay for
+ * the misses. Transaction accounts are warmed by {@link ScheduledTransactionAccountCacheRefreshServiceImpl}.
+ */
 @Service("referenceDataCacheWarmingService")
 public class ReferenceDataCacheWarmingService extends AbstractStartupCacheUpdateService {
 
+    private static final int PAGE_SIZE = 500;
+
+    private static final List<String> WARMED_CACHES = Arrays.asList(
+        "assetCategories",
+        "serviceOutlets",
+        "depreciationMethods",
+        "fiscalMonths",
+        "depreciationPeriods"
+    );
+
     private final Logger log = LoggerFactory.getLogger(ReferenceDataCacheWarmingService.class);
 
-    public ReferenceDataCacheWarmingService(ErpCacheProperties cacheProperties) {
+    private final CacheManager referenceDataCacheManager;
+    private final AssetCategoryService assetCategoryService;
+    private final ServiceOutletService serviceOutletService;
+    private final DepreciationMethodService depreciationMethodService;
+    private final FiscalMonthService fiscalMonthService;
+    private final DepreciationPeriodService depreciationPeriodService;
+
+    public ReferenceDataCacheWarmingService(
+        ErpCacheProperties cacheProperties,
+        @Qualifier("referenceDataCacheManager") CacheManager referenceDataCacheManager,
+        AssetCategoryService assetCategoryService,
+        ServiceOutletService serviceOutletService,
+        DepreciationMethodService depreciationMethodService,
+        FiscalMonthService fiscalMonthService,
+        DepreciationPeriodService depreciationPeriodService
+    ) {
         super(cacheProperties);
+        this.referenceDataCacheManager = referenceDataCacheManager;
+        this.assetCategoryService = assetCategoryService;
+        this.serviceOutletService = serviceOutletService;
+        this.depreciationMethodService = depreciationMethodService;
+        this.fiscalMonthService = fiscalMonthService;
+        this.depreciationPeriodService = depreciationPeriodService;
     }
 
     @Override
     public void refreshCache() {
         log.info("Warming reference data caches...");
-        log.info("Reference data cache warming completed");
+        long start = System.currentTimeMillis();
+
+        // Loaded the same way the cached findOne methods load them, so warmed entries are indistinguishable
+        int loaded = warm("assetCategories", assetCategoryService::findAllWithEagerRelationships, AssetCategoryDTO::getId);
+        loaded += warm("serviceOutlets", serviceOutletService::findAllWithEagerRelationships, ServiceOutletDTO::getId);
+        loaded += warm("depreciationMethods", depreciationMethodService::findAllWithEagerRelationships, DepreciationMethodDTO::getId);
+        loaded += warm("fiscalMonths", fiscalMonthService::findAllWithEagerRelationships, FiscalMonthDTO::getId);
+        loaded += warm("depreciationPeriods", depreciationPeriodService::findAll, DepreciationPeriodDTO::getId);
+
+        log.info("Reference data cache warming completed: {} entries in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    private <T> int warm(String cacheName, Function<Pageable, Page<T>> pageLoader, Function<T, Long> idOf) {
+        Cache cache = referenceDataCacheManager.getCache(cacheName);
+        if (cache == null) {
+            log.warn("Reference data cache {} is not configured, skipping warm-up", cacheName);
+            return 0;
+        }
+        int loaded = 0;
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        Page<T> page;
+        do {
+            page = pageLoader.apply(pageable);
+            for (T item : page.getContent()) {
+                cache.put(idOf.apply(item), item);
+                loaded++;
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+
+        log.debug("Warmed {} entries into reference data cache {}", loaded, cacheName);
+        return loaded;
     }
 
     @Override
-    @CacheEvict(value = "referenceData", allEntries = true, cacheManager = "caffeineCacheManager")
     public void clearCache() {
-        log.info("Clearing reference data cache");
+        log.info("Clearing reference data caches");
+        for (String cacheName : WARMED_CACHES) {
+            Cache cache = referenceDataCacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
     }
 
     @Scheduled(cron = "0 30 19 * * *") // Run every day at 19:30 (7:30 PM)
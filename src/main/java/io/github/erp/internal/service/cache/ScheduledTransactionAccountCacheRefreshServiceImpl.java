@@ -24,7 +24,6 @@ import io.github.erp.internal.service.ledgers.InternalTransactionAccountService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,8 +37,8 @@ public class ScheduledTransactionAccountCacheRefreshServiceImpl extends Abstract
     private final InternalTransactionAccountService internalDomainService;
 
     @Autowired
-    @Qualifier("caffeineCacheManager")
-    private CacheManager caffeineCacheManager;
+    @Qualifier("referenceDataCacheManager")
+    private CacheManager referenceDataCacheManager;
 
     public ScheduledTransactionAccountCacheRefreshServiceImpl(ErpCacheProperties cacheProperties, InternalTransactionAccountService internalDomainService) {
         super(cacheProperties);
@@ -47,17 +46,17 @@ public class ScheduledTransactionAccountCacheRefreshServiceImpl extends Abstract
     }
 
     public void refreshCache() {
-        if (caffeineCacheManager.getCache("transactionAccounts") != null) {
-            caffeineCacheManager.getCache("transactionAccounts").clear();
+        if (referenceDataCacheManager.getCache("transactionAccounts") != null) {
+            referenceDataCacheManager.getCache("transactionAccounts").clear();
         }
-        if (caffeineCacheManager.getCache("transactionAccountIds") != null) {
-            caffeineCacheManager.getCache("transactionAccountIds").clear();
+        if (referenceDataCacheManager.getCache("transactionAccountIds") != null) {
+            referenceDataCacheManager.getCache("transactionAccountIds").clear();
         }
         
         // Fetch all IDs to warm both caches
         List<Long> ids = internalDomainService.findAllIds();
         for (Long id : ids) {
-            internalDomainService.findOne(id); // Warms both Hazelcast and Caffeine
+            internalDomainService.findOne(id); // Warms both the shared and the node-local tier
         }
     }
 
@@ -73,13 +72,12 @@ public class ScheduledTransactionAccountCacheRefreshServiceImpl extends Abstract
         }
     }
 
-    @CacheEvict(cacheNames = "transactionAccounts", allEntries = true)
     public void clearCache() {
-        if (caffeineCacheManager.getCache("transactionAccounts") != null) {
-            caffeineCacheManager.getCache("transactionAccounts").clear();
+        if (referenceDataCacheManager.getCache("transactionAccounts") != null) {
+            referenceDataCacheManager.getCache("transactionAccounts").clear();
         }
-        if (caffeineCacheManager.getCache("transactionAccountIds") != null) {
-            caffeineCacheManager.getCache("transactionAccountIds").clear();
+        if (referenceDataCacheManager.getCache("transactionAccountIds") != null) {
+            referenceDataCacheManager.getCache("transactionAccountIds").clear();
         }
     }
 }
@@ -33,46 +33,46 @@ public class ExcelDeserializerContainer {
 
     @Bean("fixedAssetAcquisitionExcelFileDeserializer")
     public ExcelFileDeserializer<FixedAssetAcquisitionEVM> fixedAssetAcquisitionExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(FixedAssetAcquisitionEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(FixedAssetAcquisitionEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("fixedAssetDepreciationExcelFileDeserializer")
     public ExcelFileDeserializer<FixedAssetDepreciationEVM> fixedAssetDepreciationExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(FixedAssetDepreciationEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(FixedAssetDepreciationEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("fixedAssetNetBookValueExcelFileDeserializer")
     public ExcelFileDeserializer<FixedAssetNetBookValueEVM> fixedAssetNetBookValueExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(FixedAssetNetBookValueEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(FixedAssetNetBookValueEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("paymentLabelExcelFileDeserializer")
     public ExcelFileDeserializer<PaymentLabelEVM> paymentLabelExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(PaymentLabelEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(PaymentLabelEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("paymentCategoryExcelFileDeserializer")
     public ExcelFileDeserializer<PaymentCategoryEVM> paymentCategoryExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(PaymentCategoryEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(PaymentCategoryEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("paymentExcelFileDeserializer")
     public ExcelFileDeserializer<PaymentEVM> paymentExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(PaymentEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(PaymentEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("dealerExcelFileDeserializer")
     public ExcelFileDeserializer<DealerEVM> dealerExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(DealerEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(DealerEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("signedPaymentExcelFileDeserializer")
     public ExcelFileDeserializer<SignedPaymentEVM> signedPaymentExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(SignedPaymentEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(SignedPaymentEVM.class, getDefaultPoijiOptions());
     }
 
     @Bean("invoiceExcelFileDeserializer")
     public ExcelFileDeserializer<InvoiceEVM> invoiceExcelFileDeserializer() {
-        return excelFile -> new DefaultExcelFileDeserializer<>(InvoiceEVM.class, getDefaultPoijiOptions()).deserialize(excelFile);
+        return new DefaultExcelFileDeserializer<>(InvoiceEVM.class, getDefaultPoijiOptions());
     }
 }
@@ -19,6 +19,7 @@ package io.github.erp.internal.service.files;
  */
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.github.erp.domain.MessageToken;
+import io.github.erp.internal.framework.batch.DataFileStore;
 import io.github.erp.internal.framework.fileProcessing.FileUploadProcessorChain;
 import io.github.erp.internal.framework.service.FileUploadPersistenceService;
 import io.github.erp.internal.framework.service.HandlingService;
@@ -53,15 +54,18 @@ public class FileNotificationHandlingService implements HandlingService<FileNoti
     private final TokenPersistenceService<MessageTokenDTO, MessageToken> messageTokenService;
     private final FileUploadPersistenceService<FileUploadDTO> fileUploadService;
     private final FileUploadProcessorChain fileUploadProcessorChain;
+    private final DataFileStore dataFileStore;
 
     public FileNotificationHandlingService(TokenGenerator tokenGenerator,
                                            TokenPersistenceService<MessageTokenDTO, MessageToken> messageTokenService,
                                            FileUploadPersistenceService<FileUploadDTO> fileUploadService,
-                                           @Qualifier("fileUploadProcessorChain") FileUploadProcessorChain fileUploadProcessorChain ) {
+                                           @Qualifier("fileUploadProcessorChain") FileUploadProcessorChain fileUploadProcessorChain,
+                                           DataFileStore dataFileStore) {
         this.tokenGenerator = tokenGenerator;
         this.messageTokenService = messageTokenService;
         this.fileUploadService = fileUploadService;
         this.fileUploadProcessorChain = fileUploadProcessorChain;
+        this.dataFileStore = dataFileStore;
     }
 
     @Override
@@ -115,6 +119,8 @@ public class FileNotificationHandlingService implements HandlingService<FileNoti
         log.info("FileUploadDTO object fetched from DB with id: {}", fileUpload.getId());
         if (!PROCESSED_TOKENS.contains(payload.getMessageToken())) {
             log.info("Processing message with token {}", payload.getMessageToken().substring(0, Math.min(payload.getMessageToken().length(), 5)));
+            // The batch readers stream the data file from the store rather than from the upload record
+            dataFileStore.store(fileUpload.getId(), fileUpload.getDataFile());
             List<FileUploadDTO> processedFiles = fileUploadProcessorChain.apply(fileUpload, payload);
             fileUpload.setUploadProcessed(true);
             fileUpload.setUploadSuccessful(true);
@@ -0,0 +1,92 @@
+package io.github.erp.internal.service.files;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.framework.FileUploadsProperties;
+import io.github.erp.internal.framework.batch.BatchPersistentFileUploadService;
+import io.github.erp.internal.framework.batch.DataFileStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores upload data files in the directory configured at reader.storage-directory
+ */
+@Service
+public class FileSystemDataFileStore implements DataFileStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemDataFileStore.class);
+
+    private final Path storageDirectory;
+    private final BatchPersistentFileUploadService fileUploadService;
+
+    public FileSystemDataFileStore(FileUploadsProperties fileUploadsProperties, BatchPersistentFileUploadService fileUploadService) {
+        this.storageDirectory = Paths.get(fileUploadsProperties.getStorageDirectory());
+        this.fileUploadService = fileUploadService;
+    }
+
+    @Override
+    public File store(long fileId, byte[] dataFile) {
+        Path target = pathOf(fileId);
+        try {
+            Files.createDirectories(storageDirectory);
+            // Written aside and moved into place so that readers never see a partial file
+            Path partial = Files.createTempFile(storageDirectory, "upload-" + fileId, ".part");
+            Files.write(partial, dataFile);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to store the data file of upload id " + fileId, e);
+        }
+        log.debug("Data file of upload id {} stored at {}", fileId, target);
+
+        return target.toFile();
+    }
+
+    @Override
+    public Optional<File> locate(long fileId) {
+        Path stored = pathOf(fileId);
+        if (Files.exists(stored)) {
+            return Optional.of(stored.toFile());
+        }
+        log.info("Data file of upload id {} has not been stored; copying it from the upload record", fileId);
+
+        return fileUploadService.findOne(fileId).map(fileUpload -> store(fileId, fileUpload.getDataFile()));
+    }
+
+    @Override
+    public void delete(long fileId) {
+        try {
+            Files.deleteIfExists(pathOf(fileId));
+        } catch (IOException e) {
+            log.warn("Unable to remove the stored data file of upload id {}", fileId, e);
+        }
+    }
+
+    private Path pathOf(long fileId) {
+        return storageDirectory.resolve("upload-" + fileId + ".xlsx");
+    }
+}
@@ -17,6 +17,7 @@ package io.github.erp.internal.service.files;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import io.github.erp.internal.framework.batch.DataFileStore;
 import io.github.erp.internal.framework.service.FileUploadDeletionService;
 import io.github.erp.internal.framework.model.FileUploadHasDataFile;
 import io.github.erp.internal.model.mapping.FileUploadHasDataFileMapping;
@@ -34,10 +35,12 @@ public class FileUploadDeletionServiceImpl implements FileUploadDeletionService<
 
     private final FileUploadHasDataFileMapping dataFileMapping;
     private final FileUploadService fileUploadService;
+    private final DataFileStore dataFileStore;
 
-    public FileUploadDeletionServiceImpl(FileUploadHasDataFileMapping dataFileMapping, FileUploadService fileUploadService) {
+    public FileUploadDeletionServiceImpl(FileUploadHasDataFileMapping dataFileMapping, FileUploadService fileUploadService, DataFileStore dataFileStore) {
         this.dataFileMapping = dataFileMapping;
         this.fileUploadService = fileUploadService;
+        this.dataFileStore = dataFileStore;
     }
 
     @Override
@@ -56,5 +59,6 @@ public class FileUploadDeletionServiceImpl implements FileUploadDeletionService<
     public void delete(Long id) {
 
         fileUploadService.delete(id);
+        dataFileStore.delete(id);
     }
 }
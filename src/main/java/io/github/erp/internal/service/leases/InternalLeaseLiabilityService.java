@@ -93,4 +93,21 @@ public interface InternalLeaseLiabilityService {
      * @return List of leases for processing
      */
     Optional<List<LeaseLiabilityDTO>> getCompilationAdjacentMetadataItems(long leaseLiabilityCompilationRequestId, String batchJobIdentifier);
+
+    /**
+     * Ids of the lease liabilities due for amortization, in ascending order
+     *
+     * @return List of lease ids
+     */
+    List<Long> getCompilationIds();
+
+    /**
+     * Next page of the ids of lease liabilities due for amortization in the range (lastId, maxId]
+     *
+     * @param lastId last id of the previous page
+     * @param maxId last id of the range
+     * @param pageSize maximum number of ids returned
+     * @return List of lease ids in ascending order
+     */
+    List<Long> getCompilationIdsAfter(long lastId, long maxId, int pageSize);
 }
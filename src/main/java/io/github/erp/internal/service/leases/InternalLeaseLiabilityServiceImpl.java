@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -183,4 +184,16 @@ public class InternalLeaseLiabilityServiceImpl implements InternalLeaseLiability
         return Optional.of(leaseLiabilityRepository.findAll())
             .map(leaseLiabilityMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getCompilationIds() {
+        return leaseLiabilityRepository.findAllIds();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getCompilationIdsAfter(long lastId, long maxId, int pageSize) {
+        return leaseLiabilityRepository.findIdsInRange(lastId, maxId, PageRequest.of(0, pageSize));
+    }
 }
@@ -88,4 +88,11 @@ public interface InternalLeaseRepaymentPeriodService {
      * @return the list of entities.
      */
     Optional<List<LeaseRepaymentPeriodDTO>> findLeasePeriods(LocalDate commencementDate, int numberOfPeriods);
+
+    /**
+     * All the lease-repayment-periods, held in memory for lookups by commencement date
+     *
+     * @return calendar of lease-repayment-periods
+     */
+    LeaseRepaymentCalendar loadRepaymentCalendar();
 }
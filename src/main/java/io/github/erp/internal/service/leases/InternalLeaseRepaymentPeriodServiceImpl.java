@@ -145,4 +145,12 @@ public class InternalLeaseRepaymentPeriodServiceImpl implements InternalLeaseRep
 
         return leaseRepaymentPeriodRepository.findLeasePeriods(commencementDate, numberOfPeriods).map(leaseRepaymentPeriodMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LeaseRepaymentCalendar loadRepaymentCalendar() {
+        log.debug("Request to load the lease-repayment-period calendar");
+
+        return new LeaseRepaymentCalendar(leaseRepaymentPeriodMapper.toDto(leaseRepaymentPeriodRepository.findAll()));
+    }
 }
@@ -29,4 +29,12 @@ public interface LeaseAmortizationCompilationService {
      * @return Schedule items
      */
     List<LeaseLiabilityScheduleItemDTO> generateAmortizationSchedule(Long leaseLiabilityId);
+
+    /**
+     * Generates schedule items for several lease liabilities at once
+     * @param leaseLiabilityIds ids of the lease-liability instances
+     * @param repaymentCalendar lease-repayment-periods shared by the compilation
+     * @return Schedule items of all the liabilities
+     */
+    List<LeaseLiabilityScheduleItemDTO> generateAmortizationSchedules(List<Long> leaseLiabilityIds, LeaseRepaymentCalendar repaymentCalendar);
 }
@@ -17,12 +17,13 @@ package io.github.erp.internal.service.leases;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import io.github.erp.domain.LeaseLiability;
+import io.github.erp.internal.repository.InternalLeaseAmortizationScheduleRepository;
+import io.github.erp.internal.repository.InternalLeaseLiabilityRepository;
+import io.github.erp.internal.repository.InternalLeasePaymentRepository;
 import io.github.erp.service.dto.DetailedLeaseContractDTO;
 import io.github.erp.service.dto.LeaseAmortizationCalculationDTO;
 import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
@@ -30,6 +31,11 @@ import io.github.erp.service.dto.LeaseLiabilityDTO;
 import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
 import io.github.erp.service.dto.LeasePaymentDTO;
 import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import io.github.erp.service.mapper.DetailedLeaseContractMapper;
+import io.github.erp.service.mapper.LeaseAmortizationCalculationMapper;
+import io.github.erp.service.mapper.LeaseAmortizationScheduleMapper;
+import io.github.erp.service.mapper.LeaseLiabilityMapper;
+import io.github.erp.service.mapper.LeasePaymentMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,14 +43,20 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class LeaseAmortizationService implements LeaseAmortizationCompilationService {
 
-    private static final RoundingMode ROUND_HALF_EVEN = RoundingMode.HALF_EVEN;
-
     private final InternalLeaseRepaymentPeriodService leaseRepaymentPeriodService;
     private final InternalLeasePaymentService leasePaymentService;
     private final InternalLeaseLiabilityService leaseLiabilityService;
     private final InternalLeaseAmortizationCalculationService leaseAmortizationCalculationService;
     private final InternalLeaseAmortizationScheduleService internalLeaseAmortizationScheduleService;
     private final InternalDetailedLeaseContractService leaseContractService;
+    private final InternalLeaseLiabilityRepository leaseLiabilityRepository;
+    private final InternalLeaseAmortizationScheduleRepository leaseAmortizationScheduleRepository;
+    private final InternalLeasePaymentRepository leasePaymentRepository;
+    private final LeaseLiabilityMapper leaseLiabilityMapper;
+    private final DetailedLeaseContractMapper detailedLeaseContractMapper;
+    private final LeaseAmortizationCalculationMapper leaseAmortizationCalculationMapper;
+    private final LeaseAmortizationScheduleMapper leaseAmortizationScheduleMapper;
+    private final LeasePaymentMapper leasePaymentMapper;
 
     public LeaseAmortizationService(
         InternalLeaseRepaymentPeriodService leaseRepaymentPeriodService,
@@ -52,13 +64,29 @@ public class LeaseAmortizationService implements LeaseAmortizationCompilationSer
         InternalLeaseAmortizationCalculationService leaseAmortizationCalculationService,
         InternalLeasePaymentService leasePaymentService,
         InternalLeaseAmortizationScheduleService internalLeaseAmortizationScheduleService,
-        InternalDetailedLeaseContractService leaseContractService) {
+        InternalDetailedLeaseContractService leaseContractService,
+        InternalLeaseLiabilityRepository leaseLiabilityRepository,
+        InternalLeaseAmortizationScheduleRepository leaseAmortizationScheduleRepository,
+        InternalLeasePaymentRepository leasePaymentRepository,
+        LeaseLiabilityMapper leaseLiabilityMapper,
+        DetailedLeaseContractMapper detailedLeaseContractMapper,
+        LeaseAmortizationCalculationMapper leaseAmortizationCalculationMapper,
+        LeaseAmortizationScheduleMapper leaseAmortizationScheduleMapper,
+        LeasePaymentMapper leasePaymentMapper) {
         this.leaseRepaymentPeriodService = leaseRepaymentPeriodService;
         this.leaseLiabilityService = leaseLiabilityService;
         this.leaseAmortizationCalculationService = leaseAmortizationCalculationService;
         this.leasePaymentService = leasePaymentService;
         this.internalLeaseAmortizationScheduleService = internalLeaseAmortizationScheduleService;
         this.leaseContractService = leaseContractService;
+        this.leaseLiabilityRepository = leaseLiabilityRepository;
+        this.leaseAmortizationScheduleRepository = leaseAmortizationScheduleRepository;
+        this.leasePaymentRepository = leasePaymentRepository;
+        this.leaseLiabilityMapper = leaseLiabilityMapper;
+        this.detailedLeaseContractMapper = detailedLeaseContractMapper;
+        this.leaseAmortizationCalculationMapper = leaseAmortizationCalculationMapper;
+        this.leaseAmortizationScheduleMapper = leaseAmortizationScheduleMapper;
+        this.leasePaymentMapper = leasePaymentMapper;
     }
 
     public List<LeaseLiabilityScheduleItemDTO> generateAmortizationSchedule(Long leaseLiabilityId) {
@@ -98,89 +126,69 @@ public class LeaseAmortizationService implements LeaseAmortizationCompilationSer
         return calculateAmortizationSchedule(calculation, leaseLiability, detailedLeaseContract, leaseAmortizationSchedule);
     }
 
-    private List<LeaseLiabilityScheduleItemDTO> calculateAmortizationSchedule(
-        LeaseAmortizationCalculationDTO calculation, LeaseLiabilityDTO leaseLiability, DetailedLeaseContractDTO detailedLeaseContract, LeaseAmortizationScheduleDTO leaseAmortizationSchedule) {
-
-        List<LeaseLiabilityScheduleItemDTO> scheduleItems = new ArrayList<>();
-        BigDecimal monthlyRate = calculation.getInterestRate().divide(BigDecimal.valueOf(12), ROUND_HALF_EVEN);
-        var openingBalanceRef = new Object() {
-            BigDecimal openingBalance = leaseLiability.getLiabilityAmount();
-            BigDecimal interestPayableOpening = BigDecimal.ZERO;
-        };
-
-        Optional<List<LeaseRepaymentPeriodDTO>> leasePeriods = leaseRepaymentPeriodService.findLeasePeriods(detailedLeaseContract.getCommencementDate(), calculation.getNumberOfPeriods());
-
-        Optional<List<LeasePaymentDTO>> leasePayments = leasePaymentService.findPaymentsByContractId(detailedLeaseContract.getId());
-
-        if (leasePayments.isEmpty()) {
-            throw new IllegalArgumentException("No lease-payments prescribed for lease-booking # " + detailedLeaseContract.getBookingId() + ". Please record lease-payments and try again");
+    /**
+     * Schedules of a page of liabilities, with the contracts, calculations, amortization-schedules
+     * and payments of the page each fetched with one query and the periods taken from the calendar
+     * shared by the compilation.
+     */
+    @Override
+    public List<LeaseLiabilityScheduleItemDTO> generateAmortizationSchedules(List<Long> leaseLiabilityIds, LeaseRepaymentCalendar repaymentCalendar) {
+        if (leaseLiabilityIds.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        leasePeriods.ifPresent( periods -> {
-
-            List<LeaseRepaymentPeriodDTO> sortedPeriods = periods.stream().sorted(Comparator.comparing(LeaseRepaymentPeriodDTO::getStartDate)).collect(Collectors.toList());
-
-            for (int period = 0; period < sortedPeriods.size(); period++) {
-
-                BigDecimal interestPayableOpening = openingBalanceRef.interestPayableOpening;
-
-                BigDecimal interestAccrued = openingBalanceRef.openingBalance.multiply(monthlyRate);
-                BigDecimal totalPayment = calculateMonthlyPayment(leasePayments.get(), sortedPeriods.get(period));
+        List<LeaseLiability> leaseLiabilities = leaseLiabilityRepository.findAllForCompilation(leaseLiabilityIds);
+        List<Long> leaseContractIds = leaseLiabilities.stream().map(liability -> liability.getLeaseContract().getId()).collect(Collectors.toList());
 
+        Map<Long, LeaseAmortizationScheduleDTO> schedulesByContractId = new HashMap<>();
+        leaseAmortizationScheduleRepository.findAllByLeaseContractIds(leaseContractIds)
+            .forEach(schedule -> schedulesByContractId.put(schedule.getLeaseContract().getId(), leaseAmortizationScheduleMapper.toDto(schedule)));
 
-                BigDecimal interestPayment = interestPayableOpening.add(interestAccrued).min(totalPayment).max(BigDecimal.ZERO);
+        Map<Long, List<LeasePaymentDTO>> paymentsByContractId = new HashMap<>();
+        leasePaymentRepository.findLeasePaymentsForLeaseContracts(leaseContractIds)
+            .forEach(payment -> paymentsByContractId.computeIfAbsent(payment.getLeaseContract().getId(), id -> new ArrayList<>()).add(leasePaymentMapper.toDto(payment)));
 
-                BigDecimal principalPayment = totalPayment.subtract(interestPayment).max(BigDecimal.ZERO);
-
-                BigDecimal closingBalance = openingBalanceRef.openingBalance.subtract(principalPayment);
-                BigDecimal interestPayableClosing = openingBalanceRef.interestPayableOpening.add(interestAccrued).subtract(interestPayment);
-
-                LeaseLiabilityScheduleItemDTO item = new LeaseLiabilityScheduleItemDTO();
-                item.setSequenceNumber(period);
-                item.setOpeningBalance(openingBalanceRef.openingBalance);
-                item.setOutstandingBalance(closingBalance);
-                item.setCashPayment(totalPayment);
-                item.setPrincipalPayment(principalPayment);
-                item.setInterestPayment(interestPayment);
-                item.setInterestPayableOpening(interestPayableOpening);
-                item.setInterestAccrued(interestAccrued);
-                item.setInterestPayableClosing(interestPayableClosing);
-                item.setLeaseLiability(leaseLiability);
-                item.setLeaseContract(detailedLeaseContract);
-                item.setLeaseAmortizationSchedule(leaseAmortizationSchedule);
-
-                // TODO CHANGE TO LEASE REPAYMENT PERIOD
-                item.setLeasePeriod(sortedPeriods.get(period));
+        List<LeaseLiabilityScheduleItemDTO> scheduleItems = new ArrayList<>();
+        for (LeaseLiability liability : leaseLiabilities) {
+            DetailedLeaseContractDTO detailedLeaseContract = detailedLeaseContractMapper.toDto(liability.getLeaseContract());
 
-                scheduleItems.add(item);
+            if (liability.getLeaseAmortizationCalculation() == null) {
+                throw new IllegalArgumentException("Lease Amortization Calculation for Lease Liability id # " + liability.getId() + "not found");
+            }
+            LeaseAmortizationCalculationDTO calculation = leaseAmortizationCalculationMapper.toDto(liability.getLeaseAmortizationCalculation());
 
-                // Update balances for the next period
-                openingBalanceRef.openingBalance = closingBalance;
-                openingBalanceRef.interestPayableOpening = interestPayableClosing;
+            LeaseAmortizationScheduleDTO leaseAmortizationSchedule = schedulesByContractId.get(detailedLeaseContract.getId());
+            if (leaseAmortizationSchedule == null) {
+                throw new IllegalArgumentException("Lease Amortization Schedule for Lease Booking id # " + detailedLeaseContract.getBookingId() + "not found");
             }
-        });
 
+            scheduleItems.addAll(
+                LeaseScheduleEngine.amortizationSchedule(
+                    calculation,
+                    leaseLiabilityMapper.toDto(liability),
+                    detailedLeaseContract,
+                    leaseAmortizationSchedule,
+                    repaymentCalendar.periodsFrom(detailedLeaseContract.getCommencementDate(), calculation.getNumberOfPeriods()),
+                    paymentsByContractId.getOrDefault(detailedLeaseContract.getId(), Collections.emptyList())
+                )
+            );
+        }
         return scheduleItems;
     }
 
-    private BigDecimal calculateMonthlyPayment(List<LeasePaymentDTO> leasePayments, LeaseRepaymentPeriodDTO currentPeriod) {
+    private List<LeaseLiabilityScheduleItemDTO> calculateAmortizationSchedule(
+        LeaseAmortizationCalculationDTO calculation, LeaseLiabilityDTO leaseLiability, DetailedLeaseContractDTO detailedLeaseContract, LeaseAmortizationScheduleDTO leaseAmortizationSchedule) {
 
-        // Pick adjacent lease-payment instance amount, return Zero otherwise
-        // Does the current period have a payment?
-        return findPaymentAmountWithinPeriod(leasePayments, currentPeriod);
-    }
+        List<LeaseRepaymentPeriodDTO> leasePeriods = leaseRepaymentPeriodService.findLeasePeriods(detailedLeaseContract.getCommencementDate(), calculation.getNumberOfPeriods())
+            .map(periods -> periods.stream().sorted(Comparator.comparing(LeaseRepaymentPeriodDTO::getStartDate)).collect(Collectors.toList()))
+            .orElse(Collections.emptyList());
 
-    private BigDecimal findPaymentAmountWithinPeriod(List<LeasePaymentDTO> leasePayments, LeaseRepaymentPeriodDTO leasePeriod) {
-        for (LeasePaymentDTO leasePayment : leasePayments) {
-            if (isPaymentDateWithinPeriod(leasePayment.getPaymentDate(), leasePeriod)) {
-                return leasePayment.getPaymentAmount();
-            }
+        Optional<List<LeasePaymentDTO>> leasePayments = leasePaymentService.findPaymentsByContractId(detailedLeaseContract.getId());
+
+        if (leasePayments.isEmpty()) {
+            throw new IllegalArgumentException("No lease-payments prescribed for lease-booking # " + detailedLeaseContract.getBookingId() + ". Please record lease-payments and try again");
         }
-        return BigDecimal.ZERO;
-    }
 
-    private static boolean isPaymentDateWithinPeriod(LocalDate paymentDate, LeaseRepaymentPeriodDTO leasePeriod) {
-        return (paymentDate.isEqual(leasePeriod.getStartDate()) || paymentDate.isAfter(leasePeriod.getStartDate())) &&
-            (paymentDate.isEqual(leasePeriod.getEndDate()) || paymentDate.isBefore(leasePeriod.getEndDate()));
+        return LeaseScheduleEngine.amortizationSchedule(calculation, leaseLiability, detailedLeaseContract, leaseAmortizationSchedule, leasePeriods, leasePayments.get());
     }
 }
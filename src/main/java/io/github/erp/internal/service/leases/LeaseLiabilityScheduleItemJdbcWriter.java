@@ -0,0 +1,143 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.repository.search.LeaseLiabilityScheduleItemSearchRepository;
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import io.github.erp.service.mapper.LeaseLiabilityScheduleItemMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes compiled lease-liability schedule items with batched JDBC inserts. Identifiers are taken
+ * from the shared sequence a block at a time, in the same way Hibernate allocates them. The rows
+ * are written in the caller's transaction.
+ */
+@Component
+public class LeaseLiabilityScheduleItemJdbcWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseLiabilityScheduleItemJdbcWriter.class);
+
+    /**
+     * Increment of the sequence_generator sequence as created in the initial schema
+     */
+    static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String NEXT_SEQUENCE_VALUE = "SELECT nextval('sequence_generator')";
+
+    private static final String INSERT_SCHEDULE_ITEM =
+        "INSERT INTO lease_liability_schedule_item (" +
+            "id, sequence_number, opening_balance, cash_payment, principal_payment, interest_payment, " +
+            "outstanding_balance, interest_payable_opening, interest_accrued, interest_payable_closing, " +
+            "lease_amortization_schedule_id, lease_contract_id, lease_liability_id, lease_period_id" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LeaseLiabilityScheduleItemMapper leaseLiabilityScheduleItemMapper;
+
+    @Autowired(required = false)
+    private LeaseLiabilityScheduleItemSearchRepository leaseLiabilityScheduleItemSearchRepository;
+
+    public LeaseLiabilityScheduleItemJdbcWriter(JdbcTemplate jdbcTemplate, LeaseLiabilityScheduleItemMapper leaseLiabilityScheduleItemMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseLiabilityScheduleItemMapper = leaseLiabilityScheduleItemMapper;
+    }
+
+    /**
+     * Insert the schedule items. On return the items carry their identifiers
+     *
+     * @param scheduleItems to be inserted
+     */
+    public void write(List<LeaseLiabilityScheduleItemDTO> scheduleItems) {
+        if (scheduleItems.isEmpty()) {
+            return;
+        }
+        assignIdentifiers(scheduleItems);
+        jdbcTemplate.batchUpdate(INSERT_SCHEDULE_ITEM, scheduleItems, scheduleItems.size(), this::setValues);
+
+        if (leaseLiabilityScheduleItemSearchRepository != null) {
+            try {
+                leaseLiabilityScheduleItemSearchRepository.saveAll(leaseLiabilityScheduleItemMapper.toEntity(scheduleItems));
+            } catch (RuntimeException e) {
+                // The index is secondary to the schedule; it is rebuilt by the re-indexer
+                log.warn("{} lease-liability schedule items persisted but not indexed: {}", scheduleItems.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void assignIdentifiers(List<LeaseLiabilityScheduleItemDTO> scheduleItems) {
+        long upperBound = 0;
+        long nextId = 1;
+        for (LeaseLiabilityScheduleItemDTO scheduleItem : scheduleItems) {
+            if (nextId > upperBound) {
+                upperBound = jdbcTemplate.queryForObject(NEXT_SEQUENCE_VALUE, Long.class);
+                nextId = upperBound - SEQUENCE_INCREMENT + 1;
+            }
+            scheduleItem.setId(nextId++);
+        }
+    }
+
+    private void setValues(PreparedStatement ps, LeaseLiabilityScheduleItemDTO scheduleItem) throws SQLException {
+        int i = 0;
+        ps.setLong(++i, scheduleItem.getId());
+        if (scheduleItem.getSequenceNumber() == null) {
+            ps.setNull(++i, Types.INTEGER);
+        } else {
+            ps.setInt(++i, scheduleItem.getSequenceNumber());
+        }
+        ps.setBigDecimal(++i, scheduleItem.getOpeningBalance());
+        ps.setBigDecimal(++i, scheduleItem.getCashPayment());
+        ps.setBigDecimal(++i, scheduleItem.getPrincipalPayment());
+        ps.setBigDecimal(++i, scheduleItem.getInterestPayment());
+        ps.setBigDecimal(++i, scheduleItem.getOutstandingBalance());
+        ps.setBigDecimal(++i, scheduleItem.getInterestPayableOpening());
+        ps.setBigDecimal(++i, scheduleItem.getInterestAccrued());
+        ps.setBigDecimal(++i, scheduleItem.getInterestPayableClosing());
+        setLong(ps, ++i, idOf(scheduleItem.getLeaseAmortizationSchedule(), LeaseAmortizationScheduleDTO::getId));
+        setLong(ps, ++i, idOf(scheduleItem.getLeaseContract(), DetailedLeaseContractDTO::getId));
+        setLong(ps, ++i, idOf(scheduleItem.getLeaseLiability(), LeaseLiabilityDTO::getId));
+        setLong(ps, ++i, idOf(scheduleItem.getLeasePeriod(), LeaseRepaymentPeriodDTO::getId));
+    }
+
+    private static <T> Long idOf(T relation, Function<T, Long> id) {
+        return relation == null ? null : id.apply(relation);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
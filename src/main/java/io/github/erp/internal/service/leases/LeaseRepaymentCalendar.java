@@ -0,0 +1,103 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lease repayment periods held in memory for the length of a lease-liability compilation, so that
+ * the periods of each liability are looked up rather than queried.
+ * <p>
+ * Lookups follow the rules of the findLeasePeriods query they replace: a schedule starts at the
+ * period spanning the commencement date and runs through the periods of consecutive sequence
+ * numbers until it has the number of periods requested or the calendar runs out.
+ */
+public class LeaseRepaymentCalendar {
+
+    private final List<LeaseRepaymentPeriodDTO> periods;
+
+    private final LocalDate[] startDates;
+
+    /**
+     * Index of the last period in the run of consecutive sequence numbers each period belongs to
+     */
+    private final int[] runEnds;
+
+    public LeaseRepaymentCalendar(Collection<LeaseRepaymentPeriodDTO> repaymentPeriods) {
+        List<LeaseRepaymentPeriodDTO> sorted = new ArrayList<>(repaymentPeriods);
+        sorted.sort(Comparator.comparing(LeaseRepaymentPeriodDTO::getStartDate));
+        this.periods = Collections.unmodifiableList(sorted);
+
+        int size = sorted.size();
+        this.startDates = new LocalDate[size];
+        this.runEnds = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            startDates[i] = sorted.get(i).getStartDate();
+            runEnds[i] = i + 1 < size && isNextInSequence(sorted.get(i), sorted.get(i + 1)) ? runEnds[i + 1] : i;
+        }
+    }
+
+    /**
+     * @param commencementDate date on which the lease commences
+     * @param numberOfPeriods  periods of the lease term
+     * @return the repayment periods of the lease in date order, empty if no period spans the
+     * commencement date
+     */
+    public List<LeaseRepaymentPeriodDTO> periodsFrom(LocalDate commencementDate, int numberOfPeriods) {
+        int first = indexOf(commencementDate);
+        if (first < 0 || numberOfPeriods < 1) {
+            return Collections.emptyList();
+        }
+        int last = Math.min(runEnds[first], first + numberOfPeriods - 1);
+        return periods.subList(first, last + 1);
+    }
+
+    public int size() {
+        return periods.size();
+    }
+
+    private int indexOf(LocalDate date) {
+        int low = 0;
+        int high = startDates.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (startDates[middle].isAfter(date)) {
+                high = middle - 1;
+            } else {
+                candidate = middle;
+                low = middle + 1;
+            }
+        }
+        return candidate >= 0 && !periods.get(candidate).getEndDate().isBefore(date) ? candidate : -1;
+    }
+
+    private static boolean isNextInSequence(LeaseRepaymentPeriodDTO period, LeaseRepaymentPeriodDTO next) {
+        return period.getSequenceNumber() != null &&
+            next.getSequenceNumber() != null &&
+            next.getSequenceNumber() == period.getSequenceNumber() + 1;
+    }
+}
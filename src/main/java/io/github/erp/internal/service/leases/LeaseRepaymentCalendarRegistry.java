@@ -0,0 +1,51 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link LeaseRepaymentCalendar} for each running lease-liability compilation, so that
+ * the partitions of a compilation share the calendar instead of each loading their own
+ */
+@Component
+public class LeaseRepaymentCalendarRegistry {
+
+    private final Map<Long, LeaseRepaymentCalendar> calendars = new ConcurrentHashMap<>();
+
+    private final InternalLeaseRepaymentPeriodService leaseRepaymentPeriodService;
+
+    public LeaseRepaymentCalendarRegistry(InternalLeaseRepaymentPeriodService leaseRepaymentPeriodService) {
+        this.leaseRepaymentPeriodService = leaseRepaymentPeriodService;
+    }
+
+    /**
+     * The calendar of the compilation, loaded by the first partition to ask for it
+     */
+    public LeaseRepaymentCalendar calendarFor(long leaseLiabilityCompilationRequestId) {
+        return calendars.computeIfAbsent(leaseLiabilityCompilationRequestId, id -> leaseRepaymentPeriodService.loadRepaymentCalendar());
+    }
+
+    public void release(long leaseLiabilityCompilationRequestId) {
+        calendars.remove(leaseLiabilityCompilationRequestId);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationCalculationDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeasePaymentDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Calculates the liability schedule of a lease over its repayment periods. Payments and periods
+ * are both taken in date order and merged in a single pass, so a schedule costs one step per
+ * period plus one per payment. Where a period has more than one payment, the earliest is the
+ * cash payment of the period.
+ */
+public final class LeaseScheduleEngine {
+
+    private static final RoundingMode ROUND_HALF_EVEN = RoundingMode.HALF_EVEN;
+
+    private static final BigDecimal MONTHS_IN_YEAR = BigDecimal.valueOf(12);
+
+    private static final Comparator<LeasePaymentDTO> BY_PAYMENT_DATE = Comparator.comparing(LeasePaymentDTO::getPaymentDate);
+
+    private LeaseScheduleEngine() {}
+
+    /**
+     * @param periods  repayment periods of the lease in date order
+     * @param payments payments prescribed for the lease contract, in any order
+     * @return one schedule item for each period
+     */
+    public static List<LeaseLiabilityScheduleItemDTO> amortizationSchedule(
+        LeaseAmortizationCalculationDTO calculation,
+        LeaseLiabilityDTO leaseLiability,
+        DetailedLeaseContractDTO leaseContract,
+        LeaseAmortizationScheduleDTO leaseAmortizationSchedule,
+        List<LeaseRepaymentPeriodDTO> periods,
+        List<LeasePaymentDTO> payments
+    ) {
+        List<LeasePaymentDTO> sortedPayments = new ArrayList<>(payments);
+        sortedPayments.sort(BY_PAYMENT_DATE);
+
+        List<LeaseLiabilityScheduleItemDTO> scheduleItems = new ArrayList<>(periods.size());
+        BigDecimal monthlyRate = calculation.getInterestRate().divide(MONTHS_IN_YEAR, ROUND_HALF_EVEN);
+        BigDecimal openingBalance = leaseLiability.getLiabilityAmount();
+        BigDecimal interestPayableOpening = BigDecimal.ZERO;
+
+        int nextPayment = 0;
+        for (int period = 0; period < periods.size(); period++) {
+            LeaseRepaymentPeriodDTO leasePeriod = periods.get(period);
+
+            // Payments dated before this period fell between periods or in an earlier one
+            while (nextPayment < sortedPayments.size() && sortedPayments.get(nextPayment).getPaymentDate().isBefore(leasePeriod.getStartDate())) {
+                nextPayment++;
+            }
+            BigDecimal totalPayment = BigDecimal.ZERO;
+            if (nextPayment < sortedPayments.size() && !sortedPayments.get(nextPayment).getPaymentDate().isAfter(leasePeriod.getEndDate())) {
+                totalPayment = sortedPayments.get(nextPayment).getPaymentAmount();
+            }
+
+            BigDecimal interestAccrued = openingBalance.multiply(monthlyRate);
+            BigDecimal interestPayment = interestPayableOpening.add(interestAccrued).min(totalPayment).max(BigDecimal.ZERO);
+            BigDecimal principalPayment = totalPayment.subtract(interestPayment).max(BigDecimal.ZERO);
+            BigDecimal closingBalance = openingBalance.subtract(principalPayment);
+            BigDecimal interestPayableClosing = interestPayableOpening.add(interestAccrued).subtract(interestPayment);
+
+            LeaseLiabilityScheduleItemDTO item = new LeaseLiabilityScheduleItemDTO();
+            item.setSequenceNumber(period);
+            item.setOpeningBalance(openingBalance);
+            item.setOutstandingBalance(closingBalance);
+            item.setCashPayment(totalPayment);
+            item.setPrincipalPayment(principalPayment);
+            item.setInterestPayment(interestPayment);
+            item.setInterestPayableOpening(interestPayableOpening);
+            item.setInterestAccrued(interestAccrued);
+            item.setInterestPayableClosing(interestPayableClosing);
+            item.setLeaseLiability(leaseLiability);
+            item.setLeaseContract(leaseContract);
+            item.setLeaseAmortizationSchedule(leaseAmortizationSchedule);
+            item.setLeasePeriod(leasePeriod);
+
+            scheduleItems.add(item);
+
+            openingBalance = closingBalance;
+            interestPayableOpening = interestPayableClosing;
+        }
+
+        return scheduleItems;
+    }
+}
@@ -17,42 +17,54 @@ package io.github.erp.internal.service.leases.batch;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import io.github.erp.internal.service.leases.InternalLeaseLiabilityScheduleItemService;
+
 import io.github.erp.internal.service.leases.InternalLeaseLiabilityService;
 import io.github.erp.internal.service.leases.LeaseAmortizationCompilationService;
-import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.internal.service.leases.LeaseLiabilityScheduleItemJdbcWriter;
+import io.github.erp.internal.service.leases.LeaseRepaymentCalendarRegistry;
 import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.listener.JobExecutionListenerSupport;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.List;
 
+import static io.github.erp.internal.service.leases.batch.LeaseLiabilityIdRangePartitioner.LAST_ID;
+import static io.github.erp.internal.service.leases.batch.LeaseLiabilityIdRangePartitioner.MAX_ID;
+
+/**
+ * Compiles lease-liability schedules in id-range partitions that run in parallel. Each partition
+ * reads its liabilities a page at a time, compiles the page against the repayment calendar shared
+ * by the whole compilation and inserts the page's schedule items in one JDBC batch.
+ */
 @Configuration
 public class LeaseLiabilityCompilationBatchConfig {
 
     public static final String JOB_NAME = "leaseLiabilityCompilationJob";
     private static final String STEP_NAME = "leaseLiabilityCompilationStep";
+    private static final String PARTITION_STEP_NAME = "leaseLiabilityCompilationPartitionStep";
     private static final String ITEM_READER_NAME = "leaseLiabilityCompilationReader";
     private static final String PROCESSOR_NAME = "leaseLiabilityCompilationProcessor";
     private static final String WRITE_NAME = "leaseLiabilityCompilationWriter";
+    private static final String PARTITION_EXECUTOR_NAME = "leaseLiabilityCompilationPartitionExecutor";
 
-    @SuppressWarnings("SpringElStaticFieldInjectionInspection")
-    @Value("#{jobParameters['batchJobIdentifier']}")
-    private static String batchJobIdentifier;
+    @Value("${erp.leases.compilation.partitions:4}")
+    private int partitions;
 
-    @SuppressWarnings("SpringElStaticFieldInjectionInspection")
-    @Value("#{jobParameters['leaseLiabilityCompilationRequestId']}")
-    private static long leaseLiabilityCompilationRequestId;
+    @Value("${erp.leases.compilation.page-size:100}")
+    private int pageSize;
 
     @Autowired
     private InternalLeaseLiabilityService internalLeaseLiabilityService;
@@ -61,7 +73,10 @@ public class LeaseLiabilityCompilationBatchConfig {
     private LeaseAmortizationCompilationService leaseAmortizationCompilationService;
 
     @Autowired
-    private InternalLeaseLiabilityScheduleItemService internalLeaseLiabilityScheduleItemService;
+    private LeaseRepaymentCalendarRegistry leaseRepaymentCalendarRegistry;
+
+    @Autowired
+    private LeaseLiabilityScheduleItemJdbcWriter leaseLiabilityScheduleItemJdbcWriter;
 
     @Autowired
     private JobBuilderFactory jobBuilderFactory;
@@ -73,33 +88,72 @@ public class LeaseLiabilityCompilationBatchConfig {
     public Job leaseLiabilityCompilationJob() {
         return jobBuilderFactory.get(JOB_NAME)
             .start(revalidateEntriesStep())
+            .listener(new JobExecutionListenerSupport() {
+                @Override
+                public void afterJob(JobExecution jobExecution) {
+                    Long requestId = jobExecution.getJobParameters().getLong("leaseLiabilityCompilationRequestId");
+                    if (requestId != null) {
+                        leaseRepaymentCalendarRegistry.release(requestId);
+                    }
+                }
+            })
             .build();
     }
 
     @Bean(STEP_NAME)
     public Step revalidateEntriesStep() {
+        Step partitionStep = leaseLiabilityCompilationPartitionStep();
         return stepBuilderFactory.get(STEP_NAME)
-            .<LeaseLiabilityDTO, List<LeaseLiabilityScheduleItemDTO>>chunk(24) // Assuming processing of 2 years at a time
-            .reader(leaseLiabilityCompilationReader(batchJobIdentifier, leaseLiabilityCompilationRequestId))
-            .processor(leaseLiabilityCompilationProcessor(batchJobIdentifier))
+            .partitioner(partitionStep.getName(), new LeaseLiabilityIdRangePartitioner(internalLeaseLiabilityService))
+            .step(partitionStep)
+            .gridSize(Math.max(1, partitions))
+            .taskExecutor(leaseLiabilityCompilationPartitionExecutor())
+            .build();
+    }
+
+    @Bean(PARTITION_STEP_NAME)
+    public Step leaseLiabilityCompilationPartitionStep() {
+        return stepBuilderFactory.get(PARTITION_STEP_NAME)
+            .<List<Long>, List<LeaseLiabilityScheduleItemDTO>>chunk(1) // One page of liabilities per transaction
+            .reader(leaseLiabilityCompilationReader(0, 0))
+            .processor(leaseLiabilityCompilationProcessor(0))
             .writer(leaseLiabilityCompilationWriterName())
             .build();
     }
 
+    /**
+     * Declared with the reader's own type, so that the step-scoped proxy is registered with the step
+     * as a stream and the reader's position is saved with each chunk
+     */
     @Bean(ITEM_READER_NAME)
     @StepScope
-    public ItemReader<LeaseLiabilityDTO> leaseLiabilityCompilationReader(@Value("#{jobParameters['batchJobIdentifier']}") String batchJobIdentifier, @Value("#{jobParameters['leaseLiabilityCompilationRequestId']}") long leaseLiabilityCompilationRequestId) {
-        return new LeaseLiabilityCompilationItemReader(internalLeaseLiabilityService, leaseLiabilityCompilationRequestId, batchJobIdentifier);
+    public LeaseLiabilityCompilationItemReader leaseLiabilityCompilationReader(
+        @Value("#{stepExecutionContext['" + LAST_ID + "']}") long lastId,
+        @Value("#{stepExecutionContext['" + MAX_ID + "']}") long maxId) {
+        return new LeaseLiabilityCompilationItemReader(internalLeaseLiabilityService, lastId, maxId, Math.max(1, pageSize));
     }
 
     @Bean(PROCESSOR_NAME)
     @StepScope
-    public ItemProcessor<LeaseLiabilityDTO, List<LeaseLiabilityScheduleItemDTO>> leaseLiabilityCompilationProcessor(@Value("#{jobParameters['batchJobIdentifier']}") String batchJobIdentifier) {
-        return new LeaseLiabilityCompilationItemProcessor(batchJobIdentifier, leaseAmortizationCompilationService);
+    public ItemProcessor<List<Long>, List<LeaseLiabilityScheduleItemDTO>> leaseLiabilityCompilationProcessor(
+        @Value("#{jobParameters['leaseLiabilityCompilationRequestId']}") long leaseLiabilityCompilationRequestId) {
+        return new LeaseLiabilityCompilationItemProcessor(leaseLiabilityCompilationRequestId, leaseAmortizationCompilationService, leaseRepaymentCalendarRegistry);
     }
 
     @Bean(WRITE_NAME)
     public ItemWriter<List<LeaseLiabilityScheduleItemDTO>> leaseLiabilityCompilationWriterName() {
-        return new LeaseLiabilityCompilationItemWriter(internalLeaseLiabilityScheduleItemService);
+        return new LeaseLiabilityCompilationItemWriter(leaseLiabilityScheduleItemJdbcWriter);
+    }
+
+    /**
+     * Runs the id-range partitions of the compilation
+     */
+    @Bean(PARTITION_EXECUTOR_NAME)
+    public TaskExecutor leaseLiabilityCompilationPartitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, partitions));
+        executor.setMaxPoolSize(Math.max(1, partitions));
+        executor.setThreadNamePrefix("lease-compilation-");
+        return executor;
     }
 }
@@ -17,28 +17,37 @@ package io.github.erp.internal.service.leases.batch;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+
 import io.github.erp.internal.service.leases.LeaseAmortizationCompilationService;
-import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.internal.service.leases.LeaseRepaymentCalendarRegistry;
 import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.batch.item.ItemProcessor;
 
 import java.util.List;
 
-public class LeaseLiabilityCompilationItemProcessor implements ItemProcessor<LeaseLiabilityDTO, List<LeaseLiabilityScheduleItemDTO>> {
+public class LeaseLiabilityCompilationItemProcessor implements ItemProcessor<List<Long>, List<LeaseLiabilityScheduleItemDTO>> {
 
-    private final String batchJobIdentifier;
+    private final long leaseLiabilityCompilationRequestId;
     private final LeaseAmortizationCompilationService leaseAmortizationCompilationService;
+    private final LeaseRepaymentCalendarRegistry leaseRepaymentCalendarRegistry;
 
-    public LeaseLiabilityCompilationItemProcessor(String batchJobIdentifier, LeaseAmortizationCompilationService leaseAmortizationCompilationService) {
-        this.batchJobIdentifier = batchJobIdentifier;
+    public LeaseLiabilityCompilationItemProcessor(
+        long leaseLiabilityCompilationRequestId,
+        LeaseAmortizationCompilationService leaseAmortizationCompilationService,
+        LeaseRepaymentCalendarRegistry leaseRepaymentCalendarRegistry) {
+        this.leaseLiabilityCompilationRequestId = leaseLiabilityCompilationRequestId;
         this.leaseAmortizationCompilationService = leaseAmortizationCompilationService;
+        this.leaseRepaymentCalendarRegistry = leaseRepaymentCalendarRegistry;
     }
 
     @Override
-    public List<LeaseLiabilityScheduleItemDTO> process(@NotNull LeaseLiabilityDTO model) {
+    public List<LeaseLiabilityScheduleItemDTO> process(@NotNull List<Long> leaseLiabilityIds) {
 
         // TODO Use previous/current job-identifiers to identify processed
-        return leaseAmortizationCompilationService.generateAmortizationSchedule(model.getId());
+        return leaseAmortizationCompilationService.generateAmortizationSchedules(
+            leaseLiabilityIds,
+            leaseRepaymentCalendarRegistry.calendarFor(leaseLiabilityCompilationRequestId)
+        );
     }
 }
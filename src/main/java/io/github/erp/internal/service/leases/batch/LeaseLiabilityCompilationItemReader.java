@@ -17,43 +17,62 @@ package io.github.erp.internal.service.leases.batch;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+
 import io.github.erp.internal.service.leases.InternalLeaseLiabilityService;
-import io.github.erp.service.dto.LeaseLiabilityDTO;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
 
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
-public class LeaseLiabilityCompilationItemReader implements ItemReader<LeaseLiabilityDTO> {
+/**
+ * Reads the ids of the lease-liabilities in a partition's id-range a page at a time, each page
+ * following on from the last id of the one before.
+ * <p>
+ * The last id read is kept in the step's execution context, so that a restarted partition carries
+ * on after the last page it committed rather than compiling its range again
+ * </p>
+ */
+public class LeaseLiabilityCompilationItemReader implements ItemReader<List<Long>>, ItemStream {
+
+    public static final String LAST_READ_ID = "leaseLiabilityCompilationReader.lastReadId";
 
     private final InternalLeaseLiabilityService internalLeaseLiabilityService;
 
-    private List<LeaseLiabilityDTO> metadataList;
-    private Iterator<LeaseLiabilityDTO> metadataIterator;
+    private final long maxId;
+    private final int pageSize;
 
-    private final long leaseLiabilityCompilationRequestId;
-    private final String batchJobIdentifier;
+    private long lastId;
 
-    public LeaseLiabilityCompilationItemReader(
-        InternalLeaseLiabilityService internalLeaseLiabilityService,
-        long leaseLiabilityCompilationRequestId,
-        String batchJobIdentifier) {
+    public LeaseLiabilityCompilationItemReader(InternalLeaseLiabilityService internalLeaseLiabilityService, long lastId, long maxId, int pageSize) {
         this.internalLeaseLiabilityService = internalLeaseLiabilityService;
-        this.leaseLiabilityCompilationRequestId = leaseLiabilityCompilationRequestId;
-        this.batchJobIdentifier = batchJobIdentifier;
+        this.lastId = lastId;
+        this.maxId = maxId;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public List<Long> read() {
+        List<Long> page = internalLeaseLiabilityService.getCompilationIdsAfter(lastId, maxId, pageSize);
+        if (page.isEmpty()) {
+            return null;
+        }
+        lastId = page.get(page.size() - 1);
+        return page;
     }
 
     @Override
-    public LeaseLiabilityDTO read() {
-        if (metadataList == null) {
-            metadataList =
-                internalLeaseLiabilityService
-                    .getCompilationAdjacentMetadataItems(leaseLiabilityCompilationRequestId, batchJobIdentifier)
-                    .orElse(Collections.emptyList());
-
-            metadataIterator = metadataList.iterator();
+    public void open(ExecutionContext executionContext) {
+        if (executionContext.containsKey(LAST_READ_ID)) {
+            lastId = executionContext.getLong(LAST_READ_ID);
         }
-        return metadataIterator.hasNext() ? metadataIterator.next() : null;
     }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(LAST_READ_ID, lastId);
+    }
+
+    @Override
+    public void close() {}
 }
@@ -17,19 +17,21 @@ package io.github.erp.internal.service.leases.batch;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-import io.github.erp.internal.service.leases.InternalLeaseLiabilityScheduleItemService;
+
+import io.github.erp.internal.service.leases.LeaseLiabilityScheduleItemJdbcWriter;
 import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
 import org.springframework.batch.item.ItemWriter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class LeaseLiabilityCompilationItemWriter implements ItemWriter<List<LeaseLiabilityScheduleItemDTO>> {
 
-    private final InternalLeaseLiabilityScheduleItemService internalLeaseLiabilityScheduleItemService;
+    private final LeaseLiabilityScheduleItemJdbcWriter leaseLiabilityScheduleItemJdbcWriter;
 
 
-    public LeaseLiabilityCompilationItemWriter(InternalLeaseLiabilityScheduleItemService internalLeaseLiabilityScheduleItemService) {
-        this.internalLeaseLiabilityScheduleItemService = internalLeaseLiabilityScheduleItemService;
+    public LeaseLiabilityCompilationItemWriter(LeaseLiabilityScheduleItemJdbcWriter leaseLiabilityScheduleItemJdbcWriter) {
+        this.leaseLiabilityScheduleItemJdbcWriter = leaseLiabilityScheduleItemJdbcWriter;
     }
 
     /**
@@ -42,6 +44,8 @@ public class LeaseLiabilityCompilationItemWriter implements ItemWriter<List<Leas
      */
     @Override
     public void write(List<? extends List<LeaseLiabilityScheduleItemDTO>> items) throws Exception {
-        items.forEach(internalLeaseLiabilityScheduleItemService::saveAll);
+        List<LeaseLiabilityScheduleItemDTO> scheduleItems = new ArrayList<>();
+        items.forEach(scheduleItems::addAll);
+        leaseLiabilityScheduleItemJdbcWriter.write(scheduleItems);
     }
 }
@@ -0,0 +1,73 @@
+package io.github.erp.internal.service.leases.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.service.leases.InternalLeaseLiabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the lease-liabilities into contiguous id-ranges of about the same number of liabilities,
+ * one for each partition. Each range runs from after its {@link #LAST_ID} up to its {@link #MAX_ID}.
+ */
+public class LeaseLiabilityIdRangePartitioner implements Partitioner {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseLiabilityIdRangePartitioner.class);
+
+    public static final String LAST_ID = "lastId";
+    public static final String MAX_ID = "maxId";
+
+    private final InternalLeaseLiabilityService internalLeaseLiabilityService;
+
+    public LeaseLiabilityIdRangePartitioner(InternalLeaseLiabilityService internalLeaseLiabilityService) {
+        this.internalLeaseLiabilityService = internalLeaseLiabilityService;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<Long> ids = internalLeaseLiabilityService.getCompilationIds();
+        int rangeSize = Math.max(1, (ids.size() + gridSize - 1) / gridSize);
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        long lastId = 0;
+        int first = 0;
+        do {
+            int last = Math.min(first + rangeSize, ids.size()) - 1;
+            long maxId = last < 0 ? 0 : ids.get(last);
+
+            ExecutionContext range = new ExecutionContext();
+            range.putLong(LAST_ID, lastId);
+            range.putLong(MAX_ID, maxId);
+            partitions.put("partition" + partitions.size(), range);
+
+            lastId = maxId;
+            first += rangeSize;
+        } while (first < ids.size());
+
+        log.info("{} lease-liabilities split into {} partitions of up to {} liabilities", ids.size(), partitions.size(), rangeSize);
+
+        return partitions;
+    }
+}
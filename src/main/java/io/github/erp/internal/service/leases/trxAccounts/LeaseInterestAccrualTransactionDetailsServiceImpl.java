@@ -18,6 +18,7 @@
  */
 package io.github.erp.internal.service.leases.trxAccounts;
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.LeaseInterestAccrualTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
 
@@ -28,13 +29,18 @@ public class LeaseInterestAccrualTransactionDetailsServiceImpl implements LeaseI
 
     private final LeaseInterestAccrualTransactionDetailsRepository leaseInterestAccrualTransactionDetailsRepository;
 
-    public LeaseInterestAccrualTransactionDetailsServiceImpl(LeaseInterestAccrualTransactionDetailsRepository leaseInterestAccrualTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public LeaseInterestAccrualTransactionDetailsServiceImpl(LeaseInterestAccrualTransactionDetailsRepository leaseInterestAccrualTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.leaseInterestAccrualTransactionDetailsRepository = leaseInterestAccrualTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         leaseInterestAccrualTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "Lease Interest Accrual");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
@@ -18,6 +18,7 @@
  */
 package io.github.erp.internal.service.leases.trxAccounts;
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.LeaseInterestPaidTransferTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
 
@@ -28,13 +29,18 @@ public class LeaseInterestPaidTransferTransactionDetailsServiceImpl implements L
 
     private final LeaseInterestPaidTransferTransactionDetailsRepository leaseInterestPaidTransferTransactionDetailsRepository;
 
-    public LeaseInterestPaidTransferTransactionDetailsServiceImpl(LeaseInterestPaidTransferTransactionDetailsRepository leaseInterestPaidTransferTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public LeaseInterestPaidTransferTransactionDetailsServiceImpl(LeaseInterestPaidTransferTransactionDetailsRepository leaseInterestPaidTransferTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.leaseInterestPaidTransferTransactionDetailsRepository = leaseInterestPaidTransferTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         leaseInterestPaidTransferTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "Lease Interest Paid Transfer");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
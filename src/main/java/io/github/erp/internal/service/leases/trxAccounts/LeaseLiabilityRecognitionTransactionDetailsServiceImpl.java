@@ -18,6 +18,7 @@
  */
 package io.github.erp.internal.service.leases.trxAccounts;
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.LeaseLiabilityRecognitionTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
 
@@ -28,13 +29,18 @@ public class LeaseLiabilityRecognitionTransactionDetailsServiceImpl implements L
 
     private final LeaseLiabilityRecognitionTransactionDetailsRepository leaseLiabilityRecognitionTransactionDetailsRepository;
 
-    public LeaseLiabilityRecognitionTransactionDetailsServiceImpl(LeaseLiabilityRecognitionTransactionDetailsRepository leaseLiabilityRecognitionTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public LeaseLiabilityRecognitionTransactionDetailsServiceImpl(LeaseLiabilityRecognitionTransactionDetailsRepository leaseLiabilityRecognitionTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.leaseLiabilityRecognitionTransactionDetailsRepository = leaseLiabilityRecognitionTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         leaseLiabilityRecognitionTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "Lease Liability Recognition");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
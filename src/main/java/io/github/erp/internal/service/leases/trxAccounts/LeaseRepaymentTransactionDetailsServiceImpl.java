@@ -18,6 +18,7 @@
  */
 package io.github.erp.internal.service.leases.trxAccounts;
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.LeaseRepaymentTransactionDetailsRepository;
 import io.github.erp.internal.repository.ROUAmortizationTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
@@ -29,13 +30,18 @@ public class LeaseRepaymentTransactionDetailsServiceImpl implements LeaseRepayme
 
     private final LeaseRepaymentTransactionDetailsRepository leaseRepaymentTransactionDetailsRepository;
 
-    public LeaseRepaymentTransactionDetailsServiceImpl(LeaseRepaymentTransactionDetailsRepository leaseRepaymentTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public LeaseRepaymentTransactionDetailsServiceImpl(LeaseRepaymentTransactionDetailsRepository leaseRepaymentTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.leaseRepaymentTransactionDetailsRepository = leaseRepaymentTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         leaseRepaymentTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "Lease Repayment");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
@@ -18,6 +18,7 @@
  */
 package io.github.erp.internal.service.leases.trxAccounts;
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.LeaseRouRecognitionTransactionDetailsRepository;
 import io.github.erp.internal.repository.ROUAmortizationTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
@@ -29,13 +30,18 @@ public class LeaseRouRecognitionTransactionDetailsServiceImpl implements LeaseRo
 
     private final LeaseRouRecognitionTransactionDetailsRepository leaseRouRecognitionTransactionDetailsRepository;
 
-    public LeaseRouRecognitionTransactionDetailsServiceImpl(LeaseRouRecognitionTransactionDetailsRepository leaseRouRecognitionTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public LeaseRouRecognitionTransactionDetailsServiceImpl(LeaseRouRecognitionTransactionDetailsRepository leaseRouRecognitionTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.leaseRouRecognitionTransactionDetailsRepository = leaseRouRecognitionTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         leaseRouRecognitionTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "ROU Initial Direct Cost Recognition");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
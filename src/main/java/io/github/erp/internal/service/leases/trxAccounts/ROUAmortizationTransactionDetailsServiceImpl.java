@@ -18,6 +18,7 @@ package io.github.erp.internal.service.leases.trxAccounts;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.ROUAmortizationTransactionDetailsRepository;
 import org.springframework.stereotype.Service;
 
@@ -28,13 +29,18 @@ public class ROUAmortizationTransactionDetailsServiceImpl implements ROUAmortiza
 
     private final ROUAmortizationTransactionDetailsRepository rouAmortizationTransactionDetailsRepository;
 
-    public ROUAmortizationTransactionDetailsServiceImpl(ROUAmortizationTransactionDetailsRepository rouAmortizationTransactionDetailsRepository) {
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
+    public ROUAmortizationTransactionDetailsServiceImpl(ROUAmortizationTransactionDetailsRepository rouAmortizationTransactionDetailsRepository, AccountBalanceSnapshotService accountBalanceSnapshotService) {
         this.rouAmortizationTransactionDetailsRepository = rouAmortizationTransactionDetailsRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public void createTransactionDetails(UUID requisitionId, Long postedById){
 
         rouAmortizationTransactionDetailsRepository.insertTransactionDetails(requisitionId, postedById, "ROU Amortization");
+
+        accountBalanceSnapshotService.applyPosting(requisitionId);
     }
 }
@@ -19,8 +19,8 @@ package io.github.erp.internal.service.ledgers;
  */
 
 import io.github.erp.domain.TransactionAccountReportItem;
+import io.github.erp.internal.ledger.TrialBalanceCalculator;
 import io.github.erp.internal.repository.InternalTransactionAccountReportItemRepository;
-import io.github.erp.internal.service.UnpagedPageRequest;
 import io.github.erp.repository.TransactionAccountReportItemRepository;
 import io.github.erp.repository.search.TransactionAccountReportItemSearchRepository;
 import io.github.erp.service.dto.TransactionAccountReportItemDTO;
@@ -28,13 +28,15 @@ import io.github.erp.service.mapper.TransactionAccountReportItemMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link TransactionAccountReportItem}.
@@ -51,14 +53,18 @@ public class InternalTransactionAccountReportItemServiceImpl implements Internal
 
     private final TransactionAccountReportItemSearchRepository transactionAccountReportItemSearchRepository;
 
+    private final TrialBalanceCalculator trialBalanceCalculator;
+
     public InternalTransactionAccountReportItemServiceImpl(
         InternalTransactionAccountReportItemRepository transactionAccountReportItemRepository,
         TransactionAccountReportItemMapper transactionAccountReportItemMapper,
-        TransactionAccountReportItemSearchRepository transactionAccountReportItemSearchRepository
+        TransactionAccountReportItemSearchRepository transactionAccountReportItemSearchRepository,
+        TrialBalanceCalculator trialBalanceCalculator
     ) {
         this.transactionAccountReportItemRepository = transactionAccountReportItemRepository;
         this.transactionAccountReportItemMapper = transactionAccountReportItemMapper;
         this.transactionAccountReportItemSearchRepository = transactionAccountReportItemSearchRepository;
+        this.trialBalanceCalculator = trialBalanceCalculator;
     }
 
     @Override
@@ -94,9 +100,10 @@ public class InternalTransactionAccountReportItemServiceImpl implements Internal
     }
 
     /**
-     * Get all the transactionAccountReportItems.
+     * Get all the transactionAccountReportItems. Every line of the trial balance is returned in a
+     * single page, whatever the pagination requested, so that the report always balances.
      *
-     * @param pageable the pagination information.
+     * @param pageable the pagination information, which is not applied.
      * @param reportDate the date on which the report is pertinent.
      * @return the list of entities.
      */
@@ -107,9 +114,9 @@ public class InternalTransactionAccountReportItemServiceImpl implements Internal
         // TODO fetch reportingEntityId from ApplicationUser context
         long reportingEntityId = 911651;
 
-        Pageable unpagedPageable = UnpagedPageRequest.of(pageable.getPageNumber(), 5);
+        List<TransactionAccountReportItem> items = reportDate == null ? List.of() : trialBalanceCalculator.trialBalance(reportDate, reportingEntityId);
 
-        return transactionAccountReportItemRepository.calculateReportItems(reportDate, reportingEntityId, unpagedPageable).map(transactionAccountReportItemMapper::toDto);
+        return new PageImpl<>(items.stream().map(transactionAccountReportItemMapper::toDto).collect(Collectors.toList()));
     }
 
     @Override
@@ -61,7 +61,7 @@ public class InternalTransactionAccountServiceImpl implements InternalTransactio
     }
 
     @Override
-    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "caffeineCacheManager")
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public TransactionAccountDTO save(TransactionAccountDTO transactionAccountDTO) {
         log.debug("Request to save TransactionAccount : {}", transactionAccountDTO);
         TransactionAccount transactionAccount = transactionAccountMapper.toEntity(transactionAccountDTO);
@@ -72,7 +72,7 @@ public class InternalTransactionAccountServiceImpl implements InternalTransactio
     }
 
     @Override
-    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "caffeineCacheManager")
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<TransactionAccountDTO> partialUpdate(TransactionAccountDTO transactionAccountDTO) {
         log.debug("Request to partially update TransactionAccount : {}", transactionAccountDTO);
 
@@ -105,14 +105,14 @@ public class InternalTransactionAccountServiceImpl implements InternalTransactio
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "transactionAccounts", key = "#id", cacheManager = "caffeineCacheManager")
+    @Cacheable(value = "transactionAccounts", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<TransactionAccountDTO> findOne(Long id) {
         log.debug("Request to get TransactionAccount : {}", id);
         return transactionAccountRepository.findOneWithEagerRelationships(id).map(transactionAccountMapper::toDto);
     }
 
     @Override
-    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "caffeineCacheManager")
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete TransactionAccount : {}", id);
         transactionAccountRepository.deleteById(id);
@@ -128,7 +128,7 @@ public class InternalTransactionAccountServiceImpl implements InternalTransactio
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "transactionAccountIds", cacheManager = "caffeineCacheManager")
+    @Cacheable(value = "transactionAccountIds", cacheManager = "referenceDataCacheManager")
     public List<Long> findAllIds() {
 
         return transactionAccountRepository.findAllIds();
@@ -19,6 +19,7 @@ package io.github.erp.internal.service.ledgers;
  */
 
 import io.github.erp.domain.TransactionDetails;
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.internal.repository.InternalTransactionDetailsRepository;
 import io.github.erp.internal.service.cache.ScheduledCacheRefreshService;
 import io.github.erp.repository.TransactionDetailsRepository;
@@ -58,23 +59,30 @@ public class InternalTransactionDetailsServiceImpl implements InternalTransactio
 
     private final ScheduledCacheRefreshService scheduledTransactionAccountCacheRefreshService;
 
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
     public InternalTransactionDetailsServiceImpl(
         InternalTransactionDetailsRepository transactionDetailsRepository,
         TransactionDetailsMapper transactionDetailsMapper,
         TransactionDetailsSearchRepository transactionDetailsSearchRepository,
         TransactionDetailsQueryService transactionDetailsQueryService,
-        @Qualifier("scheduledTransactionAccountCacheRefreshService") ScheduledCacheRefreshService scheduledTransactionAccountCacheRefreshService
+        @Qualifier("scheduledTransactionAccountCacheRefreshService") ScheduledCacheRefreshService scheduledTransactionAccountCacheRefreshService,
+        AccountBalanceSnapshotService accountBalanceSnapshotService
     ) {
         this.transactionDetailsRepository = transactionDetailsRepository;
         this.transactionDetailsMapper = transactionDetailsMapper;
         this.transactionDetailsSearchRepository = transactionDetailsSearchRepository;
         this.transactionDetailsQueryService = transactionDetailsQueryService;
         this.scheduledTransactionAccountCacheRefreshService = scheduledTransactionAccountCacheRefreshService;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public TransactionDetailsDTO save(TransactionDetailsDTO transactionDetailsDTO) {
         log.debug("Request to save TransactionDetails : {}", transactionDetailsDTO);
+        if (transactionDetailsDTO.getId() != null) {
+            accountBalanceSnapshotService.withdraw(transactionDetailsDTO.getId());
+        }
         TransactionDetails transactionDetails = transactionDetailsMapper.toEntity(transactionDetailsDTO);
         transactionDetails = transactionDetailsRepository.save(transactionDetails);
         TransactionDetailsDTO result = transactionDetailsMapper.toDto(transactionDetails);
@@ -89,6 +97,7 @@ public class InternalTransactionDetailsServiceImpl implements InternalTransactio
         return transactionDetailsRepository
             .findById(transactionDetailsDTO.getId())
             .map(existingTransactionDetails -> {
+                accountBalanceSnapshotService.withdraw(existingTransactionDetails.getId());
                 transactionDetailsMapper.partialUpdate(existingTransactionDetails, transactionDetailsDTO);
 
                 return existingTransactionDetails;
@@ -123,6 +132,7 @@ public class InternalTransactionDetailsServiceImpl implements InternalTransactio
     @Override
     public void delete(Long id) {
         log.debug("Request to delete TransactionDetails : {}", id);
+        accountBalanceSnapshotService.withdraw(id);
         transactionDetailsRepository.deleteById(id);
         transactionDetailsSearchRepository.deleteById(id);
     }
@@ -25,6 +25,8 @@ import io.github.erp.service.dto.FiscalMonthDTO;
 import io.github.erp.service.mapper.FiscalMonthMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -58,6 +60,7 @@ public class InternalFiscalMonthServiceImpl implements InternalFiscalMonthServic
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public FiscalMonthDTO save(FiscalMonthDTO fiscalMonthDTO) {
         log.debug("Request to save FiscalMonth : {}", fiscalMonthDTO);
         FiscalMonth fiscalMonth = fiscalMonthMapper.toEntity(fiscalMonthDTO);
@@ -68,6 +71,7 @@ public class InternalFiscalMonthServiceImpl implements InternalFiscalMonthServic
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<FiscalMonthDTO> partialUpdate(FiscalMonthDTO fiscalMonthDTO) {
         log.debug("Request to partially update FiscalMonth : {}", fiscalMonthDTO);
 
@@ -100,12 +104,14 @@ public class InternalFiscalMonthServiceImpl implements InternalFiscalMonthServic
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "fiscalMonths", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<FiscalMonthDTO> findOne(Long id) {
         log.debug("Request to get FiscalMonth : {}", id);
         return fiscalMonthRepository.findOneWithEagerRelationships(id).map(fiscalMonthMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete FiscalMonth : {}", id);
         fiscalMonthRepository.deleteById(id);
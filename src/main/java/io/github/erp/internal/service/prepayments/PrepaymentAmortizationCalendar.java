@@ -0,0 +1,87 @@
+package io.github.erp.internal.service.prepayments;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.AmortizationPeriod;
+import io.github.erp.domain.FiscalMonth;
+import io.github.erp.domain.PrepaymentMarshalling;
+import io.github.erp.erp.assets.depreciation.exceptions.FiscalMonthNotConfiguredException;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Fiscal months and amortization periods held in memory for the length of a prepayment
+ * compilation, so that the month and period of each amortization row are looked up rather than
+ * queried.
+ * <p>
+ * Lookups follow the rules of the queries they replace: the n-th month of an item is the fiscal
+ * month spanning the calendar month n months after the start of its first fiscal month, and its
+ * n-th period is the amortization period whose sequence number is n more than that of its first
+ * amortization period.
+ */
+public class PrepaymentAmortizationCalendar {
+
+    private final NavigableMap<LocalDate, FiscalMonth> fiscalMonthsByStartDate = new TreeMap<>();
+
+    private final NavigableMap<Long, AmortizationPeriod> periodsBySequenceNumber = new TreeMap<>();
+
+    private final Map<Long, Long> sequenceNumbersByPeriodId = new HashMap<>();
+
+    public PrepaymentAmortizationCalendar(Collection<FiscalMonth> fiscalMonths, Collection<AmortizationPeriod> amortizationPeriods) {
+        fiscalMonths.forEach(month -> fiscalMonthsByStartDate.put(month.getStartDate(), month));
+        amortizationPeriods.forEach(period -> {
+            periodsBySequenceNumber.put(period.getSequenceNumber(), period);
+            sequenceNumbersByPeriodId.put(period.getId(), period.getSequenceNumber());
+        });
+    }
+
+    /**
+     * @throws FiscalMonthNotConfiguredException when no fiscal month spans the calendar month
+     */
+    public FiscalMonth fiscalMonth(PrepaymentMarshalling marshalling, int period) {
+        LocalDate startDate = marshalling.getFirstFiscalMonth().getStartDate().plusMonths(period).with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate endDate = startDate.with(TemporalAdjusters.lastDayOfMonth());
+
+        FiscalMonth fiscalMonth = fiscalMonthsByStartDate.get(startDate);
+        if (fiscalMonth == null || !endDate.equals(fiscalMonth.getEndDate())) {
+            throw new FiscalMonthNotConfiguredException(marshalling, startDate, endDate);
+        }
+        return fiscalMonth;
+    }
+
+    /**
+     * @throws AmortizationPeriodNotFoundException when the calendar does not run that far
+     */
+    public AmortizationPeriod amortizationPeriod(PrepaymentMarshalling marshalling, int period) {
+        Long firstAmortizationPeriodId = marshalling.getFirstAmortizationPeriod().getId();
+        Long firstSequenceNumber = sequenceNumbersByPeriodId.get(firstAmortizationPeriodId);
+
+        AmortizationPeriod amortizationPeriod = firstSequenceNumber == null ? null : periodsBySequenceNumber.get(firstSequenceNumber + period);
+        if (amortizationPeriod == null) {
+            throw new AmortizationPeriodNotFoundException("No amortization-period found in the nth sequence after instance id : " + firstAmortizationPeriodId);
+        }
+        return amortizationPeriod;
+    }
+}
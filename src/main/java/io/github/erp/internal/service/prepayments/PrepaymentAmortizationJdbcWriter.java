@@ -0,0 +1,123 @@
+package io.github.erp.internal.service.prepayments;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.AmortizationPeriod;
+import io.github.erp.domain.FiscalMonth;
+import io.github.erp.domain.PrepaymentAccount;
+import io.github.erp.domain.PrepaymentAmortization;
+import io.github.erp.domain.PrepaymentCompilationRequest;
+import io.github.erp.domain.SettlementCurrency;
+import io.github.erp.domain.TransactionAccount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes compiled prepayment amortization rows with batched JDBC inserts. Identifiers are taken
+ * from the shared sequence a block at a time, in the same way Hibernate allocates them. The rows
+ * are written in the caller's transaction.
+ */
+@Component
+public class PrepaymentAmortizationJdbcWriter {
+
+    /**
+     * Increment of the sequence_generator sequence as created in the initial schema
+     */
+    static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String NEXT_SEQUENCE_VALUE = "SELECT nextval('sequence_generator')";
+
+    private static final String INSERT_PREPAYMENT_AMORTIZATION =
+        "INSERT INTO prepayment_amortization (" +
+            "id, description, prepayment_period, prepayment_amount, inactive, amortization_identifier, " +
+            "prepayment_account_id, settlement_currency_id, debit_account_id, credit_account_id, " +
+            "fiscal_month_id, prepayment_compilation_request_id, amortization_period_id" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PrepaymentAmortizationJdbcWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert the amortization rows. On return the rows carry their identifiers
+     *
+     * @param amortizations to be inserted
+     */
+    public void write(List<PrepaymentAmortization> amortizations) {
+        if (amortizations.isEmpty()) {
+            return;
+        }
+        assignIdentifiers(amortizations);
+        jdbcTemplate.batchUpdate(INSERT_PREPAYMENT_AMORTIZATION, amortizations, amortizations.size(), this::setValues);
+    }
+
+    private void assignIdentifiers(List<PrepaymentAmortization> amortizations) {
+        long upperBound = 0;
+        long nextId = 1;
+        for (PrepaymentAmortization amortization : amortizations) {
+            if (nextId > upperBound) {
+                upperBound = jdbcTemplate.queryForObject(NEXT_SEQUENCE_VALUE, Long.class);
+                nextId = upperBound - SEQUENCE_INCREMENT + 1;
+            }
+            amortization.setId(nextId++);
+        }
+    }
+
+    private void setValues(PreparedStatement ps, PrepaymentAmortization amortization) throws SQLException {
+        int i = 0;
+        ps.setLong(++i, amortization.getId());
+        ps.setString(++i, amortization.getDescription());
+        ps.setDate(++i, amortization.getPrepaymentPeriod() == null ? null : Date.valueOf(amortization.getPrepaymentPeriod()));
+        ps.setBigDecimal(++i, amortization.getPrepaymentAmount());
+        if (amortization.getInactive() == null) {
+            ps.setNull(++i, Types.BOOLEAN);
+        } else {
+            ps.setBoolean(++i, amortization.getInactive());
+        }
+        ps.setObject(++i, amortization.getAmortizationIdentifier());
+        setLong(ps, ++i, idOf(amortization.getPrepaymentAccount(), PrepaymentAccount::getId));
+        setLong(ps, ++i, idOf(amortization.getSettlementCurrency(), SettlementCurrency::getId));
+        setLong(ps, ++i, idOf(amortization.getDebitAccount(), TransactionAccount::getId));
+        setLong(ps, ++i, idOf(amortization.getCreditAccount(), TransactionAccount::getId));
+        setLong(ps, ++i, idOf(amortization.getFiscalMonth(), FiscalMonth::getId));
+        setLong(ps, ++i, idOf(amortization.getPrepaymentCompilationRequest(), PrepaymentCompilationRequest::getId));
+        setLong(ps, ++i, idOf(amortization.getAmortizationPeriod(), AmortizationPeriod::getId));
+    }
+
+    private static <T> Long idOf(T relation, Function<T, Long> id) {
+        return relation == null ? null : id.apply(relation);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
@@ -18,31 +18,31 @@ package io.github.erp.internal.service.prepayments;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import io.github.erp.domain.*;
-import io.github.erp.erp.assets.depreciation.exceptions.FiscalMonthNotConfiguredException;
+import io.github.erp.domain.enumeration.CompilationStatusTypes;
+import io.github.erp.internal.repository.InternalAmortizationPeriodRepository;
 import io.github.erp.internal.repository.InternalFiscalMonthRepository;
-import io.github.erp.repository.PrepaymentAccountRepository;
-import io.github.erp.repository.PrepaymentAmortizationRepository;
-import io.github.erp.repository.PrepaymentMarshallingRepository;
-import io.github.erp.repository.search.PrepaymentAmortizationSearchRepository;
-import io.github.erp.service.dto.AmortizationPeriodDTO;
+import io.github.erp.internal.repository.InternalPrepaymentMarshallingRepository;
+import io.github.erp.service.PrepaymentCompilationRequestService;
 import io.github.erp.service.dto.PrepaymentCompilationRequestDTO;
-import io.github.erp.service.mapper.AmortizationPeriodMapper;
 import io.github.erp.service.mapper.PrepaymentCompilationRequestMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * asynchronous processing of compilation request with callback
@@ -50,6 +50,14 @@ import java.util.stream.Stream;
  * We have changed the data access to use direct repositories instead of
  * services, so that we might have access to the transactional facility in the
  * event of failure
+ * <p>
+ * The active marshalling items not yet processed are read in keyset pages of
+ * {@code erp.prepayments.compilation.chunk-size}. Each page is amortized against a calendar of
+ * fiscal months and amortization periods loaded once per compilation, its rows are written with
+ * batched inserts, its items are marked processed and the progress is recorded on the
+ * compilation request, all in one transaction per page. A failed compilation therefore leaves the
+ * completed pages in place and the remaining items unprocessed for the next request; the request
+ * itself is marked ERRORED before the failure is rethrown.
  */
 @Service
 @Transactional
@@ -57,132 +65,137 @@ public class PrepaymentCompilationServiceImpl implements PrepaymentCompilationSe
 
     private final static Logger log = LoggerFactory.getLogger(PrepaymentCompilationServiceImpl.class);
 
-    private final PrepaymentMarshallingRepository prepaymentMarshallingRepository;
-    private final PrepaymentAccountRepository prepaymentAccountRepository;
+    private final InternalPrepaymentMarshallingRepository prepaymentMarshallingRepository;
     private final InternalFiscalMonthRepository fiscalMonthRepository;
+    private final InternalAmortizationPeriodRepository amortizationPeriodRepository;
     private final PrepaymentCompilationRequestMapper prepaymentCompilationRequestMapper;
+    private final PrepaymentCompilationRequestService prepaymentCompilationRequestService;
     private final PrepaymentCompilationCompleteSequence prepaymentCompilationCompleteSequence;
-    private final PrepaymentAmortizationRepository prepaymentAmortizationRepository;
-    private final PrepaymentAmortizationSearchRepository prepaymentAmortizationSearchRepository;
-    private final InternalAmortizationPeriodService internalAmortizationPeriodService;
-    private final AmortizationPeriodMapper amortizationPeriodMapper;
+    private final PrepaymentAmortizationJdbcWriter prepaymentAmortizationJdbcWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
 
+    @Autowired
     public PrepaymentCompilationServiceImpl(
-        PrepaymentMarshallingRepository prepaymentMarshallingRepository,
-        PrepaymentAccountRepository prepaymentAccountRepository,
+        InternalPrepaymentMarshallingRepository prepaymentMarshallingRepository,
         InternalFiscalMonthRepository fiscalMonthRepository,
+        InternalAmortizationPeriodRepository amortizationPeriodRepository,
         PrepaymentCompilationRequestMapper prepaymentCompilationRequestMapper,
+        PrepaymentCompilationRequestService prepaymentCompilationRequestService,
         PrepaymentCompilationCompleteSequence prepaymentCompilationCompleteSequence,
-        PrepaymentAmortizationRepository prepaymentAmortizationRepository,
-        PrepaymentAmortizationSearchRepository prepaymentAmortizationSearchRepository,
-        InternalAmortizationPeriodService internalAmortizationPeriodService,
-        AmortizationPeriodMapper amortizationPeriodMapper) {
+        PrepaymentAmortizationJdbcWriter prepaymentAmortizationJdbcWriter,
+        PlatformTransactionManager transactionManager,
+        @Value("${erp.prepayments.compilation.chunk-size:500}") int chunkSize) {
         this.prepaymentMarshallingRepository = prepaymentMarshallingRepository;
-        this.prepaymentAccountRepository = prepaymentAccountRepository;
-        this.prepaymentCompilationRequestMapper = prepaymentCompilationRequestMapper;
-        this.prepaymentAmortizationRepository = prepaymentAmortizationRepository;
-        this.prepaymentAmortizationSearchRepository = prepaymentAmortizationSearchRepository;
         this.fiscalMonthRepository = fiscalMonthRepository;
+        this.amortizationPeriodRepository = amortizationPeriodRepository;
+        this.prepaymentCompilationRequestMapper = prepaymentCompilationRequestMapper;
+        this.prepaymentCompilationRequestService = prepaymentCompilationRequestService;
         this.prepaymentCompilationCompleteSequence = prepaymentCompilationCompleteSequence;
-        this.internalAmortizationPeriodService = internalAmortizationPeriodService;
-        this.amortizationPeriodMapper = amortizationPeriodMapper;
+        this.prepaymentAmortizationJdbcWriter = prepaymentAmortizationJdbcWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void compile(PrepaymentCompilationRequestDTO compilationRequest) {
 
-        // TODO Implement this is batches
+        long startup = System.currentTimeMillis();
 
-        long numberOfProcessedItems = prepaymentMarshallingRepository.findAllWithEagerRelationships().stream()
-            .filter(marshal -> !marshal.getInactive())
-            .filter(marshal -> !marshal.getProcessed())
-            .count();
+        long unprocessedItems = prepaymentMarshallingRepository.countUnprocessed();
 
-        List<PrepaymentAmortization> savedAmortizationList = prepaymentMarshallingRepository.findAllWithEagerRelationships().stream()
-            .filter(marshal -> !marshal.getInactive())
-            .filter(marshal -> !marshal.getProcessed())
-            .peek(prepaymentMarshalling -> prepaymentMarshalling.setProcessed(true))
-            .peek(prepaymentMarshalling -> prepaymentMarshalling.setCompilationToken(compilationRequest.getCompilationToken()))
-            .flatMap(marshal -> mapIntermediateMarshallingItem(marshal, prepaymentCompilationRequestMapper.toEntity(compilationRequest)))
-            .map(prepaymentAmortizationRepository::save)
-            .toList();
+        log.info("Compiling {} prepayment marshalling items for request token {} in chunks of {}", unprocessedItems, compilationRequest.getCompilationToken(), chunkSize);
 
-        compilationRequest.setItemsProcessed(Math.toIntExact(numberOfProcessedItems));
-        prepaymentCompilationCompleteSequence.compilationComplete(compilationRequest);
+        PrepaymentAmortizationCalendar calendar = transactionTemplate.execute(status -> new PrepaymentAmortizationCalendar(
+            fiscalMonthRepository.findAll(Sort.by("startDate")),
+            amortizationPeriodRepository.findAll(Sort.by("sequenceNumber"))
+        ));
 
-        // Optional indexing
-        // savedAmortizationList.forEach(prepaymentAmortizationSearchRepository::save);
-    }
+        PrepaymentCompilationRequest requestReference = prepaymentCompilationRequestMapper.toEntity(compilationRequest);
 
-    private Stream<PrepaymentAmortization> mapIntermediateMarshallingItem(PrepaymentMarshalling marshalItem, PrepaymentCompilationRequest prepaymentCompilationRequest) {
-
-        var prepaymentAnon = new Object() {
-            PrepaymentAccount account = null;
+        var progress = new Object() {
+            long lastMarshallingId = 0;
+            int itemsProcessed = 0;
         };
 
-        prepaymentAccountRepository.findOneWithEagerRelationships(marshalItem.getPrepaymentAccount().getId()).ifPresent(prepayment -> {
-            prepaymentAnon.account = prepayment;
-        });
+        try {
+            boolean morePages = true;
+            while (morePages) {
+                morePages = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    List<PrepaymentMarshalling> page =
+                        prepaymentMarshallingRepository.findUnprocessedAfter(progress.lastMarshallingId, PageRequest.of(0, chunkSize));
+
+                    if (page.isEmpty()) {
+                        return false;
+                    }
+
+                    List<PrepaymentAmortization> amortizations = new ArrayList<>();
+                    page.forEach(marshalling -> amortize(marshalling, requestReference, calendar, amortizations));
+
+                    prepaymentAmortizationJdbcWriter.write(amortizations);
+
+                    prepaymentMarshallingRepository.markProcessed(
+                        page.stream().map(PrepaymentMarshalling::getId).collect(Collectors.toList()),
+                        compilationRequest.getCompilationToken()
+                    );
+
+                    progress.lastMarshallingId = page.get(page.size() - 1).getId();
+                    progress.itemsProcessed += page.size();
+
+                    compilationRequest.setItemsProcessed(progress.itemsProcessed);
+                    compilationRequest.setCompilationStatus(CompilationStatusTypes.IN_PROGRESS);
+                    prepaymentCompilationRequestService.save(compilationRequest);
+
+                    log.debug("{} of {} prepayment marshalling items compiled; {} amortization rows written in this chunk", progress.itemsProcessed, unprocessedItems, amortizations.size());
+
+                    return page.size() == chunkSize;
+                }));
+            }
+        } catch (RuntimeException e) {
+            log.error("Prepayment compilation for request token {} failed after {} items", compilationRequest.getCompilationToken(), progress.itemsProcessed, e);
+            compilationRequest.setItemsProcessed(progress.itemsProcessed);
+            compilationRequest.setCompilationStatus(CompilationStatusTypes.ERRORED);
+            try {
+                prepaymentCompilationRequestService.save(compilationRequest);
+            } catch (RuntimeException saveFailure) {
+                e.addSuppressed(saveFailure);
+            }
+            throw e;
+        }
+
+        compilationRequest.setItemsProcessed(progress.itemsProcessed);
+        prepaymentCompilationCompleteSequence.compilationComplete(compilationRequest);
 
-        List<PrepaymentAmortization> amortizationDTOList = new ArrayList<>();
+        log.info("{} prepayment marshalling items compiled in {} ms", progress.itemsProcessed, System.currentTimeMillis() - startup);
+    }
 
+    private void amortize(
+        PrepaymentMarshalling marshalItem,
+        PrepaymentCompilationRequest prepaymentCompilationRequest,
+        PrepaymentAmortizationCalendar calendar,
+        List<PrepaymentAmortization> amortizations) {
 
-        for (int period = 0; period <= marshalItem.getAmortizationPeriods() - 1; period++) {
+        PrepaymentAccount account = marshalItem.getPrepaymentAccount();
 
-            FiscalMonth fiscalMonth = incrementFiscalMonth(marshalItem, period);
+        BigDecimal periodicAmount = account.getPrepaymentAmount().divide(BigDecimal.valueOf(marshalItem.getAmortizationPeriods()), RoundingMode.HALF_EVEN);
+
+        for (int period = 0; period <= marshalItem.getAmortizationPeriods() - 1; period++) {
 
             PrepaymentAmortization prepaymentAmortization = new PrepaymentAmortization();
-            prepaymentAmortization.setPrepaymentAmount(prepaymentAnon.account.getPrepaymentAmount().divide(BigDecimal.valueOf(marshalItem.getAmortizationPeriods()), RoundingMode.HALF_EVEN));
-            prepaymentAmortization.setFiscalMonth(fiscalMonth);
-            prepaymentAmortization.setAmortizationPeriod(incrementAmortizationPeriod(marshalItem, period));
+            prepaymentAmortization.setPrepaymentAmount(periodicAmount);
+            prepaymentAmortization.setFiscalMonth(calendar.fiscalMonth(marshalItem, period));
+            prepaymentAmortization.setAmortizationPeriod(calendar.amortizationPeriod(marshalItem, period));
             prepaymentAmortization.setPrepaymentCompilationRequest(prepaymentCompilationRequest);
-            prepaymentAmortization.setPrepaymentAccount(prepaymentAnon.account);
-            prepaymentAmortization.setDebitAccount(prepaymentAnon.account.getTransferAccount());
-            prepaymentAmortization.setCreditAccount(prepaymentAnon.account.getDebitAccount());
-            prepaymentAmortization.setDescription(prepaymentAnon.account.getParticulars());
-            prepaymentAmortization.setSettlementCurrency(prepaymentAnon.account.getSettlementCurrency());
+            prepaymentAmortization.setPrepaymentAccount(account);
+            prepaymentAmortization.setDebitAccount(account.getTransferAccount());
+            prepaymentAmortization.setCreditAccount(account.getDebitAccount());
+            prepaymentAmortization.setDescription(account.getParticulars());
+            prepaymentAmortization.setSettlementCurrency(account.getSettlementCurrency());
             prepaymentAmortization.amortizationIdentifier(UUID.randomUUID());
             prepaymentAmortization.setInactive(false);
 
-            amortizationDTOList.add(prepaymentAmortization);
-        }
-
-        return amortizationDTOList.stream();
-    }
-
-    private AmortizationPeriod incrementAmortizationPeriod(PrepaymentMarshalling marshalling, int period) {
-
-        long firstAmortizationPeriodId = marshalling.getFirstAmortizationPeriod().getId();
-
-        Optional<AmortizationPeriodDTO> nextPeriod =
-            internalAmortizationPeriodService.getNextAmortizationPeriod(firstAmortizationPeriodId, period);
-
-        if (nextPeriod.isPresent()) {
-            return amortizationPeriodMapper.toEntity(nextPeriod.get());
-        } else {
-            throw new AmortizationPeriodNotFoundException("No amortization-period found in the nth sequence after instance id : " + firstAmortizationPeriodId);
+            amortizations.add(prepaymentAmortization);
         }
     }
-
-    /**
-     * Gets fiscal-month and then increments the period to the next period
-     */
-    private FiscalMonth incrementFiscalMonth(PrepaymentMarshalling marshalling, int period) {
-
-        LocalDate startDate = marshalling.getFirstFiscalMonth().getStartDate().plusMonths(period).with(TemporalAdjusters.firstDayOfMonth());
-
-        LocalDate endDate = startDate.with(TemporalAdjusters.lastDayOfMonth());
-
-        final FiscalMonth[] fiscalMonth = {null};
-
-        fiscalMonthRepository.findFiscalMonthByStartDateAndEndDate(startDate, endDate).ifPresentOrElse(month -> {
-
-            log.trace("Fiscal month extracted for year: {}, in quarter: {}", month.getFiscalYear().getFiscalYearCode(), month.getFiscalQuarter().getFiscalQuarterCode());
-
-            fiscalMonth[0] = month;
-        },
-            () -> { throw new FiscalMonthNotConfiguredException(marshalling, startDate, endDate); });
-
-        return fiscalMonth[0];
-    }
 }
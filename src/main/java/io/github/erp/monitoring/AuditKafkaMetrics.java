@@ -19,10 +19,18 @@ package io.github.erp.monitoring;
  */
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class AuditKafkaMetrics {
 
@@ -32,8 +40,12 @@ public class AuditKafkaMetrics {
     private final Counter auditEventConsumptionFailures;
     private final Timer auditEventPublishTime;
     private final Timer auditEventProcessingTime;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> indexingLagMillis = new ConcurrentHashMap<>();
 
     public AuditKafkaMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
         this.auditEventsPublished = Counter.builder("audit.events.published")
             .description("Number of audit events published to Kafka")
             .register(meterRegistry);
@@ -90,4 +102,52 @@ public class AuditKafkaMetrics {
     public void recordProcessingTime(Timer.Sample sample) {
         sample.stop(auditEventProcessingTime);
     }
+
+    /**
+     * Records a bulk request of the Elasticsearch indexing consumers
+     *
+     * @param stream audit or compliance
+     * @param indexed documents Elasticsearch accepted
+     * @param deadLettered records sent to the dead-letter topic after a permanent indexing failure
+     * @param bulkTime time the bulk request took
+     * @param newestRecord timestamp of the newest record in the batch, from which the lag is derived
+     */
+    public void recordIndexingBatch(String stream, int indexed, int deadLettered, Duration bulkTime, Instant newestRecord) {
+        DistributionSummary.builder("audit.events.indexing.batch.size")
+            .description("Records per Elasticsearch bulk request")
+            .tag("stream", stream)
+            .register(meterRegistry)
+            .record(indexed + deadLettered);
+        Timer.builder("audit.events.indexing.bulk.time")
+            .description("Time taken by Elasticsearch bulk requests of audit events")
+            .tag("stream", stream)
+            .register(meterRegistry)
+            .record(bulkTime);
+        Counter.builder("audit.events.indexed")
+            .description("Number of audit events indexed in Elasticsearch")
+            .tag("stream", stream)
+            .register(meterRegistry)
+            .increment(indexed);
+        if (deadLettered > 0) {
+            Counter.builder("audit.events.indexing.dead.lettered")
+                .description("Number of audit events sent to the dead-letter topic after failing to index")
+                .tag("stream", stream)
+                .register(meterRegistry)
+                .increment(deadLettered);
+        }
+        auditEventsConsumed.increment(indexed + deadLettered);
+        indexingLag(stream).set(Math.max(0, Duration.between(newestRecord, Instant.now()).toMillis()));
+    }
+
+    private AtomicLong indexingLag(String stream) {
+        return indexingLagMillis.computeIfAbsent(stream, key -> {
+            AtomicLong lag = new AtomicLong();
+            Gauge.builder("audit.events.indexing.lag", lag, AtomicLong::get)
+                .description("Age in milliseconds of the newest audit event in the last indexed batch")
+                .tag("stream", key)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+            return lag;
+        });
+    }
 }
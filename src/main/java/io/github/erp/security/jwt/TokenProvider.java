@@ -17,16 +17,27 @@ package io.github.erp.security.jwt;
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -50,7 +61,31 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
+    /**
+     * Tokens that have already passed signature and expiry checks, keyed by their SHA-256 digest
+     */
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> TOKEN_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
     public TokenProvider(JHipsterProperties jHipsterProperties) {
+        this(jHipsterProperties, 10_000, 300);
+    }
+
+    @Autowired
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        @Value("${erp.security.verified-token-cache.maximum-size:10000}") long verifiedTokenCacheSize,
+        @Value("${erp.security.verified-token-cache.max-time-to-live-seconds:300}") long verifiedTokenMaxTimeToLiveSeconds
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -69,6 +104,12 @@ public class TokenProvider {
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.verifiedTokens =
+            Caffeine
+                .newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new VerifiedTokenExpiry(TimeUnit.SECONDS.toMillis(verifiedTokenMaxTimeToLiveSeconds), System::currentTimeMillis))
+                .build();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -92,17 +133,52 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
+    /**
+     * Verifies the token and returns the authentication it carries, parsing it at most once while
+     * it stays in the verified-token cache. Cached entries expire no later than the token itself.
+     *
+     * @return the authentication, or empty if the token is malformed, forged or expired
+     */
+    public Optional<Authentication> authenticate(String token) {
+        ByteBuffer digest = digest(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null) {
+            return Optional.of(verified.authentication);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return Optional.empty();
+        }
+
+        Authentication authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(authentication, claims.getExpiration().getTime()));
+        }
+        return Optional.of(authentication);
+    }
+
+    private Authentication toAuthentication(Claims claims, String token) {
+        List<GrantedAuthority> grantedAuthorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+            .map(auth -> authorities.computeIfAbsent(auth, SimpleGrantedAuthority::new))
+            .collect(Collectors.toUnmodifiableList());
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        User principal = new User(claims.getSubject(), "", grantedAuthorities);
+
+        return new VerifiedTokenAuthentication(principal, token, grantedAuthorities);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(TOKEN_DIGEST.get().digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 
     public boolean validateToken(String authToken) {
@@ -115,4 +191,51 @@ public class TokenProvider {
         }
         return false;
     }
+
+    private static final class VerifiedToken {
+
+        private final Authentication authentication;
+
+        private final long expiresAtMillis;
+
+        private VerifiedToken(Authentication authentication, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * Keeps a verified token until the earlier of its {@code exp} claim and the configured maximum
+     * time-to-live. Reads do not extend the entry.
+     */
+    static final class VerifiedTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        private final long maxTimeToLiveMillis;
+
+        private final LongSupplier wallClockMillis;
+
+        VerifiedTokenExpiry(long maxTimeToLiveMillis, LongSupplier wallClockMillis) {
+            this.maxTimeToLiveMillis = maxTimeToLiveMillis;
+            this.wallClockMillis = wallClockMillis;
+        }
+
+        long timeToLiveMillis(long expiresAtMillis) {
+            return Math.max(0, Math.min(maxTimeToLiveMillis, expiresAtMillis - wallClockMillis.getAsLong()));
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis(value.expiresAtMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package io.github.erp.security.jwt;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Collection;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Authentication built from a verified JWT. The same instance is handed to every request that
+ * presents the token while it stays in the {@link TokenProvider} cache, so it cannot be changed
+ * after construction.
+ */
+public final class VerifiedTokenAuthentication extends UsernamePasswordAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    VerifiedTokenAuthentication(User principal, String token, Collection<? extends GrantedAuthority> authorities) {
+        super(principal, token, authorities);
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        throw new UnsupportedOperationException("A verified token authentication is immutable");
+    }
+
+    @Override
+    public void setDetails(Object details) {
+        throw new UnsupportedOperationException("A verified token authentication is immutable");
+    }
+
+    /**
+     * Does nothing: the token is the credential of every request that shares this instance.
+     */
+    @Override
+    public void eraseCredentials() {}
+}
@@ -20,37 +20,88 @@ package io.github.erp.service.consumer;
 
 import io.github.erp.domain.events.audit.AuditTrailEvent;
 import io.github.erp.domain.events.audit.ComplianceAuditEvent;
+import io.github.erp.monitoring.AuditKafkaMetrics;
 import io.github.erp.service.elasticsearch.document.AuditEventDocument;
-import org.springframework.data.elasticsearch.core.query.IndexQuery;
-import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
-import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
+/**
+ * Indexes audit and compliance events in Elasticsearch.
+ * <p>
+ * Each listener receives the records of a poll as one batch and writes them with a single bulk
+ * request, keyed by event id so that a redelivered batch overwrites rather than duplicates. The batch
+ * is acknowledged only after the bulk request has succeeded. Documents that fail with a transient
+ * error, a 429 or a 5xx status, are sent again on their own with an exponential backoff, up to
+ * retry-attempts times. Records that cannot be turned into a document, documents rejected with any
+ * other 4xx status, such as mapping conflicts, and those still failing once the retries are exhausted,
+ * are sent to the topic's dead-letter topic. If the bulk request fails as a whole, the batch is thrown
+ * back to the container and redelivered.
+ */
 @Service
 public class ElasticsearchIndexingConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(ElasticsearchIndexingConsumer.class);
+
+    static final String AUDIT_STREAM = "audit";
+    static final String COMPLIANCE_STREAM = "compliance";
+    static final String DEAD_LETTER_REASON_HEADER = "erp-indexing-failure";
     
     private final ElasticsearchRestTemplate elasticsearchTemplate;
+    private final KafkaTemplate<String, AuditTrailEvent> auditTrailEventKafkaTemplate;
+    private final KafkaTemplate<String, ComplianceAuditEvent> complianceAuditEventKafkaTemplate;
+    private final AuditKafkaMetrics auditKafkaMetrics;
+    private final String deadLetterSuffix;
+    private final int retryAttempts;
+    private final long retryIntervalMillis;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public ElasticsearchIndexingConsumer(ElasticsearchRestTemplate elasticsearchTemplate) {
+    public ElasticsearchIndexingConsumer(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        KafkaTemplate<String, AuditTrailEvent> auditTrailEventKafkaTemplate,
+        KafkaTemplate<String, ComplianceAuditEvent> complianceAuditEventKafkaTemplate,
+        AuditKafkaMetrics auditKafkaMetrics,
+        @Value("${erp.audit.indexing.dead-letter-suffix:.DLT}") String deadLetterSuffix,
+        @Value("${erp.audit.indexing.retry-attempts:3}") int retryAttempts,
+        @Value("${erp.audit.indexing.retry-interval-millis:500}") long retryIntervalMillis
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.auditTrailEventKafkaTemplate = auditTrailEventKafkaTemplate;
+        this.complianceAuditEventKafkaTemplate = complianceAuditEventKafkaTemplate;
+        this.auditKafkaMetrics = auditKafkaMetrics;
+        this.deadLetterSuffix = deadLetterSuffix;
+        this.retryAttempts = retryAttempts;
+        this.retryIntervalMillis = retryIntervalMillis;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -61,103 +112,156 @@ public class ElasticsearchIndexingConsumer {
             "${spring.kafka.topics.audit-events.system-events.name:erp.audit.prod.system-events.v1}"
         },
         groupId = "erp-system-elasticsearch-indexing",
-        containerFactory = "auditTrailEventKafkaListenerContainerFactory"
+        containerFactory = "auditTrailEventBatchKafkaListenerContainerFactory"
     )
-    public void consumeAuditEventsForIndexing(
-            @Payload AuditTrailEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            log.info("Indexing audit event: {} from topic: {} partition: {} offset: {}", 
-                    event.getEventId(), topic, partition, offset);
-            
-            indexAuditEvent(event, topic);
-            
-            log.debug("Successfully indexed audit event: {}", event.getEventId());
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Error indexing audit event: {} from topic: {}", 
-                    event.getEventId(), topic, e);
-        }
+    public void consumeAuditEventsForIndexing(List<ConsumerRecord<String, AuditTrailEvent>> records, Acknowledgment acknowledgment) {
+        indexBatch(
+            AUDIT_STREAM,
+            records,
+            record -> indexRequest(determineIndexName(record.topic(), record.value().getOccurredOn()), record.value().getEventId().toString(), transformToDocument(record.value())),
+            auditTrailEventKafkaTemplate
+        );
+        acknowledgment.acknowledge();
     }
 
     @KafkaListener(
         topics = "${spring.kafka.topics.audit-events.compliance-events.name:erp.audit.prod.compliance-events.v1}",
         groupId = "erp-system-elasticsearch-indexing",
-        containerFactory = "complianceAuditEventKafkaListenerContainerFactory"
+        containerFactory = "complianceAuditEventBatchKafkaListenerContainerFactory"
     )
-    public void consumeComplianceEventsForIndexing(
-            @Payload ComplianceAuditEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            log.info("Indexing compliance event: {} from topic: {} partition: {} offset: {}", 
-                    event.getEventId(), topic, partition, offset);
-            
-            indexComplianceEvent(event);
-            
-            log.debug("Successfully indexed compliance event: {}", event.getEventId());
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Error indexing compliance event: {} from topic: {}", 
-                    event.getEventId(), topic, e);
+    public void consumeComplianceEventsForIndexing(List<ConsumerRecord<String, ComplianceAuditEvent>> records, Acknowledgment acknowledgment) {
+        indexBatch(
+            COMPLIANCE_STREAM,
+            records,
+            record -> indexRequest(complianceIndexName(record.value().getOccurredOn()), record.value().getEventId().toString(), transformComplianceToDocument(record.value())),
+            complianceAuditEventKafkaTemplate
+        );
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Writes the batch with one bulk request, sends the documents that failed with a transient error
+     * again, and dead-letters the records that could not be converted, and the documents rejected for
+     * good or still failing after the retries.
+     * Returns normally only when every record is either indexed or on the dead-letter topic.
+     */
+    private <T> void indexBatch(
+        String stream,
+        List<ConsumerRecord<String, T>> records,
+        Function<ConsumerRecord<String, T>, IndexRequest> toIndexRequest,
+        KafkaTemplate<String, T> deadLetterTemplate
+    ) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> rejected = new TreeMap<>();
+        List<IndexRequest> indexRequests = new ArrayList<>(records.size());
+        List<Integer> outstanding = new ArrayList<>(records.size());
+        for (int index = 0; index < records.size(); index++) {
+            try {
+                indexRequests.add(toIndexRequest.apply(records.get(index)));
+                outstanding.add(index);
+            } catch (RuntimeException e) {
+                // A malformed record must not hold back the rest of the batch
+                indexRequests.add(null);
+                rejected.put(index, "Could not convert the event to a document: " + e);
+            }
+        }
+        Duration bulkTime = Duration.ZERO;
+        long retryInterval = retryIntervalMillis;
+
+        for (int attempt = 1; !outstanding.isEmpty(); attempt++) {
+            BulkRequest bulkRequest = new BulkRequest();
+            outstanding.forEach(index -> bulkRequest.add(indexRequests.get(index)));
+
+            Instant started = Instant.now();
+            BulkResponse response;
+            try {
+                response = elasticsearchTemplate.execute(client -> client.bulk(bulkRequest, RequestOptions.DEFAULT));
+            } catch (RuntimeException e) {
+                auditKafkaMetrics.incrementConsumptionFailures();
+                log.warn("Bulk indexing of {} {} events failed, the batch will be redelivered", outstanding.size(), stream, e);
+                throw e;
+            }
+            bulkTime = bulkTime.plus(Duration.between(started, Instant.now()));
+
+            List<Integer> retries = new ArrayList<>();
+            for (BulkItemResponse item : response.getItems()) {
+                if (!item.isFailed()) {
+                    continue;
+                }
+                int index = outstanding.get(item.getItemId());
+                if (isTransient(item.status()) && attempt <= retryAttempts) {
+                    retries.add(index);
+                } else {
+                    rejected.put(index, item.getFailureMessage());
+                }
+            }
+
+            if (!retries.isEmpty()) {
+                log.warn("{} of {} {} events failed with a transient error, retrying in {} ms", retries.size(), outstanding.size(), stream, retryInterval);
+                pause(stream, retryInterval);
+                retryInterval *= 2;
+            }
+            outstanding = retries;
         }
+
+        List<ListenableFuture<?>> deadLetters = new ArrayList<>();
+        rejected.forEach((index, failure) -> {
+            ConsumerRecord<String, T> record = records.get(index);
+            log.error("Failed to index {} event from {}-{}@{}: {}", stream, record.topic(), record.partition(), record.offset(), failure);
+            deadLetters.add(deadLetterTemplate.send(deadLetterRecord(record, failure)));
+        });
+        awaitDeadLetters(stream, deadLetters);
+
+        long newest = records.stream().mapToLong(ConsumerRecord::timestamp).max().orElse(System.currentTimeMillis());
+        auditKafkaMetrics.recordIndexingBatch(stream, records.size() - deadLetters.size(), deadLetters.size(), bulkTime, Instant.ofEpochMilli(newest));
+        log.debug("Indexed {} {} events in {} ms, {} dead-lettered", records.size() - deadLetters.size(), stream, bulkTime.toMillis(), deadLetters.size());
     }
 
-    private void indexAuditEvent(AuditTrailEvent event, String topic) {
+    private static boolean isTransient(RestStatus status) {
+        return status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500;
+    }
+
+    private static void pause(String stream, long millis) {
         try {
-            AuditEventDocument document = transformToDocument(event);
-            
-            String indexName = determineIndexName(topic, event.getOccurredOn());
-            IndexQuery indexQuery = new IndexQueryBuilder()
-                .withId(event.getEventId().toString())
-                .withObject(document)
-                .build();
-            
-            elasticsearchTemplate.index(indexQuery, IndexCoordinates.of(indexName));
-            
-            log.debug("Successfully indexed audit event: {} to index: {}", 
-                event.getEventId(), indexName);
-                
-        } catch (Exception e) {
-            log.error("Failed to index audit event: {} from topic: {}", event.getEventId(), topic, e);
-            throw new RuntimeException("Failed to index audit event", e);
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying " + stream + " events", e);
         }
     }
 
-    private void indexComplianceEvent(ComplianceAuditEvent event) {
-        try {
-            AuditEventDocument document = transformComplianceToDocument(event);
-            
-            String indexName = "compliance-events-" + 
-                java.time.format.DateTimeFormatter.ofPattern("yyyy.MM").format(
-                    event.getOccurredOn().atZone(java.time.ZoneOffset.UTC));
-            
-            IndexQuery indexQuery = new IndexQueryBuilder()
-                .withId(event.getEventId().toString())
-                .withObject(document)
-                .build();
-            
-            elasticsearchTemplate.index(indexQuery, IndexCoordinates.of(indexName));
-            
-            log.debug("Successfully indexed compliance event: {} to index: {}", 
-                event.getEventId(), indexName);
-                
-        } catch (Exception e) {
-            log.error("Failed to index compliance event: {} of type: {}", 
-                event.getEventId(), event.getComplianceType(), e);
-            throw new RuntimeException("Failed to index compliance event", e);
+    private <T> ProducerRecord<String, T> deadLetterRecord(ConsumerRecord<String, T> record, String failure) {
+        ProducerRecord<String, T> deadLetter = new ProducerRecord<>(record.topic() + deadLetterSuffix, record.key(), record.value());
+        record.headers().forEach(header -> deadLetter.headers().add(header));
+        deadLetter.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8));
+        deadLetter.headers().add(KafkaHeaders.DLT_ORIGINAL_PARTITION, String.valueOf(record.partition()).getBytes(StandardCharsets.UTF_8));
+        deadLetter.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, String.valueOf(record.offset()).getBytes(StandardCharsets.UTF_8));
+        deadLetter.headers().add(DEAD_LETTER_REASON_HEADER, String.valueOf(failure).getBytes(StandardCharsets.UTF_8));
+        return deadLetter;
+    }
+
+    private void awaitDeadLetters(String stream, List<ListenableFuture<?>> deadLetters) {
+        for (ListenableFuture<?> deadLetter : deadLetters) {
+            try {
+                deadLetter.get();
+            } catch (ExecutionException e) {
+                // The batch is redelivered; documents already indexed are overwritten with themselves
+                throw new IllegalStateException("Failed to dead-letter a " + stream + " event", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while dead-lettering " + stream + " events", e);
+            }
         }
     }
 
+    private IndexRequest indexRequest(String indexName, String id, AuditEventDocument document) {
+        String source = elasticsearchTemplate.getElasticsearchConverter().mapObject(document).toJson();
+        return new IndexRequest(indexName).id(id).source(source, XContentType.JSON);
+    }
+
     private AuditEventDocument transformToDocument(AuditTrailEvent event) {
         AuditEventDocument document = new AuditEventDocument();
         document.setEventId(event.getEventId().toString());
@@ -254,6 +358,11 @@ public class ElasticsearchIndexingConsumer {
         return searchText.toString().trim();
     }
 
+    private String complianceIndexName(Instant occurredOn) {
+        return "compliance-events-" + java.time.format.DateTimeFormatter.ofPattern("yyyy.MM")
+            .format(occurredOn.atZone(java.time.ZoneOffset.UTC));
+    }
+
     private String determineIndexName(String topic, Instant occurredOn) {
         String indexPrefix;
         if (topic.contains("business-events")) {
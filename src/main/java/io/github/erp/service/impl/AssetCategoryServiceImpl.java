@@ -29,6 +29,8 @@ import io.github.erp.service.mapper.AssetCategoryMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -60,6 +62,7 @@ public class AssetCategoryServiceImpl implements AssetCategoryService {
     }
 
     @Override
+    @CacheEvict(value = "assetCategories", allEntries = true, cacheManager = "referenceDataCacheManager")
     public AssetCategoryDTO save(AssetCategoryDTO assetCategoryDTO) {
         log.debug("Request to save AssetCategory : {}", assetCategoryDTO);
         AssetCategory assetCategory = assetCategoryMapper.toEntity(assetCategoryDTO);
@@ -70,6 +73,7 @@ public class AssetCategoryServiceImpl implements AssetCategoryService {
     }
 
     @Override
+    @CacheEvict(value = "assetCategories", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<AssetCategoryDTO> partialUpdate(AssetCategoryDTO assetCategoryDTO) {
         log.debug("Request to partially update AssetCategory : {}", assetCategoryDTO);
 
@@ -102,12 +106,14 @@ public class AssetCategoryServiceImpl implements AssetCategoryService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "assetCategories", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<AssetCategoryDTO> findOne(Long id) {
         log.debug("Request to get AssetCategory : {}", id);
         return assetCategoryRepository.findOneWithEagerRelationships(id).map(assetCategoryMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "assetCategories", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete AssetCategory : {}", id);
         assetCategoryRepository.deleteById(id);
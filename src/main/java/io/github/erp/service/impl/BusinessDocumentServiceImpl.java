@@ -21,6 +21,7 @@ package io.github.erp.service.impl;
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import io.github.erp.domain.BusinessDocument;
+import io.github.erp.internal.files.documents.BusinessDocumentBlobStore;
 import io.github.erp.repository.BusinessDocumentRepository;
 import io.github.erp.repository.search.BusinessDocumentSearchRepository;
 import io.github.erp.service.BusinessDocumentService;
@@ -50,14 +51,18 @@ public class BusinessDocumentServiceImpl implements BusinessDocumentService {
 
     private final BusinessDocumentSearchRepository businessDocumentSearchRepository;
 
+    private final BusinessDocumentBlobStore businessDocumentBlobStore;
+
     public BusinessDocumentServiceImpl(
         BusinessDocumentRepository businessDocumentRepository,
         BusinessDocumentMapper businessDocumentMapper,
-        @Autowired(required = false) BusinessDocumentSearchRepository businessDocumentSearchRepository
+        @Autowired(required = false) BusinessDocumentSearchRepository businessDocumentSearchRepository,
+        BusinessDocumentBlobStore businessDocumentBlobStore
     ) {
         this.businessDocumentRepository = businessDocumentRepository;
         this.businessDocumentMapper = businessDocumentMapper;
         this.businessDocumentSearchRepository = businessDocumentSearchRepository;
+        this.businessDocumentBlobStore = businessDocumentBlobStore;
     }
 
     @Override
@@ -115,6 +120,10 @@ public class BusinessDocumentServiceImpl implements BusinessDocumentService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete BusinessDocument : {}", id);
+        businessDocumentRepository
+            .findById(id)
+            .flatMap(businessDocument -> businessDocumentBlobStore.checksumOf(businessDocument.getAttachmentFilePath()))
+            .ifPresent(businessDocumentBlobStore::release);
         businessDocumentRepository.deleteById(id);
         if (businessDocumentSearchRepository != null) {
             businessDocumentSearchRepository.deleteById(id);
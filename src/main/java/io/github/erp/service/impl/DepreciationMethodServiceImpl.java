@@ -29,6 +29,8 @@ import io.github.erp.service.mapper.DepreciationMethodMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -60,6 +62,7 @@ public class DepreciationMethodServiceImpl implements DepreciationMethodService
     }
 
     @Override
+    @CacheEvict(value = "depreciationMethods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public DepreciationMethodDTO save(DepreciationMethodDTO depreciationMethodDTO) {
         log.debug("Request to save DepreciationMethod : {}", depreciationMethodDTO);
         DepreciationMethod depreciationMethod = depreciationMethodMapper.toEntity(depreciationMethodDTO);
@@ -70,6 +73,7 @@ public class DepreciationMethodServiceImpl implements DepreciationMethodService
     }
 
     @Override
+    @CacheEvict(value = "depreciationMethods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationMethodDTO> partialUpdate(DepreciationMethodDTO depreciationMethodDTO) {
         log.debug("Request to partially update DepreciationMethod : {}", depreciationMethodDTO);
 
@@ -102,12 +106,14 @@ public class DepreciationMethodServiceImpl implements DepreciationMethodService
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "depreciationMethods", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationMethodDTO> findOne(Long id) {
         log.debug("Request to get DepreciationMethod : {}", id);
         return depreciationMethodRepository.findOneWithEagerRelationships(id).map(depreciationMethodMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "depreciationMethods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete DepreciationMethod : {}", id);
         depreciationMethodRepository.deleteById(id);
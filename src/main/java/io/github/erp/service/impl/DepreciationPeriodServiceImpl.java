@@ -30,6 +30,8 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -61,6 +63,7 @@ public class DepreciationPeriodServiceImpl implements DepreciationPeriodService
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public DepreciationPeriodDTO save(DepreciationPeriodDTO depreciationPeriodDTO) {
         log.debug("Request to save DepreciationPeriod : {}", depreciationPeriodDTO);
         DepreciationPeriod depreciationPeriod = depreciationPeriodMapper.toEntity(depreciationPeriodDTO);
@@ -73,6 +76,7 @@ public class DepreciationPeriodServiceImpl implements DepreciationPeriodService
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationPeriodDTO> partialUpdate(DepreciationPeriodDTO depreciationPeriodDTO) {
         log.debug("Request to partially update DepreciationPeriod : {}", depreciationPeriodDTO);
 
@@ -103,12 +107,14 @@ public class DepreciationPeriodServiceImpl implements DepreciationPeriodService
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "depreciationPeriods", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<DepreciationPeriodDTO> findOne(Long id) {
         log.debug("Request to get DepreciationPeriod : {}", id);
         return depreciationPeriodRepository.findById(id).map(depreciationPeriodMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "depreciationPeriods", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete DepreciationPeriod : {}", id);
         depreciationPeriodRepository.deleteById(id);
@@ -30,6 +30,8 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -61,6 +63,7 @@ public class FiscalMonthServiceImpl implements FiscalMonthService {
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public FiscalMonthDTO save(FiscalMonthDTO fiscalMonthDTO) {
         log.debug("Request to save FiscalMonth : {}", fiscalMonthDTO);
         FiscalMonth fiscalMonth = fiscalMonthMapper.toEntity(fiscalMonthDTO);
@@ -73,6 +76,7 @@ public class FiscalMonthServiceImpl implements FiscalMonthService {
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<FiscalMonthDTO> partialUpdate(FiscalMonthDTO fiscalMonthDTO) {
         log.debug("Request to partially update FiscalMonth : {}", fiscalMonthDTO);
 
@@ -107,12 +111,14 @@ public class FiscalMonthServiceImpl implements FiscalMonthService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "fiscalMonths", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<FiscalMonthDTO> findOne(Long id) {
         log.debug("Request to get FiscalMonth : {}", id);
         return fiscalMonthRepository.findOneWithEagerRelationships(id).map(fiscalMonthMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "fiscalMonths", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete FiscalMonth : {}", id);
         fiscalMonthRepository.deleteById(id);
@@ -30,6 +30,8 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -61,6 +63,7 @@ public class ServiceOutletServiceImpl implements ServiceOutletService {
     }
 
     @Override
+    @CacheEvict(value = "serviceOutlets", allEntries = true, cacheManager = "referenceDataCacheManager")
     public ServiceOutletDTO save(ServiceOutletDTO serviceOutletDTO) {
         log.debug("Request to save ServiceOutlet : {}", serviceOutletDTO);
         ServiceOutlet serviceOutlet = serviceOutletMapper.toEntity(serviceOutletDTO);
@@ -73,6 +76,7 @@ public class ServiceOutletServiceImpl implements ServiceOutletService {
     }
 
     @Override
+    @CacheEvict(value = "serviceOutlets", allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<ServiceOutletDTO> partialUpdate(ServiceOutletDTO serviceOutletDTO) {
         log.debug("Request to partially update ServiceOutlet : {}", serviceOutletDTO);
 
@@ -107,12 +111,14 @@ public class ServiceOutletServiceImpl implements ServiceOutletService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "serviceOutlets", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<ServiceOutletDTO> findOne(Long id) {
         log.debug("Request to get ServiceOutlet : {}", id);
         return serviceOutletRepository.findOneWithEagerRelationships(id).map(serviceOutletMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = "serviceOutlets", allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete ServiceOutlet : {}", id);
         serviceOutletRepository.deleteById(id);
@@ -30,6 +30,8 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -61,6 +63,7 @@ public class TransactionAccountServiceImpl implements TransactionAccountService
     }
 
     @Override
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public TransactionAccountDTO save(TransactionAccountDTO transactionAccountDTO) {
         log.debug("Request to save TransactionAccount : {}", transactionAccountDTO);
         TransactionAccount transactionAccount = transactionAccountMapper.toEntity(transactionAccountDTO);
@@ -73,6 +76,7 @@ public class TransactionAccountServiceImpl implements TransactionAccountService
     }
 
     @Override
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public Optional<TransactionAccountDTO> partialUpdate(TransactionAccountDTO transactionAccountDTO) {
         log.debug("Request to partially update TransactionAccount : {}", transactionAccountDTO);
 
@@ -107,12 +111,14 @@ public class TransactionAccountServiceImpl implements TransactionAccountService
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "transactionAccounts", key = "#id", unless = "#result == null", cacheManager = "referenceDataCacheManager")
     public Optional<TransactionAccountDTO> findOne(Long id) {
         log.debug("Request to get TransactionAccount : {}", id);
         return transactionAccountRepository.findOneWithEagerRelationships(id).map(transactionAccountMapper::toDto);
     }
 
     @Override
+    @CacheEvict(value = {"transactionAccounts", "transactionAccountIds"}, allEntries = true, cacheManager = "referenceDataCacheManager")
     public void delete(Long id) {
         log.debug("Request to delete TransactionAccount : {}", id);
         transactionAccountRepository.deleteById(id);
@@ -21,6 +21,7 @@ package io.github.erp.service.impl;
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import io.github.erp.domain.TransactionDetails;
+import io.github.erp.internal.ledger.AccountBalanceSnapshotService;
 import io.github.erp.repository.TransactionDetailsRepository;
 import io.github.erp.repository.search.TransactionDetailsSearchRepository;
 import io.github.erp.service.TransactionDetailsService;
@@ -50,19 +51,26 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
 
     private final TransactionDetailsSearchRepository transactionDetailsSearchRepository;
 
+    private final AccountBalanceSnapshotService accountBalanceSnapshotService;
+
     public TransactionDetailsServiceImpl(
         TransactionDetailsRepository transactionDetailsRepository,
         TransactionDetailsMapper transactionDetailsMapper,
-        @Autowired(required = false) TransactionDetailsSearchRepository transactionDetailsSearchRepository
+        @Autowired(required = false) TransactionDetailsSearchRepository transactionDetailsSearchRepository,
+        AccountBalanceSnapshotService accountBalanceSnapshotService
     ) {
         this.transactionDetailsRepository = transactionDetailsRepository;
         this.transactionDetailsMapper = transactionDetailsMapper;
         this.transactionDetailsSearchRepository = transactionDetailsSearchRepository;
+        this.accountBalanceSnapshotService = accountBalanceSnapshotService;
     }
 
     @Override
     public TransactionDetailsDTO save(TransactionDetailsDTO transactionDetailsDTO) {
         log.debug("Request to save TransactionDetails : {}", transactionDetailsDTO);
+        if (transactionDetailsDTO.getId() != null) {
+            accountBalanceSnapshotService.withdraw(transactionDetailsDTO.getId());
+        }
         TransactionDetails transactionDetails = transactionDetailsMapper.toEntity(transactionDetailsDTO);
         transactionDetails = transactionDetailsRepository.save(transactionDetails);
         TransactionDetailsDTO result = transactionDetailsMapper.toDto(transactionDetails);
@@ -79,6 +87,7 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
         return transactionDetailsRepository
             .findById(transactionDetailsDTO.getId())
             .map(existingTransactionDetails -> {
+                accountBalanceSnapshotService.withdraw(existingTransactionDetails.getId());
                 transactionDetailsMapper.partialUpdate(existingTransactionDetails, transactionDetailsDTO);
 
                 return existingTransactionDetails;
@@ -115,6 +124,7 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
     @Override
     public void delete(Long id) {
         log.debug("Request to delete TransactionDetails : {}", id);
+        accountBalanceSnapshotService.withdraw(id);
         transactionDetailsRepository.deleteById(id);
         if (transactionDetailsSearchRepository != null) {
             transactionDetailsSearchRepository.deleteById(id);
@@ -0,0 +1,116 @@
+package io.github.erp.config;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import io.github.erp.config.ReferenceDataCacheManager.Invalidation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheManagerTest {
+
+    @Mock
+    private HazelcastInstance hazelcastInstance;
+
+    @Mock
+    private ITopic<Object> invalidationTopic;
+
+    @Mock
+    private IMap<Object, Object> sharedMap;
+
+    @Mock
+    private Member member;
+
+    private ReferenceDataCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        when(hazelcastInstance.getTopic("reference-data.invalidations")).thenReturn(invalidationTopic);
+        when(invalidationTopic.addMessageListener(any())).thenReturn(UUID.randomUUID());
+        when(hazelcastInstance.getMap(anyString())).thenReturn(sharedMap);
+
+        cacheManager = new ReferenceDataCacheManager(
+            hazelcastInstance,
+            Caffeine.newBuilder().recordStats(),
+            Arrays.asList("assetCategories", "serviceOutlets"),
+            "reference-data.invalidations",
+            null
+        );
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void cachesAreTransactionAwareAndBackedByPrefixedSharedMaps() {
+        assertThat(cacheManager.getCache("assetCategories")).isInstanceOf(TransactionAwareCacheDecorator.class);
+        assertThat(cacheManager.getCache("unknown")).isNull();
+        verify(hazelcastInstance).getMap("reference-data.assetCategories");
+        verify(hazelcastInstance).getMap("reference-data.serviceOutlets");
+    }
+
+    @Test
+    void invalidationFromAnotherNodeEvictsTheNearCopy() {
+        TwoTierCache categories = nearCacheOf("assetCategories");
+        categories.getNearCache().put(1L, "Motor vehicles");
+        categories.getNearCache().put(2L, "Computers");
+
+        when(member.localMember()).thenReturn(false);
+        cacheManager.onInvalidation(new Message<>("reference-data.invalidations", new Invalidation("assetCategories", 1L), 0L, member));
+
+        assertThat(categories.getNearCache().getIfPresent(1L)).isNull();
+        assertThat(categories.getNearCache().getIfPresent(2L)).isEqualTo("Computers");
+
+        cacheManager.onInvalidation(new Message<>("reference-data.invalidations", new Invalidation("assetCategories", null), 0L, member));
+
+        assertThat(categories.getNearCache().asMap()).isEmpty();
+    }
+
+    @Test
+    void invalidationPublishedByThisNodeIsIgnored() {
+        TwoTierCache categories = nearCacheOf("assetCategories");
+        categories.getNearCache().put(1L, "Motor vehicles");
+
+        when(member.localMember()).thenReturn(true);
+        cacheManager.onInvalidation(new Message<>("reference-data.invalidations", new Invalidation("assetCategories", 1L), 0L, member));
+
+        assertThat(categories.getNearCache().getIfPresent(1L)).isEqualTo("Motor vehicles");
+    }
+
+    private TwoTierCache nearCacheOf(String name) {
+        return (TwoTierCache) ((TransactionAwareCacheDecorator) cacheManager.getCache(name)).getTargetCache();
+    }
+}
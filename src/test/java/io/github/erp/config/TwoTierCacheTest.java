@@ -0,0 +1,111 @@
+package io.github.erp.config;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private CaffeineCache nearCache;
+    private ConcurrentMapCache sharedCache;
+    private List<Object> published;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new CaffeineCache("fiscalMonths", Caffeine.newBuilder().recordStats().build(), true);
+        sharedCache = new ConcurrentMapCache("reference-data.fiscalMonths");
+        published = new ArrayList<>();
+        cache = new TwoTierCache("fiscalMonths", nearCache, sharedCache, (cacheName, key) -> published.add(key == null ? "*" : key));
+    }
+
+    @Test
+    void sharedHitIsCopiedIntoNearCacheWithoutInvalidatingOtherNodes() {
+        sharedCache.put(1L, "2024-01");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("2024-01");
+        assertThat(nearCache.getNativeCache().asMap()).containsKey(1L);
+        assertThat(cache.sharedHitCount()).isEqualTo(1);
+        assertThat(published).isEmpty();
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("2024-01");
+        assertThat(cache.sharedHitCount()).isEqualTo(1);
+        assertThat(cache.hitRatio()).isEqualTo(1.0);
+        assertThat(cache.nearHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void missInBothTiersLoadsOnceAndWritesThrough() {
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.sharedMissCount()).isEqualTo(1);
+
+        assertThat(cache.get(2L, () -> "2024-02")).isEqualTo("2024-02");
+
+        assertThat(sharedCache.get(2L, String.class)).isEqualTo("2024-02");
+        assertThat(nearCache.get(2L, String.class)).isEqualTo("2024-02");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void putIfAbsentWritesBothTiersWithoutPublishing() {
+        assertThat(cache.putIfAbsent(3L, "2024-03")).isNull();
+        assertThat(cache.putIfAbsent(3L, "2024-04").get()).isEqualTo("2024-03");
+
+        assertThat(sharedCache.get(3L, String.class)).isEqualTo("2024-03");
+        assertThat(nearCache.get(3L, String.class)).isEqualTo("2024-03");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void evictAndClearRemoveFromBothTiersAndArePublished() {
+        cache.put(1L, "2024-01");
+        cache.put(2L, "2024-02");
+        published.clear();
+
+        cache.evict(1L);
+        assertThat(sharedCache.get(1L)).isNull();
+        assertThat(nearCache.get(1L)).isNull();
+        assertThat(cache.get(2L, String.class)).isEqualTo("2024-02");
+
+        cache.clear();
+        assertThat(sharedCache.get(2L)).isNull();
+        assertThat(nearCache.get(2L)).isNull();
+        assertThat(published).containsExactly(1L, "*");
+    }
+
+    @Test
+    void remoteInvalidationDropsOnlyTheNearCopy() {
+        cache.put(1L, "2024-01");
+        sharedCache.put(1L, "2024-01 (amended)");
+
+        cache.invalidateNearCache(1L);
+
+        assertThat(nearCache.get(1L)).isNull();
+        assertThat(cache.get(1L, String.class)).isEqualTo("2024-01 (amended)");
+    }
+}
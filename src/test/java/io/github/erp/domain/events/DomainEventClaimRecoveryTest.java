@@ -0,0 +1,60 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.events.asset.AssetCreatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DomainEventClaimRecoveryTest {
+
+    @Mock
+    private DomainEventStore eventStore;
+
+    @Mock
+    private DomainEventProcessor domainEventProcessor;
+
+    @Test
+    @DisplayName("Should run again the events of stale claims, carrying on past a failure")
+    void shouldReprocessEventsOfStaleClaims() {
+        AssetCreatedEvent failing = assetCreated("AST-001");
+        AssetCreatedEvent recovered = assetCreated("AST-002");
+        when(eventStore.findEventsWithStaleClaims(10)).thenReturn(List.of(failing, recovered));
+        doThrow(new IllegalStateException("Database unavailable")).when(domainEventProcessor).processEvent(failing);
+
+        new DomainEventClaimRecovery(eventStore, domainEventProcessor, 10).recoverStaleClaims();
+
+        verify(domainEventProcessor).processEvent(failing);
+        verify(domainEventProcessor).processEvent(recovered);
+    }
+
+    private static AssetCreatedEvent assetCreated(String assetId) {
+        return new AssetCreatedEvent(assetId, assetId, "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+    }
+}
@@ -66,6 +66,39 @@ class DomainEventHandlerMethodWrapperTest {
         assertThrows(RuntimeException.class, () -> wrapper.handle(event));
     }
 
+    @Test
+    @DisplayName("Should bind handler methods directly instead of invoking them reflectively")
+    void shouldBindHandlerMethodDirectly() throws Exception {
+        TestHandler handler = new TestHandler();
+        Method method = TestHandler.class.getDeclaredMethod("handleAssetCreated", AssetCreatedEvent.class);
+
+        DomainEventHandlerMethodWrapper wrapper = new DomainEventHandlerMethodWrapper(
+            handler, method, "AssetCreatedEvent", 1);
+
+        AssetCreatedEvent event = new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+
+        wrapper.handle(event);
+
+        assertThat(wrapper.isBound()).isTrue();
+        assertThat(handler.wasInvoked()).isTrue();
+        assertThat(wrapper.getHandlerName()).isEqualTo("TestHandler#handleAssetCreated");
+    }
+
+    @Test
+    @DisplayName("Should fall back to reflection for methods that cannot be bound")
+    void shouldFallBackToReflectionForUnboundMethods() throws Exception {
+        Object handler = new Object();
+        DomainEventHandlerMethodWrapper wrapper = new DomainEventHandlerMethodWrapper(
+            handler, Object.class.getMethod("toString"), "TestEvent", 1);
+
+        AssetCreatedEvent event = new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+
+        assertThat(wrapper.isBound()).isFalse();
+        assertThrows(RuntimeException.class, () -> wrapper.handle(event));
+    }
+
     static class TestHandler {
         private boolean invoked = false;
 
@@ -73,6 +106,10 @@ class DomainEventHandlerMethodWrapperTest {
             this.invoked = true;
         }
 
+        public void handleAssetCreated(AssetCreatedEvent event) {
+            this.invoked = true;
+        }
+
         public void failingHandler(DomainEvent event) {
             throw new RuntimeException("Handler failed");
         }
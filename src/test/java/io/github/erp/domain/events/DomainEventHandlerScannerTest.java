@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -52,6 +53,18 @@ class DomainEventHandlerScannerTest {
         verify(domainEventProcessor).registerHandler(eq("TestEvent"), any(DomainEventHandlerMethodWrapper.class));
     }
 
+    @Test
+    @DisplayName("Should register handler methods of class-based proxies")
+    void shouldRegisterHandlerMethodsOfProxiedBeans() {
+        ProxyFactory proxyFactory = new ProxyFactory(new TestEventHandler());
+        proxyFactory.setProxyTargetClass(true);
+        Object proxy = proxyFactory.getProxy();
+
+        scanner.postProcessAfterInitialization(proxy, "testHandler");
+
+        verify(domainEventProcessor).registerHandler(eq("TestEvent"), any(DomainEventHandlerMethodWrapper.class));
+    }
+
     @Test
     @DisplayName("Should ignore beans without DomainEventHandler annotation")
     void shouldIgnoreBeansWithoutAnnotation() {
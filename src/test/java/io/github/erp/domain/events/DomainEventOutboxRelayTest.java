@@ -0,0 +1,144 @@
+package io.github.erp.domain.events;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.events.asset.AssetCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DomainEventOutboxRelayTest {
+
+    @Mock
+    private DomainEventStore eventStore;
+
+    @Mock
+    private KafkaTemplate<String, DomainEvent> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DomainEventOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new DomainEventOutboxRelay(eventStore, kafkaTemplate, transactionManager, "domain_events_topic", 2, 1000);
+    }
+
+    @Test
+    @DisplayName("Should send the batch keyed by aggregate and mark it as published")
+    void shouldSendBatchAndMarkAsPublished() {
+        AssetCreatedEvent first = assetCreated("AST-001");
+        AssetCreatedEvent second = assetCreated("AST-002");
+        when(eventStore.lockUnpublishedEvents(2)).thenReturn(List.of(first, second), List.of());
+        when(kafkaTemplate.send(anyString(), anyString(), any(DomainEvent.class))).thenAnswer(invocation -> acknowledged());
+
+        relay.relayPendingEvents();
+
+        verify(kafkaTemplate).send("domain_events_topic", "Asset:AST-001", first);
+        verify(kafkaTemplate).send("domain_events_topic", "Asset:AST-002", second);
+        verify(kafkaTemplate).flush();
+        assertThat(publishedIds()).containsExactly(first.getEventId(), second.getEventId());
+        verify(eventStore, times(2)).lockUnpublishedEvents(2);
+    }
+
+    @Test
+    @DisplayName("Should leave events whose send failed in the outbox")
+    void shouldLeaveFailedSendsUnpublished() {
+        AssetCreatedEvent delivered = assetCreated("AST-001");
+        AssetCreatedEvent failed = assetCreated("AST-002");
+        when(eventStore.lockUnpublishedEvents(2)).thenReturn(List.of(delivered, failed));
+        when(kafkaTemplate.send(anyString(), eq("Asset:AST-001"), any(DomainEvent.class))).thenReturn(acknowledged());
+        SettableListenableFuture<SendResult<String, DomainEvent>> rejected = new SettableListenableFuture<>();
+        rejected.setException(new IllegalStateException("Broker unavailable"));
+        when(kafkaTemplate.send(anyString(), eq("Asset:AST-002"), any(DomainEvent.class))).thenReturn(rejected);
+
+        relay.relayPendingEvents();
+
+        assertThat(publishedIds()).containsExactly(delivered.getEventId());
+        verify(eventStore, times(1)).lockUnpublishedEvents(2);
+    }
+
+    @Test
+    @DisplayName("Should wait for the sends of a batch for at most the send timeout overall")
+    void shouldBoundTheWaitForTheWholeBatch() {
+        AssetCreatedEvent first = assetCreated("AST-001");
+        AssetCreatedEvent second = assetCreated("AST-002");
+        when(eventStore.lockUnpublishedEvents(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(anyString(), anyString(), any(DomainEvent.class)))
+            .thenAnswer(invocation -> new SettableListenableFuture<SendResult<String, DomainEvent>>());
+
+        long start = System.nanoTime();
+        relay.relayPendingEvents();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMillis).isLessThan(1900);
+        assertThat(publishedIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not touch the broker when the outbox is empty")
+    void shouldNotSendWhenOutboxIsEmpty() {
+        when(eventStore.lockUnpublishedEvents(2)).thenReturn(List.of());
+
+        relay.relayPendingEvents();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(eventStore, never()).markAsPublished(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<UUID> publishedIds() {
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(eventStore, atLeastOnce()).markAsPublished(ids.capture(), any(Instant.class));
+        return ids.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    private static SettableListenableFuture<SendResult<String, DomainEvent>> acknowledged() {
+        SettableListenableFuture<SendResult<String, DomainEvent>> future = new SettableListenableFuture<>();
+        future.set(new SendResult<>(null, null));
+        return future;
+    }
+
+    private static AssetCreatedEvent assetCreated(String assetId) {
+        return new AssetCreatedEvent(assetId, assetId, "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+    }
+}
@@ -19,17 +19,27 @@ package io.github.erp.domain.events;
  */
 
 import io.github.erp.domain.events.asset.AssetCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.support.Acknowledgment;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -45,11 +55,24 @@ class DomainEventProcessorTest {
     @Mock
     private Acknowledgment acknowledgment;
 
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private DomainEventProcessor processor;
 
     @BeforeEach
     void setUp() {
-        processor = new DomainEventProcessor(eventStore, errorHandler);
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        processor = new DomainEventProcessor(eventStore, errorHandler, meterRegistryProvider, 4, 100, 10);
+        lenient().when(eventStore.claimForProcessing(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
     }
 
     @Test
@@ -60,7 +83,20 @@ class DomainEventProcessorTest {
 
         processor.handleLocalEvent(event);
 
-        verify(eventStore).markAsProcessed(event.getEventId());
+        verify(eventStore, timeout(2000)).markAllAsProcessed(List.of(event.getEventId()));
+    }
+
+    @Test
+    @DisplayName("Should route the failure of a local event to the error handler")
+    void shouldHandleErrorDuringLocalEventProcessing() {
+        AssetCreatedEvent event = new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+        RuntimeException failure = new RuntimeException("Processing error");
+        doThrow(failure).when(eventStore).markAllAsProcessed(any());
+
+        processor.handleLocalEvent(event);
+
+        verify(errorHandler, timeout(2000)).handleError(event, failure);
     }
 
     @Test
@@ -71,7 +107,7 @@ class DomainEventProcessorTest {
 
         processor.handleDistributedEvent(event, acknowledgment);
 
-        verify(eventStore).markAsProcessed(event.getEventId());
+        verify(eventStore).markAllAsProcessed(List.of(event.getEventId()));
         verify(acknowledgment).acknowledge();
     }
 
@@ -81,7 +117,7 @@ class DomainEventProcessorTest {
         AssetCreatedEvent event = new AssetCreatedEvent(
             "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
 
-        doThrow(new RuntimeException("Processing error")).when(eventStore).markAsProcessed(any());
+        doThrow(new RuntimeException("Processing error")).when(eventStore).markAllAsProcessed(any());
 
         processor.handleDistributedEvent(event, acknowledgment);
 
@@ -103,7 +139,7 @@ class DomainEventProcessorTest {
 
         processor.handleLocalEvent(event);
 
-        verify(eventStore).markAsProcessed(event.getEventId());
+        verify(eventStore, timeout(2000)).markAllAsProcessed(List.of(event.getEventId()));
     }
 
     @Test
@@ -116,4 +152,103 @@ class DomainEventProcessorTest {
 
         verify(eventStore).markAsProcessed(event.getEventId());
     }
+
+    @Test
+    @DisplayName("Should skip handlers for an event already processed through the other delivery path")
+    void shouldSkipEventAlreadyClaimed() {
+        DomainEventHandlerMethodWrapper handlerMethod = mock(DomainEventHandlerMethodWrapper.class);
+        when(handlerMethod.getHandlerName()).thenReturn("MockHandler#handle");
+        processor.registerHandler("AssetCreatedEvent", handlerMethod);
+
+        AssetCreatedEvent event = new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+        when(eventStore.claimForProcessing(event.getEventId())).thenReturn(false);
+
+        processor.handleDistributedEvent(event, acknowledgment);
+
+        verify(handlerMethod, never()).handle(any());
+        verify(eventStore, never()).markAllAsProcessed(any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should release the claim when a handler fails so that the retry runs it again")
+    void shouldReleaseClaimWhenHandlerFails() {
+        DomainEventHandlerMethodWrapper handlerMethod = mock(DomainEventHandlerMethodWrapper.class);
+        when(handlerMethod.getHandlerName()).thenReturn("MockHandler#handle");
+        RuntimeException failure = new RuntimeException("Handler error");
+        doThrow(failure).when(handlerMethod).handle(any());
+        processor.registerHandler("AssetCreatedEvent", handlerMethod);
+
+        AssetCreatedEvent event = new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID());
+
+        processor.processEvent(event);
+
+        InOrder inOrder = inOrder(eventStore, errorHandler);
+        inOrder.verify(eventStore).releaseClaim(event.getEventId());
+        inOrder.verify(errorHandler).handleError(event, failure);
+    }
+
+    @Test
+    @DisplayName("Should handle the events of one aggregate in the order they were dispatched")
+    void shouldHandleEventsOfOneAggregateInOrder() throws Exception {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        RecordingHandler handler = new RecordingHandler(handled);
+        processor.registerHandler("AssetCreatedEvent", new DomainEventHandlerMethodWrapper(
+            handler, RecordingHandler.class.getMethod("handle", DomainEvent.class), "AssetCreatedEvent", 1));
+
+        List<AssetCreatedEvent> events = new ArrayList<>();
+        for (int sequence = 0; sequence < 50; sequence++) {
+            for (String assetId : List.of("AST-001", "AST-002", "AST-003")) {
+                events.add(new AssetCreatedEvent(
+                    assetId, assetId + "/" + sequence, "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID()));
+            }
+        }
+        events.forEach(processor::handleLocalEvent);
+
+        verify(eventStore, timeout(5000).atLeastOnce()).markAllAsProcessed(any());
+        for (int attempt = 0; attempt < 100 && handled.size() < events.size(); attempt++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(handled).hasSize(events.size());
+        for (String assetId : List.of("AST-001", "AST-002", "AST-003")) {
+            List<String> forAsset = handled.stream().filter(number -> number.startsWith(assetId + "/")).toList();
+            List<String> expected = events.stream()
+                .filter(event -> event.getAggregateId().equals(assetId))
+                .map(AssetCreatedEvent::getAssetRegistrationNumber)
+                .toList();
+            assertThat(forAsset).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should record the latency of each handler")
+    void shouldRecordHandlerLatency() throws Exception {
+        RecordingHandler handler = new RecordingHandler(new ArrayList<>());
+        processor.registerHandler("AssetCreatedEvent", new DomainEventHandlerMethodWrapper(
+            handler, RecordingHandler.class.getMethod("handle", DomainEvent.class), "AssetCreatedEvent", 1));
+
+        processor.processEvent(new AssetCreatedEvent(
+            "AST-001", "AST-001", "Test Asset", BigDecimal.valueOf(10000), 1L, UUID.randomUUID()));
+
+        Timer timer = meterRegistry.find("domain.events.handler.time")
+            .tags("event.type", "AssetCreatedEvent", "handler", "RecordingHandler#handle")
+            .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    public static class RecordingHandler {
+        private final List<String> handled;
+
+        RecordingHandler(List<String> handled) {
+            this.handled = handled;
+        }
+
+        public void handle(DomainEvent event) {
+            handled.add(((AssetCreatedEvent) event).getAssetRegistrationNumber());
+        }
+    }
 }
@@ -23,18 +23,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,9 +41,6 @@ class DomainEventPublisherTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
-    @Mock
-    private KafkaTemplate<String, DomainEvent> kafkaTemplate;
-
     @Mock
     private DomainEventStore eventStore;
 
@@ -53,8 +48,7 @@ class DomainEventPublisherTest {
 
     @BeforeEach
     void setUp() {
-        domainEventPublisher = new DomainEventPublisher(applicationEventPublisher, kafkaTemplate, eventStore);
-        ReflectionTestUtils.setField(domainEventPublisher, "domainEventsTopicName", "domain_events_topic");
+        domainEventPublisher = new DomainEventPublisher(applicationEventPublisher, eventStore);
     }
 
     @Test
@@ -69,7 +63,6 @@ class DomainEventPublisherTest {
 
         verify(eventStore).store(event);
         verify(applicationEventPublisher).publishEvent(event);
-        verify(kafkaTemplate).send(eq("domain_events_topic"), eq("Asset:AST-001"), eq(event));
     }
 
     @Test
@@ -93,8 +86,8 @@ class DomainEventPublisherTest {
 
         domainEventPublisher.publish(event);
 
-        verify(eventStore).store(event);
-        verify(applicationEventPublisher).publishEvent(event);
-        verify(kafkaTemplate).send(any(String.class), any(String.class), any(DomainEvent.class));
+        InOrder inOrder = inOrder(eventStore, applicationEventPublisher);
+        inOrder.verify(eventStore).store(event);
+        inOrder.verify(applicationEventPublisher).publishEvent(event);
     }
 }
@@ -19,16 +19,20 @@ package io.github.erp.domain.events;
  */
 
 import io.github.erp.domain.events.asset.AssetCreatedEvent;
+import io.github.erp.internal.repository.ProcessedDomainEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -49,12 +53,16 @@ class DomainEventStoreImplTest {
     @Mock
     private TypedQuery<AbstractDomainEvent> query;
 
+    @Mock
+    private ProcessedDomainEventRepository processedEventRepository;
+
     private DomainEventStoreImpl eventStore;
 
     @BeforeEach
     void setUp() {
         eventStore = new DomainEventStoreImpl();
         eventStore.entityManager = entityManager;
+        eventStore.processedEventRepository = processedEventRepository;
     }
 
     @Test
@@ -123,6 +131,37 @@ class DomainEventStoreImplTest {
         verify(entityManager).createQuery(contains("UPDATE"));
         verify(mockQuery).setParameter("eventId", eventId);
         verify(mockQuery).executeUpdate();
+        verify(processedEventRepository).markCompleted(eq(List.of(eventId)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should claim an event not claimed before")
+    void shouldClaimNewEvent() {
+        UUID eventId = UUID.randomUUID();
+
+        assertThat(eventStore.claimForProcessing(eventId)).isTrue();
+
+        verify(processedEventRepository).saveAndFlush(any(ProcessedDomainEvent.class));
+        verify(processedEventRepository, never()).reclaimStale(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should take over a claim only if it is in progress past the claim timeout")
+    void shouldTakeOverStaleClaimOnly() {
+        UUID stale = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        when(processedEventRepository.saveAndFlush(any(ProcessedDomainEvent.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(processedEventRepository.reclaimStale(eq(stale), any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(processedEventRepository.reclaimStale(eq(live), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        assertThat(eventStore.claimForProcessing(stale)).isTrue();
+        assertThat(eventStore.claimForProcessing(live)).isFalse();
+
+        ArgumentCaptor<Instant> claimedOn = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> staleBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(processedEventRepository).reclaimStale(eq(stale), claimedOn.capture(), staleBefore.capture());
+        assertThat(staleBefore.getValue()).isEqualTo(claimedOn.getValue().minusMillis(eventStore.claimTimeoutMillis));
     }
 
     @Test
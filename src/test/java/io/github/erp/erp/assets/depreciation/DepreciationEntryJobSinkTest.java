@@ -0,0 +1,167 @@
+package io.github.erp.erp.assets.depreciation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.DepreciationEntry;
+import io.github.erp.erp.assets.depreciation.exceptions.DepreciationEntryPersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DepreciationEntryJobSinkTest {
+
+    private final ExecutorService writerExecutor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        writerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentProducersLoseNoEntries() throws Exception {
+        int producers = 8;
+        int entriesPerProducer = 5_000;
+        int totalEntries = producers * entriesPerProducer;
+
+        Set<Long> persisted = ConcurrentHashMap.newKeySet();
+        AtomicInteger pending = new AtomicInteger(totalEntries);
+        CountDownLatch completed = new CountDownLatch(1);
+
+        DepreciationEntryJobSink sink = new DepreciationEntryJobSink(
+            UUID.randomUUID(), 1_000, 250, 5,
+            batch -> batch.forEach(entry -> Assertions.assertTrue(persisted.add(entry.getAssetNumber()))),
+            writerExecutor,
+            persistedItems -> pending.addAndGet(-persistedItems),
+            completed::countDown,
+            failure -> { });
+
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long offset = (long) p * entriesPerProducer;
+            producerPool.execute(() -> {
+                for (long i = 0; i < entriesPerProducer; i++) {
+                    sink.add(new DepreciationEntry().assetNumber(offset + i));
+                }
+            });
+        }
+        producerPool.shutdown();
+        Assertions.assertTrue(producerPool.awaitTermination(30, TimeUnit.SECONDS));
+
+        sink.awaitDurable(30_000);
+
+        Assertions.assertEquals(totalEntries, persisted.size());
+        Assertions.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, pending.get());
+    }
+
+    @Test
+    public void producerIsHeldBackWhileTheWriterIsBehind() throws Exception {
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        AtomicInteger pending = new AtomicInteger(100);
+
+        DepreciationEntryJobSink sink = new DepreciationEntryJobSink(
+            UUID.randomUUID(), 10, 10, 1,
+            batch -> awaitQuietly(releaseWriter),
+            writerExecutor,
+            persistedItems -> pending.addAndGet(-persistedItems),
+            () -> { },
+            failure -> { });
+
+        AtomicInteger offered = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                sink.add(new DepreciationEntry().assetNumber((long) i));
+                offered.incrementAndGet();
+            }
+        });
+        producer.start();
+
+        Thread.sleep(300);
+        Assertions.assertTrue(offered.get() <= 20, "producer should be blocked at the capacity of the queue");
+
+        releaseWriter.countDown();
+        producer.join(10_000);
+
+        sink.awaitDurable(10_000);
+        Assertions.assertEquals(100, offered.get());
+        Assertions.assertEquals(0, pending.get());
+    }
+
+    @Test
+    public void writerFailureIsReportedToTheFlush() {
+        AtomicBoolean attempted = new AtomicBoolean();
+
+        DepreciationEntryJobSink sink = new DepreciationEntryJobSink(
+            UUID.randomUUID(), 100, 10, 1,
+            batch -> {
+                attempted.set(true);
+                throw new IllegalStateException("database unavailable");
+            },
+            writerExecutor,
+            persistedItems -> 1,
+            () -> { },
+            failure -> { });
+
+        sink.add(new DepreciationEntry().assetNumber(1L));
+
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sink.awaitDurable(10_000));
+        Assertions.assertTrue(attempted.get());
+    }
+
+    @Test
+    public void failedSinkIsDisabled() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<RuntimeException> failures = new CopyOnWriteArrayList<>();
+
+        DepreciationEntryJobSink sink = new DepreciationEntryJobSink(
+            UUID.randomUUID(), 100, 10, 1,
+            batch -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("database unavailable");
+            },
+            writerExecutor,
+            persistedItems -> 1,
+            () -> { },
+            failures::add);
+
+        sink.add(new DepreciationEntry().assetNumber(1L));
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sink.awaitDurable(10_000));
+        int attemptsOfTheFailedBatch = attempts.get();
+
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sink.add(new DepreciationEntry().assetNumber(2L)));
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sink.awaitDurable(10_000));
+
+        Assertions.assertEquals(attemptsOfTheFailedBatch, attempts.get());
+        Assertions.assertEquals(1, failures.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
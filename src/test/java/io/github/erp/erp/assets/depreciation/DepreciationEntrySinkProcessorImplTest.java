@@ -0,0 +1,58 @@
+package io.github.erp.erp.assets.depreciation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.DepreciationEntry;
+import io.github.erp.erp.assets.depreciation.exceptions.DepreciationEntryPersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class DepreciationEntrySinkProcessorImplTest {
+
+    private final DepreciationEntryJdbcWriter writer = mock(DepreciationEntryJdbcWriter.class);
+
+    private final DepreciationEntrySinkProcessorImpl sinkProcessor = new DepreciationEntrySinkProcessorImpl(writer, 100, 10, 1, 10_000);
+
+    @AfterEach
+    void tearDown() {
+        sinkProcessor.stopWriters();
+    }
+
+    @Test
+    public void failureOfAReleasedJobIsForgotten() {
+        UUID jobContextId = UUID.randomUUID();
+        doThrow(new IllegalStateException("database unavailable")).when(writer).write(anyList());
+
+        sinkProcessor.addDepreciationEntry(new DepreciationEntry().assetNumber(1L), jobContextId);
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sinkProcessor.flushRemainingItems(jobContextId));
+
+        // Entries of the failed job are dropped and the failure is raised again on flush
+        sinkProcessor.addDepreciationEntry(new DepreciationEntry().assetNumber(2L), jobContextId);
+        Assertions.assertThrows(DepreciationEntryPersistenceException.class, () -> sinkProcessor.flushRemainingItems(jobContextId));
+
+        sinkProcessor.releaseJob(jobContextId);
+
+        Assertions.assertDoesNotThrow(() -> sinkProcessor.flushRemainingItems(jobContextId));
+    }
+}
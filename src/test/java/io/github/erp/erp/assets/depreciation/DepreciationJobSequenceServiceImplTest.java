@@ -0,0 +1,206 @@
+package io.github.erp.erp.assets.depreciation;
+
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.AssetIdAndCostTuple;
+import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
+import io.github.erp.domain.enumeration.DepreciationJobStatusType;
+import io.github.erp.domain.enumeration.DepreciationPeriodStatusTypes;
+import io.github.erp.erp.assets.depreciation.context.ContextInstance;
+import io.github.erp.erp.assets.depreciation.context.DepreciationAmountContext;
+import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
+import io.github.erp.erp.assets.depreciation.queue.DepreciationBatchProducer;
+import io.github.erp.internal.service.assets.InternalAssetRegistrationService;
+import io.github.erp.internal.service.assets.InternalDepreciationBatchSequenceService;
+import io.github.erp.service.DepreciationJobService;
+import io.github.erp.service.DepreciationPeriodService;
+import io.github.erp.service.dto.DepreciationBatchSequenceDTO;
+import io.github.erp.service.dto.DepreciationJobDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static io.github.erp.erp.assets.depreciation.DepreciationJobSequenceServiceImpl.PREFERRED_BATCH_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DepreciationJobSequenceServiceImplTest {
+
+    private static final LocalDate PERIOD_END = LocalDate.of(2026, 9, 30);
+
+    private DepreciationBatchProducer producer;
+    private DepreciationJobService depreciationJobService;
+    private InternalDepreciationBatchSequenceService batchSequenceService;
+    private InternalAssetRegistrationService assetRegistrationService;
+    private DepreciationProgressTracker progressTracker;
+    private DepreciationJobContext jobContext;
+    private DepreciationJobSequenceServiceImpl sequenceService;
+
+    @BeforeEach
+    void setUp() {
+        producer = mock(DepreciationBatchProducer.class);
+        depreciationJobService = mock(DepreciationJobService.class);
+        batchSequenceService = mock(InternalDepreciationBatchSequenceService.class);
+        assetRegistrationService = mock(InternalAssetRegistrationService.class);
+        progressTracker = mock(DepreciationProgressTracker.class);
+        jobContext = mock(DepreciationJobContext.class);
+        DepreciationAmountContext amountContext = mock(DepreciationAmountContext.class);
+        DepreciationPeriodService periodService = mock(DepreciationPeriodService.class);
+
+        DepreciationPeriodDTO period = new DepreciationPeriodDTO();
+        period.setId(7L);
+        period.setEndDate(PERIOD_END);
+        period.setDepreciationPeriodStatus(DepreciationPeriodStatusTypes.OPEN);
+        when(periodService.findOne(7L)).thenReturn(Optional.of(period));
+
+        when(jobContext.createContext(anyInt())).thenAnswer(invocation -> UUID.randomUUID());
+        when(amountContext.createDepreciationAmountContext()).thenReturn(UUID.randomUUID());
+
+        AtomicLong batchIds = new AtomicLong(100);
+        when(batchSequenceService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<DepreciationBatchSequenceDTO> batchSequences = invocation.getArgument(0);
+            batchSequences.forEach(batchSequence -> batchSequence.setId(batchIds.incrementAndGet()));
+            return batchSequences;
+        });
+        when(batchSequenceService.updateBatchStatus(anyList(), any(), any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        when(producer.sendDepreciationJobMessage(any(), anyList(), any(), anyBoolean(), anyInt(), anyInt(), anyInt(), any(), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                SettableListenableFuture<Object> sent = new SettableListenableFuture<>();
+                sent.set(null);
+                return sent;
+            });
+
+        sequenceService = new DepreciationJobSequenceServiceImpl(
+            producer,
+            depreciationJobService,
+            batchSequenceService,
+            periodService,
+            assetRegistrationService,
+            mock(DepreciationEntrySinkProcessor.class),
+            progressTracker,
+            jobContext,
+            amountContext);
+    }
+
+    @Test
+    void everyCountedBatchIsEnqueuedAndTheLastIsFlagged() {
+        countAssets(2 * PREFERRED_BATCH_SIZE);
+        pages(assets(1, PREFERRED_BATCH_SIZE), assets(PREFERRED_BATCH_SIZE + 1, PREFERRED_BATCH_SIZE));
+
+        DepreciationJobDTO job = job();
+        sequenceService.triggerDepreciation(job);
+
+        verify(producer).sendDepreciationJobMessage(eq(job), anyList(), any(), eq(false), eq(0), eq(1), eq(2 * PREFERRED_BATCH_SIZE), any(), eq(2), any());
+        verify(producer).sendDepreciationJobMessage(eq(job), anyList(), any(), eq(true), eq(PREFERRED_BATCH_SIZE), eq(2), eq(2 * PREFERRED_BATCH_SIZE), any(), eq(2), any());
+        verify(batchSequenceService).updateBatchStatus(List.of(101L, 102L), DepreciationBatchStatusType.CREATED, DepreciationBatchStatusType.ENQUEUED);
+        verify(batchSequenceService).deleteAll(List.of());
+        verify(jobContext, never()).updateNumberOfProcessedItems(any(), anyInt());
+        verify(jobContext, never()).removeContexts(any());
+        assertThat(job.getNumberOfBatches()).isEqualTo(2);
+        assertThat(job.getDepreciationJobStatus()).isEqualTo(DepreciationJobStatusType.ENQUEUED);
+    }
+
+    @Test
+    void batchesLeftEmptyByAShrunkRegisterAreDroppedAndTheCountersSettled() {
+        countAssets(3 * PREFERRED_BATCH_SIZE);
+        pages(assets(1, PREFERRED_BATCH_SIZE), assets(PREFERRED_BATCH_SIZE + 1, 50), List.of());
+
+        DepreciationJobDTO job = job();
+        sequenceService.triggerDepreciation(job);
+
+        int enqueuedItems = PREFERRED_BATCH_SIZE + 50;
+        int shortfall = 3 * PREFERRED_BATCH_SIZE - enqueuedItems;
+
+        verify(producer, times(2)).sendDepreciationJobMessage(any(), anyList(), any(), anyBoolean(), anyInt(), anyInt(), anyInt(), any(), anyInt(), any());
+        verify(producer).sendDepreciationJobMessage(eq(job), anyList(), any(), eq(true), eq(PREFERRED_BATCH_SIZE), eq(2), eq(enqueuedItems), any(), eq(2), any());
+        verify(batchSequenceService).updateBatchStatus(List.of(101L, 102L), DepreciationBatchStatusType.CREATED, DepreciationBatchStatusType.ENQUEUED);
+        verify(batchSequenceService).deleteAll(List.of(103L));
+        verify(jobContext, times(2)).updateNumberOfProcessedItems(any(UUID.class), eq(-shortfall));
+        verify(progressTracker).registerJob(eq(job.getId()), any(ContextInstance.class), eq(enqueuedItems), eq(2));
+        assertThat(job.getNumberOfBatches()).isEqualTo(2);
+    }
+
+    @Test
+    void aJobWithoutAssetsIsCompletedWithoutEnqueuingAnything() {
+        countAssets(PREFERRED_BATCH_SIZE);
+        pages(List.of());
+
+        DepreciationJobDTO job = job();
+        sequenceService.triggerDepreciation(job);
+
+        verifyNoInteractions(producer);
+        verify(batchSequenceService).deleteAll(List.of(101L));
+        verify(progressTracker).completeJob(job.getId());
+        verify(jobContext).removeContexts(any(ContextInstance.class));
+        assertThat(job.getNumberOfBatches()).isZero();
+        assertThat(job.getDepreciationJobStatus()).isEqualTo(DepreciationJobStatusType.COMPLETE);
+    }
+
+    private void countAssets(long count) {
+        when(assetRegistrationService.countByCapitalizationDateBefore(PERIOD_END)).thenReturn(count);
+    }
+
+    @SafeVarargs
+    private void pages(List<AssetIdAndCostTuple> first, List<AssetIdAndCostTuple>... rest) {
+        when(assetRegistrationService.findAssetIdsAndCostsCapitalizedBefore(eq(PERIOD_END), anyLong(), anyInt())).thenReturn(first, rest);
+    }
+
+    private static DepreciationJobDTO job() {
+        DepreciationPeriodDTO period = new DepreciationPeriodDTO();
+        period.setId(7L);
+        period.setEndDate(PERIOD_END);
+
+        DepreciationJobDTO job = new DepreciationJobDTO();
+        job.setId(21L);
+        job.setDepreciationPeriod(period);
+        job.setDepreciationJobStatus(DepreciationJobStatusType.CREATED);
+        return job;
+    }
+
+    private static List<AssetIdAndCostTuple> assets(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count).mapToObj(DepreciationJobSequenceServiceImplTest::asset).collect(Collectors.toList());
+    }
+
+    private static AssetIdAndCostTuple asset(long id) {
+        return new AssetIdAndCostTuple() {
+            @Override
+            public Long getAssetId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getAssetCost() {
+                return BigDecimal.TEN;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.erp.erp.assets.depreciation.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.enumeration.DepreciationTypes;
+import io.github.erp.erp.assets.depreciation.model.DepreciationArtefact;
+import io.github.erp.service.dto.AssetCategoryDTO;
+import io.github.erp.service.dto.AssetRegistrationDTO;
+import io.github.erp.service.dto.DepreciationMethodDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationConstants.*;
+
+public class ClosedFormReducingBalanceDepreciationCalculatorTest extends TestAssetDataGenerator {
+
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+
+    private final ReducingBalanceDepreciationCalculator iterativeCalculator = new ReducingBalanceDepreciationCalculator();
+    private final ClosedFormReducingBalanceDepreciationCalculator closedFormCalculator = new ClosedFormReducingBalanceDepreciationCalculator(TOLERANCE);
+
+    @Test
+    public void closedFormAgreesWithKnownDepreciationAmounts() {
+
+        Assertions.assertEquals(new BigDecimal("1413.75"), depreciate(closedFormCalculator, "58000", LocalDate.of(2023, 6, 6), "3000").getDepreciationAmount());
+        Assertions.assertEquals(new BigDecimal("16052.68"), depreciate(closedFormCalculator, "747446", LocalDate.of(2022, 12, 29), "3000").getDepreciationAmount());
+        Assertions.assertEquals(new BigDecimal("374.72"), depreciate(closedFormCalculator, "89458.63", LocalDate.of(2016, 3, 24), "1250").getDepreciationAmount());
+    }
+
+    @Test
+    public void closedFormAgreesWithMonthByMonthOverRandomCapitalizationDates() {
+
+        Random random = new Random(20240123L);
+        String[] rates = {"500", "1000", "1250", "2000", "2500", "3000", "3750", "5000"};
+
+        for (int sample = 0; sample < 2000; sample++) {
+
+            String cost = BigDecimal.valueOf(random.nextInt(100_000_000), MONEY_SCALE).add(BigDecimal.ONE).toPlainString();
+            LocalDate capitalizationDate = LocalDate.of(2023, 6, 21).minusDays(random.nextInt(365 * 30));
+            String rate = rates[random.nextInt(rates.length)];
+
+            DepreciationArtefact expected = depreciate(iterativeCalculator, cost, capitalizationDate, rate);
+            DepreciationArtefact actual = depreciate(closedFormCalculator, cost, capitalizationDate, rate);
+
+            String scenario = "cost: " + cost + " capitalized: " + capitalizationDate + " rate: " + rate;
+
+            Assertions.assertEquals(expected.getPriorMonths(), actual.getPriorMonths(), scenario);
+            Assertions.assertTrue(expected.getNbv().subtract(actual.getNbv()).abs().compareTo(TOLERANCE) <= 0, scenario);
+            Assertions.assertTrue(expected.getDepreciationAmount().subtract(actual.getDepreciationAmount()).abs().compareTo(TOLERANCE) <= 0, scenario);
+        }
+    }
+
+    @Test
+    public void priorMonthsBeyondToleranceFallBackToMonthByMonth() {
+
+        ClosedFormReducingBalanceDepreciationCalculator strictCalculator = new ClosedFormReducingBalanceDepreciationCalculator(new BigDecimal("0.000001"));
+
+        Assertions.assertTrue(strictCalculator.withinTolerance(1));
+        Assertions.assertFalse(strictCalculator.withinTolerance(2));
+
+        DepreciationArtefact expected = depreciate(iterativeCalculator, "89458.63", LocalDate.of(2016, 3, 24), "1250");
+        DepreciationArtefact actual = depreciate(strictCalculator, "89458.63", LocalDate.of(2016, 3, 24), "1250");
+
+        Assertions.assertEquals(expected.getNbv(), actual.getNbv());
+        Assertions.assertEquals(expected.getDepreciationAmount(), actual.getDepreciationAmount());
+    }
+
+    @Test
+    public void exhaustedBalanceRemainsZero() {
+
+        Assertions.assertEquals(0, closedFormCalculator.closedFormNetBookValue(new BigDecimal("-10.00"), new BigDecimal("0.025"), 12).signum());
+        Assertions.assertEquals(0, closedFormCalculator.closedFormNetBookValue(new BigDecimal("1000.00"), BigDecimal.ONE, 12).signum());
+    }
+
+    private DepreciationArtefact depreciate(CalculatesDepreciation calculator, String cost, LocalDate capitalizationDate, String rateInBasisPoints) {
+
+        AssetRegistrationDTO asset = generateRandomAssetRegistration();
+        asset.setAssetCost(new BigDecimal(cost).setScale(MONEY_SCALE, ROUNDING_MODE));
+        asset.setCapitalizationDate(capitalizationDate);
+
+        DepreciationMethodDTO depreciationMethod = new DepreciationMethodDTO();
+        depreciationMethod.setDepreciationType(DepreciationTypes.DECLINING_BALANCE);
+
+        AssetCategoryDTO assetCategory = new AssetCategoryDTO();
+        assetCategory.setDepreciationRateYearly(new BigDecimal(rateInBasisPoints));
+
+        DepreciationPeriodDTO period = new DepreciationPeriodDTO();
+        period.setStartDate(LocalDate.of(2023, 6, 21));
+        period.setEndDate(LocalDate.of(2023, 7, 20));
+
+        return calculator.calculateDepreciation(asset, period, assetCategory, depreciationMethod, ZERO);
+    }
+}
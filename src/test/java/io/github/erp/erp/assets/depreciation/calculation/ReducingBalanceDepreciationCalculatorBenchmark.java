@@ -0,0 +1,94 @@
+package io.github.erp.erp.assets.depreciation.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.enumeration.DepreciationTypes;
+import io.github.erp.erp.assets.depreciation.model.DepreciationArtefact;
+import io.github.erp.service.dto.AssetCategoryDTO;
+import io.github.erp.service.dto.AssetRegistrationDTO;
+import io.github.erp.service.dto.DepreciationMethodDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationConstants.*;
+
+/**
+ * Compares the month-by-month reducing-balance calculation with the closed-form calculation
+ * for assets of increasing age. Run with the main method from the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReducingBalanceDepreciationCalculatorBenchmark {
+
+    @Param({"12", "60", "240", "480"})
+    private int priorMonths;
+
+    private final ReducingBalanceDepreciationCalculator iterativeCalculator = new ReducingBalanceDepreciationCalculator();
+    private final ClosedFormReducingBalanceDepreciationCalculator closedFormCalculator = new ClosedFormReducingBalanceDepreciationCalculator(new BigDecimal("0.01"));
+
+    private AssetRegistrationDTO asset;
+    private DepreciationPeriodDTO period;
+    private AssetCategoryDTO assetCategory;
+    private DepreciationMethodDTO depreciationMethod;
+
+    @Setup
+    public void setup() {
+        period = new DepreciationPeriodDTO();
+        period.setStartDate(LocalDate.of(2023, 6, 21));
+        period.setEndDate(LocalDate.of(2023, 7, 20));
+
+        asset = new AssetRegistrationDTO();
+        asset.setAssetCost(new BigDecimal("747446").setScale(MONEY_SCALE, ROUNDING_MODE));
+        asset.setCapitalizationDate(period.getStartDate().minusMonths(priorMonths));
+
+        assetCategory = new AssetCategoryDTO();
+        assetCategory.setDepreciationRateYearly(new BigDecimal("1250"));
+
+        depreciationMethod = new DepreciationMethodDTO();
+        depreciationMethod.setDepreciationType(DepreciationTypes.DECLINING_BALANCE);
+    }
+
+    @Benchmark
+    public DepreciationArtefact monthByMonth() {
+        return iterativeCalculator.calculateDepreciation(asset, period, assetCategory, depreciationMethod, ZERO);
+    }
+
+    @Benchmark
+    public DepreciationArtefact closedForm() {
+        return closedFormCalculator.calculateDepreciation(asset, period, assetCategory, depreciationMethod, ZERO);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ReducingBalanceDepreciationCalculatorBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
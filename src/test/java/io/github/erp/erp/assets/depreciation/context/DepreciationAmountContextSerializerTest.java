@@ -0,0 +1,77 @@
+package io.github.erp.erp.assets.depreciation.context;
+
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DepreciationAmountContextSerializerTest {
+
+    private InternalSerializationService serializationService;
+
+    @BeforeEach
+    void setUp() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        serializationConfig.addSerializerConfig(
+            new SerializerConfig().setTypeClass(DepreciationAmountContext.class).setImplementation(new DepreciationAmountContextSerializer()));
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Test
+    void everyFieldSurvivesTheRoundTrip() {
+        DepreciationAmountContext context = DepreciationAmountContext.batchContext();
+        context.setNumberOfProcessedItems(3);
+        context.addNumberOfPendingItems(7);
+        context.updateAmountForServiceOutlet("Motor Vehicles", "HQ", 150.25);
+        context.updateAmountForServiceOutlet("Motor Vehicles", "HQ", 49.75);
+        context.updateAmountForServiceOutlet("Motor Vehicles", "WESTLANDS", 10.0);
+        context.updateAmountForServiceOutlet("Computers", "HQ", 5.5);
+
+        Data data = serializationService.toData(context);
+        DepreciationAmountContext copy = serializationService.toObject(data);
+
+        assertThat(copy).isNotSameAs(context).isNotSameAs(DepreciationAmountContext.getInstance());
+        assertThat(copy.getNumberOfProcessedItems()).isEqualTo(3);
+        assertThat(copy.getNumberOfPendingItems()).isEqualTo(7);
+        assertThat(copy.getAmountsByAssetCategoryAndServiceOutlet()).isEqualTo(context.getAmountsByAssetCategoryAndServiceOutlet());
+        assertThat(copy.getAmountsByAssetCategoryAndServiceOutlet().get("Motor Vehicles").get("HQ")).isEqualTo(200.0);
+    }
+
+    @Test
+    void emptyContextSurvivesTheRoundTrip() {
+        DepreciationAmountContext copy = serializationService.toObject(serializationService.toData(DepreciationAmountContext.batchContext()));
+
+        assertThat(copy.getNumberOfProcessedItems()).isZero();
+        assertThat(copy.getNumberOfPendingItems()).isZero();
+        assertThat(copy.getAmountsByAssetCategoryAndServiceOutlet()).isEmpty();
+    }
+}
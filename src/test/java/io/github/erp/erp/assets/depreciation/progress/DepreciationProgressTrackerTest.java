@@ -0,0 +1,132 @@
+package io.github.erp.erp.assets.depreciation.progress;
+
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.github.erp.erp.assets.depreciation.context.ContextInstance;
+import io.github.erp.erp.assets.depreciation.context.DepreciationJobContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DepreciationProgressTrackerTest {
+
+    private static final Long JOB_ID = 21L;
+
+    private final Map<Long, Object> jobs = new HashMap<>();
+    private final Map<Long, DepreciationBatchProgress> batches = new HashMap<>();
+
+    private IMap<Long, Object> jobMap;
+    private IMap<Long, DepreciationBatchProgress> batchMap;
+    private DepreciationJobContext jobContext;
+    private MeterRegistry meterRegistry;
+    private DepreciationProgressTracker tracker;
+
+    private final ContextInstance contextInstance = ContextInstance.builder()
+        .depreciationJobCountUpContextId(UUID.randomUUID())
+        .depreciationJobCountDownContextId(UUID.randomUUID())
+        .build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jobMap = mock(IMap.class);
+        batchMap = mock(IMap.class);
+        doAnswer(invocation -> jobs.put(invocation.getArgument(0), invocation.getArgument(1))).when(jobMap).put(anyLong(), any());
+        when(jobMap.get(any())).thenAnswer(invocation -> jobs.get(invocation.<Long>getArgument(0)));
+        when(jobMap.containsKey(any())).thenAnswer(invocation -> jobs.containsKey(invocation.<Long>getArgument(0)));
+        doAnswer(invocation -> jobs.remove(invocation.<Long>getArgument(0))).when(jobMap).delete(any());
+        doAnswer(invocation -> batches.put(invocation.getArgument(0), invocation.getArgument(1))).when(batchMap).put(anyLong(), any());
+        when(batchMap.values()).thenAnswer(invocation -> batches.values());
+        doAnswer(invocation -> {
+            batches.clear();
+            return null;
+        }).when(batchMap).destroy();
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getMap("depreciationJobProgress")).thenAnswer(invocation -> jobMap);
+        when(hazelcastInstance.getMap("depreciationBatchProgress-" + JOB_ID)).thenAnswer(invocation -> batchMap);
+
+        jobContext = mock(DepreciationJobContext.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new DepreciationProgressTracker(hazelcastInstance, meterRegistry, jobContext);
+    }
+
+    @Test
+    void progressReportsTheJobCountersAndItsBatchesInSequence() {
+        when(jobContext.getNumberOfProcessedItems(contextInstance.getDepreciationJobCountUpContextId())).thenReturn(150);
+        when(jobContext.getNumberOfProcessedItems(contextInstance.getDepreciationJobCountDownContextId())).thenReturn(120);
+
+        tracker.registerJob(JOB_ID, contextInstance, 300, 3);
+        tracker.recordBatch(JOB_ID, 502L, 2, 100, 50);
+        tracker.recordBatch(JOB_ID, 501L, 1, 100, 100);
+
+        DepreciationJobProgress progress = tracker.getProgress(JOB_ID).orElseThrow();
+
+        assertThat(progress.getTotalItems()).isEqualTo(300);
+        assertThat(progress.getProcessedItems()).isEqualTo(150);
+        assertThat(progress.getPersistedItems()).isEqualTo(180);
+        assertThat(progress.getNumberOfBatches()).isEqualTo(3);
+        assertThat(progress.getCompletedBatches()).isEqualTo(2);
+        assertThat(progress.getBatches()).extracting(DepreciationBatchProgress::getSequenceNumber).containsExactly(1, 2);
+        assertThat(meterRegistry.get("depreciation.job.items.processed").tag("job", String.valueOf(JOB_ID)).gauge().value()).isEqualTo(150);
+        assertThat(meterRegistry.get("depreciation.job.items.persisted").tag("job", String.valueOf(JOB_ID)).gauge().value()).isEqualTo(180);
+    }
+
+    @Test
+    void completingTheJobReleasesItsClusterStateAndGauges() {
+        tracker.registerJob(JOB_ID, contextInstance, 300, 3);
+        tracker.recordBatch(JOB_ID, 501L, 1, 100, 100);
+
+        tracker.completeJob(JOB_ID);
+
+        verify(batchMap).destroy();
+        verify(jobMap).delete(JOB_ID);
+        assertThat(tracker.getProgress(JOB_ID)).isEmpty();
+        assertThat(meterRegistry.find("depreciation.job.items.processed").gauges()).isEmpty();
+        assertThat(meterRegistry.find("depreciation.job.items.persisted").gauges()).isEmpty();
+    }
+
+    @Test
+    void batchesFinishingAfterTheJobEndedAreNotRecorded() {
+        tracker.registerJob(JOB_ID, contextInstance, 300, 3);
+        tracker.completeJob(JOB_ID);
+
+        tracker.recordBatch(JOB_ID, 502L, 2, 100, 100);
+
+        assertThat(batches).isEmpty();
+        assertThat(meterRegistry.find("depreciation.job.items.processed").gauges()).isEmpty();
+    }
+
+    @Test
+    void unknownJobHasNoProgress() {
+        assertThat(tracker.getProgress(99L)).isEmpty();
+    }
+}
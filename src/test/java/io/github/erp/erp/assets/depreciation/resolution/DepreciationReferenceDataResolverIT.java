@@ -0,0 +1,143 @@
+package io.github.erp.erp.assets.depreciation.resolution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.TestcontainersIntegrationTest;
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.context.assets.domain.AssetRevaluation;
+import io.github.erp.domain.AssetGeneralAdjustment;
+import io.github.erp.domain.DepreciationPeriod;
+import io.github.erp.service.dto.AssetRegistrationDTO;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import io.github.erp.web.rest.AssetGeneralAdjustmentResourceIT;
+import io.github.erp.web.rest.AssetRegistrationResourceIT;
+import io.github.erp.web.rest.AssetRevaluationResourceIT;
+import io.github.erp.web.rest.DepreciationPeriodResourceIT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolves a depreciation batch against PostgreSQL, through the bulk asset query and the grouped
+ * cost-adjustment sums
+ */
+@TestcontainersIntegrationTest
+@Transactional
+class DepreciationReferenceDataResolverIT {
+
+    private static final Long DEPRECIATION_JOB_ID = 4_200L;
+
+    @Autowired
+    private DepreciationReferenceDataResolver resolver;
+
+    @Autowired
+    private EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        resolver.evict(DEPRECIATION_JOB_ID);
+    }
+
+    @Test
+    void batchIsResolvedInOneAssetQueryAndOneQueryPerAdjustmentType() {
+        DepreciationPeriod january = period(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+        DepreciationPeriod march = period(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+        AssetRegistration printer = asset("RESOLVER-PRINTER");
+        AssetRegistration scanner = asset("RESOLVER-SCANNER");
+        revaluation(printer, january, "100.00");
+        revaluation(printer, march, "900.00");
+        generalAdjustment(printer, january, "25.50");
+
+        DepreciationPeriodDTO february = new DepreciationPeriodDTO();
+        february.setStartDate(LocalDate.of(2026, 2, 1));
+        DepreciationQueryCounter.Tally tally = new DepreciationQueryCounter.Tally();
+        Long unknownAssetId = scanner.getId() + 1_000;
+
+        DepreciationBatchReferenceData batch = resolver.resolveBatch(
+            DEPRECIATION_JOB_ID, february, List.of(printer.getId(), scanner.getId(), unknownAssetId), tally);
+
+        assertThat(batch.getAssetRegistration(printer.getId()))
+            .map(AssetRegistrationDTO::getAssetNumber)
+            .contains("RESOLVER-PRINTER");
+        assertThat(batch.getAssetRegistration(printer.getId()).orElseThrow().getAssetCategory().getId())
+            .isEqualTo(printer.getAssetCategory().getId());
+        assertThat(batch.getAssetRegistration(scanner.getId())).isPresent();
+        assertThat(batch.getAssetRegistration(unknownAssetId)).isEmpty();
+
+        assertThat(batch.getCostAdjustment(printer.getId())).isEqualByComparingTo("125.50");
+        assertThat(batch.getCostAdjustment(scanner.getId())).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(tally.getQueries()).isEqualTo(5);
+    }
+
+    @Test
+    void referenceDataIsLoadedOncePerJob() {
+        AssetRegistration printer = asset("RESOLVER-PRINTER");
+        Long assetCategoryId = printer.getAssetCategory().getId();
+        DepreciationQueryCounter.Tally tally = new DepreciationQueryCounter.Tally();
+
+        DepreciationJobReferenceData referenceData = resolver.forJob(DEPRECIATION_JOB_ID);
+
+        assertThat(referenceData.getAssetCategory(assetCategoryId, tally)).isPresent();
+        assertThat(resolver.forJob(DEPRECIATION_JOB_ID).getAssetCategory(assetCategoryId, tally)).isPresent();
+        assertThat(tally.getQueries()).isEqualTo(1);
+    }
+
+    private DepreciationPeriod period(LocalDate startDate, LocalDate endDate) {
+        DepreciationPeriod period = DepreciationPeriodResourceIT.createEntity(em)
+            .startDate(startDate)
+            .endDate(endDate)
+            .periodCode("RESOLVER-" + startDate);
+        em.persist(period);
+        em.flush();
+        return period;
+    }
+
+    private AssetRegistration asset(String assetNumber) {
+        AssetRegistration asset = AssetRegistrationResourceIT.createEntity(em).assetNumber(assetNumber);
+        em.persist(asset);
+        em.flush();
+        return asset;
+    }
+
+    private void revaluation(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetRevaluation revaluation = AssetRevaluationResourceIT.createEntity(em).devaluationAmount(new BigDecimal(amount));
+        revaluation.setRevaluedAsset(asset);
+        revaluation.setEffectivePeriod(period);
+        em.persist(revaluation);
+        em.flush();
+    }
+
+    private void generalAdjustment(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetGeneralAdjustment adjustment = AssetGeneralAdjustmentResourceIT.createEntity(em)
+            .devaluationAmount(new BigDecimal(amount))
+            .adjustmentReferenceId(UUID.randomUUID());
+        adjustment.setAssetRegistration(asset);
+        adjustment.setEffectivePeriod(period);
+        em.persist(adjustment);
+        em.flush();
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.erp.erp.assets.nbv.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.erp.erp.assets.depreciation.DepreciationJobSequenceServiceImpl.PREFERRED_BATCH_SIZE;
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationUtility.calculateElapsedMonths;
+import static io.github.erp.erp.assets.depreciation.calculation.DepreciationUtility.getPriorPeriodInMonths;
+
+/**
+ * Compares NBV compilation of a generated 100k-asset register in H2 using the per-asset
+ * netBookValueAtPeriodN queries against one fetch per batch with the NBV calculated in memory.
+ * Run with the main method from the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class NBVCompilationBenchmark {
+
+    private static final int NUMBER_OF_ASSETS = 100_000;
+
+    private static final String STRAIGHT_LINE_NBV_QUERY = "" +
+        "WITH AssetDetails AS ( " +
+        "    SELECT ar.asset_cost AS asset_cost, cat.depreciation_rate_yearly / (10000 * 12) AS monthly_depreciation_rate_decimal " +
+        "    FROM asset_registration ar LEFT JOIN asset_category cat ON ar.asset_category_id = cat.id " +
+        "    WHERE ar.id = ? " +
+        ") " +
+        "SELECT asset_cost - ( monthly_depreciation_rate_decimal * asset_cost * ? ) FROM AssetDetails";
+
+    private static final String DECLINING_BALANCE_NBV_QUERY = "" +
+        "WITH AssetDetails AS ( " +
+        "    SELECT ar.asset_cost AS asset_cost, cat.depreciation_rate_yearly / (10000 * 12) AS monthly_depreciation_rate_decimal " +
+        "    FROM asset_registration ar LEFT JOIN asset_category cat ON ar.asset_category_id = cat.id " +
+        "    WHERE ar.id = ? " +
+        ") " +
+        "SELECT asset_cost * POWER((1 - monthly_depreciation_rate_decimal), ?) FROM AssetDetails";
+
+    private static final String BATCH_QUERY = "" +
+        "SELECT ar.id, ar.asset_cost, ar.capitalization_date, cat.depreciation_rate_yearly, dm.depreciation_type " +
+        "FROM asset_registration ar " +
+        "  JOIN asset_category cat ON ar.asset_category_id = cat.id " +
+        "  JOIN depreciation_method dm ON cat.depreciation_method_id = dm.id " +
+        "WHERE ar.id BETWEEN ? AND ?";
+
+    private final LocalDate periodStartDate = LocalDate.of(2023, 6, 1);
+    private final LocalDate periodEndDate = LocalDate.of(2023, 6, 30);
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:nbvCompilationBenchmark;DB_CLOSE_DELAY=-1");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE depreciation_method (id BIGINT PRIMARY KEY, depreciation_type VARCHAR(255))");
+            statement.execute("CREATE TABLE asset_category (id BIGINT PRIMARY KEY, depreciation_rate_yearly DECIMAL(21,2), depreciation_method_id BIGINT)");
+            statement.execute("CREATE TABLE asset_registration (id BIGINT PRIMARY KEY, asset_cost DECIMAL(21,2), capitalization_date DATE, asset_category_id BIGINT)");
+            statement.execute("INSERT INTO depreciation_method VALUES (1, 'STRAIGHT_LINE'), (2, 'DECLINING_BALANCE')");
+            statement.execute("INSERT INTO asset_category VALUES (1, 2000, 1), (2, 1250, 1), (3, 3000, 2), (4, 1250, 2)");
+        }
+
+        Random random = new Random(20240123L);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO asset_registration VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= NUMBER_OF_ASSETS; id++) {
+                insert.setLong(1, id);
+                insert.setBigDecimal(2, BigDecimal.valueOf(random.nextInt(100_000_000), 2).add(BigDecimal.ONE));
+                insert.setDate(3, Date.valueOf(periodEndDate.minusDays(random.nextInt(365 * 20))));
+                insert.setLong(4, 1 + random.nextInt(4));
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    /**
+     * The current path: per asset, fetch its row, then run netBookValueAtPeriodN for periods n and n - 1
+     */
+    @Benchmark
+    public void perAssetQueries(Blackhole blackhole) throws SQLException {
+
+        long elapsedMonths = calculateElapsedMonths(periodStartDate, periodEndDate);
+
+        try (PreparedStatement fetchAsset = connection.prepareStatement(BATCH_QUERY);
+             PreparedStatement straightLine = connection.prepareStatement(STRAIGHT_LINE_NBV_QUERY);
+             PreparedStatement decliningBalance = connection.prepareStatement(DECLINING_BALANCE_NBV_QUERY)) {
+
+            for (long id = 1; id <= NUMBER_OF_ASSETS; id++) {
+                fetchAsset.setLong(1, id);
+                fetchAsset.setLong(2, id);
+                try (ResultSet asset = fetchAsset.executeQuery()) {
+                    if (!asset.next()) {
+                        continue;
+                    }
+                    long priorPeriods = getPriorPeriodInMonths(periodEndDate, asset.getDate(3).toLocalDate(), elapsedMonths);
+                    PreparedStatement nbvQuery = "STRAIGHT_LINE".equals(asset.getString(5)) ? straightLine : decliningBalance;
+
+                    blackhole.consume(netBookValue(nbvQuery, id, priorPeriods + 1));
+                    blackhole.consume(netBookValue(nbvQuery, id, priorPeriods));
+                }
+            }
+        }
+    }
+
+    /**
+     * The set-based path: one fetch per batch of PREFERRED_BATCH_SIZE ids, NBV calculated in memory
+     */
+    @Benchmark
+    public void setBasedBatches(Blackhole blackhole) throws SQLException {
+
+        long elapsedMonths = calculateElapsedMonths(periodStartDate, periodEndDate);
+
+        try (PreparedStatement fetchBatch = connection.prepareStatement(BATCH_QUERY)) {
+
+            for (long firstId = 1; firstId <= NUMBER_OF_ASSETS; firstId += PREFERRED_BATCH_SIZE) {
+                fetchBatch.setLong(1, firstId);
+                fetchBatch.setLong(2, firstId + PREFERRED_BATCH_SIZE - 1);
+                try (ResultSet assets = fetchBatch.executeQuery()) {
+                    while (assets.next()) {
+                        BigDecimal assetCost = assets.getBigDecimal(2);
+                        BigDecimal depreciationRateYearly = assets.getBigDecimal(4);
+                        long priorPeriods = getPriorPeriodInMonths(periodEndDate, assets.getDate(3).toLocalDate(), elapsedMonths);
+
+                        if ("STRAIGHT_LINE".equals(assets.getString(5))) {
+                            blackhole.consume(SetBasedNBVCalculatorServiceImpl.straightLineNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods + 1));
+                            blackhole.consume(SetBasedNBVCalculatorServiceImpl.straightLineNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods));
+                        } else {
+                            blackhole.consume(SetBasedNBVCalculatorServiceImpl.decliningBalanceNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods + 1));
+                            blackhole.consume(SetBasedNBVCalculatorServiceImpl.decliningBalanceNetBookValueAtPeriodN(assetCost, depreciationRateYearly, priorPeriods));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static BigDecimal netBookValue(PreparedStatement nbvQuery, long assetId, long periodN) throws SQLException {
+        nbvQuery.setLong(1, assetId);
+        nbvQuery.setLong(2, periodN);
+        try (ResultSet resultSet = nbvQuery.executeQuery()) {
+            return resultSet.next() ? resultSet.getBigDecimal(1) : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(NBVCompilationBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.erp.erp.assets.nbv.calculation;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.context.assets.domain.AssetCategory;
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.domain.DepreciationMethod;
+import io.github.erp.domain.enumeration.DepreciationTypes;
+import io.github.erp.erp.assets.nbv.model.NBVArtefact;
+import io.github.erp.service.dto.DepreciationPeriodDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+public class SetBasedNBVCalculatorServiceImplTest {
+
+    private final SetBasedNBVCalculatorService calculatorService = new SetBasedNBVCalculatorServiceImpl();
+
+    @Test
+    public void calculatesStraightLineAndDecliningBalanceNBVForTheWholeBatch() {
+
+        DepreciationPeriodDTO period = new DepreciationPeriodDTO();
+        period.setStartDate(LocalDate.of(2023, 6, 1));
+        period.setEndDate(LocalDate.of(2023, 6, 30));
+
+        AssetRegistration straightLineAsset = asset(1L, "120000", LocalDate.of(2022, 6, 30), "2000", DepreciationTypes.STRAIGHT_LINE);
+        AssetRegistration decliningBalanceAsset = asset(2L, "100000", LocalDate.of(2023, 3, 30), "1200", DepreciationTypes.DECLINING_BALANCE);
+
+        Map<Long, NBVArtefact> artefacts = calculatorService.calculateNetBookValues(Arrays.asList(straightLineAsset, decliningBalanceAsset), period);
+
+        NBVArtefact straightLine = artefacts.get(1L);
+        Assertions.assertEquals(12L, straightLine.getPriorMonths());
+        Assertions.assertEquals(new BigDecimal("94000.00"), straightLine.getNetBookValueAmount().setScale(2, RoundingMode.HALF_EVEN));
+        Assertions.assertEquals(new BigDecimal("96000.00"), straightLine.getPreviousNetBookValueAmount().setScale(2, RoundingMode.HALF_EVEN));
+
+        NBVArtefact decliningBalance = artefacts.get(2L);
+        Assertions.assertEquals(3L, decliningBalance.getPriorMonths());
+        Assertions.assertEquals(0, new BigDecimal("96059.601").compareTo(decliningBalance.getNetBookValueAmount()));
+        Assertions.assertEquals(0, new BigDecimal("97029.9").compareTo(decliningBalance.getPreviousNetBookValueAmount()));
+    }
+
+    @Test
+    public void straightLineNBVDoesNotFallBelowZero() {
+
+        DepreciationPeriodDTO period = new DepreciationPeriodDTO();
+        period.setStartDate(LocalDate.of(2023, 6, 1));
+        period.setEndDate(LocalDate.of(2023, 6, 30));
+
+        AssetRegistration fullyDepreciatedAsset = asset(3L, "60000", LocalDate.of(2010, 1, 1), "2000", DepreciationTypes.STRAIGHT_LINE);
+
+        NBVArtefact artefact = calculatorService.calculateNetBookValues(Arrays.asList(fullyDepreciatedAsset), period).get(3L);
+
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(artefact.getNetBookValueAmount()));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(artefact.getPreviousNetBookValueAmount()));
+    }
+
+    private static AssetRegistration asset(Long id, String cost, LocalDate capitalizationDate, String depreciationRateYearly, DepreciationTypes depreciationType) {
+
+        DepreciationMethod depreciationMethod = new DepreciationMethod();
+        depreciationMethod.setDepreciationType(depreciationType);
+
+        AssetCategory assetCategory = new AssetCategory();
+        assetCategory.setDepreciationRateYearly(new BigDecimal(depreciationRateYearly));
+        assetCategory.setDepreciationMethod(depreciationMethod);
+
+        AssetRegistration assetRegistration = new AssetRegistration();
+        assetRegistration.setId(id);
+        assetRegistration.setAssetCost(new BigDecimal(cost));
+        assetRegistration.setCapitalizationDate(capitalizationDate);
+        assetRegistration.setAssetCategory(assetCategory);
+
+        return assetRegistration;
+    }
+}
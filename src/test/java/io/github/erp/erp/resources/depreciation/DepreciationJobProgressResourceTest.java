@@ -0,0 +1,92 @@
+package io.github.erp.erp.resources.depreciation;
+
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.erp.assets.depreciation.progress.DepreciationBatchProgress;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationJobProgress;
+import io.github.erp.erp.assets.depreciation.progress.DepreciationProgressTracker;
+import io.github.erp.internal.repository.InternalDepreciationJobRepository;
+import io.github.erp.internal.service.CascadeDeletionSequence;
+import io.github.erp.repository.DepreciationJobRepository;
+import io.github.erp.repository.search.DepreciationJobSearchRepository;
+import io.github.erp.service.DepreciationJobQueryService;
+import io.github.erp.service.DepreciationJobService;
+import io.github.erp.service.dto.DepreciationJobDTO;
+import io.github.erp.service.mapper.DepreciationJobMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DepreciationJobProgressResourceTest {
+
+    private DepreciationProgressTracker progressTracker;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        progressTracker = mock(DepreciationProgressTracker.class);
+
+        DepreciationJobResourceProd resource = new DepreciationJobResourceProd(
+            mock(DepreciationJobService.class),
+            mock(DepreciationJobRepository.class),
+            mock(DepreciationJobQueryService.class),
+            mock(DepreciationJobMapper.class),
+            mock(DepreciationJobSearchRepository.class),
+            mock(InternalDepreciationJobRepository.class),
+            (CascadeDeletionSequence<DepreciationJobDTO>) mock(CascadeDeletionSequence.class),
+            progressTracker);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(resource).build();
+    }
+
+    @Test
+    void progressOfARunningJobIsReturned() throws Exception {
+        when(progressTracker.getProgress(21L)).thenReturn(Optional.of(
+            new DepreciationJobProgress(21L, 300, 150, 120, 3, 1, List.of(new DepreciationBatchProgress(501L, 1, 100, 100)))));
+
+        mockMvc
+            .perform(get("/api/fixed-asset/depreciation-jobs/{id}/progress", 21L))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.jobId").value(21))
+            .andExpect(jsonPath("$.processedItems").value(150))
+            .andExpect(jsonPath("$.persistedItems").value(120))
+            .andExpect(jsonPath("$.completedBatches").value(1))
+            .andExpect(jsonPath("$.batches[0].batchId").value(501));
+    }
+
+    @Test
+    void progressOfAJobThatIsNotRunningIsNotFound() throws Exception {
+        when(progressTracker.getProgress(22L)).thenReturn(Optional.empty());
+
+        mockMvc
+            .perform(get("/api/fixed-asset/depreciation-jobs/{id}/progress", 22L))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.erp.erp.startUp.index;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.Dealer;
+import io.github.erp.erp.startUp.index.engine_v1.IndexingProgress;
+import io.github.erp.erp.startUp.index.engine_v2.IndexBatchReader;
+import io.github.erp.erp.startUp.index.engine_v2.IndexCheckpointStore;
+import io.github.erp.internal.IndexProperties;
+import io.github.erp.repository.search.DealerSearchRepository;
+import io.github.erp.service.dto.DealerDTO;
+import io.github.erp.service.mapper.DealerMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DealersIndexingServiceTest {
+
+    private static final long ROWS = 5;
+
+    private IndexBatchReader batchReader;
+    private DealerSearchRepository searchRepository;
+    private IndexCheckpointStore checkpointStore;
+    private DealersIndexingService indexingService;
+
+    @BeforeEach
+    void setUp() {
+        batchReader = mock(IndexBatchReader.class);
+        searchRepository = mock(DealerSearchRepository.class);
+        checkpointStore = mock(IndexCheckpointStore.class);
+        DealerMapper mapper = mock(DealerMapper.class);
+
+        when(batchReader.findAfter(eq(Dealer.class), anyLong(), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                long afterId = invocation.getArgument(1);
+                int batchSize = invocation.getArgument(2);
+                Function<Dealer, Dealer> copy = invocation.getArgument(3);
+                return LongStream
+                    .rangeClosed(afterId + 1, ROWS)
+                    .limit(batchSize)
+                    .mapToObj(id -> copy.apply(new Dealer().id(id)))
+                    .collect(Collectors.toList());
+            });
+        when(mapper.toDto(any(Dealer.class))).thenAnswer(invocation -> dealerDTO(((Dealer) invocation.getArgument(0)).getId()));
+        when(mapper.toEntity(any(DealerDTO.class))).thenAnswer(invocation -> new Dealer().id(((DealerDTO) invocation.getArgument(0)).getId()));
+
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(true);
+        indexProperties.setRebuild(new IndexProperties.Rebuild());
+
+        indexingService = new DealersIndexingService(indexProperties, batchReader, mapper, searchRepository, checkpointStore);
+    }
+
+    @Test
+    void buildStreamsRowsByIdRangeAndCheckpointsEveryBatch() {
+        when(searchRepository.count()).thenReturn(0L);
+
+        int batches = indexingService.processInBatchesOf(2);
+
+        assertThat(batches).isEqualTo(3);
+        verify(searchRepository).saveAll(dealers(1, 2));
+        verify(searchRepository).saveAll(dealers(3, 4));
+        verify(searchRepository).saveAll(dealers(5));
+        verify(checkpointStore).write("DealersIndexingService", 2);
+        verify(checkpointStore).write("DealersIndexingService", 4);
+        verify(checkpointStore).write("DealersIndexingService", 5);
+        verify(checkpointStore, never()).read(any());
+
+        IndexingProgress progress = indexingService.getIndexingProgress();
+        assertThat(progress.getIndexedItems()).isEqualTo(ROWS);
+        assertThat(progress.getCheckpoint()).isEqualTo(ROWS);
+    }
+
+    @Test
+    void interruptedBuildResumesAfterTheCheckpoint() {
+        when(searchRepository.count()).thenReturn(3L);
+        when(checkpointStore.read("DealersIndexingService")).thenReturn(3L);
+
+        indexingService.processInBatchesOf(2);
+
+        verify(searchRepository).saveAll(dealers(4, 5));
+        verify(searchRepository, times(1)).saveAll(any());
+        assertThat(indexingService.getIndexingProgress().getIndexedItems()).isEqualTo(2);
+    }
+
+    private static DealerDTO dealerDTO(long id) {
+        DealerDTO dealerDTO = new DealerDTO();
+        dealerDTO.setId(id);
+        return dealerDTO;
+    }
+
+    private static List<Dealer> dealers(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> new Dealer().id(id)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.erp.erp.startUp.index.reindexer;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.domain.Dealer;
+import io.github.erp.repository.DealerRepository;
+import io.github.erp.repository.search.DealerSearchRepository;
+import io.github.erp.service.dto.DealerDTO;
+import io.github.erp.service.mapper.DealerMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DealersReIndexerServiceTest {
+
+    private DealerRepository repository;
+    private DealerSearchRepository searchRepository;
+    private ReIndexingSupport reIndexingSupport;
+    private DealerMapper mapper;
+    private DealersReIndexerService reIndexerService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DealerRepository.class);
+        searchRepository = mock(DealerSearchRepository.class);
+        reIndexingSupport = mock(ReIndexingSupport.class);
+        when(reIndexingSupport.getPageSize()).thenReturn(2);
+
+        mapper = mock(DealerMapper.class);
+        when(mapper.toDto(any(Dealer.class))).thenAnswer(invocation -> {
+            DealerDTO dto = new DealerDTO();
+            dto.setId(((Dealer) invocation.getArgument(0)).getId());
+            return dto;
+        });
+        when(mapper.toEntity(any(DealerDTO.class))).thenAnswer(invocation -> dealer(((DealerDTO) invocation.getArgument(0)).getId()));
+
+        when(reIndexingSupport.readPageAfter(eq(Dealer.class), anyLong(), any()))
+            .thenAnswer(page(1, 2))
+            .thenAnswer(page(3))
+            .thenAnswer(page(4))
+            .thenAnswer(page());
+
+        reIndexerService = new DealersReIndexerService(repository, searchRepository, mapper, reIndexingSupport);
+    }
+
+    @Test
+    void incrementalPassesUpsertOnlyRowsAboveTheHighWaterMark() {
+
+        reIndexerService.reIndex();
+
+        verify(searchRepository).saveAll(dealers(1, 2));
+        verify(searchRepository).saveAll(dealers(3));
+        verify(reIndexingSupport).readPageAfter(eq(Dealer.class), eq(0L), any());
+        verify(reIndexingSupport).readPageAfter(eq(Dealer.class), eq(2L), any());
+
+        reIndexerService.reIndex();
+
+        verify(searchRepository).saveAll(dealers(4));
+        verify(searchRepository, never()).deleteAll();
+        verify(reIndexingSupport, times(1)).highestIndexedId(Dealer.class);
+    }
+
+    @Test
+    void firstPassAfterARestartResumesAfterTheHighestIndexedId() {
+        when(reIndexingSupport.highestIndexedId(Dealer.class)).thenReturn(2L);
+        when(reIndexingSupport.readPageAfter(eq(Dealer.class), anyLong(), any()))
+            .thenAnswer(page(3));
+
+        reIndexerService.reIndex();
+
+        verify(searchRepository).saveAll(dealers(3));
+        verify(reIndexingSupport).readPageAfter(eq(Dealer.class), eq(2L), any());
+        verify(searchRepository, never()).saveAll(dealers(1, 2));
+    }
+
+    @Test
+    void pagesAreReadByIdAndIndexedAsDetachedCopies() {
+
+        reIndexerService.reIndex();
+
+        verify(reIndexingSupport, times(2)).readPageAfter(eq(Dealer.class), anyLong(), any());
+        verify(mapper, times(3)).toDto(any(Dealer.class));
+        verify(mapper, times(3)).toEntity(any(DealerDTO.class));
+    }
+
+    @Test
+    void rebuildWritesIntoAShadowIndexAndSwapsTheAlias() {
+        IndexCoordinates shadow = IndexCoordinates.of("dealer-1");
+        when(reIndexingSupport.aliasFor(Dealer.class)).thenReturn("dealer");
+        when(reIndexingSupport.createShadowIndex(Dealer.class)).thenReturn(shadow);
+
+        reIndexerService.rebuild();
+
+        verify(reIndexingSupport).saveAll(dealers(1, 2), shadow);
+        verify(reIndexingSupport).saveAll(dealers(3), shadow);
+        verify(reIndexingSupport).swapAlias("dealer", shadow);
+        verify(reIndexingSupport, never()).deleteIndex(any());
+        verify(searchRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void failedRebuildDiscardsTheShadowIndex() {
+        IndexCoordinates shadow = IndexCoordinates.of("dealer-1");
+        when(reIndexingSupport.aliasFor(Dealer.class)).thenReturn("dealer");
+        when(reIndexingSupport.createShadowIndex(Dealer.class)).thenReturn(shadow);
+        doThrow(new IllegalStateException("cluster unavailable")).when(reIndexingSupport).swapAlias("dealer", shadow);
+
+        assertThatThrownBy(() -> reIndexerService.rebuild()).isInstanceOf(IllegalStateException.class);
+
+        verify(reIndexingSupport).deleteIndex(shadow);
+    }
+
+    private static Answer<List<Dealer>> page(long... ids) {
+        return invocation -> {
+            UnaryOperator<Dealer> detach = invocation.getArgument(2);
+            return dealers(ids).stream().map(detach).collect(Collectors.toList());
+        };
+    }
+
+    private static List<Dealer> dealers(long... ids) {
+        return Arrays.stream(ids).mapToObj(DealersReIndexerServiceTest::dealer).collect(Collectors.toList());
+    }
+
+    private static Dealer dealer(long id) {
+        Dealer dealer = new Dealer();
+        dealer.setId(id);
+        return dealer;
+    }
+}
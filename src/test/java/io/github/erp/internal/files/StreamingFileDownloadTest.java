@@ -0,0 +1,123 @@
+package io.github.erp.internal.files;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingFileDownloadTest {
+
+    private static final String CONTENT = "id,asset,net book value\n1,Laptop,1200.00\n2,Printer,350.00\n";
+
+    private static final String CHECKSUM = "5d41402abc4b2a76b9719d911017c592";
+
+    @TempDir
+    Path directory;
+
+    private Path report;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        report = Files.writeString(directory.resolve("report.csv"), CONTENT, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void wholeFileIsStreamedWithTheStoredChecksumAsETag() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(report, "NBV Report.csv", "text/csv", CHECKSUM, new HttpHeaders());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + CHECKSUM + "\"");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(CONTENT.length());
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("NBV Report.csv");
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws IOException {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setIfNoneMatch("\"" + CHECKSUM + "\"");
+
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(report, "report.csv", "text/csv", CHECKSUM, requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws IOException {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=3-7");
+
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(report, "report.csv", "text/csv", CHECKSUM, requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 3-7/" + CONTENT.length());
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(5);
+        assertThat(body(response)).isEqualTo(CONTENT.substring(3, 8));
+    }
+
+    @Test
+    void rangeForAChangedFileServesTheWholeFile() throws IOException {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=10-");
+        requestHeaders.set(HttpHeaders.IF_RANGE, "\"a-previous-checksum\"");
+
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(report, "report.csv", "text/csv", CHECKSUM, requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rangeBeyondTheFileIsNotSatisfiable() throws IOException {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=" + (CONTENT.length() + 10) + "-");
+
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(report, "report.csv", "text/csv", CHECKSUM, requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + CONTENT.length());
+    }
+
+    @Test
+    void missingFileIsNotFound() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = StreamingFileDownload.of(directory.resolve("missing.csv"), "missing.csv", "text/csv", CHECKSUM, new HttpHeaders());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
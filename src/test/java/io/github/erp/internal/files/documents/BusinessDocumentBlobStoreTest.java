@@ -0,0 +1,151 @@
+package io.github.erp.internal.files.documents;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.repository.BusinessDocumentBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BusinessDocumentBlobStoreTest {
+
+    private static final byte[] SCAN = "scanned business document".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private final Map<String, BusinessDocumentBlob> rows = new HashMap<>();
+
+    private BusinessDocumentBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        BusinessDocumentBlobRepository repository = mock(BusinessDocumentBlobRepository.class);
+        when(repository.findForUpdate(anyString())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        when(repository.saveAndFlush(any(BusinessDocumentBlob.class))).thenAnswer(invocation -> {
+            BusinessDocumentBlob blob = invocation.getArgument(0);
+            rows.put(blob.getChecksum(), blob);
+            return blob;
+        });
+        doAnswer(invocation -> rows.remove(invocation.<BusinessDocumentBlob>getArgument(0).getChecksum()))
+            .when(repository)
+            .delete(any(BusinessDocumentBlob.class));
+
+        BusinessDocumentProperties properties = new BusinessDocumentProperties();
+        properties.setBusinessDocumentsDirectory(root.toString());
+        store = new BusinessDocumentBlobStore(properties, repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void stagedContentIsNamedByItsSha512Checksum() throws Exception {
+        BusinessDocumentBlobStore.StagedBlob staged = store.stage(new ByteArrayInputStream(SCAN), 1024);
+
+        assertThat(staged.getChecksum()).isEqualTo(sha512(SCAN));
+        assertThat(staged.getSize()).isEqualTo(SCAN.length);
+        assertThat(Files.readAllBytes(staged.getPath())).isEqualTo(SCAN);
+    }
+
+    @Test
+    void oversizedUploadIsRejectedAndItsStagingFileRemoved() {
+        assertThatThrownBy(() -> store.stage(new ByteArrayInputStream(SCAN), SCAN.length - 1))
+            .isInstanceOf(BusinessDocumentBlobStore.BlobSizeExceededException.class);
+
+        assertThat(filesUnder(root.resolve(BusinessDocumentBlobStore.BLOBS_DIRECTORY))).isEmpty();
+    }
+
+    @Test
+    void duplicateUploadsShareOneFile() throws Exception {
+        store.retain(store.stage(new ByteArrayInputStream(SCAN), 1024));
+        BusinessDocumentBlob blob = store.retain(store.stage(new ByteArrayInputStream(SCAN), 1024));
+
+        String checksum = sha512(SCAN);
+        assertThat(blob.getReferenceCount()).isEqualTo(2);
+        assertThat(filesUnder(root.resolve(BusinessDocumentBlobStore.BLOBS_DIRECTORY))).containsExactly(store.resolve(checksum));
+        assertThat(store.relativePath(checksum)).isEqualTo("blobs/" + checksum.substring(0, 2) + "/" + checksum);
+        assertThat(store.checksumOf(store.relativePath(checksum))).contains(checksum);
+        assertThat(store.verify(checksum)).isTrue();
+    }
+
+    @Test
+    void fileIsPurgedWhenTheLastReferenceIsReleased() throws Exception {
+        store.retain(store.stage(new ByteArrayInputStream(SCAN), 1024));
+        store.retain(store.stage(new ByteArrayInputStream(SCAN), 1024));
+        String checksum = sha512(SCAN);
+
+        store.release(checksum);
+        assertThat(Files.exists(store.resolve(checksum))).isTrue();
+        assertThat(rows.get(checksum).getReferenceCount()).isEqualTo(1);
+
+        store.release(checksum);
+        assertThat(Files.exists(store.resolve(checksum))).isFalse();
+        assertThat(rows).isEmpty();
+    }
+
+    @Test
+    void changedFileFailsVerification() throws Exception {
+        store.retain(store.stage(new ByteArrayInputStream(SCAN), 1024));
+        String checksum = sha512(SCAN);
+
+        Files.write(store.resolve(checksum), "altered".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(store.verify(checksum)).isFalse();
+    }
+
+    @Test
+    void pathsOutsideTheStoreAreNotTreatedAsBlobs() {
+        assertThat(store.checksumOf("4f1c2a3e-0000-4000-8000-000000000000.pdf")).isEmpty();
+        assertThat(store.checksumOf("blobs/../../etc/passwd")).isEmpty();
+        assertThatThrownBy(() -> store.resolve("../passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String sha512(byte[] content) throws Exception {
+        return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-512").digest(content));
+    }
+
+    private static List<Path> filesUnder(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.erp.internal.files.documents;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.files.FileUtils;
+import io.github.erp.internal.repository.BusinessDocumentBlobRepository;
+import io.github.erp.service.AlgorithmQueryService;
+import io.github.erp.service.AlgorithmService;
+import io.github.erp.service.BusinessDocumentService;
+import io.github.erp.service.criteria.AlgorithmCriteria;
+import io.github.erp.service.dto.AlgorithmDTO;
+import io.github.erp.service.dto.BusinessDocumentDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BusinessDocumentContentServiceTest {
+
+    private static final byte[] SCAN = "scanned business document".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private final BusinessDocumentService businessDocumentService = mock(BusinessDocumentService.class);
+
+    private final AlgorithmQueryService algorithmQueryService = mock(AlgorithmQueryService.class);
+
+    private final AlgorithmService algorithmService = mock(AlgorithmService.class);
+
+    private BusinessDocumentContentService contentService;
+
+    @BeforeEach
+    void setUp() {
+        BusinessDocumentBlobRepository blobRepository = mock(BusinessDocumentBlobRepository.class);
+        when(blobRepository.findForUpdate(anyString())).thenReturn(Optional.empty());
+        when(blobRepository.saveAndFlush(any(BusinessDocumentBlob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(businessDocumentService.save(any(BusinessDocumentDTO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BusinessDocumentProperties properties = new BusinessDocumentProperties();
+        properties.setBusinessDocumentsDirectory(root.toString());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        contentService = new BusinessDocumentContentService(
+            new BusinessDocumentBlobStore(properties, blobRepository, transactionManager),
+            businessDocumentService,
+            algorithmQueryService,
+            algorithmService,
+            properties,
+            transactionManager
+        );
+    }
+
+    @Test
+    void storedContentIsRecordedAsSha512() throws Exception {
+        AlgorithmDTO sha512 = algorithm(3L);
+        when(algorithmQueryService.findByCriteria(any(AlgorithmCriteria.class))).thenReturn(List.of(sha512));
+        BusinessDocumentDTO document = legacyDocument();
+        when(businessDocumentService.findOne(document.getId())).thenReturn(Optional.of(document));
+
+        BusinessDocumentDTO stored = contentService.storeContent(document.getId(), null, new ByteArrayInputStream(SCAN)).orElseThrow();
+
+        assertThat(stored.getFileChecksumAlgorithm()).isSameAs(sha512);
+        ArgumentCaptor<AlgorithmCriteria> criteria = ArgumentCaptor.forClass(AlgorithmCriteria.class);
+        verify(algorithmQueryService).findByCriteria(criteria.capture());
+        assertThat(criteria.getValue().getName().getEquals()).isEqualTo(BusinessDocumentContentService.CHECKSUM_ALGORITHM);
+        verify(algorithmService, never()).save(any());
+    }
+
+    @Test
+    void checksumAlgorithmIsRegisteredWhenMissing() throws Exception {
+        when(algorithmQueryService.findByCriteria(any(AlgorithmCriteria.class))).thenReturn(List.of());
+        when(algorithmService.save(any(AlgorithmDTO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        BusinessDocumentDTO document = legacyDocument();
+        when(businessDocumentService.findOne(document.getId())).thenReturn(Optional.of(document));
+
+        BusinessDocumentDTO stored = contentService.storeContent(document.getId(), null, new ByteArrayInputStream(SCAN)).orElseThrow();
+
+        assertThat(stored.getFileChecksumAlgorithm().getName()).isEqualTo("SHA-512");
+    }
+
+    @Test
+    void legacyFileIsDeletedOnceTheContentIsReplaced() throws Exception {
+        when(algorithmQueryService.findByCriteria(any(AlgorithmCriteria.class))).thenReturn(List.of(algorithm(3L)));
+        BusinessDocumentDTO document = legacyDocument();
+        when(businessDocumentService.findOne(document.getId())).thenReturn(Optional.of(document));
+        Path legacyFile = contentService.findContent(document).orElseThrow();
+        Files.write(legacyFile, "old scan".getBytes(StandardCharsets.UTF_8));
+
+        BusinessDocumentDTO stored = contentService.storeContent(document.getId(), null, new ByteArrayInputStream(SCAN)).orElseThrow();
+
+        assertThat(legacyFile).doesNotExist();
+        assertThat(contentService.findContent(stored)).hasValueSatisfying(path -> assertThat(path).hasBinaryContent(SCAN));
+    }
+
+    private static BusinessDocumentDTO legacyDocument() {
+        BusinessDocumentDTO document = new BusinessDocumentDTO();
+        document.setId(1L);
+        document.setDocumentSerial(UUID.randomUUID());
+        document.setDocumentFileContentType("application/pdf");
+        document.setAttachmentFilePath(document.getDocumentSerial() + "." + FileUtils.getFileExtension("application/pdf"));
+        return document;
+    }
+
+    private static AlgorithmDTO algorithm(Long id) {
+        AlgorithmDTO algorithm = new AlgorithmDTO();
+        algorithm.setId(id);
+        algorithm.setName("SHA-512");
+        return algorithm;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.framework.FileUploadsProperties;
+import io.github.erp.internal.model.DealerEVM;
+import io.github.erp.internal.service.files.ExcelDeserializerContainer;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Optional;
+
+import static io.github.erp.internal.framework.excel.ExcelTestUtil.readFile;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityItemsReaderTest {
+
+    private static final long FILE_ID = 1001L;
+
+    @Test
+    void rowsAreHandedOverInListsOfTheConfiguredSize() throws Exception {
+        EntityItemsReader<DealerEVM> reader = reader(Optional.of(readFile("dealer.xlsx")));
+
+        assertThat(reader.read()).hasSize(5).first().extracting(DealerEVM::getDealerName).isEqualTo("dealerName1");
+        assertThat(reader.read()).hasSize(5);
+        assertThat(reader.read()).hasSize(3).last().extracting(DealerEVM::getDealerName).isEqualTo("dealerName13");
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void missingUploadReadsNothing() throws Exception {
+        EntityItemsReader<DealerEVM> reader = reader(Optional.empty());
+
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void unreadableFileFailsTheRead() {
+        EntityItemsReader<DealerEVM> reader = reader(Optional.of(new File("no-such-upload.xlsx")));
+
+        assertThatThrownBy(reader::read).isInstanceOf(IllegalStateException.class).hasMessageContaining(String.valueOf(FILE_ID));
+    }
+
+    private static EntityItemsReader<DealerEVM> reader(Optional<File> dataFile) {
+        DataFileStore dataFileStore = mock(DataFileStore.class);
+        when(dataFileStore.locate(FILE_ID)).thenReturn(dataFile);
+
+        FileUploadsProperties fileUploadsProperties = new FileUploadsProperties();
+        fileUploadsProperties.setListSize(5);
+
+        return new EntityItemsReader<>(new ExcelDeserializerContainer().dealerExcelFileDeserializer(), dataFileStore, FILE_ID, fileUploadsProperties);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.erp.internal.framework.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.framework.FileUploadsProperties;
+import io.github.erp.internal.model.DealerEVM;
+import io.github.erp.internal.service.files.ExcelDeserializerContainer;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.erp.internal.framework.batch.RowRangePartitioner.FIRST_ROW;
+import static io.github.erp.internal.framework.batch.RowRangePartitioner.ROW_COUNT;
+import static io.github.erp.internal.framework.excel.ExcelTestUtil.readFile;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RowRangePartitionerTest {
+
+    private static final long FILE_ID = 1002L;
+
+    private final DataFileStore dataFileStore = mock(DataFileStore.class);
+
+    @Test
+    void rowsAreSplitIntoContiguousRanges() throws Exception {
+        when(dataFileStore.locate(FILE_ID)).thenReturn(Optional.of(readFile("dealer.xlsx")));
+
+        Map<String, ExecutionContext> partitions = partitioner().partition(4);
+
+        assertThat(partitions).hasSize(4);
+        assertThat(partitions.values()).extracting(range -> range.getInt(FIRST_ROW)).containsExactly(0, 4, 8, 12);
+        assertThat(partitions.values()).extracting(range -> range.getInt(ROW_COUNT)).containsExactly(4, 4, 4, 1);
+    }
+
+    @Test
+    void partitionedReadersCoverEveryRowOnce() throws Exception {
+        when(dataFileStore.locate(FILE_ID)).thenReturn(Optional.of(readFile("dealer.xlsx")));
+
+        List<String> dealerNames = new ArrayList<>();
+        for (ExecutionContext range : partitioner().partition(3).values()) {
+            EntityItemsReader<DealerEVM> reader = reader(range.getInt(FIRST_ROW), range.getInt(ROW_COUNT));
+            for (List<DealerEVM> rows = reader.read(); rows != null; rows = reader.read()) {
+                rows.forEach(row -> dealerNames.add(row.getDealerName()));
+            }
+        }
+
+        assertThat(dealerNames).hasSize(13).doesNotHaveDuplicates().startsWith("dealerName1").endsWith("dealerName13");
+    }
+
+    @Test
+    void missingUploadGivesOneEmptyPartition() throws Exception {
+        when(dataFileStore.locate(FILE_ID)).thenReturn(Optional.empty());
+
+        Map<String, ExecutionContext> partitions = partitioner().partition(4);
+
+        assertThat(partitions).hasSize(1);
+        assertThat(reader(0, partitions.values().iterator().next().getInt(ROW_COUNT)).read()).isNull();
+    }
+
+    private RowRangePartitioner partitioner() {
+        return new RowRangePartitioner(new ExcelDeserializerContainer().dealerExcelFileDeserializer(), dataFileStore, FILE_ID);
+    }
+
+    private EntityItemsReader<DealerEVM> reader(int firstRow, int rowCount) {
+        FileUploadsProperties fileUploadsProperties = new FileUploadsProperties();
+        fileUploadsProperties.setListSize(5);
+
+        return new EntityItemsReader<>(
+            new ExcelDeserializerContainer().dealerExcelFileDeserializer(),
+            dataFileStore,
+            FILE_ID,
+            firstRow,
+            rowCount,
+            fileUploadsProperties
+        );
+    }
+}
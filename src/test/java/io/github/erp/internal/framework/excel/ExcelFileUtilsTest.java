@@ -22,6 +22,7 @@ import io.github.erp.internal.service.files.ExcelDeserializerContainer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.github.erp.internal.framework.AppConstants.DATETIME_FORMATTER;
@@ -219,6 +220,16 @@ public class ExcelFileUtilsTest {
                 );
         }
     }
+    @Test
+    public void dealersListFileStreamedRowByRow() throws Exception {
+        ExcelFileDeserializer<DealerEVM> deserializer = container.dealerExcelFileDeserializer();
+
+        List<DealerEVM> streamed = new ArrayList<>();
+        deserializer.deserialize(readFile("dealer.xlsx"), streamed::add);
+
+        assertThat(streamed).containsExactlyElementsOf(deserializer.deserialize(toBytes(readFile("dealer.xlsx"))));
+    }
+
     @Test
     public void dealersListFile() throws Exception {
         ExcelFileDeserializer<DealerEVM> deserializer = container.dealerExcelFileDeserializer();
@@ -0,0 +1,365 @@
+package io.github.erp.internal.ledger;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.TransactionAccount;
+import io.github.erp.domain.TransactionAccountReportItem;
+import io.github.erp.domain.enumeration.AccountTypes;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository.AccountBalance;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository.LedgerEntry;
+import io.github.erp.internal.repository.InternalTransactionAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs snapshot maintenance against an in-memory ledger and checks that snapshot plus delta
+ * reproduces the balances of a full scan
+ */
+class AccountBalanceSnapshotServiceTest {
+
+    private static final long CASH = 1L;
+    private static final long REVENUE = 2L;
+    private static final long CAPITAL = 3L;
+    private static final long RETAINED_EARNINGS = 4L;
+
+    private final List<Entry> ledger = new ArrayList<>();
+    private final Map<String, AccountBalanceSnapshot> snapshots = new TreeMap<>();
+
+    private AccountBalanceSnapshotRepository repository;
+    private AccountBalanceSnapshotService service;
+    private TrialBalanceCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AccountBalanceSnapshotRepository.class);
+        InternalTransactionAccountRepository accountRepository = mock(InternalTransactionAccountRepository.class);
+        stubSnapshots();
+        stubLedger();
+        when(repository.findFiscalYearStart(any())).thenReturn(List.of(LocalDate.of(2026, 1, 1)));
+        when(repository.findRetainedEarningsAccount(anyLong())).thenReturn(Optional.of(account(RETAINED_EARNINGS, AccountTypes.EQUITY)));
+        when(accountRepository.findAllById(any()))
+            .thenAnswer(invocation -> {
+                List<TransactionAccount> accounts = new ArrayList<>();
+                for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                    accounts.add(account(id, id == CAPITAL || id == RETAINED_EARNINGS ? AccountTypes.EQUITY : AccountTypes.ASSET));
+                }
+                return accounts;
+            });
+
+        service = new AccountBalanceSnapshotService(repository);
+        calculator = new TrialBalanceCalculator(repository, accountRepository);
+    }
+
+    @Test
+    @DisplayName("Applied entries move their month and carry into the later months")
+    void applyPendingCarriesIntoLaterMonths() {
+        post(CASH, REVENUE, "2026-03-10", "100.00");
+        post(CASH, REVENUE, "2026-05-02", "40.00");
+        service.applyPending(10);
+
+        // An entry back-dated into an earlier month arrives after the later months exist
+        post(CASH, REVENUE, "2026-02-20", "7.00");
+        assertThat(service.applyPending(10)).isEqualTo(1);
+
+        assertThat(snapshot(REVENUE, "2026-02-01").getClosingBalance()).isEqualByComparingTo("7.00");
+        assertThat(snapshot(REVENUE, "2026-03-01").getOpeningBalance()).isEqualByComparingTo("7.00");
+        assertThat(snapshot(REVENUE, "2026-05-01").getClosingBalance()).isEqualByComparingTo("147.00");
+        assertThat(snapshot(CASH, "2026-05-01").getClosingBalance()).isEqualByComparingTo("-147.00");
+        assertThat(snapshot(CASH, "2026-05-01").getDebitAmount()).isEqualByComparingTo("40.00");
+        assertThat(ledger).allMatch(entry -> entry.applied);
+    }
+
+    @Test
+    @DisplayName("Snapshot plus delta matches a full scan, whether or not entries are applied")
+    void balancesMatchFullScan() {
+        post(CASH, REVENUE, "2025-11-30", "50.00");
+        post(CASH, REVENUE, "2026-03-10", "100.00");
+        post(REVENUE, CASH, "2026-04-03", "30.00");
+        service.applyPending(2);
+        post(CASH, REVENUE, "2026-04-15", "9.00");
+
+        for (String date : List.of("2025-12-31", "2026-03-31", "2026-04-10", "2026-04-30")) {
+            assertThat(calculator.balances(LocalDate.parse(date)))
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(fullScan(LocalDate.parse(date)));
+        }
+    }
+
+    @Test
+    @DisplayName("Withdrawn entries leave the snapshots and empty months are dropped")
+    void withdrawReversesAppliedEntry() {
+        post(CASH, REVENUE, "2026-03-10", "100.00");
+        Entry backDated = post(CASH, REVENUE, "2026-02-20", "7.00");
+        service.applyPending(10);
+
+        service.withdraw(backDated.id);
+
+        assertThat(backDated.applied).isFalse();
+        assertThat(snapshots).doesNotContainKey(key(REVENUE, LocalDate.parse("2026-02-01")));
+        assertThat(snapshot(REVENUE, "2026-03-01").getOpeningBalance()).isEqualByComparingTo("0.00");
+        assertThat(snapshot(REVENUE, "2026-03-01").getClosingBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("Equity shows the current fiscal year and earlier years go to retained earnings")
+    void trialBalanceSplitsEquityAtFiscalYearStart() {
+        post(CASH, CAPITAL, "2025-06-01", "500.00");
+        post(CASH, CAPITAL, "2026-02-01", "80.00");
+        post(CASH, REVENUE, "2026-02-15", "20.00");
+        service.applyPending(10);
+
+        List<TransactionAccountReportItem> items = calculator.trialBalance(LocalDate.of(2026, 3, 31), 1L);
+
+        assertThat(items).extracting(TransactionAccountReportItem::getId).containsExactly(CASH, REVENUE, CAPITAL, RETAINED_EARNINGS);
+        assertThat(items.get(0).getAccountBalance()).isEqualByComparingTo("-600.00");
+        assertThat(items.get(1).getAccountBalance()).isEqualByComparingTo("20.00");
+        assertThat(items.get(2).getAccountBalance()).isEqualByComparingTo("80.00");
+        assertThat(items.get(3).getAccountBalance()).isEqualByComparingTo("500.00");
+    }
+
+    private Entry post(long debitAccountId, long creditAccountId, String date, String amount) {
+        Entry entry = new Entry(ledger.size() + 1L, debitAccountId, creditAccountId, LocalDate.parse(date), new BigDecimal(amount));
+        ledger.add(entry);
+        return entry;
+    }
+
+    private AccountBalanceSnapshot snapshot(long accountId, String periodStart) {
+        return snapshots.get(key(accountId, LocalDate.parse(periodStart)));
+    }
+
+    private Map<Long, BigDecimal> fullScan(LocalDate reportDate) {
+        Map<Long, BigDecimal> balances = new TreeMap<>();
+        for (Entry entry : ledger) {
+            if (!entry.date.isAfter(reportDate)) {
+                balances.merge(entry.creditAccountId, entry.amount, BigDecimal::add);
+                balances.merge(entry.debitAccountId, entry.amount.negate(), BigDecimal::add);
+            }
+        }
+        return balances;
+    }
+
+    private void stubSnapshots() {
+        when(repository.findByTransactionAccountIdAndPeriodStart(anyLong(), any()))
+            .thenAnswer(invocation -> Optional.ofNullable(snapshots.get(key(invocation.getArgument(0), invocation.getArgument(1)))));
+        when(repository.findFirstByTransactionAccountIdAndPeriodStartLessThanOrderByPeriodStartDesc(anyLong(), any()))
+            .thenAnswer(invocation -> latestBefore(invocation.getArgument(0), invocation.getArgument(1)));
+        when(repository.save(any(AccountBalanceSnapshot.class)))
+            .thenAnswer(invocation -> {
+                AccountBalanceSnapshot snapshot = invocation.getArgument(0);
+                snapshots.put(key(snapshot.getTransactionAccountId(), snapshot.getPeriodStart()), snapshot);
+                return snapshot;
+            });
+        doAnswer(invocation -> {
+                AccountBalanceSnapshot snapshot = invocation.getArgument(0);
+                return snapshots.remove(key(snapshot.getTransactionAccountId(), snapshot.getPeriodStart()));
+            })
+            .when(repository)
+            .delete(any(AccountBalanceSnapshot.class));
+        when(repository.shiftLaterPeriods(anyLong(), any(), any()))
+            .thenAnswer(invocation -> {
+                Long accountId = invocation.getArgument(0);
+                LocalDate periodStart = invocation.getArgument(1);
+                BigDecimal net = invocation.getArgument(2);
+                List<AccountBalanceSnapshot> later = snapshots
+                    .values()
+                    .stream()
+                    .filter(s -> s.getTransactionAccountId().equals(accountId) && s.getPeriodStart().isAfter(periodStart))
+                    .collect(Collectors.toList());
+                // Shifting moves both balances by the same amount, which posting equal debits and credits cannot do
+                later.forEach(s -> snapshots.put(key(accountId, s.getPeriodStart()), shifted(s, net)));
+                return later.size();
+            });
+        when(repository.findSnapshotBalancesBefore(any()))
+            .thenAnswer(invocation -> {
+                LocalDate periodStart = invocation.getArgument(0);
+                return snapshots
+                    .values()
+                    .stream()
+                    .map(s -> s.getTransactionAccountId())
+                    .distinct()
+                    .map(accountId -> latestBefore(accountId, periodStart))
+                    .flatMap(Optional::stream)
+                    .map(s -> balance(s.getTransactionAccountId(), s.getClosingBalance()))
+                    .collect(Collectors.toList());
+            });
+    }
+
+    private void stubLedger() {
+        when(repository.findUnappliedEntries(anyInt()))
+            .thenAnswer(invocation ->
+                ledger.stream().filter(entry -> !entry.applied).limit(invocation.<Integer>getArgument(0)).collect(Collectors.toList())
+            );
+        when(repository.findUnappliedEntriesOfPosting(any(UUID.class))).thenReturn(List.of());
+        when(repository.findUnappliedEntriesIn(anyCollection()))
+            .thenAnswer(invocation -> {
+                Collection<Long> ids = invocation.getArgument(0);
+                return ledger.stream().filter(entry -> ids.contains(entry.id) && !entry.applied).collect(Collectors.toList());
+            });
+        when(repository.findEntry(anyLong())).thenAnswer(invocation -> Optional.of(ledger.get(invocation.<Long>getArgument(0).intValue() - 1)));
+        doAnswer(invocation -> {
+                Collection<Long> ids = invocation.getArgument(0);
+                boolean applied = invocation.getArgument(1);
+                ids.forEach(id -> ledger.get(id.intValue() - 1).applied = applied);
+                return null;
+            })
+            .when(repository)
+            .markEntries(anyCollection(), anyBoolean());
+        when(repository.findDeltaBalances(any(), any()))
+            .thenAnswer(invocation -> {
+                LocalDate periodStart = invocation.getArgument(0);
+                LocalDate reportDate = invocation.getArgument(1);
+                Map<Long, BigDecimal> delta = new TreeMap<>();
+                for (Entry entry : ledger) {
+                    if (!entry.date.isAfter(reportDate) && (!entry.date.isBefore(periodStart) || !entry.applied)) {
+                        delta.merge(entry.creditAccountId, entry.amount, BigDecimal::add);
+                        delta.merge(entry.debitAccountId, entry.amount.negate(), BigDecimal::add);
+                    }
+                }
+                return delta.entrySet().stream().map(e -> balance(e.getKey(), e.getValue())).collect(Collectors.toList());
+            });
+        when(repository.findAccountsWithEntriesBetween(any(), any()))
+            .thenAnswer(invocation -> {
+                LocalDate from = invocation.getArgument(0);
+                LocalDate to = invocation.getArgument(1);
+                return ledger
+                    .stream()
+                    .filter(entry -> !entry.date.isBefore(from) && !entry.date.isAfter(to))
+                    .flatMap(entry -> List.of(entry.debitAccountId, entry.creditAccountId).stream())
+                    .distinct()
+                    .collect(Collectors.toList());
+            });
+    }
+
+    private Optional<AccountBalanceSnapshot> latestBefore(Long accountId, LocalDate periodStart) {
+        return snapshots
+            .values()
+            .stream()
+            .filter(s -> s.getTransactionAccountId().equals(accountId) && s.getPeriodStart().isBefore(periodStart))
+            .reduce((first, second) -> second.getPeriodStart().isAfter(first.getPeriodStart()) ? second : first);
+    }
+
+    private static AccountBalanceSnapshot shifted(AccountBalanceSnapshot snapshot, BigDecimal net) {
+        AccountBalanceSnapshot copy = new AccountBalanceSnapshot(
+            snapshot.getTransactionAccountId(),
+            snapshot.getPeriodStart(),
+            snapshot.getOpeningBalance().add(net)
+        );
+        copy.post(snapshot.getDebitAmount(), snapshot.getCreditAmount());
+        return copy;
+    }
+
+    private static String key(Long accountId, LocalDate periodStart) {
+        return accountId + "@" + periodStart;
+    }
+
+    private static TransactionAccount account(Long id, AccountTypes type) {
+        TransactionAccount account = new TransactionAccount();
+        account.setId(id);
+        account.setAccountName("Account " + id);
+        account.setAccountNumber(String.valueOf(id));
+        account.setAccountType(type);
+        return account;
+    }
+
+    private static AccountBalance balance(Long accountId, BigDecimal balance) {
+        return new AccountBalance() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return balance;
+            }
+        };
+    }
+
+    private static final class Entry implements LedgerEntry {
+
+        private final Long id;
+        private final Long debitAccountId;
+        private final Long creditAccountId;
+        private final LocalDate date;
+        private final BigDecimal amount;
+        private boolean applied;
+
+        private Entry(Long id, Long debitAccountId, Long creditAccountId, LocalDate date, BigDecimal amount) {
+            this.id = id;
+            this.debitAccountId = debitAccountId;
+            this.creditAccountId = creditAccountId;
+            this.date = date;
+            this.amount = amount;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getDebitAccountId() {
+            return debitAccountId;
+        }
+
+        @Override
+        public Long getCreditAccountId() {
+            return creditAccountId;
+        }
+
+        @Override
+        public Date getTransactionDate() {
+            return Date.valueOf(date);
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        @Override
+        public Boolean getApplied() {
+            return applied;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.erp.internal.report;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.files.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CSVReportCodecTest {
+
+    @TempDir
+    Path reportsDirectory;
+
+    @Test
+    void writesHeaderFromDeclaredFieldsAndOneRowPerItem() throws IOException {
+
+        Path reportPath = reportsDirectory.resolve("report.csv");
+
+        CSVReportCodec.writeReport(
+            Arrays.asList(new ReportItem("AS-001", new BigDecimal("1500.00"), "Kenya"), new ReportItem("AS-002", null, "Uganda")),
+            reportPath);
+
+        List<String> lines = Files.readAllLines(reportPath, StandardCharsets.UTF_8);
+
+        assertThat(lines).containsExactly(
+            "\"assetNumber\",\"netBookValue\",\"outletCode\"",
+            "\"AS-001\",\"1500.00\",\"\"",
+            "\"AS-002\",\"\",\"\"");
+    }
+
+    @Test
+    void emptyReportCreatesAnEmptyFile() throws IOException {
+
+        Path reportPath = reportsDirectory.resolve("empty.csv");
+
+        CSVReportCodec.writeReport(Collections.emptyList(), reportPath);
+
+        assertThat(Files.size(reportPath)).isZero();
+    }
+
+    @Test
+    void streamedReportChecksumMatchesTheChecksumOfTheFileOnDisk() throws IOException {
+
+        Path reportPath = reportsDirectory.resolve("streamed.csv");
+
+        String checksum = CSVReportCodec.writeReport(
+            IntStream.range(0, 5_000).mapToObj(index -> new ReportItem("AS-" + index, BigDecimal.valueOf(index, 2), null)),
+            reportPath);
+
+        assertThat(Files.readAllLines(reportPath, StandardCharsets.UTF_8)).hasSize(5_001);
+        assertThat(checksum).isEqualTo(FileUtils.calculateSha512CheckSum(reportsDirectory, "streamed.csv"));
+    }
+
+    @Test
+    void codecIsResolvedOncePerClass() {
+
+        assertThat(CSVReportCodec.forClass(ReportItem.class)).isSameAs(CSVReportCodec.forClass(ReportItem.class));
+        assertThat(CSVReportCodec.forClass(ReportItem.class).getHeader()).containsExactly("assetNumber", "netBookValue", "outletCode");
+    }
+
+    public static class ReportItem {
+
+        private final String assetNumber;
+        private final BigDecimal netBookValue;
+        // no getter: written as an empty column
+        private final String outletCode;
+
+        ReportItem(String assetNumber, BigDecimal netBookValue, String outletCode) {
+            this.assetNumber = assetNumber;
+            this.netBookValue = netBookValue;
+            this.outletCode = outletCode;
+        }
+
+        public String getAssetNumber() {
+            return assetNumber;
+        }
+
+        public BigDecimal getNetBookValue() {
+            return netBookValue;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.erp.internal.report.assemblies;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of a report fill that first compiles the jrxml design, as every requisition
+ * used to, against a fill from the compiled-template cache. Run with the main method from the test
+ * classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompiledReportTemplateBenchmark {
+
+    private Path reportsDirectory;
+
+    private Path template;
+
+    private SimpleJasperReportCompiler compiler;
+
+    private final Map<String, Object> parameters = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        reportsDirectory = Files.createTempDirectory("compiled-report-template-benchmark");
+        template = reportsDirectory.resolve("benchmark-design.jrxml");
+        try (InputStream design = getClass().getResourceAsStream("/templates/reports/compiled_template_report.jrxml")) {
+            Files.copy(design, template);
+        }
+
+        compiler = new SimpleJasperReportCompiler(64, new SimpleMeterRegistry());
+
+        parameters.put("title", "Compiled template benchmark");
+        parameters.put("description", "Fill latency with and without the compiled-template cache");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(reportsDirectory.resolve("benchmark-design.jasper"));
+        Files.deleteIfExists(template);
+        Files.deleteIfExists(reportsDirectory);
+    }
+
+    /**
+     * The previous path: compile the design on every requisition, then fill
+     */
+    @Benchmark
+    public JasperPrint compileThenFill() throws IOException, JRException {
+        try (InputStream design = Files.newInputStream(template)) {
+            return fill(compiler.compileReport(design));
+        }
+    }
+
+    /**
+     * The cached path: checksum the design, take the compiled report from the cache, then fill
+     */
+    @Benchmark
+    public JasperPrint cachedFill() throws JRException {
+        return fill(compiler.compileReport(template.toString()));
+    }
+
+    private JasperPrint fill(JasperReport jasperReport) throws JRException {
+        return JasperFillManager.fillReport(jasperReport, new HashMap<>(parameters), new JREmptyDataSource(1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CompiledReportTemplateBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
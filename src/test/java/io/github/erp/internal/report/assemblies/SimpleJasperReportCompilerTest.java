@@ -0,0 +1,77 @@
+package io.github.erp.internal.report.assemblies;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleJasperReportCompilerTest {
+
+    @TempDir
+    Path reportsDirectory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SimpleJasperReportCompiler compiler;
+
+    private File template;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        compiler = new SimpleJasperReportCompiler(2, meterRegistry);
+        template = reportsDirectory.resolve("d6b4f4e6-design.jrxml").toFile();
+        try (InputStream design = getClass().getResourceAsStream("/templates/reports/compiled_template_report.jrxml")) {
+            Files.copy(design, template.toPath());
+        }
+    }
+
+    @Test
+    void unchangedTemplateIsCompiledOnce() {
+        JasperReport first = compiler.compileReport(template.getAbsolutePath());
+        JasperReport second = compiler.compileReport(template.getAbsolutePath());
+
+        assertThat(second).isSameAs(first);
+        assertThat(reportsDirectory.resolve("d6b4f4e6-design.jasper")).exists();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "compiledReportTemplates").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void uploadedDesignChangeIsRecompiled() throws IOException {
+        JasperReport first = compiler.compileReport(template.getAbsolutePath());
+
+        String design = Files.readString(template.toPath(), StandardCharsets.UTF_8);
+        Files.writeString(template.toPath(), design.replace("\"Untitled\"", "\"No title\""), StandardCharsets.UTF_8);
+
+        JasperReport recompiled = compiler.compileReport(template.getAbsolutePath());
+
+        assertThat(recompiled).isNotSameAs(first);
+        assertThat(compiler.compileReport(template.getAbsolutePath())).isSameAs(recompiled);
+    }
+}
@@ -0,0 +1,311 @@
+package io.github.erp.internal.report.execution;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.internal.repository.ReportExecutionJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportExecutionSchedulerTest {
+
+    private static final String REPORT_TYPE = "test-report";
+
+    private final Map<Long, ReportExecutionJob> jobs = new HashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TestHandler handler = new TestHandler();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final Set<Long> startedElsewhere = new HashSet<>();
+
+    private ReportExecutionScheduler scheduler;
+
+    @AfterEach
+    void shutDown() {
+        handler.release.countDown();
+        scheduler.destroy();
+    }
+
+    @Test
+    void identicalQueuedRequisitionsAreGeneratedOnce() {
+        scheduler = scheduler(1, 2);
+        handler.fingerprints.put(2L, "same");
+        handler.fingerprints.put(3L, "same");
+
+        scheduler.submit(REPORT_TYPE, 1L);
+        ReportExecutionJob queued = scheduler.submit(REPORT_TYPE, 2L);
+        ReportExecutionJob collapsed = scheduler.submit(REPORT_TYPE, 3L);
+
+        assertThat(collapsed.getStatus()).isEqualTo(ReportExecutionStatus.COLLAPSED);
+        assertThat(collapsed.getLeaderJobId()).isEqualTo(queued.getId());
+
+        handler.release.countDown();
+        awaitStatus(ReportExecutionStatus.COMPLETED, 3);
+
+        assertThat(handler.executed).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(handler.shared).containsExactly("2->3");
+    }
+
+    @Test
+    void concurrencyIsCappedPerReportType() {
+        environment.setProperty("erp.report-execution.type-limits." + REPORT_TYPE, "2");
+        scheduler = scheduler(4, 4);
+
+        for (long requisition = 1; requisition <= 5; requisition++) {
+            scheduler.submit(REPORT_TYPE, requisition);
+        }
+
+        awaitUntil(() -> handler.running.get() == 2);
+        assertThat(scheduler.queueDepth(REPORT_TYPE)).isEqualTo(3);
+        assertThat(meterRegistry.get("erp.report.execution.queue.depth").tag("report.type", REPORT_TYPE).gauge().value()).isEqualTo(3);
+
+        handler.release.countDown();
+        awaitStatus(ReportExecutionStatus.COMPLETED, 5);
+
+        assertThat(handler.maxRunning.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("erp.report.execution.run").tag("outcome", "completed").timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("erp.report.execution.wait").timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrencyIsCappedPerTenant() {
+        scheduler = scheduler(4, 1);
+        handler.tenants.put(1L, "first");
+        handler.tenants.put(2L, "first");
+        handler.tenants.put(3L, "second");
+
+        for (long requisition = 1; requisition <= 3; requisition++) {
+            scheduler.submit(REPORT_TYPE, requisition);
+        }
+
+        awaitUntil(() -> handler.running.get() == 2);
+        assertThat(handler.started).containsExactlyInAnyOrder(1L, 3L);
+
+        handler.release.countDown();
+        awaitStatus(ReportExecutionStatus.COMPLETED, 3);
+    }
+
+    @Test
+    void outstandingJobsAreResumedOnStartUp() {
+        ReportExecutionJob interrupted = job(7L, ReportExecutionStatus.RUNNING);
+        ReportExecutionJob queued = job(8L, ReportExecutionStatus.QUEUED);
+        scheduler = scheduler(4, 4);
+        handler.release.countDown();
+
+        scheduler.resumeOutstandingJobs();
+
+        awaitStatus(ReportExecutionStatus.COMPLETED, 2);
+        assertThat(handler.executed).containsExactlyInAnyOrder(7L, 8L);
+        assertThat(interrupted.getFinishedAt()).isNotNull();
+        assertThat(queued.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void jobsStartedByAnotherInstanceAreNotRunAgain() {
+        job(7L, ReportExecutionStatus.QUEUED);
+        job(8L, ReportExecutionStatus.QUEUED);
+        startedElsewhere.add(107L);
+        scheduler = scheduler(1, 1);
+        handler.release.countDown();
+
+        scheduler.resumeOutstandingJobs();
+
+        awaitStatus(ReportExecutionStatus.COMPLETED, 1);
+        awaitUntil(() -> scheduler.getRunning() == 0);
+        assertThat(handler.executed).containsExactly(8L);
+        assertThat(scheduler.queueDepth(REPORT_TYPE)).isZero();
+    }
+
+    private void awaitStatus(ReportExecutionStatus status, int count) {
+        awaitUntil(() -> countOf(status) == count);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 seconds").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private synchronized long countOf(ReportExecutionStatus status) {
+        return jobs.values().stream().filter(job -> job.getStatus() == status).count();
+    }
+
+    private ReportExecutionJob job(long requisitionId, ReportExecutionStatus status) {
+        ReportExecutionJob job = new ReportExecutionJob();
+        job.setId(100 + requisitionId);
+        job.setReportType(REPORT_TYPE);
+        job.setRequisitionId(requisitionId);
+        job.setTenant("system");
+        job.setStatus(status);
+        job.setEnqueuedAt(java.time.Instant.now());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReportExecutionScheduler scheduler(int maxConcurrent, int tenantLimit) {
+        AtomicLong ids = new AtomicLong();
+        ReportExecutionJobRepository repository = mock(ReportExecutionJobRepository.class);
+
+        when(repository.save(any(ReportExecutionJob.class))).thenAnswer(invocation -> {
+            synchronized (this) {
+                ReportExecutionJob job = invocation.getArgument(0);
+                if (job.getId() == null) {
+                    job.setId(ids.incrementAndGet());
+                }
+                jobs.put(job.getId(), job);
+                return job;
+            }
+        });
+        when(repository.findFirstByReportTypeAndFingerprintAndStatusInOrderByIdAsc(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            synchronized (this) {
+                Collection<ReportExecutionStatus> statuses = invocation.getArgument(2);
+                return jobs.values().stream()
+                    .filter(job -> invocation.getArgument(1).equals(job.getFingerprint()) && statuses.contains(job.getStatus()))
+                    .findFirst();
+            }
+        });
+        when(repository.findAllByLeaderJobIdAndStatus(anyLong(), any())).thenAnswer(invocation -> {
+            synchronized (this) {
+                return jobs.values().stream()
+                    .filter(job -> invocation.getArgument(0).equals(job.getLeaderJobId()) && job.getStatus() == invocation.getArgument(1))
+                    .collect(Collectors.toList());
+            }
+        });
+        when(repository.claim(anyLong(), any(), any(), any())).thenAnswer(invocation -> claim(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        when(repository.lockIfInStatus(anyLong(), any())).thenAnswer(invocation -> {
+            synchronized (this) {
+                return jobs.get(invocation.<Long>getArgument(0)).getStatus() == invocation.getArgument(1) ? 1 : 0;
+            }
+        });
+        when(repository.findAllByStatusOrderByIdAsc(any())).thenAnswer(invocation -> {
+            synchronized (this) {
+                return jobs.values().stream().filter(job -> job.getStatus() == invocation.getArgument(0)).collect(Collectors.toList());
+            }
+        });
+
+        ObjectProvider<ReportExecutionHandler<?>> handlers = mock(ObjectProvider.class);
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+
+        return new ReportExecutionScheduler(repository, mock(PlatformTransactionManager.class), handlers, meterRegistry, environment, maxConcurrent, tenantLimit);
+    }
+
+    /**
+     * Jobs in startedElsewhere are taken by another instance as soon as they are queued
+     */
+    private synchronized int claim(Long id, ReportExecutionStatus expected, ReportExecutionStatus status, java.time.Instant startedAt) {
+        ReportExecutionJob job = jobs.get(id);
+        if (job.getStatus() != expected || (status == ReportExecutionStatus.RUNNING && startedElsewhere.contains(id))) {
+            return 0;
+        }
+        job.setStatus(status);
+        job.setStartedAt(startedAt);
+        return 1;
+    }
+
+    /**
+     * Requisitions are plain ids; every execution waits for the release latch
+     */
+    private static class TestHandler implements ReportExecutionHandler<Long> {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Map<Long, String> fingerprints = new HashMap<>();
+        private final Map<Long, String> tenants = new HashMap<>();
+        private final List<Long> started = new CopyOnWriteArrayList<>();
+        private final List<Long> executed = new CopyOnWriteArrayList<>();
+        private final List<String> shared = new ArrayList<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        public String getReportType() {
+            return REPORT_TYPE;
+        }
+
+        @Override
+        public Long requisitionId(Long requisition) {
+            return requisition;
+        }
+
+        @Override
+        public Optional<Long> findRequisition(Long requisitionId) {
+            return Optional.of(requisitionId);
+        }
+
+        @Override
+        public void execute(Long requisition) {
+            started.add(requisition);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            executed.add(requisition);
+        }
+
+        @Override
+        public String fingerprint(Long requisition) {
+            return fingerprints.get(requisition);
+        }
+
+        @Override
+        public synchronized void shareOutput(Long generated, Long collapsed) {
+            shared.add(generated + "->" + collapsed);
+        }
+
+        @Override
+        public String tenantOf(Long requisition) {
+            return tenants.get(requisition);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.TestcontainersIntegrationTest;
+import io.github.erp.domain.TransactionAccount;
+import io.github.erp.internal.ledger.AccountBalanceSnapshot;
+import io.github.erp.internal.repository.AccountBalanceSnapshotRepository.AccountBalance;
+import io.github.erp.web.rest.TransactionAccountResourceIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native snapshot queries against PostgreSQL
+ */
+@TestcontainersIntegrationTest
+@Transactional
+class AccountBalanceSnapshotRepositoryIT {
+
+    @Autowired
+    private AccountBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Long cash;
+    private Long revenue;
+
+    @BeforeEach
+    void setUp() {
+        cash = account("SNAPSHOT-CASH");
+        revenue = account("SNAPSHOT-REVENUE");
+    }
+
+    @Test
+    void snapshotBalancesBeforeReturnEachAccountsLatestEarlierClosingBalance() {
+        snapshot(cash, "2026-01-01", "0.00", "100.00", "0.00");
+        snapshot(cash, "2026-02-01", "-100.00", "40.00", "0.00");
+        snapshot(cash, "2026-03-01", "-140.00", "5.00", "0.00");
+        snapshot(revenue, "2026-01-01", "0.00", "0.00", "100.00");
+
+        Map<Long, BigDecimal> balances = balances(snapshotRepository.findSnapshotBalancesBefore(LocalDate.of(2026, 3, 1)));
+
+        assertThat(balances).containsOnlyKeys(cash, revenue);
+        assertThat(balances.get(cash)).isEqualByComparingTo("-140.00");
+        assertThat(balances.get(revenue)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void snapshotBalancesBeforeSkipAccountsWithoutAnEarlierMonth() {
+        snapshot(cash, "2026-03-01", "0.00", "5.00", "0.00");
+
+        assertThat(snapshotRepository.findSnapshotBalancesBefore(LocalDate.of(2026, 3, 1))).isEmpty();
+    }
+
+    @Test
+    void maintenanceAndAccountLocksCanBeTakenInOneTransaction() {
+        assertThat(snapshotRepository.lockMaintenanceShared()).isEqualTo(1L);
+        assertThat(snapshotRepository.lockAccounts(List.of(revenue, cash))).isEqualTo(2L);
+        // Advisory locks are re-entrant within the session
+        assertThat(snapshotRepository.lockAccounts(List.of(cash))).isEqualTo(1L);
+    }
+
+    private Long account(String accountNumber) {
+        TransactionAccount account = TransactionAccountResourceIT.createEntity(em).accountNumber(accountNumber);
+        em.persist(account);
+        em.flush();
+        return account.getId();
+    }
+
+    private void snapshot(Long accountId, String periodStart, String opening, String debits, String credits) {
+        AccountBalanceSnapshot snapshot = new AccountBalanceSnapshot(accountId, LocalDate.parse(periodStart), new BigDecimal(opening));
+        snapshot.post(new BigDecimal(debits), new BigDecimal(credits));
+        snapshotRepository.saveAndFlush(snapshot);
+    }
+
+    private static Map<Long, BigDecimal> balances(List<AccountBalance> balances) {
+        return balances.stream().collect(Collectors.toMap(AccountBalance::getAccountId, AccountBalance::getBalance));
+    }
+}
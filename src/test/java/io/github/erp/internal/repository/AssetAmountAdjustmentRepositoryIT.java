@@ -0,0 +1,201 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.TestcontainersIntegrationTest;
+import io.github.erp.context.assets.domain.AssetDisposal;
+import io.github.erp.context.assets.domain.AssetRegistration;
+import io.github.erp.context.assets.domain.AssetRevaluation;
+import io.github.erp.domain.AssetAmountAdjustmentTuple;
+import io.github.erp.domain.AssetGeneralAdjustment;
+import io.github.erp.domain.AssetWriteOff;
+import io.github.erp.domain.DepreciationPeriod;
+import io.github.erp.web.rest.AssetDisposalResourceIT;
+import io.github.erp.web.rest.AssetGeneralAdjustmentResourceIT;
+import io.github.erp.web.rest.AssetRegistrationResourceIT;
+import io.github.erp.web.rest.AssetRevaluationResourceIT;
+import io.github.erp.web.rest.AssetWriteOffResourceIT;
+import io.github.erp.web.rest.DepreciationPeriodResourceIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the grouped cost-adjustment sums of batch depreciation against PostgreSQL
+ */
+@TestcontainersIntegrationTest
+@Transactional
+class AssetAmountAdjustmentRepositoryIT {
+
+    private static final LocalDate FEBRUARY = LocalDate.of(2026, 2, 1);
+
+    @Autowired
+    private InternalAssetDisposalRepository disposalRepository;
+
+    @Autowired
+    private InternalAssetWriteOffRepository writeOffRepository;
+
+    @Autowired
+    private InternalAssetRevaluationRepository revaluationRepository;
+
+    @Autowired
+    private InternalAssetGeneralAdjustmentRepository generalAdjustmentRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private DepreciationPeriod january;
+    private DepreciationPeriod february;
+    private DepreciationPeriod march;
+
+    private AssetRegistration printer;
+    private AssetRegistration scanner;
+    private AssetRegistration server;
+
+    @BeforeEach
+    void setUp() {
+        january = period(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+        february = period(FEBRUARY, LocalDate.of(2026, 2, 28));
+        march = period(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        printer = asset("ADJ-PRINTER");
+        scanner = asset("ADJ-SCANNER");
+        server = asset("ADJ-SERVER");
+    }
+
+    @Test
+    void revaluationsAreSummedPerAssetUpToThePeriod() {
+        revaluation(printer, january, "100.00");
+        revaluation(printer, february, "50.25");
+        revaluation(printer, march, "999.00");
+        revaluation(scanner, january, "10.00");
+        revaluation(server, january, "77.00");
+
+        Map<Long, BigDecimal> amounts = amounts(
+            revaluationRepository.findRevaluationAmounts(List.of(printer.getId(), scanner.getId()), FEBRUARY));
+
+        assertThat(amounts).containsOnlyKeys(printer.getId(), scanner.getId());
+        assertThat(amounts.get(printer.getId())).isEqualByComparingTo("150.25");
+        assertThat(amounts.get(scanner.getId())).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void generalAdjustmentsAreSummedPerAssetUpToThePeriod() {
+        generalAdjustment(printer, january, "20.00");
+        generalAdjustment(printer, january, "5.50");
+        generalAdjustment(scanner, march, "300.00");
+
+        Map<Long, BigDecimal> amounts = amounts(
+            generalAdjustmentRepository.findGeneralAdjustmentAmounts(List.of(printer.getId(), scanner.getId()), FEBRUARY));
+
+        assertThat(amounts).containsOnlyKeys(printer.getId());
+        assertThat(amounts.get(printer.getId())).isEqualByComparingTo("25.50");
+    }
+
+    @Test
+    void disposalsAreReturnedForAssetsDisposedUpToThePeriod() {
+        disposal(printer, february, "1200.00");
+        disposal(scanner, march, "800.00");
+
+        Map<Long, BigDecimal> amounts = amounts(
+            disposalRepository.findDisposalAmounts(List.of(printer.getId(), scanner.getId(), server.getId()), FEBRUARY));
+
+        assertThat(amounts).containsOnlyKeys(printer.getId());
+        assertThat(amounts.get(printer.getId())).isEqualByComparingTo("1200.00");
+    }
+
+    @Test
+    void writeOffsAreReturnedForAssetsWrittenOffUpToThePeriod() {
+        writeOff(printer, january, "45.00");
+        writeOff(scanner, february, "15.00");
+        writeOff(server, march, "60.00");
+
+        Map<Long, BigDecimal> amounts = amounts(
+            writeOffRepository.findWriteOffAmounts(List.of(printer.getId(), scanner.getId(), server.getId()), FEBRUARY));
+
+        assertThat(amounts).containsOnlyKeys(printer.getId(), scanner.getId());
+        assertThat(amounts.get(printer.getId())).isEqualByComparingTo("45.00");
+        assertThat(amounts.get(scanner.getId())).isEqualByComparingTo("15.00");
+    }
+
+    private DepreciationPeriod period(LocalDate startDate, LocalDate endDate) {
+        DepreciationPeriod period = DepreciationPeriodResourceIT.createEntity(em)
+            .startDate(startDate)
+            .endDate(endDate)
+            .periodCode("ADJ-" + startDate);
+        em.persist(period);
+        em.flush();
+        return period;
+    }
+
+    private AssetRegistration asset(String assetNumber) {
+        AssetRegistration asset = AssetRegistrationResourceIT.createEntity(em).assetNumber(assetNumber);
+        em.persist(asset);
+        em.flush();
+        return asset;
+    }
+
+    private void revaluation(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetRevaluation revaluation = AssetRevaluationResourceIT.createEntity(em).devaluationAmount(new BigDecimal(amount));
+        revaluation.setRevaluedAsset(asset);
+        revaluation.setEffectivePeriod(period);
+        em.persist(revaluation);
+        em.flush();
+    }
+
+    private void generalAdjustment(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetGeneralAdjustment adjustment = AssetGeneralAdjustmentResourceIT.createEntity(em)
+            .devaluationAmount(new BigDecimal(amount))
+            .adjustmentReferenceId(UUID.randomUUID());
+        adjustment.setAssetRegistration(asset);
+        adjustment.setEffectivePeriod(period);
+        em.persist(adjustment);
+        em.flush();
+    }
+
+    private void disposal(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetDisposal disposal = AssetDisposalResourceIT.createEntity(em).assetCost(new BigDecimal(amount));
+        disposal.setAssetDisposed(asset);
+        disposal.setEffectivePeriod(period);
+        em.persist(disposal);
+        em.flush();
+    }
+
+    private void writeOff(AssetRegistration asset, DepreciationPeriod period, String amount) {
+        AssetWriteOff writeOff = AssetWriteOffResourceIT.createEntity(em).writeOffAmount(new BigDecimal(amount));
+        writeOff.setAssetWrittenOff(asset);
+        writeOff.setEffectivePeriod(period);
+        em.persist(writeOff);
+        em.flush();
+    }
+
+    private static Map<Long, BigDecimal> amounts(List<AssetAmountAdjustmentTuple> tuples) {
+        return tuples.stream().collect(Collectors.toMap(AssetAmountAdjustmentTuple::getAssetId, AssetAmountAdjustmentTuple::getAdjustmentAmount));
+    }
+}
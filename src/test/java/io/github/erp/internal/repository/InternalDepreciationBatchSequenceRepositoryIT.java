@@ -0,0 +1,76 @@
+package io.github.erp.internal.repository;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+import io.github.erp.TestcontainersIntegrationTest;
+import io.github.erp.domain.DepreciationBatchSequence;
+import io.github.erp.domain.enumeration.DepreciationBatchStatusType;
+import io.github.erp.web.rest.DepreciationBatchSequenceResourceIT;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the bulk status update of the depreciation batches against PostgreSQL
+ */
+@TestcontainersIntegrationTest
+@Transactional
+class InternalDepreciationBatchSequenceRepositoryIT {
+
+    @Autowired
+    private InternalDepreciationBatchSequenceRepository batchSequenceRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void batchesCompletedBeforeTheEnqueueUpdateKeepTheirStatus() {
+        DepreciationBatchSequence first = batch(1);
+        DepreciationBatchSequence second = batch(2);
+        DepreciationBatchSequence third = batch(3);
+
+        // A consumer completes the first batch while the later ones are still being sent
+        first.setDepreciationBatchStatus(DepreciationBatchStatusType.COMPLETED);
+        batchSequenceRepository.saveAndFlush(first);
+
+        int updated = batchSequenceRepository.updateBatchStatusByIds(
+            List.of(first.getId(), second.getId(), third.getId()),
+            DepreciationBatchStatusType.CREATED,
+            DepreciationBatchStatusType.ENQUEUED);
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(batchSequenceRepository.findById(first.getId())).get()
+            .extracting(DepreciationBatchSequence::getDepreciationBatchStatus).isEqualTo(DepreciationBatchStatusType.COMPLETED);
+        assertThat(batchSequenceRepository.findById(second.getId())).get()
+            .extracting(DepreciationBatchSequence::getDepreciationBatchStatus).isEqualTo(DepreciationBatchStatusType.ENQUEUED);
+        assertThat(batchSequenceRepository.findById(third.getId())).get()
+            .extracting(DepreciationBatchSequence::getDepreciationBatchStatus).isEqualTo(DepreciationBatchStatusType.ENQUEUED);
+    }
+
+    private DepreciationBatchSequence batch(int sequenceNumber) {
+        DepreciationBatchSequence batch = DepreciationBatchSequenceResourceIT.createEntity(em)
+            .sequenceNumber(sequenceNumber)
+            .depreciationBatchStatus(DepreciationBatchStatusType.CREATED);
+        return batchSequenceRepository.saveAndFlush(batch);
+    }
+}
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -50,6 +51,10 @@ class CacheIntegrationTest {
     @Qualifier("caffeineCacheManager")
     private CacheManager caffeineCacheManager;
 
+    @Autowired
+    @Qualifier("referenceDataCacheManager")
+    private CacheManager referenceDataCacheManager;
+
     @Test
     void testAssetRegistrationCaching() {
         Cache assetCache = caffeineCacheManager.getCache("assetRegistrations");
@@ -66,8 +71,9 @@ class CacheIntegrationTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // reference-data cache writes land when the read commits
     void testTransactionAccountCaching() {
-        Cache accountCache = caffeineCacheManager.getCache("transactionAccounts");
+        Cache accountCache = referenceDataCacheManager.getCache("transactionAccounts");
         assertThat(accountCache).isNotNull();
 
         accountCache.clear();
@@ -0,0 +1,264 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.DetailedLeaseContract;
+import io.github.erp.domain.LeaseAmortizationCalculation;
+import io.github.erp.domain.LeaseAmortizationSchedule;
+import io.github.erp.domain.LeaseLiability;
+import io.github.erp.domain.LeasePayment;
+import io.github.erp.internal.repository.InternalLeaseAmortizationScheduleRepository;
+import io.github.erp.internal.repository.InternalLeaseLiabilityRepository;
+import io.github.erp.internal.repository.InternalLeasePaymentRepository;
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationCalculationDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeasePaymentDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import io.github.erp.service.mapper.DetailedLeaseContractMapper;
+import io.github.erp.service.mapper.LeaseAmortizationCalculationMapper;
+import io.github.erp.service.mapper.LeaseAmortizationScheduleMapper;
+import io.github.erp.service.mapper.LeaseLiabilityMapper;
+import io.github.erp.service.mapper.LeasePaymentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LeaseAmortizationServiceTest {
+
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2024, 1, 1);
+
+    private final LeaseRepaymentCalendar calendar = new LeaseRepaymentCalendar(monthlyPeriods(24));
+
+    private final List<LeaseLiability> liabilities = new ArrayList<>();
+    private final List<LeaseAmortizationSchedule> schedules = new ArrayList<>();
+    private final List<LeasePayment> payments = new ArrayList<>();
+
+    private InternalLeaseLiabilityRepository leaseLiabilityRepository;
+    private LeaseAmortizationService leaseAmortizationService;
+
+    @BeforeEach
+    void setUp() {
+        leaseLiabilityRepository = mock(InternalLeaseLiabilityRepository.class);
+        when(leaseLiabilityRepository.findAllForCompilation(anyCollection())).thenAnswer(invocation -> {
+            List<Long> ids = List.copyOf(invocation.getArgument(0));
+            return liabilities.stream().filter(liability -> ids.contains(liability.getId())).collect(Collectors.toList());
+        });
+
+        InternalLeaseAmortizationScheduleRepository scheduleRepository = mock(InternalLeaseAmortizationScheduleRepository.class);
+        when(scheduleRepository.findAllByLeaseContractIds(anyCollection())).thenAnswer(invocation -> {
+            List<Long> contractIds = List.copyOf(invocation.getArgument(0));
+            return schedules.stream().filter(schedule -> contractIds.contains(schedule.getLeaseContract().getId())).collect(Collectors.toList());
+        });
+
+        InternalLeasePaymentRepository paymentRepository = mock(InternalLeasePaymentRepository.class);
+        when(paymentRepository.findLeasePaymentsForLeaseContracts(anyCollection())).thenAnswer(invocation -> {
+            List<Long> contractIds = List.copyOf(invocation.getArgument(0));
+            return payments.stream().filter(payment -> contractIds.contains(payment.getLeaseContract().getId())).collect(Collectors.toList());
+        });
+
+        leaseAmortizationService = new LeaseAmortizationService(
+            mock(InternalLeaseRepaymentPeriodService.class),
+            mock(InternalLeaseLiabilityService.class),
+            mock(InternalLeaseAmortizationCalculationService.class),
+            mock(InternalLeasePaymentService.class),
+            mock(InternalLeaseAmortizationScheduleService.class),
+            mock(InternalDetailedLeaseContractService.class),
+            leaseLiabilityRepository,
+            scheduleRepository,
+            paymentRepository,
+            liabilityMapper(),
+            contractMapper(),
+            calculationMapper(),
+            scheduleMapper(),
+            paymentMapper()
+        );
+    }
+
+    @Test
+    void eachLiabilityOfThePageIsScheduledOverItsOwnPeriods() {
+        DetailedLeaseContract first = lease(1L, FIRST_MONTH, 12);
+        DetailedLeaseContract second = lease(2L, LocalDate.of(2024, 3, 15), 3);
+        for (int month = 0; month < 12; month++) {
+            payments.add(new LeasePayment().id(100L + month).paymentDate(FIRST_MONTH.plusMonths(month).plusDays(4)).paymentAmount(new BigDecimal("1000.00")).leaseContract(first));
+        }
+
+        List<LeaseLiabilityScheduleItemDTO> items = leaseAmortizationService.generateAmortizationSchedules(List.of(1L, 2L), calendar);
+
+        assertThat(items).hasSize(15);
+        List<LeaseLiabilityScheduleItemDTO> firstItems = itemsOf(items, 1L);
+        List<LeaseLiabilityScheduleItemDTO> secondItems = itemsOf(items, 2L);
+
+        assertThat(firstItems).hasSize(12).allSatisfy(item -> {
+            assertThat(item.getLeaseContract().getId()).isEqualTo(first.getId());
+            assertThat(item.getLeaseAmortizationSchedule().getId()).isEqualTo(51L);
+            assertThat(item.getCashPayment()).isEqualByComparingTo("1000.00");
+        });
+        assertThat(firstItems.get(0).getLeasePeriod().getStartDate()).isEqualTo(FIRST_MONTH);
+        assertThat(firstItems.get(0).getOpeningBalance()).isEqualByComparingTo("12000.00");
+
+        assertThat(secondItems).hasSize(3).allSatisfy(item -> {
+            assertThat(item.getLeaseContract().getId()).isEqualTo(second.getId());
+            assertThat(item.getLeaseAmortizationSchedule().getId()).isEqualTo(52L);
+            assertThat(item.getCashPayment()).isEqualByComparingTo("0");
+        });
+        assertThat(secondItems).extracting(item -> item.getLeasePeriod().getStartDate())
+            .containsExactly(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1));
+    }
+
+    @Test
+    void emptyPageIsNotQueried() {
+        assertThat(leaseAmortizationService.generateAmortizationSchedules(List.of(), calendar)).isEmpty();
+
+        verifyNoInteractions(leaseLiabilityRepository);
+    }
+
+    @Test
+    void liabilityWithoutAnAmortizationScheduleIsRejected() {
+        lease(1L, FIRST_MONTH, 12);
+        schedules.clear();
+
+        assertThatThrownBy(() -> leaseAmortizationService.generateAmortizationSchedules(List.of(1L), calendar))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("BK-1");
+    }
+
+    @Test
+    void liabilityWithoutACalculationIsRejected() {
+        lease(1L, FIRST_MONTH, 12);
+        liabilities.get(0).setLeaseAmortizationCalculation(null);
+
+        assertThatThrownBy(() -> leaseAmortizationService.generateAmortizationSchedules(List.of(1L), calendar))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Lease Liability id # 1");
+    }
+
+    private static List<LeaseLiabilityScheduleItemDTO> itemsOf(List<LeaseLiabilityScheduleItemDTO> items, Long leaseLiabilityId) {
+        return items.stream().filter(item -> item.getLeaseLiability().getId().equals(leaseLiabilityId)).collect(Collectors.toList());
+    }
+
+    /**
+     * A liability of 12,000 at 12% with its contract, calculation and amortization schedule
+     */
+    private DetailedLeaseContract lease(long liabilityId, LocalDate commencementDate, int numberOfPeriods) {
+        DetailedLeaseContract contract = new DetailedLeaseContract().id(10 + liabilityId).bookingId("BK-" + liabilityId).commencementDate(commencementDate);
+        LeaseAmortizationCalculation calculation = new LeaseAmortizationCalculation()
+            .id(20 + liabilityId)
+            .interestRate(new BigDecimal("0.12"))
+            .numberOfPeriods(numberOfPeriods);
+        liabilities.add(new LeaseLiability()
+            .id(liabilityId)
+            .liabilityAmount(new BigDecimal("12000.00"))
+            .leaseContract(contract)
+            .leaseAmortizationCalculation(calculation));
+        schedules.add(new LeaseAmortizationSchedule().id(50 + liabilityId).leaseContract(contract));
+        return contract;
+    }
+
+    private static LeaseLiabilityMapper liabilityMapper() {
+        LeaseLiabilityMapper mapper = mock(LeaseLiabilityMapper.class);
+        when(mapper.toDto(any(LeaseLiability.class))).thenAnswer(invocation -> {
+            LeaseLiability liability = invocation.getArgument(0);
+            LeaseLiabilityDTO dto = new LeaseLiabilityDTO();
+            dto.setId(liability.getId());
+            dto.setLiabilityAmount(liability.getLiabilityAmount());
+            return dto;
+        });
+        return mapper;
+    }
+
+    private static DetailedLeaseContractMapper contractMapper() {
+        DetailedLeaseContractMapper mapper = mock(DetailedLeaseContractMapper.class);
+        when(mapper.toDto(any(DetailedLeaseContract.class))).thenAnswer(invocation -> {
+            DetailedLeaseContract contract = invocation.getArgument(0);
+            DetailedLeaseContractDTO dto = new DetailedLeaseContractDTO();
+            dto.setId(contract.getId());
+            dto.setBookingId(contract.getBookingId());
+            dto.setCommencementDate(contract.getCommencementDate());
+            return dto;
+        });
+        return mapper;
+    }
+
+    private static LeaseAmortizationCalculationMapper calculationMapper() {
+        LeaseAmortizationCalculationMapper mapper = mock(LeaseAmortizationCalculationMapper.class);
+        when(mapper.toDto(any(LeaseAmortizationCalculation.class))).thenAnswer(invocation -> {
+            LeaseAmortizationCalculation calculation = invocation.getArgument(0);
+            LeaseAmortizationCalculationDTO dto = new LeaseAmortizationCalculationDTO();
+            dto.setId(calculation.getId());
+            dto.setInterestRate(calculation.getInterestRate());
+            dto.setNumberOfPeriods(calculation.getNumberOfPeriods());
+            return dto;
+        });
+        return mapper;
+    }
+
+    private static LeaseAmortizationScheduleMapper scheduleMapper() {
+        LeaseAmortizationScheduleMapper mapper = mock(LeaseAmortizationScheduleMapper.class);
+        when(mapper.toDto(any(LeaseAmortizationSchedule.class))).thenAnswer(invocation -> {
+            LeaseAmortizationScheduleDTO dto = new LeaseAmortizationScheduleDTO();
+            dto.setId(invocation.<LeaseAmortizationSchedule>getArgument(0).getId());
+            return dto;
+        });
+        return mapper;
+    }
+
+    private static LeasePaymentMapper paymentMapper() {
+        LeasePaymentMapper mapper = mock(LeasePaymentMapper.class);
+        when(mapper.toDto(any(LeasePayment.class))).thenAnswer(invocation -> {
+            LeasePayment payment = invocation.getArgument(0);
+            LeasePaymentDTO dto = new LeasePaymentDTO();
+            dto.setId(payment.getId());
+            dto.setPaymentDate(payment.getPaymentDate());
+            dto.setPaymentAmount(payment.getPaymentAmount());
+            return dto;
+        });
+        return mapper;
+    }
+
+    private static List<LeaseRepaymentPeriodDTO> monthlyPeriods(int months) {
+        List<LeaseRepaymentPeriodDTO> periods = new ArrayList<>();
+        for (int n = 0; n < months; n++) {
+            LocalDate start = FIRST_MONTH.plusMonths(n);
+            LeaseRepaymentPeriodDTO period = new LeaseRepaymentPeriodDTO();
+            period.setId(500L + n);
+            period.setSequenceNumber(10L + n);
+            period.setStartDate(start);
+            period.setEndDate(start.with(TemporalAdjusters.lastDayOfMonth()));
+            periods.add(period);
+        }
+        return periods;
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import io.github.erp.service.mapper.LeaseLiabilityScheduleItemMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaseLiabilityScheduleItemJdbcWriterTest {
+
+    private final List<PreparedStatement> statements = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private LeaseLiabilityScheduleItemJdbcWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(100L, 150L);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            Collection<LeaseLiabilityScheduleItemDTO> items = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<LeaseLiabilityScheduleItemDTO> setter = invocation.getArgument(3);
+            for (LeaseLiabilityScheduleItemDTO item : items) {
+                PreparedStatement statement = mock(PreparedStatement.class);
+                setter.setValues(statement, item);
+                statements.add(statement);
+            }
+            return new int[0][];
+        });
+
+        writer = new LeaseLiabilityScheduleItemJdbcWriter(jdbcTemplate, mock(LeaseLiabilityScheduleItemMapper.class));
+    }
+
+    @Test
+    void columnsAreBoundInTheOrderOfTheInsert() throws Exception {
+        LeaseLiabilityScheduleItemDTO item = scheduleItem();
+
+        writer.write(List.of(item));
+
+        assertThat(item.getId()).isEqualTo(51L);
+        assertThat(statements).hasSize(1);
+        PreparedStatement statement = statements.get(0);
+        InOrder columns = inOrder(statement);
+        columns.verify(statement).setLong(1, 51L);
+        columns.verify(statement).setInt(2, 4);
+        columns.verify(statement).setBigDecimal(3, new BigDecimal("1000.00"));
+        columns.verify(statement).setBigDecimal(4, new BigDecimal("150.00"));
+        columns.verify(statement).setBigDecimal(5, new BigDecimal("140.00"));
+        columns.verify(statement).setBigDecimal(6, new BigDecimal("10.00"));
+        columns.verify(statement).setBigDecimal(7, new BigDecimal("860.00"));
+        columns.verify(statement).setBigDecimal(8, new BigDecimal("2.00"));
+        columns.verify(statement).setBigDecimal(9, new BigDecimal("10.00"));
+        columns.verify(statement).setBigDecimal(10, new BigDecimal("2.00"));
+        columns.verify(statement).setLong(11, 30L);
+        columns.verify(statement).setLong(12, 20L);
+        columns.verify(statement).setLong(13, 10L);
+        columns.verify(statement).setLong(14, 40L);
+    }
+
+    @Test
+    void missingSequenceNumberAndRelationsAreBoundAsNull() throws Exception {
+        writer.write(List.of(new LeaseLiabilityScheduleItemDTO()));
+
+        PreparedStatement statement = statements.get(0);
+        verify(statement).setNull(2, Types.INTEGER);
+        for (int column = 11; column <= 14; column++) {
+            verify(statement).setNull(column, Types.BIGINT);
+        }
+    }
+
+    @Test
+    void identifiersAreTakenFromTheSequenceABlockAtATime() {
+        List<LeaseLiabilityScheduleItemDTO> items = IntStream.range(0, LeaseLiabilityScheduleItemJdbcWriter.SEQUENCE_INCREMENT + 2)
+            .mapToObj(n -> new LeaseLiabilityScheduleItemDTO())
+            .collect(Collectors.toList());
+
+        writer.write(items);
+
+        assertThat(items.get(0).getId()).isEqualTo(51L);
+        assertThat(items.get(49).getId()).isEqualTo(100L);
+        assertThat(items.get(50).getId()).isEqualTo(101L);
+        assertThat(items.get(51).getId()).isEqualTo(102L);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void nothingIsWrittenForAnEmptyPage() {
+        writer.write(List.of());
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+        assertThat(statements).isEmpty();
+    }
+
+    private static LeaseLiabilityScheduleItemDTO scheduleItem() {
+        LeaseLiabilityDTO liability = new LeaseLiabilityDTO();
+        liability.setId(10L);
+        DetailedLeaseContractDTO contract = new DetailedLeaseContractDTO();
+        contract.setId(20L);
+        LeaseAmortizationScheduleDTO amortizationSchedule = new LeaseAmortizationScheduleDTO();
+        amortizationSchedule.setId(30L);
+        LeaseRepaymentPeriodDTO period = new LeaseRepaymentPeriodDTO();
+        period.setId(40L);
+
+        LeaseLiabilityScheduleItemDTO item = new LeaseLiabilityScheduleItemDTO();
+        item.setSequenceNumber(4);
+        item.setOpeningBalance(new BigDecimal("1000.00"));
+        item.setCashPayment(new BigDecimal("150.00"));
+        item.setPrincipalPayment(new BigDecimal("140.00"));
+        item.setInterestPayment(new BigDecimal("10.00"));
+        item.setOutstandingBalance(new BigDecimal("860.00"));
+        item.setInterestPayableOpening(new BigDecimal("2.00"));
+        item.setInterestAccrued(new BigDecimal("10.00"));
+        item.setInterestPayableClosing(new BigDecimal("2.00"));
+        item.setLeaseLiability(liability);
+        item.setLeaseContract(contract);
+        item.setLeaseAmortizationSchedule(amortizationSchedule);
+        item.setLeasePeriod(period);
+        return item;
+    }
+}
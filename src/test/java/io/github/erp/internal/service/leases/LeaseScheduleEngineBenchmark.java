@@ -0,0 +1,256 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationCalculationDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeasePaymentDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the schedules of 10k leases of 240 monthly periods each. Compares the per-period scan
+ * of each lease's payments against the single-pass merge of the {@link LeaseScheduleEngine}, run
+ * serially and in id-range partitions as the compilation job runs it. Run with the main method
+ * from the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LeaseScheduleEngineBenchmark {
+
+    private static final int NUMBER_OF_LEASES = 10_000;
+    private static final int LEASE_TERM_PERIODS = 240;
+    private static final int CALENDAR_PERIODS = 480;
+    private static final int PARTITIONS = 4;
+
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2010, 1, 1);
+
+    private final List<Lease> leases = new ArrayList<>(NUMBER_OF_LEASES);
+
+    private LeaseRepaymentCalendar calendar;
+
+    private ExecutorService partitionExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<LeaseRepaymentPeriodDTO> periods = new ArrayList<>(CALENDAR_PERIODS);
+        for (int n = 0; n < CALENDAR_PERIODS; n++) {
+            LocalDate start = FIRST_MONTH.plusMonths(n);
+            LeaseRepaymentPeriodDTO period = new LeaseRepaymentPeriodDTO();
+            period.setId((long) n + 1);
+            period.setSequenceNumber((long) n + 1);
+            period.setStartDate(start);
+            period.setEndDate(start.with(TemporalAdjusters.lastDayOfMonth()));
+            periods.add(period);
+        }
+        calendar = new LeaseRepaymentCalendar(periods);
+
+        Random random = new Random(20241018L);
+        for (long id = 1; id <= NUMBER_OF_LEASES; id++) {
+            LocalDate commencementDate = FIRST_MONTH.plusMonths(random.nextInt(CALENDAR_PERIODS - LEASE_TERM_PERIODS)).plusDays(random.nextInt(28));
+
+            LeaseAmortizationCalculationDTO calculation = new LeaseAmortizationCalculationDTO();
+            calculation.setInterestRate(BigDecimal.valueOf(500 + random.nextInt(1500), 4));
+            calculation.setNumberOfPeriods(LEASE_TERM_PERIODS);
+
+            LeaseLiabilityDTO liability = new LeaseLiabilityDTO();
+            liability.setId(id);
+            liability.setLiabilityAmount(BigDecimal.valueOf(1_000_000 + random.nextInt(100_000_000), 2));
+
+            DetailedLeaseContractDTO contract = new DetailedLeaseContractDTO();
+            contract.setId(id);
+            contract.setCommencementDate(commencementDate);
+
+            LeaseAmortizationScheduleDTO amortizationSchedule = new LeaseAmortizationScheduleDTO();
+            amortizationSchedule.setId(id);
+
+            // One payment each month, recorded in no particular order
+            BigDecimal installment = liability.getLiabilityAmount().divide(BigDecimal.valueOf(180), 2, RoundingMode.HALF_EVEN);
+            List<LeasePaymentDTO> payments = new ArrayList<>(LEASE_TERM_PERIODS);
+            for (int month = 0; month < LEASE_TERM_PERIODS; month++) {
+                LeasePaymentDTO payment = new LeasePaymentDTO();
+                payment.setPaymentDate(commencementDate.plusMonths(month).withDayOfMonth(1 + random.nextInt(28)));
+                payment.setPaymentAmount(installment);
+                payments.add(payment);
+            }
+            Collections.shuffle(payments, random);
+
+            leases.add(new Lease(calculation, liability, contract, amortizationSchedule, payments));
+        }
+
+        partitionExecutor = Executors.newFixedThreadPool(PARTITIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        partitionExecutor.shutdown();
+    }
+
+    /**
+     * The previous calculation: each period scans the lease's payments for one within the period
+     */
+    @Benchmark
+    public void perPeriodPaymentScan(Blackhole blackhole) {
+        for (Lease lease : leases) {
+            blackhole.consume(scanSchedule(lease));
+        }
+    }
+
+    @Benchmark
+    public void singlePassMerge(Blackhole blackhole) {
+        for (Lease lease : leases) {
+            blackhole.consume(lease.schedule(calendar));
+        }
+    }
+
+    @Benchmark
+    public void singlePassMergePartitioned(Blackhole blackhole) throws Exception {
+        int rangeSize = (leases.size() + PARTITIONS - 1) / PARTITIONS;
+        List<Future<Integer>> partitions = new ArrayList<>(PARTITIONS);
+        for (int first = 0; first < leases.size(); first += rangeSize) {
+            List<Lease> range = leases.subList(first, Math.min(first + rangeSize, leases.size()));
+            partitions.add(partitionExecutor.submit(() -> {
+                int items = 0;
+                for (Lease lease : range) {
+                    items += lease.schedule(calendar).size();
+                }
+                return items;
+            }));
+        }
+        for (Future<Integer> partition : partitions) {
+            blackhole.consume(partition.get());
+        }
+    }
+
+    private List<LeaseLiabilityScheduleItemDTO> scanSchedule(Lease lease) {
+        List<LeaseRepaymentPeriodDTO> periods = calendar.periodsFrom(lease.contract.getCommencementDate(), lease.calculation.getNumberOfPeriods())
+            .stream()
+            .sorted(Comparator.comparing(LeaseRepaymentPeriodDTO::getStartDate))
+            .collect(Collectors.toList());
+
+        List<LeaseLiabilityScheduleItemDTO> items = new ArrayList<>();
+        BigDecimal monthlyRate = lease.calculation.getInterestRate().divide(BigDecimal.valueOf(12), RoundingMode.HALF_EVEN);
+        BigDecimal openingBalance = lease.liability.getLiabilityAmount();
+        BigDecimal interestPayableOpening = BigDecimal.ZERO;
+        for (int period = 0; period < periods.size(); period++) {
+            LeaseRepaymentPeriodDTO leasePeriod = periods.get(period);
+            BigDecimal totalPayment = BigDecimal.ZERO;
+            for (LeasePaymentDTO payment : lease.payments) {
+                if (!payment.getPaymentDate().isBefore(leasePeriod.getStartDate()) && !payment.getPaymentDate().isAfter(leasePeriod.getEndDate())) {
+                    totalPayment = payment.getPaymentAmount();
+                    break;
+                }
+            }
+            BigDecimal interestAccrued = openingBalance.multiply(monthlyRate);
+            BigDecimal interestPayment = interestPayableOpening.add(interestAccrued).min(totalPayment).max(BigDecimal.ZERO);
+            BigDecimal principalPayment = totalPayment.subtract(interestPayment).max(BigDecimal.ZERO);
+            BigDecimal closingBalance = openingBalance.subtract(principalPayment);
+            BigDecimal interestPayableClosing = interestPayableOpening.add(interestAccrued).subtract(interestPayment);
+
+            LeaseLiabilityScheduleItemDTO item = new LeaseLiabilityScheduleItemDTO();
+            item.setSequenceNumber(period);
+            item.setOpeningBalance(openingBalance);
+            item.setOutstandingBalance(closingBalance);
+            item.setCashPayment(totalPayment);
+            item.setPrincipalPayment(principalPayment);
+            item.setInterestPayment(interestPayment);
+            item.setInterestPayableOpening(interestPayableOpening);
+            item.setInterestAccrued(interestAccrued);
+            item.setInterestPayableClosing(interestPayableClosing);
+            item.setLeaseLiability(lease.liability);
+            item.setLeaseContract(lease.contract);
+            item.setLeaseAmortizationSchedule(lease.amortizationSchedule);
+            item.setLeasePeriod(leasePeriod);
+            items.add(item);
+
+            openingBalance = closingBalance;
+            interestPayableOpening = interestPayableClosing;
+        }
+        return items;
+    }
+
+    private static final class Lease {
+
+        private final LeaseAmortizationCalculationDTO calculation;
+        private final LeaseLiabilityDTO liability;
+        private final DetailedLeaseContractDTO contract;
+        private final LeaseAmortizationScheduleDTO amortizationSchedule;
+        private final List<LeasePaymentDTO> payments;
+
+        private Lease(
+            LeaseAmortizationCalculationDTO calculation,
+            LeaseLiabilityDTO liability,
+            DetailedLeaseContractDTO contract,
+            LeaseAmortizationScheduleDTO amortizationSchedule,
+            List<LeasePaymentDTO> payments
+        ) {
+            this.calculation = calculation;
+            this.liability = liability;
+            this.contract = contract;
+            this.amortizationSchedule = amortizationSchedule;
+            this.payments = payments;
+        }
+
+        private List<LeaseLiabilityScheduleItemDTO> schedule(LeaseRepaymentCalendar calendar) {
+            return LeaseScheduleEngine.amortizationSchedule(
+                calculation,
+                liability,
+                contract,
+                amortizationSchedule,
+                calendar.periodsFrom(contract.getCommencementDate(), calculation.getNumberOfPeriods()),
+                payments
+            );
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(LeaseScheduleEngineBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.erp.internal.service.leases;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.service.dto.DetailedLeaseContractDTO;
+import io.github.erp.service.dto.LeaseAmortizationCalculationDTO;
+import io.github.erp.service.dto.LeaseAmortizationScheduleDTO;
+import io.github.erp.service.dto.LeaseLiabilityDTO;
+import io.github.erp.service.dto.LeaseLiabilityScheduleItemDTO;
+import io.github.erp.service.dto.LeasePaymentDTO;
+import io.github.erp.service.dto.LeaseRepaymentPeriodDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaseScheduleEngineTest {
+
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2024, 1, 1);
+
+    private final LeaseRepaymentCalendar calendar = new LeaseRepaymentCalendar(monthlyPeriods(36));
+
+    @Test
+    void periodsRunFromThePeriodSpanningTheCommencementDate() {
+        List<LeaseRepaymentPeriodDTO> periods = calendar.periodsFrom(LocalDate.of(2024, 3, 15), 12);
+
+        assertThat(periods).hasSize(12);
+        assertThat(periods.get(0).getStartDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(periods.get(11).getStartDate()).isEqualTo(LocalDate.of(2025, 2, 1));
+    }
+
+    @Test
+    void periodsStopWhereTheCalendarEnds() {
+        assertThat(calendar.periodsFrom(LocalDate.of(2026, 6, 1), 24)).hasSize(7);
+        assertThat(calendar.periodsFrom(LocalDate.of(2023, 12, 31), 24)).isEmpty();
+        assertThat(calendar.periodsFrom(LocalDate.of(2027, 1, 1), 24)).isEmpty();
+    }
+
+    @Test
+    void periodsStopAtABreakInTheSequence() {
+        List<LeaseRepaymentPeriodDTO> repaymentPeriods = monthlyPeriods(12);
+        repaymentPeriods.stream()
+            .filter(period -> period.getStartDate().equals(LocalDate.of(2024, 7, 1)))
+            .forEach(period -> period.setSequenceNumber(100L));
+
+        LeaseRepaymentCalendar brokenCalendar = new LeaseRepaymentCalendar(repaymentPeriods);
+
+        assertThat(brokenCalendar.periodsFrom(FIRST_MONTH, 12)).hasSize(6);
+    }
+
+    @Test
+    void scheduleAmortizesTheLiabilityWithThePaymentOfEachPeriod() {
+        List<LeasePaymentDTO> payments = new ArrayList<>();
+        for (int month = 0; month < 12; month++) {
+            payments.add(payment(FIRST_MONTH.plusMonths(month).plusDays(4), "1000.00"));
+        }
+
+        List<LeaseLiabilityScheduleItemDTO> items = schedule(calendar.periodsFrom(FIRST_MONTH, 12), payments);
+
+        assertThat(items).hasSize(12);
+        LeaseLiabilityScheduleItemDTO first = items.get(0);
+        assertThat(first.getSequenceNumber()).isZero();
+        assertThat(first.getOpeningBalance()).isEqualByComparingTo("12000.00");
+        assertThat(first.getInterestAccrued()).isEqualByComparingTo("120.00");
+        assertThat(first.getInterestPayment()).isEqualByComparingTo("120.00");
+        assertThat(first.getPrincipalPayment()).isEqualByComparingTo("880.00");
+        assertThat(first.getOutstandingBalance()).isEqualByComparingTo("11120.00");
+        for (int i = 1; i < items.size(); i++) {
+            assertThat(items.get(i).getOpeningBalance()).isEqualByComparingTo(items.get(i - 1).getOutstandingBalance());
+            assertThat(items.get(i).getInterestPayableOpening()).isEqualByComparingTo(items.get(i - 1).getInterestPayableClosing());
+        }
+    }
+
+    @Test
+    void periodWithoutPaymentAccruesInterestPayable() {
+        List<LeaseLiabilityScheduleItemDTO> items = schedule(
+            calendar.periodsFrom(FIRST_MONTH, 3),
+            List.of(payment(LocalDate.of(2024, 3, 31), "500.00"), payment(LocalDate.of(2023, 12, 31), "700.00"))
+        );
+
+        assertThat(items.get(0).getCashPayment()).isEqualByComparingTo("0");
+        assertThat(items.get(0).getInterestPayableClosing()).isEqualByComparingTo("120.00");
+        assertThat(items.get(1).getCashPayment()).isEqualByComparingTo("0");
+        assertThat(items.get(1).getInterestPayableClosing()).isEqualByComparingTo("240.00");
+        assertThat(items.get(2).getCashPayment()).isEqualByComparingTo("500.00");
+        assertThat(items.get(2).getInterestPayment()).isEqualByComparingTo("360.00");
+        assertThat(items.get(2).getPrincipalPayment()).isEqualByComparingTo("140.00");
+        assertThat(items.get(2).getInterestPayableClosing()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void earliestPaymentOfAPeriodIsItsCashPayment() {
+        List<LeaseLiabilityScheduleItemDTO> items = schedule(
+            calendar.periodsFrom(FIRST_MONTH, 2),
+            List.of(payment(LocalDate.of(2024, 1, 20), "300.00"), payment(LocalDate.of(2024, 1, 1), "200.00"), payment(LocalDate.of(2024, 2, 29), "400.00"))
+        );
+
+        assertThat(items.get(0).getCashPayment()).isEqualByComparingTo("200.00");
+        assertThat(items.get(1).getCashPayment()).isEqualByComparingTo("400.00");
+    }
+
+    private static List<LeaseLiabilityScheduleItemDTO> schedule(List<LeaseRepaymentPeriodDTO> periods, List<LeasePaymentDTO> payments) {
+        LeaseAmortizationCalculationDTO calculation = new LeaseAmortizationCalculationDTO();
+        calculation.setInterestRate(new BigDecimal("0.12"));
+        calculation.setNumberOfPeriods(periods.size());
+
+        LeaseLiabilityDTO liability = new LeaseLiabilityDTO();
+        liability.setId(1L);
+        liability.setLiabilityAmount(new BigDecimal("12000.00"));
+
+        DetailedLeaseContractDTO contract = new DetailedLeaseContractDTO();
+        contract.setId(2L);
+
+        LeaseAmortizationScheduleDTO amortizationSchedule = new LeaseAmortizationScheduleDTO();
+        amortizationSchedule.setId(3L);
+
+        return LeaseScheduleEngine.amortizationSchedule(calculation, liability, contract, amortizationSchedule, periods, payments);
+    }
+
+    private static LeasePaymentDTO payment(LocalDate paymentDate, String amount) {
+        LeasePaymentDTO payment = new LeasePaymentDTO();
+        payment.setPaymentDate(paymentDate);
+        payment.setPaymentAmount(new BigDecimal(amount));
+        return payment;
+    }
+
+    private static List<LeaseRepaymentPeriodDTO> monthlyPeriods(int months) {
+        List<LeaseRepaymentPeriodDTO> periods = new ArrayList<>();
+        for (int n = 0; n < months; n++) {
+            LocalDate start = FIRST_MONTH.plusMonths(n);
+            LeaseRepaymentPeriodDTO period = new LeaseRepaymentPeriodDTO();
+            period.setId(500L + n);
+            period.setSequenceNumber(10L + n);
+            period.setStartDate(start);
+            period.setEndDate(start.with(TemporalAdjusters.lastDayOfMonth()));
+            periods.add(period);
+        }
+        // The calendar orders the periods itself
+        Collections.reverse(periods);
+        return periods;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.erp.internal.service.leases.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.service.leases.InternalLeaseLiabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaseLiabilityCompilationItemReaderTest {
+
+    private final List<Long> compilationIds = List.of(3L, 4L, 7L, 8L, 11L, 15L, 16L);
+    private final List<Long> queriedAfter = new ArrayList<>();
+
+    private InternalLeaseLiabilityService leaseLiabilityService;
+
+    @BeforeEach
+    void setUp() {
+        leaseLiabilityService = mock(InternalLeaseLiabilityService.class);
+        when(leaseLiabilityService.getCompilationIdsAfter(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            long maxId = invocation.getArgument(1);
+            int pageSize = invocation.getArgument(2);
+            queriedAfter.add(lastId);
+            return compilationIds.stream().filter(id -> id > lastId && id <= maxId).limit(pageSize).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void pagesFollowOnFromTheLastIdOfThePreviousPage() {
+        LeaseLiabilityCompilationItemReader reader = new LeaseLiabilityCompilationItemReader(leaseLiabilityService, 3, 15, 2);
+        reader.open(new ExecutionContext());
+
+        assertThat(reader.read()).containsExactly(4L, 7L);
+        assertThat(reader.read()).containsExactly(8L, 11L);
+        assertThat(reader.read()).containsExactly(15L);
+        assertThat(reader.read()).isNull();
+        assertThat(queriedAfter).containsExactly(3L, 7L, 11L, 15L);
+    }
+
+    @Test
+    void emptyRangeReadsNothing() {
+        LeaseLiabilityCompilationItemReader reader = new LeaseLiabilityCompilationItemReader(leaseLiabilityService, 0, 0, 100);
+        reader.open(new ExecutionContext());
+
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void lastIdReadIsSavedInTheExecutionContext() {
+        ExecutionContext executionContext = new ExecutionContext();
+        LeaseLiabilityCompilationItemReader reader = new LeaseLiabilityCompilationItemReader(leaseLiabilityService, 0, 16, 3);
+        reader.open(executionContext);
+
+        reader.read();
+        reader.update(executionContext);
+
+        assertThat(executionContext.getLong(LeaseLiabilityCompilationItemReader.LAST_READ_ID)).isEqualTo(7L);
+    }
+
+    @Test
+    void restartedReaderCarriesOnAfterTheSavedId() {
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.putLong(LeaseLiabilityCompilationItemReader.LAST_READ_ID, 8L);
+        LeaseLiabilityCompilationItemReader reader = new LeaseLiabilityCompilationItemReader(leaseLiabilityService, 0, 16, 3);
+
+        reader.open(executionContext);
+
+        assertThat(reader.read()).containsExactly(11L, 15L, 16L);
+        assertThat(reader.read()).isNull();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.erp.internal.service.leases.batch;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.internal.service.leases.InternalLeaseLiabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static io.github.erp.internal.service.leases.batch.LeaseLiabilityIdRangePartitioner.LAST_ID;
+import static io.github.erp.internal.service.leases.batch.LeaseLiabilityIdRangePartitioner.MAX_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaseLiabilityIdRangePartitionerTest {
+
+    @Test
+    void noLiabilitiesGiveOneEmptyRange() {
+        Map<String, ExecutionContext> partitions = partition(Collections.emptyList(), 4);
+
+        assertThat(ranges(partitions)).containsExactly("0..0");
+    }
+
+    @Test
+    void fewerLiabilitiesThanPartitionsGiveOneRangePerLiability() {
+        Map<String, ExecutionContext> partitions = partition(List.of(5L, 9L, 12L), 4);
+
+        assertThat(partitions).containsOnlyKeys("partition0", "partition1", "partition2");
+        assertThat(ranges(partitions)).containsExactly("0..5", "5..9", "9..12");
+    }
+
+    @Test
+    void rangesAreContiguousAndEndOnTheLastIdOfEachShare() {
+        List<Long> ids = LongStream.rangeClosed(10, 19).boxed().collect(Collectors.toList());
+
+        Map<String, ExecutionContext> partitions = partition(ids, 3);
+
+        assertThat(ranges(partitions)).containsExactly("0..13", "13..17", "17..19");
+    }
+
+    @Test
+    void evenlyDividedIdsFillEveryPartition() {
+        Map<String, ExecutionContext> partitions = partition(List.of(2L, 4L, 6L, 8L), 2);
+
+        assertThat(ranges(partitions)).containsExactly("0..4", "4..8");
+    }
+
+    private static Map<String, ExecutionContext> partition(List<Long> ids, int gridSize) {
+        InternalLeaseLiabilityService leaseLiabilityService = mock(InternalLeaseLiabilityService.class);
+        when(leaseLiabilityService.getCompilationIds()).thenReturn(ids);
+
+        return new LeaseLiabilityIdRangePartitioner(leaseLiabilityService).partition(gridSize);
+    }
+
+    /**
+     * Ranges in partition order, each as its exclusive lower and inclusive upper id
+     */
+    private static List<String> ranges(Map<String, ExecutionContext> partitions) {
+        return partitions.values().stream()
+            .map(range -> range.getLong(LAST_ID) + ".." + range.getLong(MAX_ID))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.erp.internal.service.prepayments;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.AmortizationPeriod;
+import io.github.erp.domain.FiscalMonth;
+import io.github.erp.domain.PrepaymentAccount;
+import io.github.erp.domain.PrepaymentAmortization;
+import io.github.erp.domain.PrepaymentCompilationRequest;
+import io.github.erp.domain.PrepaymentMarshalling;
+import io.github.erp.domain.TransactionAccount;
+import io.github.erp.domain.enumeration.CompilationStatusTypes;
+import io.github.erp.erp.assets.depreciation.exceptions.FiscalMonthNotConfiguredException;
+import io.github.erp.internal.repository.InternalAmortizationPeriodRepository;
+import io.github.erp.internal.repository.InternalFiscalMonthRepository;
+import io.github.erp.internal.repository.InternalPrepaymentMarshallingRepository;
+import io.github.erp.service.PrepaymentCompilationRequestService;
+import io.github.erp.service.dto.PrepaymentCompilationRequestDTO;
+import io.github.erp.service.mapper.PrepaymentCompilationRequestMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrepaymentCompilationServiceImplTest {
+
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2024, 1, 1);
+
+    private final List<FiscalMonth> fiscalMonths = LongStream.range(0, 24)
+        .mapToObj(n -> {
+            LocalDate start = FIRST_MONTH.plusMonths(n);
+            return new FiscalMonth().id(100 + n).startDate(start).endDate(start.with(TemporalAdjusters.lastDayOfMonth()));
+        })
+        .collect(Collectors.toList());
+
+    private final List<AmortizationPeriod> amortizationPeriods = LongStream.range(0, 24)
+        .mapToObj(n -> new AmortizationPeriod().id(200 + n).sequenceNumber(n + 1))
+        .collect(Collectors.toList());
+
+    private final List<PrepaymentMarshalling> unprocessed = new ArrayList<>();
+    private final List<PrepaymentAmortization> written = new ArrayList<>();
+    private final List<Integer> reportedProgress = new ArrayList<>();
+    private final List<CompilationStatusTypes> reportedStatuses = new ArrayList<>();
+
+    private InternalPrepaymentMarshallingRepository marshallingRepository;
+    private PrepaymentCompilationCompleteSequence completeSequence;
+    private PrepaymentCompilationServiceImpl compilationService;
+
+    @BeforeEach
+    void setUp() {
+        marshallingRepository = mock(InternalPrepaymentMarshallingRepository.class);
+        when(marshallingRepository.countUnprocessed()).thenAnswer(invocation -> (long) unprocessed.size());
+        when(marshallingRepository.findUnprocessedAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return unprocessed.stream().filter(m -> m.getId() > lastId).limit(pageable.getPageSize()).collect(Collectors.toList());
+        });
+
+        InternalFiscalMonthRepository fiscalMonthRepository = mock(InternalFiscalMonthRepository.class);
+        when(fiscalMonthRepository.findAll(any(Sort.class))).thenReturn(fiscalMonths);
+        InternalAmortizationPeriodRepository periodRepository = mock(InternalAmortizationPeriodRepository.class);
+        when(periodRepository.findAll(any(Sort.class))).thenReturn(amortizationPeriods);
+
+        PrepaymentCompilationRequestMapper requestMapper = mock(PrepaymentCompilationRequestMapper.class);
+        when(requestMapper.toEntity(any(PrepaymentCompilationRequestDTO.class))).thenAnswer(invocation ->
+            new PrepaymentCompilationRequest().id(invocation.<PrepaymentCompilationRequestDTO>getArgument(0).getId()));
+
+        PrepaymentCompilationRequestService requestService = mock(PrepaymentCompilationRequestService.class);
+        when(requestService.save(any(PrepaymentCompilationRequestDTO.class))).thenAnswer(invocation -> {
+            PrepaymentCompilationRequestDTO request = invocation.getArgument(0);
+            reportedStatuses.add(request.getCompilationStatus());
+            reportedProgress.add(request.getItemsProcessed());
+            return request;
+        });
+
+        PrepaymentAmortizationJdbcWriter writer = mock(PrepaymentAmortizationJdbcWriter.class);
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(writer).write(any());
+
+        completeSequence = mock(PrepaymentCompilationCompleteSequence.class);
+
+        compilationService = new PrepaymentCompilationServiceImpl(
+            marshallingRepository,
+            fiscalMonthRepository,
+            periodRepository,
+            requestMapper,
+            requestService,
+            completeSequence,
+            writer,
+            mock(PlatformTransactionManager.class),
+            2
+        );
+    }
+
+    @Test
+    void itemsAreCompiledInChunksWithProgressReported() {
+        for (long id = 1; id <= 5; id++) {
+            unprocessed.add(marshalling(id, 0, 1, 3));
+        }
+        PrepaymentCompilationRequestDTO request = request();
+
+        compilationService.compile(request);
+
+        assertThat(written).hasSize(15);
+        assertThat(reportedProgress).containsExactly(2, 4, 5);
+        assertThat(reportedStatuses).containsOnly(CompilationStatusTypes.IN_PROGRESS);
+        assertThat(request.getItemsProcessed()).isEqualTo(5);
+        verify(completeSequence).compilationComplete(request);
+        verify(marshallingRepository).markProcessed(List.of(1L, 2L), request.getCompilationToken());
+        verify(marshallingRepository).markProcessed(List.of(5L), request.getCompilationToken());
+    }
+
+    @Test
+    void rowsFollowTheFiscalCalendarFromTheFirstMonthAndPeriod() {
+        unprocessed.add(marshalling(1, 3, 5, 4));
+
+        compilationService.compile(request());
+
+        assertThat(written).extracting(row -> row.getFiscalMonth().getId()).containsExactly(103L, 104L, 105L, 106L);
+        assertThat(written).extracting(row -> row.getAmortizationPeriod().getId()).containsExactly(204L, 205L, 206L, 207L);
+        assertThat(written).extracting(PrepaymentAmortization::getPrepaymentAmount).containsOnly(new BigDecimal("300.00"));
+        assertThat(written).allSatisfy(row -> {
+            assertThat(row.getPrepaymentCompilationRequest().getId()).isEqualTo(9L);
+            assertThat(row.getDebitAccount().getId()).isEqualTo(31L);
+            assertThat(row.getCreditAccount().getId()).isEqualTo(30L);
+            assertThat(row.getInactive()).isFalse();
+        });
+    }
+
+    @Test
+    void scheduleRunningPastTheFiscalCalendarIsRejected() {
+        unprocessed.add(marshalling(1, 22, 1, 4));
+
+        assertThatThrownBy(() -> compilationService.compile(request())).isInstanceOf(FiscalMonthNotConfiguredException.class);
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void requestIsMarkedErroredWhenAPageFails() {
+        unprocessed.add(marshalling(1, 0, 1, 3));
+        unprocessed.add(marshalling(2, 0, 1, 3));
+        unprocessed.add(marshalling(3, 22, 1, 4));
+        PrepaymentCompilationRequestDTO request = request();
+
+        assertThatThrownBy(() -> compilationService.compile(request)).isInstanceOf(FiscalMonthNotConfiguredException.class);
+
+        assertThat(request.getCompilationStatus()).isEqualTo(CompilationStatusTypes.ERRORED);
+        assertThat(reportedStatuses).containsExactly(CompilationStatusTypes.IN_PROGRESS, CompilationStatusTypes.ERRORED);
+        assertThat(reportedProgress).containsExactly(2, 2);
+        verify(completeSequence, never()).compilationComplete(any());
+    }
+
+    private PrepaymentMarshalling marshalling(long id, int firstMonthIndex, long firstPeriodSequence, int periods) {
+        PrepaymentAccount account = new PrepaymentAccount()
+            .id(10 + id)
+            .particulars("Prepaid rent")
+            .prepaymentAmount(new BigDecimal("1200.00"))
+            .debitAccount(new TransactionAccount().id(30L))
+            .transferAccount(new TransactionAccount().id(31L));
+        return new PrepaymentMarshalling()
+            .id(id)
+            .inactive(false)
+            .processed(false)
+            .amortizationPeriods(periods)
+            .prepaymentAccount(account)
+            .firstFiscalMonth(fiscalMonths.get(firstMonthIndex))
+            .firstAmortizationPeriod(amortizationPeriods.get((int) firstPeriodSequence - 1));
+    }
+
+    private static PrepaymentCompilationRequestDTO request() {
+        PrepaymentCompilationRequestDTO request = new PrepaymentCompilationRequestDTO();
+        request.setId(9L);
+        request.setCompilationToken(UUID.randomUUID());
+        request.setCompilationStatus(CompilationStatusTypes.STARTED);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.erp.security.jwt;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.security.AuthoritiesConstants;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tech.jhipster.config.JHipsterProperties;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token the way the filter used to, verifying
+ * and then parsing the token a second time, against the filter answering from the verified-token
+ * cache. Token sizes run from a plain user (about 200 bytes) to an administrator carrying a few
+ * dozen roles (about 1.4 KB). Run with the main method from the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTFilterBenchmark {
+
+    @Param({ "1", "40" })
+    public int roles;
+
+    private TokenProvider tokenProvider;
+
+    private JWTFilter jwtFilter;
+
+    private String token;
+
+    private MockHttpServletRequest request;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private final FilterChain filterChain = (servletRequest, servletResponse) -> {};
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        jwtFilter = new JWTFilter(tokenProvider);
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        for (int role = 1; role < roles; role++) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_REPORT_DESIGNER_" + role));
+        }
+        token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("dashboard-user", "", authorities), false);
+
+        request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        request.setRequestURI("/api/dashboard/summary");
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * The previous path: verify the token, then parse and verify it again to build the authentication
+     */
+    @Benchmark
+    public Authentication verifyThenParse() {
+        if (tokenProvider.validateToken(token)) {
+            return tokenProvider.getAuthentication(token);
+        }
+        return null;
+    }
+
+    /**
+     * The filter as it runs now, answering a repeated token from the verified-token cache
+     */
+    @Benchmark
+    public Authentication filter() throws IOException, ServletException {
+        jwtFilter.doFilter(request, response, filterChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JWTFilterBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -18,6 +18,7 @@ package io.github.erp.security.jwt;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.erp.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -124,6 +125,52 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testAuthenticateAnswersARepeatedTokenFromTheVerifiedTokenCache() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> first = tokenProvider.authenticate(token);
+        Optional<Authentication> second = tokenProvider.authenticate(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getName()).isEqualTo("anonymous");
+        assertThat(first.get().getCredentials()).hasToString(token);
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(first.get()).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+    }
+
+    @Test
+    void testAuthenticateRejectsForgedAndExpiredTokens() {
+        assertThat(tokenProvider.authenticate(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.authenticate(createUnsupportedToken())).isEmpty();
+
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        assertThat(tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), false))).isEmpty();
+    }
+
+    @Test
+    void testVerifiedAuthenticationIsImmutableAndSharesAuthorities() {
+        Authentication authentication = tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), false)).get();
+        Authentication rememberMe = tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), true)).get();
+
+        assertThat(rememberMe).isNotSameAs(authentication);
+        assertThat(rememberMe.getAuthorities().iterator().next()).isSameAs(authentication.getAuthorities().iterator().next());
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThatThrownBy(() -> authentication.setAuthenticated(false)).isInstanceOf(UnsupportedOperationException.class);
+
+        ((UsernamePasswordAuthenticationToken) authentication).eraseCredentials();
+        assertThat(authentication.getCredentials()).isNotNull();
+    }
+
+    @Test
+    void testVerifiedTokenExpiresNoLaterThanTheToken() {
+        TokenProvider.VerifiedTokenExpiry expiry = new TokenProvider.VerifiedTokenExpiry(300_000, () -> 1_000_000L);
+
+        assertThat(expiry.timeToLiveMillis(1_000_000L + ONE_MINUTE)).isEqualTo(ONE_MINUTE);
+        assertThat(expiry.timeToLiveMillis(1_000_000L + 24 * 60 * ONE_MINUTE)).isEqualTo(300_000);
+        assertThat(expiry.timeToLiveMillis(1_000_000L - ONE_MINUTE)).isZero();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,249 @@
+package io.github.erp.service.consumer;
+
+/*-
+ * Erp System - Mark X No 10 (Jehoiada Series) Server ver 1.8.2
+ * Copyright © 2021 - 2024 Edwin Njeru and the ERP System Contributors (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import io.github.erp.domain.events.audit.AuditTrailEvent;
+import io.github.erp.domain.events.audit.ComplianceAuditEvent;
+import io.github.erp.monitoring.AuditKafkaMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchIndexingConsumerTest {
+
+    private static final String BUSINESS_TOPIC = "erp.audit.prod.business-events.v1";
+    private static final String COMPLIANCE_TOPIC = "erp.audit.prod.compliance-events.v1";
+
+    @Mock
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    @Mock
+    private KafkaTemplate<String, AuditTrailEvent> auditTrailEventKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, ComplianceAuditEvent> complianceAuditEventKafkaTemplate;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ElasticsearchIndexingConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        when(elasticsearchTemplate.getElasticsearchConverter()).thenReturn(converter);
+
+        consumer = new ElasticsearchIndexingConsumer(
+            elasticsearchTemplate,
+            auditTrailEventKafkaTemplate,
+            complianceAuditEventKafkaTemplate,
+            new AuditKafkaMetrics(meterRegistry),
+            ".DLT",
+            3,
+            1
+        );
+    }
+
+    @Test
+    void shouldIndexBatchWithOneBulkRequest() {
+        List<ConsumerRecord<String, AuditTrailEvent>> records = List.of(auditRecord(0), auditRecord(1), auditRecord(2));
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(3, -1, null));
+
+        consumer.consumeAuditEventsForIndexing(records, acknowledgment);
+
+        verify(elasticsearchTemplate, times(1)).execute(any());
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(auditTrailEventKafkaTemplate);
+        assertThat(meterRegistry.get("audit.events.indexed").tag("stream", "audit").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("audit.events.indexing.lag").tag("stream", "audit").gauge()).isNotNull();
+    }
+
+    @Test
+    void shouldDeadLetterDocumentsRejectedByElasticsearch() {
+        List<ConsumerRecord<String, ComplianceAuditEvent>> records = List.of(complianceRecord(0), complianceRecord(1));
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(2, 1, RestStatus.BAD_REQUEST));
+        SettableListenableFuture<SendResult<String, ComplianceAuditEvent>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        when(complianceAuditEventKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        consumer.consumeComplianceEventsForIndexing(records, acknowledgment);
+
+        verify(elasticsearchTemplate, times(1)).execute(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, ComplianceAuditEvent>> deadLetter = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(complianceAuditEventKafkaTemplate).send(deadLetter.capture());
+        assertThat(deadLetter.getValue().topic()).isEqualTo(COMPLIANCE_TOPIC + ".DLT");
+        assertThat(deadLetter.getValue().value()).isSameAs(records.get(1).value());
+        assertThat(deadLetter.getValue().headers().lastHeader(ElasticsearchIndexingConsumer.DEAD_LETTER_REASON_HEADER)).isNotNull();
+        verify(acknowledgment).acknowledge();
+        assertThat(meterRegistry.get("audit.events.indexed").tag("stream", "compliance").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("audit.events.indexing.dead.lettered").tag("stream", "compliance").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDeadLetterRecordsThatCannotBeConverted() {
+        ConsumerRecord<String, AuditTrailEvent> malformed = new ConsumerRecord<>(BUSINESS_TOPIC, 0, 1, "key", null);
+        List<ConsumerRecord<String, AuditTrailEvent>> records = List.of(auditRecord(0), malformed, auditRecord(2));
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(2, -1, null));
+        SettableListenableFuture<SendResult<String, AuditTrailEvent>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        when(auditTrailEventKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        consumer.consumeAuditEventsForIndexing(records, acknowledgment);
+
+        verify(elasticsearchTemplate, times(1)).execute(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, AuditTrailEvent>> deadLetter = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(auditTrailEventKafkaTemplate).send(deadLetter.capture());
+        assertThat(deadLetter.getValue().topic()).isEqualTo(BUSINESS_TOPIC + ".DLT");
+        assertThat(deadLetter.getValue().headers().lastHeader(ElasticsearchIndexingConsumer.DEAD_LETTER_REASON_HEADER)).isNotNull();
+        verify(acknowledgment).acknowledge();
+        assertThat(meterRegistry.get("audit.events.indexed").tag("stream", "audit").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("audit.events.indexing.dead.lettered").tag("stream", "audit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotAcknowledgeWhenBulkRequestFails() {
+        when(elasticsearchTemplate.execute(any())).thenThrow(new ElasticsearchException("cluster unavailable"));
+
+        assertThatThrownBy(() -> consumer.consumeAuditEventsForIndexing(List.of(auditRecord(0)), acknowledgment))
+            .isInstanceOf(ElasticsearchException.class);
+
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(auditTrailEventKafkaTemplate);
+    }
+
+    @Test
+    void shouldRetryDocumentsWhenElasticsearchPushesBack() {
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(2, 0, RestStatus.TOO_MANY_REQUESTS), bulkResponse(1, -1, null));
+
+        consumer.consumeAuditEventsForIndexing(List.of(auditRecord(0), auditRecord(1)), acknowledgment);
+
+        verify(elasticsearchTemplate, times(2)).execute(any());
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(auditTrailEventKafkaTemplate);
+        assertThat(meterRegistry.get("audit.events.indexed").tag("stream", "audit").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldRetryDocumentsFailingWithServerErrors() {
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(3, 1, RestStatus.SERVICE_UNAVAILABLE), bulkResponse(1, -1, null));
+
+        consumer.consumeAuditEventsForIndexing(List.of(auditRecord(0), auditRecord(1), auditRecord(2)), acknowledgment);
+
+        verify(elasticsearchTemplate, times(2)).execute(any());
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(auditTrailEventKafkaTemplate);
+    }
+
+    @Test
+    void shouldDeadLetterDocumentsStillFailingOnceRetriesAreExhausted() {
+        List<ConsumerRecord<String, AuditTrailEvent>> records = List.of(auditRecord(0), auditRecord(1));
+        when(elasticsearchTemplate.execute(any())).thenReturn(bulkResponse(2, 1, RestStatus.INTERNAL_SERVER_ERROR), bulkResponse(1, 0, RestStatus.INTERNAL_SERVER_ERROR));
+        SettableListenableFuture<SendResult<String, AuditTrailEvent>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        when(auditTrailEventKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        consumer.consumeAuditEventsForIndexing(records, acknowledgment);
+
+        verify(elasticsearchTemplate, times(4)).execute(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, AuditTrailEvent>> deadLetter = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(auditTrailEventKafkaTemplate).send(deadLetter.capture());
+        assertThat(deadLetter.getValue().value()).isSameAs(records.get(1).value());
+        verify(acknowledgment).acknowledge();
+        assertThat(meterRegistry.get("audit.events.indexing.dead.lettered").tag("stream", "audit").counter().count()).isEqualTo(1.0);
+    }
+
+    private static BulkResponse bulkResponse(int size, int failedItem, RestStatus status) {
+        BulkItemResponse[] items = new BulkItemResponse[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i == failedItem
+                ? new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                    new BulkItemResponse.Failure("index", "_doc", "id-" + i, new ElasticsearchException("rejected"), status))
+                : new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                    new IndexResponse(new ShardId("index", "uuid", 0), "_doc", "id-" + i, 1, 1, 1, true));
+        }
+        return new BulkResponse(items, 5);
+    }
+
+    private static ConsumerRecord<String, AuditTrailEvent> auditRecord(long offset) {
+        AuditTrailEvent event = new AuditTrailEvent(
+            UUID.randomUUID().toString(),
+            "TEST_ENTITY",
+            "test-user",
+            "CREATE",
+            "TestEntity",
+            "{}",
+            "{\"name\":\"test\"}",
+            "192.168.1.1",
+            "Mozilla/5.0",
+            UUID.randomUUID()
+        );
+        return new ConsumerRecord<>(BUSINESS_TOPIC, 0, offset, event.getAggregateId(), event);
+    }
+
+    private static ConsumerRecord<String, ComplianceAuditEvent> complianceRecord(long offset) {
+        ComplianceAuditEvent event = new ComplianceAuditEvent(
+            UUID.randomUUID().toString(),
+            "TEST_ENTITY",
+            "IFRS16",
+            "IFRS 16.22",
+            "COMPLIANT",
+            "{}",
+            "auditor",
+            "LOW",
+            false,
+            UUID.randomUUID()
+        );
+        return new ConsumerRecord<>(COMPLIANCE_TOPIC, 0, offset, event.getAggregateId(), event);
+    }
+}